@@ -20,8 +20,8 @@ import io.pravega.client.stream.StreamConfiguration;
 import io.pravega.client.stream.impl.ClientFactoryImpl;
 import io.pravega.client.stream.impl.Controller;
 import io.pravega.client.stream.impl.ControllerImpl;
-import io.pravega.client.stream.impl.JavaSerializer;
 import io.pravega.client.stream.impl.ReaderGroupImpl;
+import io.pravega.client.stream.impl.ReaderGroupStateSerializer;
 import io.pravega.client.stream.impl.StreamImpl;
 import io.pravega.common.concurrent.FutureHelpers;
 import io.pravega.shared.NameUtils;
@@ -72,8 +72,8 @@ public class ReaderGroupManagerImpl implements ReaderGroupManager {
         ReaderGroupImpl result = new ReaderGroupImpl(scope,
                                                      groupName,
                                                      synchronizerConfig,
-                                                     new JavaSerializer<>(),
-                                                     new JavaSerializer<>(),
+                                                     new ReaderGroupStateSerializer<>(),
+                                                     new ReaderGroupStateSerializer<>(),
                                                      clientFactory,
                                                      controller);
         result.initializeGroup(config, streams);
@@ -86,8 +86,8 @@ public class ReaderGroupManagerImpl implements ReaderGroupManager {
         return new ReaderGroupImpl(scope,
                                    groupName,
                                    synchronizerConfig,
-                                   new JavaSerializer<>(),
-                                   new JavaSerializer<>(),
+                                   new ReaderGroupStateSerializer<>(),
+                                   new ReaderGroupStateSerializer<>(),
                                    clientFactory,
                                    controller);
     }
@@ -9,38 +9,76 @@
  */
 package io.pravega.client.netty.impl;
 
+import com.google.common.base.Preconditions;
+import io.pravega.client.stream.EventWriterConfig;
+import io.pravega.client.stream.EventWriterConfig.BatchingMode;
 import io.pravega.common.ExponentialMovingAverage;
 import io.pravega.common.MathHelpers;
 import io.pravega.shared.protocol.netty.AppendBatchSizeTracker;
-
+import io.pravega.shared.protocol.netty.WireCommands;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
+import lombok.Data;
 
 /**
  * See {@link AppendBatchSizeTracker}.
  * 
- * This implementation tracks three things:
+ * This implementation tracks four things:
  * 1. The time between appends
  * 2. The size of each append
  * 3. The number of unackedAppends there are outstanding
+ * 4. The time it takes for an append to be acked
  * 
  * If the number of unacked appends is <= 1 batching is disabled. This improves latency for low volume and synchronus writers.
- * Otherwise the batch size is set to the amount of data that will be written in the next {@link #TARGET_BATCH_TIME_MILLIS}
+ * Otherwise the batch size is set to the amount of data that will be written in the next batch window, which depends on
+ * the {@link BatchingMode} in the {@link EventWriterConfig}:
+ * {@link BatchingMode#LATENCY} uses the target batch latency, or the ack round trip time if that is shorter.
+ * {@link BatchingMode#THROUGHPUT} uses the ack round trip time (as that is how much data accumulates while the previous
+ * block is in flight anyway), but no less than the target batch latency and no more than the max batch time.
+ *
+ * In {@link BatchingMode#LATENCY} mode a partially filled block is only held for as long as the batch window (by default
+ * 10ms), as holding it any longer would add latency without making the block any larger than expected. {@link BatchingMode#THROUGHPUT} holds it for up to the max batch time.
+ *
+ * The block size metric is sampled once per ack round trip, along with the ack latency, rather than on every block.
  */
 class AppendBatchSizeTrackerImpl implements AppendBatchSizeTracker {
-    private static final int MAX_BATCH_TIME_MILLIS = 100;
-    private static final int TARGET_BATCH_TIME_MILLIS = 10;
-    private static final int MAX_BATCH_SIZE = 32 * 1024;
+    private final BatchingMode mode;
+    private final double targetBatchLatencyNanos;
+    private final double maxBatchTimeNanos;
+    private final int maxBatchSize;
+    private final int maxBatchTimeMillis;
 
     private final Supplier<Long> clock;
     private final AtomicLong lastAppendNumber;
     private final AtomicLong lastAppendTime;
     private final AtomicLong lastAckNumber;
+    private final AtomicReference<AckSample> outstandingSample = new AtomicReference<>();
+    private final AtomicInteger lastBlockSize = new AtomicInteger();
     private final ExponentialMovingAverage eventSize = new ExponentialMovingAverage(1024, 0.1, true);
-    private final ExponentialMovingAverage millisBetweenAppends = new ExponentialMovingAverage(10, 0.1, false);
+    private final ExponentialMovingAverage nanosBetweenAppends = new ExponentialMovingAverage(TimeUnit.MILLISECONDS.toNanos(10), 0.1, false);
+    private final ExponentialMovingAverage ackLatencyNanos;
 
-    AppendBatchSizeTrackerImpl() {
-        clock = System::currentTimeMillis;
+    AppendBatchSizeTrackerImpl(EventWriterConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    AppendBatchSizeTrackerImpl(EventWriterConfig config, Supplier<Long> nanoClock) {
+        Preconditions.checkNotNull(config.getBatchingMode(), "batchingMode");
+        Preconditions.checkArgument(config.getTargetBatchLatencyMillis() >= 0, "targetBatchLatencyMillis must be non-negative.");
+        Preconditions.checkArgument(config.getMaxBatchTimeMillis() > 0, "maxBatchTimeMillis must be positive.");
+        Preconditions.checkArgument(config.getMaxBatchSizeBytes() >= 0 && config.getMaxBatchSizeBytes() <= WireCommands.MAX_WIRECOMMAND_SIZE,
+                "maxBatchSizeBytes must be between 0 and %s.", WireCommands.MAX_WIRECOMMAND_SIZE);
+        this.mode = config.getBatchingMode();
+        this.targetBatchLatencyNanos = TimeUnit.MILLISECONDS.toNanos(config.getTargetBatchLatencyMillis());
+        this.maxBatchTimeNanos = TimeUnit.MILLISECONDS.toNanos(config.getMaxBatchTimeMillis());
+        this.maxBatchSize = config.getMaxBatchSizeBytes();
+        this.maxBatchTimeMillis = config.getMaxBatchTimeMillis();
+        this.ackLatencyNanos = new ExponentialMovingAverage(targetBatchLatencyNanos, 0.1, true);
+        clock = nanoClock;
         lastAppendTime = new AtomicLong(clock.get());
         lastAckNumber = new AtomicLong(0);
         lastAppendNumber = new AtomicLong(0);
@@ -51,30 +89,58 @@ class AppendBatchSizeTrackerImpl implements AppendBatchSizeTracker {
         long now = Math.max(lastAppendTime.get(), clock.get());
         long last = lastAppendTime.getAndSet(now);
         lastAppendNumber.set(eventNumber);
-        millisBetweenAppends.addNewSample(now - last);
+        nanosBetweenAppends.addNewSample(now - last);
         eventSize.addNewSample(size);
+        // Only one append is timed at a time, so this does not need to keep track of every append in flight.
+        outstandingSample.compareAndSet(null, new AckSample(eventNumber, now));
     }
 
     @Override
     public void recordAck(long eventNumber) {
         lastAckNumber.getAndSet(eventNumber);
+        AckSample sample = outstandingSample.get();
+        if (sample != null && sample.eventNumber <= eventNumber && outstandingSample.compareAndSet(sample, null)) {
+            long latency = Math.max(0, clock.get() - sample.sentTime);
+            ackLatencyNanos.addNewSample(latency);
+            Metrics.APPEND_ACK_LATENCY.reportSuccessEvent(Duration.ofNanos(latency));
+            Metrics.APPEND_BLOCK_SIZE.reportSuccessValue(lastBlockSize.get());
+        }
     }
 
     /**
-     * Returns a block size that in an estimate of how much data will be written in the next {@link #TARGET_BATCH_TIME_MILLIS}
+     * Returns a block size that in an estimate of how much data will be written in the next batch window.
      */
     @Override
     public int getAppendBlockSize() {
         long numInflight = lastAppendNumber.get() - lastAckNumber.get();
-        if (numInflight <= 1) {
-            return 0;
+        int result = 0;
+        if (numInflight > 1) {
+            result = (int) MathHelpers.minMax((long) (getBatchWindowNanos() / Math.max(1.0, nanosBetweenAppends.getCurrentValue())
+                    * eventSize.getCurrentValue()), 0, maxBatchSize);
         }
-        return (int) MathHelpers.minMax((long) (TARGET_BATCH_TIME_MILLIS / millisBetweenAppends.getCurrentValue()
-                * eventSize.getCurrentValue()), 0, MAX_BATCH_SIZE);
+        lastBlockSize.set(result);
+        return result;
     }
 
     @Override
     public int getBatchTimeout() {
-        return MAX_BATCH_TIME_MILLIS;
+        if (mode == BatchingMode.THROUGHPUT) {
+            return maxBatchTimeMillis;
+        }
+        // Don't hold a partial block any longer than it was expected to take to fill.
+        return (int) MathHelpers.minMax(TimeUnit.NANOSECONDS.toMillis((long) getBatchWindowNanos()), 1, maxBatchTimeMillis);
+    }
+
+    private double getBatchWindowNanos() {
+        if (mode == BatchingMode.THROUGHPUT) {
+            return Math.min(maxBatchTimeNanos, Math.max(targetBatchLatencyNanos, ackLatencyNanos.getCurrentValue()));
+        }
+        return Math.min(targetBatchLatencyNanos, ackLatencyNanos.getCurrentValue());
+    }
+
+    @Data
+    private static class AckSample {
+        private final long eventNumber;
+        private final long sentTime;
     }
 }
@@ -17,7 +17,9 @@ import io.netty.channel.ChannelPromise;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 import io.netty.util.concurrent.ScheduledFuture;
+import io.pravega.client.netty.impl.ClientConnection.CompletedCallback;
 import io.pravega.common.concurrent.FutureHelpers;
+import io.pravega.common.segment.StreamSegmentNameUtils;
 import io.pravega.shared.protocol.netty.Append;
 import io.pravega.shared.protocol.netty.AppendBatchSizeTracker;
 import io.pravega.shared.protocol.netty.ConnectionFailedException;
@@ -25,34 +27,185 @@ import io.pravega.shared.protocol.netty.Reply;
 import io.pravega.shared.protocol.netty.ReplyProcessor;
 import io.pravega.shared.protocol.netty.WireCommand;
 import io.pravega.shared.protocol.netty.WireCommands;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import javax.annotation.concurrent.GuardedBy;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Bridges the gap between netty and the ReplyProcessor on the client.
+ * Bridges the gap between netty and the ReplyProcessors on the client.
+ *
+ * A connection is either dedicated to a single {@link ClientSession}, which receives every reply, or shared by
+ * sessions for different segments. When shared, each reply is routed to the session for the segment it refers to.
+ * Replies about a transaction that has no session of its own go to the session of its parent segment. Writers are not
+ * allowed on shared connections, as the server's flow control and error handling for appends apply to the whole
+ * connection.
  */
 @Slf4j
-public class ClientConnectionInboundHandler extends ChannelInboundHandlerAdapter implements ClientConnection {
+public class ClientConnectionInboundHandler extends ChannelInboundHandlerAdapter {
 
     private final String connectionName;
-    private final ReplyProcessor processor;
+    @Getter
+    private final boolean shared;
+    private final Consumer<ClientConnectionInboundHandler> idleListener;
+    private final Consumer<ClientConnectionInboundHandler> closeListener;
     private final AtomicReference<Channel> channel = new AtomicReference<>();
     private final AtomicReference<ScheduledFuture<?>> keepAliveFuture = new AtomicReference<>();
     private final AtomicBoolean recentMessage = new AtomicBoolean(false);
-    private final AppendBatchSizeTracker batchSizeTracker;
+    @Getter
+    private final CompletableFuture<Void> connected = new CompletableFuture<>();
+    private final ReplyRouter router = new ReplyRouter();
 
-    ClientConnectionInboundHandler(String connectionName, ReplyProcessor processor, AppendBatchSizeTracker batchSizeTracker) {
-        Preconditions.checkNotNull(processor);
-        Preconditions.checkNotNull(batchSizeTracker);
+    private final Object lock = new Object();
+    @GuardedBy("lock")
+    private final Map<String, ClientSession> sessionsBySegment = new HashMap<>();
+    @GuardedBy("lock")
+    private ClientSession exclusiveSession;
+    @GuardedBy("lock")
+    private boolean closed = false;
+
+    /**
+     * Creates a new handler.
+     *
+     * @param connectionName The name used to identify the connection in logs.
+     * @param shared         If the connection may be used by sessions for multiple segments.
+     * @param idleListener   Invoked when the last session on a shared connection is closed.
+     * @param closeListener  Invoked once the connection has been closed.
+     */
+    ClientConnectionInboundHandler(String connectionName, boolean shared, Consumer<ClientConnectionInboundHandler> idleListener,
+                                   Consumer<ClientConnectionInboundHandler> closeListener) {
+        Preconditions.checkNotNull(idleListener);
+        Preconditions.checkNotNull(closeListener);
         this.connectionName = connectionName;
-        this.processor = processor;
-        this.batchSizeTracker = batchSizeTracker;
+        this.shared = shared;
+        this.idleListener = idleListener;
+        this.closeListener = closeListener;
+    }
+
+    //region Sessions
+
+    /**
+     * Creates a new session on this connection.
+     *
+     * @param segment          The segment the session is for. (Ignored if the connection is not shared)
+     * @param processor        The processor to send the session's replies to.
+     * @param batchSizeTracker The tracker used to batch the session's appends. (May be null)
+     * @return The new session, or null if this connection cannot host it, because it is closed, is not shared and
+     *         already has a session, or already has a session for the segment.
+     */
+    ClientSession newSession(String segment, ReplyProcessor processor, AppendBatchSizeTracker batchSizeTracker) {
+        Preconditions.checkNotNull(processor);
+        synchronized (lock) {
+            if (closed) {
+                return null;
+            }
+            ClientSession session = new ClientSession(this, segment, processor, batchSizeTracker);
+            if (shared) {
+                Preconditions.checkNotNull(segment);
+                if (sessionsBySegment.containsKey(segment)) {
+                    return null;
+                }
+                sessionsBySegment.put(segment, session);
+            } else {
+                if (exclusiveSession != null) {
+                    return null;
+                }
+                exclusiveSession = session;
+            }
+            return session;
+        }
+    }
+
+    /**
+     * Checks that the given session may set up a writer, which is only the case on a dedicated connection.
+     *
+     * @throws IllegalStateException If this connection is shared.
+     */
+    void checkCanWrite(ClientSession session) {
+        Preconditions.checkState(!shared, "Session for %s cannot write on a shared connection.", session.getSegment());
+    }
+
+    /**
+     * Removes the given session. A dedicated connection is closed along with its session.
+     */
+    void removeSession(ClientSession session) {
+        boolean idle;
+        synchronized (lock) {
+            if (exclusiveSession == session) {
+                exclusiveSession = null;
+            } else if (!sessionsBySegment.remove(session.getSegment(), session)) {
+                return;
+            }
+            idle = sessionsBySegment.isEmpty() && exclusiveSession == null && !closed;
+        }
+        if (!shared) {
+            close();
+        } else if (idle) {
+            idleListener.accept(this);
+        }
     }
 
+    int getSessionCount() {
+        synchronized (lock) {
+            return sessionsBySegment.size() + (exclusiveSession == null ? 0 : 1);
+        }
+    }
+
+    /**
+     * Returns the batch size tracker of the session for the given segment, so that its appends can be batched.
+     *
+     * @param segment The segment being appended to.
+     * @return The tracker, or null if there is no session for the segment.
+     */
+    AppendBatchSizeTracker getBatchSizeTracker(String segment) {
+        ClientSession session;
+        synchronized (lock) {
+            session = getSession(segment);
+        }
+        return session == null ? null : session.getBatchSizeTracker();
+    }
+
+    @GuardedBy("lock")
+    private ClientSession getSession(String segment) {
+        if (exclusiveSession != null) {
+            return exclusiveSession;
+        }
+        if (segment == null) {
+            return null;
+        }
+        ClientSession session = sessionsBySegment.get(segment);
+        if (session == null) {
+            String parent = StreamSegmentNameUtils.getParentStreamSegmentName(segment);
+            if (parent != null) {
+                session = sessionsBySegment.get(parent);
+            }
+        }
+        return session;
+    }
+
+    private List<ClientSession> getAllSessions() {
+        synchronized (lock) {
+            List<ClientSession> result = new ArrayList<>(sessionsBySegment.values());
+            if (exclusiveSession != null) {
+                result.add(exclusiveSession);
+            }
+            return result;
+        }
+    }
+
+    //endregion
+
+    //region Netty
+
     @Override
     public void channelRegistered(ChannelHandlerContext ctx) throws Exception {
         super.channelRegistered(ctx);
@@ -72,7 +225,18 @@ public class ClientConnectionInboundHandler extends ChannelInboundHandlerAdapter
             future.cancel(false);
         }
         channel.set(null);
-        processor.connectionDropped();
+        List<ClientSession> sessions;
+        synchronized (lock) {
+            closed = true;
+            sessions = getAllSessions();
+            sessionsBySegment.clear();
+            exclusiveSession = null;
+        }
+        connected.completeExceptionally(new ConnectionFailedException(connectionName + " Connection closed."));
+        closeListener.accept(this);
+        for (ClientSession session : sessions) {
+            session.getProcessor().connectionDropped();
+        }
         super.channelUnregistered(ctx);
     }
 
@@ -80,48 +244,34 @@ public class ClientConnectionInboundHandler extends ChannelInboundHandlerAdapter
     public void channelRead(ChannelHandlerContext ctx, Object msg) {
         Reply cmd = (Reply) msg;
         log.debug(connectionName + " processing reply: {}", cmd);
-        if (cmd instanceof WireCommands.DataAppended) {
-            batchSizeTracker.recordAck(((WireCommands.DataAppended) cmd).getEventNumber());
-        }
-        try {
-            cmd.process(processor);
-        } catch (Exception e) {
-            processor.processingFailure(e);
-        }
+        cmd.process(router);
     }
 
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
-        processor.processingFailure(new ConnectionFailedException(cause));
+        router.processingFailure(new ConnectionFailedException(cause));
     }
 
-    @Override
-    public void send(WireCommand cmd) throws ConnectionFailedException {
+    //endregion
+
+    //region Sending
+
+    void send(WireCommand cmd) throws ConnectionFailedException {
         recentMessage.set(true);
         FutureHelpers.getAndHandleExceptions(getChannel().writeAndFlush(cmd), ConnectionFailedException::new);
     }
-    
-    @Override
-    public void send(Append append) throws ConnectionFailedException {
-        recentMessage.set(true);
-        batchSizeTracker.recordAppend(append.getEventNumber(), append.getData().readableBytes());
-        FutureHelpers.getAndHandleExceptions(getChannel().writeAndFlush(append), ConnectionFailedException::new);
-    }
 
-    @Override
-    public void sendAsync(WireCommand cmd) {
+    void sendAsync(WireCommand cmd) {
         recentMessage.set(true);
         Channel channel = getChannel();
         channel.writeAndFlush(cmd, channel.voidPromise());
     }
-    
-    @Override
-    public void sendAsync(List<Append> appends, CompletedCallback callback) {
+
+    void sendAsync(List<Append> appends, CompletedCallback callback) {
         recentMessage.set(true);
         Channel channel = getChannel();
         ChannelPromise promise = channel.newPromise();
         for (Append append : appends) {
-            batchSizeTracker.recordAppend(append.getEventNumber(), append.getData().readableBytes());
             channel.write(append, promise);
         }
         channel.flush();
@@ -132,9 +282,11 @@ public class ClientConnectionInboundHandler extends ChannelInboundHandlerAdapter
             }
         });
     }
-    
-    @Override
-    public void close() {
+
+    /**
+     * Closes the underlying channel. All sessions on it are dropped.
+     */
+    void close() {
         Channel ch = channel.get();
         if (ch != null) {
             ch.close();
@@ -146,7 +298,9 @@ public class ClientConnectionInboundHandler extends ChannelInboundHandlerAdapter
         Preconditions.checkState(ch != null, connectionName + " Connection not yet established.");
         return ch;
     }
-    
+
+    //endregion
+
     @RequiredArgsConstructor
     private final class KeepAliveTask implements Runnable {
         private final ChannelHandlerContext ctx;
@@ -164,4 +318,170 @@ public class ClientConnectionInboundHandler extends ChannelInboundHandlerAdapter
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Hands each reply to the processor of the session it belongs to.
+     */
+    private final class ReplyRouter implements ReplyProcessor {
+
+        private void toSegment(String segment, Reply reply) {
+            ClientSession session;
+            synchronized (lock) {
+                session = getSession(segment);
+            }
+            deliver(session, reply);
+        }
+
+        private void toConnection(Reply reply) {
+            ClientSession session;
+            synchronized (lock) {
+                session = exclusiveSession;
+            }
+            if (session != null) {
+                deliver(session, reply);
+            } else {
+                log.debug("{} received {}", connectionName, reply);
+            }
+        }
+
+        private void deliver(ClientSession session, Reply reply) {
+            if (session == null) {
+                log.debug("{} dropping reply for a session that no longer exists: {}", connectionName, reply);
+                return;
+            }
+            try {
+                session.process(reply);
+            } catch (Exception e) {
+                session.getProcessor().processingFailure(e);
+            }
+        }
+
+        @Override
+        public void hello(WireCommands.Hello hello) {
+            toConnection(hello);
+        }
+
+        @Override
+        public void keepAlive(WireCommands.KeepAlive keepAlive) {
+            toConnection(keepAlive);
+        }
+
+        @Override
+        public void wrongHost(WireCommands.WrongHost wrongHost) {
+            toSegment(wrongHost.getSegment(), wrongHost);
+        }
+
+        @Override
+        public void segmentAlreadyExists(WireCommands.SegmentAlreadyExists segmentAlreadyExists) {
+            toSegment(segmentAlreadyExists.getSegment(), segmentAlreadyExists);
+        }
+
+        @Override
+        public void segmentIsSealed(WireCommands.SegmentIsSealed segmentIsSealed) {
+            toSegment(segmentIsSealed.getSegment(), segmentIsSealed);
+        }
+
+        @Override
+        public void noSuchSegment(WireCommands.NoSuchSegment noSuchSegment) {
+            toSegment(noSuchSegment.getSegment(), noSuchSegment);
+        }
+
+        @Override
+        public void noSuchBatch(WireCommands.NoSuchTransaction noSuchBatch) {
+            toSegment(noSuchBatch.getTxn(), noSuchBatch);
+        }
+
+        @Override
+        public void appendSetup(WireCommands.AppendSetup appendSetup) {
+            toSegment(appendSetup.getSegment(), appendSetup);
+        }
+
+        @Override
+        public void dataAppended(WireCommands.DataAppended dataAppended) {
+            toConnection(dataAppended);
+        }
+
+        @Override
+        public void conditionalCheckFailed(WireCommands.ConditionalCheckFailed dataNotAppended) {
+            toConnection(dataNotAppended);
+        }
+
+        @Override
+        public void segmentRead(WireCommands.SegmentRead segmentRead) {
+            toSegment(segmentRead.getSegment(), segmentRead);
+        }
+
+        @Override
+        public void streamSegmentInfo(WireCommands.StreamSegmentInfo streamInfo) {
+            toSegment(streamInfo.getSegmentName(), streamInfo);
+        }
+
+        @Override
+        public void transactionInfo(WireCommands.TransactionInfo transactionInfo) {
+            toSegment(transactionInfo.getSegment(), transactionInfo);
+        }
+
+        @Override
+        public void segmentCreated(WireCommands.SegmentCreated segmentCreated) {
+            toSegment(segmentCreated.getSegment(), segmentCreated);
+        }
+
+        @Override
+        public void transactionCreated(WireCommands.TransactionCreated transactionCreated) {
+            toSegment(transactionCreated.getSegment(), transactionCreated);
+        }
+
+        @Override
+        public void transactionCommitted(WireCommands.TransactionCommitted transactionCommitted) {
+            toSegment(transactionCommitted.getSegment(), transactionCommitted);
+        }
+
+        @Override
+        public void transactionAborted(WireCommands.TransactionAborted transactionAborted) {
+            toSegment(transactionAborted.getSegment(), transactionAborted);
+        }
+
+        @Override
+        public void segmentSealed(WireCommands.SegmentSealed segmentSealed) {
+            toSegment(segmentSealed.getSegment(), segmentSealed);
+        }
+
+        @Override
+        public void segmentDeleted(WireCommands.SegmentDeleted segmentDeleted) {
+            toSegment(segmentDeleted.getSegment(), segmentDeleted);
+        }
+
+        @Override
+        public void segmentPolicyUpdated(WireCommands.SegmentPolicyUpdated segmentPolicyUpdated) {
+            toSegment(segmentPolicyUpdated.getSegment(), segmentPolicyUpdated);
+        }
+
+        @Override
+        public void segmentsCreated(WireCommands.SegmentsCreated segmentsCreated) {
+            toConnection(segmentsCreated);
+        }
+
+        @Override
+        public void segmentsSealed(WireCommands.SegmentsSealed segmentsSealed) {
+            toConnection(segmentsSealed);
+        }
+
+        @Override
+        public void transactionsCommitted(WireCommands.TransactionsCommitted transactionsCommitted) {
+            toConnection(transactionsCommitted);
+        }
+
+        @Override
+        public void connectionDropped() {
+            for (ClientSession session : getAllSessions()) {
+                session.getProcessor().connectionDropped();
+            }
+        }
+
+        @Override
+        public void processingFailure(Exception error) {
+            for (ClientSession session : getAllSessions()) {
+                session.getProcessor().processingFailure(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.netty.impl;
+
+import io.pravega.shared.protocol.netty.Append;
+import io.pravega.shared.protocol.netty.AppendBatchSizeTracker;
+import io.pravega.shared.protocol.netty.ConnectionFailedException;
+import io.pravega.shared.protocol.netty.Reply;
+import io.pravega.shared.protocol.netty.ReplyProcessor;
+import io.pravega.shared.protocol.netty.WireCommand;
+import io.pravega.shared.protocol.netty.WireCommands;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A {@link ClientConnection} for a single segment that may share its underlying connection
+ * with the sessions for other segments. Closing a session does not close a shared connection.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+class ClientSession implements ClientConnection {
+
+    private final ClientConnectionInboundHandler handler;
+    @Getter(AccessLevel.PACKAGE)
+    private final String segment;
+    @Getter(AccessLevel.PACKAGE)
+    private final ReplyProcessor processor;
+    @Getter(AccessLevel.PACKAGE)
+    private final AppendBatchSizeTracker batchSizeTracker;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    @Override
+    public void send(WireCommand cmd) throws ConnectionFailedException {
+        checkIfSetup(cmd);
+        handler.send(cmd);
+    }
+
+    @Override
+    public void send(Append append) throws ConnectionFailedException {
+        recordAppend(append);
+        handler.send(append);
+    }
+
+    @Override
+    public void sendAsync(WireCommand cmd) {
+        checkIfSetup(cmd);
+        handler.sendAsync(cmd);
+    }
+
+    @Override
+    public void sendAsync(List<Append> appends, CompletedCallback callback) {
+        for (Append append : appends) {
+            recordAppend(append);
+        }
+        handler.sendAsync(appends, callback);
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            handler.removeSession(this);
+        }
+    }
+
+    /**
+     * Passes a reply that was routed to this session on to its processor.
+     */
+    void process(Reply reply) {
+        if (batchSizeTracker != null && reply instanceof WireCommands.DataAppended) {
+            batchSizeTracker.recordAck(((WireCommands.DataAppended) reply).getEventNumber());
+        }
+        reply.process(processor);
+    }
+
+    private void checkIfSetup(WireCommand cmd) {
+        if (cmd instanceof WireCommands.SetupAppend) {
+            handler.checkCanWrite(this);
+        }
+    }
+
+    private void recordAppend(Append append) {
+        if (batchSizeTracker != null) {
+            batchSizeTracker.recordAppend(append.getEventNumber(), append.getData().readableBytes());
+        }
+    }
+}
@@ -11,6 +11,7 @@ package io.pravega.client.netty.impl;
 
 import java.util.concurrent.CompletableFuture;
 
+import io.pravega.client.stream.EventWriterConfig;
 import io.pravega.shared.protocol.netty.PravegaNodeUri;
 import io.pravega.shared.protocol.netty.ReplyProcessor;
 
@@ -21,7 +22,8 @@ import io.pravega.shared.protocol.netty.ReplyProcessor;
 public interface ConnectionFactory extends AutoCloseable {
 
     /**
-     * Establishes a connection between server and client with given parameters.
+     * Establishes a connection between server and client with given parameters. The connection is dedicated to the
+     * caller, and all replies received on it are passed to the provided reply processor.
      *
      * @param endpoint The Pravega Node URI.
      * @param rp       Reply Processor instance.
@@ -29,6 +31,35 @@ public interface ConnectionFactory extends AutoCloseable {
      */
     CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri endpoint, ReplyProcessor rp);
 
+    /**
+     * Establishes a connection for requests about the given segment (or its transactions). The implementation may
+     * multiplex it over a connection that is shared with other segments on the same host, in which case only replies
+     * about this segment are passed to the provided reply processor.
+     *
+     * @param endpoint The Pravega Node URI.
+     * @param segment  The fully qualified name of the segment the connection is for.
+     * @param rp       Reply Processor instance.
+     * @return An instance of client connection.
+     */
+    default CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri endpoint, String segment, ReplyProcessor rp) {
+        return establishConnection(endpoint, rp);
+    }
+
+    /**
+     * Establishes a connection that will be used to write events to the given segment. Appends sent over it are
+     * batched according to the provided config.
+     *
+     * @param endpoint The Pravega Node URI.
+     * @param segment  The fully qualified name of the segment being written to.
+     * @param rp       Reply Processor instance.
+     * @param config   The config of the writer the connection is for.
+     * @return An instance of client connection.
+     */
+    default CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri endpoint, String segment, ReplyProcessor rp,
+                                                                    EventWriterConfig config) {
+        return establishConnection(endpoint, segment, rp);
+    }
+
     @Override
     void close();
 
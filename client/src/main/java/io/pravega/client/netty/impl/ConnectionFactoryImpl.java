@@ -11,9 +11,15 @@ package io.pravega.client.netty.impl;
 
 
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.concurrent.GuardedBy;
 import javax.net.ssl.SSLException;
+import io.pravega.client.stream.EventWriterConfig;
 import io.pravega.common.Exceptions;
 import io.pravega.shared.protocol.netty.AppendBatchSizeTracker;
 import io.pravega.shared.protocol.netty.CommandDecoder;
@@ -24,6 +30,7 @@ import io.pravega.shared.protocol.netty.ReplyProcessor;
 import com.google.common.base.Preconditions;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
@@ -40,15 +47,31 @@ import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.FingerprintTrustManagerFactory;
 import io.pravega.shared.protocol.netty.WireCommands;
+import lombok.Synchronized;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Connection factory that keeps a small pool of connections to each host. Connections established for a segment
+ * are multiplexed over the pooled connections, each of which hosts at most one session per segment. Connections
+ * established without a segment, or for writing to a segment, get a dedicated connection that is closed along with
+ * them.
+ */
 @Slf4j
 public final class ConnectionFactoryImpl implements ConnectionFactory {
 
-    private final boolean ssl;
+    /**
+     * The number of connections kept open to each host, unless more are needed because a segment already has a session
+     * on all of them.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 4;
+
+    private final SslContext sslCtx;
+    private final int maxConnectionsPerHost;
     private EventLoopGroup group;
     private boolean nio = false;
     private final AtomicBoolean closed = new AtomicBoolean(false);
+    @GuardedBy("$lock")
+    private final Map<PravegaNodeUri, List<ClientConnectionInboundHandler>> connections = new HashMap<>();
 
     /**
      * Actual implementation of ConnectionFactory interface.
@@ -56,7 +79,30 @@ public final class ConnectionFactoryImpl implements ConnectionFactory {
      * @param ssl Whether connection should use SSL or not.
      */
     public ConnectionFactoryImpl(boolean ssl) {
-        this.ssl = ssl;
+        this(ssl, DEFAULT_MAX_CONNECTIONS_PER_HOST);
+    }
+
+    /**
+     * Actual implementation of ConnectionFactory interface.
+     *
+     * @param ssl                   Whether connection should use SSL or not.
+     * @param maxConnectionsPerHost The number of connections to each host that segments are multiplexed over.
+     */
+    public ConnectionFactoryImpl(boolean ssl, int maxConnectionsPerHost) {
+        Preconditions.checkArgument(maxConnectionsPerHost > 0, "maxConnectionsPerHost must be positive");
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        if (ssl) {
+            try {
+                this.sslCtx = SslContextBuilder.forClient()
+                                               .trustManager(FingerprintTrustManagerFactory
+                                                       .getInstance(FingerprintTrustManagerFactory.getDefaultAlgorithm()))
+                                               .build();
+            } catch (SSLException | NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
+        } else {
+            this.sslCtx = null;
+        }
         try {
             this.group = new EpollEventLoopGroup();
         } catch (ExceptionInInitializerError | NoClassDefFoundError e) {
@@ -68,27 +114,115 @@ public final class ConnectionFactoryImpl implements ConnectionFactory {
 
     @Override
     public CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri location, ReplyProcessor rp) {
+        return establishDedicatedConnection(location, null, rp, null);
+    }
+
+    @Override
+    public CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri location, String segment, ReplyProcessor rp) {
+        return establishSharedConnection(location, segment, rp, null);
+    }
+
+    /**
+     * Writers always get a dedicated connection. The server applies backpressure to appends by pausing reads from the
+     * whole connection, and closes the connection if an append fails, so a writer would stall or drop every other
+     * session it shared a connection with.
+     */
+    @Override
+    public CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri location, String segment, ReplyProcessor rp,
+                                                                   EventWriterConfig config) {
+        Preconditions.checkNotNull(segment);
+        Preconditions.checkNotNull(config);
+        return establishDedicatedConnection(location, segment, rp, new AppendBatchSizeTrackerImpl(config));
+    }
+
+    private CompletableFuture<ClientConnection> establishDedicatedConnection(PravegaNodeUri location, String segment,
+                                                                             ReplyProcessor rp, AppendBatchSizeTracker batchSizeTracker) {
         Preconditions.checkNotNull(location);
         Exceptions.checkNotClosed(closed.get(), this);
-        final SslContext sslCtx;
-        if (ssl) {
-            try {
-                sslCtx = SslContextBuilder.forClient()
-                                          .trustManager(FingerprintTrustManagerFactory
-                                                  .getInstance(FingerprintTrustManagerFactory.getDefaultAlgorithm()))
-                                          .build();
-            } catch (SSLException | NoSuchAlgorithmException e) {
-                throw new RuntimeException(e);
+        ClientConnectionInboundHandler handler = new ClientConnectionInboundHandler(location.getEndpoint(), false,
+                h -> { }, h -> { });
+        ClientSession session = handler.newSession(segment, rp, batchSizeTracker);
+        connect(location, handler, null);
+        return handler.getConnected().thenApply(v -> session);
+    }
+
+    private CompletableFuture<ClientConnection> establishSharedConnection(PravegaNodeUri location, String segment,
+                                                                          ReplyProcessor rp, AppendBatchSizeTracker batchSizeTracker) {
+        Preconditions.checkNotNull(location);
+        Preconditions.checkNotNull(segment);
+        Exceptions.checkNotClosed(closed.get(), this);
+        ClientConnectionInboundHandler handler = selectConnection(location, segment);
+        ClientSession session = handler == null ? null : handler.newSession(segment, rp, batchSizeTracker);
+        if (session == null) {
+            handler = new ClientConnectionInboundHandler(location.getEndpoint(), true,
+                    h -> connectionIdle(location, h), h -> connectionClosed(location, h));
+            session = handler.newSession(segment, rp, batchSizeTracker);
+            addConnection(location, handler);
+            connect(location, handler, location);
+        }
+        ClientSession result = session;
+        return handler.getConnected().thenApply(v -> result);
+    }
+
+    /**
+     * Picks the least loaded pooled connection to the given host that can host a session for the segment, or returns
+     * null if a new connection should be opened instead.
+     */
+    @Synchronized
+    private ClientConnectionInboundHandler selectConnection(PravegaNodeUri location, String segment) {
+        List<ClientConnectionInboundHandler> pool = connections.get(location);
+        if (pool == null) {
+            return null;
+        }
+        ClientConnectionInboundHandler best = null;
+        int bestCount = Integer.MAX_VALUE;
+        for (ClientConnectionInboundHandler handler : pool) {
+            int count = handler.getSessionCount();
+            if (count < bestCount) {
+                best = handler;
+                bestCount = count;
             }
-        } else {
-            sslCtx = null;
         }
-        AppendBatchSizeTracker batchSizeTracker = new AppendBatchSizeTrackerImpl();
-        ClientConnectionInboundHandler handler = new ClientConnectionInboundHandler(location.getEndpoint(), rp, batchSizeTracker);
+        if (best == null || (bestCount > 0 && pool.size() < maxConnectionsPerHost)) {
+            return null;
+        }
+        return best;
+    }
+
+    @Synchronized
+    private void addConnection(PravegaNodeUri location, ClientConnectionInboundHandler handler) {
+        connections.computeIfAbsent(location, k -> new ArrayList<>()).add(handler);
+    }
+
+    /**
+     * Closes connections that were opened beyond the per host limit once nothing is using them.
+     */
+    @Synchronized
+    private void connectionIdle(PravegaNodeUri location, ClientConnectionInboundHandler handler) {
+        List<ClientConnectionInboundHandler> pool = connections.get(location);
+        if (pool != null && pool.size() > maxConnectionsPerHost && handler.getSessionCount() == 0) {
+            pool.remove(handler);
+            handler.close();
+        }
+    }
+
+    @Synchronized
+    private void connectionClosed(PravegaNodeUri location, ClientConnectionInboundHandler handler) {
+        List<ClientConnectionInboundHandler> pool = connections.get(location);
+        if (pool != null) {
+            pool.remove(handler);
+            if (pool.isEmpty()) {
+                connections.remove(location);
+            }
+        }
+    }
+
+    private void connect(PravegaNodeUri location, ClientConnectionInboundHandler handler, PravegaNodeUri pooledAt) {
         Bootstrap b = new Bootstrap();
         b.group(group)
          .channel(nio ? NioSocketChannel.class : EpollSocketChannel.class)
          .option(ChannelOption.TCP_NODELAY, true)
+         .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
          .handler(new ChannelInitializer<SocketChannel>() {
              @Override
              public void initChannel(SocketChannel ch) throws Exception {
@@ -98,7 +232,7 @@ public final class ConnectionFactoryImpl implements ConnectionFactory {
                  }
                  // p.addLast(new LoggingHandler(LogLevel.INFO));
                  p.addLast(new ExceptionLoggingHandler(location.getEndpoint()),
-                         new CommandEncoder(batchSizeTracker),
+                         new CommandEncoder(handler::getBatchSizeTracker),
                          new LengthFieldBasedFrameDecoder(WireCommands.MAX_WIRECOMMAND_SIZE, 4, 4),
                          new CommandDecoder(),
                          handler);
@@ -106,22 +240,27 @@ public final class ConnectionFactoryImpl implements ConnectionFactory {
          });
 
         // Start the client.
-        CompletableFuture<ClientConnection> result = new CompletableFuture<>();
         try {
             b.connect(location.getEndpoint(), location.getPort()).addListener(new ChannelFutureListener() {
                 @Override
                 public void operationComplete(ChannelFuture future) {
                     if (future.isSuccess()) {
-                        result.complete(handler);
+                        handler.getConnected().complete(null);
                     } else {
-                        result.completeExceptionally(future.cause());
+                        connectFailed(handler, pooledAt, future.cause());
                     }
                 }
             });
         } catch (Exception e) {
-            result.completeExceptionally(e);
+            connectFailed(handler, pooledAt, e);
+        }
+    }
+
+    private void connectFailed(ClientConnectionInboundHandler handler, PravegaNodeUri pooledAt, Throwable cause) {
+        if (pooledAt != null) {
+            connectionClosed(pooledAt, handler);
         }
-        return result;
+        handler.getConnected().completeExceptionally(cause);
     }
 
     @Override
@@ -136,4 +275,4 @@ public final class ConnectionFactoryImpl implements ConnectionFactory {
     protected void finalize() {
         close();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.netty.impl;
+
+import io.pravega.shared.MetricsNames;
+import io.pravega.shared.metrics.MetricsProvider;
+import io.pravega.shared.metrics.OpStatsLogger;
+import io.pravega.shared.metrics.StatsLogger;
+
+/**
+ * Defines all Metrics used by the client's connections.
+ */
+final class Metrics {
+    private static final StatsLogger CLIENT_LOGGER = MetricsProvider.createStatsLogger("client");
+    static final OpStatsLogger APPEND_BLOCK_SIZE = CLIENT_LOGGER.createStats(MetricsNames.CLIENT_APPEND_BLOCK_SIZE);
+    static final OpStatsLogger APPEND_ACK_LATENCY = CLIENT_LOGGER.createStats(MetricsNames.CLIENT_APPEND_ACK_LATENCY);
+}
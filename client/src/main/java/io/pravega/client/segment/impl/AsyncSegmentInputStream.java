@@ -39,6 +39,11 @@ abstract class AsyncSegmentInputStream implements AutoCloseable {
          * @param timeout The maximum number of milliseconds to block
          */
         boolean await(long timeout);
+
+        /**
+         * @return A future that completes normally once the read is done, regardless of whether it succeeded or not.
+         */
+        CompletableFuture<Void> whenDone();
     }
     
     /**
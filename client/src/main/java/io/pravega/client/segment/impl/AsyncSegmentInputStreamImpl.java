@@ -152,6 +152,11 @@ class AsyncSegmentInputStreamImpl extends AsyncSegmentInputStream {
             return FutureHelpers.await(result.get());
         }
 
+        @Override
+        public CompletableFuture<Void> whenDone() {
+            return result.get().handle((r, e) -> null);
+        }
+
         private WireCommands.SegmentRead get() throws ExecutionException {
             return Exceptions.handleInterrupted(() -> result.get().get());
         }
@@ -236,7 +241,7 @@ class AsyncSegmentInputStreamImpl extends AsyncSegmentInputStream {
         return controller.getEndpointForSegment(segmentId.getScopedName()).thenCompose((PravegaNodeUri uri) -> {
             synchronized (lock) {
                 if (connection == null) {
-                    connection = connectionFactory.establishConnection(uri, responseProcessor);
+                    connection = connectionFactory.establishConnection(uri, segmentId.getScopedName(), responseProcessor);
                 }
                 return connection; 
             } 
@@ -12,6 +12,7 @@ package io.pravega.client.segment.impl;
 import io.pravega.client.stream.EventStreamWriter;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Defines a InputStream for a single segment. 
@@ -95,4 +96,15 @@ public interface SegmentInputStream extends AutoCloseable {
      * @return False if data read is blocking.
      */
     public boolean canReadWithoutBlocking();
+
+    /**
+     * Returns a future that completes once there is something for {@link #read(long)} to act on without waiting for
+     * the network: either an event header is buffered, the end of the segment was reached, or the outstanding request
+     * to fill the buffer has completed (successfully or not). This allows waiting on many segments at once, rather than
+     * polling them. If the buffer is full but does not hold a complete header, nothing can change until the stream is
+     * read from, so the returned future does not complete.
+     *
+     * @return A future that completes normally when the condition above is met.
+     */
+    public CompletableFuture<Void> onDataAvailable();
 }
@@ -15,6 +15,7 @@ import io.pravega.common.util.CircularBuffer;
 import com.google.common.base.Preconditions;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
 
 import javax.annotation.concurrent.GuardedBy;
 
@@ -201,6 +202,21 @@ class SegmentInputStreamImpl implements SegmentInputStream {
         return result;
     }
 
+    @Override
+    @Synchronized
+    public CompletableFuture<Void> onDataAvailable() {
+        issueRequestIfNeeded();
+        if (buffer.dataAvailable() >= WireCommands.TYPE_PLUS_LENGTH_SIZE || receivedEndOfSegment) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (outstandingRequest == null) {
+            // The buffer has no room for another request, so nothing can change until it is read from. Returning a
+            // completed future here would make anyone waiting on it spin.
+            return new CompletableFuture<>();
+        }
+        return outstandingRequest.whenDone();
+    }
+
     @Override
     public Segment getSegmentId() {
         return asyncInput.getSegmentId();
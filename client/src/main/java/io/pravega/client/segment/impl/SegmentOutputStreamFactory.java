@@ -9,6 +9,7 @@
  */
 package io.pravega.client.segment.impl;
 
+import io.pravega.client.stream.EventWriterConfig;
 import java.util.UUID;
 
 /**
@@ -21,9 +22,10 @@ public interface SegmentOutputStreamFactory {
      *
      * @param segment The segment the transaction belongs to.
      * @param txId    The transaction id.
+     * @param config  The config of the writer the stream is for.
      * @return New instance of SegmentOutputStream with an open transaction.
      */
-    SegmentOutputStream createOutputStreamForTransaction(Segment segment, UUID txId);
+    SegmentOutputStream createOutputStreamForTransaction(Segment segment, UUID txId, EventWriterConfig config);
 
     /**
      * Creates a stream for an existing segment. This operation will fail if the segment does not
@@ -33,7 +35,8 @@ public interface SegmentOutputStreamFactory {
      * in the same process space).
      *
      * @param segment The segment.
+     * @param config  The config of the writer the stream is for.
      * @return New instance of SegmentOutputStream for writing.
      */
-    SegmentOutputStream createOutputStreamForSegment(Segment segment);
+    SegmentOutputStream createOutputStreamForSegment(Segment segment, EventWriterConfig config);
 }
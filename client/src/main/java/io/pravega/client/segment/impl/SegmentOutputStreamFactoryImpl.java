@@ -19,6 +19,7 @@ import io.pravega.shared.protocol.netty.FailingReplyProcessor;
 import io.pravega.shared.protocol.netty.WireCommands;
 import io.pravega.client.netty.impl.ClientConnection;
 import io.pravega.client.netty.impl.ConnectionFactory;
+import io.pravega.client.stream.EventWriterConfig;
 import io.pravega.client.stream.impl.ConnectionClosedException;
 import org.apache.commons.lang.NotImplementedException;
 
@@ -39,7 +40,7 @@ public class SegmentOutputStreamFactoryImpl implements SegmentOutputStreamFactor
     private final ConnectionFactory cf;
 
     @Override
-    public SegmentOutputStream createOutputStreamForTransaction(Segment segment, UUID txId) {
+    public SegmentOutputStream createOutputStreamForTransaction(Segment segment, UUID txId, EventWriterConfig config) {
         CompletableFuture<String> name = new CompletableFuture<>();
         FailingReplyProcessor replyProcessor = new FailingReplyProcessor() {
 
@@ -64,8 +65,9 @@ public class SegmentOutputStreamFactoryImpl implements SegmentOutputStreamFactor
             }
         };
         controller.getEndpointForSegment(segment.getScopedName()).thenCompose((PravegaNodeUri endpointForSegment) -> {
-            return cf.establishConnection(endpointForSegment, replyProcessor);
+            return cf.establishConnection(endpointForSegment, segment.getScopedName(), replyProcessor);
         }).thenAccept((ClientConnection connection) -> {
+            name.whenComplete((txnName, e) -> connection.close());
             try {
                 connection.send(new WireCommands.GetTransactionInfo(1, segment.getScopedName(), txId));
             } catch (ConnectionFailedException e) {
@@ -75,12 +77,12 @@ public class SegmentOutputStreamFactoryImpl implements SegmentOutputStreamFactor
             name.completeExceptionally(t);
             return null;
         });
-        return new SegmentOutputStreamImpl( getAndHandleExceptions(name, RuntimeException::new), controller, cf, UUID.randomUUID());
+        return new SegmentOutputStreamImpl( getAndHandleExceptions(name, RuntimeException::new), controller, cf, UUID.randomUUID(), config);
     }
 
     @Override
-    public SegmentOutputStream createOutputStreamForSegment(Segment segment) {
-        SegmentOutputStreamImpl result = new SegmentOutputStreamImpl(segment.getScopedName(), controller, cf, UUID.randomUUID());
+    public SegmentOutputStream createOutputStreamForSegment(Segment segment, EventWriterConfig config) {
+        SegmentOutputStreamImpl result = new SegmentOutputStreamImpl(segment.getScopedName(), controller, cf, UUID.randomUUID(), config);
         try {
             result.getConnection();
         } catch (RetriesExhaustedException | SegmentSealedException e) {
@@ -13,6 +13,7 @@ import com.google.common.annotations.VisibleForTesting;
 import io.netty.buffer.Unpooled;
 import io.pravega.client.netty.impl.ClientConnection;
 import io.pravega.client.netty.impl.ConnectionFactory;
+import io.pravega.client.stream.EventWriterConfig;
 import io.pravega.client.stream.impl.Controller;
 import io.pravega.client.stream.impl.PendingEvent;
 import io.pravega.common.Exceptions;
@@ -70,6 +71,7 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
     private final ConnectionFactory connectionFactory;
     private final Supplier<Long> requestIdGenerator = new AtomicLong(0)::incrementAndGet;
     private final UUID connectionId;
+    private final EventWriterConfig config;
     private final State state = new State();
     private final ResponseProcessor responseProcessor = new ResponseProcessor();
 
@@ -364,7 +366,7 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
         if (state.getConnection() == null) {
             CompletableFuture<ClientConnection> newConnection = controller.getEndpointForSegment(segmentName)
                 .thenCompose((PravegaNodeUri uri) -> {
-                    return connectionFactory.establishConnection(uri, responseProcessor);
+                    return connectionFactory.establishConnection(uri, segmentName, responseProcessor, config);
                 });
             ClientConnection connection = getAndHandleExceptions(newConnection, ConnectionFailedException::new);
             state.newConnection(connection);
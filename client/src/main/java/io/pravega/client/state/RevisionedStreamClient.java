@@ -11,6 +11,7 @@ package io.pravega.client.state;
 
 import java.util.Iterator;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Provides a stream that can be read and written to with strong consistency.
@@ -36,6 +37,18 @@ public interface RevisionedStreamClient<T> {
      */
     Iterator<Entry<Revision, T>> readFrom(Revision start);
 
+    /**
+     * Returns a future that completes once data has been written to the stream after the provided revision.
+     * A read is kept open at the tail of the stream until this happens, so new data is learned about as soon as it is
+     * written rather than by periodically calling {@link #readFrom(Revision)}.
+     * The future may also complete without any new data having been written (for example if the connection is lost),
+     * so callers should not assume that {@link #readFrom(Revision)} will return anything.
+     *
+     * @param revision The revision after which to wait for data.
+     * @return A future that completes once there may be data after the provided revision.
+     */
+    CompletableFuture<Void> awaitUpdates(Revision revision);
+
     /**
      * If the supplied revision is the latest revision in the stream write the provided value and return the new revision.
      * If the supplied revision is not the latest, nothing will occur and null will be returned.
@@ -10,6 +10,7 @@
 package io.pravega.client.state;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 /**
@@ -48,6 +49,17 @@ public interface StateSynchronizer<StateT extends Revisioned> {
      */
     void fetchUpdates();
 
+    /**
+     * Returns a future that completes once updates have been written that are not yet reflected in the state object
+     * currently held in memory. Unlike {@link #fetchUpdates()} this does not poll: a read is kept open at the tail of
+     * the stream, so the future completes as soon as another process persists an update. The future may also complete
+     * spuriously, and completing it does not apply anything, so it should be followed by a call to
+     * {@link #fetchUpdates()}.
+     *
+     * @return A future that completes once there may be updates to fetch.
+     */
+    CompletableFuture<Void> awaitUpdates();
+
     /**
      * Creates a new update for the latest state object and applies it atomically.
      * 
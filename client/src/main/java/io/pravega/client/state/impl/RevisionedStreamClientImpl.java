@@ -38,6 +38,11 @@ public class RevisionedStreamClientImpl<T> implements RevisionedStreamClient<T>
     private final Segment segment;
     @GuardedBy("lock")
     private final SegmentInputStream in;
+    /**
+     * Used only to wait for data at the tail of the segment, so that reads do not disturb the outstanding wait.
+     */
+    @GuardedBy("lock")
+    private final SegmentInputStream tailIn;
     @GuardedBy("lock")
     private final SegmentOutputStream out;
     private final Serializer<T> serializer;
@@ -97,6 +102,16 @@ public class RevisionedStreamClientImpl<T> implements RevisionedStreamClient<T>
         }
     }
     
+    @Override
+    public CompletableFuture<Void> awaitUpdates(Revision revision) {
+        synchronized (lock) {
+            long offset = revision.asImpl().getOffsetInSegment();
+            log.trace("Awaiting updates after {}", offset);
+            tailIn.setOffset(offset);
+            return tailIn.onDataAvailable();
+        }
+    }
+
     @Override
     public Revision fetchRevision() {
         synchronized (lock) {
@@ -19,6 +19,7 @@ import io.pravega.client.state.Update;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import javax.annotation.concurrent.GuardedBy;
 import lombok.Synchronized;
@@ -77,6 +78,11 @@ public class StateSynchronizerImpl<StateT extends Revisioned>
         }
     }
 
+    @Override
+    public CompletableFuture<Void> awaitUpdates() {
+        return client.awaitUpdates(getRevision());
+    }
+
     private void applyUpdates(Revision readRevision, List<? extends Update<StateT>> updates) {
         int i = 0;
         for (Update<StateT> update : updates) {
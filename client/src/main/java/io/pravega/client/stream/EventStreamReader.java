@@ -10,6 +10,11 @@
 package io.pravega.client.stream;
 
 import io.pravega.client.segment.impl.NoSuchEventException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * A reader for a stream.
@@ -35,6 +40,53 @@ public interface EventStreamReader<T> extends AutoCloseable {
      */
     EventRead<T> readNextEvent(long timeout) throws ReinitializationRequiredException;
 
+    /**
+     * Asynchronous version of {@link #readNextEvent(long)}. The returned future completes as soon as an event becomes
+     * available in any of the segments owned by this reader, rather than having a thread wait for it.
+     * <p>
+     * The result is the same as that of {@link #readNextEvent(long)}: if the timeout is reached the future completes with
+     * an {@link EventRead} whose {@link EventRead#getEvent()} is null. Only one read (synchronous or asynchronous) should
+     * be outstanding on a reader at any given time.
+     *
+     * @param timeout            An upper bound on how long it may take for the future to complete.
+     * @param backgroundExecutor An executor to run the read attempts on.
+     * @return A future for the next {@link EventRead}. It will fail with {@link ReinitializationRequiredException}
+     *         under the same conditions in which {@link #readNextEvent(long)} throws it.
+     */
+    default CompletableFuture<EventRead<T>> readNextEventAsync(long timeout, ScheduledExecutorService backgroundExecutor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return readNextEvent(timeout);
+            } catch (ReinitializationRequiredException e) {
+                throw new CompletionException(e);
+            }
+        }, backgroundExecutor);
+    }
+
+    /**
+     * Gets the next events in the stream. This blocks for up to timeout waiting for the first event, exactly like
+     * {@link #readNextEvent(long)}, and then returns it along with any further events (up to maxEvents in total) that
+     * can be read without blocking.
+     * <p>
+     * If the timeout is reached or the reader is at a checkpoint, the result contains a single {@link EventRead} with
+     * a null {@link EventRead#getEvent()}, the same one that {@link #readNextEvent(long)} would have returned.
+     * <p>
+     * All the events in a batch share the same {@link EventRead#getPosition()}, which is the position of the reader
+     * after the last event in the batch. A position obtained from a batch should therefore only be persisted once all
+     * the events in that batch have been processed.
+     *
+     * @param maxEvents The maximum number of events to return.
+     * @param timeout   An upper bound on how long the call may block waiting for the first event.
+     * @return A non-empty list of {@link EventRead}, in the order in which they were read.
+     * @throws ReinitializationRequiredException Is throw in the event that
+     *         {@link ReaderGroup#resetReadersToCheckpoint(Checkpoint)} or
+     *         {@link ReaderGroup#alterConfig(ReaderGroupConfig, java.util.Set)} was called
+     *         which requires readers to be reinitialized.
+     */
+    default List<EventRead<T>> readNextEvents(int maxEvents, long timeout) throws ReinitializationRequiredException {
+        return Collections.singletonList(readNextEvent(timeout));
+    }
+
     /**
      * Gets the configuration that this reader was created with.
      *
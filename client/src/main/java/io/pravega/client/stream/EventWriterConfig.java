@@ -24,11 +24,58 @@ public class EventWriterConfig implements Serializable {
     private final int retryAttempts;
     private final int backoffMultiple;
 
+    /**
+     * How appends are grouped into blocks on the wire. See {@link BatchingMode}.
+     */
+    private final BatchingMode batchingMode;
+
+    /**
+     * The longest an append should wait for other appends to be batched with it, when using
+     * {@link BatchingMode#LATENCY}. This is further limited to the observed time for an append to be acknowledged,
+     * as waiting longer than that would not reduce the number of appends in flight. This is also the lower bound of the
+     * batch window when using {@link BatchingMode#THROUGHPUT}.
+     */
+    private final int targetBatchLatencyMillis;
+
+    /**
+     * The largest block of appends that will be sent in one batch.
+     */
+    private final int maxBatchSizeBytes;
+
+    /**
+     * The longest a partially filled block of appends waits before it is sent anyway. Note that when using
+     * {@link BatchingMode#LATENCY}, blocks are sent after the (usually much shorter) batch window instead.
+     */
+    private final int maxBatchTimeMillis;
+
+    /**
+     * Strategies for batching appends.
+     */
+    public enum BatchingMode {
+        /**
+         * Batches only as much data as is expected to arrive within {@link EventWriterConfig#getTargetBatchLatencyMillis()} (or within
+         * one acknowledgement round trip, if that is shorter), and holds a partially filled block for no longer than that.
+         * Suited to writers that care about the latency of each event.
+         */
+        LATENCY,
+        /**
+         * Batches as much data as is expected to arrive within one acknowledgement round trip, but no less than
+         * {@link EventWriterConfig#getTargetBatchLatencyMillis()} and no more than {@link EventWriterConfig#getMaxBatchTimeMillis()}
+         * worth, up to {@link EventWriterConfig#getMaxBatchSizeBytes()}. Suited to bulk ingestion, where fewer and larger
+         * blocks are preferable.
+         */
+        THROUGHPUT
+    }
+
     public static final class EventWriterConfigBuilder {
         private int initalBackoffMillis = 1;
         private int maxBackoffMillis = 60000;
         private int retryAttempts = 5;
         private int backoffMultiple = 10;
+        private BatchingMode batchingMode = BatchingMode.LATENCY;
+        private int targetBatchLatencyMillis = 10;
+        private int maxBatchSizeBytes = 32 * 1024;
+        private int maxBatchTimeMillis = 100;
     }
     
 }
@@ -20,6 +20,7 @@ import lombok.Getter;
 public class ReaderGroupConfig implements Serializable {
    @Getter
    private final Sequence startingPosition;
+   @Getter
    private final long groupRefreshTimeMillis;
 
    public static final class ReaderGroupConfigBuilder {
@@ -111,8 +111,8 @@ public class ClientFactoryImpl implements ClientFactory {
         SynchronizerConfig synchronizerConfig = SynchronizerConfig.builder().build();
         StateSynchronizer<ReaderGroupState> sync = createStateSynchronizer(
                 NameUtils.getStreamForReaderGroup(readerGroup),
-                new JavaSerializer<>(),
-                new JavaSerializer<>(),
+                new ReaderGroupStateSerializer<>(),
+                new ReaderGroupStateSerializer<>(),
                 synchronizerConfig);
         ReaderGroupStateManager stateManager = new ReaderGroupStateManager(readerId, sync, controller, nanoTime);
         stateManager.initializeReader();
@@ -124,8 +124,9 @@ public class ClientFactoryImpl implements ClientFactory {
                                                                       SynchronizerConfig config) {
         Segment segment = new Segment(scope, streamName, 0);
         SegmentInputStream in = inFactory.createInputStreamForSegment(segment);
-        SegmentOutputStream out = outFactory.createOutputStreamForSegment(segment);
-        return new RevisionedStreamClientImpl<>(segment, in, out, serializer);
+        SegmentInputStream tailIn = inFactory.createInputStreamForSegment(segment);
+        SegmentOutputStream out = outFactory.createOutputStreamForSegment(segment, EventWriterConfig.builder().build());
+        return new RevisionedStreamClientImpl<>(segment, in, tailIn, out, serializer);
     }
 
     @Override
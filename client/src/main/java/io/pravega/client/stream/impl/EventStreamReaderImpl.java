@@ -25,16 +25,21 @@ import io.pravega.client.stream.Sequence;
 import io.pravega.client.stream.Serializer;
 import io.pravega.common.Exceptions;
 import io.pravega.common.Timer;
+import io.pravega.common.concurrent.FutureHelpers;
 import io.pravega.shared.protocol.netty.WireCommands;
 import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.concurrent.GuardedBy;
+import lombok.Data;
 import lombok.Synchronized;
 import lombok.extern.slf4j.Slf4j;
 
@@ -55,6 +60,10 @@ public class EventStreamReaderImpl<Type> implements EventStreamReader<Type> {
     private Sequence lastRead;
     @GuardedBy("readers")
     private boolean atCheckpoint;
+    @GuardedBy("readers")
+    private CompletableFuture<SegmentInputStream> pendingDataAvailable;
+    @GuardedBy("readers")
+    private List<SegmentInputStream> pendingDataAvailableReaders;
     private final ReaderGroupStateManager groupState;
     private final Supplier<Long> clock;
 
@@ -73,45 +82,201 @@ public class EventStreamReaderImpl<Type> implements EventStreamReader<Type> {
     public EventRead<Type> readNextEvent(long timeout) throws ReinitializationRequiredException {
         synchronized (readers) {
             Preconditions.checkState(!closed, "Reader is closed");
-            long waitTime = Math.min(timeout, ReaderGroupStateManager.TIME_UNIT.toMillis());
-            Timer timer = new Timer();
-            Segment segment = null;
-            long offset = -1;
-            ByteBuffer buffer;
-            do { 
+            RawEvent event = awaitNextEvent(timeout);
+            if (event.getData() == null) {
+                return createEmptyEvent(event.getCheckpoint());
+            }
+            return createEvent(event, getPosition());
+        }
+    }
+
+    @Override
+    public List<EventRead<Type>> readNextEvents(int maxEvents, long timeout) throws ReinitializationRequiredException {
+        Preconditions.checkArgument(maxEvents > 0, "maxEvents must be a positive number.");
+        synchronized (readers) {
+            Preconditions.checkState(!closed, "Reader is closed");
+            RawEvent first = awaitNextEvent(timeout);
+            if (first.getData() == null) {
+                return Collections.singletonList(createEmptyEvent(first.getCheckpoint()));
+            }
+
+            // Drain whatever is already buffered. The group state is not consulted again until the next call, so any
+            // checkpoint or rebalancing will be picked up then.
+            List<RawEvent> batch = new ArrayList<>();
+            batch.add(first);
+            RawEvent next;
+            while (batch.size() < maxEvents && (next = readBufferedEvent()) != null) {
+                batch.add(next);
+            }
+
+            PositionInternal position = getPosition();
+            List<EventRead<Type>> result = new ArrayList<>(batch.size());
+            for (RawEvent event : batch) {
+                result.add(createEvent(event, position));
+            }
+            return result;
+        }
+    }
+
+    @Override
+    public CompletableFuture<EventRead<Type>> readNextEventAsync(long timeout, ScheduledExecutorService backgroundExecutor) {
+        CompletableFuture<EventRead<Type>> result = new CompletableFuture<>();
+        Timer timer = new Timer();
+        backgroundExecutor.execute(() -> attemptReadAsync(timer, timeout, null, backgroundExecutor, result));
+        return result;
+    }
+
+    /**
+     * Makes a single non-blocking attempt to read an event. If there is none, this schedules another attempt for when
+     * any of the owned segments receives data (or TIME_UNIT elapses, so the group state is kept up to date), until
+     * timeout.
+     *
+     * @param woken The segment whose data (or failed read) triggered this attempt, if any. It is read from even if it
+     *              cannot be read without blocking, so that failed reads get retried.
+     */
+    private void attemptReadAsync(Timer timer, long timeout, SegmentInputStream woken, ScheduledExecutorService executor,
+                                  CompletableFuture<EventRead<Type>> result) {
+        CompletableFuture<SegmentInputStream> dataAvailable;
+        long waitTime;
+        try {
+            synchronized (readers) {
+                Preconditions.checkState(!closed, "Reader is closed");
                 String checkpoint = updateGroupStateIfNeeded();
                 if (checkpoint != null) {
-                     return createEmptyEvent(checkpoint);
+                    result.complete(createEmptyEvent(checkpoint));
+                    return;
+                }
+                SegmentInputStream segmentReader = nextReadableSegment();
+                if (segmentReader == null && woken != null && readers.contains(woken)) {
+                    segmentReader = woken;
+                }
+                RawEvent event = segmentReader == null ? null : readFrom(segmentReader, 0);
+                if (event != null) {
+                    result.complete(createEvent(event, getPosition()));
+                    return;
+                }
+                long remaining = timeout - timer.getElapsedMillis();
+                if (remaining <= 0) {
+                    result.complete(createEmptyEvent(null));
+                    return;
                 }
-                SegmentInputStream segmentReader = orderer.nextSegment(readers);
-                if (segmentReader == null) {
+                waitTime = Math.min(remaining, ReaderGroupStateManager.TIME_UNIT.toMillis());
+                dataAvailable = readers.isEmpty() ? new CompletableFuture<>() : anyDataAvailable();
+            }
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        CompletableFuture.anyOf(dataAvailable, FutureHelpers.delayedFuture(Duration.ofMillis(waitTime), executor))
+                         .whenCompleteAsync((r, e) -> attemptReadAsync(timer, timeout, dataAvailable.getNow(null), executor, result),
+                                 executor);
+    }
+
+    /**
+     * Blocks for up to timeout until an event can be read from one of the owned segments, updating the group state
+     * between attempts. Returns a RawEvent with no data if the timeout was reached or the reader is at a checkpoint.
+     */
+    @GuardedBy("readers")
+    private RawEvent awaitNextEvent(long timeout) throws ReinitializationRequiredException {
+        long waitTime = Math.min(timeout, ReaderGroupStateManager.TIME_UNIT.toMillis());
+        Timer timer = new Timer();
+        RawEvent event = null;
+        do {
+            String checkpoint = updateGroupStateIfNeeded();
+            if (checkpoint != null) {
+                return new RawEvent(null, -1, null, checkpoint);
+            }
+            SegmentInputStream segmentReader = nextReadableSegment();
+            if (segmentReader == null) {
+                if (readers.isEmpty()) {
+                    // Nothing to be notified by until segments are acquired.
                     Exceptions.handleInterrupted(() -> Thread.sleep(waitTime));
-                    buffer = null;
-                } else {
-                    segment = segmentReader.getSegmentId();
-                    offset = segmentReader.getOffset();
-                    try {
-                        buffer = segmentReader.read(waitTime);
-                    } catch (EndOfSegmentException e) {
-                        handleEndOfSegment(segmentReader);
-                        buffer = null;
-                    }
+                    continue;
                 }
-            } while (buffer == null && timer.getElapsedMillis() < timeout);
-            
-            if (buffer == null) {
-               return createEmptyEvent(null);
-            } 
-            lastRead = Sequence.create(segment.getSegmentNumber(), offset);
-            int length = buffer.remaining() + WireCommands.TYPE_PLUS_LENGTH_SIZE;
-            return new EventReadImpl<>(lastRead,
-                    deserializer.deserialize(buffer),
-                    getPosition(),
-                    new EventPointerImpl(segment, offset, length),
-                    null);
+                CompletableFuture<SegmentInputStream> dataAvailable = anyDataAvailable();
+                if (!FutureHelpers.await(dataAvailable, waitTime)) {
+                    continue;
+                }
+                // Read from whichever segment woke us up. If it was due to a failed read, this retries it.
+                segmentReader = dataAvailable.join();
+            }
+            // Either way the segment has something to act on, so there is no need to wait for it.
+            event = readFrom(segmentReader, 0);
+        } while (event == null && timer.getElapsedMillis() < timeout);
+        return event == null ? new RawEvent(null, -1, null, null) : event;
+    }
+
+    /**
+     * Returns one of the owned segments that has something for {@link #readFrom} to act on without waiting, or null if
+     * there is none. A segment that can be read from without blocking but holds only part of an event header is not
+     * returned, as reading it with no timeout would return null straight away without making any progress.
+     */
+    @GuardedBy("readers")
+    private SegmentInputStream nextReadableSegment() {
+        SegmentInputStream segmentReader = orderer.nextReadySegment(readers);
+        return segmentReader != null && segmentReader.onDataAvailable().isDone() ? segmentReader : null;
+    }
+
+    /**
+     * Returns a future that completes with the first of the owned segments that has something to act on.
+     * The same future is returned until it completes or the owned segments change, so that waiting repeatedly does not
+     * keep attaching callbacks to the segments' futures.
+     */
+    @GuardedBy("readers")
+    private CompletableFuture<SegmentInputStream> anyDataAvailable() {
+        if (pendingDataAvailable == null || pendingDataAvailable.isDone() || !readers.equals(pendingDataAvailableReaders)) {
+            CompletableFuture<SegmentInputStream> result = new CompletableFuture<>();
+            for (SegmentInputStream reader : readers) {
+                reader.onDataAvailable().whenComplete((r, e) -> result.complete(reader));
+            }
+            pendingDataAvailable = result;
+            pendingDataAvailableReaders = new ArrayList<>(readers);
         }
+        return pendingDataAvailable;
     }
-    
+
+    /**
+     * Reads the next event from any of the owned segments that has one buffered, or returns null if none of them can be
+     * read from without blocking.
+     */
+    @GuardedBy("readers")
+    private RawEvent readBufferedEvent() throws ReinitializationRequiredException {
+        SegmentInputStream segmentReader;
+        while ((segmentReader = orderer.nextReadySegment(readers)) != null) {
+            int readerCount = readers.size();
+            RawEvent event = readFrom(segmentReader, 0);
+            if (event != null || readers.size() == readerCount) {
+                // Only keep going if we hit the end of a segment (and thus removed it).
+                return event;
+            }
+        }
+        return null;
+    }
+
+    @GuardedBy("readers")
+    private RawEvent readFrom(SegmentInputStream segmentReader, long waitTime) throws ReinitializationRequiredException {
+        Segment segment = segmentReader.getSegmentId();
+        long offset = segmentReader.getOffset();
+        try {
+            ByteBuffer buffer = segmentReader.read(waitTime);
+            return buffer == null ? null : new RawEvent(segment, offset, buffer, null);
+        } catch (EndOfSegmentException e) {
+            handleEndOfSegment(segmentReader);
+            return null;
+        }
+    }
+
+    @GuardedBy("readers")
+    private EventRead<Type> createEvent(RawEvent event, PositionInternal position) {
+        lastRead = Sequence.create(event.getSegment().getSegmentNumber(), event.getOffset());
+        int length = event.getData().remaining() + WireCommands.TYPE_PLUS_LENGTH_SIZE;
+        return new EventReadImpl<>(lastRead,
+                deserializer.deserialize(event.getData()),
+                position,
+                new EventPointerImpl(event.getSegment(), event.getOffset(), length),
+                null);
+    }
+
     private EventRead<Type> createEmptyEvent(String checkpoint) {
         return new EventReadImpl<>(lastRead, null, getPosition(), null, checkpoint);
     }
@@ -244,5 +409,15 @@ public class EventStreamReaderImpl<Type> implements EventStreamReader<Type> {
     public String toString() {
         return "EventStreamReaderImpl( id=" + groupState.getReaderId() + ")";
     }
-    
+
+    /**
+     * An event that has been read from a segment but not yet deserialized, or a checkpoint if data is null.
+     */
+    @Data
+    private static class RawEvent {
+        private final Segment segment;
+        private final long offset;
+        private final ByteBuffer data;
+        private final String checkpoint;
+    }
 }
@@ -32,6 +32,8 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import javax.annotation.concurrent.GuardedBy;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
@@ -41,6 +43,10 @@ import static io.pravega.common.concurrent.FutureHelpers.getAndHandleExceptions;
 /**
  * This class takes in events, finds out which segment they belong to and then calls write on the appropriate segment.
  * It deals with segments that are sealed by re-sending the unacked events to the new correct segment.
+ * <p>
+ * Writing an event only takes the shared side of {@link #lock}, so concurrent writes only contend on the segment they
+ * go to (each {@link SegmentOutputStream} serializes its own writes). Changes to the set of segments (because a segment
+ * was sealed, or the stream scaled) take the exclusive side, which stops all writes while they are being handled.
  * 
  * @param <Type> The type of event that is sent
  */
@@ -48,7 +54,7 @@ import static io.pravega.common.concurrent.FutureHelpers.getAndHandleExceptions;
 @ToString(of = { "stream", "closed" })
 public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
 
-    private final Object lock = new Object();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
     private final Stream stream;
     private final Serializer<Type> serializer;
     private final SegmentOutputStreamFactory outputStreamFactory;
@@ -67,7 +73,7 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
         this.stream = stream;
         this.controller = controller;
         this.outputStreamFactory = outputStreamFactory;
-        this.selector = new SegmentSelector(stream, controller, outputStreamFactory);
+        this.selector = new SegmentSelector(stream, controller, outputStreamFactory, config);
         this.serializer = serializer;
         this.config = config;
         List<PendingEvent> failedEvents = selector.refreshSegmentEventWriters();
@@ -90,18 +96,44 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
         Exceptions.checkNotClosed(closed.get(), this);
         ByteBuffer data = serializer.serialize(event);
         CompletableFuture<Boolean> result = new CompletableFuture<Boolean>();
-        synchronized (lock) {
-            SegmentOutputStream segmentWriter = selector.getSegmentOutputStreamForKey(routingKey);
-            while (segmentWriter == null) {
-                log.info("Don't have a writer for segment: {}", selector.getSegmentForEvent(routingKey));
-                handleMissingLog();
-                segmentWriter = selector.getSegmentOutputStreamForKey(routingKey);
+        PendingEvent pendingEvent = new PendingEvent(routingKey, data, result);
+        Segment sealedSegment = null;
+        boolean written = false;
+        while (!written && sealedSegment == null) {
+            lock.readLock().lock();
+            try {
+                SegmentOutputStream segmentWriter = selector.getSegmentOutputStreamForKey(routingKey);
+                if (segmentWriter != null) {
+                    try {
+                        segmentWriter.write(pendingEvent);
+                        written = true;
+                    } catch (SegmentSealedException e) {
+                        log.info("Segment was sealed: {}", segmentWriter);
+                        sealedSegment = Segment.fromScopedName(segmentWriter.getSegmentName());
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
             }
+            if (!written && sealedSegment == null) {
+                lock.writeLock().lock();
+                try {
+                    // Another thread may have already refreshed the segments while we were waiting for the lock.
+                    if (selector.getSegmentOutputStreamForKey(routingKey) == null) {
+                        log.info("Don't have a writer for segment: {}", selector.getSegmentForEvent(routingKey));
+                        handleMissingLog();
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+        if (sealedSegment != null) {
+            lock.writeLock().lock();
             try {
-                segmentWriter.write(new PendingEvent(routingKey, data, result));
-            } catch (SegmentSealedException e) {
-                log.info("Segment was sealed: {}", segmentWriter);
-                handleLogSealed(Segment.fromScopedName(segmentWriter.getSegmentName()));
+                handleLogSealedIfNeeded(sealedSegment);
+            } finally {
+                lock.writeLock().unlock();
             }
         }
         return new AckFutureImpl(result, () -> {
@@ -128,6 +160,17 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
         resend(toResend);
     }
 
+    /**
+     * Same as {@link #handleLogSealed(Segment)}, except that this does nothing if the segment has already been replaced
+     * (by another thread that found it sealed first). Its unacked events have been re-sent in that case.
+     */
+    @GuardedBy("lock")
+    private void handleLogSealedIfNeeded(Segment segment) {
+        if (selector.getSegments().contains(segment)) {
+            handleLogSealed(segment);
+        }
+    }
+
     @GuardedBy("lock")
     private void resend(List<PendingEvent> toResend) {
         while (!toResend.isEmpty()) {
@@ -269,7 +312,7 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
         UUID txnId = txnSegments.getTxnId();
         Map<Segment, SegmentTransaction<Type>> transactions = new HashMap<>();
         for (Segment s : txnSegments.getSteamSegments().getSegments()) {
-            SegmentOutputStream out = outputStreamFactory.createOutputStreamForTransaction(s, txnId);
+            SegmentOutputStream out = outputStreamFactory.createOutputStreamForTransaction(s, txnId, config);
             SegmentTransactionImpl<Type> impl = new SegmentTransactionImpl<>(txnId, out, serializer);
             transactions.put(s, impl);
         }
@@ -287,7 +330,7 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
         
         Map<Segment, SegmentTransaction<Type>> transactions = new HashMap<>();
         for (Segment s : segments.getSegments()) {
-            SegmentOutputStream out = outputStreamFactory.createOutputStreamForTransaction(s, txId);
+            SegmentOutputStream out = outputStreamFactory.createOutputStreamForTransaction(s, txId, config);
             SegmentTransactionImpl<Type> impl = new SegmentTransactionImpl<>(txId, out, serializer);
             transactions.put(s, impl);
         }
@@ -306,7 +349,8 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
         String sealedSegment = null;
         while (!success) {
             success = true;
-            synchronized (lock) {
+            lock.readLock().lock();
+            try {
                 for (SegmentOutputStream writer : selector.getWriters()) {
                     try {
                         writer.flush();
@@ -317,8 +361,15 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
                         break;
                     }
                 }
-                if (!success) {
-                    handleLogSealed(Segment.fromScopedName(sealedSegment));
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (!success) {
+                lock.writeLock().lock();
+                try {
+                    handleLogSealedIfNeeded(Segment.fromScopedName(sealedSegment));
+                } finally {
+                    lock.writeLock().unlock();
                 }
             }
         }
@@ -329,7 +380,8 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
         if (closed.getAndSet(true)) {
             return;
         }
-        synchronized (lock) {
+        lock.writeLock().lock();
+        try {
             boolean success = false;
             String sealedSegment = null;
             while (!success) {
@@ -348,6 +400,8 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
                     handleLogSealed(Segment.fromScopedName(sealedSegment));
                 }
             }
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
@@ -31,6 +31,21 @@ public class Orderer {
         if (segments.isEmpty()) {
             return null;
         }
+        SegmentInputStream result = nextReadySegment(segments);
+        if (result == null) {
+            result = segments.get(counter.incrementAndGet() % segments.size());
+        }
+        return result;
+    }
+
+    /**
+     * Same as {@link #nextSegment(List)}, except that this only returns a segment if it can be read from without
+     * blocking.
+     *
+     * @param segments The logs to get the next reader for.
+     * @return A segment that can be read from without blocking, or null if there is none.
+     */
+    SegmentInputStream nextReadySegment(List<SegmentInputStream> segments) {
         for (int i = 0; i < segments.size(); i++) {
             SegmentInputStream inputStream = segments.get(counter.incrementAndGet() % segments.size());
             if (inputStream.canReadWithoutBlocking()) {
@@ -39,6 +54,6 @@ public class Orderer {
                 inputStream.fillBuffer();
             }
         }
-        return segments.get(counter.incrementAndGet() % segments.size());
+        return null;
     }
 }
@@ -205,6 +205,7 @@ class ReaderGroupState implements Revisioned {
         return sb.toString();
     }
     
+    @Getter
     @RequiredArgsConstructor
     static class ReaderGroupStateInit implements InitialUpdate<ReaderGroupState>, Serializable {
         private static final long serialVersionUID = 1L;
@@ -245,6 +246,7 @@ class ReaderGroupState implements Revisioned {
     /**
      * Adds a reader to the reader group. (No segments are initially assigned to it)
      */
+    @Getter
     @RequiredArgsConstructor
     static class AddReader extends ReaderGroupStateUpdate {
         private static final long serialVersionUID = 1L;
@@ -266,6 +268,7 @@ class ReaderGroupState implements Revisioned {
     /**
      * Remove a reader from reader group, releasing all segments it owned.
      */
+    @Getter
     @RequiredArgsConstructor
     static class RemoveReader extends ReaderGroupStateUpdate {
         private static final long serialVersionUID = 1L;
@@ -305,6 +308,7 @@ class ReaderGroupState implements Revisioned {
     /**
      * Release a currently owned segment.
      */
+    @Getter
     @RequiredArgsConstructor
     static class ReleaseSegment extends ReaderGroupStateUpdate {
         private static final long serialVersionUID = 1L;
@@ -330,6 +334,7 @@ class ReaderGroupState implements Revisioned {
     /**
      * Acquire a currently unassigned segment.
      */
+    @Getter
     @RequiredArgsConstructor
     static class AcquireSegment extends ReaderGroupStateUpdate {
         private static final long serialVersionUID = 1L;
@@ -354,6 +359,7 @@ class ReaderGroupState implements Revisioned {
     /**
      * Update the size of this reader's backlog for load balancing purposes. 
      */
+    @Getter
     @RequiredArgsConstructor
     static class UpdateDistanceToTail extends ReaderGroupStateUpdate {
         private static final long serialVersionUID = 1L;
@@ -372,6 +378,7 @@ class ReaderGroupState implements Revisioned {
     /**
      * Updates a position object when the reader has completed a segment.
      */
+    @Getter
     @RequiredArgsConstructor
     static class SegmentCompleted extends ReaderGroupStateUpdate {
         private static final long serialVersionUID = 1L;
@@ -410,6 +417,7 @@ class ReaderGroupState implements Revisioned {
         }
     }
     
+    @Getter
     @RequiredArgsConstructor
     static class CheckpointReader extends ReaderGroupStateUpdate {
         private static final long serialVersionUID = 1L;
@@ -426,6 +434,7 @@ class ReaderGroupState implements Revisioned {
         }
     }
     
+    @Getter
     @RequiredArgsConstructor
     static class CreateCheckpoint extends ReaderGroupStateUpdate {
         private static final long serialVersionUID = 1L;
@@ -440,6 +449,7 @@ class ReaderGroupState implements Revisioned {
         }
     }
     
+    @Getter
     @RequiredArgsConstructor
     static class ClearCheckpoints extends ReaderGroupStateUpdate {
         private static final long serialVersionUID = 1L;
@@ -34,6 +34,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
@@ -60,11 +61,14 @@ import static io.pravega.common.concurrent.FutureHelpers.getAndHandleExceptions;
  * Finally when a segment is sealed it may have one or more successors. So when a reader comes to the end of a
  * segment it should call {@link #handleEndOfSegment(Segment)} so that it can continue reading from the
  * successor to that segment.
+ * 
+ * Updates made by other readers are fetched as soon as they are written (see {@link StateSynchronizer#awaitUpdates()}),
+ * with a periodic fetch every {@link #FETCH_STATE_INTERVAL} only as a fallback.
  */
 public class ReaderGroupStateManager {
     
     static final Duration TIME_UNIT = Duration.ofMillis(1000);
-    static final Duration FETCH_STATE_INTERVAL = Duration.ofMillis(3000);
+    static final Duration FETCH_STATE_INTERVAL = Duration.ofMillis(10000);
     static final Duration UPDATE_WINDOW = Duration.ofMillis(30000);
     private final Object decisionLock = new Object();
     private final HashHelper hashHelper;
@@ -75,6 +79,7 @@ public class ReaderGroupStateManager {
     private final TimeoutTimer releaseTimer;
     private final TimeoutTimer acquireTimer;
     private final TimeoutTimer fetchStateTimer;
+    private final AtomicReference<CompletableFuture<Void>> updatesAvailable = new AtomicReference<>();
 
     ReaderGroupStateManager(String readerId, StateSynchronizer<ReaderGroupState> sync, Controller controller, Supplier<Long> nanoClock) {
         Preconditions.checkNotNull(readerId);
@@ -115,6 +120,7 @@ public class ReaderGroupStateManager {
                     + " cannot be added to the group because it is already in the group. Perhaps close() was not called?");
         }
         acquireTimer.zero();
+        updatesAvailable.set(sync.awaitUpdates());
     }
     
     /**
@@ -252,11 +258,16 @@ public class ReaderGroupStateManager {
     }
 
     private void fetchUpdatesIfNeeded() {
-        if (!fetchStateTimer.hasRemaining()) {
+        CompletableFuture<Void> updates = updatesAvailable.get();
+        // A failed wait (e.g. while the segment store is unreachable) is not a sign of updates: wait for the timer then.
+        boolean updated = updates != null && updates.isDone() && !updates.isCompletedExceptionally();
+        if (!fetchStateTimer.hasRemaining() || updated) {
             fetchStateTimer.reset(FETCH_STATE_INTERVAL);
             sync.fetchUpdates();
+            updatesAvailable.set(sync.awaitUpdates());
         }
     }
+
     
     private boolean shouldAcquireSegment() throws ReinitializationRequiredException {
         synchronized (decisionLock) {
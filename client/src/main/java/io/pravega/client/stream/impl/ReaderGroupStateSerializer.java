@@ -0,0 +1,309 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.stream.impl;
+
+import io.pravega.client.segment.impl.Segment;
+import io.pravega.client.state.Update;
+import io.pravega.client.state.impl.CorruptedStateException;
+import io.pravega.client.stream.ReaderGroupConfig;
+import io.pravega.client.stream.Sequence;
+import io.pravega.client.stream.Serializer;
+import io.pravega.client.stream.impl.ReaderGroupState.AcquireSegment;
+import io.pravega.client.stream.impl.ReaderGroupState.AddReader;
+import io.pravega.client.stream.impl.ReaderGroupState.CheckpointReader;
+import io.pravega.client.stream.impl.ReaderGroupState.ClearCheckpoints;
+import io.pravega.client.stream.impl.ReaderGroupState.CreateCheckpoint;
+import io.pravega.client.stream.impl.ReaderGroupState.ReaderGroupStateInit;
+import io.pravega.client.stream.impl.ReaderGroupState.ReleaseSegment;
+import io.pravega.client.stream.impl.ReaderGroupState.RemoveReader;
+import io.pravega.client.stream.impl.ReaderGroupState.SegmentCompleted;
+import io.pravega.client.stream.impl.ReaderGroupState.UpdateDistanceToTail;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link Serializer} for the initial updates and updates of a {@link ReaderGroupState}, which can read both the compact
+ * binary format defined here and values written with Java serialization (by {@link JavaSerializer}).
+ * <p>
+ * Each binary value is written as [Version (1 byte)][Type (1 byte)][Fields], using the encoding of {@link DataOutput}.
+ * Values written with Java serialization are detected by their stream header. Later versions of the binary format may
+ * only append fields to existing types, which readers of earlier versions ignore.
+ * <p>
+ * The same class is used for both initial updates and updates, because {@link ReaderGroupStateInit} can appear in either
+ * position (for example when a reader group is reset to a checkpoint).
+ * <p>
+ * Clients that predate this class can only read Java serialization, so that is what is written unless the binary format
+ * is enabled (see {@link #BINARY_FORMAT_PROPERTY}). It should only be enabled once every client that reads a reader group
+ * has been upgraded.
+ *
+ * @param <T> The type of update this serializes.
+ */
+public class ReaderGroupStateSerializer<T extends Update<ReaderGroupState>> implements Serializer<T>, Serializable {
+    /**
+     * The system property that enables writing the binary format. Java serialization is written if it is not set to true.
+     */
+    public static final String BINARY_FORMAT_PROPERTY = "pravega.client.readerGroupState.binaryFormat";
+    private static final long serialVersionUID = 1L;
+    private static final byte VERSION = 1;
+    private static final short JAVA_SERIALIZATION_MAGIC = (short) 0xACED;
+
+    private static final byte INIT = 1;
+    private static final byte ADD_READER = 10;
+    private static final byte REMOVE_READER = 11;
+    private static final byte RELEASE_SEGMENT = 12;
+    private static final byte ACQUIRE_SEGMENT = 13;
+    private static final byte UPDATE_DISTANCE_TO_TAIL = 14;
+    private static final byte SEGMENT_COMPLETED = 15;
+    private static final byte CHECKPOINT_READER = 16;
+    private static final byte CREATE_CHECKPOINT = 17;
+    private static final byte CLEAR_CHECKPOINTS = 18;
+
+    private final JavaSerializer<Serializable> legacySerializer = new JavaSerializer<>();
+    private final boolean writeBinary;
+
+    /**
+     * Creates a new instance of the ReaderGroupStateSerializer class, which writes the binary format only if
+     * {@link #BINARY_FORMAT_PROPERTY} is set to true.
+     */
+    public ReaderGroupStateSerializer() {
+        this(Boolean.getBoolean(BINARY_FORMAT_PROPERTY));
+    }
+
+    /**
+     * Creates a new instance of the ReaderGroupStateSerializer class.
+     *
+     * @param writeBinary If true, values are written in the binary format. If false, they are written with Java
+     *                    serialization, which clients that predate this class can read.
+     */
+    public ReaderGroupStateSerializer(boolean writeBinary) {
+        this.writeBinary = writeBinary;
+    }
+
+    //region Serializer Implementation
+
+    @Override
+    public ByteBuffer serialize(T value) {
+        if (!this.writeBinary) {
+            return legacySerializer.serialize((Serializable) value);
+        }
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bout)) {
+            out.writeByte(VERSION);
+            write(value, out);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return ByteBuffer.wrap(bout.toByteArray());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T deserialize(ByteBuffer serializedValue) {
+        // The buffer may be direct or read-only, so its backing array (if any) cannot be used.
+        byte[] bytes = new byte[serializedValue.remaining()];
+        serializedValue.duplicate().get(bytes);
+        if (bytes.length >= Short.BYTES && ByteBuffer.wrap(bytes).getShort() == JAVA_SERIALIZATION_MAGIC) {
+            return (T) legacySerializer.deserialize(ByteBuffer.wrap(bytes));
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            byte version = in.readByte();
+            if (version < VERSION) {
+                throw new CorruptedStateException("Unsupported ReaderGroupState serialization version: " + version);
+            }
+            return (T) read(in);
+        } catch (IOException e) {
+            throw new CorruptedStateException("Unable to deserialize ReaderGroupState update.", e);
+        }
+    }
+
+    //endregion
+
+    //region Updates
+
+    private void write(Update<ReaderGroupState> value, DataOutput out) throws IOException {
+        if (value instanceof ReaderGroupStateInit) {
+            ReaderGroupStateInit init = (ReaderGroupStateInit) value;
+            out.writeByte(INIT);
+            writeConfig(init.getConfig(), out);
+            writeSegmentOffsets(init.getSegments(), out);
+        } else if (value instanceof AddReader) {
+            out.writeByte(ADD_READER);
+            out.writeUTF(((AddReader) value).getReaderId());
+        } else if (value instanceof RemoveReader) {
+            RemoveReader update = (RemoveReader) value;
+            out.writeByte(REMOVE_READER);
+            out.writeUTF(update.getReaderId());
+            out.writeBoolean(update.getLastPosition() != null);
+            if (update.getLastPosition() != null) {
+                writeSegmentOffsets(update.getLastPosition().getOwnedSegmentsWithOffsets(), out);
+            }
+        } else if (value instanceof ReleaseSegment) {
+            ReleaseSegment update = (ReleaseSegment) value;
+            out.writeByte(RELEASE_SEGMENT);
+            out.writeUTF(update.getReaderId());
+            writeSegment(update.getSegment(), out);
+            out.writeLong(update.getOffset());
+        } else if (value instanceof AcquireSegment) {
+            AcquireSegment update = (AcquireSegment) value;
+            out.writeByte(ACQUIRE_SEGMENT);
+            out.writeUTF(update.getReaderId());
+            writeSegment(update.getSegment(), out);
+        } else if (value instanceof UpdateDistanceToTail) {
+            UpdateDistanceToTail update = (UpdateDistanceToTail) value;
+            out.writeByte(UPDATE_DISTANCE_TO_TAIL);
+            out.writeUTF(update.getReaderId());
+            out.writeLong(update.getDistanceToTail());
+        } else if (value instanceof SegmentCompleted) {
+            SegmentCompleted update = (SegmentCompleted) value;
+            out.writeByte(SEGMENT_COMPLETED);
+            out.writeUTF(update.getReaderId());
+            writeSegment(update.getSegmentCompleted(), out);
+            Map<Segment, List<Integer>> successors = update.getSuccessorsMappedToTheirPredecessors();
+            out.writeInt(successors.size());
+            for (Map.Entry<Segment, List<Integer>> e : successors.entrySet()) {
+                writeSegment(e.getKey(), out);
+                writeIntegers(e.getValue(), out);
+            }
+        } else if (value instanceof CheckpointReader) {
+            CheckpointReader update = (CheckpointReader) value;
+            out.writeByte(CHECKPOINT_READER);
+            out.writeUTF(update.getCheckpointId());
+            out.writeUTF(update.getReaderId());
+            writeSegmentOffsets(update.getPositions(), out);
+        } else if (value instanceof CreateCheckpoint) {
+            out.writeByte(CREATE_CHECKPOINT);
+            out.writeUTF(((CreateCheckpoint) value).getCheckpointId());
+        } else if (value instanceof ClearCheckpoints) {
+            out.writeByte(CLEAR_CHECKPOINTS);
+            out.writeUTF(((ClearCheckpoints) value).getClearUpThroughCheckpoint());
+        } else {
+            throw new IllegalArgumentException("Unsupported ReaderGroupState update: " + value.getClass().getName());
+        }
+    }
+
+    private Update<ReaderGroupState> read(DataInput in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case INIT:
+                return new ReaderGroupStateInit(readConfig(in), readSegmentOffsets(in));
+            case ADD_READER:
+                return new AddReader(in.readUTF());
+            case REMOVE_READER:
+                String readerId = in.readUTF();
+                PositionInternal lastPosition = in.readBoolean() ? new PositionImpl(readSegmentOffsets(in)) : null;
+                return new RemoveReader(readerId, lastPosition);
+            case RELEASE_SEGMENT:
+                return new ReleaseSegment(in.readUTF(), readSegment(in), in.readLong());
+            case ACQUIRE_SEGMENT:
+                return new AcquireSegment(in.readUTF(), readSegment(in));
+            case UPDATE_DISTANCE_TO_TAIL:
+                return new UpdateDistanceToTail(in.readUTF(), in.readLong());
+            case SEGMENT_COMPLETED:
+                String completingReader = in.readUTF();
+                Segment segmentCompleted = readSegment(in);
+                int successorCount = in.readInt();
+                Map<Segment, List<Integer>> successors = new HashMap<>(successorCount);
+                for (int i = 0; i < successorCount; i++) {
+                    successors.put(readSegment(in), readIntegers(in));
+                }
+                return new SegmentCompleted(completingReader, segmentCompleted, successors);
+            case CHECKPOINT_READER:
+                return new CheckpointReader(in.readUTF(), in.readUTF(), readSegmentOffsets(in));
+            case CREATE_CHECKPOINT:
+                return new CreateCheckpoint(in.readUTF());
+            case CLEAR_CHECKPOINTS:
+                return new ClearCheckpoints(in.readUTF());
+            default:
+                throw new CorruptedStateException("Unknown ReaderGroupState update type: " + type);
+        }
+    }
+
+    //endregion
+
+    //region Helpers
+
+    private void writeConfig(ReaderGroupConfig config, DataOutput out) throws IOException {
+        Sequence startingPosition = config.getStartingPosition();
+        out.writeBoolean(startingPosition != null);
+        if (startingPosition != null) {
+            out.writeLong(startingPosition.getHighOrder());
+            out.writeLong(startingPosition.getLowOrder());
+        }
+        out.writeLong(config.getGroupRefreshTimeMillis());
+    }
+
+    private ReaderGroupConfig readConfig(DataInput in) throws IOException {
+        Sequence startingPosition = in.readBoolean() ? Sequence.create(in.readLong(), in.readLong()) : null;
+        return ReaderGroupConfig.builder()
+                                .startingPosition(startingPosition)
+                                .groupRefreshTimeMillis(in.readLong())
+                                .build();
+    }
+
+    /**
+     * Writes the given map, preserving its iteration order (which matters for unassigned segments).
+     */
+    private void writeSegmentOffsets(Map<Segment, Long> segments, DataOutput out) throws IOException {
+        out.writeInt(segments.size());
+        for (Map.Entry<Segment, Long> e : segments.entrySet()) {
+            writeSegment(e.getKey(), out);
+            out.writeLong(e.getValue());
+        }
+    }
+
+    private Map<Segment, Long> readSegmentOffsets(DataInput in) throws IOException {
+        int count = in.readInt();
+        Map<Segment, Long> result = new LinkedHashMap<>(count);
+        for (int i = 0; i < count; i++) {
+            result.put(readSegment(in), in.readLong());
+        }
+        return result;
+    }
+
+    private void writeSegment(Segment segment, DataOutput out) throws IOException {
+        out.writeUTF(segment.getScopedName());
+    }
+
+    private Segment readSegment(DataInput in) throws IOException {
+        return Segment.fromScopedName(in.readUTF());
+    }
+
+    private void writeIntegers(Iterable<Integer> values, DataOutput out) throws IOException {
+        List<Integer> list = new ArrayList<>();
+        values.forEach(list::add);
+        out.writeInt(list.size());
+        for (int value : list) {
+            out.writeInt(value);
+        }
+    }
+
+    private List<Integer> readIntegers(DataInput in) throws IOException {
+        int count = in.readInt();
+        List<Integer> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(in.readInt());
+        }
+        return result;
+    }
+
+    //endregion
+}
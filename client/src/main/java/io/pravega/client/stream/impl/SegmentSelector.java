@@ -13,17 +13,17 @@ import io.pravega.client.segment.impl.Segment;
 import io.pravega.client.segment.impl.SegmentOutputStream;
 import io.pravega.client.segment.impl.SegmentOutputStreamFactory;
 import io.pravega.client.segment.impl.SegmentSealedException;
+import io.pravega.client.stream.EventWriterConfig;
 import io.pravega.client.stream.Stream;
 import io.pravega.common.concurrent.FutureHelpers;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Random;
-import javax.annotation.concurrent.GuardedBy;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import lombok.RequiredArgsConstructor;
 import lombok.Synchronized;
 import lombok.extern.slf4j.Slf4j;
@@ -33,6 +33,9 @@ import lombok.extern.slf4j.Slf4j;
  * invoked on every writeEvent call to decide how to send a particular segment. It is acceptable for
  * it to cache the current set of segments for a stream, as it will be queried again if a segment
  * has been sealed.
+ * <p>
+ * Looking up the segment (and its writer) for an event does not take any locks, so it can be done concurrently by any
+ * number of threads. Updates to the set of segments are serialized.
  */
 @Slf4j
 @RequiredArgsConstructor
@@ -41,12 +44,9 @@ public class SegmentSelector {
     private final Stream stream;
     private final Controller controller;
     private final SegmentOutputStreamFactory outputStreamFactory;
-    @GuardedBy("$lock")
-    private final Random random = new Random();
-    @GuardedBy("$lock")
-    private StreamSegments currentSegments;
-    @GuardedBy("$lock")
-    private final Map<Segment, SegmentOutputStream> writers = new HashMap<>();
+    private final EventWriterConfig config;
+    private volatile StreamSegments currentSegments;
+    private final Map<Segment, SegmentOutputStream> writers = new ConcurrentHashMap<>();
 
     /**
      * Selects which segment an event should be written to.
@@ -56,23 +56,23 @@ public class SegmentSelector {
      * @return The SegmentOutputStream for the segment that has been selected or null if
      *         {@link #refreshSegmentEventWriters()} needs to be called.
      */
-    @Synchronized
     public SegmentOutputStream getSegmentOutputStreamForKey(String routingKey) {
-        if (currentSegments == null) {
+        Segment segment = getSegmentForEvent(routingKey);
+        if (segment == null) {
             return null;
         }
-        return writers.get(getSegmentForEvent(routingKey));
+        return writers.get(segment);
     }
 
-    @Synchronized
     public Segment getSegmentForEvent(String routingKey) {
-        if (currentSegments == null) {
+        StreamSegments segments = currentSegments;
+        if (segments == null) {
             return null;
         }
         if (routingKey == null) {
-            return currentSegments.getSegmentForKey(random.nextDouble());
+            return segments.getSegmentForKey(ThreadLocalRandom.current().nextDouble());
         }
-        return currentSegments.getSegmentForKey(routingKey);
+        return segments.getSegmentForKey(routingKey);
     }
 
     public List<PendingEvent> refreshSegmentEventWritersUponSealed(Segment sealedSegment) {
@@ -94,13 +94,14 @@ public class SegmentSelector {
 
     @Synchronized
     private List<PendingEvent> updateSegments(StreamSegments newSteamSegments) {
-        currentSegments = newSteamSegments;
-        for (Segment segment : currentSegments.getSegments()) {
+        // Create the new writers before publishing the new segments, so that lookups never miss a writer.
+        for (Segment segment : newSteamSegments.getSegments()) {
             if (!writers.containsKey(segment)) {
-                SegmentOutputStream out = outputStreamFactory.createOutputStreamForSegment(segment);
+                SegmentOutputStream out = outputStreamFactory.createOutputStreamForSegment(segment, config);
                 writers.put(segment, out);
             }
         }
+        currentSegments = newSteamSegments;
         List<PendingEvent> toResend = new ArrayList<>();
         Iterator<Entry<Segment, SegmentOutputStream>> iter = writers.entrySet().iterator();
         while (iter.hasNext()) {
@@ -119,12 +120,12 @@ public class SegmentSelector {
         return toResend;
     }
 
-    @Synchronized
     public List<Segment> getSegments() {
-        if (currentSegments == null) {
+        StreamSegments segments = currentSegments;
+        if (segments == null) {
             return Collections.emptyList();
         }
-        return new ArrayList<>(currentSegments.getSegments());
+        return new ArrayList<>(segments.getSegments());
     }
 
     @Synchronized
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.netty.impl;
+
+import io.pravega.client.stream.EventWriterConfig;
+import io.pravega.client.stream.EventWriterConfig.BatchingMode;
+import io.pravega.shared.protocol.netty.WireCommands;
+import io.pravega.test.common.AssertExtensions;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AppendBatchSizeTrackerTest {
+
+    private static final int EVENT_SIZE = 100;
+
+    @Test
+    public void testNoBatchingWhenSynchronous() {
+        AtomicLong clock = new AtomicLong(0);
+        AppendBatchSizeTrackerImpl tracker = new AppendBatchSizeTrackerImpl(EventWriterConfig.builder().build(), clock::get);
+        for (int i = 1; i <= 100; i++) {
+            clock.addAndGet(TimeUnit.MICROSECONDS.toNanos(10));
+            tracker.recordAppend(i, EVENT_SIZE);
+            assertEquals(0, tracker.getAppendBlockSize());
+            tracker.recordAck(i);
+        }
+    }
+
+    @Test
+    public void testLatencyModeBoundedByTarget() {
+        AtomicLong clock = new AtomicLong(0);
+        EventWriterConfig config = EventWriterConfig.builder()
+                                                    .batchingMode(BatchingMode.LATENCY)
+                                                    .targetBatchLatencyMillis(1)
+                                                    .maxBatchSizeBytes(WireCommands.MAX_WIRECOMMAND_SIZE)
+                                                    .build();
+        AppendBatchSizeTrackerImpl tracker = new AppendBatchSizeTrackerImpl(config, clock::get);
+        // One append every 10us with acks far behind: about 100 appends fit in a 1ms window.
+        appendWithoutAcks(tracker, clock, 1000, TimeUnit.MICROSECONDS.toNanos(10));
+        int blockSize = tracker.getAppendBlockSize();
+        assertTrue("Block size was " + blockSize, blockSize > 50 * EVENT_SIZE && blockSize < 200 * EVENT_SIZE);
+        assertEquals(1, tracker.getBatchTimeout());
+    }
+
+    @Test
+    public void testLatencyModeBoundedByAckLatency() {
+        AtomicLong clock = new AtomicLong(0);
+        EventWriterConfig config = EventWriterConfig.builder()
+                                                    .batchingMode(BatchingMode.LATENCY)
+                                                    .targetBatchLatencyMillis(50)
+                                                    .maxBatchTimeMillis(100)
+                                                    .maxBatchSizeBytes(WireCommands.MAX_WIRECOMMAND_SIZE)
+                                                    .build();
+        AppendBatchSizeTrackerImpl tracker = new AppendBatchSizeTrackerImpl(config, clock::get);
+        long interval = TimeUnit.MICROSECONDS.toNanos(10);
+        long ackDelay = TimeUnit.MILLISECONDS.toNanos(2);
+        // Acks arrive 2ms after the append, which is much faster than the 50ms target.
+        for (int i = 1; i <= 2000; i++) {
+            clock.addAndGet(interval);
+            tracker.recordAppend(i, EVENT_SIZE);
+            if (i % 200 == 0) {
+                clock.addAndGet(ackDelay);
+                tracker.recordAck(i - 100);
+            }
+        }
+        int timeout = tracker.getBatchTimeout();
+        assertTrue("Timeout was " + timeout, timeout >= 1 && timeout < 50);
+        int blockSize = tracker.getAppendBlockSize();
+        assertTrue("Block size was " + blockSize, blockSize > 0 && blockSize < 50 * 100 * EVENT_SIZE);
+    }
+
+    @Test
+    public void testThroughputModeCappedAtMaxBatchSize() {
+        AtomicLong clock = new AtomicLong(0);
+        EventWriterConfig config = EventWriterConfig.builder()
+                                                    .batchingMode(BatchingMode.THROUGHPUT)
+                                                    .maxBatchTimeMillis(100)
+                                                    .maxBatchSizeBytes(8 * 1024)
+                                                    .build();
+        AppendBatchSizeTrackerImpl tracker = new AppendBatchSizeTrackerImpl(config, clock::get);
+        appendWithoutAcks(tracker, clock, 1000, TimeUnit.MICROSECONDS.toNanos(10));
+        assertEquals(8 * 1024, tracker.getAppendBlockSize());
+        assertEquals(100, tracker.getBatchTimeout());
+    }
+
+    @Test
+    public void testThroughputModeUsesAckLatency() {
+        AtomicLong clock = new AtomicLong(0);
+        EventWriterConfig config = EventWriterConfig.builder()
+                                                    .batchingMode(BatchingMode.THROUGHPUT)
+                                                    .targetBatchLatencyMillis(10)
+                                                    .maxBatchTimeMillis(100)
+                                                    .maxBatchSizeBytes(WireCommands.MAX_WIRECOMMAND_SIZE)
+                                                    .build();
+        AppendBatchSizeTrackerImpl tracker = new AppendBatchSizeTrackerImpl(config, clock::get);
+        // One append every 100us, acked about 40ms later: about 400 appends arrive within one round trip, which is more
+        // than the 10ms target but less than the 100ms max batch time.
+        for (int i = 1; i <= 20000; i++) {
+            clock.addAndGet(TimeUnit.MICROSECONDS.toNanos(100));
+            tracker.recordAppend(i, EVENT_SIZE);
+            if (i % 400 == 0) {
+                tracker.recordAck(i - 10);
+            }
+        }
+        int blockSize = tracker.getAppendBlockSize();
+        assertTrue("Block size was " + blockSize, blockSize > 300 * EVENT_SIZE && blockSize < 500 * EVENT_SIZE);
+        assertEquals(100, tracker.getBatchTimeout());
+    }
+
+    @Test
+    public void testInvalidConfig() {
+        AssertExtensions.assertThrows(IllegalArgumentException.class,
+                () -> new AppendBatchSizeTrackerImpl(EventWriterConfig.builder().maxBatchTimeMillis(0).build()));
+        AssertExtensions.assertThrows(IllegalArgumentException.class,
+                () -> new AppendBatchSizeTrackerImpl(EventWriterConfig.builder().maxBatchSizeBytes(WireCommands.MAX_WIRECOMMAND_SIZE + 1).build()));
+        AssertExtensions.assertThrows(NullPointerException.class,
+                () -> new AppendBatchSizeTrackerImpl(EventWriterConfig.builder().batchingMode(null).build()));
+    }
+
+    private void appendWithoutAcks(AppendBatchSizeTrackerImpl tracker, AtomicLong clock, int count, long intervalNanos) {
+        for (int i = 1; i <= count; i++) {
+            clock.addAndGet(intervalNanos);
+            tracker.recordAppend(i, EVENT_SIZE);
+        }
+    }
+}
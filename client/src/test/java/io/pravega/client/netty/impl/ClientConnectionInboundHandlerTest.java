@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.netty.impl;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.pravega.common.segment.StreamSegmentNameUtils;
+import io.pravega.shared.protocol.netty.AppendBatchSizeTracker;
+import io.pravega.shared.protocol.netty.ReplyProcessor;
+import io.pravega.shared.protocol.netty.WireCommands;
+import io.pravega.test.common.AssertExtensions;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class ClientConnectionInboundHandlerTest {
+
+    @Test
+    public void testRepliesRoutedBySegment() {
+        ClientConnectionInboundHandler handler = new ClientConnectionInboundHandler("test", true, h -> { }, h -> { });
+        EmbeddedChannel channel = new EmbeddedChannel(handler);
+        ReplyProcessor a = mock(ReplyProcessor.class);
+        ReplyProcessor b = mock(ReplyProcessor.class);
+        assertNotNull(handler.newSession("scope/stream/0", a, null));
+        assertNotNull(handler.newSession("scope/stream/1", b, null));
+        assertNull(handler.newSession("scope/stream/1", b, null));
+
+        WireCommands.NoSuchSegment reply = new WireCommands.NoSuchSegment(1, "scope/stream/1");
+        channel.writeInbound(reply);
+        verify(b).noSuchSegment(reply);
+        verify(a, never()).noSuchSegment(reply);
+
+        String txn = StreamSegmentNameUtils.getTransactionNameFromId("scope/stream/0", UUID.randomUUID());
+        WireCommands.SegmentIsSealed txnReply = new WireCommands.SegmentIsSealed(2, txn);
+        channel.writeInbound(txnReply);
+        verify(a).segmentIsSealed(txnReply);
+
+        channel.writeInbound(new WireCommands.NoSuchSegment(3, "scope/stream/2"));
+        channel.close();
+        verify(a).connectionDropped();
+        verify(b).connectionDropped();
+    }
+
+    @Test
+    public void testWritersNeedDedicatedConnection() throws Exception {
+        ClientConnectionInboundHandler shared = new ClientConnectionInboundHandler("test", true, h -> { }, h -> { });
+        new EmbeddedChannel(shared);
+        ClientSession sharedSession = shared.newSession("scope/stream/0", mock(ReplyProcessor.class), null);
+        UUID writer = UUID.randomUUID();
+        AssertExtensions.assertThrows(IllegalStateException.class,
+                () -> sharedSession.send(new WireCommands.SetupAppend(1, writer, "scope/stream/0")));
+
+        ClientConnectionInboundHandler dedicated = new ClientConnectionInboundHandler("test", false, h -> { }, h -> { });
+        EmbeddedChannel channel = new EmbeddedChannel(dedicated);
+        ReplyProcessor processor = mock(ReplyProcessor.class);
+        AppendBatchSizeTracker tracker = mock(AppendBatchSizeTracker.class);
+        ClientSession session = dedicated.newSession("scope/stream/0", processor, tracker);
+        session.send(new WireCommands.SetupAppend(1, writer, "scope/stream/0"));
+        WireCommands.DataAppended ack = new WireCommands.DataAppended(writer, 1);
+        channel.writeInbound(ack);
+        verify(processor).dataAppended(ack);
+        verify(tracker).recordAck(1);
+    }
+
+    @Test
+    public void testDedicatedConnection() {
+        AtomicInteger closed = new AtomicInteger(0);
+        ClientConnectionInboundHandler handler = new ClientConnectionInboundHandler("test", false, h -> { }, h -> closed.incrementAndGet());
+        EmbeddedChannel channel = new EmbeddedChannel(handler);
+        ReplyProcessor processor = mock(ReplyProcessor.class);
+        ClientSession session = handler.newSession(null, processor, null);
+        assertNotNull(session);
+        assertNull(handler.newSession("scope/stream/0", processor, null));
+
+        WireCommands.KeepAlive keepAlive = new WireCommands.KeepAlive();
+        channel.writeInbound(keepAlive);
+        verify(processor).keepAlive(keepAlive);
+        WireCommands.NoSuchSegment reply = new WireCommands.NoSuchSegment(1, "scope/stream/5");
+        channel.writeInbound(reply);
+        verify(processor).noSuchSegment(reply);
+
+        session.close();
+        assertEquals(1, closed.get());
+    }
+}
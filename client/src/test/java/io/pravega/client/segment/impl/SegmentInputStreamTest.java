@@ -63,6 +63,11 @@ public class SegmentInputStreamTest {
                 FutureHelpers.await(readResults.get(num + attempt), timeout);
                 return readResults.get(num + attempt).isDone();
             }
+
+            @Override
+            public CompletableFuture<Void> whenDone() {
+                return readResults.get(num + attempt).handle((r, e) -> null);
+            }
         }
 
         @Override
@@ -189,6 +194,27 @@ public class SegmentInputStreamTest {
         assertEquals(ByteBuffer.wrap(data), read);
     }
     
+    @Test
+    public void testOnDataAvailable() throws EndOfSegmentException {
+        byte[] data = new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        TestAsyncSegmentInputStream fakeNetwork = new TestAsyncSegmentInputStream(segment, 2);
+        @Cleanup
+        SegmentInputStreamImpl stream = new SegmentInputStreamImpl(fakeNetwork, 0);
+        CompletableFuture<Void> dataAvailable = stream.onDataAvailable();
+        assertFalse(dataAvailable.isDone());
+        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, true, false, createEventFromData(data)));
+        assertTrue(dataAvailable.isDone());
+        assertTrue(stream.onDataAvailable().isDone());
+        assertEquals(ByteBuffer.wrap(data), stream.read());
+
+        // A failed read also completes the future, so that the caller can go on to retry it.
+        dataAvailable = stream.onDataAvailable();
+        assertFalse(dataAvailable.isDone());
+        fakeNetwork.completeExceptionally(1, new ConnectionFailedException());
+        assertTrue(dataAvailable.isDone());
+        assertFalse(dataAvailable.isCompletedExceptionally());
+    }
+
     @Test
     public void testReadWithoutBlocking() throws EndOfSegmentException {
         byte[] data = new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
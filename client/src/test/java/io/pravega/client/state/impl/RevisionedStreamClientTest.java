@@ -22,6 +22,7 @@ import io.pravega.client.stream.mock.MockSegmentStreamFactory;
 
 import java.util.Iterator;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 
 import lombok.Cleanup;
 
@@ -106,4 +107,39 @@ public class RevisionedStreamClientTest {
         assertEquals("b", entry.getValue());
         assertFalse(iter.hasNext());
     }
+
+    @Test
+    public void testAwaitUpdates() {
+        String scope = "scope";
+        String stream = "stream";
+        PravegaNodeUri endpoint = new PravegaNodeUri("localhost", SERVICE_PORT);
+        MockConnectionFactoryImpl connectionFactory = new MockConnectionFactoryImpl(endpoint);
+        MockController controller = new MockController(endpoint.getEndpoint(), endpoint.getPort(), connectionFactory);
+        MockSegmentStreamFactory streamFactory = new MockSegmentStreamFactory();
+        @Cleanup
+        ClientFactory clientFactory = new ClientFactoryImpl(scope, controller, connectionFactory, streamFactory, streamFactory);
+
+        SynchronizerConfig config = SynchronizerConfig.builder().build();
+        RevisionedStreamClient<String> client = clientFactory.createRevisionedStreamClient(stream, new JavaSerializer<>(), config);
+
+        Revision initialRevision = client.fetchRevision();
+        CompletableFuture<Void> updates = client.awaitUpdates(initialRevision);
+        assertFalse(updates.isDone());
+        client.writeUnconditionally("a");
+        assertTrue(updates.isDone());
+        assertTrue(client.awaitUpdates(initialRevision).isDone());
+
+        Revision latest = client.fetchRevision();
+        updates = client.awaitUpdates(latest);
+        assertFalse(updates.isDone());
+        Iterator<Entry<Revision, String>> iter = client.readFrom(initialRevision);
+        assertEquals("a", iter.next().getValue());
+        assertFalse(iter.hasNext());
+        assertFalse(updates.isDone());
+        client.writeUnconditionally("b");
+        assertTrue(updates.isDone());
+        iter = client.readFrom(latest);
+        assertEquals("b", iter.next().getValue());
+        assertFalse(iter.hasNext());
+    }
 }
@@ -28,6 +28,7 @@ import java.util.AbstractMap;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import lombok.Cleanup;
 import lombok.Data;
@@ -123,6 +124,11 @@ public class SynchronizerTest {
             return new RevisionImpl(segment, visableLength, visableLength);
         }
 
+        @Override
+        public CompletableFuture<Void> awaitUpdates(Revision revision) {
+            throw new NotImplementedException();
+        }
+
     }
 
     @Test(timeout = 20000)
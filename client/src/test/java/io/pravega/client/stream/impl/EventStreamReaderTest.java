@@ -10,20 +10,29 @@
 package io.pravega.client.stream.impl;
 
 import com.google.common.collect.ImmutableMap;
+import io.pravega.client.segment.impl.EndOfSegmentException;
 import io.pravega.client.segment.impl.NoSuchEventException;
 import io.pravega.client.segment.impl.Segment;
 import io.pravega.client.segment.impl.SegmentInputStream;
+import io.pravega.client.segment.impl.SegmentInputStreamFactory;
 import io.pravega.client.segment.impl.SegmentOutputStream;
 import io.pravega.client.segment.impl.SegmentSealedException;
 import io.pravega.client.stream.EventRead;
+import io.pravega.client.stream.EventWriterConfig;
 import io.pravega.client.stream.ReaderConfig;
 import io.pravega.client.stream.ReinitializationRequiredException;
 import io.pravega.client.stream.mock.MockSegmentStreamFactory;
+import io.pravega.test.common.AssertExtensions;
 import java.nio.ByteBuffer;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
+import lombok.Cleanup;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -51,7 +60,7 @@ public class EventStreamReaderTest {
         Mockito.when(groupState.acquireNewSegmentsIfNeeded(0L))
                .thenReturn(ImmutableMap.of(segment, 0L))
                .thenReturn(Collections.emptyMap());
-        SegmentOutputStream stream = segmentStreamFactory.createOutputStreamForSegment(segment);
+        SegmentOutputStream stream = segmentStreamFactory.createOutputStreamForSegment(segment, EventWriterConfig.builder().build());
         ByteBuffer buffer = writeInt(stream, 1);
         EventRead<byte[]> read = reader.readNextEvent(0);
         byte[] event = read.getEvent();
@@ -78,7 +87,7 @@ public class EventStreamReaderTest {
                 ReaderConfig.builder().build());
         Segment segment = Segment.fromScopedName("Foo/Bar/0");
         Mockito.when(groupState.acquireNewSegmentsIfNeeded(0L)).thenReturn(ImmutableMap.of(segment, 0L)).thenReturn(Collections.emptyMap());
-        SegmentOutputStream stream = segmentStreamFactory.createOutputStreamForSegment(segment);
+        SegmentOutputStream stream = segmentStreamFactory.createOutputStreamForSegment(segment, EventWriterConfig.builder().build());
         ByteBuffer buffer1 = writeInt(stream, 1);
         ByteBuffer buffer2 = writeInt(stream, 2);
         ByteBuffer buffer3 = writeInt(stream, 3);
@@ -89,6 +98,118 @@ public class EventStreamReaderTest {
         reader.close();
     }
 
+    @Test(timeout = 10000)
+    public void testReadBatch() throws SegmentSealedException, ReinitializationRequiredException {
+        AtomicLong clock = new AtomicLong();
+        MockSegmentStreamFactory segmentStreamFactory = new MockSegmentStreamFactory();
+        Orderer orderer = new Orderer();
+        ReaderGroupStateManager groupState = Mockito.mock(ReaderGroupStateManager.class);
+        EventStreamReaderImpl<byte[]> reader = new EventStreamReaderImpl<byte[]>(segmentStreamFactory,
+                new ByteArraySerializer(),
+                groupState,
+                orderer,
+                clock::get,
+                ReaderConfig.builder().build());
+        Segment segment1 = Segment.fromScopedName("Foo/Bar/0");
+        Segment segment2 = Segment.fromScopedName("Foo/Bar/1");
+        Mockito.when(groupState.acquireNewSegmentsIfNeeded(0L))
+               .thenReturn(ImmutableMap.of(segment1, 0L, segment2, 0L))
+               .thenReturn(Collections.emptyMap());
+        SegmentOutputStream stream1 = segmentStreamFactory.createOutputStreamForSegment(segment1, EventWriterConfig.builder().build());
+        SegmentOutputStream stream2 = segmentStreamFactory.createOutputStreamForSegment(segment2, EventWriterConfig.builder().build());
+        Set<ByteBuffer> written = new HashSet<>();
+        written.add(writeInt(stream1, 1));
+        written.add(writeInt(stream1, 2));
+        written.add(writeInt(stream2, 3));
+
+        List<EventRead<byte[]>> batch = reader.readNextEvents(2, 1000);
+        assertEquals(2, batch.size());
+        assertTrue("Expected a single position per batch.", batch.get(0).getPosition() == batch.get(1).getPosition());
+        Set<ByteBuffer> read = new HashSet<>();
+        batch.forEach(e -> read.add(ByteBuffer.wrap(e.getEvent())));
+
+        batch = reader.readNextEvents(10, 1000);
+        assertEquals(1, batch.size());
+        read.add(ByteBuffer.wrap(batch.get(0).getEvent()));
+        assertEquals(written, read);
+
+        batch = reader.readNextEvents(10, 0);
+        assertEquals(1, batch.size());
+        assertNull(batch.get(0).getEvent());
+
+        Mockito.when(groupState.getCheckpoint()).thenReturn("checkpoint");
+        batch = reader.readNextEvents(10, 0);
+        assertEquals(1, batch.size());
+        assertTrue(batch.get(0).isCheckpoint());
+        reader.close();
+    }
+
+    @Test(timeout = 10000)
+    public void testReadAsync() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        MockSegmentStreamFactory segmentStreamFactory = new MockSegmentStreamFactory();
+        Orderer orderer = new Orderer();
+        ReaderGroupStateManager groupState = Mockito.mock(ReaderGroupStateManager.class);
+        @Cleanup("shutdownNow")
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        EventStreamReaderImpl<byte[]> reader = new EventStreamReaderImpl<byte[]>(segmentStreamFactory,
+                new ByteArraySerializer(),
+                groupState,
+                orderer,
+                clock::get,
+                ReaderConfig.builder().build());
+        Segment segment = Segment.fromScopedName("Foo/Bar/0");
+        Mockito.when(groupState.acquireNewSegmentsIfNeeded(0L)).thenReturn(ImmutableMap.of(segment, 0L)).thenReturn(Collections.emptyMap());
+        SegmentOutputStream stream = segmentStreamFactory.createOutputStreamForSegment(segment, EventWriterConfig.builder().build());
+        ByteBuffer buffer1 = writeInt(stream, 1);
+        ByteBuffer buffer2 = writeInt(stream, 2);
+        assertEquals(buffer1, ByteBuffer.wrap(reader.readNextEventAsync(1000, executor).get().getEvent()));
+        assertEquals(buffer2, ByteBuffer.wrap(reader.readNextEventAsync(1000, executor).get().getEvent()));
+
+        // Reaching the end of the only segment leaves nothing to wait on, so this times out.
+        assertNull(reader.readNextEventAsync(100, executor).get().getEvent());
+        assertEquals(0, reader.getReaders().size());
+
+        Mockito.when(groupState.getCheckpoint()).thenReturn("checkpoint");
+        assertTrue(reader.readNextEventAsync(1000, executor).get().isCheckpoint());
+        reader.close();
+        AssertExtensions.assertThrows("readNextEventAsync did not fail after close.",
+                reader.readNextEventAsync(1000, executor),
+                ex -> ex instanceof IllegalStateException);
+    }
+
+    @Test(timeout = 10000)
+    public void testPartialHeaderBuffered() throws ReinitializationRequiredException, EndOfSegmentException {
+        AtomicLong clock = new AtomicLong();
+        SegmentInputStreamFactory segmentStreamFactory = Mockito.mock(SegmentInputStreamFactory.class);
+        Orderer orderer = new Orderer();
+        ReaderGroupStateManager groupState = Mockito.mock(ReaderGroupStateManager.class);
+        EventStreamReaderImpl<byte[]> reader = new EventStreamReaderImpl<byte[]>(segmentStreamFactory,
+                new ByteArraySerializer(),
+                groupState,
+                orderer,
+                clock::get,
+                ReaderConfig.builder().build());
+        Segment segment = Segment.fromScopedName("Foo/Bar/0");
+        Mockito.when(groupState.acquireNewSegmentsIfNeeded(0L)).thenReturn(ImmutableMap.of(segment, 0L)).thenReturn(Collections.emptyMap());
+
+        // A few bytes of the next event are buffered, so the segment can be read from without blocking, but there is
+        // no complete header until the outstanding read comes back.
+        SegmentInputStream segmentStream = Mockito.mock(SegmentInputStream.class);
+        CompletableFuture<Void> dataAvailable = new CompletableFuture<>();
+        Mockito.when(segmentStream.getSegmentId()).thenReturn(segment);
+        Mockito.when(segmentStream.canReadWithoutBlocking()).thenReturn(true);
+        Mockito.when(segmentStream.onDataAvailable()).thenReturn(dataAvailable);
+        Mockito.when(segmentStreamFactory.createInputStreamForSegment(segment)).thenReturn(segmentStream);
+
+        // Spans several group state refresh intervals.
+        long timeout = ReaderGroupStateManager.TIME_UNIT.toMillis() * 2 + 500;
+        assertNull(reader.readNextEvent(timeout).getEvent());
+        Mockito.verify(segmentStream, Mockito.never()).read(Mockito.anyLong());
+        assertEquals("Waiting again should not attach another callback.", 1, dataAvailable.getNumberOfDependents());
+        reader.close();
+    }
+
     @Test(timeout = 10000)
     public void testReleaseSegment() throws SegmentSealedException, ReinitializationRequiredException {
         AtomicLong clock = new AtomicLong();
@@ -106,8 +227,8 @@ public class EventStreamReaderTest {
         Mockito.when(groupState.acquireNewSegmentsIfNeeded(0L))
                .thenReturn(ImmutableMap.of(segment1, 0L, segment2, 0L))
                .thenReturn(Collections.emptyMap());
-        SegmentOutputStream stream1 = segmentStreamFactory.createOutputStreamForSegment(segment1);
-        SegmentOutputStream stream2 = segmentStreamFactory.createOutputStreamForSegment(segment2);
+        SegmentOutputStream stream1 = segmentStreamFactory.createOutputStreamForSegment(segment1, EventWriterConfig.builder().build());
+        SegmentOutputStream stream2 = segmentStreamFactory.createOutputStreamForSegment(segment2, EventWriterConfig.builder().build());
         writeInt(stream1, 1);
         writeInt(stream2, 2);
         reader.readNextEvent(0);
@@ -152,8 +273,8 @@ public class EventStreamReaderTest {
                .thenReturn(ImmutableMap.of(segment1, 0L))
                .thenReturn(ImmutableMap.of(segment2, 0L))
                .thenReturn(Collections.emptyMap());
-        SegmentOutputStream stream1 = segmentStreamFactory.createOutputStreamForSegment(segment1);
-        SegmentOutputStream stream2 = segmentStreamFactory.createOutputStreamForSegment(segment2);
+        SegmentOutputStream stream1 = segmentStreamFactory.createOutputStreamForSegment(segment1, EventWriterConfig.builder().build());
+        SegmentOutputStream stream2 = segmentStreamFactory.createOutputStreamForSegment(segment2, EventWriterConfig.builder().build());
         writeInt(stream1, 1);
         writeInt(stream1, 2);
         writeInt(stream2, 3);
@@ -185,7 +306,7 @@ public class EventStreamReaderTest {
                 ReaderConfig.builder().build());
         Segment segment = Segment.fromScopedName("Foo/Bar/0");
         Mockito.when(groupState.acquireNewSegmentsIfNeeded(0L)).thenReturn(ImmutableMap.of(segment, 0L)).thenReturn(Collections.emptyMap());
-        SegmentOutputStream stream = segmentStreamFactory.createOutputStreamForSegment(segment);
+        SegmentOutputStream stream = segmentStreamFactory.createOutputStreamForSegment(segment, EventWriterConfig.builder().build());
         ByteBuffer buffer1 = writeInt(stream, 1);
         ByteBuffer buffer2 = writeInt(stream, 2);
         ByteBuffer buffer3 = writeInt(stream, 3);
@@ -216,7 +337,7 @@ public class EventStreamReaderTest {
                 ReaderConfig.builder().build());
         Segment segment = Segment.fromScopedName("Foo/Bar/0");
         Mockito.when(groupState.acquireNewSegmentsIfNeeded(0L)).thenReturn(ImmutableMap.of(segment, 0L)).thenReturn(Collections.emptyMap());
-        SegmentOutputStream stream = segmentStreamFactory.createOutputStreamForSegment(segment);
+        SegmentOutputStream stream = segmentStreamFactory.createOutputStreamForSegment(segment, EventWriterConfig.builder().build());
         ByteBuffer buffer = writeInt(stream, 1);
         Mockito.when(groupState.getCheckpoint()).thenReturn("Foo").thenReturn(null);
         EventRead<byte[]> eventRead = reader.readNextEvent(0);
@@ -242,7 +363,7 @@ public class EventStreamReaderTest {
                 ReaderConfig.builder().build());
         Segment segment = Segment.fromScopedName("Foo/Bar/0");
         Mockito.when(groupState.acquireNewSegmentsIfNeeded(0L)).thenReturn(ImmutableMap.of(segment, 0L)).thenReturn(Collections.emptyMap());
-        SegmentOutputStream stream = segmentStreamFactory.createOutputStreamForSegment(segment);
+        SegmentOutputStream stream = segmentStreamFactory.createOutputStreamForSegment(segment, EventWriterConfig.builder().build());
         ByteBuffer buffer = writeInt(stream, 1);
         Mockito.when(groupState.getCheckpoint()).thenThrow(new ReinitializationRequiredException());
         try {
@@ -22,13 +22,19 @@ import io.pravega.client.stream.mock.MockSegmentIoStreams;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import javax.annotation.concurrent.NotThreadSafe;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
 import lombok.Cleanup;
 import lombok.RequiredArgsConstructor;
 import org.junit.Ignore;
@@ -52,7 +58,7 @@ public class EventStreamWriterTest {
         Controller controller = Mockito.mock(Controller.class);
         Mockito.when(controller.getCurrentSegments(scope, streamName)).thenReturn(getSegmentsFuture(segment));
         MockSegmentIoStreams outputStream = new MockSegmentIoStreams(segment);
-        Mockito.when(streamFactory.createOutputStreamForSegment(segment)).thenReturn(outputStream);
+        Mockito.when(streamFactory.createOutputStreamForSegment(segment, config)).thenReturn(outputStream);
         EventStreamWriter<String> writer = new EventStreamWriterImpl<>(stream,
                                                                        controller,
                                                                        streamFactory,
@@ -96,7 +102,7 @@ public class EventStreamWriterTest {
         Controller controller = Mockito.mock(Controller.class);
         Mockito.when(controller.getCurrentSegments(scope, streamName)).thenReturn(getSegmentsFuture(segment));
         SegmentOutputStream outputStream = Mockito.mock(SegmentOutputStream.class);
-        Mockito.when(streamFactory.createOutputStreamForSegment(segment)).thenReturn(outputStream);
+        Mockito.when(streamFactory.createOutputStreamForSegment(segment, config)).thenReturn(outputStream);
         EventStreamWriter<String> writer = new EventStreamWriterImpl<>(stream,
                                                                        controller,
                                                                        streamFactory,
@@ -119,15 +125,16 @@ public class EventStreamWriterTest {
         }
     }
 
-    @NotThreadSafe
+    @ThreadSafe
     @RequiredArgsConstructor
     private static final class FakeSegmentOutputStream implements SegmentOutputStream {
         private final Segment segment;
+        @GuardedBy("this")
         private final ArrayList<PendingEvent> writes = new ArrayList<>();
-        private boolean sealed = false;
+        private volatile boolean sealed = false;
 
         @Override
-        public void write(PendingEvent event) throws SegmentSealedException {
+        public synchronized void write(PendingEvent event) throws SegmentSealedException {
             writes.add(event);
             if (sealed) {
                 throw new SegmentSealedException();
@@ -135,7 +142,7 @@ public class EventStreamWriterTest {
         }
 
         @Override
-        public void close() throws SegmentSealedException {
+        public synchronized void close() throws SegmentSealedException {
             if (sealed) {
                 throw new SegmentSealedException();
             }
@@ -143,7 +150,7 @@ public class EventStreamWriterTest {
         }
 
         @Override
-        public void flush() throws SegmentSealedException {
+        public synchronized void flush() throws SegmentSealedException {
             if (sealed) {
                 throw new SegmentSealedException();
             }
@@ -151,8 +158,8 @@ public class EventStreamWriterTest {
         }
 
         @Override
-        public List<PendingEvent> getUnackedEvents() {
-            return Collections.unmodifiableList(writes);
+        public synchronized List<PendingEvent> getUnackedEvents() {
+            return Collections.unmodifiableList(new ArrayList<>(writes));
         }
 
         @Override
@@ -175,8 +182,8 @@ public class EventStreamWriterTest {
         Controller controller = Mockito.mock(Controller.class);
         FakeSegmentOutputStream outputStream1 = new FakeSegmentOutputStream(segment1);
         FakeSegmentOutputStream outputStream2 = new FakeSegmentOutputStream(segment2);
-        Mockito.when(streamFactory.createOutputStreamForSegment(segment1)).thenReturn(outputStream1);
-        Mockito.when(streamFactory.createOutputStreamForSegment(segment2)).thenReturn(outputStream2);
+        Mockito.when(streamFactory.createOutputStreamForSegment(segment1, config)).thenReturn(outputStream1);
+        Mockito.when(streamFactory.createOutputStreamForSegment(segment2, config)).thenReturn(outputStream2);
 
         JavaSerializer<String> serializer = new JavaSerializer<>();
         Mockito.when(controller.getCurrentSegments(scope, streamName))
@@ -202,6 +209,65 @@ public class EventStreamWriterTest {
         assertEquals("Bar", serializer.deserialize(outputStream2.getUnackedEvents().get(1).getData()));
     }
 
+    @Test(timeout = 10000)
+    public void testConcurrentWritesToSealedSegment() throws Exception {
+        String scope = "scope";
+        String streamName = "stream";
+        String routingKey = "RoutingKey";
+        StreamImpl stream = new StreamImpl(scope, streamName);
+        Segment segment1 = new Segment(scope, streamName, 0);
+        Segment segment2 = new Segment(scope, streamName, 1);
+        EventWriterConfig config = EventWriterConfig.builder().build();
+        SegmentOutputStreamFactory streamFactory = Mockito.mock(SegmentOutputStreamFactory.class);
+        Controller controller = Mockito.mock(Controller.class);
+        FakeSegmentOutputStream outputStream1 = new FakeSegmentOutputStream(segment1);
+        FakeSegmentOutputStream outputStream2 = new FakeSegmentOutputStream(segment2);
+        Mockito.when(streamFactory.createOutputStreamForSegment(segment1, config)).thenReturn(outputStream1);
+        Mockito.when(streamFactory.createOutputStreamForSegment(segment2, config)).thenReturn(outputStream2);
+        Mockito.when(controller.getCurrentSegments(scope, streamName)).thenReturn(getSegmentsFuture(segment1));
+        Mockito.when(controller.getSuccessors(segment1)).thenReturn(getReplacement(segment1, segment2));
+
+        JavaSerializer<String> serializer = new JavaSerializer<>();
+        @Cleanup
+        EventStreamWriter<String> writer = new EventStreamWriterImpl<>(stream,
+                                                                       controller,
+                                                                       streamFactory,
+                                                                       serializer,
+                                                                       config);
+        outputStream1.sealed = true;
+
+        int threadCount = 4;
+        int eventsPerThread = 100;
+        @Cleanup("shutdownNow")
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Future<?>> futures = new ArrayList<>();
+        Set<String> expected = new HashSet<>();
+        for (int t = 0; t < threadCount; t++) {
+            String prefix = "Thread" + t + "-";
+            for (int i = 0; i < eventsPerThread; i++) {
+                expected.add(prefix + i);
+            }
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < eventsPerThread; i++) {
+                    writer.writeEvent(routingKey, prefix + i);
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+
+        // Every event must have been re-sent to the successor exactly once, and the seal handled only once.
+        List<PendingEvent> written = outputStream2.getUnackedEvents();
+        assertEquals(expected.size(), written.size());
+        Set<String> actual = new HashSet<>();
+        for (PendingEvent event : written) {
+            actual.add(serializer.deserialize(event.getData()));
+        }
+        assertEquals(expected, actual);
+        Mockito.verify(controller, Mockito.times(1)).getSuccessors(segment1);
+    }
+
     @Test
     @Ignore
     public void testNoNextSegment() {
@@ -223,8 +289,8 @@ public class EventStreamWriterTest {
         FakeSegmentOutputStream bad = new FakeSegmentOutputStream(segment);
         Mockito.when(controller.createTransaction(stream, 0, 0, 0))
                .thenReturn(CompletableFuture.completedFuture(new TxnSegments(getSegments(segment), txid)));
-        Mockito.when(streamFactory.createOutputStreamForTransaction(segment, txid)).thenReturn(outputStream);
-        Mockito.when(streamFactory.createOutputStreamForSegment(segment)).thenReturn(bad);
+        Mockito.when(streamFactory.createOutputStreamForTransaction(segment, txid, config)).thenReturn(outputStream);
+        Mockito.when(streamFactory.createOutputStreamForSegment(segment, config)).thenReturn(bad);
 
         JavaSerializer<String> serializer = new JavaSerializer<>();
         @Cleanup
@@ -258,8 +324,8 @@ public class EventStreamWriterTest {
         FakeSegmentOutputStream bad = new FakeSegmentOutputStream(segment);
         Mockito.when(controller.createTransaction(stream, 0, 0, 0))
                .thenReturn(CompletableFuture.completedFuture(new TxnSegments(getSegments(segment), txid)));
-        Mockito.when(streamFactory.createOutputStreamForTransaction(segment, txid)).thenReturn(outputStream);
-        Mockito.when(streamFactory.createOutputStreamForSegment(segment)).thenReturn(bad);
+        Mockito.when(streamFactory.createOutputStreamForTransaction(segment, txid, config)).thenReturn(outputStream);
+        Mockito.when(streamFactory.createOutputStreamForSegment(segment, config)).thenReturn(bad);
 
         JavaSerializer<String> serializer = new JavaSerializer<>();
         @Cleanup
@@ -292,7 +358,7 @@ public class EventStreamWriterTest {
         Controller controller = Mockito.mock(Controller.class);
         FakeSegmentOutputStream outputStream = new FakeSegmentOutputStream(segment);
         Mockito.when(controller.getCurrentSegments(scope, streamName)).thenReturn(getSegmentsFuture(segment));
-        Mockito.when(streamFactory.createOutputStreamForSegment(segment)).thenReturn(outputStream);
+        Mockito.when(streamFactory.createOutputStreamForSegment(segment, config)).thenReturn(outputStream);
 
         JavaSerializer<String> serializer = new JavaSerializer<>();
         @Cleanup
@@ -323,7 +389,7 @@ public class EventStreamWriterTest {
         Mockito.when(controller.getCurrentSegments(scope, streamName))
                .thenReturn(getSegmentsFuture(segment1));
         Mockito.when(controller.getSuccessors(segment1)).thenReturn(getReplacement(segment1, segment2));
-        Mockito.when(streamFactory.createOutputStreamForSegment(segment1)).thenReturn(outputStream);
+        Mockito.when(streamFactory.createOutputStreamForSegment(segment1, config)).thenReturn(outputStream);
         JavaSerializer<String> serializer = new JavaSerializer<>();
         @Cleanup
         EventStreamWriter<String> writer = new EventStreamWriterImpl<>(stream,
@@ -337,7 +403,7 @@ public class EventStreamWriterTest {
         outputStream.sealed = true;
 
         MockSegmentIoStreams outputStream2 = new MockSegmentIoStreams(segment2);
-        Mockito.when(streamFactory.createOutputStreamForSegment(segment2)).thenReturn(outputStream2);
+        Mockito.when(streamFactory.createOutputStreamForSegment(segment2, config)).thenReturn(outputStream2);
         writer.flush();
 
         Mockito.verify(controller, Mockito.times(1)).getCurrentSegments(Mockito.any(), Mockito.any());
@@ -360,7 +426,7 @@ public class EventStreamWriterTest {
         Mockito.when(controller.getCurrentSegments(scope, streamName))
                .thenReturn(getSegmentsFuture(segment1));
         Mockito.when(controller.getSuccessors(segment1)).thenReturn(getReplacement(segment1, segment2));
-        Mockito.when(streamFactory.createOutputStreamForSegment(segment1)).thenReturn(outputStream1);
+        Mockito.when(streamFactory.createOutputStreamForSegment(segment1, config)).thenReturn(outputStream1);
         JavaSerializer<String> serializer = new JavaSerializer<>();
         @Cleanup
         EventStreamWriter<String> writer = new EventStreamWriterImpl<>(stream,
@@ -374,7 +440,7 @@ public class EventStreamWriterTest {
         outputStream1.sealed = true;
 
         MockSegmentIoStreams outputStream2 = new MockSegmentIoStreams(segment2);
-        Mockito.when(streamFactory.createOutputStreamForSegment(segment2)).thenReturn(outputStream2);
+        Mockito.when(streamFactory.createOutputStreamForSegment(segment2, config)).thenReturn(outputStream2);
         writer.close();
 
         Mockito.verify(controller, Mockito.times(1)).getCurrentSegments(Mockito.any(), Mockito.any());
@@ -403,9 +469,9 @@ public class EventStreamWriterTest {
         Mockito.when(controller.getSuccessors(segment1)).thenReturn(getReplacement(segment1, segment2));
         Mockito.when(controller.getSuccessors(segment2)).thenReturn(getReplacement(segment2, segment3));
         
-        Mockito.when(streamFactory.createOutputStreamForSegment(segment1)).thenReturn(outputStream1);
-        Mockito.when(streamFactory.createOutputStreamForSegment(segment2)).thenReturn(outputStream2);
-        Mockito.when(streamFactory.createOutputStreamForSegment(segment3)).thenReturn(outputStream3);
+        Mockito.when(streamFactory.createOutputStreamForSegment(segment1, config)).thenReturn(outputStream1);
+        Mockito.when(streamFactory.createOutputStreamForSegment(segment2, config)).thenReturn(outputStream2);
+        Mockito.when(streamFactory.createOutputStreamForSegment(segment3, config)).thenReturn(outputStream3);
         JavaSerializer<String> serializer = new JavaSerializer<>();
         @Cleanup
         EventStreamWriter<String> writer = new EventStreamWriterImpl<>(stream,
@@ -42,6 +42,12 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @RunWith(BlockJUnit4ClassRunner.class)
 public class ReaderGroupStateManagerTest {
@@ -244,6 +250,81 @@ public class ReaderGroupStateManagerTest {
                 () -> readerState2.acquireNewSegmentsIfNeeded(0L));
     }
 
+    @Test(timeout = 10000)
+    public void testUpdatesFromOtherReadersArePushed() throws ReinitializationRequiredException {
+        String scope = "scope";
+        String stream = "stream";
+        PravegaNodeUri endpoint = new PravegaNodeUri("localhost", SERVICE_PORT);
+        MockConnectionFactoryImpl connectionFactory = new MockConnectionFactoryImpl(endpoint);
+        MockController controller = new MockController(endpoint.getEndpoint(), endpoint.getPort(), connectionFactory);
+        MockSegmentStreamFactory streamFactory = new MockSegmentStreamFactory();
+        @Cleanup
+        ClientFactory clientFactory = new ClientFactoryImpl(scope, controller, connectionFactory, streamFactory, streamFactory);
+
+        SynchronizerConfig config = SynchronizerConfig.builder().build();
+        StateSynchronizer<ReaderGroupState> sync1 = clientFactory.createStateSynchronizer(stream, new JavaSerializer<>(),
+                                                                                          new JavaSerializer<>(), config);
+        StateSynchronizer<ReaderGroupState> sync2 = clientFactory.createStateSynchronizer(stream, new JavaSerializer<>(),
+                                                                                          new JavaSerializer<>(), config);
+        AtomicLong clock = new AtomicLong();
+        Map<Segment, Long> segments = new HashMap<>();
+        segments.put(new Segment(scope, stream, 0), 123L);
+        segments.put(new Segment(scope, stream, 1), 456L);
+        ReaderGroupStateManager.initializeReaderGroup(sync1, ReaderGroupConfig.builder().build(), segments);
+        ReaderGroupStateManager readerState1 = new ReaderGroupStateManager("testReader", sync1, controller, clock::get);
+        readerState1.initializeReader();
+        assertEquals(2, readerState1.acquireNewSegmentsIfNeeded(0).size());
+        assertNull(readerState1.findSegmentToReleaseIfRequired());
+        assertEquals(Collections.singleton("testReader"), sync1.getState().getOnlineReaders());
+
+        sync2.fetchUpdates();
+        ReaderGroupStateManager readerState2 = new ReaderGroupStateManager("testReader2", sync2, controller, clock::get);
+        readerState2.initializeReader();
+
+        // The clock has not moved, so the first reader only learns about the second one because its update was pushed.
+        assertNull(readerState1.findSegmentToReleaseIfRequired());
+        assertEquals(Sets.newHashSet("testReader", "testReader2"), sync1.getState().getOnlineReaders());
+    }
+
+    @Test(timeout = 10000)
+    public void testFailedUpdateNotificationsDoNotTriggerFetches() throws ReinitializationRequiredException {
+        String scope = "scope";
+        String stream = "stream";
+        PravegaNodeUri endpoint = new PravegaNodeUri("localhost", SERVICE_PORT);
+        MockConnectionFactoryImpl connectionFactory = new MockConnectionFactoryImpl(endpoint);
+        MockController controller = new MockController(endpoint.getEndpoint(), endpoint.getPort(), connectionFactory);
+        MockSegmentStreamFactory streamFactory = new MockSegmentStreamFactory();
+        @Cleanup
+        ClientFactory clientFactory = new ClientFactoryImpl(scope, controller, connectionFactory, streamFactory, streamFactory);
+
+        SynchronizerConfig config = SynchronizerConfig.builder().build();
+        StateSynchronizer<ReaderGroupState> sync = spy(clientFactory.createStateSynchronizer(stream, new JavaSerializer<>(),
+                                                                                              new JavaSerializer<>(), config));
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new RuntimeException("Unreachable"));
+        doReturn(failed).when(sync).awaitUpdates();
+
+        AtomicLong clock = new AtomicLong();
+        Map<Segment, Long> segments = new HashMap<>();
+        segments.put(new Segment(scope, stream, 0), 123L);
+        ReaderGroupStateManager.initializeReaderGroup(sync, ReaderGroupConfig.builder().build(), segments);
+        ReaderGroupStateManager readerState = new ReaderGroupStateManager("testReader", sync, controller, clock::get);
+        readerState.initializeReader();
+        clearInvocations(sync);
+
+        // The failed notification is ignored, so nothing is fetched until the fetch timer expires.
+        for (int i = 0; i < 10; i++) {
+            readerState.findSegmentToReleaseIfRequired();
+        }
+        verify(sync, never()).fetchUpdates();
+
+        clock.addAndGet(ReaderGroupStateManager.TIME_UNIT.toNanos());
+        for (int i = 0; i < 10; i++) {
+            readerState.findSegmentToReleaseIfRequired();
+        }
+        verify(sync, times(1)).fetchUpdates();
+    }
+
     @Test(timeout = 10000)
     public void testSegmentsAssigned() throws ReinitializationRequiredException {
         String scope = "scope";
@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.stream.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.pravega.client.segment.impl.Segment;
+import io.pravega.client.state.Revision;
+import io.pravega.client.state.impl.CorruptedStateException;
+import io.pravega.client.stream.ReaderGroupConfig;
+import io.pravega.client.stream.Sequence;
+import io.pravega.client.stream.impl.ReaderGroupState.AcquireSegment;
+import io.pravega.client.stream.impl.ReaderGroupState.AddReader;
+import io.pravega.client.stream.impl.ReaderGroupState.CheckpointReader;
+import io.pravega.client.stream.impl.ReaderGroupState.ClearCheckpoints;
+import io.pravega.client.stream.impl.ReaderGroupState.CreateCheckpoint;
+import io.pravega.client.stream.impl.ReaderGroupState.ReaderGroupStateInit;
+import io.pravega.client.stream.impl.ReaderGroupState.ReaderGroupStateUpdate;
+import io.pravega.client.stream.impl.ReaderGroupState.ReleaseSegment;
+import io.pravega.client.stream.impl.ReaderGroupState.RemoveReader;
+import io.pravega.client.stream.impl.ReaderGroupState.SegmentCompleted;
+import io.pravega.client.stream.impl.ReaderGroupState.UpdateDistanceToTail;
+import io.pravega.test.common.AssertExtensions;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ReaderGroupStateSerializerTest {
+    private static final String STREAM = "scope/_RGgroup";
+    private static final Revision REVISION = mock(Revision.class);
+    private final Segment s0 = new Segment("scope", "stream", 0);
+    private final Segment s1 = new Segment("scope", "stream", 1);
+    private final Segment s2 = new Segment("scope", "stream", 2);
+    private final Segment s3 = new Segment("scope", "stream", 3);
+    private final ReaderGroupStateSerializer<ReaderGroupStateInit> initSerializer = new ReaderGroupStateSerializer<>(true);
+    private final ReaderGroupStateSerializer<ReaderGroupStateUpdate> updateSerializer = new ReaderGroupStateSerializer<>(true);
+
+    @Test
+    public void testUpdates() {
+        ReaderGroupStateInit init = createInit();
+        ReaderGroupState expected = init.create(STREAM, REVISION);
+        ReaderGroupState actual = initSerializer.deserialize(initSerializer.serialize(init))
+                                                .create(STREAM, REVISION);
+        assertStatesEqual(expected, actual);
+
+        for (ReaderGroupStateUpdate update : createUpdates()) {
+            expected = update.applyTo(expected, REVISION);
+            actual = updateSerializer.deserialize(updateSerializer.serialize(update)).applyTo(actual, REVISION);
+            assertStatesEqual(expected, actual);
+        }
+    }
+
+    /**
+     * Tests that, unless the binary format is enabled, values are written with Java serialization, so that clients which
+     * predate ReaderGroupStateSerializer can still read them.
+     */
+    @Test
+    public void testLegacyFormatByDefault() {
+        ReaderGroupStateSerializer<ReaderGroupStateInit> defaultInit = new ReaderGroupStateSerializer<>();
+        ReaderGroupStateSerializer<ReaderGroupStateUpdate> legacyUpdate = new ReaderGroupStateSerializer<>(false);
+        JavaSerializer<ReaderGroupStateInit> javaInit = new JavaSerializer<>();
+        JavaSerializer<ReaderGroupStateUpdate> javaUpdate = new JavaSerializer<>();
+
+        ReaderGroupStateInit init = createInit();
+        ReaderGroupState expected = init.create(STREAM, REVISION);
+        assertStatesEqual(expected, javaInit.deserialize(defaultInit.serialize(init)).create(STREAM, REVISION));
+        ReaderGroupState actual = javaInit.deserialize(legacyUpdate.serialize(init)).create(STREAM, REVISION);
+        assertStatesEqual(expected, actual);
+        for (ReaderGroupStateUpdate update : createUpdates()) {
+            expected = update.applyTo(expected, REVISION);
+            actual = javaUpdate.deserialize(legacyUpdate.serialize(update)).applyTo(actual, REVISION);
+            assertStatesEqual(expected, actual);
+        }
+    }
+
+    @Test
+    public void testLegacyJavaSerialization() {
+        JavaSerializer<ReaderGroupStateInit> legacyInit = new JavaSerializer<>();
+        ReaderGroupStateInit init = createInit();
+        ReaderGroupState expected = init.create(STREAM, REVISION);
+        ReaderGroupState actual = initSerializer.deserialize(legacyInit.serialize(init)).create(STREAM, REVISION);
+        assertStatesEqual(expected, actual);
+
+        JavaSerializer<ReaderGroupStateUpdate> legacyUpdate = new JavaSerializer<>();
+        for (ReaderGroupStateUpdate update : createUpdates()) {
+            ByteBuffer legacy = legacyUpdate.serialize(update);
+            ByteBuffer compact = updateSerializer.serialize(update);
+            assertTrue("Expected the binary format to be smaller.", compact.remaining() < legacy.remaining());
+            assertEquals(update.getClass(), updateSerializer.deserialize(legacy).getClass());
+        }
+    }
+
+    @Test
+    public void testBufferTypes() {
+        ReaderGroupStateInit init = createInit();
+        ReaderGroupState expected = init.create(STREAM, REVISION);
+        ByteBuffer serialized = initSerializer.serialize(init);
+        ByteBuffer direct = ByteBuffer.allocateDirect(serialized.remaining());
+        direct.put(serialized.duplicate());
+        direct.flip();
+        assertStatesEqual(expected, initSerializer.deserialize(direct).create(STREAM, REVISION));
+        assertStatesEqual(expected, initSerializer.deserialize(serialized.asReadOnlyBuffer()).create(STREAM, REVISION));
+        assertStatesEqual(expected, initSerializer.deserialize(new JavaSerializer<ReaderGroupStateInit>().serialize(init)
+                                                                                                         .asReadOnlyBuffer())
+                                                  .create(STREAM, REVISION));
+    }
+
+    @Test
+    public void testNewerVersion() {
+        ByteBuffer serialized = updateSerializer.serialize(new AddReader("r1"));
+        ByteBuffer newer = ByteBuffer.allocate(serialized.remaining() + 3);
+        newer.put(serialized);
+        newer.put(new byte[]{ 1, 2, 3 });
+        newer.put(0, (byte) (newer.get(0) + 1));
+        newer.flip();
+        ReaderGroupStateUpdate update = updateSerializer.deserialize(newer);
+        assertTrue(update instanceof AddReader);
+        assertEquals("r1", ((AddReader) update).getReaderId());
+    }
+
+    @Test
+    public void testCorruptedData() {
+        AssertExtensions.assertThrows("Unknown version was accepted.",
+                () -> updateSerializer.deserialize(ByteBuffer.wrap(new byte[]{ 0, 10 })),
+                ex -> ex instanceof CorruptedStateException);
+        AssertExtensions.assertThrows("Unknown type was accepted.",
+                () -> updateSerializer.deserialize(ByteBuffer.wrap(new byte[]{ 1, 100 })),
+                ex -> ex instanceof CorruptedStateException);
+        AssertExtensions.assertThrows("Truncated data was accepted.",
+                () -> updateSerializer.deserialize(ByteBuffer.wrap(new byte[]{ 1, 10 })),
+                ex -> ex instanceof CorruptedStateException);
+    }
+
+    private ReaderGroupStateInit createInit() {
+        Map<Segment, Long> segments = new LinkedHashMap<>();
+        segments.put(s1, 10L);
+        segments.put(s0, 0L);
+        segments.put(s2, 20L);
+        ReaderGroupConfig config = ReaderGroupConfig.builder()
+                                                    .startingPosition(Sequence.create(1, 2))
+                                                    .groupRefreshTimeMillis(500)
+                                                    .build();
+        return new ReaderGroupStateInit(config, segments);
+    }
+
+    private ImmutableList<ReaderGroupStateUpdate> createUpdates() {
+        return ImmutableList.of(new AddReader("r1"),
+                new AddReader("r2"),
+                new CreateCheckpoint("cp0"),
+                new ClearCheckpoints("cp0"),
+                new AcquireSegment("r1", s0),
+                new AcquireSegment("r1", s1),
+                new AcquireSegment("r2", s2),
+                new UpdateDistanceToTail("r1", 100000L),
+                new SegmentCompleted("r1", s0, ImmutableMap.of(s3, ImmutableList.of(0, 2))),
+                new ReleaseSegment("r1", s1, 15L),
+                new CreateCheckpoint("cp1"),
+                new CheckpointReader("cp1", "r1", ImmutableMap.of()),
+                new CheckpointReader("cp1", "r2", ImmutableMap.of(s2, 25L)),
+                new CreateCheckpoint("cp2"),
+                new RemoveReader("r2", new PositionImpl(ImmutableMap.of(s2, 30L))));
+    }
+
+    private void assertStatesEqual(ReaderGroupState expected, ReaderGroupState actual) {
+        assertEquals(expected.getConfig(), actual.getConfig());
+        assertEquals(expected.getRelativeSizes(), actual.getRelativeSizes());
+        assertEquals("Unexpected unassigned segment order.", ImmutableList.copyOf(expected.getUnassignedSegments().entrySet()),
+                ImmutableList.copyOf(actual.getUnassignedSegments().entrySet()));
+        for (String checkpoint : ImmutableList.of("cp0", "cp1", "cp2")) {
+            assertEquals(expected.isCheckpointComplete(checkpoint), actual.isCheckpointComplete(checkpoint));
+        }
+        assertEquals(expected.toString(), actual.toString());
+    }
+}
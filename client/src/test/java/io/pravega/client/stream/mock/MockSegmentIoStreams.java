@@ -20,6 +20,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.concurrent.GuardedBy;
 import lombok.RequiredArgsConstructor;
 import lombok.Synchronized;
@@ -38,10 +39,16 @@ public class MockSegmentIoStreams implements SegmentOutputStream, SegmentInputSt
     private final ArrayList<ByteBuffer> dataWritten = new ArrayList<>();
     @GuardedBy("$lock")
     private final ArrayList<Long> offsetList = new ArrayList<>(); 
+    @GuardedBy("$lock")
+    private CompletableFuture<Void> nextWrite = null;
     
     @Override
     @Synchronized
     public void setOffset(long offset) {
+        if (offset == writeOffset) {
+            readIndex = eventsWritten;
+            return;
+        }
         int index = offsetList.indexOf(offset);
         if (index < 0) {
             throw new IllegalArgumentException("There is not an entry at offset: " + offset);
@@ -92,6 +99,10 @@ public class MockSegmentIoStreams implements SegmentOutputStream, SegmentInputSt
             eventsWritten++;
             writeOffset += event.getData().remaining() + WireCommands.TYPE_PLUS_LENGTH_SIZE;
             event.getAckFuture().complete(true);
+            if (nextWrite != null) {
+                nextWrite.complete(null);
+                nextWrite = null;
+            }
         } else {
             event.getAckFuture().complete(false);
         }
@@ -112,6 +123,18 @@ public class MockSegmentIoStreams implements SegmentOutputStream, SegmentInputSt
         return true;
     }
 
+    @Override
+    @Synchronized
+    public CompletableFuture<Void> onDataAvailable() {
+        if (readIndex < eventsWritten) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (nextWrite == null) {
+            nextWrite = new CompletableFuture<>();
+        }
+        return nextWrite;
+    }
+
     @Override
     public Segment getSegmentId() {
         return segment;
@@ -38,6 +38,7 @@ import io.pravega.controller.task.Stream.StreamTransactionMetadataTasks;
 import io.pravega.controller.task.TaskSweeper;
 import io.pravega.controller.timeout.TimeoutService;
 import io.pravega.controller.timeout.TimerWheelTimeoutService;
+import io.pravega.controller.util.Config;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.AbstractIdleService;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
@@ -135,7 +136,7 @@ public class ControllerServiceStarter extends AbstractIdleService {
                     new ThreadFactoryBuilder().setNameFormat("eventprocpool-%d").build());
 
             log.info("Creating the stream store");
-            streamStore = StreamStoreFactory.createStore(storeClient, storeExecutor);
+            streamStore = StreamStoreFactory.createStore(storeClient, Config.STREAM_STORE_CACHE_MAX_BYTES, storeExecutor);
 
             log.info("Creating the task store");
             taskMetadataStore = TaskStoreFactory.createStore(storeClient, taskExecutor);
@@ -161,7 +162,7 @@ public class ControllerServiceStarter extends AbstractIdleService {
             }
 
             connectionFactory = new ConnectionFactoryImpl(false);
-            SegmentHelper segmentHelper = new SegmentHelper();
+            SegmentHelper segmentHelper = new SegmentHelper(controllerServiceExecutor);
             streamMetadataTasks = new StreamMetadataTasks(streamStore, hostStore, taskMetadataStore,
                     segmentHelper, taskExecutor, host.getHostId(), connectionFactory);
             streamTransactionMetadataTasks = new StreamTransactionMetadataTasks(streamStore,
@@ -197,7 +198,7 @@ public class ControllerServiceStarter extends AbstractIdleService {
             }
 
             controllerService = new ControllerService(streamStore, hostStore, streamMetadataTasks,
-                    streamTransactionMetadataTasks, timeoutService, new SegmentHelper(), controllerServiceExecutor,
+                    streamTransactionMetadataTasks, timeoutService, segmentHelper, controllerServiceExecutor,
                     cluster);
 
             // Setup event processors.
@@ -9,12 +9,14 @@
  */
 package io.pravega.controller.server;
 
+import com.google.common.annotations.VisibleForTesting;
 import io.pravega.client.netty.impl.ClientConnection;
 import io.pravega.client.netty.impl.ConnectionFactory;
 import io.pravega.client.segment.impl.Segment;
 import io.pravega.client.stream.ScalingPolicy;
 import io.pravega.client.stream.impl.ModelHelper;
 import io.pravega.common.ExceptionHelpers;
+import io.pravega.common.concurrent.FutureHelpers;
 import io.pravega.common.cluster.Host;
 import io.pravega.controller.store.host.HostControllerStore;
 import io.pravega.controller.stream.api.grpc.v1.Controller;
@@ -26,16 +28,64 @@ import io.pravega.shared.protocol.netty.ReplyProcessor;
 import io.pravega.shared.protocol.netty.WireCommand;
 import io.pravega.shared.protocol.netty.WireCommandType;
 import io.pravega.shared.protocol.netty.WireCommands;
+import io.pravega.shared.protocol.netty.WireCommands.SegmentResult;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 
+/**
+ * Sends segment level requests from the controller to the segment stores. Requests to the same host are multiplexed
+ * over a single long lived connection, which is replaced if it fails.
+ * <p>
+ * Because of that, a request that fails in a way that makes either side close the connection also fails all the other
+ * requests outstanding on it, with a WireCommandFailedException (ConnectionDropped). That exception is retryable, so
+ * callers retry those requests over a new connection. A request that gets no reply within REQUEST_TIMEOUT fails with
+ * a (retryable) WireCommandFailedException as well, without affecting the others.
+ */
 public class SegmentHelper {
-    
+
+    @VisibleForTesting
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
     private final Supplier<Long> idGenerator = new AtomicLong(0)::incrementAndGet;
+    private final ConcurrentHashMap<PravegaNodeUri, SegmentStoreConnection> connections = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timeoutExecutor;
+
+    /**
+     * Creates a new instance of the SegmentHelper class, whose requests do not time out.
+     */
+    public SegmentHelper() {
+        this(null);
+    }
+
+    /**
+     * Creates a new instance of the SegmentHelper class.
+     *
+     * @param timeoutExecutor The executor to use for timing out requests that get no reply within REQUEST_TIMEOUT. If
+     *                        null, requests do not time out.
+     */
+    public SegmentHelper(ScheduledExecutorService timeoutExecutor) {
+        this.timeoutExecutor = timeoutExecutor;
+    }
 
     public Controller.NodeUri getSegmentUri(final String scope,
                                             final String stream,
@@ -87,9 +137,10 @@ public class SegmentHelper {
 
         Pair<Byte, Integer> extracted = extractFromPolicy(policy);
 
-        WireCommands.CreateSegment request = new WireCommands.CreateSegment(idGenerator.get(), 
+        final long requestId = idGenerator.get();
+        WireCommands.CreateSegment request = new WireCommands.CreateSegment(requestId, 
                 Segment.getScopedName(scope, stream, segmentNumber), extracted.getLeft(), extracted.getRight());
-        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        sendRequestAsync(requestId, request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
         return result;
     }
 
@@ -132,9 +183,10 @@ public class SegmentHelper {
             }
         };
 
-        WireCommands.DeleteSegment request = new WireCommands.DeleteSegment(idGenerator.get(), 
+        final long requestId = idGenerator.get();
+        WireCommands.DeleteSegment request = new WireCommands.DeleteSegment(requestId, 
                 Segment.getScopedName(scope, stream, segmentNumber));
-        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        sendRequestAsync(requestId, request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
         return result;
     }
 
@@ -187,9 +239,10 @@ public class SegmentHelper {
             }
         };
 
-        WireCommands.SealSegment request = new WireCommands.SealSegment(idGenerator.get(), 
+        final long requestId = idGenerator.get();
+        WireCommands.SealSegment request = new WireCommands.SealSegment(requestId, 
                 Segment.getScopedName(scope, stream, segmentNumber));
-        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        sendRequestAsync(requestId, request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
         return result;
     }
 
@@ -226,9 +279,10 @@ public class SegmentHelper {
             }
         };
 
-        WireCommands.CreateTransaction request = new WireCommands.CreateTransaction(idGenerator.get(), 
+        final long requestId = idGenerator.get();
+        WireCommands.CreateTransaction request = new WireCommands.CreateTransaction(requestId, 
                 Segment.getScopedName(scope, stream, segmentNumber), txId);
-        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        sendRequestAsync(requestId, request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
         return result;
     }
 
@@ -267,15 +321,28 @@ public class SegmentHelper {
                         new WireCommandFailedException(type, WireCommandFailedException.Reason.PreconditionFailed));
             }
 
+            @Override
+            public void noSuchSegment(WireCommands.NoSuchSegment noSuchSegment) {
+                // The transaction segment has already been merged (by an earlier attempt).
+                result.complete(TxnStatus.newBuilder().setStatus(TxnStatus.Status.SUCCESS).build());
+            }
+
+            @Override
+            public void segmentIsSealed(WireCommands.SegmentIsSealed segmentIsSealed) {
+                // The transaction segment was sealed for merging by an earlier attempt (see commitTransactions).
+                result.complete(TxnStatus.newBuilder().setStatus(TxnStatus.Status.SUCCESS).build());
+            }
+
             @Override
             public void processingFailure(Exception error) {
                 result.completeExceptionally(error);
             }
         };
 
-        WireCommands.CommitTransaction request = new WireCommands.CommitTransaction(idGenerator.get(), 
+        final long requestId = idGenerator.get();
+        WireCommands.CommitTransaction request = new WireCommands.CommitTransaction(requestId, 
                 Segment.getScopedName(scope, stream, segmentNumber), txId);
-        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        sendRequestAsync(requestId, request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
         return result;
     }
 
@@ -316,9 +383,10 @@ public class SegmentHelper {
             }
         };
 
-        WireCommands.AbortTransaction request = new WireCommands.AbortTransaction(idGenerator.get(), 
+        final long requestId = idGenerator.get();
+        WireCommands.AbortTransaction request = new WireCommands.AbortTransaction(requestId, 
                 Segment.getScopedName(scope, stream, segmentNumber), txId);
-        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        sendRequestAsync(requestId, request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
         return result;
     }
 
@@ -354,16 +422,237 @@ public class SegmentHelper {
 
         Pair<Byte, Integer> extracted = extractFromPolicy(policy);
 
-        WireCommands.UpdateSegmentPolicy request = new WireCommands.UpdateSegmentPolicy(idGenerator.get(), 
+        final long requestId = idGenerator.get();
+        WireCommands.UpdateSegmentPolicy request = new WireCommands.UpdateSegmentPolicy(requestId, 
                 Segment.getScopedName(scope, stream, segmentNumber), extracted.getLeft(), extracted.getRight());
-        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        sendRequestAsync(requestId, request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        return result;
+    }
+
+    /**
+     * Creates the given segments, sending one request to each of the hosts that own them.
+     *
+     * @param scope               stream scope
+     * @param stream              stream name
+     * @param segmentNumbers      numbers of the segments to be created. Segments are removed from it once they have
+     *                            been created, so retrying with the same collection only resends the ones that failed.
+     *                            It needs to support concurrent modification.
+     * @param policy              scaling policy of the stream
+     * @param hostControllerStore host controller store
+     * @param clientCF            connection factory
+     * @return A future that completes once every segment exists.
+     */
+    public CompletableFuture<Boolean> createSegments(final String scope,
+                                                     final String stream,
+                                                     final Collection<Integer> segmentNumbers,
+                                                     final ScalingPolicy policy,
+                                                     final HostControllerStore hostControllerStore,
+                                                     final ConnectionFactory clientCF) {
+        Pair<Byte, Integer> extracted = extractFromPolicy(policy);
+        return sendBatchRequest(scope, stream, segmentNumbers, hostControllerStore, clientCF,
+                WireCommandType.CREATE_SEGMENTS, EnumSet.of(SegmentResult.SUCCESS, SegmentResult.ALREADY_EXISTS),
+                (requestId, segments) -> new WireCommands.CreateSegments(requestId, segments, extracted.getLeft(), extracted.getRight()),
+                segmentNumber -> createSegment(scope, stream, segmentNumber, policy, hostControllerStore, clientCF))
+                .thenApply(v -> true);
+    }
+
+    /**
+     * Seals the given segments, sending one request to each of the hosts that own them.
+     *
+     * @param scope               stream scope
+     * @param stream              stream name
+     * @param segmentNumbers      numbers of the segments to be sealed. Segments are removed from it once they have been
+     *                            sealed, so retrying with the same collection only resends the ones that failed. It
+     *                            needs to support concurrent modification.
+     * @param hostControllerStore host controller store
+     * @param clientCF            connection factory
+     * @return A future that completes once every segment is sealed.
+     */
+    public CompletableFuture<Boolean> sealSegments(final String scope,
+                                                   final String stream,
+                                                   final Collection<Integer> segmentNumbers,
+                                                   final HostControllerStore hostControllerStore,
+                                                   final ConnectionFactory clientCF) {
+        return sendBatchRequest(scope, stream, segmentNumbers, hostControllerStore, clientCF,
+                WireCommandType.SEAL_SEGMENTS, EnumSet.of(SegmentResult.SUCCESS, SegmentResult.IS_SEALED),
+                WireCommands.SealSegments::new,
+                segmentNumber -> sealSegment(scope, stream, segmentNumber, hostControllerStore, clientCF))
+                .thenApply(v -> true);
+    }
+
+    /**
+     * Commits a transaction into the given segments, sending one request to each of the hosts that own them.
+     *
+     * @param scope               stream scope
+     * @param stream              stream name
+     * @param segmentNumbers      numbers of the segments the transaction is committed into. Segments are removed from
+     *                            it once the transaction has been merged into them, so retrying with the same collection
+     *                            only resends the ones that failed. It needs to support concurrent modification.
+     * @param txId                transaction id
+     * @param hostControllerStore host controller store
+     * @param clientCF            connection factory
+     * @return A future that completes once the transaction has been merged into every segment.
+     */
+    public CompletableFuture<TxnStatus> commitTransactions(final String scope,
+                                                           final String stream,
+                                                           final Collection<Integer> segmentNumbers,
+                                                           final UUID txId,
+                                                           final HostControllerStore hostControllerStore,
+                                                           final ConnectionFactory clientCF) {
+        // A retried commit finds the transaction segments that were merged by an earlier attempt gone (NO_SUCH_SEGMENT).
+        // Segment stores that do not go on to merge a transaction segment that is already sealed report IS_SEALED for
+        // those that the earlier attempt got to seal. Both mean that the commit has already been issued.
+        return sendBatchRequest(scope, stream, segmentNumbers, hostControllerStore, clientCF,
+                WireCommandType.COMMIT_TRANSACTIONS,
+                EnumSet.of(SegmentResult.SUCCESS, SegmentResult.NO_SUCH_SEGMENT, SegmentResult.IS_SEALED),
+                (requestId, segments) -> new WireCommands.CommitTransactions(requestId, segments, txId),
+                segmentNumber -> commitTransaction(scope, stream, segmentNumber, txId, hostControllerStore, clientCF))
+                .thenApply(v -> TxnStatus.newBuilder().setStatus(TxnStatus.Status.SUCCESS).build());
+    }
+
+    /**
+     * Groups the given segments by the host that owns them and sends one batch request to each host. Hosts that run a
+     * wire version older than WireCommands.BATCH_SEGMENT_COMMANDS_VERSION get one request per segment instead.
+     */
+    private CompletableFuture<Void> sendBatchRequest(final String scope,
+                                                     final String stream,
+                                                     final Collection<Integer> segmentNumbers,
+                                                     final HostControllerStore hostControllerStore,
+                                                     final ConnectionFactory clientCF,
+                                                     final WireCommandType type,
+                                                     final Set<SegmentResult> expected,
+                                                     final BiFunction<Long, List<String>, WireCommand> requestFactory,
+                                                     final Function<Integer, CompletableFuture<?>> singleRequest) {
+        final Map<PravegaNodeUri, Map<String, Integer>> segmentsByHost = new HashMap<>();
+        for (int segmentNumber : new ArrayList<>(segmentNumbers)) {
+            PravegaNodeUri uri = ModelHelper.encode(getSegmentUri(scope, stream, segmentNumber, hostControllerStore));
+            segmentsByHost.computeIfAbsent(uri, u -> new LinkedHashMap<>())
+                          .put(Segment.getScopedName(scope, stream, segmentNumber), segmentNumber);
+        }
+
+        final List<CompletableFuture<Void>> results = new ArrayList<>();
+        segmentsByHost.forEach((uri, segments) -> results.add(getServerVersion(uri, clientCF, type).thenCompose(version -> {
+            if (version < WireCommands.BATCH_SEGMENT_COMMANDS_VERSION) {
+                return FutureHelpers.allOf(segments.values().stream()
+                        .map(segmentNumber -> singleRequest.apply(segmentNumber).thenRun(() -> segmentNumbers.remove(segmentNumber)))
+                        .collect(Collectors.toList()));
+            }
+
+            final CompletableFuture<Void> result = new CompletableFuture<>();
+            final FailingReplyProcessor replyProcessor = new FailingReplyProcessor() {
+
+                @Override
+                public void connectionDropped() {
+                    result.completeExceptionally(new WireCommandFailedException(type, WireCommandFailedException.Reason.ConnectionDropped));
+                }
+
+                @Override
+                public void segmentsCreated(WireCommands.SegmentsCreated segmentsCreated) {
+                    completeBatch(result, type, expected, segments, segmentNumbers, segmentsCreated.getResults());
+                }
+
+                @Override
+                public void segmentsSealed(WireCommands.SegmentsSealed segmentsSealed) {
+                    completeBatch(result, type, expected, segments, segmentNumbers, segmentsSealed.getResults());
+                }
+
+                @Override
+                public void transactionsCommitted(WireCommands.TransactionsCommitted transactionsCommitted) {
+                    completeBatch(result, type, expected, segments, segmentNumbers, transactionsCommitted.getResults());
+                }
+
+                @Override
+                public void processingFailure(Exception error) {
+                    result.completeExceptionally(error);
+                }
+            };
+
+            final long requestId = idGenerator.get();
+            sendRequestAsync(requestId, requestFactory.apply(requestId, new ArrayList<>(segments.keySet())), replyProcessor,
+                    result, clientCF, uri);
+            return result;
+        })));
+        return FutureHelpers.allOf(results);
+    }
+
+    /**
+     * Removes the segments that are done from the given segment numbers and completes the result, exceptionally if any
+     * segment is not done (a retry will then only include those).
+     */
+    private void completeBatch(CompletableFuture<Void> result, WireCommandType type, Set<SegmentResult> expected,
+                               Map<String, Integer> segments, Collection<Integer> segmentNumbers,
+                               Map<String, SegmentResult> segmentResults) {
+        Throwable failure = null;
+        for (Map.Entry<String, SegmentResult> entry : segmentResults.entrySet()) {
+            if (expected.contains(entry.getValue())) {
+                Integer segmentNumber = segments.get(entry.getKey());
+                if (segmentNumber != null) {
+                    segmentNumbers.remove(segmentNumber);
+                }
+                continue;
+            }
+            if (failure != null) {
+                continue;
+            }
+            switch (entry.getValue()) {
+                case WRONG_HOST:
+                    failure = new WireCommandFailedException(type, WireCommandFailedException.Reason.UnknownHost);
+                    break;
+                case FAILED:
+                    // The segment store would have dropped the connection for the equivalent single segment request.
+                    failure = new WireCommandFailedException(
+                            new IllegalStateException("Segment store failed to process " + entry.getKey()),
+                            type, WireCommandFailedException.Reason.ConnectionDropped);
+                    break;
+                default:
+                    failure = new IllegalStateException("Unexpected result " + entry.getValue() + " for segment " + entry.getKey());
+                    break;
+            }
+        }
+        if (failure == null) {
+            result.complete(null);
+        } else {
+            result.completeExceptionally(failure);
+        }
+    }
+
+    /**
+     * Gets the wire protocol version of the given host, connecting to it if needed.
+     */
+    private CompletableFuture<Integer> getServerVersion(final PravegaNodeUri uri, final ConnectionFactory connectionFactory,
+                                                        final WireCommandType type) {
+        CompletableFuture<Integer> version;
+        do {
+            version = connections.compute(uri, (u, existing) -> existing == null || existing.isClosed()
+                    ? new SegmentStoreConnection(u, connectionFactory) : existing).getServerVersion();
+        } while (version == null);
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+        timeoutAfter(REQUEST_TIMEOUT, result, type);
+        version.whenComplete((v, e) -> {
+            if (e == null) {
+                result.complete(v);
+            } else {
+                result.completeExceptionally(new WireCommandFailedException(new ConnectionFailedException(e), type,
+                        WireCommandFailedException.Reason.ConnectionFailed));
+            }
+        });
         return result;
     }
 
-    private <ResultT> void sendRequestAsync(final WireCommand request, final ReplyProcessor replyProcessor,
+    /**
+     * Sends the request over the shared connection to the given host, (re)connecting if there is none, and routes the
+     * replies that carry the given request id to the reply processor until the result future completes.
+     */
+    private <ResultT> void sendRequestAsync(final long requestId, final WireCommand request, final ReplyProcessor replyProcessor,
                                             final CompletableFuture<ResultT> resultFuture,
                                             final ConnectionFactory connectionFactory, final PravegaNodeUri uri) {
-        CompletableFuture<ClientConnection> connectionFuture = connectionFactory.establishConnection(uri, replyProcessor);
+        SegmentStoreConnection segmentStore;
+        CompletableFuture<ClientConnection> connectionFuture;
+        do {
+            segmentStore = connections.compute(uri, (u, existing) -> existing == null || existing.isClosed()
+                    ? new SegmentStoreConnection(u, connectionFactory) : existing);
+            connectionFuture = segmentStore.register(requestId, replyProcessor);
+        } while (connectionFuture == null);
         connectionFuture.whenComplete((connection, e) -> {
             if (connection == null) {
                 resultFuture.completeExceptionally(new WireCommandFailedException(new ConnectionFailedException(e),
@@ -391,9 +680,25 @@ public class SegmentHelper {
             }
             return null;
         });
-        resultFuture.whenComplete((result, e) -> {
-            connectionFuture.thenAccept(c -> c.close());
-        });
+        final SegmentStoreConnection registeredWith = segmentStore;
+        resultFuture.whenComplete((result, e) -> registeredWith.unregister(requestId));
+        timeoutAfter(REQUEST_TIMEOUT, resultFuture, request.getType());
+    }
+
+    /**
+     * Fails the given future with a WireCommandFailedException if it is not completed within the given timeout. This
+     * only affects the request the future is for; the connection it was sent on remains in use.
+     */
+    private void timeoutAfter(Duration timeout, CompletableFuture<?> future, WireCommandType type) {
+        if (this.timeoutExecutor == null || future.isDone()) {
+            return;
+        }
+
+        ScheduledFuture<?> scheduledTimeout = this.timeoutExecutor.schedule(() -> future.completeExceptionally(
+                new WireCommandFailedException(new TimeoutException("No reply received within " + timeout),
+                        type, WireCommandFailedException.Reason.Timeout)),
+                timeout.toMillis(), TimeUnit.MILLISECONDS);
+        future.whenComplete((r, e) -> scheduledTimeout.cancel(false));
     }
 
     private Pair<Byte, Integer> extractFromPolicy(ScalingPolicy policy) {
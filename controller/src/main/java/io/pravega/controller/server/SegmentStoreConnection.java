@@ -0,0 +1,277 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.server;
+
+import io.pravega.client.netty.impl.ClientConnection;
+import io.pravega.client.netty.impl.ConnectionFactory;
+import io.pravega.shared.protocol.netty.ConnectionFailedException;
+import io.pravega.shared.protocol.netty.FailingReplyProcessor;
+import io.pravega.shared.protocol.netty.PravegaNodeUri;
+import io.pravega.shared.protocol.netty.Reply;
+import io.pravega.shared.protocol.netty.ReplyProcessor;
+import io.pravega.shared.protocol.netty.WireCommands;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import javax.annotation.concurrent.GuardedBy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A long lived connection from the controller to a segment store host over which many requests may be outstanding
+ * at once. Replies are correlated with their requests by request id.
+ *
+ * If the connection fails, every outstanding request is notified that the connection was dropped and the connection
+ * is closed. It is then the caller's responsibility to replace it with a new one (see {@link #isClosed()}) and to retry
+ * those requests. Note that the segment store closes the connection if processing any single request fails
+ * unexpectedly, so one bad request also fails every other request outstanding on the same connection. A failure to
+ * process the reply to a request, on the other hand, only fails that request.
+ */
+@Slf4j
+class SegmentStoreConnection implements AutoCloseable {
+
+    private final PravegaNodeUri uri;
+    private final ConnectionFactory connectionFactory;
+    private final Object lock = new Object();
+    private final CompletableFuture<Integer> serverVersion = new CompletableFuture<>();
+    @GuardedBy("lock")
+    private final Map<Long, ReplyProcessor> pending = new HashMap<>();
+    @GuardedBy("lock")
+    private CompletableFuture<ClientConnection> connection;
+    @GuardedBy("lock")
+    private boolean closed = false;
+
+    SegmentStoreConnection(PravegaNodeUri uri, ConnectionFactory connectionFactory) {
+        this.uri = uri;
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * Registers a request, so that the replies to it are passed to the provided processor, and connects if this has
+     * not been done yet.
+     *
+     * @param requestId The id of the request.
+     * @param processor The processor for the replies to the request.
+     * @return A future for the connection to send the request on, or null if this connection has been closed.
+     */
+    CompletableFuture<ClientConnection> register(long requestId, ReplyProcessor processor) {
+        synchronized (lock) {
+            if (closed) {
+                return null;
+            }
+            connectIfNeeded();
+            pending.put(requestId, processor);
+            return connection;
+        }
+    }
+
+    /**
+     * Gets the wire protocol version of the segment store, as announced by it upon connecting, and connects if this has
+     * not been done yet.
+     *
+     * @return A future for the version, or null if this connection has been closed.
+     */
+    CompletableFuture<Integer> getServerVersion() {
+        synchronized (lock) {
+            if (closed) {
+                return null;
+            }
+            connectIfNeeded();
+            return serverVersion;
+        }
+    }
+
+    @GuardedBy("lock")
+    private void connectIfNeeded() {
+        if (connection == null) {
+            connection = connectionFactory.establishConnection(uri, new Dispatcher());
+            connection.whenComplete((c, e) -> {
+                if (e != null) {
+                    log.warn("Connection to segment store {} failed: {}", uri, e.toString());
+                    failAll(null);
+                }
+            });
+        }
+    }
+
+    /**
+     * Stops routing the replies for the given request. (Invoked once the request has completed)
+     */
+    void unregister(long requestId) {
+        synchronized (lock) {
+            pending.remove(requestId);
+        }
+    }
+
+    boolean isClosed() {
+        synchronized (lock) {
+            return closed;
+        }
+    }
+
+    @Override
+    public void close() {
+        failAll(ReplyProcessor::connectionDropped);
+    }
+
+    /**
+     * Closes this connection and notifies all outstanding requests (if a notification is provided).
+     */
+    private void failAll(Consumer<ReplyProcessor> notification) {
+        List<ReplyProcessor> toFail;
+        CompletableFuture<ClientConnection> toClose;
+        synchronized (lock) {
+            closed = true;
+            toFail = new ArrayList<>(pending.values());
+            pending.clear();
+            toClose = connection;
+        }
+        serverVersion.completeExceptionally(new ConnectionFailedException("Connection to segment store " + uri + " was closed."));
+        if (toClose != null) {
+            toClose.thenAccept(ClientConnection::close);
+        }
+        if (notification != null) {
+            toFail.forEach(notification);
+        }
+    }
+
+    private void dispatch(long requestId, Reply reply) {
+        ReplyProcessor processor;
+        synchronized (lock) {
+            processor = pending.get(requestId);
+        }
+        if (processor == null) {
+            log.debug("Dropping reply from {} for a request that is no longer outstanding: {}", uri, reply);
+            return;
+        }
+        try {
+            reply.process(processor);
+        } catch (Exception e) {
+            processor.processingFailure(e);
+        }
+    }
+
+    /**
+     * Routes replies to the processor of the request they are for.
+     */
+    private final class Dispatcher extends FailingReplyProcessor {
+
+        @Override
+        public void connectionDropped() {
+            log.info("Connection to segment store {} dropped", uri);
+            failAll(ReplyProcessor::connectionDropped);
+        }
+
+        @Override
+        public void processingFailure(Exception error) {
+            // This is not caused by any particular request, so fail them all in a way that lets them be retried.
+            log.warn("Connection to segment store {} failed", uri, error);
+            failAll(ReplyProcessor::connectionDropped);
+        }
+
+        @Override
+        public void hello(WireCommands.Hello hello) {
+            log.debug("Segment store {} uses wire version {}", uri, hello.getHighVersion());
+            serverVersion.complete(hello.getHighVersion());
+        }
+
+        @Override
+        public void keepAlive(WireCommands.KeepAlive keepAlive) {
+            // Nothing to do: any traffic shows the connection is alive.
+        }
+
+        @Override
+        public void wrongHost(WireCommands.WrongHost wrongHost) {
+            dispatch(wrongHost.getRequestId(), wrongHost);
+        }
+
+        @Override
+        public void segmentIsSealed(WireCommands.SegmentIsSealed segmentIsSealed) {
+            dispatch(segmentIsSealed.getRequestId(), segmentIsSealed);
+        }
+
+        @Override
+        public void segmentAlreadyExists(WireCommands.SegmentAlreadyExists segmentAlreadyExists) {
+            dispatch(segmentAlreadyExists.getRequestId(), segmentAlreadyExists);
+        }
+
+        @Override
+        public void noSuchSegment(WireCommands.NoSuchSegment noSuchSegment) {
+            dispatch(noSuchSegment.getRequestId(), noSuchSegment);
+        }
+
+        @Override
+        public void noSuchBatch(WireCommands.NoSuchTransaction noSuchTxn) {
+            dispatch(noSuchTxn.getRequestId(), noSuchTxn);
+        }
+
+        @Override
+        public void streamSegmentInfo(WireCommands.StreamSegmentInfo streamInfo) {
+            dispatch(streamInfo.getRequestId(), streamInfo);
+        }
+
+        @Override
+        public void transactionInfo(WireCommands.TransactionInfo transactionInfo) {
+            dispatch(transactionInfo.getRequestId(), transactionInfo);
+        }
+
+        @Override
+        public void segmentCreated(WireCommands.SegmentCreated segmentCreated) {
+            dispatch(segmentCreated.getRequestId(), segmentCreated);
+        }
+
+        @Override
+        public void transactionCreated(WireCommands.TransactionCreated transactionCreated) {
+            dispatch(transactionCreated.getRequestId(), transactionCreated);
+        }
+
+        @Override
+        public void transactionCommitted(WireCommands.TransactionCommitted transactionCommitted) {
+            dispatch(transactionCommitted.getRequestId(), transactionCommitted);
+        }
+
+        @Override
+        public void transactionAborted(WireCommands.TransactionAborted transactionAborted) {
+            dispatch(transactionAborted.getRequestId(), transactionAborted);
+        }
+
+        @Override
+        public void segmentSealed(WireCommands.SegmentSealed segmentSealed) {
+            dispatch(segmentSealed.getRequestId(), segmentSealed);
+        }
+
+        @Override
+        public void segmentDeleted(WireCommands.SegmentDeleted segmentDeleted) {
+            dispatch(segmentDeleted.getRequestId(), segmentDeleted);
+        }
+
+        @Override
+        public void segmentPolicyUpdated(WireCommands.SegmentPolicyUpdated segmentPolicyUpdated) {
+            dispatch(segmentPolicyUpdated.getRequestId(), segmentPolicyUpdated);
+        }
+
+        @Override
+        public void segmentsCreated(WireCommands.SegmentsCreated segmentsCreated) {
+            dispatch(segmentsCreated.getRequestId(), segmentsCreated);
+        }
+
+        @Override
+        public void segmentsSealed(WireCommands.SegmentsSealed segmentsSealed) {
+            dispatch(segmentsSealed.getRequestId(), segmentsSealed);
+        }
+
+        @Override
+        public void transactionsCommitted(WireCommands.TransactionsCommitted transactionsCommitted) {
+            dispatch(transactionsCommitted.getRequestId(), transactionsCommitted);
+        }
+    }
+}
@@ -11,6 +11,7 @@ package io.pravega.controller.server;
 
 import io.pravega.shared.protocol.netty.WireCommandType;
 import io.pravega.controller.retryable.RetryableException;
+import lombok.Getter;
 
 /**
  * Wire command failed exception.
@@ -22,9 +23,11 @@ public class WireCommandFailedException extends RuntimeException implements Retr
         ConnectionFailed,
         UnknownHost,
         PreconditionFailed,
+        Timeout,
     }
 
     private final WireCommandType type;
+    @Getter
     private final Reason reason;
 
     public WireCommandFailedException(Throwable cause, WireCommandType type, Reason reason) {
@@ -10,22 +10,25 @@
 package io.pravega.controller.server.eventProcessor;
 
 import com.google.common.annotations.VisibleForTesting;
-import io.pravega.common.concurrent.FutureHelpers;
 import io.pravega.common.util.Retry;
 import io.pravega.controller.eventProcessor.impl.EventProcessor;
 import io.pravega.controller.retryable.RetryableException;
 import io.pravega.controller.server.SegmentHelper;
 import io.pravega.controller.store.host.HostControllerStore;
 import io.pravega.controller.store.stream.OperationContext;
+import io.pravega.controller.store.stream.Segment;
 import io.pravega.controller.store.stream.StreamMetadataStore;
 import io.pravega.controller.stream.api.grpc.v1.Controller;
 import io.pravega.client.netty.impl.ConnectionFactory;
 import io.pravega.client.stream.Position;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
 
@@ -82,11 +85,8 @@ public class CommitEventProcessor extends EventProcessor<CommitEvent> {
         log.debug("Committing transaction {} on stream {}/{}", event.getTxid(), event.getScope(), event.getStream());
 
         streamMetadataStore.getActiveSegments(event.getScope(), event.getStream(), context, executor)
-                .thenCompose(segments ->
-                        FutureHelpers.allOfWithResults(segments.stream()
-                                .parallel()
-                                .map(segment -> notifyCommitToHost(scope, stream, segment.getNumber(), txId))
-                                .collect(Collectors.toList())))
+                .thenCompose(segments -> notifyCommitToHosts(scope, stream,
+                        segments.stream().map(Segment::getNumber).collect(Collectors.toList()), txId))
                 .thenCompose(x -> streamMetadataStore.commitTransaction(scope, stream, txId, context, executor))
                 .whenComplete((result, error) -> {
                     if (error != null) {
@@ -102,18 +102,21 @@ public class CommitEventProcessor extends EventProcessor<CommitEvent> {
                 }).join();
     }
 
-    private CompletableFuture<Controller.TxnStatus> notifyCommitToHost(final String scope, final String stream, final int segmentNumber, final UUID txId) {
+    private CompletableFuture<Controller.TxnStatus> notifyCommitToHosts(final String scope, final String stream, final List<Integer> segmentNumbers, final UUID txId) {
         final long retryInitialDelay = 100;
         final int retryMultiplier = 10;
         final int retryMaxAttempts = 100;
         final long retryMaxDelay = 100000;
 
+        // Segments are removed from this as the transaction is merged into them, so a retry only resends the others.
+        final Set<Integer> remaining = ConcurrentHashMap.newKeySet();
+        remaining.addAll(segmentNumbers);
         return Retry.withExpBackoff(retryInitialDelay, retryMultiplier, retryMaxAttempts, retryMaxDelay)
                 .retryWhen(RetryableException::isRetryable)
                 .throwingOn(RuntimeException.class)
-                .runAsync(() -> segmentHelper.commitTransaction(scope,
+                .runAsync(() -> segmentHelper.commitTransactions(scope,
                         stream,
-                        segmentNumber,
+                        remaining,
                         txId,
                         this.hostControllerStore,
                         this.connectionFactory), executor);
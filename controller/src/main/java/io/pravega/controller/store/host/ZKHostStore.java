@@ -16,17 +16,23 @@ import io.pravega.common.segment.SegmentToContainerMapper;
 import io.pravega.controller.util.ZKUtils;
 import java.io.Serializable;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import javax.annotation.concurrent.GuardedBy;
 import lombok.Synchronized;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.SerializationUtils;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.state.ConnectionState;
 import org.apache.curator.utils.ZKPaths;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
 
 /**
  * Zookeeper based implementation of the HostControllerStore.
+ * The segment container map is read once and served from memory until a watch on it reports that it has changed.
  */
 @Slf4j
 public class ZKHostStore implements HostControllerStore {
@@ -42,6 +48,12 @@ public class ZKHostStore implements HostControllerStore {
 
     private final SegmentToContainerMapper segmentMapper;
 
+    //The segment container map last read from zookeeper, or null if it has to be read again.
+    @GuardedBy("$lock")
+    private Map<Host, Set<Integer>> hostContainerMap;
+
+    private final Watcher hostMapWatcher = this::hostMapChanged;
+
     /**
      * Zookeeper based host store implementation.
      *
@@ -53,6 +65,12 @@ public class ZKHostStore implements HostControllerStore {
         zkClient = client;
         zkPath = ZKPaths.makePath("cluster", "segmentContainerHostMapping");
         segmentMapper = new SegmentToContainerMapper(containerCount);
+        //Watches may be missed while disconnected from zookeeper.
+        zkClient.getConnectionStateListenable().addListener((c, newState) -> {
+            if (newState == ConnectionState.RECONNECTED || newState == ConnectionState.LOST) {
+                invalidateHostMap();
+            }
+        });
     }
 
     //Ensure required zk node is present in zookeeper.
@@ -69,16 +87,35 @@ public class ZKHostStore implements HostControllerStore {
     public Map<Host, Set<Integer>> getHostContainersMap() {
         tryInit();
 
-        return getCurrentHostMap();
+        //The cached map is shared with getHostForContainer, so callers must not be able to modify its container sets.
+        Map<Host, Set<Integer>> result = new HashMap<>();
+        getCurrentHostMap().forEach((host, containers) -> result.put(host, new HashSet<>(containers)));
+        return result;
     }
 
+    @Synchronized
     @SuppressWarnings("unchecked")
     private Map<Host, Set<Integer>> getCurrentHostMap() {
-        try {
-            return (Map<Host, Set<Integer>>) SerializationUtils.deserialize(zkClient.getData().forPath(zkPath));
-        } catch (Exception e) {
-            throw new HostStoreException("Failed to fetch segment container map from zookeeper", e);
+        if (hostContainerMap == null) {
+            try {
+                hostContainerMap = (Map<Host, Set<Integer>>) SerializationUtils.deserialize(
+                        zkClient.getData().usingWatcher(hostMapWatcher).forPath(zkPath));
+            } catch (Exception e) {
+                throw new HostStoreException("Failed to fetch segment container map from zookeeper", e);
+            }
         }
+        return hostContainerMap;
+    }
+
+    private void hostMapChanged(WatchedEvent event) {
+        if (event.getType() != Watcher.Event.EventType.None) {
+            invalidateHostMap();
+        }
+    }
+
+    @Synchronized
+    private void invalidateHostMap() {
+        hostContainerMap = null;
     }
 
     @Override
@@ -93,6 +130,7 @@ public class ZKHostStore implements HostControllerStore {
         }
         try {
             zkClient.setData().forPath(zkPath, serializedMap);
+            invalidateHostMap();
             log.info("Successfully updated segment container map");
         } catch (Exception e) {
             throw new HostStoreException("Failed to persist segment container map to zookeeper", e);
@@ -29,6 +29,7 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import java.util.AbstractMap;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -44,10 +45,18 @@ public abstract class PersistentStreamBase<T> implements Stream {
 
     private final String scope;
     private final String name;
+    private final int historyChunkSize;
+    private final int indexChunkSize;
 
     PersistentStreamBase(String scope, final String name) {
+        this(scope, name, HistoryRecord.HISTORY_CHUNK_SIZE, IndexRecord.INDEX_CHUNK_SIZE);
+    }
+
+    PersistentStreamBase(String scope, final String name, final int historyChunkSize, final int indexChunkSize) {
         this.scope = scope;
         this.name = name;
+        this.historyChunkSize = historyChunkSize;
+        this.indexChunkSize = indexChunkSize;
     }
 
     @Override
@@ -96,9 +105,10 @@ public abstract class PersistentStreamBase<T> implements Stream {
                     final byte[] historyTable = TableHelper.createHistoryTable(create.getCreationTime(),
                             IntStream.range(0, numSegments).boxed().collect(Collectors.toList()));
 
-                    return createHistoryTable(new Data<>(historyTable, null));
+                    return createHistoryTableChunk(0, new Data<>(historyTable, null));
                 })
-                .thenCompose(x -> createIndexTable(new Data<>(TableHelper.createIndexTable(create.getCreationTime(), 0), null)))
+                .thenCompose(x -> createIndexTableChunk(0,
+                        new Data<>(TableHelper.createIndexTable(create.getCreationTime(), 0), null)))
                 .thenApply(x -> true);
     }
 
@@ -117,7 +127,7 @@ public abstract class PersistentStreamBase<T> implements Stream {
     public CompletableFuture<Boolean> updateConfiguration(final StreamConfiguration configuration) {
         // replace the configurationPath with new configurationPath
         return verifyLegalState(checkScopeExists()
-                .thenApply(x -> setConfigurationData(configuration))
+                .thenCompose(x -> setConfigurationData(configuration))
                 .thenApply(x -> true));
     }
 
@@ -155,7 +165,7 @@ public abstract class PersistentStreamBase<T> implements Stream {
 
     @Override
     public CompletableFuture<Integer> getSegmentCount() {
-        return verifyLegalState(getHistoryTable().thenApply(x -> TableHelper.getSegmentCount(x.getData())));
+        return verifyLegalState(getLatestCompleteHistoryChunk().thenApply(TableHelper::getSegmentCount));
     }
 
     /**
@@ -188,8 +198,8 @@ public abstract class PersistentStreamBase<T> implements Stream {
         return all.thenCompose(x -> {
             final Segment segment = segmentFuture.getNow(null);
             List<Integer> candidates = TableHelper.findSegmentSuccessorCandidates(segment,
-                    indexTableFuture.getNow(null).getData(),
-                    historyTableFuture.getNow(null).getData());
+                    indexTableFuture.getNow(null),
+                    historyTableFuture.getNow(null));
             return findOverlapping(segment, candidates);
         });
     }
@@ -207,8 +217,8 @@ public abstract class PersistentStreamBase<T> implements Stream {
             List<Segment> successors = segments.getNow(null);
             for (Segment successor : successors) {
                 List<Integer> candidates = TableHelper.findSegmentPredecessorCandidates(successor,
-                        indexTableFuture.getNow(null).getData(),
-                        historyTableFuture.getNow(null).getData());
+                        indexTableFuture.getNow(null),
+                        historyTableFuture.getNow(null));
                 resultFutures.add(findOverlapping(successor, candidates).thenApply(
                         list -> new SimpleImmutableEntry<>(successor, list.stream().map(Segment::getNumber).collect(Collectors.toList()))));
             }
@@ -233,22 +243,22 @@ public abstract class PersistentStreamBase<T> implements Stream {
         return verifyLegalState(all.thenCompose(x -> {
             final Segment segment = segmentFuture.getNow(null);
             List<Integer> candidates = TableHelper.findSegmentPredecessorCandidates(segment,
-                    indexTableFuture.getNow(null).getData(),
-                    historyTableFuture.getNow(null).getData());
+                    indexTableFuture.getNow(null),
+                    historyTableFuture.getNow(null));
             return findOverlapping(segment, candidates);
         }).thenApply(list -> list.stream().map(e -> e.getNumber()).collect(Collectors.toList())));
     }
 
     @Override
     public CompletableFuture<List<Integer>> getActiveSegments() {
-        return verifyLegalState(getHistoryTable().thenApply(x -> TableHelper.getActiveSegments(x.getData())));
+        return verifyLegalState(getLatestCompleteHistoryChunk().thenApply(TableHelper::getActiveSegments));
     }
 
     /**
-     * if timestamp is < create time of stream, we will return empty list.
-     * 1. perform binary searchIndex on index table to find timestamp
-     * 2. fetch the record from history table for the pointer in index.
-     * Note: index may be stale so we may need to fall through
+     * if timestamp is < create time of stream, we will return the segments the stream was created with.
+     * 1. perform binary search on index table chunks and then within the chunk to find timestamp
+     * 2. fetch the record from the history table chunk that holds the pointer in index.
+     * Note: index may be stale so we may need to fall through, possibly into later chunks
      * 3. parse the row and return the list of integers
      *
      * @param timestamp point in time.
@@ -256,14 +266,21 @@ public abstract class PersistentStreamBase<T> implements Stream {
      */
     @Override
     public CompletableFuture<List<Integer>> getActiveSegments(final long timestamp) {
-        final CompletableFuture<Data<T>> indexFuture = getIndexTable();
-
-        final CompletableFuture<Data<T>> historyFuture = getHistoryTable();
-
-        return verifyLegalState(indexFuture.thenCombine(historyFuture,
-                (indexTable, historyTable) -> TableHelper.getActiveSegments(timestamp,
-                        indexTable.getData(),
-                        historyTable.getData())));
+        return verifyLegalState(findIndexRecord(timestamp)
+                .thenCompose(indexRecord -> {
+                    final int historyOffset = indexRecord.isPresent() ? indexRecord.get().getHistoryOffset() : 0;
+                    return getHistoryChunkOffsets()
+                            .thenCompose(chunkOffsets -> findHistoryRecord(chunkOffsets, historyOffset, timestamp));
+                })
+                .thenCompose(record -> {
+                    if (record.isPresent()) {
+                        return CompletableFuture.completedFuture(record.get().getSegments());
+                    }
+                    return getHistoryTableChunk(0)
+                            .thenApply(chunk -> HistoryRecord.readRecord(chunk.getData(), 0, true)
+                                    .map(HistoryRecord::getSegments)
+                                    .orElse(new ArrayList<>()));
+                }));
     }
 
     /**
@@ -600,70 +617,96 @@ public abstract class PersistentStreamBase<T> implements Stream {
 
     /**
      * update history table if not already updated:
-     * fetch last record from history table.
-     * if eventTime is >= scale.scaleTimeStamp do nothing, else create record
+     * fetch last record from the latest history table chunk.
+     * if eventTime is >= scale.scaleTimeStamp do nothing, else create record.
+     * If the latest chunk is full, the record is added to a new chunk instead.
      *
      * @return : future of history table offset for last entry
      */
     private CompletableFuture<Void> addPartialHistoryRecord(final List<Integer> sealedSegments,
                                                             final List<Integer> createdSegments) {
-        return getHistoryTable()
-                .thenCompose(historyTable -> {
-                    final Optional<HistoryRecord> lastRecordOpt = HistoryRecord.readLatestRecord(historyTable.getData(), false);
+        return getHistoryChunkOffsets()
+                .thenCompose(chunkOffsets -> {
+                    final int chunkOffset = chunkOffsets.get(chunkOffsets.size() - 1);
+                    return getHistoryTableChunk(chunkOffset).thenCompose(historyChunk -> {
+                        final Optional<HistoryRecord> lastRecordOpt = HistoryRecord.readLatestRecord(historyChunk.getData(), false);
 
-                    // scale task is not allowed unless create is done which means at least one
-                    // record in history table.
-                    assert lastRecordOpt.isPresent();
+                        // scale task is not allowed unless create is done which means at least one
+                        // record in history table.
+                        assert lastRecordOpt.isPresent();
 
-                    final HistoryRecord lastRecord = lastRecordOpt.get();
+                        final HistoryRecord lastRecord = lastRecordOpt.get();
 
-                    // idempotent check
-                    if (lastRecord.getSegments().containsAll(createdSegments)) {
-                        HistoryRecord previous = HistoryRecord.fetchPrevious(lastRecord, historyTable.getData()).get();
+                        // idempotent check
+                        if (lastRecord.getSegments().containsAll(createdSegments)) {
+                            final Optional<HistoryRecord> previous = HistoryRecord.fetchPrevious(lastRecord, historyChunk.getData());
 
-                        assert previous.getSegments().stream().noneMatch(createdSegments::contains);
-                        return CompletableFuture.completedFuture(null);
-                    }
+                            assert !previous.isPresent() || previous.get().getSegments().stream().noneMatch(createdSegments::contains);
+                            return CompletableFuture.completedFuture(null);
+                        }
+
+                        final List<Integer> newActiveSegments = getNewActiveSegments(createdSegments, sealedSegments, lastRecord);
 
-                    final List<Integer> newActiveSegments = getNewActiveSegments(createdSegments, sealedSegments, lastRecord);
+                        if (!lastRecord.isPartial() && historyChunk.getData().length >= historyChunkSize) {
+                            // the latest chunk is full: leave it as it is from now on and start a new one after it.
+                            final byte[] newChunk = TableHelper.addPartialRecordToHistoryTable(new byte[0], newActiveSegments);
+                            return createHistoryTableChunk(chunkOffset + historyChunk.getData().length, new Data<>(newChunk, null));
+                        }
 
-                    byte[] updatedTable = TableHelper.addPartialRecordToHistoryTable(historyTable.getData(), newActiveSegments);
-                    final Data<T> updated = new Data<>(updatedTable, historyTable.getVersion());
+                        byte[] updatedChunk = TableHelper.addPartialRecordToHistoryTable(historyChunk.getData(), newActiveSegments);
+                        final Data<T> updated = new Data<>(updatedChunk, historyChunk.getVersion());
 
-                    final HistoryRecord newRecord = HistoryRecord.readLatestRecord(updatedTable, false).get();
-                    return updateHistoryTable(updated);
+                        return updateHistoryTableChunk(chunkOffset, updated);
+                    });
                 });
     }
 
     private CompletableFuture<HistoryRecord> completeHistoryRecord(long scaleTimestamp, List<Integer> sealedSegments, List<Integer> newSegments) {
-        return getHistoryTable()
-                .thenCompose(historyTable -> {
-                    final Optional<HistoryRecord> lastRecordOpt = HistoryRecord.readLatestRecord(historyTable.getData(), false);
+        return getHistoryChunkOffsets()
+                .thenCompose(chunkOffsets -> {
+                    final int latest = chunkOffsets.size() - 1;
+                    final int chunkOffset = chunkOffsets.get(latest);
+                    return getHistoryTableChunk(chunkOffset).thenCompose(historyChunk -> {
+                        final Optional<HistoryRecord> lastRecordOpt = HistoryRecord.readLatestRecord(historyChunk.getData(), false);
 
-                    assert lastRecordOpt.isPresent();
+                        assert lastRecordOpt.isPresent();
 
-                    final HistoryRecord lastRecord = lastRecordOpt.get();
+                        final HistoryRecord lastRecord = lastRecordOpt.get();
 
-                    // idempotent check
-                    if (!lastRecord.isPartial()) {
-                        assert lastRecord.getSegments().stream().noneMatch(sealedSegments::contains);
-                        assert newSegments.stream().allMatch(x -> lastRecord.getSegments().contains(x));
-
-                        return CompletableFuture.completedFuture(lastRecord);
-                    }
+                        // idempotent check
+                        if (!lastRecord.isPartial()) {
+                            assert lastRecord.getSegments().stream().noneMatch(sealedSegments::contains);
+                            assert newSegments.stream().allMatch(x -> lastRecord.getSegments().contains(x));
 
-                    long scaleEventTime = Math.max(System.currentTimeMillis(), scaleTimestamp);
-                    final Optional<HistoryRecord> previousOpt = HistoryRecord.fetchPrevious(lastRecord, historyTable.getData());
-                    if (previousOpt.isPresent()) {
-                        // To ensure that we always have ascending time in history records irrespective of controller clock mismatches.
-                        scaleEventTime = Math.max(scaleEventTime, previousOpt.get().getScaleTime() + 1);
-                    }
+                            return CompletableFuture.completedFuture(withChunkOffset(lastRecord, chunkOffset));
+                        }
 
-                    byte[] updatedTable = TableHelper.completePartialRecordInHistoryTable(historyTable.getData(), lastRecord, scaleEventTime);
-                    final Data<T> updated = new Data<>(updatedTable, historyTable.getVersion());
+                        // if the partial record starts a chunk, the record before it is the last one of the previous chunk.
+                        final CompletableFuture<Optional<HistoryRecord>> previousFuture;
+                        if (lastRecord.getOffset() > 0 || latest == 0) {
+                            previousFuture = CompletableFuture.completedFuture(
+                                    HistoryRecord.fetchPrevious(lastRecord, historyChunk.getData()));
+                        } else {
+                            previousFuture = getHistoryTableChunk(chunkOffsets.get(latest - 1))
+                                    .thenApply(previousChunk -> HistoryRecord.readLatestRecord(previousChunk.getData(), true));
+                        }
 
-                    final HistoryRecord newRecord = HistoryRecord.readLatestRecord(updatedTable, false).get();
-                    return updateHistoryTable(updated).thenApply(y -> newRecord);
+                        return previousFuture.thenCompose(previousOpt -> {
+                            long scaleEventTime = Math.max(System.currentTimeMillis(), scaleTimestamp);
+                            if (previousOpt.isPresent()) {
+                                // To ensure that we always have ascending time in history records irrespective of controller clock mismatches.
+                                scaleEventTime = Math.max(scaleEventTime, previousOpt.get().getScaleTime() + 1);
+                            }
+
+                            byte[] updatedChunk = TableHelper.completePartialRecordInHistoryTable(historyChunk.getData(),
+                                    lastRecord, scaleEventTime);
+                            final Data<T> updated = new Data<>(updatedChunk, historyChunk.getVersion());
+
+                            final HistoryRecord newRecord = HistoryRecord.readLatestRecord(updatedChunk, false).get();
+                            return updateHistoryTableChunk(chunkOffset, updated)
+                                    .thenApply(y -> withChunkOffset(newRecord, chunkOffset));
+                        });
+                    });
                 });
     }
 
@@ -677,22 +720,169 @@ public abstract class PersistentStreamBase<T> implements Stream {
     }
 
     private CompletableFuture<Void> addIndexRecord(final HistoryRecord historyRecord) {
-        return getIndexTable()
-                .thenCompose(indexTable -> {
-                    final Optional<IndexRecord> lastRecord = IndexRecord.readLatestRecord(indexTable.getData());
-                    // check idempotent
-                    if (lastRecord.isPresent() && lastRecord.get().getHistoryOffset() == historyRecord.getOffset()) {
-                        return CompletableFuture.completedFuture(null);
+        return getIndexChunks()
+                .thenCompose(indexChunks -> {
+                    final int chunkNumber = indexChunks.size() - 1;
+                    return getIndexTableChunk(chunkNumber).thenCompose(indexChunk -> {
+                        final Optional<IndexRecord> lastRecord = IndexRecord.readLatestRecord(indexChunk.getData());
+                        // check idempotent
+                        if (lastRecord.isPresent() && lastRecord.get().getHistoryOffset() == historyRecord.getOffset()) {
+                            return CompletableFuture.completedFuture(null);
+                        }
+
+                        if (indexChunk.getData().length >= indexChunkSize * IndexRecord.INDEX_RECORD_SIZE) {
+                            // the latest chunk is full: leave it as it is from now on and start the next one.
+                            final byte[] newChunk = TableHelper.createIndexTable(historyRecord.getScaleTime(),
+                                    historyRecord.getOffset());
+                            return createIndexTableChunk(chunkNumber + 1, new Data<>(newChunk, null));
+                        }
+
+                        final byte[] updatedChunk = TableHelper.updateIndexTable(indexChunk.getData(),
+                                historyRecord.getScaleTime(),
+                                historyRecord.getOffset());
+                        final Data<T> updated = new Data<>(updatedChunk, indexChunk.getVersion());
+                        return updateIndexTableChunk(chunkNumber, updated);
+                    });
+                });
+    }
+
+    /**
+     * Returns the offsets of the history table chunks in ascending order. Each chunk is identified by the offset
+     * its first record has in the history table.
+     */
+    private CompletableFuture<List<Integer>> getHistoryChunkOffsets() {
+        return getHistoryChunks()
+                .thenApply(chunks -> chunks.stream().map(Integer::parseInt).sorted().collect(Collectors.toList()));
+    }
+
+    /**
+     * Fetches the latest history table chunk that has a complete record in it. That is the latest chunk unless it
+     * only holds the partial record of an ongoing scale, in which case it is the one before it.
+     */
+    private CompletableFuture<byte[]> getLatestCompleteHistoryChunk() {
+        return getHistoryChunkOffsets()
+                .thenCompose(chunkOffsets -> {
+                    final int latest = chunkOffsets.size() - 1;
+                    return getHistoryTableChunk(chunkOffsets.get(latest)).thenCompose(chunk -> {
+                        if (latest == 0 || HistoryRecord.readLatestRecord(chunk.getData(), true).isPresent()) {
+                            return CompletableFuture.completedFuture(chunk.getData());
+                        }
+                        return getHistoryTableChunk(chunkOffsets.get(latest - 1)).thenApply(Data::getData);
+                    });
+                });
+    }
+
+    /**
+     * Reads the whole history table by putting its chunks back together. All chunks but the latest are immutable,
+     * so they stay cached once read and only the latest one is re-read after an update.
+     */
+    private CompletableFuture<byte[]> getHistoryTable() {
+        return getHistoryChunkOffsets()
+                .thenCompose(chunkOffsets -> FutureHelpers.allOfWithResults(IntStream.range(0, chunkOffsets.size())
+                        .mapToObj(i -> getHistoryTableChunk(chunkOffsets.get(i)))
+                        .collect(Collectors.toList())))
+                .thenApply(chunks -> TableHelper.mergeChunks(chunks.stream().map(Data::getData).collect(Collectors.toList())));
+    }
+
+    /**
+     * Reads the whole index table by putting its chunks back together.
+     */
+    private CompletableFuture<byte[]> getIndexTable() {
+        return getIndexChunks()
+                .thenCompose(indexChunks -> FutureHelpers.allOfWithResults(IntStream.range(0, indexChunks.size())
+                        .mapToObj(this::getIndexTableChunk)
+                        .collect(Collectors.toList())))
+                .thenApply(chunks -> TableHelper.mergeChunks(chunks.stream().map(Data::getData).collect(Collectors.toList())));
+    }
+
+    /**
+     * Finds the latest index record at or before the given timestamp. The latest chunk is checked first, as most
+     * lookups are for recent points in time, and the earlier ones are binary searched by their first record.
+     */
+    private CompletableFuture<Optional<IndexRecord>> findIndexRecord(final long timestamp) {
+        return getIndexChunks()
+                .thenCompose(indexChunks -> {
+                    final int latest = indexChunks.size() - 1;
+                    return getIndexTableChunk(latest).thenCompose(chunk -> {
+                        if (latest == 0 || IndexRecord.readRecord(chunk.getData(), 0).get().getEventTime() <= timestamp) {
+                            return CompletableFuture.completedFuture(IndexRecord.search(timestamp, chunk.getData()).getValue());
+                        }
+                        return findIndexChunk(0, latest - 1, timestamp)
+                                .thenCompose(this::getIndexTableChunk)
+                                .thenApply(found -> IndexRecord.search(timestamp, found.getData()).getValue());
+                    });
+                });
+    }
+
+    /**
+     * Binary search over immutable index table chunks for the last one whose first record is at or before the
+     * given timestamp, or the first one if there is no such chunk.
+     */
+    private CompletableFuture<Integer> findIndexChunk(final int lower, final int upper, final long timestamp) {
+        if (lower >= upper) {
+            return CompletableFuture.completedFuture(lower);
+        }
+
+        final int mid = (lower + upper + 1) / 2;
+        return getIndexTableChunk(mid)
+                .thenCompose(chunk -> {
+                    if (IndexRecord.readRecord(chunk.getData(), 0).get().getEventTime() <= timestamp) {
+                        return findIndexChunk(mid, upper, timestamp);
+                    } else {
+                        return findIndexChunk(lower, mid - 1, timestamp);
                     }
+                });
+    }
 
-                    final byte[] updatedTable = TableHelper.updateIndexTable(indexTable.getData(),
-                            historyRecord.getScaleTime(),
-                            historyRecord.getOffset());
-                    final Data<T> updated = new Data<>(updatedTable, indexTable.getVersion());
-                    return updateIndexTable(updated);
+    /**
+     * Finds the history record that was active at the given timestamp, starting from the record at the given offset.
+     *
+     * @param chunkOffsets  offsets of the history table chunks in ascending order
+     * @param historyOffset offset of a record in the history table that was created at or before timestamp
+     * @param timestamp     point in time
+     * @return : future of the record, or empty if the record at historyOffset is after timestamp
+     */
+    private CompletableFuture<Optional<HistoryRecord>> findHistoryRecord(final List<Integer> chunkOffsets,
+                                                                         final int historyOffset,
+                                                                         final long timestamp) {
+        // the record is in the last chunk that starts at or before its offset
+        final int position = Collections.binarySearch(chunkOffsets, historyOffset);
+        final int chunkIndex = position >= 0 ? position : -position - 2;
+        return findHistoryRecord(chunkOffsets, chunkIndex, historyOffset - chunkOffsets.get(chunkIndex), timestamp,
+                Optional.empty());
+    }
+
+    private CompletableFuture<Optional<HistoryRecord>> findHistoryRecord(final List<Integer> chunkOffsets,
+                                                                         final int chunkIndex,
+                                                                         final int offsetInChunk,
+                                                                         final long timestamp,
+                                                                         final Optional<HistoryRecord> found) {
+        final boolean latest = chunkIndex == chunkOffsets.size() - 1;
+        return getHistoryTableChunk(chunkOffsets.get(chunkIndex))
+                .thenCompose(chunk -> {
+                    final Optional<HistoryRecord> record = TableHelper.findRecordInHistoryTable(offsetInChunk,
+                            timestamp, chunk.getData(), true);
+                    if (!record.isPresent()) {
+                        return CompletableFuture.completedFuture(found);
+                    }
+
+                    // if this is the last record of its chunk, records in the next chunk may still be at or before timestamp
+                    if (!latest && !HistoryRecord.fetchNext(record.get(), chunk.getData(), true).isPresent()) {
+                        return findHistoryRecord(chunkOffsets, chunkIndex + 1, 0, timestamp, record);
+                    }
+                    return CompletableFuture.completedFuture(record);
                 });
     }
 
+    /**
+     * Records read from a history table chunk have offsets relative to the chunk. This returns the record with its
+     * offset in the history table.
+     */
+    private static HistoryRecord withChunkOffset(final HistoryRecord record, final int chunkOffset) {
+        return new HistoryRecord(record.getSegments(), record.getScaleTime(), chunkOffset + record.getOffset(),
+                record.isPartial());
+    }
+
     private CompletionStage<ImmutablePair<Integer, Data<T>>> getLatestChunk(final List<String> segmentChunks) {
         assert segmentChunks.size() > 0;
 
@@ -732,17 +922,24 @@ public abstract class PersistentStreamBase<T> implements Stream {
 
     abstract CompletableFuture<Void> setSegmentTableChunk(final int chunkNumber, final Data<T> data);
 
-    abstract CompletableFuture<Void> createIndexTable(final Data<T> data);
+    abstract CompletableFuture<Void> createIndexTableChunk(final int chunkNumber, final Data<T> data);
 
-    abstract CompletableFuture<Data<T>> getIndexTable();
+    abstract CompletableFuture<List<String>> getIndexChunks();
 
-    abstract CompletableFuture<Void> updateIndexTable(final Data<T> updated);
+    abstract CompletableFuture<Data<T>> getIndexTableChunk(final int chunkNumber);
 
-    abstract CompletableFuture<Void> createHistoryTable(final Data<T> data);
+    abstract CompletableFuture<Void> updateIndexTableChunk(final int chunkNumber, final Data<T> data);
 
-    abstract CompletableFuture<Void> updateHistoryTable(final Data<T> updated);
+    abstract CompletableFuture<Void> createHistoryTableChunk(final int chunkOffset, final Data<T> data);
+
+    abstract CompletableFuture<List<String>> getHistoryChunks();
+
+    /**
+     * Fetches the history table chunk whose first record is at the given offset.
+     */
+    abstract CompletableFuture<Data<T>> getHistoryTableChunk(final int chunkOffset);
 
-    abstract CompletableFuture<Data<T>> getHistoryTable();
+    abstract CompletableFuture<Void> updateHistoryTableChunk(final int chunkOffset, final Data<T> data);
 
     abstract CompletableFuture<Void> createSegmentFile(final Create create);
 
@@ -18,11 +18,16 @@ import java.util.concurrent.ScheduledExecutorService;
 
 public class StreamStoreFactory {
     public static StreamMetadataStore createStore(final StoreClient storeClient, final ScheduledExecutorService executor) {
+        return createStore(storeClient, ZKStoreHelper.DEFAULT_CACHE_MAX_BYTES, executor);
+    }
+
+    public static StreamMetadataStore createStore(final StoreClient storeClient, final long cacheMaxBytes,
+                                                  final ScheduledExecutorService executor) {
         switch (storeClient.getType()) {
             case InMemory:
                 return new InMemoryStreamMetadataStore(executor);
             case Zookeeper:
-                return new ZKStreamMetadataStore((CuratorFramework) storeClient.getClient(), executor);
+                return new ZKStreamMetadataStore((CuratorFramework) storeClient.getClient(), cacheMaxBytes, executor);
             default:
                 throw new NotImplementedException();
         }
@@ -10,12 +10,15 @@
 package io.pravega.controller.store.stream;
 
 import io.pravega.common.concurrent.FutureHelpers;
+import io.pravega.controller.store.stream.tables.Cache;
 import io.pravega.controller.store.stream.tables.Data;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -24,12 +27,37 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.api.BackgroundCallback;
 import org.apache.curator.framework.api.CuratorEvent;
+import org.apache.curator.framework.api.CuratorWatcher;
+import org.apache.curator.framework.state.ConnectionState;
 import org.apache.curator.utils.ZKPaths;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
 
+/**
+ * Helper for accessing the stream metadata kept in zookeeper.
+ * <p>
+ * Data and children lists read through {@link #getCachedData(String)} and {@link #getCachedChildren(String)} are
+ * kept in memory and watched, so that they are served without a round trip to zookeeper until they change. Updates
+ * made elsewhere become visible as soon as their watch event is received. Callers invalidate what they update
+ * themselves, so that their updates are visible to their subsequent reads regardless of when the watch event is
+ * processed. As watches may be missed while the client is disconnected, everything is invalidated upon
+ * reconnection.
+ */
 @Slf4j
 public class ZKStoreHelper {
-    
+    /**
+     * Default maximum total size of the data cached by a store helper.
+     */
+    public static final long DEFAULT_CACHE_MAX_BYTES = 64 * 1024 * 1024;
+
+    /**
+     * Marker that allows history and index tables to be split into chunks. Controllers that predate chunked tables
+     * only read and write the data of the table nodes themselves, so the marker must only be created once every
+     * controller has been upgraded. It is never removed.
+     */
+    static final String TABLE_CHUNKS_MARKER_PATH = "/upgrade/tableChunks";
+
     private static final String TRANSACTION_ROOT_PATH = "/transactions";
     private static final String ACTIVE_TX_ROOT_PATH = TRANSACTION_ROOT_PATH + "/activeTx";
     static final String ACTIVE_TX_PATH = ACTIVE_TX_ROOT_PATH + "/%s";
@@ -38,9 +66,25 @@ public class ZKStoreHelper {
     
     private final CuratorFramework client;
     private final Executor executor;
+    private final Cache<Integer> cache;
+    private final ConcurrentHashMap<String, CompletableFuture<List<String>>> childrenCache = new ConcurrentHashMap<>();
+    private final CuratorWatcher dataWatcher = this::dataChanged;
+    private final CuratorWatcher childrenWatcher = this::childrenChanged;
+    private final AtomicBoolean tableChunksEnabled = new AtomicBoolean();
+
     public ZKStoreHelper(final CuratorFramework cf, Executor executor) {
+        this(cf, executor, DEFAULT_CACHE_MAX_BYTES);
+    }
+
+    public ZKStoreHelper(final CuratorFramework cf, Executor executor, final long cacheMaxBytes) {
         client = cf;
         this.executor = executor;
+        this.cache = new Cache<>(this::getWatchedData, cacheMaxBytes);
+        client.getConnectionStateListenable().addListener((c, newState) -> {
+            if (newState == ConnectionState.RECONNECTED || newState == ConnectionState.LOST) {
+                invalidateAll();
+            }
+        });
     }
 
     /**
@@ -91,6 +135,128 @@ public class ZKStoreHelper {
         });
     }
 
+    // region cached store access
+
+    /**
+     * Reads the data of the given node, from memory if it has not changed since it was last read.
+     *
+     * @param path Path of the node.
+     * @return A future that completes with the data and its version.
+     */
+    CompletableFuture<Data<Integer>> getCachedData(final String path) {
+        return cache.getCachedData(path);
+    }
+
+    /**
+     * Lists the children of the given node, from memory if they have not changed since they were last listed.
+     *
+     * @param path Path of the node.
+     * @return A future that completes with the names of the children, or an empty list if the node does not exist.
+     */
+    CompletableFuture<List<String>> getCachedChildren(final String path) {
+        final CompletableFuture<List<String>> cached = childrenCache.get(path);
+        if (cached != null) {
+            return cached;
+        }
+
+        final CompletableFuture<List<String>> result = new CompletableFuture<>();
+        final CompletableFuture<List<String>> inFlight = childrenCache.putIfAbsent(path, result);
+        if (inFlight != null) {
+            return inFlight;
+        }
+
+        try {
+            client.getChildren().usingWatcher(childrenWatcher).inBackground(
+                    callback(event -> result.complete(Collections.unmodifiableList(event.getChildren())),
+                            e -> {
+                                // No watch is left on a node that does not exist, so failures are not cached.
+                                childrenCache.remove(path, result);
+                                if (e instanceof DataNotFoundException) {
+                                    result.complete(Collections.emptyList());
+                                } else {
+                                    result.completeExceptionally(e);
+                                }
+                            }), executor).forPath(path);
+        } catch (Exception e) {
+            childrenCache.remove(path, result);
+            result.completeExceptionally(new StoreException(StoreException.Type.UNKNOWN));
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether history and index tables may be split into chunks (see {@link #TABLE_CHUNKS_MARKER_PATH}). As the
+     * marker is never removed, it is no longer looked up once it has been found.
+     *
+     * @return A future that completes with true if tables may be split into chunks.
+     */
+    CompletableFuture<Boolean> isTableChunkingEnabled() {
+        if (tableChunksEnabled.get()) {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        return checkExists(TABLE_CHUNKS_MARKER_PATH)
+                .thenApply(exists -> {
+                    if (exists) {
+                        tableChunksEnabled.set(true);
+                    }
+                    return exists;
+                });
+    }
+
+    /**
+     * Creates the marker that allows history and index tables to be split into chunks. This must only be done once
+     * every controller has been upgraded.
+     *
+     * @return A future that completes when the marker exists.
+     */
+    CompletableFuture<Void> enableTableChunking() {
+        return createZNodeIfNotExist(TABLE_CHUNKS_MARKER_PATH);
+    }
+
+    Void invalidateCache(final String path) {
+        return cache.invalidateCache(path);
+    }
+
+    Void invalidateChildren(final String path) {
+        childrenCache.remove(path);
+        return null;
+    }
+
+    private void invalidateAll() {
+        cache.invalidateAll();
+        childrenCache.clear();
+    }
+
+    private CompletableFuture<Data<Integer>> getWatchedData(final String path) {
+        final CompletableFuture<Data<Integer>> result = new CompletableFuture<>();
+
+        try {
+            client.getData().usingWatcher(dataWatcher).inBackground(
+                    callback(event -> result.complete(new Data<>(event.getData(), event.getStat().getVersion())),
+                            result::completeExceptionally), executor).forPath(path);
+        } catch (Exception e) {
+            result.completeExceptionally(new StoreException(StoreException.Type.UNKNOWN));
+        }
+
+        return result;
+    }
+
+    private void dataChanged(final WatchedEvent event) {
+        if (event.getType() != Watcher.Event.EventType.None) {
+            cache.invalidateCache(event.getPath());
+        }
+    }
+
+    private void childrenChanged(final WatchedEvent event) {
+        if (event.getType() != Watcher.Event.EventType.None) {
+            childrenCache.remove(event.getPath());
+        }
+    }
+
+    // endregion
+
     // region curator client store access
 
     CompletableFuture<Void> deletePath(final String path, final boolean deleteEmptyContainer) {
@@ -13,10 +13,11 @@ import io.pravega.common.ExceptionHelpers;
 import io.pravega.common.concurrent.FutureHelpers;
 import io.pravega.common.util.BitConverter;
 import io.pravega.controller.store.stream.tables.ActiveTxnRecord;
-import io.pravega.controller.store.stream.tables.Cache;
 import io.pravega.controller.store.stream.tables.CompletedTxnRecord;
 import io.pravega.controller.store.stream.tables.Create;
 import io.pravega.controller.store.stream.tables.Data;
+import io.pravega.controller.store.stream.tables.HistoryRecord;
+import io.pravega.controller.store.stream.tables.IndexRecord;
 import io.pravega.controller.store.stream.tables.SegmentRecord;
 import io.pravega.controller.store.stream.tables.State;
 import io.pravega.controller.store.stream.tables.TableHelper;
@@ -25,6 +26,7 @@ import org.apache.commons.lang.SerializationUtils;
 import org.apache.curator.utils.ZKPaths;
 
 import java.util.AbstractMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Map;
@@ -38,8 +40,11 @@ import java.util.stream.IntStream;
  * 1. underlying file organization/object structure of stream metadata store.
  * 2. how to evaluate basic read and update queries defined in the Stream interface.
  * <p>
- * It may cache files read from the store for its lifetime.
- * This shall reduce store round trips for answering queries, thus making them efficient.
+ * Files and listings read from the store are cached by the store helper, which is shared by all streams, and are
+ * served from memory until they change. As the cache is kept up to date by zookeeper watches, it need not be
+ * refreshed between requests. History and index tables are split into chunks, all of which but the latest are
+ * immutable, so only the latest chunk of either table is ever re-read. Until every controller has been upgraded to
+ * understand chunks (see {@link ZKStoreHelper#TABLE_CHUNKS_MARKER_PATH}), tables are kept whole in their table nodes.
  */
 class ZKStream extends PersistentStreamBase<Integer> {
     private static final String SCOPE_PATH = "/store/%s";
@@ -52,6 +57,10 @@ class ZKStream extends PersistentStreamBase<Integer> {
     private static final String INDEX_PATH = STREAM_PATH + "/index";
 
     private static final String MARKER_PATH = STREAM_PATH + "/markers";
+    /**
+     * Name of the only chunk of a table that is kept in the table node itself.
+     */
+    private static final String LEGACY_CHUNK = "0";
 
     private final ZKStoreHelper store;
     private final String creationPath;
@@ -60,17 +69,22 @@ class ZKStream extends PersistentStreamBase<Integer> {
     private final String segmentPath;
     private final String segmentChunkPathTemplate;
     private final String historyPath;
+    private final String historyChunkPathTemplate;
     private final String indexPath;
+    private final String indexChunkPathTemplate;
     private final String activeTxPath;
     private final String completedTxPath;
     private final String markerPath;
     private final String scopePath;
     private final String streamPath;
 
-    private final Cache<Integer> cache;
-
     public ZKStream(final String scopeName, final String streamName, ZKStoreHelper storeHelper) {
-        super(scopeName, streamName);
+        this(scopeName, streamName, storeHelper, HistoryRecord.HISTORY_CHUNK_SIZE, IndexRecord.INDEX_CHUNK_SIZE);
+    }
+
+    ZKStream(final String scopeName, final String streamName, ZKStoreHelper storeHelper,
+             final int historyChunkSize, final int indexChunkSize) {
+        super(scopeName, streamName, historyChunkSize, indexChunkSize);
         store = storeHelper;
         scopePath = String.format(SCOPE_PATH, scopeName);
         streamPath = String.format(STREAM_PATH, scopeName, streamName);
@@ -80,13 +94,13 @@ class ZKStream extends PersistentStreamBase<Integer> {
         segmentPath = String.format(SEGMENT_PATH, scopeName, streamName);
         segmentChunkPathTemplate = segmentPath + "/%s";
         historyPath = String.format(HISTORY_PATH, scopeName, streamName);
+        historyChunkPathTemplate = historyPath + "/%s";
         indexPath = String.format(INDEX_PATH, scopeName, streamName);
+        indexChunkPathTemplate = indexPath + "/%s";
         activeTxPath = String.format(ZKStoreHelper.ACTIVE_TX_PATH, streamName);
         completedTxPath = String.format(ZKStoreHelper.COMPLETED_TX_PATH, streamName);
 
         markerPath = String.format(MARKER_PATH, scopeName, streamName);
-
-        cache = new Cache<>(store::getData);
     }
 
     // region overrides
@@ -98,7 +112,7 @@ class ZKStream extends PersistentStreamBase<Integer> {
 
     @Override
     public void refresh() {
-        cache.invalidateAll();
+        // Cached data is invalidated by watches as soon as it changes.
     }
 
     @Override
@@ -111,7 +125,7 @@ class ZKStream extends PersistentStreamBase<Integer> {
         return store.checkExists(creationPath)
                 .thenCompose(x -> {
                     if (x) {
-                        return cache.getCachedData(creationPath)
+                        return store.getCachedData(creationPath)
                                 .thenApply(creationTime -> BitConverter.readLong(creationTime.getData(), 0) != create.getCreationTime());
                     } else {
                         return CompletableFuture.completedFuture(false);
@@ -149,42 +163,41 @@ class ZKStream extends PersistentStreamBase<Integer> {
     @Override
     public CompletableFuture<Void> createConfiguration(final Create create) {
         return store.createZNodeIfNotExist(configurationPath, SerializationUtils.serialize(create.getConfiguration()))
-                .thenApply(x -> cache.invalidateCache(configurationPath));
+                .thenApply(x -> store.invalidateCache(configurationPath));
     }
 
     @Override
     public CompletableFuture<Void> createState(final State state) {
         return store.createZNodeIfNotExist(statePath, SerializationUtils.serialize(state))
-                .thenApply(x -> cache.invalidateCache(statePath));
+                .thenApply(x -> store.invalidateCache(statePath));
     }
 
     @Override
     public CompletableFuture<Void> createSegmentTable(final Create create) {
-        return store.createZNodeIfNotExist(segmentPath).thenApply(x -> cache.invalidateCache(segmentPath));
+        return store.createZNodeIfNotExist(segmentPath).thenApply(x -> store.invalidateCache(segmentPath));
     }
 
     @Override
     CompletableFuture<Void> createSegmentChunk(final int chunkNumber, final Data<Integer> data) {
         final String segmentChunkPath = String.format(segmentChunkPathTemplate, chunkNumber);
         return store.createZNodeIfNotExist(segmentChunkPath, data.getData())
-                .thenApply(x -> cache.invalidateCache(segmentChunkPath));
+                .thenApply(x -> store.invalidateCache(segmentChunkPath))
+                .thenApply(x -> store.invalidateChildren(segmentPath));
     }
 
     @Override
-    public CompletableFuture<Void> createIndexTable(final Data<Integer> indexTable) {
-        return store.createZNodeIfNotExist(indexPath, indexTable.getData())
-                .thenApply(x -> cache.invalidateCache(indexPath));
+    CompletableFuture<Void> createIndexTableChunk(final int chunkNumber, final Data<Integer> data) {
+        return createTableChunk(indexPath, String.format(indexChunkPathTemplate, chunkNumber), chunkNumber == 0, data);
     }
 
     @Override
-    public CompletableFuture<Void> createHistoryTable(final Data<Integer> historyTable) {
-        return store.createZNodeIfNotExist(historyPath, historyTable.getData())
-                .thenApply(x -> cache.invalidateCache(historyPath));
+    CompletableFuture<Void> createHistoryTableChunk(final int chunkOffset, final Data<Integer> data) {
+        return createTableChunk(historyPath, String.format(historyChunkPathTemplate, chunkOffset), chunkOffset == 0, data);
     }
 
     @Override
-    public CompletableFuture<Void> updateHistoryTable(final Data<Integer> updated) {
-        return store.setData(historyPath, updated).thenApply(x -> cache.invalidateCache(historyPath));
+    CompletableFuture<Void> updateHistoryTableChunk(final int chunkOffset, final Data<Integer> data) {
+        return updateTableChunk(historyPath, String.format(historyChunkPathTemplate, chunkOffset), data);
     }
 
     @Override
@@ -207,7 +220,8 @@ class ZKStream extends PersistentStreamBase<Integer> {
 
         final String segmentChunkPath = String.format(segmentChunkPathTemplate, chunkFileName);
         return store.createZNodeIfNotExist(segmentChunkPath, segmentTable)
-                .thenApply(x -> cache.invalidateCache(segmentChunkPath));
+                .thenApply(x -> store.invalidateCache(segmentChunkPath))
+                .thenApply(x -> store.invalidateChildren(segmentPath));
     }
 
     @Override
@@ -217,7 +231,7 @@ class ZKStream extends PersistentStreamBase<Integer> {
         BitConverter.writeLong(b, 0, timestamp);
 
         return store.createZNodeIfNotExist(path, b)
-                .thenAccept(x -> cache.invalidateCache(markerPath));
+                .thenAccept(x -> store.invalidateCache(markerPath));
     }
 
     @Override
@@ -225,14 +239,14 @@ class ZKStream extends PersistentStreamBase<Integer> {
         final String path = ZKPaths.makePath(markerPath, String.format("%d", segmentNumber));
 
         return store.setData(path, data)
-                .thenAccept(x -> cache.invalidateCache(path));
+                .thenAccept(x -> store.invalidateCache(path));
     }
 
     @Override
     CompletableFuture<Data<Integer>> getMarkerData(int segmentNumber) {
         final CompletableFuture<Data<Integer>> result = new CompletableFuture<>();
         final String path = ZKPaths.makePath(markerPath, String.format("%d", segmentNumber));
-        cache.getCachedData(path)
+        store.getCachedData(path)
                 .whenComplete((res, ex) -> {
                     if (ex != null) {
                         Throwable cause = ExceptionHelpers.getRealException(ex);
@@ -254,14 +268,14 @@ class ZKStream extends PersistentStreamBase<Integer> {
         final String path = ZKPaths.makePath(markerPath, String.format("%d", segmentNumber));
 
         return store.deletePath(path, false)
-                .thenAccept(x -> cache.invalidateCache(path));
+                .thenAccept(x -> store.invalidateCache(path));
     }
 
     @Override
     public CompletableFuture<Map<String, Data<Integer>>> getCurrentTxns() {
         return store.getChildren(activeTxPath)
                 .thenCompose(txIds -> FutureHelpers.allOfWithResults(txIds.stream().collect(
-                        Collectors.toMap(txId -> txId, txId -> cache.getCachedData(ZKPaths.makePath(activeTxPath, txId)))
+                        Collectors.toMap(txId -> txId, txId -> store.getCachedData(ZKPaths.makePath(activeTxPath, txId)))
                 )));
     }
 
@@ -273,7 +287,7 @@ class ZKStream extends PersistentStreamBase<Integer> {
         return store.createZNodeIfNotExist(activePath,
                 new ActiveTxnRecord(timestamp, leaseExpiryTime, maxExecutionExpiryTime, scaleGracePeriod, TxnStatus.OPEN)
                         .toByteArray())
-                .thenApply(x -> cache.invalidateCache(activePath));
+                .thenApply(x -> store.invalidateCache(activePath));
     }
 
     @Override
@@ -286,7 +300,8 @@ class ZKStream extends PersistentStreamBase<Integer> {
     @Override
     CompletableFuture<Void> updateActiveTx(final UUID txId, final byte[] data) {
         final String activeTxPath = getActiveTxPath(txId.toString());
-        return store.updateTxnData(activeTxPath, data);
+        return store.updateTxnData(activeTxPath, data)
+                .thenApply(x -> store.invalidateCache(activeTxPath));
     }
 
     @Override
@@ -306,12 +321,12 @@ class ZKStream extends PersistentStreamBase<Integer> {
                             commit ? TxnStatus.COMMITTING : TxnStatus.ABORTING);
                     return store.setData(activePath, new Data<>(updated.toByteArray(), x.getVersion()));
                 })
-                .thenApply(x -> cache.invalidateCache(activePath));
+                .thenApply(x -> store.invalidateCache(activePath));
     }
 
     @Override
     CompletableFuture<Data<Integer>> getCompletedTx(final UUID txId) {
-        return cache.getCachedData(getCompletedTxPath(txId.toString()));
+        return store.getCachedData(getCompletedTxPath(txId.toString()));
     }
 
     @Override
@@ -321,7 +336,7 @@ class ZKStream extends PersistentStreamBase<Integer> {
                 .thenCompose(x -> {
                     if (x) {
                         return store.deletePath(activePath, true)
-                                .thenAccept(y -> cache.invalidateCache(activePath));
+                                .thenAccept(y -> store.invalidateCache(activePath));
                     } else {
                         return CompletableFuture.completedFuture(null);
                     }
@@ -333,30 +348,30 @@ class ZKStream extends PersistentStreamBase<Integer> {
         final String completedTxPath = getCompletedTxPath(txId.toString());
         return store.createZNodeIfNotExist(completedTxPath,
                 new CompletedTxnRecord(timestamp, complete).toByteArray())
-                .thenAccept(x -> cache.invalidateCache(completedTxPath));
+                .thenAccept(x -> store.invalidateCache(completedTxPath));
     }
 
     @Override
     public CompletableFuture<Void> setConfigurationData(final StreamConfiguration configuration) {
         return store.setData(configurationPath, new Data<>(SerializationUtils.serialize(configuration), null))
-                .thenApply(x -> cache.invalidateCache(configurationPath));
+                .thenApply(x -> store.invalidateCache(configurationPath));
     }
 
     @Override
     public CompletableFuture<StreamConfiguration> getConfigurationData() {
-        return cache.getCachedData(configurationPath)
+        return store.getCachedData(configurationPath)
                 .thenApply(x -> (StreamConfiguration) SerializationUtils.deserialize(x.getData()));
     }
 
     @Override
     CompletableFuture<Void> setStateData(final State state) {
         return store.setData(statePath, new Data<>(SerializationUtils.serialize(state), null))
-                .thenApply(x -> cache.invalidateCache(statePath));
+                .thenApply(x -> store.invalidateCache(statePath));
     }
 
     @Override
     CompletableFuture<State> getStateData() {
-        return cache.getCachedData(statePath)
+        return store.getCachedData(statePath)
                 .thenApply(x -> (State) SerializationUtils.deserialize(x.getData()));
     }
 
@@ -371,34 +386,127 @@ class ZKStream extends PersistentStreamBase<Integer> {
 
     @Override
     public CompletableFuture<Data<Integer>> getSegmentTableChunk(final int chunkNumber) {
-        return cache.getCachedData(String.format(segmentChunkPathTemplate, chunkNumber));
+        return store.getCachedData(String.format(segmentChunkPathTemplate, chunkNumber));
     }
 
     @Override
     CompletableFuture<Void> setSegmentTableChunk(final int chunkNumber, final Data<Integer> data) {
         final String segmentChunkPath = String.format(segmentChunkPathTemplate, chunkNumber);
         return store.setData(segmentChunkPath, data)
-                .thenApply(x -> cache.invalidateCache(segmentChunkPath));
+                .thenApply(x -> store.invalidateCache(segmentChunkPath));
     }
 
     @Override
     public CompletableFuture<List<String>> getSegmentChunks() {
-        return store.getChildren(segmentPath);
+        return store.getCachedChildren(segmentPath);
+    }
+
+    @Override
+    CompletableFuture<List<String>> getHistoryChunks() {
+        return getTableChunks(historyPath, String.format(historyChunkPathTemplate, 0));
     }
 
     @Override
-    public CompletableFuture<Data<Integer>> getHistoryTable() {
-        return cache.getCachedData(historyPath);
+    CompletableFuture<Data<Integer>> getHistoryTableChunk(final int chunkOffset) {
+        return getTableChunk(historyPath, String.format(historyChunkPathTemplate, chunkOffset));
+    }
+
+    @Override
+    CompletableFuture<List<String>> getIndexChunks() {
+        return getTableChunks(indexPath, String.format(indexChunkPathTemplate, 0));
+    }
+
+    /**
+     * Lists the chunks of a table. Streams created before tables were split into chunks (or while table chunking is
+     * not enabled, see {@link ZKStoreHelper#TABLE_CHUNKS_MARKER_PATH}) keep the whole table in the data of the table
+     * node itself, without any children. Until table chunking is enabled, such a table is read and updated in place as
+     * its only chunk, so that controllers that have not been upgraded keep seeing all of it. Afterwards it is copied
+     * into its first chunk the first time its chunks are listed, and it is read and extended like any other.
+     *
+     * @param tablePath       Path of the table node.
+     * @param firstChunkPath  Path of the first chunk of the table.
+     */
+    private CompletableFuture<List<String>> getTableChunks(final String tablePath, final String firstChunkPath) {
+        return store.getCachedChildren(tablePath)
+                .thenCompose(chunks -> {
+                    if (!chunks.isEmpty()) {
+                        return CompletableFuture.completedFuture(chunks);
+                    }
+
+                    return store.checkExists(tablePath)
+                            .thenCompose(exists -> exists ? store.getCachedData(tablePath) : CompletableFuture.<Data<Integer>>completedFuture(null))
+                            .thenCompose(legacyTable -> {
+                                if (legacyTable == null || legacyTable.getData() == null || legacyTable.getData().length == 0) {
+                                    return CompletableFuture.completedFuture(chunks);
+                                }
+
+                                return store.isTableChunkingEnabled().thenCompose(enabled -> {
+                                    if (!enabled) {
+                                        return CompletableFuture.completedFuture(Collections.singletonList(LEGACY_CHUNK));
+                                    }
+
+                                    return store.createZNodeIfNotExist(firstChunkPath, legacyTable.getData())
+                                            .thenApply(x -> store.invalidateCache(firstChunkPath))
+                                            .thenApply(x -> store.invalidateChildren(tablePath))
+                                            .thenCompose(x -> store.getCachedChildren(tablePath));
+                                });
+                            });
+                });
+    }
+
+    /**
+     * Creates a chunk of a table. The first chunk of a new table is written into the table node itself unless table
+     * chunking is enabled. A table that is kept in the table node cannot be extended with further chunks until table
+     * chunking is enabled: controllers that have not been upgraded would not see them.
+     */
+    private CompletableFuture<Void> createTableChunk(final String tablePath, final String chunkPath, final boolean first,
+                                                     final Data<Integer> data) {
+        final CompletableFuture<Boolean> chunked = first
+                ? store.isTableChunkingEnabled()
+                : store.getCachedChildren(tablePath).thenApply(chunks -> !chunks.isEmpty());
+        return chunked.thenCompose(isChunked -> {
+            if (isChunked) {
+                return store.createZNodeIfNotExist(chunkPath, data.getData())
+                        .thenApply(x -> store.invalidateCache(chunkPath))
+                        .thenApply(x -> store.invalidateChildren(tablePath));
+            } else if (first) {
+                return store.createZNodeIfNotExist(tablePath, data.getData())
+                        .thenApply(x -> store.invalidateCache(tablePath));
+            } else {
+                throw new IllegalStateException(String.format("%s cannot be extended until all controllers are upgraded "
+                        + "and table chunking is enabled.", tablePath));
+            }
+        });
+    }
+
+    /**
+     * Reads a chunk of a table, which is the table node itself if the table is not split into chunks.
+     */
+    private CompletableFuture<Data<Integer>> getTableChunk(final String tablePath, final String chunkPath) {
+        return store.getCachedChildren(tablePath)
+                .thenCompose(chunks -> store.getCachedData(chunks.isEmpty() ? tablePath : chunkPath));
+    }
+
+    /**
+     * Updates a chunk of a table, which is the table node itself if the table is not split into chunks.
+     */
+    private CompletableFuture<Void> updateTableChunk(final String tablePath, final String chunkPath, final Data<Integer> data) {
+        return store.getCachedChildren(tablePath)
+                .thenCompose(chunks -> {
+                    final String path = chunks.isEmpty() ? tablePath : chunkPath;
+                    return store.setData(path, data)
+                            .thenApply(x -> store.invalidateCache(path));
+                });
     }
 
     @Override
-    public CompletableFuture<Data<Integer>> getIndexTable() {
-        return cache.getCachedData(indexPath);
+    CompletableFuture<Data<Integer>> getIndexTableChunk(final int chunkNumber) {
+        return getTableChunk(indexPath, String.format(indexChunkPathTemplate, chunkNumber));
     }
 
     @Override
-    CompletableFuture<Void> updateIndexTable(final Data<Integer> updated) {
-        return store.setData(indexPath, updated).thenApply(x -> cache.invalidateCache(indexPath));
+    CompletableFuture<Void> updateIndexTableChunk(final int chunkNumber, final Data<Integer> data) {
+        return updateTableChunk(indexPath, String.format(indexChunkPathTemplate, chunkNumber), data);
     }
 
     // endregion
@@ -24,8 +24,12 @@ class ZKStreamMetadataStore extends AbstractStreamMetadataStore {
     private final ZKStoreHelper storeHelper;
 
     ZKStreamMetadataStore(CuratorFramework client, ScheduledExecutorService executor) {
+        this(client, ZKStoreHelper.DEFAULT_CACHE_MAX_BYTES, executor);
+    }
+
+    ZKStreamMetadataStore(CuratorFramework client, long cacheMaxBytes, ScheduledExecutorService executor) {
         initialize();
-        storeHelper = new ZKStoreHelper(client, executor);
+        storeHelper = new ZKStoreHelper(client, executor, cacheMaxBytes);
     }
 
     private void initialize() {
@@ -10,51 +10,101 @@
 package io.pravega.controller.store.stream.tables;
 
 import io.pravega.controller.store.stream.DataNotFoundException;
+import io.pravega.shared.MetricsNames;
+import io.pravega.shared.metrics.Counter;
+import io.pravega.shared.metrics.MetricsProvider;
+import io.pravega.shared.metrics.StatsLogger;
+import com.google.common.base.Preconditions;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 
-import javax.annotation.ParametersAreNonnullByDefault;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class Cache<T> {
+/**
+ * Cache of versioned data read from the metadata store, bounded by the total size of the cached data.
+ * <p>
+ * Entries are not expired. Instead, the owner of the cache is expected to invalidate an entry as soon as it learns
+ * that the underlying data has changed (typically through a store watch) and after it has updated the data itself.
+ * Concurrent loads of the same key are coalesced, and a load that was in flight when its key got invalidated is
+ * handed to its callers but not cached, so that a value that might be stale never outlives an invalidation.
+ *
+ * @param <T> Type of the version of the cached data.
+ */
+public class Cache<T extends Comparable<T>> {
+    private static final StatsLogger STATS_LOGGER = MetricsProvider.getMetricsProvider().createStatsLogger("controller");
+    private static final Counter CACHE_HITS = STATS_LOGGER.createCounter(MetricsNames.METADATA_CACHE_HITS);
+    private static final Counter CACHE_MISSES = STATS_LOGGER.createCounter(MetricsNames.METADATA_CACHE_MISSES);
 
     @FunctionalInterface
     public interface Loader<U> {
         CompletableFuture<Data<U>> get(final String key) throws DataNotFoundException;
     }
 
-    private final LoadingCache<String, CompletableFuture<Data<T>>> cache;
-
-    public Cache(final Loader<T> loader) {
-        cache = CacheBuilder.newBuilder()
-                .maximumSize(10000)
-                .expireAfterWrite(10, TimeUnit.MINUTES)
-                .build(new CacheLoader<String, CompletableFuture<Data<T>>>() {
-                    @ParametersAreNonnullByDefault
-                    @Override
-                    public CompletableFuture<Data<T>> load(final String key) {
-                        CompletableFuture<Data<T>> result = loader.get(key);
-                        result.exceptionally(ex -> {
-                            invalidateCache(key);
-                            return null;
-                        });
-                        return result;
-                    }
-                });
+    private final Loader<T> loader;
+    private final com.google.common.cache.Cache<String, Data<T>> cache;
+    private final ConcurrentHashMap<String, CompletableFuture<Data<T>>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param loader   Loader used to read the data for a key from the store.
+     * @param maxBytes Maximum total size of the cached data, after which least recently used entries are evicted.
+     */
+    public Cache(final Loader<T> loader, final long maxBytes) {
+        Preconditions.checkNotNull(loader, "loader");
+        Preconditions.checkArgument(maxBytes > 0, "maxBytes must be positive");
+        this.loader = loader;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .<String, Data<T>>weigher((key, data) -> key.length() + data.getData().length)
+                .build();
     }
 
     public CompletableFuture<Data<T>> getCachedData(final String key) {
-        return cache.getUnchecked(key);
+        final Data<T> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            CACHE_HITS.inc();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CACHE_MISSES.inc();
+        final CompletableFuture<Data<T>> result = new CompletableFuture<>();
+        final CompletableFuture<Data<T>> inFlight = pending.putIfAbsent(key, result);
+        if (inFlight != null) {
+            return inFlight;
+        }
+
+        CompletableFuture<Data<T>> load;
+        try {
+            load = loader.get(key);
+        } catch (Exception e) {
+            load = new CompletableFuture<>();
+            load.completeExceptionally(e);
+        }
+
+        load.whenComplete((data, ex) -> {
+            // Only cache the data if the key has not been invalidated since the load was started.
+            if (pending.remove(key, result) && ex == null) {
+                cache.asMap().merge(key, data, (existing, loaded) ->
+                        existing.getVersion().compareTo(loaded.getVersion()) > 0 ? existing : loaded);
+            }
+            if (ex != null) {
+                result.completeExceptionally(ex);
+            } else {
+                result.complete(data);
+            }
+        });
+        return result;
     }
 
     public Void invalidateCache(final String key) {
+        pending.remove(key);
         cache.invalidate(key);
         return null;
     }
 
     public Void invalidateAll() {
+        pending.clear();
         cache.invalidateAll();
         return null;
     }
@@ -23,8 +23,14 @@ import java.util.Optional;
  * start of row and end of row. We need it in both directions because we need to traverse
  * in both directions on the history table
  * Row : [length][List-of-active-segment-numbers, [length-so-far], scaleTime][length]
+ * The history table is stored in chunks of whole records, identified by the offset of their first record.
  */
 public class HistoryRecord {
+    /**
+     * Once a history table chunk has grown to this many bytes, the next record is added to a new chunk and the
+     * chunk is never updated again.
+     */
+    public static final int HISTORY_CHUNK_SIZE = 64 * 1024;
 
     private static final int FIXED_FIELDS_LENGTH = Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
     private final int length;
@@ -21,9 +21,11 @@ import java.util.Optional;
  * Class corresponding to a record/row in Index table.
  * Each row is fixed size
  * Row: [eventTime, pointer-into-history-table]
+ * The index table is stored in numbered chunks of at most INDEX_CHUNK_SIZE records each.
  */
 public class IndexRecord {
     public static final int INDEX_RECORD_SIZE = Long.BYTES + Integer.BYTES;
+    public static final int INDEX_CHUNK_SIZE = 4096;
 
     private final long eventTime;
     private final int historyOffset;
@@ -431,7 +431,36 @@ public class TableHelper {
         return indexStream.toByteArray();
     }
 
-    private static Optional<HistoryRecord> findRecordInHistoryTable(final int startingOffset,
+    /**
+     * Puts the chunks of a table back together into the table they were split from.
+     *
+     * @param chunks table chunks, in order
+     * @return
+     */
+    public static byte[] mergeChunks(final List<byte[]> chunks) {
+        final ByteArrayOutputStream tableStream = new ByteArrayOutputStream();
+
+        try {
+            for (byte[] chunk : chunks) {
+                tableStream.write(chunk);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return tableStream.toByteArray();
+    }
+
+    /**
+     * Find the record that was active at the given timestamp, starting at the given offset and falling through
+     * the history table until the next record is after the timestamp.
+     *
+     * @param startingOffset offset of a record that was created at or before timestamp
+     * @param timeStamp      timestamp
+     * @param historyTable   history table, or a chunk of it
+     * @param ignorePartial  if set, ignore a partial record at the end of the table
+     * @return
+     */
+    public static Optional<HistoryRecord> findRecordInHistoryTable(final int startingOffset,
                                                                     final long timeStamp,
                                                                     final byte[] historyTable,
                                                                     final boolean ignorePartial) {
@@ -42,6 +42,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -392,16 +393,9 @@ public class StreamMetadataTasks extends TaskBase {
     }
 
     private CompletableFuture<Void> notifyNewSegments(String scope, String stream, StreamConfiguration configuration, List<Integer> segmentNumbers) {
-        return FutureHelpers.toVoid(FutureHelpers.allOfWithResults(segmentNumbers
-                .stream()
-                .parallel()
-                .map(segment -> notifyNewSegment(scope, stream, segment, configuration.getScalingPolicy()))
-                .collect(Collectors.toList())));
-    }
-
-    private CompletableFuture<Void> notifyNewSegment(String scope, String stream, int segmentNumber, ScalingPolicy policy) {
-        return FutureHelpers.toVoid(TaskStepsRetryHelper.withRetries(() -> segmentHelper.createSegment(scope,
-                stream, segmentNumber, policy, hostControllerStore, this.connectionFactory), executor));
+        final Set<Integer> remaining = remainingSegments(segmentNumbers);
+        return FutureHelpers.toVoid(TaskStepsRetryHelper.withRetries(() -> segmentHelper.createSegments(scope,
+                stream, remaining, configuration.getScalingPolicy(), hostControllerStore, this.connectionFactory), executor));
     }
 
     private CompletableFuture<Void> notifyDeleteSegments(String scope, String stream, int count) {
@@ -417,24 +411,25 @@ public class StreamMetadataTasks extends TaskBase {
     }
 
     private CompletableFuture<Void> notifySealedSegments(String scope, String stream, List<Integer> sealedSegments) {
-        return FutureHelpers.allOf(
-                sealedSegments
-                        .stream()
-                        .parallel()
-                        .map(number -> notifySealedSegment(scope, stream, number))
-                        .collect(Collectors.toList()));
-    }
-
-    private CompletableFuture<Void> notifySealedSegment(final String scope, final String stream, final int sealedSegment) {
-
-        return FutureHelpers.toVoid(TaskStepsRetryHelper.withRetries(() -> segmentHelper.sealSegment(
+        final Set<Integer> remaining = remainingSegments(sealedSegments);
+        return FutureHelpers.toVoid(TaskStepsRetryHelper.withRetries(() -> segmentHelper.sealSegments(
                 scope,
                 stream,
-                sealedSegment,
+                remaining,
                 hostControllerStore,
                 this.connectionFactory), executor));
     }
 
+    /**
+     * Creates the set of segments that a batch request still has to process. SegmentHelper removes segments from it as
+     * they are done, so that a retry only resends the ones that failed.
+     */
+    private Set<Integer> remainingSegments(List<Integer> segmentNumbers) {
+        final Set<Integer> remaining = ConcurrentHashMap.newKeySet();
+        remaining.addAll(segmentNumbers);
+        return remaining;
+    }
+
     private CompletableFuture<Void> notifyPolicyUpdates(String scope, String stream, List<Segment> activeSegments,
                                                         ScalingPolicy policy) {
         return FutureHelpers.toVoid(FutureHelpers.allOfWithResults(activeSegments
@@ -49,6 +49,9 @@ public final class Config {
     //HostStore configuration.
     public static final int HOST_STORE_CONTAINER_COUNT = CONFIG.getInt("config.controller.server.store.host.containerCount");
 
+    //StreamStore configuration.
+    public static final long STREAM_STORE_CACHE_MAX_BYTES = CONFIG.getLong("config.controller.server.store.stream.cacheMaxBytes");
+
     //Cluster configuration.
     public static final boolean HOST_MONITOR_ENABLED = CONFIG.getBoolean("config.controller.server.hostMonitorEnabled");
     public static final String CLUSTER_NAME = CONFIG.getString("config.controller.server.cluster");
@@ -49,6 +49,15 @@ public class SegmentHelperMock {
 
         doReturn(CompletableFuture.completedFuture(true)).when(helper).updatePolicy(
                 anyString(), anyString(), any(), anyInt(), any(), any());
+
+        doReturn(CompletableFuture.completedFuture(true)).when(helper).createSegments(
+                anyString(), anyString(), any(), any(), any(), any());
+
+        doReturn(CompletableFuture.completedFuture(true)).when(helper).sealSegments(
+                anyString(), anyString(), any(), any(), any());
+
+        doReturn(CompletableFuture.completedFuture(true)).when(helper).commitTransactions(
+                anyString(), anyString(), any(), any(), any(), any());
         return helper;
     }
 }
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.server;
+
+import io.pravega.client.netty.impl.ClientConnection;
+import io.pravega.client.netty.impl.ConnectionFactory;
+import io.pravega.common.cluster.Host;
+import io.pravega.controller.store.host.HostControllerStore;
+import io.pravega.shared.protocol.netty.ReplyProcessor;
+import io.pravega.shared.protocol.netty.WireCommand;
+import io.pravega.shared.protocol.netty.WireCommands;
+import io.pravega.shared.protocol.netty.WireCommands.SegmentResult;
+import io.pravega.test.common.AssertExtensions;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SegmentHelperTest {
+
+    private final ClientConnection clientConnection = mock(ClientConnection.class);
+    private final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+    private final HostControllerStore hostStore = mock(HostControllerStore.class);
+    private final ArgumentCaptor<ReplyProcessor> dispatcher = ArgumentCaptor.forClass(ReplyProcessor.class);
+
+    @Before
+    public void setup() {
+        when(connectionFactory.establishConnection(any(), dispatcher.capture()))
+                .thenReturn(CompletableFuture.completedFuture(clientConnection));
+        when(hostStore.getHostForSegment(anyString(), anyString(), anyInt())).thenReturn(new Host("localhost", 12345, null));
+    }
+
+    @Test
+    public void testRetriedCommitTransactions() throws Exception {
+        SegmentHelper helper = new SegmentHelper();
+        UUID txId = UUID.randomUUID();
+
+        // Segment 0 was merged by an earlier attempt, so it no longer exists; segment 1 was sealed by it; segment 2 is
+        // merged now.
+        Set<Integer> remaining = segments(0, 1, 2);
+        CompletableFuture<?> result = helper.commitTransactions("scope", "stream", remaining, txId, hostStore, connectionFactory);
+        dispatcher.getValue().hello(new WireCommands.Hello(WireCommands.WIRE_VERSION, WireCommands.OLDEST_COMPATABLE_VERSION));
+        Map<String, SegmentResult> results = new LinkedHashMap<>();
+        results.put("scope/stream/0", SegmentResult.NO_SUCH_SEGMENT);
+        results.put("scope/stream/1", SegmentResult.IS_SEALED);
+        results.put("scope/stream/2", SegmentResult.SUCCESS);
+        dispatcher.getValue().transactionsCommitted(new WireCommands.TransactionsCommitted(lastBatch().getRequestId(), txId, results));
+        result.get();
+        assertTrue(remaining.isEmpty());
+
+        // Any other failure still fails the commit.
+        remaining = segments(0, 1);
+        result = helper.commitTransactions("scope", "stream", remaining, txId, hostStore, connectionFactory);
+        results.clear();
+        results.put("scope/stream/0", SegmentResult.SUCCESS);
+        results.put("scope/stream/1", SegmentResult.ALREADY_EXISTS);
+        dispatcher.getValue().transactionsCommitted(new WireCommands.TransactionsCommitted(lastBatch().getRequestId(), txId, results));
+        assertTrue(result.isCompletedExceptionally());
+        AssertExtensions.assertThrows("Unexpected result was not reported.",
+                result::join,
+                ex -> ex instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testRetryOnlyFailedSegments() throws Exception {
+        SegmentHelper helper = new SegmentHelper();
+        UUID txId = UUID.randomUUID();
+        Set<Integer> remaining = segments(0, 1);
+        CompletableFuture<?> result = helper.commitTransactions("scope", "stream", remaining, txId, hostStore, connectionFactory);
+        dispatcher.getValue().hello(new WireCommands.Hello(WireCommands.WIRE_VERSION, WireCommands.OLDEST_COMPATABLE_VERSION));
+        Map<String, SegmentResult> results = new LinkedHashMap<>();
+        results.put("scope/stream/0", SegmentResult.SUCCESS);
+        results.put("scope/stream/1", SegmentResult.FAILED);
+        dispatcher.getValue().transactionsCommitted(new WireCommands.TransactionsCommitted(lastBatch().getRequestId(), txId, results));
+        AssertExtensions.assertThrows("Failure was not reported.",
+                result::join,
+                ex -> ex instanceof WireCommandFailedException);
+        assertEquals(segments(1), remaining);
+
+        // The retry only includes the segment that failed.
+        result = helper.commitTransactions("scope", "stream", remaining, txId, hostStore, connectionFactory);
+        assertEquals(Collections.singletonList("scope/stream/1"), lastBatch().getSegments());
+        results.clear();
+        results.put("scope/stream/1", SegmentResult.SUCCESS);
+        dispatcher.getValue().transactionsCommitted(new WireCommands.TransactionsCommitted(lastBatch().getRequestId(), txId, results));
+        result.get();
+        assertTrue(remaining.isEmpty());
+    }
+
+    @Test
+    public void testOlderServerVersion() throws Exception {
+        SegmentHelper helper = new SegmentHelper();
+        UUID txId = UUID.randomUUID();
+        Set<Integer> remaining = segments(0, 1);
+        CompletableFuture<?> result = helper.commitTransactions("scope", "stream", remaining, txId, hostStore, connectionFactory);
+        dispatcher.getValue().hello(new WireCommands.Hello(WireCommands.BATCH_SEGMENT_COMMANDS_VERSION - 1, 1));
+
+        // The segment store cannot decode the batch command, so there should be one command per segment instead.
+        ArgumentCaptor<WireCommand> sent = ArgumentCaptor.forClass(WireCommand.class);
+        verify(clientConnection, times(2)).send(sent.capture());
+        for (WireCommand command : sent.getAllValues()) {
+            WireCommands.CommitTransaction commit = (WireCommands.CommitTransaction) command;
+            dispatcher.getValue().transactionCommitted(new WireCommands.TransactionCommitted(commit.getRequestId(),
+                    commit.getSegment(), txId));
+        }
+        result.get();
+        assertTrue(remaining.isEmpty());
+    }
+
+    @Test
+    public void testRequestTimeout() throws Exception {
+        ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+        ArgumentCaptor<Runnable> timeouts = ArgumentCaptor.forClass(Runnable.class);
+        doReturn(mock(ScheduledFuture.class)).when(executor).schedule(timeouts.capture(), anyLong(), any(TimeUnit.class));
+        SegmentHelper helper = new SegmentHelper(executor);
+        UUID txId = UUID.randomUUID();
+        CompletableFuture<?> first = helper.commitTransactions("scope", "stream", segments(0), txId, hostStore, connectionFactory);
+        dispatcher.getValue().hello(new WireCommands.Hello(WireCommands.WIRE_VERSION, WireCommands.OLDEST_COMPATABLE_VERSION));
+        long firstRequestId = lastBatch().getRequestId();
+        CompletableFuture<?> second = helper.commitTransactions("scope", "stream", segments(1), txId, hostStore, connectionFactory);
+        long secondRequestId = lastBatch().getRequestId();
+
+        // Time out the first request only (the first two timeouts are for the server version and the first request).
+        timeouts.getAllValues().get(1).run();
+        AssertExtensions.assertThrows("Timeout was not reported.",
+                first::join,
+                ex -> ex instanceof WireCommandFailedException
+                        && ((WireCommandFailedException) ex).getReason() == WireCommandFailedException.Reason.Timeout);
+
+        // The other request is unaffected and the connection remains in use; a late reply is ignored.
+        dispatcher.getValue().transactionsCommitted(new WireCommands.TransactionsCommitted(firstRequestId, txId,
+                Collections.singletonMap("scope/stream/0", SegmentResult.SUCCESS)));
+        assertFalse(second.isDone());
+        dispatcher.getValue().transactionsCommitted(new WireCommands.TransactionsCommitted(secondRequestId, txId,
+                Collections.singletonMap("scope/stream/1", SegmentResult.SUCCESS)));
+        second.get();
+        verify(clientConnection, never()).close();
+    }
+
+    private Set<Integer> segments(Integer... segmentNumbers) {
+        Set<Integer> result = ConcurrentHashMap.newKeySet();
+        result.addAll(Arrays.asList(segmentNumbers));
+        return result;
+    }
+
+    private WireCommands.CommitTransactions lastBatch() throws Exception {
+        ArgumentCaptor<WireCommand> sent = ArgumentCaptor.forClass(WireCommand.class);
+        verify(clientConnection, atLeastOnce()).send(sent.capture());
+        return (WireCommands.CommitTransactions) sent.getValue();
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.server;
+
+import io.pravega.client.netty.impl.ClientConnection;
+import io.pravega.client.netty.impl.ConnectionFactory;
+import io.pravega.shared.protocol.netty.PravegaNodeUri;
+import io.pravega.shared.protocol.netty.ReplyProcessor;
+import io.pravega.shared.protocol.netty.WireCommands;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SegmentStoreConnectionTest {
+
+    private final PravegaNodeUri uri = new PravegaNodeUri("localhost", 12345);
+
+    @Test
+    public void testRepliesRoutedByRequestId() {
+        ClientConnection clientConnection = mock(ClientConnection.class);
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.establishConnection(eq(uri), any(ReplyProcessor.class)))
+                .thenReturn(CompletableFuture.completedFuture(clientConnection));
+        SegmentStoreConnection connection = new SegmentStoreConnection(uri, connectionFactory);
+
+        ReplyProcessor first = mock(ReplyProcessor.class);
+        ReplyProcessor second = mock(ReplyProcessor.class);
+        CompletableFuture<ClientConnection> firstConnection = connection.register(1, first);
+        CompletableFuture<ClientConnection> secondConnection = connection.register(2, second);
+        assertSame(clientConnection, firstConnection.join());
+        assertSame(clientConnection, secondConnection.join());
+        ArgumentCaptor<ReplyProcessor> dispatcher = ArgumentCaptor.forClass(ReplyProcessor.class);
+        verify(connectionFactory, times(1)).establishConnection(eq(uri), dispatcher.capture());
+
+        // The segment store announces its wire version upon connecting.
+        CompletableFuture<Integer> serverVersion = connection.getServerVersion();
+        assertFalse(serverVersion.isDone());
+        dispatcher.getValue().hello(new WireCommands.Hello(WireCommands.WIRE_VERSION, WireCommands.OLDEST_COMPATABLE_VERSION));
+        assertEquals(WireCommands.WIRE_VERSION, (int) serverVersion.join());
+
+        WireCommands.SegmentCreated created = new WireCommands.SegmentCreated(2, "scope/stream/0");
+        dispatcher.getValue().segmentCreated(created);
+        verify(second).segmentCreated(created);
+        verify(first, never()).segmentCreated(created);
+
+        // Replies for requests that have completed are dropped.
+        connection.unregister(1);
+        dispatcher.getValue().segmentSealed(new WireCommands.SegmentSealed(1, "scope/stream/0"));
+        verify(first, never()).segmentSealed(any());
+
+        dispatcher.getValue().connectionDropped();
+        verify(second).connectionDropped();
+        verify(first, never()).connectionDropped();
+        verify(clientConnection).close();
+        assertTrue(connection.isClosed());
+        assertNull(connection.register(3, first));
+    }
+
+    @Test
+    public void testConnectFailure() {
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        CompletableFuture<ClientConnection> failed = new CompletableFuture<>();
+        when(connectionFactory.establishConnection(eq(uri), any(ReplyProcessor.class))).thenReturn(failed);
+        SegmentStoreConnection connection = new SegmentStoreConnection(uri, connectionFactory);
+        assertNotNull(connection.register(1, mock(ReplyProcessor.class)));
+        CompletableFuture<Integer> serverVersion = connection.getServerVersion();
+        assertFalse(connection.isClosed());
+        failed.completeExceptionally(new RuntimeException("Connection refused"));
+        assertTrue(connection.isClosed());
+        assertTrue(serverVersion.isCompletedExceptionally());
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.store.host;
+
+import io.pravega.client.segment.impl.Segment;
+import io.pravega.common.cluster.Host;
+import io.pravega.common.segment.SegmentToContainerMapper;
+import io.pravega.test.common.TestingServerStarter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.curator.test.TestingServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import static org.junit.Assert.assertEquals;
+
+public class ZKHostStoreTest {
+
+    //Ensure each test completes within 30 seconds.
+    @Rule
+    public Timeout globalTimeout = new Timeout(30, TimeUnit.SECONDS);
+
+    private TestingServer zkTestServer;
+    private CuratorFramework zkClient;
+
+    @Before
+    public void startZookeeper() throws Exception {
+        zkTestServer = new TestingServerStarter().start();
+        zkClient = CuratorFrameworkFactory.newClient(zkTestServer.getConnectString(), new ExponentialBackoffRetry(200, 10, 5000));
+        zkClient.start();
+    }
+
+    @After
+    public void stopZookeeper() throws Exception {
+        zkClient.close();
+        zkTestServer.close();
+    }
+
+    @Test
+    public void testReturnedMapDoesNotChangeCachedMap() {
+        ZKHostStore hostStore = new ZKHostStore(zkClient, 2);
+        Host host1 = new Host("host1", 1234, null);
+        Host host2 = new Host("host2", 1234, null);
+        Map<Host, Set<Integer>> mapping = new HashMap<>();
+        mapping.put(host1, new HashSet<>(Collections.singleton(0)));
+        mapping.put(host2, new HashSet<>(Collections.singleton(1)));
+        hostStore.updateHostContainersMap(mapping);
+
+        //Modify the returned map the way a container balancer does, without persisting it.
+        Map<Host, Set<Integer>> returned = hostStore.getHostContainersMap();
+        returned.get(host1).add(1);
+        returned.get(host2).remove(1);
+
+        //Lookups must still be served from what is in the store.
+        assertEquals(mapping, hostStore.getHostContainersMap());
+        SegmentToContainerMapper segmentMapper = new SegmentToContainerMapper(2);
+        int segmentNumber = 0;
+        while (segmentMapper.getContainerId(Segment.getScopedName("scope", "stream", segmentNumber)) != 1) {
+            segmentNumber++;
+        }
+        assertEquals(host2, hostStore.getHostForSegment("scope", "stream", segmentNumber));
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.store.stream;
+
+import io.pravega.controller.store.stream.tables.Cache;
+import io.pravega.controller.store.stream.tables.Data;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CacheTest {
+    @Test
+    public void testLoadsAreCachedUntilInvalidated() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final Cache<Integer> cache = new Cache<>(key -> {
+            final int version = loads.incrementAndGet();
+            return CompletableFuture.completedFuture(new Data<>(new byte[1], version));
+        }, 1024);
+
+        assertEquals(1, cache.getCachedData("a").get().getVersion().intValue());
+        assertEquals(1, cache.getCachedData("a").get().getVersion().intValue());
+        assertEquals(1, loads.get());
+
+        cache.invalidateCache("a");
+        assertEquals(2, cache.getCachedData("a").get().getVersion().intValue());
+
+        cache.invalidateAll();
+        assertEquals(3, cache.getCachedData("a").get().getVersion().intValue());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void testConcurrentLoadsAreCoalesced() throws Exception {
+        final List<CompletableFuture<Data<Integer>>> loads = new ArrayList<>();
+        final Cache<Integer> cache = new Cache<>(key -> {
+            final CompletableFuture<Data<Integer>> load = new CompletableFuture<>();
+            loads.add(load);
+            return load;
+        }, 1024);
+
+        final CompletableFuture<Data<Integer>> first = cache.getCachedData("a");
+        final CompletableFuture<Data<Integer>> second = cache.getCachedData("a");
+        assertSame(first, second);
+        assertEquals(1, loads.size());
+
+        loads.get(0).complete(new Data<>(new byte[1], 1));
+        assertEquals(1, first.get().getVersion().intValue());
+        assertEquals(1, cache.getCachedData("a").get().getVersion().intValue());
+        assertEquals(1, loads.size());
+    }
+
+    @Test
+    public void testLoadInvalidatedWhileInFlightIsNotCached() throws Exception {
+        final List<CompletableFuture<Data<Integer>>> loads = new ArrayList<>();
+        final Cache<Integer> cache = new Cache<>(key -> {
+            final CompletableFuture<Data<Integer>> load = new CompletableFuture<>();
+            loads.add(load);
+            return load;
+        }, 1024);
+
+        final CompletableFuture<Data<Integer>> stale = cache.getCachedData("a");
+        cache.invalidateCache("a");
+        final CompletableFuture<Data<Integer>> fresh = cache.getCachedData("a");
+        assertEquals(2, loads.size());
+
+        // the reload completes first, the load that was invalidated must not replace it
+        loads.get(1).complete(new Data<>(new byte[1], 2));
+        loads.get(0).complete(new Data<>(new byte[1], 1));
+        assertEquals(1, stale.get().getVersion().intValue());
+        assertEquals(2, fresh.get().getVersion().intValue());
+        assertEquals(2, cache.getCachedData("a").get().getVersion().intValue());
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    public void testFailedLoadsAreNotCached() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final Cache<Integer> cache = new Cache<>(key -> {
+            loads.incrementAndGet();
+            throw new DataNotFoundException(key);
+        }, 1024);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.getCachedData("a").get();
+                fail("expected the load to fail");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof DataNotFoundException);
+            }
+        }
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testEvictionBySize() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final Cache<Integer> cache = new Cache<>(key -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(new Data<>(new byte[100], 1));
+        }, 1024);
+
+        for (int i = 0; i < 100; i++) {
+            cache.getCachedData(Integer.toString(i)).get();
+        }
+        assertEquals(100, loads.get());
+
+        // the most recently loaded entry is retained, but not all of them fit within the limit
+        cache.getCachedData("99").get();
+        assertEquals(100, loads.get());
+        for (int i = 0; i < 100; i++) {
+            cache.getCachedData(Integer.toString(i)).get();
+        }
+        assertTrue(loads.get() > 100);
+    }
+}
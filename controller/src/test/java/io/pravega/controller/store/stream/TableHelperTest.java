@@ -86,6 +86,32 @@ public class TableHelperTest {
         assertEquals(newSegments, activeSegments);
     }
 
+    @Test
+    public void historyTableChunksTest() {
+        final List<Integer> startSegments = Lists.newArrayList(0, 1);
+        final List<Integer> newSegments = Lists.newArrayList(1, 2);
+        long timestamp = System.currentTimeMillis();
+        final byte[] firstChunk = TableHelper.createHistoryTable(timestamp, startSegments);
+
+        // records are position independent, so a new chunk is started like a new table
+        byte[] secondChunk = TableHelper.addPartialRecordToHistoryTable(new byte[0], newSegments);
+        HistoryRecord partial = HistoryRecord.readLatestRecord(secondChunk, false).get();
+        secondChunk = TableHelper.completePartialRecordInHistoryTable(secondChunk, partial, timestamp + 2);
+
+        byte[] historyTable = TableHelper.createHistoryTable(timestamp, startSegments);
+        historyTable = TableHelper.addPartialRecordToHistoryTable(historyTable, newSegments);
+        partial = HistoryRecord.readLatestRecord(historyTable, false).get();
+        historyTable = TableHelper.completePartialRecordInHistoryTable(historyTable, partial, timestamp + 2);
+
+        Assert.assertArrayEquals(historyTable, TableHelper.mergeChunks(Lists.newArrayList(firstChunk, secondChunk)));
+
+        // the record found in a chunk is its last one, so the search continues in the next chunk
+        HistoryRecord record = TableHelper.findRecordInHistoryTable(0, timestamp + 2, firstChunk, true).get();
+        Assert.assertFalse(HistoryRecord.fetchNext(record, firstChunk, true).isPresent());
+        assertEquals(newSegments, TableHelper.findRecordInHistoryTable(0, timestamp + 2, secondChunk, true).get().getSegments());
+        Assert.assertFalse(TableHelper.findRecordInHistoryTable(0, timestamp + 1, secondChunk, true).isPresent());
+    }
+
     private Segment getSegment(int number, List<Segment> segments) {
         return segments.stream().filter(x -> x.getNumber() == number).findAny().get();
     }
@@ -9,6 +9,7 @@
  */
 package io.pravega.controller.store.stream;
 
+import io.pravega.common.ExceptionHelpers;
 import io.pravega.test.common.TestingServerStarter;
 import io.pravega.controller.store.stream.tables.SegmentRecord;
 import io.pravega.controller.store.stream.tables.State;
@@ -61,6 +62,7 @@ public class ZkStreamTest {
         zkTestServer = new TestingServerStarter().start();
         cli = CuratorFrameworkFactory.newClient(zkTestServer.getConnectString(), new RetryOneTime(2000));
         cli.start();
+        new ZKStoreHelper(cli, executor).enableTableChunking().get();
 
         storePartialMock = Mockito.spy(new ZKStreamMetadataStore(cli, executor));
     }
@@ -395,6 +397,198 @@ public class ZkStreamTest {
         assertFalse(store.isCold(SCOPE, streamName, 0, null, executor).get());
     }
 
+    @Test(timeout = 30000)
+    public void testZkStreamTableChunks() throws Exception {
+        final String streamName = "testChunks";
+        new ZKStreamMetadataStore(cli, executor).createScope(SCOPE).get();
+
+        // every scale starts a new history chunk and every other one a new index chunk
+        final ZKStream stream = new ZKStream(SCOPE, streamName, new ZKStoreHelper(cli, executor), 1, 2);
+        StreamConfiguration streamConfig = StreamConfiguration.builder()
+                .scope(SCOPE)
+                .streamName(streamName)
+                .scalingPolicy(ScalingPolicy.fixed(2))
+                .build();
+        final long start = System.currentTimeMillis();
+        stream.create(streamConfig, start).get();
+        stream.updateState(State.ACTIVE).get();
+        Thread.sleep(5);
+
+        // each scale replaces the oldest active segment with a new one covering the same range
+        final List<List<Integer>> activeAfterScale = new ArrayList<>();
+        final List<Long> scaleCompletedAt = new ArrayList<>();
+        List<Integer> active = Lists.newArrayList(0, 1);
+        for (int i = 0; i < 5; i++) {
+            final int sealed = active.get(0);
+            final double low = sealed % 2 == 0 ? 0.0 : 0.5;
+            final List<Integer> sealedSegments = Collections.singletonList(sealed);
+            final List<Segment> created = stream.startScale(sealedSegments,
+                    Collections.singletonList(new AbstractMap.SimpleEntry<>(low, low + 0.5)), System.currentTimeMillis()).get();
+            final List<Integer> newSegments = created.stream().map(Segment::getNumber).collect(Collectors.toList());
+            stream.scaleNewSegmentsCreated(sealedSegments, newSegments, created.get(0).getStart()).get();
+            stream.scaleOldSegmentsSealed(sealedSegments, newSegments, created.get(0).getStart()).get();
+
+            active = Lists.newArrayList(active.get(1), newSegments.get(0));
+            activeAfterScale.add(active);
+            scaleCompletedAt.add(System.currentTimeMillis());
+            Thread.sleep(5);
+        }
+
+        assertEquals(6, stream.getHistoryChunks().get().size());
+        assertEquals(3, stream.getIndexChunks().get().size());
+        assertEquals(Lists.newArrayList(5, 6), sorted(stream.getActiveSegments().get()));
+        assertEquals(6, stream.getSegmentCount().get().intValue());
+
+        assertEquals(Lists.newArrayList(0, 1), sorted(stream.getActiveSegments(start - 1).get()));
+        assertEquals(Lists.newArrayList(0, 1), sorted(stream.getActiveSegments(start).get()));
+        for (int i = 0; i < scaleCompletedAt.size(); i++) {
+            assertEquals(sorted(activeAfterScale.get(i)), sorted(stream.getActiveSegments(scaleCompletedAt.get(i)).get()));
+        }
+
+        assertEquals(Collections.singletonList(2), stream.getSuccessors(0).get());
+        assertEquals(Collections.singletonList(4), stream.getPredecessors(6).get());
+
+        // a scale that has only added its partial record to a new chunk is not visible yet
+        final List<Segment> created = stream.startScale(Collections.singletonList(5),
+                Collections.singletonList(new AbstractMap.SimpleEntry<>(0.5, 1.0)), System.currentTimeMillis()).get();
+        final List<Integer> newSegments = Collections.singletonList(created.get(0).getNumber());
+        stream.scaleNewSegmentsCreated(Collections.singletonList(5), newSegments, created.get(0).getStart()).get();
+        assertEquals(7, stream.getHistoryChunks().get().size());
+        assertEquals(Lists.newArrayList(5, 6), sorted(stream.getActiveSegments().get()));
+
+        // completing it (twice, as a retried scale would) updates the latest chunks in place
+        stream.scaleOldSegmentsSealed(Collections.singletonList(5), newSegments, created.get(0).getStart()).get();
+        stream.scaleOldSegmentsSealed(Collections.singletonList(5), newSegments, created.get(0).getStart()).get();
+        assertEquals(7, stream.getHistoryChunks().get().size());
+        assertEquals(4, stream.getIndexChunks().get().size());
+        assertEquals(Lists.newArrayList(6, 7), sorted(stream.getActiveSegments().get()));
+        assertEquals(Lists.newArrayList(5, 6), sorted(stream.getActiveSegments(scaleCompletedAt.get(4)).get()));
+    }
+
+    @Test(timeout = 30000)
+    public void testZkStreamLegacyTables() throws Exception {
+        final String streamName = "testLegacyTables";
+        new ZKStreamMetadataStore(cli, executor).createScope(SCOPE).get();
+        // controllers that do not understand table chunks may still be running
+        cli.delete().forPath(ZKStoreHelper.TABLE_CHUNKS_MARKER_PATH);
+
+        final StreamConfiguration streamConfig = StreamConfiguration.builder()
+                .scope(SCOPE)
+                .streamName(streamName)
+                .scalingPolicy(ScalingPolicy.fixed(2))
+                .build();
+        final long start = System.currentTimeMillis();
+        final ZKStream stream = new ZKStream(SCOPE, streamName, new ZKStoreHelper(cli, executor));
+        stream.create(streamConfig, start).get();
+        stream.updateState(State.ACTIVE).get();
+
+        // the tables are kept whole in the table nodes themselves, where those controllers read them
+        final String historyPath = String.format("/store/%s/%s/history", SCOPE, streamName);
+        final String indexPath = String.format("/store/%s/%s/index", SCOPE, streamName);
+        assertTrue(cli.getChildren().forPath(historyPath).isEmpty());
+        assertTrue(cli.getChildren().forPath(indexPath).isEmpty());
+        assertEquals(Collections.singletonList("0"), stream.getHistoryChunks().get());
+        assertEquals(Collections.singletonList("0"), stream.getIndexChunks().get());
+        assertEquals(Lists.newArrayList(0, 1), sorted(stream.getActiveSegments().get()));
+
+        // scales update the table nodes in place
+        final long scaleTime1 = start + 20;
+        scale(stream, Collections.singletonList(0), new AbstractMap.SimpleEntry<>(0.0, 0.5), scaleTime1);
+        assertTrue(cli.getChildren().forPath(historyPath).isEmpty());
+        assertTrue(cli.getChildren().forPath(indexPath).isEmpty());
+        final ZKStream other = new ZKStream(SCOPE, streamName, new ZKStoreHelper(cli, executor));
+        assertEquals(Lists.newArrayList(1, 2), sorted(other.getActiveSegments().get()));
+        assertEquals(Lists.newArrayList(0, 1), sorted(other.getActiveSegments(start).get()));
+        assertEquals(Collections.singletonList(2), other.getSuccessors(0).get());
+
+        // a table kept in its table node is not extended with further chunks
+        final ZKStoreHelper smallChunksHelper = new ZKStoreHelper(cli, executor);
+        final ZKStream smallChunks = new ZKStream(SCOPE, streamName, smallChunksHelper, 1, 2);
+        final List<Integer> sealedSegments = Collections.singletonList(1);
+        final long scaleTime2 = start + 40;
+        final List<Segment> created = smallChunks.startScale(sealedSegments,
+                Collections.singletonList(new AbstractMap.SimpleEntry<>(0.5, 1.0)), scaleTime2).get();
+        final List<Integer> newSegments = created.stream().map(Segment::getNumber).collect(Collectors.toList());
+        try {
+            smallChunks.scaleNewSegmentsCreated(sealedSegments, newSegments, created.get(0).getStart()).get();
+            Assert.fail("A table kept in its table node was extended with a new chunk.");
+        } catch (ExecutionException e) {
+            assertTrue(ExceptionHelpers.getRealException(e) instanceof IllegalStateException);
+        }
+        assertTrue(cli.getChildren().forPath(historyPath).isEmpty());
+
+        // once all controllers are upgraded, the tables are moved into their first chunk and extended like any other
+        final byte[] legacyHistory = cli.getData().forPath(historyPath);
+        smallChunksHelper.enableTableChunking().get();
+        smallChunks.scaleNewSegmentsCreated(sealedSegments, newSegments, created.get(0).getStart()).get();
+        smallChunks.scaleOldSegmentsSealed(sealedSegments, newSegments, created.get(0).getStart()).get();
+
+        assertEquals(2, smallChunks.getHistoryChunks().get().size());
+        assertTrue(Arrays.equals(legacyHistory, cli.getData().forPath(historyPath + "/0")));
+        assertEquals(Lists.newArrayList(2, 3), sorted(smallChunks.getActiveSegments().get()));
+        assertEquals(Lists.newArrayList(0, 1), sorted(smallChunks.getActiveSegments(start).get()));
+        assertEquals(Lists.newArrayList(1, 2), sorted(smallChunks.getActiveSegments(scaleTime1).get()));
+        assertEquals(Lists.newArrayList(2, 3), sorted(smallChunks.getActiveSegments(scaleTime2).get()));
+        assertEquals(Collections.singletonList(3), smallChunks.getSuccessors(1).get());
+    }
+
+    private void scale(final ZKStream stream, final List<Integer> sealedSegments,
+                       final AbstractMap.SimpleEntry<Double, Double> newRange, final long scaleTime) throws Exception {
+        final List<Segment> created = stream.startScale(sealedSegments, Collections.singletonList(newRange), scaleTime).get();
+        final List<Integer> newSegments = created.stream().map(Segment::getNumber).collect(Collectors.toList());
+        stream.scaleNewSegmentsCreated(sealedSegments, newSegments, created.get(0).getStart()).get();
+        stream.scaleOldSegmentsSealed(sealedSegments, newSegments, created.get(0).getStart()).get();
+    }
+
+    @Test(timeout = 30000)
+    public void testZkStreamCache() throws Exception {
+        final String streamName = "testCache";
+        final StreamMetadataStore store = new ZKStreamMetadataStore(cli, executor);
+        final StreamMetadataStore otherStore = new ZKStreamMetadataStore(cli, executor);
+        store.createScope(SCOPE).get();
+
+        final StreamConfiguration streamConfig = StreamConfiguration.builder()
+                .scope(SCOPE)
+                .streamName(streamName)
+                .scalingPolicy(ScalingPolicy.fixed(2))
+                .build();
+        final long start = System.currentTimeMillis();
+        store.createStream(SCOPE, streamName, streamConfig, start, null, executor).get();
+        store.setState(SCOPE, streamName, State.ACTIVE, null, executor).get();
+        assertEquals(2, store.getActiveSegments(SCOPE, streamName, null, executor).get().size());
+        assertEquals(2, otherStore.getActiveSegments(SCOPE, streamName, null, executor).get().size());
+
+        // a scale is visible to the store that performed it right away
+        final List<Integer> sealedSegments = Collections.singletonList(1);
+        final List<Segment> created = store.startScale(SCOPE, streamName, sealedSegments,
+                Arrays.asList(new AbstractMap.SimpleEntry<>(0.5, 0.75), new AbstractMap.SimpleEntry<>(0.75, 1.0)),
+                start + 20, null, executor).get();
+        store.scaleNewSegmentsCreated(SCOPE, streamName, sealedSegments, created, start + 20, null, executor).get();
+        store.scaleSegmentsSealed(SCOPE, streamName, sealedSegments, created, start + 20, null, executor).get();
+        assertEquals(3, store.getActiveSegments(SCOPE, streamName, null, executor).get().size());
+
+        // and to other stores once they are notified of the change
+        while (otherStore.getActiveSegments(SCOPE, streamName, null, executor).get().size() != 3) {
+            Thread.sleep(10);
+        }
+
+        final StreamConfiguration updated = StreamConfiguration.builder()
+                .scope(SCOPE)
+                .streamName(streamName)
+                .scalingPolicy(ScalingPolicy.fixed(3))
+                .build();
+        assertEquals(streamConfig, otherStore.getConfiguration(SCOPE, streamName, null, executor).get());
+        store.updateConfiguration(SCOPE, streamName, updated, null, executor).get();
+        assertEquals(updated, store.getConfiguration(SCOPE, streamName, null, executor).get());
+        while (!otherStore.getConfiguration(SCOPE, streamName, null, executor).get().equals(updated)) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static List<Integer> sorted(List<Integer> segments) {
+        return segments.stream().sorted().collect(Collectors.toList());
+    }
+
     @Ignore("run manually")
     //    @Test
     public void testZkStreamChunking() throws Exception {
@@ -142,9 +142,9 @@ public class IntermittentCnxnFailureTest {
             assertEquals(ExceptionHelpers.getRealException(ex).getClass(), IllegalStateException.class);
         }
 
-        // Mock createSegment to return success.
-        doReturn(CompletableFuture.completedFuture(true)).when(segmentHelperMock).createSegment(
-                anyString(), anyString(), anyInt(), any(), any(), any());
+        // Mock createSegments to return success.
+        doReturn(CompletableFuture.completedFuture(true)).when(segmentHelperMock).createSegments(
+                anyString(), anyString(), any(), any(), any(), any());
 
         AtomicBoolean result = new AtomicBoolean(false);
         Retry.withExpBackoff(10, 10, 4)
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.common.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the AvlTreeIndex and RedBlackTreeIndex implementations of SortedIndex. Each benchmark operates on an index
+ * that is pre-populated with a number of entries whose keys are spaced out (similar to how the ReadIndex indexes
+ * its entries by offset), so that both exact lookups and ceiling/floor lookups are exercised.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortedIndexBenchmark {
+    //region Members
+
+    private static final int KEY_SPACING = 100;
+
+    @Param({"AVL", "RedBlack"})
+    public String indexType;
+
+    @Param({"1000", "100000"})
+    public int entryCount;
+
+    private SortedIndex<TestEntry> index;
+    private Random random;
+    private long maxKey;
+
+    //endregion
+
+    //region Setup
+
+    @Setup
+    public void setup() {
+        this.index = createIndex(this.indexType);
+        this.random = new Random(0);
+        for (int i = 0; i < this.entryCount; i++) {
+            this.index.put(new TestEntry((long) i * KEY_SPACING));
+        }
+
+        this.maxKey = (long) this.entryCount * KEY_SPACING;
+    }
+
+    private static SortedIndex<TestEntry> createIndex(String indexType) {
+        switch (indexType) {
+            case "AVL":
+                return new AvlTreeIndex<>();
+            case "RedBlack":
+                return new RedBlackTreeIndex<>();
+            default:
+                throw new IllegalArgumentException("Unsupported index type: " + indexType);
+        }
+    }
+
+    //endregion
+
+    //region Benchmarks
+
+    /**
+     * Replaces a random existing entry. This exercises the lookup and (for AVL) the rebalancing path of put().
+     */
+    @Benchmark
+    public TestEntry put() {
+        return this.index.put(new TestEntry(randomKey()));
+    }
+
+    /**
+     * Removes a random existing entry and then adds it back, keeping the size of the index constant.
+     */
+    @Benchmark
+    public TestEntry removeAndPut() {
+        long key = randomKey();
+        this.index.remove(key);
+        return this.index.put(new TestEntry(key));
+    }
+
+    /**
+     * Looks up an exact key.
+     */
+    @Benchmark
+    public TestEntry get() {
+        return this.index.get(randomKey());
+    }
+
+    /**
+     * Looks up the smallest entry with a key greater than or equal to an arbitrary key. This is the most common lookup
+     * performed by the ReadIndex.
+     */
+    @Benchmark
+    public TestEntry getCeiling() {
+        return this.index.getCeiling(randomOffset());
+    }
+
+    /**
+     * Looks up the largest entry with a key smaller than or equal to an arbitrary key.
+     */
+    @Benchmark
+    public TestEntry getFloor() {
+        return this.index.getFloor(randomOffset());
+    }
+
+    private long randomKey() {
+        return (long) this.random.nextInt(this.entryCount) * KEY_SPACING;
+    }
+
+    private long randomOffset() {
+        return (long) (this.random.nextDouble() * this.maxKey);
+    }
+
+    //endregion
+
+    //region TestEntry
+
+    @RequiredArgsConstructor
+    public static class TestEntry implements SortedIndex.IndexEntry {
+        private final long key;
+
+        @Override
+        public long key() {
+            return this.key;
+        }
+    }
+
+    //endregion
+}
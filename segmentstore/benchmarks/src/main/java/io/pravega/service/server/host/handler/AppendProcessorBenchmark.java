@@ -0,0 +1,221 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.server.host.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.pravega.common.util.ImmutableDate;
+import io.pravega.service.contracts.AttributeUpdate;
+import io.pravega.service.contracts.ReadResult;
+import io.pravega.service.contracts.SegmentProperties;
+import io.pravega.service.contracts.StreamSegmentInformation;
+import io.pravega.service.contracts.StreamSegmentStore;
+import io.pravega.shared.protocol.netty.Append;
+import io.pravega.shared.protocol.netty.RequestProcessor;
+import io.pravega.shared.protocol.netty.WireCommand;
+import io.pravega.shared.protocol.netty.WireCommands;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of handing Appends received from the network over to the StreamSegmentStore, which includes
+ * batching the Appends that accumulate while a write is outstanding, copying their data out of the (pooled, direct)
+ * network buffers and releasing them. The Store does nothing but acknowledge the writes, once all the Appends of a
+ * write have been received.
+ *
+ * Each operation is one appended byte, so the reported time is per appended byte. Run with the GC profiler
+ * (-PjmhArgs="-prof gc") to also get the bytes allocated per appended byte, which is reported as gc.alloc.rate.norm.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppendProcessorBenchmark {
+    //region Members
+
+    private static final String SEGMENT_NAME = "scope/stream/0";
+    private static final int BYTES_PER_INVOCATION = 100000;
+
+    @Param({"100", "10000"})
+    public int payloadSize;
+
+    @Param({"1", "10"})
+    public int appendsPerWrite;
+
+    private final UUID connectionId = new UUID(1, 2);
+    private AcknowledgingStore store;
+    private AppendProcessor processor;
+    private byte[] payload;
+    private long eventNumber;
+
+    //endregion
+
+    //region Setup
+
+    @Setup
+    public void setup() {
+        this.payload = new byte[this.payloadSize];
+        this.store = new AcknowledgingStore();
+        this.processor = new AppendProcessor(this.store, new NullConnection(), null);
+        this.eventNumber = 0;
+        this.processor.setupAppend(new WireCommands.SetupAppend(1, this.connectionId, SEGMENT_NAME));
+    }
+
+    //endregion
+
+    //region Benchmarks
+
+    /**
+     * Appends BYTES_PER_INVOCATION bytes, in groups of appendsPerWrite Appends. After each group is received, all the
+     * writes made to the Store for it are acknowledged. All but the first Append of a group are received while the
+     * first one is being written, so they are batched into a single write.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BYTES_PER_INVOCATION)
+    public int append() {
+        int bytesPerWrite = this.payloadSize * this.appendsPerWrite;
+        for (int written = 0; written < BYTES_PER_INVOCATION; written += bytesPerWrite) {
+            for (int i = 0; i < this.appendsPerWrite; i++) {
+                ByteBuf data = PooledByteBufAllocator.DEFAULT.directBuffer(this.payloadSize).writeBytes(this.payload);
+                this.processor.append(new Append(SEGMENT_NAME, this.connectionId, ++this.eventNumber, data, null));
+            }
+
+            this.store.acknowledgeAll();
+        }
+
+        return this.store.acknowledgeAll();
+    }
+
+    //endregion
+
+    //region AcknowledgingStore
+
+    /**
+     * StreamSegmentStore that only supports appends, which it holds on to until acknowledgeAll() is invoked.
+     */
+    private static class AcknowledgingStore implements StreamSegmentStore {
+        private final List<CompletableFuture<Void>> pendingAppends = new ArrayList<>();
+        private int appendedBytes;
+
+        int acknowledgeAll() {
+            while (!this.pendingAppends.isEmpty()) {
+                // Acknowledging an append may trigger the next write, which is added to the list as we go.
+                this.pendingAppends.remove(0).complete(null);
+            }
+
+            return this.appendedBytes;
+        }
+
+        @Override
+        public CompletableFuture<Void> append(String streamSegmentName, byte[] data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+            this.appendedBytes += data.length;
+            CompletableFuture<Void> result = new CompletableFuture<>();
+            this.pendingAppends.add(result);
+            return result;
+        }
+
+        @Override
+        public CompletableFuture<Void> append(String streamSegmentName, long offset, byte[] data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+            return append(streamSegmentName, data, attributeUpdates, timeout);
+        }
+
+        @Override
+        public CompletableFuture<SegmentProperties> getStreamSegmentInfo(String streamSegmentName, boolean waitForPendingOps, Duration timeout) {
+            return CompletableFuture.completedFuture(
+                    new StreamSegmentInformation(streamSegmentName, 0, false, false, Collections.emptyMap(), new ImmutableDate()));
+        }
+
+        @Override
+        public CompletableFuture<Void> updateAttributes(String streamSegmentName, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<ReadResult> read(String streamSegmentName, long offset, int maxLength, Duration timeout) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Void> createStreamSegment(String streamSegmentName, Collection<AttributeUpdate> attributes, Duration timeout) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<String> createTransaction(String parentStreamSegmentName, UUID transactionId, Collection<AttributeUpdate> attributes, Duration timeout) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Void> mergeTransaction(String transactionName, Duration timeout) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Long> sealStreamSegment(String streamSegmentName, Duration timeout) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Void> deleteStreamSegment(String streamSegmentName, Duration timeout) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    //endregion
+
+    //region NullConnection
+
+    /**
+     * ServerConnection that discards everything sent to it.
+     */
+    private static class NullConnection implements ServerConnection {
+        @Override
+        public void send(WireCommand cmd) {
+        }
+
+        @Override
+        public void setRequestProcessor(RequestProcessor cp) {
+        }
+
+        @Override
+        public void pauseReading() {
+        }
+
+        @Override
+        public void resumeReading() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    //endregion
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.server.logs;
+
+import io.pravega.common.util.ArrayView;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.common.util.CloseableIterator;
+import io.pravega.service.server.logs.operations.Operation;
+import io.pravega.service.server.logs.operations.OperationFactory;
+import io.pravega.service.server.logs.operations.StreamSegmentAppendOperation;
+import io.pravega.service.storage.DurableDataLog;
+import io.pravega.service.storage.DurableDataLogException;
+import io.pravega.service.storage.LogAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of serializing Operations into DataFrames (using a DataFrameBuilder) and of deserializing them back.
+ * The DataFrames are written to a DurableDataLog that acknowledges every append immediately, so that only the
+ * serialization cost is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataFrameBenchmark {
+    //region Members
+
+    private static final long SEGMENT_ID = 1;
+    private static final int MAX_FRAME_SIZE = 1024 * 1024;
+
+    @Param({"100", "10000"})
+    public int appendSize;
+
+    private byte[] appendData;
+    private OperationFactory operationFactory;
+    private DataFrameBuilder<Operation> builder;
+    private long sequenceNumber;
+    private byte[] serializedFrame;
+
+    //endregion
+
+    //region Setup
+
+    @Setup
+    public void setup() throws Exception {
+        this.appendData = new byte[this.appendSize];
+        this.operationFactory = new OperationFactory();
+
+        // Generate a single full DataFrame to be used by the deserialization benchmark.
+        NoOpDurableDataLog log = new NoOpDurableDataLog(true);
+        try (DataFrameBuilder<Operation> b = createBuilder(log)) {
+            for (int i = 0; log.getRecordedFrames().isEmpty(); i++) {
+                b.append(createAppend(i));
+            }
+        }
+
+        this.serializedFrame = log.getRecordedFrames().get(0);
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        this.builder = createBuilder(new NoOpDurableDataLog(false));
+        this.sequenceNumber = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() throws Exception {
+        this.builder.close();
+    }
+
+    private DataFrameBuilder<Operation> createBuilder(DurableDataLog log) {
+        Consumer<Throwable> failureCallback = ex -> {
+            throw new IllegalStateException("DataFrame commit failed.", ex);
+        };
+
+        return new DataFrameBuilder<>(log, commitArgs -> { }, failureCallback);
+    }
+
+    private Operation createAppend(long sequenceNumber) {
+        StreamSegmentAppendOperation op = new StreamSegmentAppendOperation(SEGMENT_ID, this.appendData, null);
+        op.setStreamSegmentOffset(sequenceNumber * this.appendSize);
+        op.setSequenceNumber(sequenceNumber);
+        return op;
+    }
+
+    //endregion
+
+    //region Benchmarks
+
+    /**
+     * Serializes a single StreamSegmentAppendOperation into the DataFrameBuilder. DataFrames are sealed and committed
+     * as they fill up, so this includes the amortized cost of doing so.
+     */
+    @Benchmark
+    public void serializeAppend() throws Exception {
+        this.builder.append(createAppend(this.sequenceNumber++));
+    }
+
+    /**
+     * Deserializes a full DataFrame and all the Operations contained within it.
+     */
+    @Benchmark
+    public int deserializeFrame() throws Exception {
+        DataFrame frame = new DataFrame(new ByteArraySegment(this.serializedFrame));
+        int count = 0;
+        try (CloseableIterator<DataFrame.DataFrameEntry, SerializationException> entries = frame.getEntries()) {
+            DataFrame.DataFrameEntry entry;
+            while ((entry = entries.getNext()) != null) {
+                if (entry.isFirstRecordEntry() && entry.isLastRecordEntry()) {
+                    // Only deserialize the Operations that are fully contained in this DataFrame.
+                    this.operationFactory.deserialize(entry.getData().getReader());
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    //endregion
+
+    //region NoOpDurableDataLog
+
+    /**
+     * DurableDataLog that acknowledges all appends immediately, without storing them anywhere (except, optionally, in
+     * memory, so they can be used later).
+     */
+    private static class NoOpDurableDataLog implements DurableDataLog {
+        private final AtomicLong lastSequence = new AtomicLong(-1);
+        private final List<byte[]> recordedFrames;
+
+        NoOpDurableDataLog(boolean recordFrames) {
+            this.recordedFrames = recordFrames ? new ArrayList<>() : null;
+        }
+
+        List<byte[]> getRecordedFrames() {
+            return this.recordedFrames;
+        }
+
+        @Override
+        public void initialize(Duration timeout) {
+        }
+
+        @Override
+        public CompletableFuture<LogAddress> append(ArrayView data, Duration timeout) {
+            if (this.recordedFrames != null) {
+                byte[] copy = new byte[data.getLength()];
+                System.arraycopy(data.array(), data.arrayOffset(), copy, 0, copy.length);
+                this.recordedFrames.add(copy);
+            }
+
+            return CompletableFuture.completedFuture(new LogAddress(this.lastSequence.incrementAndGet()) { });
+        }
+
+        @Override
+        public CompletableFuture<Void> truncate(LogAddress upToAddress, Duration timeout) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CloseableIterator<ReadItem, DurableDataLogException> getReader() {
+            throw new UnsupportedOperationException("getReader");
+        }
+
+        @Override
+        public int getMaxAppendLength() {
+            return MAX_FRAME_SIZE;
+        }
+
+        @Override
+        public long getLastAppendSequence() {
+            return this.lastSequence.get();
+        }
+
+        @Override
+        public long getEpoch() {
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    //endregion
+}
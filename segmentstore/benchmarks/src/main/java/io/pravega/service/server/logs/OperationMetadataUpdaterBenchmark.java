@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.server.logs;
+
+import io.pravega.service.server.UpdateableContainerMetadata;
+import io.pravega.service.server.UpdateableSegmentMetadata;
+import io.pravega.service.server.containers.StreamSegmentContainerMetadata;
+import io.pravega.service.server.logs.operations.StreamSegmentAppendOperation;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of processing StreamSegmentAppendOperations through the OperationMetadataUpdater, the same way the
+ * OperationProcessor does it: every Operation is pre-processed and accepted, and the pending changes are periodically
+ * committed to the base metadata (as if a DataFrame had been acknowledged).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationMetadataUpdaterBenchmark {
+    //region Members
+
+    private static final int CONTAINER_ID = 1;
+    private static final int APPEND_SIZE = 100;
+    private static final byte[] APPEND_DATA = new byte[APPEND_SIZE];
+
+    @Param({"1", "1000"})
+    public int segmentCount;
+
+    @Param({"100"})
+    public int operationsPerCommit;
+
+    private OperationMetadataUpdater updater;
+    private int operationCount;
+
+    //endregion
+
+    //region Setup
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        UpdateableContainerMetadata metadata = new StreamSegmentContainerMetadata(CONTAINER_ID, this.segmentCount);
+        for (int i = 0; i < this.segmentCount; i++) {
+            UpdateableSegmentMetadata sm = metadata.mapStreamSegmentId("Segment_" + i, i + 1);
+            sm.setDurableLogLength(0);
+            sm.setStorageLength(0);
+        }
+
+        this.updater = new OperationMetadataUpdater(metadata);
+        this.operationCount = 0;
+    }
+
+    //endregion
+
+    //region Benchmarks
+
+    /**
+     * Pre-processes and accepts a single StreamSegmentAppendOperation.
+     */
+    @Benchmark
+    public long preProcessAndAcceptAppend() throws Exception {
+        StreamSegmentAppendOperation op = new StreamSegmentAppendOperation(this.operationCount % this.segmentCount + 1, APPEND_DATA, null);
+        this.updater.preProcessOperation(op);
+        op.setSequenceNumber(this.updater.nextOperationSequenceNumber());
+        this.updater.acceptOperation(op);
+        if (++this.operationCount % this.operationsPerCommit == 0) {
+            this.updater.commit();
+        }
+
+        return op.getStreamSegmentOffset();
+    }
+
+    //endregion
+}
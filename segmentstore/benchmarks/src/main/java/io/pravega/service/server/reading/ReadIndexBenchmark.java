@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.server.reading;
+
+import io.pravega.common.io.StreamHelpers;
+import io.pravega.service.contracts.ReadResult;
+import io.pravega.service.contracts.ReadResultEntry;
+import io.pravega.service.contracts.ReadResultEntryContents;
+import io.pravega.service.server.UpdateableSegmentMetadata;
+import io.pravega.service.server.containers.StreamSegmentContainerMetadata;
+import io.pravega.service.storage.mocks.InMemoryCacheFactory;
+import io.pravega.service.storage.mocks.InMemoryStorage;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of appending to and reading from the ReadIndex (ContainerReadIndex and StreamSegmentReadIndex).
+ * All the data is in the Cache (no Storage reads are involved) and the CacheManager is not running, so no evictions
+ * happen while the benchmarks execute.
+ */
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class ReadIndexBenchmark {
+    //region Members
+
+    private static final int CONTAINER_ID = 1;
+    private static final long SEGMENT_ID = 1;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * The number of appends in each measured batch. Since the ReadIndex (and the Cache) grow with every append, the
+     * append benchmark is executed in fixed-size batches, each against a brand new ReadIndex.
+     */
+    private static final int APPEND_BATCH_SIZE = 100000;
+
+    //endregion
+
+    //region Benchmarks
+
+    /**
+     * Appends data at the end of the Segment. The reported time is for APPEND_BATCH_SIZE appends.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = APPEND_BATCH_SIZE)
+    @Measurement(iterations = 10, batchSize = APPEND_BATCH_SIZE)
+    public void append(AppendState state) {
+        state.context.append(state.appendData);
+    }
+
+    /**
+     * Reads a range of data from a random offset of a pre-populated Segment, including the data itself.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public int read(ReadState state) throws Exception {
+        long offset = (long) (state.random.nextDouble() * (state.segmentLength - state.readLength));
+        int totalRead = 0;
+        try (ReadResult readResult = state.context.readIndex.read(SEGMENT_ID, offset, state.readLength, TIMEOUT)) {
+            while (readResult.hasNext()) {
+                ReadResultEntry entry = readResult.next();
+                ReadResultEntryContents contents = entry.getContent().join();
+                totalRead += StreamHelpers.readAll(contents.getData(), state.readBuffer, totalRead, contents.getLength());
+            }
+        }
+
+        return totalRead;
+    }
+
+    //endregion
+
+    //region AppendState
+
+    @State(Scope.Thread)
+    public static class AppendState {
+        @Param({"100", "1000"})
+        public int appendSize;
+
+        private byte[] appendData;
+        private ReadIndexContext context;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            this.appendData = new byte[this.appendSize];
+            this.context = new ReadIndexContext();
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            this.context.close();
+        }
+    }
+
+    //endregion
+
+    //region ReadState
+
+    @State(Scope.Thread)
+    public static class ReadState {
+        @Param({"1000"})
+        public int appendSize;
+
+        @Param({"1024", "65536"})
+        public int readLength;
+
+        @Param({"67108864"})
+        public long segmentLength;
+
+        private Random random;
+        private byte[] readBuffer;
+        private ReadIndexContext context;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            this.random = new Random(0);
+            this.readBuffer = new byte[this.readLength];
+            this.context = new ReadIndexContext();
+            byte[] appendData = new byte[this.appendSize];
+            while (this.context.metadata.getDurableLogLength() < this.segmentLength) {
+                this.context.append(appendData);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            this.context.close();
+        }
+    }
+
+    //endregion
+
+    //region ReadIndexContext
+
+    private static class ReadIndexContext implements AutoCloseable {
+        final ScheduledExecutorService executor;
+        final UpdateableSegmentMetadata metadata;
+        final InMemoryCacheFactory cacheFactory;
+        final InMemoryStorage storage;
+        final CacheManager cacheManager;
+        final ContainerReadIndex readIndex;
+
+        ReadIndexContext() {
+            ReadIndexConfig config = ReadIndexConfig.builder()
+                                                    .with(ReadIndexConfig.CACHE_POLICY_MAX_SIZE, Long.MAX_VALUE)
+                                                    .with(ReadIndexConfig.CACHE_POLICY_MAX_TIME, Integer.MAX_VALUE)
+                                                    .build();
+            StreamSegmentContainerMetadata containerMetadata = new StreamSegmentContainerMetadata(CONTAINER_ID, 1);
+            this.metadata = containerMetadata.mapStreamSegmentId("Segment", SEGMENT_ID);
+            this.metadata.setDurableLogLength(0);
+            this.metadata.setStorageLength(0);
+
+            this.executor = Executors.newScheduledThreadPool(2);
+            this.cacheFactory = new InMemoryCacheFactory();
+            this.storage = new InMemoryStorage(this.executor);
+            this.storage.initialize(1);
+            this.cacheManager = new CacheManager(config.getCachePolicy(), this.executor);
+            this.readIndex = new ContainerReadIndex(config, containerMetadata, this.cacheFactory, this.storage, this.cacheManager, this.executor);
+        }
+
+        void append(byte[] data) {
+            long offset = this.metadata.getDurableLogLength();
+            this.metadata.setDurableLogLength(offset + data.length);
+            this.readIndex.append(SEGMENT_ID, offset, data);
+        }
+
+        @Override
+        public void close() {
+            this.readIndex.close();
+            this.cacheManager.close();
+            this.storage.close();
+            this.cacheFactory.close();
+            this.executor.shutdown();
+        }
+    }
+
+    //endregion
+}
@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.server.writer;
+
+import io.pravega.common.Timer;
+import io.pravega.service.server.UpdateableContainerMetadata;
+import io.pravega.service.server.UpdateableSegmentMetadata;
+import io.pravega.service.server.containers.StreamSegmentContainerMetadata;
+import io.pravega.service.server.logs.operations.CachedStreamSegmentAppendOperation;
+import io.pravega.service.server.logs.operations.Operation;
+import io.pravega.service.server.logs.operations.StreamSegmentAppendOperation;
+import io.pravega.service.storage.mocks.InMemoryStorage;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of aggregating appends in a SegmentAggregator and flushing them to Storage. Each invocation adds
+ * enough appends to exceed the flush threshold and then flushes them. Since the (in-memory) Storage grows with every
+ * flush, the benchmark is executed in fixed-size batches, each against a brand new SegmentAggregator and Storage.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = SegmentAggregatorBenchmark.FLUSH_BATCH_SIZE)
+@Measurement(iterations = 10, batchSize = SegmentAggregatorBenchmark.FLUSH_BATCH_SIZE)
+@Fork(1)
+public class SegmentAggregatorBenchmark {
+    //region Members
+
+    static final int FLUSH_BATCH_SIZE = 100;
+    private static final int CONTAINER_ID = 1;
+    private static final long SEGMENT_ID = 1;
+    private static final String SEGMENT_NAME = "Segment";
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Param({"100", "10000"})
+    public int appendSize;
+
+    @Param({"1048576"})
+    public int flushSize;
+
+    private byte[] appendData;
+    private ScheduledExecutorService executor;
+    private UpdateableContainerMetadata containerMetadata;
+    private UpdateableSegmentMetadata segmentMetadata;
+    private InMemoryStorage storage;
+    private SegmentAggregator aggregator;
+
+    //endregion
+
+    //region Setup
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        this.appendData = new byte[this.appendSize];
+        this.executor = Executors.newScheduledThreadPool(2);
+        this.containerMetadata = new StreamSegmentContainerMetadata(CONTAINER_ID, 1);
+        this.segmentMetadata = this.containerMetadata.mapStreamSegmentId(SEGMENT_NAME, SEGMENT_ID);
+        this.segmentMetadata.setDurableLogLength(0);
+        this.segmentMetadata.setStorageLength(0);
+
+        this.storage = new InMemoryStorage(this.executor);
+        this.storage.initialize(1);
+        this.storage.create(SEGMENT_NAME, TIMEOUT).join();
+
+        WriterConfig config = WriterConfig.builder()
+                                          .with(WriterConfig.FLUSH_THRESHOLD_BYTES, this.flushSize)
+                                          .with(WriterConfig.MAX_FLUSH_SIZE_BYTES, this.flushSize)
+                                          .with(WriterConfig.FLUSH_THRESHOLD_MILLIS, TIMEOUT.toMillis())
+                                          .build();
+        this.aggregator = new SegmentAggregator(this.segmentMetadata, new BenchmarkDataSource(this.flushSize), this.storage, config, new Timer());
+        this.aggregator.initialize(TIMEOUT, this.executor).join();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() {
+        this.aggregator.close();
+        this.storage.close();
+        this.executor.shutdown();
+    }
+
+    //endregion
+
+    //region Benchmarks
+
+    /**
+     * Adds appends to the SegmentAggregator until it must flush, then flushes it.
+     */
+    @Benchmark
+    public long addAndFlush() throws Exception {
+        while (!this.aggregator.mustFlush()) {
+            this.aggregator.add(createAppend());
+        }
+
+        return this.aggregator.flush(TIMEOUT, this.executor).join().getFlushedBytes();
+    }
+
+    private CachedStreamSegmentAppendOperation createAppend() {
+        long offset = this.segmentMetadata.getDurableLogLength();
+        this.segmentMetadata.setDurableLogLength(offset + this.appendData.length);
+        StreamSegmentAppendOperation op = new StreamSegmentAppendOperation(SEGMENT_ID, this.appendData, null);
+        op.setStreamSegmentOffset(offset);
+        op.setSequenceNumber(this.containerMetadata.nextOperationSequenceNumber());
+        return new CachedStreamSegmentAppendOperation(op);
+    }
+
+    //endregion
+
+    //region BenchmarkDataSource
+
+    /**
+     * WriterDataSource that serves append data from a fixed buffer. Only the methods used by SegmentAggregator when
+     * flushing appends are supported.
+     */
+    private static class BenchmarkDataSource implements WriterDataSource {
+        private final byte[] data;
+
+        BenchmarkDataSource(int maxLength) {
+            this.data = new byte[maxLength];
+        }
+
+        @Override
+        public int getId() {
+            return CONTAINER_ID;
+        }
+
+        @Override
+        public InputStream getAppendData(long streamSegmentId, long startOffset, int length) {
+            return new ByteArrayInputStream(this.data, 0, length);
+        }
+
+        @Override
+        public CompletableFuture<Void> acknowledge(long upToSequence, Duration timeout) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Iterator<Operation>> read(long afterSequence, int maxCount, Duration timeout) {
+            throw new UnsupportedOperationException("read");
+        }
+
+        @Override
+        public void completeMerge(long targetStreamSegmentId, long sourceStreamSegmentId) {
+            throw new UnsupportedOperationException("completeMerge");
+        }
+
+        @Override
+        public boolean isValidTruncationPoint(long operationSequenceNumber) {
+            return true;
+        }
+
+        @Override
+        public long getClosestValidTruncationPoint(long operationSequenceNumber) {
+            return operationSequenceNumber;
+        }
+
+        @Override
+        public void deleteStreamSegment(String streamSegmentName) {
+            throw new UnsupportedOperationException("deleteStreamSegment");
+        }
+
+        @Override
+        public UpdateableSegmentMetadata getStreamSegmentMetadata(long streamSegmentId) {
+            throw new UnsupportedOperationException("getStreamSegmentMetadata");
+        }
+    }
+
+    //endregion
+}
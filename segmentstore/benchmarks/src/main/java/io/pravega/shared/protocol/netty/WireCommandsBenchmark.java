@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.protocol.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of encoding and decoding the WireCommands that are on the data path: Appends (client to Segment
+ * Store) and SegmentReads (Segment Store to client). As in the real Netty pipeline, commands are encoded into pooled
+ * direct buffers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireCommandsBenchmark {
+    //region Members
+
+    private static final String SEGMENT_NAME = "scope/stream/0";
+    private static final int APPEND_BLOCK_SIZE = 256 * 1024;
+    private static final int EVENTS_PER_BLOCK = 10;
+
+    @Param({"100", "10000"})
+    public int payloadSize;
+
+    private final UUID connectionId = new UUID(1, 2);
+    private CommandEncoder encoder;
+    private ByteBuf encodeBuffer;
+    private ByteBuf appendPayload;
+    private long eventNumber;
+    private WireCommands.SegmentRead segmentRead;
+    private ByteBuf serializedSegmentRead;
+    private ByteBuf serializedReadSegment;
+    private AppendDecoder appendDecoder;
+    private ByteBuf serializedAppendBlock;
+
+    //endregion
+
+    //region Setup
+
+    @Setup
+    public void setup() throws Exception {
+        byte[] payload = new byte[this.payloadSize];
+        FixedBatchSizeTracker tracker = new FixedBatchSizeTracker(APPEND_BLOCK_SIZE);
+        this.encoder = new CommandEncoder(segment -> tracker);
+        this.encodeBuffer = PooledByteBufAllocator.DEFAULT.directBuffer(2 * APPEND_BLOCK_SIZE + this.payloadSize);
+        this.appendPayload = Unpooled.wrappedBuffer(payload);
+        this.eventNumber = 0;
+        this.encoder.encode(null, new WireCommands.SetupAppend(1, this.connectionId, SEGMENT_NAME), this.encodeBuffer);
+
+        this.segmentRead = new WireCommands.SegmentRead(SEGMENT_NAME, 0, true, false, ByteBuffer.wrap(payload));
+        this.serializedSegmentRead = serialize(this.segmentRead);
+        this.serializedReadSegment = serialize(new WireCommands.ReadSegment(SEGMENT_NAME, 0, this.payloadSize));
+
+        // A block that holds EVENTS_PER_BLOCK whole events, followed by its AppendBlockEnd.
+        WireCommands.SetupAppend setupAppend = new WireCommands.SetupAppend(1, this.connectionId, SEGMENT_NAME);
+        int blockSize = EVENTS_PER_BLOCK * (WireCommands.TYPE_PLUS_LENGTH_SIZE + this.payloadSize) + 2 * WireCommands.TYPE_PLUS_LENGTH_SIZE;
+        FixedBatchSizeTracker blockTracker = new FixedBatchSizeTracker(blockSize);
+        CommandEncoder blockEncoder = new CommandEncoder(segment -> blockTracker);
+        blockEncoder.encode(null, setupAppend, Unpooled.buffer());
+        this.serializedAppendBlock = PooledByteBufAllocator.DEFAULT.directBuffer();
+        for (int i = 1; i <= EVENTS_PER_BLOCK; i++) {
+            blockEncoder.encode(null, new Append(SEGMENT_NAME, this.connectionId, i, this.appendPayload.duplicate(), null), this.serializedAppendBlock);
+        }
+        blockEncoder.encode(null, new WireCommands.Flush(blockSize), this.serializedAppendBlock);
+        this.appendDecoder = new AppendDecoder();
+        this.appendDecoder.processCommand(setupAppend);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.encodeBuffer.release();
+        this.serializedAppendBlock.release();
+    }
+
+    private static ByteBuf serialize(WireCommand command) throws Exception {
+        ByteBuf result = Unpooled.buffer();
+        new CommandEncoder(segment -> null).encode(null, command, result);
+        return result;
+    }
+
+    //endregion
+
+    //region Benchmarks
+
+    /**
+     * Encodes a single Append, including the occasional AppendBlock/AppendBlockEnd framing around it.
+     */
+    @Benchmark
+    public int encodeAppend() throws Exception {
+        this.encodeBuffer.clear();
+        Append append = new Append(SEGMENT_NAME, this.connectionId, ++this.eventNumber, this.appendPayload.duplicate(), null);
+        this.encoder.encode(null, append, this.encodeBuffer);
+        return this.encodeBuffer.writerIndex();
+    }
+
+    /**
+     * Encodes a SegmentRead reply.
+     */
+    @Benchmark
+    public int encodeSegmentRead() throws Exception {
+        this.encodeBuffer.clear();
+        this.encoder.encode(null, this.segmentRead, this.encodeBuffer);
+        return this.encodeBuffer.writerIndex();
+    }
+
+    /**
+     * Decodes a SegmentRead reply.
+     */
+    @Benchmark
+    public WireCommand decodeSegmentRead() throws Exception {
+        return CommandDecoder.parseCommand(this.serializedSegmentRead.duplicate());
+    }
+
+    /**
+     * Decodes a block of appends (as received by the Segment Store) into a single Append, and releases its data.
+     */
+    @Benchmark
+    public int decodeAppendBlock() throws Exception {
+        ByteBuf in = this.serializedAppendBlock.duplicate();
+        int result = 0;
+        while (in.isReadable()) {
+            Request request = this.appendDecoder.processCommand(CommandDecoder.parseCommand(in));
+            if (request instanceof Append) {
+                ByteBuf data = ((Append) request).getData();
+                result += data.readableBytes();
+                data.release();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Decodes a ReadSegment request.
+     */
+    @Benchmark
+    public WireCommand decodeReadSegment() throws Exception {
+        return CommandDecoder.parseCommand(this.serializedReadSegment.duplicate());
+    }
+
+    //endregion
+
+    //region FixedBatchSizeTracker
+
+    /**
+     * AppendBatchSizeTracker that always uses the same block size, so that results do not depend on timing.
+     */
+    private static class FixedBatchSizeTracker implements AppendBatchSizeTracker {
+        private final int blockSize;
+
+        FixedBatchSizeTracker(int blockSize) {
+            this.blockSize = blockSize;
+        }
+
+        @Override
+        public void recordAppend(long eventNumber, int size) {
+        }
+
+        @Override
+        public void recordAck(long eventNumber) {
+        }
+
+        @Override
+        public int getAppendBlockSize() {
+            return this.blockSize;
+        }
+
+        @Override
+        public int getBatchTimeout() {
+            return 0;
+        }
+    }
+
+    //endregion
+}
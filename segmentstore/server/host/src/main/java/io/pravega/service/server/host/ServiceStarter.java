@@ -21,6 +21,12 @@ import io.pravega.service.server.store.ServiceBuilderConfig;
 import io.pravega.service.server.store.ServiceConfig;
 import io.pravega.service.storage.impl.bookkeeper.BookKeeperConfig;
 import io.pravega.service.storage.impl.bookkeeper.BookKeeperLogFactory;
+import io.pravega.service.storage.impl.directmemory.DirectMemoryCacheConfig;
+import io.pravega.service.storage.impl.directmemory.DirectMemoryCacheFactory;
+import io.pravega.service.storage.impl.filelog.FileLogConfig;
+import io.pravega.service.storage.impl.filelog.FileLogFactory;
+import io.pravega.service.storage.impl.filesystem.FileSystemStorageConfig;
+import io.pravega.service.storage.impl.filesystem.FileSystemStorageFactory;
 import io.pravega.service.storage.impl.hdfs.HDFSStorageConfig;
 import io.pravega.service.storage.impl.hdfs.HDFSStorageFactory;
 import io.pravega.service.storage.impl.rocksdb.RocksDBCacheFactory;
@@ -66,14 +72,20 @@ public final class ServiceStarter {
         ServiceBuilder builder = ServiceBuilder.newInMemoryBuilder(this.builderConfig);
         if (options.bookKeeper) {
             attachBookKeeper(builder);
+        } else if (options.fileLog) {
+            attachFileLog(builder);
         }
 
-        if (options.rocksDb) {
+        if (options.directMemoryCache) {
+            attachDirectMemoryCache(builder);
+        } else if (options.rocksDb) {
             attachRocksDB(builder);
         }
 
         if (options.hdfs) {
             attachHDFS(builder);
+        } else if (options.fileSystemStorage) {
+            attachFileSystemStorage(builder);
         }
 
         if (options.zkSegmentManager) {
@@ -110,7 +122,7 @@ public final class ServiceStarter {
                 .createSegmentStatsRecorder(service, builderConfig.getConfig(AutoScalerConfig::builder));
 
         this.listener = new PravegaConnectionListener(false, this.serviceConfig.getListeningIPAddress(),
-                this.serviceConfig.getListeningPort(), service, statsRecorder);
+                this.serviceConfig.getListeningPort(), service, statsRecorder, this.serviceConfig.getMaxOutstandingAppends());
         this.listener.startListening();
         log.info("PravegaConnectionListener started successfully.");
         log.info("StreamSegmentService started.");
@@ -151,10 +163,19 @@ public final class ServiceStarter {
                 new BookKeeperLogFactory(setup.getConfig(BookKeeperConfig::builder), this.zkClient, setup.getExecutor()));
     }
 
+    private void attachFileLog(ServiceBuilder builder) {
+        builder.withDataLogFactory(setup ->
+                new FileLogFactory(setup.getConfig(FileLogConfig::builder), setup.getExecutor()));
+    }
+
     private void attachRocksDB(ServiceBuilder builder) {
         builder.withCacheFactory(setup -> new RocksDBCacheFactory(setup.getConfig(RocksDBConfig::builder)));
     }
 
+    private void attachDirectMemoryCache(ServiceBuilder builder) {
+        builder.withCacheFactory(setup -> new DirectMemoryCacheFactory(setup.getConfig(DirectMemoryCacheConfig::builder)));
+    }
+
     private void attachHDFS(ServiceBuilder builder) {
         builder.withStorageFactory(setup -> {
             try {
@@ -166,6 +187,11 @@ public final class ServiceStarter {
         });
     }
 
+    private void attachFileSystemStorage(ServiceBuilder builder) {
+        builder.withStorageFactory(setup ->
+                new FileSystemStorageFactory(setup.getConfig(FileSystemStorageConfig::builder), setup.getExecutor()));
+    }
+
     private void attachZKSegmentManager(ServiceBuilder builder) {
         builder.withContainerManager(setup ->
                 new ZKSegmentContainerManager(setup.getContainerRegistry(),
@@ -200,8 +226,13 @@ public final class ServiceStarter {
                     .include(System.getProperty("pravega.configurationFile", "config.properties"))
                     .include(System.getProperties())
                     .build();
+            ServiceConfig serviceConfig = config.getConfig(ServiceConfig::builder);
+            boolean fileLog = serviceConfig.getDataLogImplementation() == ServiceConfig.DataLogType.FILELOG;
+            boolean directMemoryCache = serviceConfig.getCacheImplementation() == ServiceConfig.CacheType.DIRECTMEMORY;
             serviceStarter.set(new ServiceStarter(config, Options.builder()
-                                                                 .bookKeeper(true).hdfs(true).rocksDb(true).zkSegmentManager(true).build()));
+                                                                 .bookKeeper(!fileLog).fileLog(fileLog)
+                                                                 .rocksDb(!directMemoryCache).directMemoryCache(directMemoryCache)
+                                                                 .hdfs(true).zkSegmentManager(true).build()));
         } catch (Throwable e) {
             log.error("Could not create a Service with default config, Aborting.", e);
             System.exit(1);
@@ -235,8 +266,11 @@ public final class ServiceStarter {
     @Builder
     public static class Options {
         final boolean bookKeeper;
+        final boolean fileLog;
         final boolean hdfs;
+        final boolean fileSystemStorage;
         final boolean rocksDb;
+        final boolean directMemoryCache;
         final boolean zkSegmentManager;
     }
 
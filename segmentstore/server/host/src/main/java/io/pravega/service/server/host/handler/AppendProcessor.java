@@ -38,10 +38,13 @@ import io.pravega.service.contracts.StreamSegmentStore;
 import io.pravega.service.contracts.WrongHostException;
 import io.pravega.service.server.SegmentMetadata;
 import io.pravega.service.server.host.stat.SegmentStatsRecorder;
+import io.pravega.service.server.store.ServiceConfig;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.LinkedListMultimap;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -79,23 +82,38 @@ public class AppendProcessor extends DelegatingRequestProcessor {
     private final RequestProcessor next;
     private final Object lock = new Object();
     private final SegmentStatsRecorder statsRecorder;
+    /**
+     * Maximum number of appends (across all writers) that may be in flight against the store for this connection.
+     * Only one append may be outstanding per writer at any given time: appends from the same writer must be applied in
+     * order, and any data they accumulate meanwhile gets batched into the next write anyway.
+     */
+    private final int maxOutstandingAppends;
 
     @GuardedBy("lock")
     private final LinkedListMultimap<UUID, Append> waitingAppends = LinkedListMultimap.create(2);
     @GuardedBy("lock")
     private final HashMap<UUID, Long> latestEventNumbers = new HashMap<>();
     @GuardedBy("lock")
-    private Append outstandingAppend = null;
+    private final HashMap<UUID, Append> outstandingAppends = new HashMap<>();
+    @GuardedBy("lock")
+    private long outstandingBytes = 0;
 
     public AppendProcessor(StreamSegmentStore store, ServerConnection connection, RequestProcessor next) {
         this(store, connection, next, null);
     }
 
     public AppendProcessor(StreamSegmentStore store, ServerConnection connection, RequestProcessor next, SegmentStatsRecorder statsRecorder) {
+        this(store, connection, next, statsRecorder, ServiceConfig.MAX_OUTSTANDING_APPENDS.getDefaultValue());
+    }
+
+    public AppendProcessor(StreamSegmentStore store, ServerConnection connection, RequestProcessor next,
+                           SegmentStatsRecorder statsRecorder, int maxOutstandingAppends) {
+        Preconditions.checkArgument(maxOutstandingAppends > 0, "maxOutstandingAppends must be a positive integer.");
         this.store = store;
         this.connection = connection;
         this.next = next;
         this.statsRecorder = statsRecorder;
+        this.maxOutstandingAppends = maxOutstandingAppends;
     }
     
     @Override
@@ -137,50 +155,57 @@ public class AppendProcessor extends DelegatingRequestProcessor {
     }
 
     /**
-     * If there isn't already an append outstanding against the store, write a new one.
-     * Appends are opportunistically batched here. i.e. If many are waiting they are combined into a single append and
-     * that is written.
+     * Writes new appends to the store for any writers that have data waiting but no append outstanding against the
+     * store, as long as the number of appends in flight for this connection is below maxOutstandingAppends.
+     * Appends are opportunistically batched here. i.e. If many are waiting for a writer they are combined into a single
+     * append and that is written.
      */
     public void performNextWrite() {
-        Append append;
-        long numOfEvents = 1;
+        while (true) {
+            Append append;
+            long numOfEvents = 1;
 
-        synchronized (lock) {
-            if (outstandingAppend != null || waitingAppends.isEmpty()) {
-                return;
-            }
+            synchronized (lock) {
+                if (outstandingAppends.size() >= maxOutstandingAppends || waitingAppends.isEmpty()) {
+                    return;
+                }
 
-            UUID writer = waitingAppends.keys().iterator().next();
-            List<Append> appends = waitingAppends.get(writer);
-            if (appends.get(0).isConditional()) {
-                append = appends.remove(0);
-            } else {
-                ByteBuf[] toAppend = new ByteBuf[appends.size()];
-                Append first = appends.get(0);
-                Append last = first;
-                int i = -1;
-                for (Iterator<Append> iterator = appends.iterator(); iterator.hasNext(); ) {
-                    Append a = iterator.next();
-                    if (a.isConditional()) {
-                        break;
-                    }
-                    i++;
-                    toAppend[i] = a.getData();
-                    last = a;
-                    iterator.remove();
+                UUID writer = waitingAppends.keySet()
+                                            .stream()
+                                            .filter(w -> !outstandingAppends.containsKey(w))
+                                            .findFirst()
+                                            .orElse(null);
+                if (writer == null) {
+                    // All writers with waiting data already have an append outstanding.
+                    return;
                 }
-                ByteBuf data = Unpooled.wrappedBuffer(toAppend);
-                if (last != null) {
+
+                List<Append> appends = waitingAppends.get(writer);
+                if (appends.get(0).isConditional()) {
+                    append = appends.remove(0);
+                } else {
+                    List<ByteBuf> toAppend = new ArrayList<>(appends.size());
+                    Append first = appends.get(0);
+                    Append last = first;
+                    for (Iterator<Append> iterator = appends.iterator(); iterator.hasNext(); ) {
+                        Append a = iterator.next();
+                        if (a.isConditional()) {
+                            break;
+                        }
+                        toAppend.add(a.getData());
+                        last = a;
+                        iterator.remove();
+                    }
+                    ByteBuf data = toAppend.size() == 1 ? toAppend.get(0) : Unpooled.wrappedBuffer(toAppend.toArray(new ByteBuf[toAppend.size()]));
                     numOfEvents = last.getEventNumber() - first.getEventNumber() + 1;
+                    append = new Append(last.getSegment(), writer, last.getEventNumber(), data, null);
                 }
 
-                String segment = last != null ? last.getSegment() : first.getSegment();
-                long eventNumber = last != null ? last.getEventNumber() : first.getEventNumber();
-                append = new Append(segment, writer, eventNumber, data, null);
+                outstandingAppends.put(writer, append);
+                outstandingBytes += append.getData().readableBytes();
             }
-            outstandingAppend = append;
+            write(append, numOfEvents);
         }
-        write(append, numOfEvents);
     }
 
     /**
@@ -188,9 +213,7 @@ public class AppendProcessor extends DelegatingRequestProcessor {
      */
     private void write(final Append toWrite, long numOfEvents) {
         Timer timer = new Timer();
-        ByteBuf buf = toWrite.getData().asReadOnly();
-        byte[] bytes = new byte[buf.readableBytes()];
-        buf.readBytes(bytes);
+        byte[] bytes = copyAndRelease(toWrite.getData());
 
         val attributes = Arrays.asList(new AttributeUpdate(
                         toWrite.getConnectionId(),
@@ -209,15 +232,15 @@ public class AppendProcessor extends DelegatingRequestProcessor {
             try {
                 boolean conditionalFailed = u != null && (ExceptionHelpers.getRealException(u) instanceof BadOffsetException);
                 synchronized (lock) {
-                    if (outstandingAppend != toWrite) {
+                    if (outstandingAppends.get(toWrite.getConnectionId()) != toWrite) {
                         throw new IllegalStateException(
                                 "Synchronization error in: " + AppendProcessor.this.getClass().getName());
                     }
 
-                    toWrite.getData().release();
-                    outstandingAppend = null;
+                    outstandingAppends.remove(toWrite.getConnectionId());
+                    outstandingBytes -= bytes.length;
                     if (u != null && !conditionalFailed) {
-                        waitingAppends.removeAll(toWrite.getConnectionId());
+                        waitingAppends.removeAll(toWrite.getConnectionId()).forEach(a -> a.getData().release());
                         latestEventNumbers.remove(toWrite.getConnectionId());
                     }
                 }
@@ -246,6 +269,21 @@ public class AppendProcessor extends DelegatingRequestProcessor {
         });
     }
 
+    /**
+     * Copies the readable contents of the given ByteBuf into a new array (in a single pass, directly from each of its
+     * underlying components) and then releases it, so that the network buffers are returned to their pool as soon as
+     * the data is handed off, instead of being retained for the whole duration of the Store call.
+     */
+    private byte[] copyAndRelease(ByteBuf buf) {
+        try {
+            byte[] bytes = new byte[buf.readableBytes()];
+            buf.getBytes(buf.readerIndex(), bytes);
+            return bytes;
+        } finally {
+            buf.release();
+        }
+    }
+
     private void handleException(long requestId, String segment, String doingWhat, Throwable u) {
         if (u == null) {
             IllegalStateException exception = new IllegalStateException("No exception to handle.");
@@ -278,9 +316,9 @@ public class AppendProcessor extends DelegatingRequestProcessor {
      * If there is room for more data, we resume consuming from the socket.
      */
     private void pauseOrResumeReading() {
-        int bytesWaiting;
+        long bytesWaiting;
         synchronized (lock) {
-            bytesWaiting = waitingAppends.values()
+            bytesWaiting = outstandingBytes + waitingAppends.values()
                     .stream()
                     .mapToInt(a -> a.getData().readableBytes())
                     .sum();
@@ -296,7 +334,7 @@ public class AppendProcessor extends DelegatingRequestProcessor {
 
     /**
      * Append data to the store.
-     * Because ordering dictates that there only be one outstanding append from a given connection, this is implemented
+     * Because ordering dictates that there only be one outstanding append from a given writer, this is implemented
      * by adding the append to a queue.
      */
     @Override
@@ -305,9 +343,11 @@ public class AppendProcessor extends DelegatingRequestProcessor {
             UUID id = append.getConnectionId();
             Long lastEventNumber = latestEventNumbers.get(id);
             if (lastEventNumber == null) {
+                append.getData().release();
                 throw new IllegalStateException("Data from unexpected connection: " + id);
             }
             if (append.getEventNumber() <= lastEventNumber) {
+                append.getData().release();
                 throw new IllegalStateException("Event was already appended.");
             }
             latestEventNumbers.put(id, append.getEventNumber());
@@ -317,6 +357,20 @@ public class AppendProcessor extends DelegatingRequestProcessor {
         performNextWrite();
     }
 
+    /**
+     * Releases the data of all the appends that are still waiting to be written. (The data of outstanding appends has
+     * already been released once it was copied.) Any appends that arrive afterwards are rejected.
+     */
+    @Override
+    public void connectionDropped() {
+        synchronized (lock) {
+            waitingAppends.values().forEach(a -> a.getData().release());
+            waitingAppends.clear();
+            latestEventNumbers.clear();
+        }
+        next.connectionDropped();
+    }
+
     @Override
     public RequestProcessor getNextRequestProcessor() {
         return next;
@@ -23,7 +23,9 @@ import io.pravega.shared.protocol.netty.ExceptionLoggingHandler;
 import io.pravega.service.contracts.StreamSegmentStore;
 
 import io.pravega.service.server.host.stat.SegmentStatsRecorder;
+import io.pravega.service.server.store.ServiceConfig;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
@@ -56,6 +58,7 @@ public final class PravegaConnectionListener implements AutoCloseable {
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
     private final SegmentStatsRecorder statsRecorder;
+    private final int maxOutstandingAppends;
 
     public PravegaConnectionListener(boolean ssl, int port, StreamSegmentStore streamSegmentStore) {
         this(ssl, "localhost", port, streamSegmentStore, null);
@@ -63,11 +66,17 @@ public final class PravegaConnectionListener implements AutoCloseable {
 
     public PravegaConnectionListener(boolean ssl, String host, int port, StreamSegmentStore streamSegmentStore,
                                      SegmentStatsRecorder statsRecorder) {
+        this(ssl, host, port, streamSegmentStore, statsRecorder, ServiceConfig.MAX_OUTSTANDING_APPENDS.getDefaultValue());
+    }
+
+    public PravegaConnectionListener(boolean ssl, String host, int port, StreamSegmentStore streamSegmentStore,
+                                     SegmentStatsRecorder statsRecorder, int maxOutstandingAppends) {
         this.ssl = ssl;
         this.host = host;
         this.port = port;
         this.store = streamSegmentStore;
         this.statsRecorder = statsRecorder;
+        this.maxOutstandingAppends = maxOutstandingAppends;
         InternalLoggerFactory.setDefaultFactory(Slf4JLoggerFactory.INSTANCE);
     }
 
@@ -98,6 +107,7 @@ public final class PravegaConnectionListener implements AutoCloseable {
         b.group(bossGroup, workerGroup)
          .channel(nio ? NioServerSocketChannel.class : EpollServerSocketChannel.class)
          .option(ChannelOption.SO_BACKLOG, 100)
+         .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
          .handler(new LoggingHandler(LogLevel.INFO))
          .childHandler(new ChannelInitializer<SocketChannel>() {
              @Override
@@ -117,7 +127,8 @@ public final class PravegaConnectionListener implements AutoCloseable {
                  lsh.setRequestProcessor(new AppendProcessor(store,
                          lsh,
                          new PravegaRequestProcessor(store, lsh, statsRecorder),
-                         statsRecorder));
+                         statsRecorder,
+                         maxOutstandingAppends));
              }
          });
 
@@ -11,7 +11,9 @@ package io.pravega.service.server.host.handler;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import io.pravega.common.ExceptionHelpers;
 import io.pravega.common.Timer;
+import io.pravega.common.concurrent.FutureHelpers;
 import io.pravega.common.io.StreamHelpers;
 import io.pravega.common.segment.StreamSegmentNameUtils;
 import io.pravega.service.contracts.AttributeUpdate;
@@ -35,7 +37,9 @@ import io.pravega.shared.protocol.netty.FailingRequestProcessor;
 import io.pravega.shared.protocol.netty.RequestProcessor;
 import io.pravega.shared.protocol.netty.WireCommands.AbortTransaction;
 import io.pravega.shared.protocol.netty.WireCommands.CommitTransaction;
+import io.pravega.shared.protocol.netty.WireCommands.CommitTransactions;
 import io.pravega.shared.protocol.netty.WireCommands.CreateSegment;
+import io.pravega.shared.protocol.netty.WireCommands.CreateSegments;
 import io.pravega.shared.protocol.netty.WireCommands.CreateTransaction;
 import io.pravega.shared.protocol.netty.WireCommands.DeleteSegment;
 import io.pravega.shared.protocol.netty.WireCommands.GetStreamSegmentInfo;
@@ -43,6 +47,7 @@ import io.pravega.shared.protocol.netty.WireCommands.GetTransactionInfo;
 import io.pravega.shared.protocol.netty.WireCommands.NoSuchSegment;
 import io.pravega.shared.protocol.netty.WireCommands.ReadSegment;
 import io.pravega.shared.protocol.netty.WireCommands.SealSegment;
+import io.pravega.shared.protocol.netty.WireCommands.SealSegments;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentAlreadyExists;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentCreated;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentDeleted;
@@ -50,11 +55,15 @@ import io.pravega.shared.protocol.netty.WireCommands.SegmentIsSealed;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentPolicyUpdated;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentRead;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentSealed;
+import io.pravega.shared.protocol.netty.WireCommands.SegmentResult;
+import io.pravega.shared.protocol.netty.WireCommands.SegmentsCreated;
+import io.pravega.shared.protocol.netty.WireCommands.SegmentsSealed;
 import io.pravega.shared.protocol.netty.WireCommands.StreamSegmentInfo;
 import io.pravega.shared.protocol.netty.WireCommands.TransactionAborted;
 import io.pravega.shared.protocol.netty.WireCommands.TransactionCommitted;
 import io.pravega.shared.protocol.netty.WireCommands.TransactionCreated;
 import io.pravega.shared.protocol.netty.WireCommands.TransactionInfo;
+import io.pravega.shared.protocol.netty.WireCommands.TransactionsCommitted;
 import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentPolicy;
 import io.pravega.shared.protocol.netty.WireCommands.WrongHost;
 import java.io.IOException;
@@ -64,10 +73,15 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
 
 import static io.pravega.service.contracts.Attributes.CREATION_TIME;
@@ -268,29 +282,82 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
 
     @Override
     public void createSegment(CreateSegment createStreamsSegment) {
+        createSegment(createStreamsSegment.getSegment(), createStreamsSegment.getScaleType(), createStreamsSegment.getTargetRate())
+                .thenAccept((Void v) -> {
+                    connection.send(new SegmentCreated(createStreamsSegment.getRequestId(), createStreamsSegment.getSegment()));
+                }).exceptionally((Throwable e) -> {
+                    handleException(createStreamsSegment.getRequestId(), createStreamsSegment.getSegment(), "Create segment", e);
+                    return null;
+                });
+    }
+
+    @Override
+    public void createSegments(CreateSegments createSegments) {
+        processBatch(createSegments.getSegments(), "Create segments",
+                segment -> createSegment(segment, createSegments.getScaleType(), createSegments.getTargetRate()),
+                results -> connection.send(new SegmentsCreated(createSegments.getRequestId(), results)));
+    }
+
+    private CompletableFuture<Void> createSegment(String segment, byte scaleType, int targetRate) {
         Timer timer = new Timer();
         Collection<AttributeUpdate> attributes = Arrays.asList(
-                new AttributeUpdate(SCALE_POLICY_TYPE, AttributeUpdateType.Replace, ((Byte) createStreamsSegment.getScaleType()).longValue()),
-                new AttributeUpdate(SCALE_POLICY_RATE, AttributeUpdateType.Replace, ((Integer) createStreamsSegment.getTargetRate()).longValue())
+                new AttributeUpdate(SCALE_POLICY_TYPE, AttributeUpdateType.Replace, ((Byte) scaleType).longValue()),
+                new AttributeUpdate(SCALE_POLICY_RATE, AttributeUpdateType.Replace, ((Integer) targetRate).longValue())
         );
 
-        CompletableFuture<Void> future = segmentStore.createStreamSegment(createStreamsSegment.getSegment(), attributes, TIMEOUT);
-        future.thenAccept((Void v) -> {
-            CREATE_STREAM_SEGMENT.reportSuccessEvent(timer.getElapsed());
-            connection.send(new SegmentCreated(createStreamsSegment.getRequestId(), createStreamsSegment.getSegment()));
-        }).whenComplete((res, e) -> {
+        return segmentStore.createStreamSegment(segment, attributes, TIMEOUT).whenComplete((res, e) -> {
             if (e == null) {
+                CREATE_STREAM_SEGMENT.reportSuccessEvent(timer.getElapsed());
                 if (statsRecorder != null) {
-                    statsRecorder.createSegment(createStreamsSegment.getSegment(),
-                            createStreamsSegment.getScaleType(), createStreamsSegment.getTargetRate());
+                    statsRecorder.createSegment(segment, scaleType, targetRate);
                 }
             } else {
                 CREATE_STREAM_SEGMENT.reportFailEvent(timer.getElapsed());
-                handleException(createStreamsSegment.getRequestId(), createStreamsSegment.getSegment(), "Create segment", e);
             }
         });
     }
 
+    /**
+     * Applies an operation to each of the given segments concurrently and, once all of them have completed, sends a
+     * single reply with the outcome for each segment.
+     */
+    private void processBatch(List<String> segments, String operation, Function<String, CompletableFuture<?>> perSegment,
+                              Consumer<Map<String, SegmentResult>> sendReply) {
+        Map<String, CompletableFuture<SegmentResult>> futures = new LinkedHashMap<>();
+        for (String segment : segments) {
+            CompletableFuture<?> future;
+            try {
+                future = perSegment.apply(segment);
+            } catch (Exception e) {
+                future = FutureHelpers.failedFuture(e);
+            }
+            futures.put(segment, future.handle((r, e) -> e == null ? SegmentResult.SUCCESS : toSegmentResult(segment, operation, e)));
+        }
+        FutureHelpers.allOf(futures.values()).thenRun(() -> {
+            Map<String, SegmentResult> results = new LinkedHashMap<>();
+            futures.forEach((segment, result) -> results.put(segment, result.join()));
+            sendReply.accept(results);
+        });
+    }
+
+    private SegmentResult toSegmentResult(String segment, String operation, Throwable u) {
+        if (u instanceof CompletionException) {
+            u = u.getCause();
+        }
+        if (u instanceof StreamSegmentExistsException) {
+            return SegmentResult.ALREADY_EXISTS;
+        } else if (u instanceof StreamSegmentNotExistsException) {
+            return SegmentResult.NO_SUCH_SEGMENT;
+        } else if (u instanceof StreamSegmentSealedException) {
+            return SegmentResult.IS_SEALED;
+        } else if (u instanceof WrongHostException) {
+            return SegmentResult.WRONG_HOST;
+        } else {
+            log.error("Error (Segment = '{}', Operation = '{}')", segment, operation, u);
+            return SegmentResult.FAILED;
+        }
+    }
+
     private void handleException(long requestId, String segment, String operation, Throwable u) {
         if (u == null) {
             IllegalStateException exception = new IllegalStateException("No exception to handle.");
@@ -345,25 +412,43 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
     public void commitTransaction(CommitTransaction commitTx) {
         String transactionName = StreamSegmentNameUtils.getTransactionNameFromId(commitTx.getSegment(), commitTx.getTxid());
         long requestId = commitTx.getRequestId();
-        segmentStore.sealStreamSegment(transactionName, TIMEOUT)
-                .thenCompose((Long length) -> recordStatForTransaction(transactionName, commitTx.getSegment())
+        commitTransaction(commitTx.getSegment(), commitTx.getTxid())
+                .thenAccept(v -> {
+                    connection.send(new TransactionCommitted(requestId, commitTx.getSegment(), commitTx.getTxid()));
+                }).exceptionally((Throwable e) -> {
+                    handleException(requestId, transactionName, "Commit transaction", e);
+                    return null;
+                });
+    }
+
+    @Override
+    public void commitTransactions(CommitTransactions commitTxs) {
+        processBatch(commitTxs.getSegments(), "Commit transactions",
+                segment -> commitTransaction(segment, commitTxs.getTxid()),
+                results -> connection.send(new TransactionsCommitted(commitTxs.getRequestId(), commitTxs.getTxid(), results)));
+    }
+
+    private CompletableFuture<Void> commitTransaction(String parentSegment, UUID txid) {
+        String transactionName = StreamSegmentNameUtils.getTransactionNameFromId(parentSegment, txid);
+        return segmentStore.sealStreamSegment(transactionName, TIMEOUT)
+                .handle((Long length, Throwable e) -> {
+                    if (e == null) {
+                        return true;
+                    } else if (ExceptionHelpers.getRealException(e) instanceof StreamSegmentSealedException) {
+                        // A previous attempt to commit sealed the transaction, but may not have gotten to merge it.
+                        return false;
+                    }
+                    throw new CompletionException(ExceptionHelpers.getRealException(e));
+                })
+                .thenCompose(sealedNow -> !sealedNow ? CompletableFuture.<Void>completedFuture(null)
+                        : recordStatForTransaction(transactionName, parentSegment)
                         .exceptionally((Throwable e) -> {
                             // gobble up any errors from stat recording so we do not affect rest of the flow.
                             log.error("exception while computing stats while merging txn {}", e);
                             return null;
                         }))
-                .thenApply(result -> {
-                    segmentStore.mergeTransaction(transactionName, TIMEOUT).thenAccept(v -> {
-                        connection.send(new TransactionCommitted(requestId, commitTx.getSegment(), commitTx.getTxid()));
-                    }).exceptionally((Throwable e) -> {
-                        handleException(requestId, transactionName, "Commit transaction", e);
-                        return null;
-                    });
-                    return null;
-                }).exceptionally((Throwable e) -> {
-            handleException(requestId, transactionName, "Commit transaction", e);
-            return null;
-        });
+                .thenCompose(v -> segmentStore.mergeTransaction(transactionName, TIMEOUT))
+                .thenApply(v -> null);
     }
 
     @Override
@@ -386,16 +471,24 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
     @Override
     public void sealSegment(SealSegment sealSegment) {
         String segment = sealSegment.getSegment();
-        CompletableFuture<Long> future = segmentStore.sealStreamSegment(segment, TIMEOUT);
-        future.thenAccept(size -> {
+        sealSegment(segment).thenAccept(size -> {
             connection.send(new SegmentSealed(sealSegment.getRequestId(), segment));
-        }).whenComplete((r, e) -> {
-            if (e != null) {
-                handleException(sealSegment.getRequestId(), segment, "Seal segment", e);
-            } else {
-                if (statsRecorder != null) {
-                    statsRecorder.sealSegment(sealSegment.getSegment());
-                }
+        }).exceptionally((Throwable e) -> {
+            handleException(sealSegment.getRequestId(), segment, "Seal segment", e);
+            return null;
+        });
+    }
+
+    @Override
+    public void sealSegments(SealSegments sealSegments) {
+        processBatch(sealSegments.getSegments(), "Seal segments", this::sealSegment,
+                results -> connection.send(new SegmentsSealed(sealSegments.getRequestId(), results)));
+    }
+
+    private CompletableFuture<Long> sealSegment(String segment) {
+        return segmentStore.sealStreamSegment(segment, TIMEOUT).whenComplete((size, e) -> {
+            if (e == null && statsRecorder != null) {
+                statsRecorder.sealSegment(segment);
             }
         });
     }
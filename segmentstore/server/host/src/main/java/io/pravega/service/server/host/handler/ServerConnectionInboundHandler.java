@@ -36,6 +36,15 @@ public class ServerConnectionInboundHandler extends ChannelInboundHandlerAdapter
         channel.set(ctx.channel());
     }
 
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        super.channelInactive(ctx);
+        RequestProcessor requestProcessor = processor.get();
+        if (requestProcessor != null) {
+            requestProcessor.connectionDropped();
+        }
+    }
+
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) {
         Request cmd = (Request) msg;
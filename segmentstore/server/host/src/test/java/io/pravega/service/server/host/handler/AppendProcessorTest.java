@@ -23,6 +23,7 @@ import io.pravega.service.contracts.BadOffsetException;
 import io.pravega.service.contracts.SegmentProperties;
 import io.pravega.service.contracts.StreamSegmentInformation;
 import io.pravega.service.contracts.StreamSegmentStore;
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 
 import java.util.Arrays;
@@ -35,6 +36,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import static io.pravega.service.contracts.Attributes.EVENT_COUNT;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -42,6 +44,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -247,6 +250,124 @@ public class AppendProcessorTest {
         verifyNoMoreInteractions(store);
     }
 
+    @Test
+    public void testConcurrentWriters() {
+        String segment1 = "segment1";
+        String segment2 = "segment2";
+        UUID clientId1 = UUID.randomUUID();
+        UUID clientId2 = UUID.randomUUID();
+        byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
+        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        ServerConnection connection = mock(ServerConnection.class);
+        AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor());
+
+        setupGetStreamSegmentInfo(segment1, clientId1, store);
+        setupGetStreamSegmentInfo(segment2, clientId2, store);
+        CompletableFuture<Void> result1 = new CompletableFuture<>();
+        CompletableFuture<Void> result2 = new CompletableFuture<>();
+        CompletableFuture<Void> result3 = new CompletableFuture<>();
+        when(store.append(segment1, data, updateEventNumber(clientId1, data.length), AppendProcessor.TIMEOUT))
+                .thenReturn(result1);
+        when(store.append(segment2, data, updateEventNumber(clientId2, data.length), AppendProcessor.TIMEOUT))
+                .thenReturn(result2);
+        when(store.append(segment1, data, updateEventNumber(clientId1, data.length * 2), AppendProcessor.TIMEOUT))
+                .thenReturn(result3);
+
+        processor.setupAppend(new SetupAppend(1, clientId1, segment1));
+        processor.setupAppend(new SetupAppend(2, clientId2, segment2));
+        processor.append(new Append(segment1, clientId1, data.length, Unpooled.wrappedBuffer(data), null));
+        processor.append(new Append(segment2, clientId2, data.length, Unpooled.wrappedBuffer(data), null));
+        processor.append(new Append(segment1, clientId1, data.length * 2, Unpooled.wrappedBuffer(data), null));
+
+        // Both writers must have an append in flight, but the second append for the first writer must wait.
+        verify(store).append(segment1, data, updateEventNumber(clientId1, data.length), AppendProcessor.TIMEOUT);
+        verify(store).append(segment2, data, updateEventNumber(clientId2, data.length), AppendProcessor.TIMEOUT);
+        verify(store, never()).append(segment1, data, updateEventNumber(clientId1, data.length * 2), AppendProcessor.TIMEOUT);
+
+        // Completing out of order must ack each writer independently.
+        result2.complete(null);
+        verify(connection).send(new DataAppended(clientId2, data.length));
+        result1.complete(null);
+        verify(connection).send(new DataAppended(clientId1, data.length));
+        verify(store).append(segment1, data, updateEventNumber(clientId1, data.length * 2), AppendProcessor.TIMEOUT);
+        result3.complete(null);
+        verify(connection).send(new DataAppended(clientId1, data.length * 2));
+
+        verify(store).getStreamSegmentInfo(eq(segment1), eq(true), eq(AppendProcessor.TIMEOUT));
+        verify(store).getStreamSegmentInfo(eq(segment2), eq(true), eq(AppendProcessor.TIMEOUT));
+        verify(connection).send(new AppendSetup(1, segment1, clientId1, 0));
+        verify(connection).send(new AppendSetup(2, segment2, clientId2, 0));
+        verify(connection, atLeast(0)).resumeReading();
+        verifyNoMoreInteractions(connection);
+        verifyNoMoreInteractions(store);
+    }
+
+    @Test
+    public void testMaxOutstandingAppends() {
+        String segment1 = "segment1";
+        String segment2 = "segment2";
+        UUID clientId1 = UUID.randomUUID();
+        UUID clientId2 = UUID.randomUUID();
+        byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
+        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        ServerConnection connection = mock(ServerConnection.class);
+        AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null, 1);
+
+        setupGetStreamSegmentInfo(segment1, clientId1, store);
+        setupGetStreamSegmentInfo(segment2, clientId2, store);
+        CompletableFuture<Void> result1 = new CompletableFuture<>();
+        CompletableFuture<Void> result2 = new CompletableFuture<>();
+        when(store.append(segment1, data, updateEventNumber(clientId1, data.length), AppendProcessor.TIMEOUT))
+                .thenReturn(result1);
+        when(store.append(segment2, data, updateEventNumber(clientId2, data.length), AppendProcessor.TIMEOUT))
+                .thenReturn(result2);
+
+        processor.setupAppend(new SetupAppend(1, clientId1, segment1));
+        processor.setupAppend(new SetupAppend(2, clientId2, segment2));
+        processor.append(new Append(segment1, clientId1, data.length, Unpooled.wrappedBuffer(data), null));
+        processor.append(new Append(segment2, clientId2, data.length, Unpooled.wrappedBuffer(data), null));
+
+        // Only one append may be in flight for the connection, even though they are from different writers.
+        verify(store).append(segment1, data, updateEventNumber(clientId1, data.length), AppendProcessor.TIMEOUT);
+        verify(store, never()).append(segment2, data, updateEventNumber(clientId2, data.length), AppendProcessor.TIMEOUT);
+        result1.complete(null);
+        verify(store).append(segment2, data, updateEventNumber(clientId2, data.length), AppendProcessor.TIMEOUT);
+        result2.complete(null);
+        verify(connection).send(new DataAppended(clientId1, data.length));
+        verify(connection).send(new DataAppended(clientId2, data.length));
+    }
+
+    @Test
+    public void testConnectionDropped() {
+        String streamSegmentName = "testConnectionDropped";
+        UUID clientId = UUID.randomUUID();
+        byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
+        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        ServerConnection connection = mock(ServerConnection.class);
+        AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor());
+
+        setupGetStreamSegmentInfo(streamSegmentName, clientId, store);
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        when(store.append(streamSegmentName, data, updateEventNumber(clientId, 1), AppendProcessor.TIMEOUT))
+                .thenReturn(result);
+
+        processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName));
+        ByteBuf outstanding = Unpooled.directBuffer().writeBytes(data);
+        ByteBuf waiting = Unpooled.directBuffer().writeBytes(data);
+        processor.append(new Append(streamSegmentName, clientId, 1, outstanding, null));
+        processor.append(new Append(streamSegmentName, clientId, 2, waiting, null));
+        assertEquals("Data was not released once written.", 0, outstanding.refCnt());
+        assertEquals(1, waiting.refCnt());
+
+        processor.connectionDropped();
+        assertEquals("Waiting data was not released when the connection was dropped.", 0, waiting.refCnt());
+
+        // Completing the outstanding append must not write anything else.
+        result.complete(null);
+        verify(store).append(streamSegmentName, data, updateEventNumber(clientId, 1), AppendProcessor.TIMEOUT);
+        verify(store, atMost(1)).append(eq(streamSegmentName), any(byte[].class), any(), any());
+    }
+
     @Test
     public void testAppendFails() {
         String streamSegmentName = "testAppendSegment";
@@ -32,7 +32,11 @@ import java.io.ByteArrayInputStream;
 import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import lombok.Cleanup;
 import lombok.Data;
@@ -221,6 +225,48 @@ public class PravegaRequestProcessorTest {
         order.verify(connection).send(new WireCommands.SegmentDeleted(3, streamSegmentName));
     }
 
+    @Test(timeout = 20000)
+    public void testCreateSealSegments() throws Exception {
+        // Set up PravegaRequestProcessor instance to execute requests against.
+        String segment1 = "testCreateSealSegments1";
+        String segment2 = "testCreateSealSegments2";
+        String missing = "testCreateSealSegmentsMissing";
+        @Cleanup
+        ServiceBuilder serviceBuilder = newInlineExecutionInMemoryBuilder(getBuilderConfig());
+        serviceBuilder.initialize();
+        StreamSegmentStore store = serviceBuilder.createStreamSegmentService();
+        ServerConnection connection = mock(ServerConnection.class);
+        InOrder order = inOrder(connection);
+        PravegaRequestProcessor processor = new PravegaRequestProcessor(store, connection);
+
+        // Create both segments in one request, then again to check that the existing ones are reported as such.
+        processor.createSegments(new WireCommands.CreateSegments(1, Arrays.asList(segment1, segment2),
+                WireCommands.CreateSegment.NO_SCALE, 0));
+        assertTrue(append(segment1, 1, store));
+        assertTrue(append(segment2, 1, store));
+        processor.createSegments(new WireCommands.CreateSegments(2, Arrays.asList(segment1),
+                WireCommands.CreateSegment.NO_SCALE, 0));
+
+        // Seal one segment on its own and then all of them together.
+        processor.sealSegment(new WireCommands.SealSegment(3, segment1));
+        processor.sealSegments(new WireCommands.SealSegments(4, Arrays.asList(segment1, segment2, missing)));
+        assertFalse(append(segment1, 2, store));
+        assertFalse(append(segment2, 2, store));
+
+        Map<String, WireCommands.SegmentResult> created = new LinkedHashMap<>();
+        created.put(segment1, WireCommands.SegmentResult.SUCCESS);
+        created.put(segment2, WireCommands.SegmentResult.SUCCESS);
+        Map<String, WireCommands.SegmentResult> sealed = new LinkedHashMap<>();
+        sealed.put(segment1, WireCommands.SegmentResult.IS_SEALED);
+        sealed.put(segment2, WireCommands.SegmentResult.SUCCESS);
+        sealed.put(missing, WireCommands.SegmentResult.NO_SUCH_SEGMENT);
+        order.verify(connection).send(new WireCommands.SegmentsCreated(1, created));
+        order.verify(connection).send(new WireCommands.SegmentsCreated(2,
+                Collections.singletonMap(segment1, WireCommands.SegmentResult.ALREADY_EXISTS)));
+        order.verify(connection).send(new WireCommands.SegmentSealed(3, segment1));
+        order.verify(connection).send(new WireCommands.SegmentsSealed(4, sealed));
+    }
+
     private boolean append(String streamSegmentName, int number, StreamSegmentStore store) {
         return FutureHelpers.await(store.append(streamSegmentName,
                 new byte[]{(byte) number},
@@ -121,6 +121,14 @@ public interface ReadIndex extends AutoCloseable {
      */
     void cleanup(Iterator<Long> segmentIds);
 
+    /**
+     * Gets a value indicating how much of the Cache backing this ReadIndex is currently used, as a fraction of its
+     * capacity. A value of 1 or above means that the Cache is full.
+     *
+     * @return The Cache utilization.
+     */
+    double getCacheUtilization();
+
     /**
      * Puts the ReadIndex in Recovery Mode. Some operations may not be available in Recovery Mode.
      *
@@ -31,7 +31,12 @@ public class DataFrame {
     //region Members
 
     static final int MIN_ENTRY_LENGTH_NEEDED = EntryHeader.HEADER_SIZE + 1;
+    /**
+     * The maximum number of Data Frames that may be written between a Data Frame and the one it declares as its previous.
+     */
+    static final int MAX_FRAMES_SINCE_PREVIOUS = 1024;
     private static final byte CURRENT_VERSION = 0;
+    private static final byte PIPELINED_VERSION = 1; // Only used for frames that do not directly follow their previous frame.
     private final ByteArraySegment data;
     private FrameHeader header;
     private ByteArraySegment contents;
@@ -57,12 +62,30 @@ public class DataFrame {
      * @throws IllegalArgumentException When the value for startMagic is invalid.
      */
     public DataFrame(long previousFrameSequence, int maxSize) {
+        this(previousFrameSequence, 0, maxSize);
+    }
+
+    /**
+     * Creates a new instance of the DataFrame class with given maximum size and start magic value, which will be written
+     * to the log after other Data Frames that were written after the previous one, but whose Sequence is not yet known.
+     *
+     * @param previousFrameSequence The offset (within the log) of the last Data Frame whose Sequence is known.
+     * @param framesSincePrevious   The number of Data Frames that will be in the log between the one at previousFrameSequence
+     *                              and this one. When reading, this allows matching previousFrameSequence with the
+     *                              exact frame that this one claims to follow.
+     * @param maxSize               The maximum size of the frame, including Frame Header and other control structures
+     *                              that the frame may use to organize records.
+     * @throws IllegalArgumentException When the value for framesSincePrevious is invalid.
+     */
+    public DataFrame(long previousFrameSequence, int framesSincePrevious, int maxSize) {
+        Exceptions.checkArgument(framesSincePrevious >= 0 && framesSincePrevious <= MAX_FRAMES_SINCE_PREVIOUS, "framesSincePrevious",
+                "Must be a value between 0 and %d.", MAX_FRAMES_SINCE_PREVIOUS);
         this.data = new ByteArraySegment(new byte[maxSize]);
         this.writeEntryStartIndex = -1;
         this.writePosition = 0;
         this.sealed = false;
 
-        formatForWriting(previousFrameSequence);
+        formatForWriting(previousFrameSequence, framesSincePrevious);
     }
 
     /**
@@ -125,6 +148,14 @@ public class DataFrame {
         return this.header.getPreviousFrameSequence();
     }
 
+    /**
+     * Gets a value indicating the number of Data Frames between the Frame at getPreviousFrameSequence() and this one. This
+     * is 0 unless the frame was written while other Data Frames were still in flight.
+     */
+    int getFramesSincePrevious() {
+        return this.header.getFramesSincePrevious();
+    }
+
     /**
      * Gets a value indicating the length, in bytes, of the frame, including the header, contents and any other control
      * structures needed to serialize the frame.
@@ -297,15 +328,19 @@ public class DataFrame {
     /**
      * Formats the DataFrame buffer for writing. Creates a FrameHeader and assigns a content.
      */
-    private void formatForWriting(long previousFrameSequence) {
+    private void formatForWriting(long previousFrameSequence, int framesSincePrevious) {
         Preconditions.checkState(this.header == null && this.contents == null, "DataFrame already contains data; cannot re-format.");
 
+        // Only use the newer version if we have to, so that frames written one at a time can be read by older versions.
+        byte version = framesSincePrevious == 0 ? CURRENT_VERSION : PIPELINED_VERSION;
+        int headerLength = FrameHeader.getSerializationLength(version);
+
         //We want to use the DataFrame for at least 1 byte of data.
         int sourceLength = this.data.getLength();
-        Exceptions.checkArgument(sourceLength > FrameHeader.SERIALIZATION_LENGTH, "data", "Insufficient array length. Byte array must have a length of at least %d.", FrameHeader.SERIALIZATION_LENGTH + 1);
+        Exceptions.checkArgument(sourceLength > headerLength, "data", "Insufficient array length. Byte array must have a length of at least %d.", headerLength + 1);
 
-        this.header = new FrameHeader(CURRENT_VERSION, previousFrameSequence, this.data.subSegment(0, FrameHeader.SERIALIZATION_LENGTH));
-        this.contents = this.data.subSegment(FrameHeader.SERIALIZATION_LENGTH, sourceLength - FrameHeader.SERIALIZATION_LENGTH);
+        this.header = new FrameHeader(version, previousFrameSequence, framesSincePrevious, this.data.subSegment(0, headerLength));
+        this.contents = this.data.subSegment(headerLength, sourceLength - headerLength);
     }
 
     private void ensureAppendConditions() {
@@ -475,7 +510,9 @@ public class DataFrame {
         //region Members
 
         static final int SERIALIZATION_LENGTH = Byte.BYTES + Long.BYTES + Integer.BYTES + Byte.BYTES;
+        private static final int PIPELINED_SERIALIZATION_LENGTH = SERIALIZATION_LENGTH + Integer.BYTES;
         private final long previousFrameSequence;
+        private final int framesSincePrevious;
         private final byte version;
         private int contentLength;
         private int actualSerializationLength;
@@ -490,16 +527,21 @@ public class DataFrame {
          *
          * @param version               The serialization version for the frame.
          * @param previousFrameSequence The Sequence Number in the Log for the previous Frame.
+         * @param framesSincePrevious   The number of Frames between the previous Frame and this one. Must be 0 if version
+         *                              is less than PIPELINED_VERSION.
          * @param target                The target buffer where to write frame contents.
          * @throws NullPointerException     If the target buffer is null.
          * @throws IllegalArgumentException If the target buffer has an incorrect length.
          */
-        FrameHeader(byte version, long previousFrameSequence, ByteArraySegment target) {
-            Exceptions.checkArgument(target.getLength() == SERIALIZATION_LENGTH, "target", "Unexpected length for target buffer. Expected %d, given %d.", SERIALIZATION_LENGTH, target.getLength());
+        FrameHeader(byte version, long previousFrameSequence, int framesSincePrevious, ByteArraySegment target) {
+            int expectedLength = getSerializationLength(version);
+            Exceptions.checkArgument(target.getLength() == expectedLength, "target", "Unexpected length for target buffer. Expected %d, given %d.", expectedLength, target.getLength());
+            assert version >= PIPELINED_VERSION || framesSincePrevious == 0 : "framesSincePrevious cannot be serialized with version " + version;
 
             this.version = version;
             this.previousFrameSequence = previousFrameSequence;
-            this.actualSerializationLength = SERIALIZATION_LENGTH;
+            this.framesSincePrevious = framesSincePrevious;
+            this.actualSerializationLength = expectedLength;
             this.contentLength = 0;
             this.buffer = target;
         }
@@ -518,13 +560,20 @@ public class DataFrame {
             int sourceOffset = 0;
             this.version = source.get(sourceOffset);
             sourceOffset += Byte.BYTES;
-            this.actualSerializationLength = SERIALIZATION_LENGTH; // This will change based on serialization version.
+            this.actualSerializationLength = getSerializationLength(this.version);
             if (source.getLength() < this.actualSerializationLength) {
                 throw new SerializationException("DataFrame.Header.deserialize", "DataFrame.Header has insufficient number of bytes given its serialization version.");
             }
 
             this.previousFrameSequence = BitConverter.readLong(source, sourceOffset);
             sourceOffset += Long.BYTES;
+            if (this.version >= PIPELINED_VERSION) {
+                this.framesSincePrevious = readInt(source, sourceOffset);
+                sourceOffset += Integer.BYTES;
+            } else {
+                this.framesSincePrevious = 0;
+            }
+
             this.contentLength = readInt(source, sourceOffset);
             sourceOffset += Integer.BYTES;
             byte flags = source.get(sourceOffset);
@@ -543,13 +592,17 @@ public class DataFrame {
          */
         public void commit() {
             Preconditions.checkState(this.buffer != null && !this.buffer.isReadOnly(), "Cannot commit a read-only FrameHeader");
-            assert this.buffer.getLength() == SERIALIZATION_LENGTH;
+            assert this.buffer.getLength() == this.actualSerializationLength;
 
             // We already checked the size of the target buffer (in the constructor); no need to do it here again.
             int bufferOffset = 0;
             this.buffer.set(bufferOffset, this.version);
             bufferOffset += Byte.BYTES;
             bufferOffset += BitConverter.writeLong(this.buffer, bufferOffset, this.previousFrameSequence);
+            if (this.version >= PIPELINED_VERSION) {
+                bufferOffset += writeInt(this.buffer, bufferOffset, this.framesSincePrevious);
+            }
+
             bufferOffset += writeInt(this.buffer, bufferOffset, this.contentLength);
             this.buffer.set(bufferOffset, encodeFlags());
         }
@@ -561,6 +614,13 @@ public class DataFrame {
             return this.previousFrameSequence;
         }
 
+        /**
+         * Gets a value indicating the number of Frames in the Log between the previous Frame and this one.
+         */
+        int getFramesSincePrevious() {
+            return this.framesSincePrevious;
+        }
+
         /**
          * Gets a value indicating the Serialization Version for the frame.
          */
@@ -591,7 +651,15 @@ public class DataFrame {
 
         @Override
         public String toString() {
-            return String.format("Version = %d, PrevOffset = %d, ContentLength = %d", getVersion(), getPreviousFrameSequence(), getContentLength());
+            return String.format("Version = %d, PrevOffset = %d, FramesSincePrev = %d, ContentLength = %d", getVersion(), getPreviousFrameSequence(),
+                    getFramesSincePrevious(), getContentLength());
+        }
+
+        /**
+         * Gets a value indicating the number of bytes used for serializing a FrameHeader with the given version.
+         */
+        static int getSerializationLength(byte version) {
+            return version >= PIPELINED_VERSION ? PIPELINED_SERIALIZATION_LENGTH : SERIALIZATION_LENGTH;
         }
 
         private void decodeFlags(byte flags, byte version) {
@@ -11,21 +11,37 @@ package io.pravega.service.server.logs;
 
 import io.pravega.common.ExceptionHelpers;
 import io.pravega.common.Exceptions;
+import io.pravega.common.concurrent.FutureHelpers;
 import io.pravega.common.function.CallbackHelpers;
 import io.pravega.common.function.ConsumerWithException;
+import io.pravega.service.server.DataCorruptionException;
 import io.pravega.service.server.LogItem;
 import io.pravega.service.storage.DurableDataLog;
 import io.pravega.service.storage.LogAddress;
 import com.google.common.base.Preconditions;
+import javax.annotation.concurrent.GuardedBy;
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 
 /**
  * Builds DataFrames from LogItems. Splits the serialization of LogItems across multiple Data Frames, if necessary,
  * and publishes the finished Data Frames to the given DataFrameLog.
+ * <p>
+ * Up to a configurable number of Data Frames may be in flight to the DataFrameLog at any given time. Regardless of the
+ * order in which the DataFrameLog acknowledges them, the outcome of each Data Frame is reported to the commit callbacks
+ * in the order in which the Data Frames were published. The success callbacks are invoked one at a time on the given
+ * callback Executor, and never while holding the lock that the appending thread waits on. If a Data Frame fails to commit, no further Data Frames are
+ * published, the ones already in flight are waited for and the failure is reported (once) on the thread that invokes
+ * append() or close(). If any of the Data Frames published after the failed one did make it into the DataFrameLog, the
+ * DataFrameLog has a gap that cannot be repaired, so the failure is reported as a DataCorruptionException.
  */
 @Slf4j
 class DataFrameBuilder<T extends LogItem> implements AutoCloseable {
@@ -34,8 +50,27 @@ class DataFrameBuilder<T extends LogItem> implements AutoCloseable {
     private static final Duration DATA_FRAME_WRITE_TIMEOUT = Duration.ofSeconds(30); // TODO: actual timeout.
     private final DataFrameOutputStream outputStream;
     private final DurableDataLog targetLog;
+    private final int maxOutstandingFrames;
+    private final Runnable dataFrameSealedCallback;
     private final ConsumerWithException<DataFrameCommitArgs, Exception> dataFrameCommitSuccessCallback;
-    private final Consumer<Throwable> dataFrameCommitFailureCallback;
+    private final Consumer<DataFrameCommitFailureArgs> dataFrameCommitFailureCallback;
+    private final Executor callbackExecutor;
+    @GuardedBy("outstandingFrames")
+    private final ArrayDeque<PendingDataFrame> outstandingFrames;
+    @GuardedBy("outstandingFrames")
+    private final ArrayDeque<PendingDataFrame> committedFrames;
+    @GuardedBy("outstandingFrames")
+    private boolean acknowledging;
+    @GuardedBy("outstandingFrames")
+    private boolean acknowledgementFailed;
+    @GuardedBy("outstandingFrames")
+    private long lastCommittedFrameSequence;
+    @GuardedBy("outstandingFrames")
+    private Throwable commitFailure;
+    @GuardedBy("outstandingFrames")
+    private long commitFailureLastStartedSequenceNumber;
+    @GuardedBy("outstandingFrames")
+    private boolean committedAfterFailure;
     private boolean closed;
     private long lastSerializedSequenceNumber;
     private long lastStartedSequenceNumber;
@@ -45,7 +80,8 @@ class DataFrameBuilder<T extends LogItem> implements AutoCloseable {
     //region Constructor
 
     /**
-     * Creates a new instance of the DataFrameBuilder class.
+     * Creates a new instance of the DataFrameBuilder class which publishes one Data Frame at a time and invokes the
+     * callbacks on the thread that completes the commit of each Data Frame.
      *
      * @param targetLog                      The DurableDataLog to publish completed Data Frames to.
      * @param dataFrameCommitSuccessCallback A callback that will be invoked upon every successful commit of a Data Frame.
@@ -57,33 +93,86 @@ class DataFrameBuilder<T extends LogItem> implements AutoCloseable {
      * @throws NullPointerException If any of the arguments are null.
      */
     DataFrameBuilder(DurableDataLog targetLog, ConsumerWithException<DataFrameCommitArgs, Exception> dataFrameCommitSuccessCallback, Consumer<Throwable> dataFrameCommitFailureCallback) {
+        this(targetLog, 1, () -> {
+        }, dataFrameCommitSuccessCallback, failureCauseCallback(dataFrameCommitFailureCallback), Runnable::run);
+    }
+
+    /**
+     * Creates a new instance of the DataFrameBuilder class.
+     *
+     * @param targetLog                      The DurableDataLog to publish completed Data Frames to.
+     * @param maxOutstandingFrames           The maximum number of Data Frames that can be published but not yet acknowledged
+     *                                       at any given time. If this limit is reached, append() will block until the
+     *                                       oldest Data Frame has been acknowledged.
+     * @param dataFrameSealedCallback        A callback that will be invoked every time a Data Frame is sealed, just before
+     *                                       it is published. All entries added via append() prior to this call are part of
+     *                                       this Data Frame (or of a previous one).
+     * @param dataFrameCommitSuccessCallback A callback that will be invoked upon every successful commit of a Data Frame,
+     *                                       in the order in which the Data Frames were published. When this is called, all
+     *                                       entries added via append() that were successful have been 100% committed.
+     *                                       In-flight entries (that have been written partially) should not be acked.
+     * @param dataFrameCommitFailureCallback A callback that will be invoked upon a failed commit of a Data Frame, after
+     *                                       all the Data Frames in flight have completed. See DataFrameCommitFailureArgs
+     *                                       for which entries added via append() have failed to commit. The in-flight
+     *                                       entries will be failed via the append() method.
+     * @param callbackExecutor               An Executor to invoke the dataFrameCommitSuccessCallback on.
+     * @throws NullPointerException     If any of the arguments are null.
+     * @throws IllegalArgumentException If maxOutstandingFrames is not between 1 and DataFrame.MAX_FRAMES_SINCE_PREVIOUS + 1.
+     */
+    DataFrameBuilder(DurableDataLog targetLog, int maxOutstandingFrames, Runnable dataFrameSealedCallback,
+                     ConsumerWithException<DataFrameCommitArgs, Exception> dataFrameCommitSuccessCallback, Consumer<DataFrameCommitFailureArgs> dataFrameCommitFailureCallback,
+                     Executor callbackExecutor) {
         Preconditions.checkNotNull(targetLog, "targetLog");
+        Exceptions.checkArgument(maxOutstandingFrames > 0 && maxOutstandingFrames <= DataFrame.MAX_FRAMES_SINCE_PREVIOUS + 1, "maxOutstandingFrames",
+                "Must be a value between 1 and %d.", DataFrame.MAX_FRAMES_SINCE_PREVIOUS + 1);
+        Preconditions.checkNotNull(dataFrameSealedCallback, "dataFrameSealedCallback");
         Preconditions.checkNotNull(dataFrameCommitFailureCallback, "dataFrameCommitFailureCallback");
         Preconditions.checkNotNull(dataFrameCommitSuccessCallback, "dataFrameCommitSuccessCallback");
+        Preconditions.checkNotNull(callbackExecutor, "callbackExecutor");
 
         this.targetLog = targetLog;
-        this.outputStream = new DataFrameOutputStream(targetLog.getMaxAppendLength(), targetLog::getLastAppendSequence, this::handleDataFrameComplete);
+        this.maxOutstandingFrames = maxOutstandingFrames;
+        this.outputStream = new DataFrameOutputStream(targetLog.getMaxAppendLength(), this::createDataFrame, this::handleDataFrameComplete);
+        this.outstandingFrames = new ArrayDeque<>();
+        this.committedFrames = new ArrayDeque<>();
+        this.lastCommittedFrameSequence = targetLog.getLastAppendSequence();
         this.lastSerializedSequenceNumber = -1;
         this.lastStartedSequenceNumber = -1;
+        this.dataFrameSealedCallback = dataFrameSealedCallback;
         this.dataFrameCommitSuccessCallback = dataFrameCommitSuccessCallback;
         this.dataFrameCommitFailureCallback = dataFrameCommitFailureCallback;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    private static Consumer<DataFrameCommitFailureArgs> failureCauseCallback(Consumer<Throwable> dataFrameCommitFailureCallback) {
+        Preconditions.checkNotNull(dataFrameCommitFailureCallback, "dataFrameCommitFailureCallback");
+        return failureArgs -> dataFrameCommitFailureCallback.accept(failureArgs.getCause());
     }
 
     //endregion
 
     //region AutoCloseable Implementation
 
+    /**
+     * Seals and publishes the current Data Frame (if any) and waits for all outstanding Data Frames to be acknowledged.
+     *
+     * @throws IOException If any of the outstanding Data Frames failed to commit.
+     */
     @Override
     public void close() throws IOException {
         if (!this.closed) {
             // Stop accepting any new items.
             this.closed = true;
 
-            // Seal & ship whatever frame we currently have (if any).
-            this.outputStream.flush();
-
-            // Close the underlying stream (which destroys whatever we have in flight - but there shouldn't be any at this point).
-            this.outputStream.close();
+            try {
+                // Seal & ship whatever frame we currently have (if any), then wait for everything to be acknowledged.
+                this.outputStream.flush();
+                awaitOutstandingFrames(0);
+                handleCommitFailure();
+            } finally {
+                // Close the underlying stream (which destroys whatever we have in flight - but there shouldn't be any at this point).
+                this.outputStream.close();
+            }
         }
     }
 
@@ -92,7 +181,7 @@ class DataFrameBuilder<T extends LogItem> implements AutoCloseable {
     //region Operations
 
     /**
-     * Resets the DataFrameBuilder to its initial state.
+     * Resets the DataFrameBuilder to its initial state. Data Frames that are already in flight are not affected.
      */
     public void reset() {
         this.lastSerializedSequenceNumber = -1;
@@ -112,7 +201,7 @@ class DataFrameBuilder<T extends LogItem> implements AutoCloseable {
      * @param logItem The LogItem to append.
      * @throws NullPointerException If logItem is null.
      * @throws IOException          If the LogItem failed to serialize to the DataLog, or if one of the DataFrames containing
-     *                              the LogItem failed to commit to the DataFrameLog.
+     *                              the LogItem (or preceding it) failed to commit to the DataFrameLog.
      */
     public void append(T logItem) throws IOException {
         Exceptions.checkNotClosed(this.closed, this);
@@ -141,42 +230,253 @@ class DataFrameBuilder<T extends LogItem> implements AutoCloseable {
         this.outputStream.endRecord();
     }
 
+    /**
+     * Creates a new Data Frame that follows the last committed one and all the ones that are currently in flight.
+     *
+     * @param maxSize The maximum size of the Data Frame.
+     * @return The new Data Frame.
+     */
+    private DataFrame createDataFrame(int maxSize) {
+        synchronized (this.outstandingFrames) {
+            // Every Data Frame in flight will precede this one in the DataFrameLog, but we do not know their sequences yet.
+            return new DataFrame(this.lastCommittedFrameSequence, this.outstandingFrames.size(), maxSize);
+        }
+    }
+
     /**
      * Publishes a data frame to the DataFrameLog. The outcome of the publish operation, whether success or failure, is
-     * routed to the appropriate callback handlers given in this constructor.
+     * routed to the appropriate callback handlers given in this constructor. If the maximum number of outstanding Data
+     * Frames has been reached, this method blocks until the oldest one of them has been acknowledged.
      *
      * @param dataFrame The data frame to publish.
      * @throws NullPointerException     If the data frame is null.
      * @throws IllegalArgumentException If the data frame is not sealed.
-     * @throws IOException              When the DataFrame could not be committed.
+     * @throws IOException              When the DataFrame (or one of the DataFrames published before it) could not be committed.
      */
     private void handleDataFrameComplete(DataFrame dataFrame) throws IOException {
         Exceptions.checkArgument(dataFrame.isSealed(), "dataFrame", "Cannot publish a non-sealed DataFrame.");
 
-        // Write DataFrame to DataFrameLog.
-        try {
-            LogAddress logAddress = this.targetLog.append(dataFrame.getData(), DATA_FRAME_WRITE_TIMEOUT).get();
+        // If a previous DataFrame failed to commit, there is no point in publishing this one, since the DataFrameLog will
+        // not have whatever came before it.
+        handleCommitFailure();
 
-            // Need to assign the DataFrameSequence that we got back from the DataLog. This is used to record truncation markers.
-            dataFrame.setAddress(logAddress);
-            assert dataFrame.getPreviousFrameSequence() < logAddress.getSequence() : "DataLog assigned non-monotonic sequence number";
-        } catch (Exception ex) {
-            Throwable realException = ExceptionHelpers.getRealException(ex);
-            // This failure is due to us being unable to commit the DataFrame; this means the entire DataFrame has to be discarded.
-            // The Target Log did try to repeat, but we need to admit failure now.
-            this.outputStream.reset();
-            CallbackHelpers.invokeSafely(this.dataFrameCommitFailureCallback, realException, cex -> log.error("dataFrameCommitFailureCallback FAILED.", cex));
-
-            // Even though we invoked the dataFrameCommitFailureCallback() - which was for the DurableLog to handle,
-            // we still need to fail the current call, which most likely leads to failing the LogItem that triggered this.
-            throw new IOException(realException);
+        this.dataFrameSealedCallback.run();
+        PendingDataFrame pendingFrame = new PendingDataFrame(this.lastSerializedSequenceNumber, this.lastStartedSequenceNumber, dataFrame);
+        synchronized (this.outstandingFrames) {
+            this.outstandingFrames.addLast(pendingFrame);
         }
 
+        // Write DataFrame to DataFrameLog.
+        CompletableFuture<LogAddress> appendFuture;
         try {
-            this.dataFrameCommitSuccessCallback.accept(new DataFrameCommitArgs(this.lastSerializedSequenceNumber, this.lastStartedSequenceNumber, dataFrame));
+            appendFuture = this.targetLog.append(dataFrame.getData(), DATA_FRAME_WRITE_TIMEOUT);
         } catch (Exception ex) {
-            CallbackHelpers.invokeSafely(this.dataFrameCommitFailureCallback, ex, cex -> log.error("dataFrameCommitFailureCallback FAILED.", cex));
-            throw new IOException(ex);
+            appendFuture = FutureHelpers.failedFuture(ex);
+        }
+
+        appendFuture.whenComplete((logAddress, ex) -> handleDataFrameCommitted(pendingFrame, logAddress, ex));
+
+        // Do not return until we have room for another DataFrame. If anything failed in the meantime, report it now.
+        awaitOutstandingFrames(this.maxOutstandingFrames - 1);
+        handleCommitFailure();
+    }
+
+    /**
+     * Records the outcome of publishing a Data Frame and queues up, for acknowledgement, all the Data Frames at the head
+     * of the outstanding list that have been committed. The dataFrameCommitSuccessCallback is not invoked from here, as
+     * this is called on the DataFrameLog's completion thread while the appending thread may be waiting on the same lock.
+     *
+     * @param pendingFrame The Data Frame whose outcome is known.
+     * @param logAddress   The LogAddress where the Data Frame was committed, or null if the commit failed.
+     * @param ex           The failure cause, or null if the commit was successful.
+     */
+    private void handleDataFrameCommitted(PendingDataFrame pendingFrame, LogAddress logAddress, Throwable ex) {
+        boolean startAcknowledging;
+        synchronized (this.outstandingFrames) {
+            pendingFrame.setResult(logAddress, ex == null ? null : ExceptionHelpers.getRealException(ex));
+
+            // Collect, in order, every DataFrame that is done and is not preceded by one that is still in flight.
+            while (!this.outstandingFrames.isEmpty() && this.outstandingFrames.peekFirst().isDone()) {
+                PendingDataFrame frame = this.outstandingFrames.removeFirst();
+                if (this.commitFailure != null) {
+                    // A DataFrame prior to this one has failed; we cannot acknowledge anything after it. But if this one
+                    // did make it into the DataFrameLog, then the DataFrameLog is missing data that this one depends on.
+                    this.committedAfterFailure |= frame.failure == null;
+                    continue;
+                }
+
+                if (frame.failure != null) {
+                    // This failure is due to us being unable to commit the DataFrame; this means the entire DataFrame has
+                    // to be discarded, along with everything after it. The Target Log did try to repeat, but we need to
+                    // admit failure now.
+                    this.commitFailure = frame.failure;
+                    this.commitFailureLastStartedSequenceNumber = frame.lastStartedSequenceNumber;
+                    continue;
+                }
+
+                this.lastCommittedFrameSequence = frame.dataFrame.getAddress().getSequence();
+                this.committedFrames.addLast(frame);
+            }
+
+            // Only one acknowledgement task may run at any given time, so that the callbacks are invoked in order.
+            startAcknowledging = !this.acknowledging && !this.committedFrames.isEmpty();
+            this.acknowledging |= startAcknowledging;
+            this.outstandingFrames.notifyAll();
+        }
+
+        if (startAcknowledging) {
+            try {
+                this.callbackExecutor.execute(this::acknowledgeCommittedFrames);
+            } catch (RejectedExecutionException rex) {
+                // We are no longer holding the lock, so it is safe to do it here; the appending thread waits for it.
+                acknowledgeCommittedFrames();
+            }
+        }
+    }
+
+    /**
+     * Invokes the dataFrameCommitSuccessCallback, in order, for every Data Frame that is queued up for acknowledgement,
+     * until there are no more of them. A Data Frame stays in the queue (and counts as outstanding) until its callback
+     * has completed.
+     */
+    private void acknowledgeCommittedFrames() {
+        while (true) {
+            PendingDataFrame frame;
+            boolean skip;
+            synchronized (this.outstandingFrames) {
+                frame = this.committedFrames.peekFirst();
+                if (frame == null) {
+                    this.acknowledging = false;
+                    this.outstandingFrames.notifyAll();
+                    return;
+                }
+
+                skip = this.acknowledgementFailed;
+                if (skip) {
+                    // A DataFrame prior to this one could not be processed; this one was committed after it.
+                    this.committedAfterFailure = true;
+                }
+            }
+
+            if (!skip) {
+                try {
+                    this.dataFrameCommitSuccessCallback.accept(frame.getCommitArgs());
+                } catch (Exception callbackEx) {
+                    // The DataFrame is committed, but we could not process it; nothing after it can be acknowledged either.
+                    synchronized (this.outstandingFrames) {
+                        this.acknowledgementFailed = true;
+                        this.commitFailure = callbackEx;
+                        this.commitFailureLastStartedSequenceNumber = frame.lastStartedSequenceNumber;
+                    }
+                }
+            }
+
+            synchronized (this.outstandingFrames) {
+                this.committedFrames.removeFirst();
+                this.outstandingFrames.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Blocks until the number of Data Frames that are in flight or waiting to be acknowledged is at most the given value.
+     *
+     * @param maxCount The maximum number of Data Frames that can remain in flight or unacknowledged.
+     * @throws IOException If the current thread was interrupted while waiting.
+     */
+    private void awaitOutstandingFrames(int maxCount) throws IOException {
+        synchronized (this.outstandingFrames) {
+            while (this.outstandingFrames.size() + this.committedFrames.size() > maxCount) {
+                try {
+                    this.outstandingFrames.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * If a Data Frame failed to commit, waits for all other Data Frames in flight to complete (their outcome will be
+     * ignored), discards the current Data Frame and invokes the dataFrameCommitFailureCallback.
+     *
+     * @throws IOException             If a Data Frame failed to commit.
+     * @throws DataCorruptionException If a Data Frame failed to commit, but at least one Data Frame published after it
+     *                                 was committed. This exception is not declared, but it is not wrapped either.
+     */
+    @SneakyThrows(DataCorruptionException.class)
+    private void handleCommitFailure() throws IOException {
+        synchronized (this.outstandingFrames) {
+            if (this.commitFailure == null) {
+                // Nothing to do.
+                return;
+            }
+        }
+
+        // Wait for everything else to come back; we must not acknowledge anything that is written after a failed DataFrame,
+        // and we need to know whether any of it made it into the DataFrameLog.
+        awaitOutstandingFrames(0);
+        DataFrameCommitFailureArgs failureArgs;
+        synchronized (this.outstandingFrames) {
+            failureArgs = new DataFrameCommitFailureArgs(this.commitFailure, this.commitFailureLastStartedSequenceNumber, this.committedAfterFailure);
+            this.commitFailure = null;
+            this.committedAfterFailure = false;
+            this.acknowledgementFailed = false;
+        }
+
+        this.outputStream.reset();
+        CallbackHelpers.invokeSafely(this.dataFrameCommitFailureCallback, failureArgs, cex -> log.error("dataFrameCommitFailureCallback FAILED.", cex));
+
+        if (failureArgs.isSubsequentFrameCommitted()) {
+            // The DataFrameLog now contains DataFrames that depend on one that is not in it. Nothing we write after this
+            // can fix that, so whoever is using us must stop.
+            throw new DataCorruptionException(String.format("A DataFrame failed to commit, but at least one DataFrame written after it was committed. LastStartedSequenceNumber = %d.",
+                    failureArgs.getLastStartedSequenceNumber()), failureArgs.getCause());
+        }
+
+        // Even though we invoked the dataFrameCommitFailureCallback() - which was for the DurableLog to handle,
+        // we still need to fail the current call, which most likely leads to failing the LogItem that triggered this.
+        throw new IOException(failureArgs.getCause());
+    }
+
+    //endregion
+
+    //region PendingDataFrame
+
+    /**
+     * A Data Frame that has been published to the DataFrameLog but whose outcome has not yet been reported.
+     */
+    private static class PendingDataFrame {
+        private final long lastFullySerializedSequenceNumber;
+        private final long lastStartedSequenceNumber;
+        private final DataFrame dataFrame;
+        private boolean done;
+        private Throwable failure;
+
+        PendingDataFrame(long lastFullySerializedSequenceNumber, long lastStartedSequenceNumber, DataFrame dataFrame) {
+            this.lastFullySerializedSequenceNumber = lastFullySerializedSequenceNumber;
+            this.lastStartedSequenceNumber = lastStartedSequenceNumber;
+            this.dataFrame = dataFrame;
+        }
+
+        void setResult(LogAddress logAddress, Throwable failure) {
+            if (failure == null) {
+                // Need to assign the DataFrameSequence that we got back from the DataLog. This is used to record truncation markers.
+                this.dataFrame.setAddress(logAddress);
+                assert this.dataFrame.getPreviousFrameSequence() < logAddress.getSequence() : "DataLog assigned non-monotonic sequence number";
+            }
+
+            this.failure = failure;
+            this.done = true;
+        }
+
+        boolean isDone() {
+            return this.done;
+        }
+
+        DataFrameCommitArgs getCommitArgs() {
+            return new DataFrameCommitArgs(this.lastFullySerializedSequenceNumber, this.lastStartedSequenceNumber, this.dataFrame);
         }
     }
 
@@ -259,4 +559,53 @@ class DataFrameBuilder<T extends LogItem> implements AutoCloseable {
     }
 
     //endregion
+
+    //region DataFrameCommitFailureArgs
+
+    /**
+     * Contains information about a failure to commit a DataFrame.
+     */
+    static class DataFrameCommitFailureArgs {
+        private final Throwable cause;
+        private final long lastStartedSequenceNumber;
+        private final boolean subsequentFrameCommitted;
+
+        private DataFrameCommitFailureArgs(Throwable cause, long lastStartedSequenceNumber, boolean subsequentFrameCommitted) {
+            this.cause = cause;
+            this.lastStartedSequenceNumber = lastStartedSequenceNumber;
+            this.subsequentFrameCommitted = subsequentFrameCommitted;
+        }
+
+        /**
+         * Gets the cause of the failure.
+         */
+        Throwable getCause() {
+            return this.cause;
+        }
+
+        /**
+         * Gets a value indicating the Sequence Number of the last LogItem that was started in the DataFrame that failed.
+         * All the LogItems appended after the last acknowledged one, up to and including this one, have failed to commit.
+         */
+        long getLastStartedSequenceNumber() {
+            return this.lastStartedSequenceNumber;
+        }
+
+        /**
+         * Gets a value indicating whether any DataFrame published after the one that failed has been committed. If false,
+         * every LogItem that has not been acknowledged has failed to commit. If true, the outcome of the LogItems after
+         * getLastStartedSequenceNumber() is undetermined, since the DataFrameLog contains some of them but not the ones
+         * they follow.
+         */
+        boolean isSubsequentFrameCommitted() {
+            return this.subsequentFrameCommitted;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("LastStartedSN = %d, SubsequentFrameCommitted = %s, Cause = %s", this.lastStartedSequenceNumber, this.subsequentFrameCommitted, this.cause);
+        }
+    }
+
+    //endregion
 }
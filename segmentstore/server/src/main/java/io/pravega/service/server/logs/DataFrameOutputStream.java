@@ -16,6 +16,7 @@ import com.google.common.base.Preconditions;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
 /**
@@ -26,7 +27,7 @@ class DataFrameOutputStream extends OutputStream {
     //region Members
 
     private final int maxDataFrameSize;
-    private final Supplier<Long> getPreviousFrameSequence;
+    private final IntFunction<DataFrame> createDataFrame;
     private final ConsumerWithException<DataFrame, IOException> dataFrameCompleteCallback;
     private DataFrame currentFrame;
     private boolean hasDataInCurrentFrame;
@@ -46,15 +47,34 @@ class DataFrameOutputStream extends OutputStream {
      * @throws NullPointerException     If any of the arguments are null.
      */
     public DataFrameOutputStream(int maxDataFrameSize, Supplier<Long> getPreviousFrameSequence, ConsumerWithException<DataFrame, IOException> dataFrameCompleteCallback) {
+        this(maxDataFrameSize, createDataFrameWithPrevious(getPreviousFrameSequence), dataFrameCompleteCallback);
+    }
+
+    /**
+     * Creates a new instance of the DataFrameOutputStream class.
+     *
+     * @param maxDataFrameSize          The maximum size, in bytes, of a Data Frame.
+     * @param createDataFrame           A method that creates a new (empty) Data Frame with the given maximum size. This is
+     *                                  invoked after the previous Data Frame has been handed off to dataFrameCompleteCallback.
+     * @param dataFrameCompleteCallback A callback that will be invoked when a Data Frame is full.
+     * @throws IllegalArgumentException If maxDataFrameSize is not a positive integer.
+     * @throws NullPointerException     If any of the arguments are null.
+     */
+    public DataFrameOutputStream(int maxDataFrameSize, IntFunction<DataFrame> createDataFrame, ConsumerWithException<DataFrame, IOException> dataFrameCompleteCallback) {
         Exceptions.checkArgument(maxDataFrameSize > 0, "maxDataFrameSize", "Must be a positive integer.");
-        Preconditions.checkNotNull(getPreviousFrameSequence, "getPreviousFrameSequence");
+        Preconditions.checkNotNull(createDataFrame, "createDataFrame");
         Preconditions.checkNotNull(dataFrameCompleteCallback, "dataFrameCompleteCallback");
 
         this.maxDataFrameSize = maxDataFrameSize;
-        this.getPreviousFrameSequence = getPreviousFrameSequence;
+        this.createDataFrame = createDataFrame;
         this.dataFrameCompleteCallback = dataFrameCompleteCallback;
     }
 
+    private static IntFunction<DataFrame> createDataFrameWithPrevious(Supplier<Long> getPreviousFrameSequence) {
+        Preconditions.checkNotNull(getPreviousFrameSequence, "getPreviousFrameSequence");
+        return maxSize -> new DataFrame(getPreviousFrameSequence.get(), maxSize);
+    }
+
     //endregion
 
     //region OutputStream Implementation
@@ -208,7 +228,7 @@ class DataFrameOutputStream extends OutputStream {
     private void createNewFrame() {
         Preconditions.checkState(this.currentFrame == null || this.currentFrame.isSealed(), "Cannot create a new frame if we currently have a non-sealed frame.");
 
-        this.currentFrame = new DataFrame(this.getPreviousFrameSequence.get(), this.maxDataFrameSize);
+        this.currentFrame = this.createDataFrame.apply(this.maxDataFrameSize);
         this.hasDataInCurrentFrame = false;
     }
 
@@ -23,7 +23,10 @@ import io.pravega.service.storage.DurableDataLogException;
 import io.pravega.service.storage.LogAddress;
 import java.io.InputStream;
 import java.io.SequenceInputStream;
+import java.util.ArrayDeque;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 
@@ -57,10 +60,29 @@ class DataFrameReader<T extends LogItem> implements CloseableIterator<DataFrameR
      * @throws DurableDataLogException If the given log threw an exception while initializing a Reader.
      */
     DataFrameReader(DurableDataLog log, LogItemFactory<T> logItemFactory, int containerId) throws DurableDataLogException {
+        this(log, logItemFactory, containerId, 0, null);
+    }
+
+    /**
+     * Creates a new instance of the DataFrameReader class which fetches DataFrames in the background, ahead of the
+     * Log Operations being requested.
+     *
+     * @param log            The DataFrameLog to read data frames from.
+     * @param logItemFactory A LogItemFactory to create LogItems upon deserialization.
+     * @param containerId    The Container Id for the DataFrameReader (used primarily for logging).
+     * @param prefetchCount  The maximum number of DataFrames to fetch (and parse) ahead of the ones being processed. If 0,
+     *                       DataFrames will only be fetched when needed.
+     * @param executor       An Executor to fetch DataFrames on. Can be null if prefetchCount is 0.
+     * @throws NullPointerException    If any of the arguments are null.
+     * @throws DurableDataLogException If the given log threw an exception while initializing a Reader.
+     */
+    DataFrameReader(DurableDataLog log, LogItemFactory<T> logItemFactory, int containerId, int prefetchCount, Executor executor) throws DurableDataLogException {
         Preconditions.checkNotNull(log, "log");
         Preconditions.checkNotNull(logItemFactory, "logItemFactory");
+        Preconditions.checkArgument(prefetchCount >= 0, "prefetchCount must be a non-negative integer.");
+        Preconditions.checkArgument(prefetchCount == 0 || executor != null, "executor must be provided if prefetchCount is positive.");
         this.traceObjectId = String.format("DataFrameReader[%d]", containerId);
-        this.frameContentsEnumerator = new FrameEntryEnumerator(log, traceObjectId);
+        this.frameContentsEnumerator = new FrameEntryEnumerator(log, prefetchCount, executor, traceObjectId);
         this.lastReadSequenceNumber = Operation.NO_SEQUENCE_NUMBER;
         this.logItemFactory = logItemFactory;
     }
@@ -362,7 +384,7 @@ class DataFrameReader<T extends LogItem> implements CloseableIterator<DataFrameR
         //region Members
 
         private final String traceObjectId;
-        private final DataFrameEnumerator dataFrameEnumerator;
+        private final CloseableIterator<DataFrame, Exception> dataFrameEnumerator;
         private CloseableIterator<DataFrame.DataFrameEntry, SerializationException> currentFrameContents;
 
         //endregion
@@ -372,13 +394,22 @@ class DataFrameReader<T extends LogItem> implements CloseableIterator<DataFrameR
         /**
          * Creates a new instance of the FrameEntryEnumerator class.
          *
-         * @param log The DataFrameLog to read from.
+         * @param log           The DataFrameLog to read from.
+         * @param prefetchCount The maximum number of DataFrames to fetch in the background. If 0, no prefetching is done.
+         * @param executor      An Executor to fetch DataFrames on.
          * @throws NullPointerException    If log is null.
          * @throws DurableDataLogException If the given log threw an exception while initializing a Reader.
          */
-        FrameEntryEnumerator(DurableDataLog log, String traceObjectId) throws DurableDataLogException {
+        FrameEntryEnumerator(DurableDataLog log, int prefetchCount, Executor executor, String traceObjectId) throws DurableDataLogException {
             this.traceObjectId = traceObjectId;
-            this.dataFrameEnumerator = new DataFrameEnumerator(log);
+            DataFrameEnumerator frames = new DataFrameEnumerator(log);
+            if (prefetchCount > 0) {
+                // Fetching and parsing DataFrames happens in the background, while the caller is processing the entries
+                // of the current DataFrame.
+                this.dataFrameEnumerator = new PrefetchingIterator<>(frames, prefetchCount, executor, traceObjectId);
+            } else {
+                this.dataFrameEnumerator = frames;
+            }
         }
 
         //endregion
@@ -448,6 +479,8 @@ class DataFrameReader<T extends LogItem> implements CloseableIterator<DataFrameR
         private static final long INITIAL_LAST_READ_FRAME_SEQUENCE = -1;
         private final DurableDataLog log;
         private long lastReadFrameSequence;
+        private final ArrayDeque<Long> recentFrameSequences;
+        private boolean recentFrameSequencesTrimmed;
         private CloseableIterator<DurableDataLog.ReadItem, DurableDataLogException> reader;
 
         //endregion
@@ -466,6 +499,7 @@ class DataFrameReader<T extends LogItem> implements CloseableIterator<DataFrameR
 
             this.log = log;
             this.lastReadFrameSequence = INITIAL_LAST_READ_FRAME_SEQUENCE;
+            this.recentFrameSequences = new ArrayDeque<>();
             if (this.reader == null) {
                 // We start from the beginning.
                 this.reader = this.log.getReader();
@@ -515,15 +549,50 @@ class DataFrameReader<T extends LogItem> implements CloseableIterator<DataFrameR
                 throw new DataCorruptionException(String.format("Found DataFrame out of order. Expected frame sequence greater than %d, found %d.", this.lastReadFrameSequence, sequence));
             }
 
-            if (this.lastReadFrameSequence != INITIAL_LAST_READ_FRAME_SEQUENCE && this.lastReadFrameSequence != frame.getPreviousFrameSequence()) {
-                // Previous Frame Sequence is not match what the Current Frame claims it is.
-                throw new DataCorruptionException(String.format("DataFrame with Sequence %d has a PreviousFrameSequence (%d) that does not match the previous DataFrame FrameSequence (%d).", sequence, frame.getPreviousFrameSequence(), this.lastReadFrameSequence));
+            checkPreviousFrame(frame);
+            this.lastReadFrameSequence = sequence;
+            this.recentFrameSequences.addLast(sequence);
+            if (this.recentFrameSequences.size() > DataFrame.MAX_FRAMES_SINCE_PREVIOUS + 1) {
+                this.recentFrameSequences.removeFirst();
+                this.recentFrameSequencesTrimmed = true;
             }
 
-            this.lastReadFrameSequence = sequence;
             return frame;
         }
 
+        /**
+         * Verifies that the given DataFrame follows the Frame it claims to follow. A DataFrame that was written while other
+         * DataFrames were in flight records the Sequence of the last DataFrame known at that time, along with the number of
+         * DataFrames in between; that exact DataFrame must have been read that many DataFrames ago.
+         */
+        private void checkPreviousFrame(DataFrame frame) throws DataCorruptionException {
+            int framesSincePrevious = frame.getFramesSincePrevious();
+            if (framesSincePrevious >= this.recentFrameSequences.size()) {
+                // The previous DataFrame was not read by us. This is only acceptable if it precedes the first DataFrame we
+                // read (the log may have been truncated), and never if we already read more DataFrames than it can claim.
+                if (this.recentFrameSequencesTrimmed
+                        || (!this.recentFrameSequences.isEmpty() && frame.getPreviousFrameSequence() >= this.recentFrameSequences.peekFirst())) {
+                    throw new DataCorruptionException(String.format("DataFrame with Sequence %d has a PreviousFrameSequence (%d) and FramesSincePrevious (%d) that do not match the DataFrames read before it.",
+                            frame.getAddress().getSequence(), frame.getPreviousFrameSequence(), framesSincePrevious));
+                }
+
+                return;
+            }
+
+            // Locate the DataFrame that was read framesSincePrevious DataFrames before the last one.
+            Iterator<Long> sequences = this.recentFrameSequences.descendingIterator();
+            long expectedPreviousSequence = sequences.next();
+            for (int i = 0; i < framesSincePrevious; i++) {
+                expectedPreviousSequence = sequences.next();
+            }
+
+            if (expectedPreviousSequence != frame.getPreviousFrameSequence()) {
+                // Previous Frame Sequence is not match what the Current Frame claims it is.
+                throw new DataCorruptionException(String.format("DataFrame with Sequence %d has a PreviousFrameSequence (%d) that does not match the DataFrame FrameSequence (%d) read %d DataFrame(s) before it.",
+                        frame.getAddress().getSequence(), frame.getPreviousFrameSequence(), expectedPreviousSequence, framesSincePrevious + 1));
+            }
+        }
+
         //endregion
     }
 
@@ -16,6 +16,7 @@ import io.pravega.common.ExceptionHelpers;
 import io.pravega.common.Exceptions;
 import io.pravega.common.LoggerHelpers;
 import io.pravega.common.TimeoutTimer;
+import io.pravega.common.Timer;
 import io.pravega.common.concurrent.ExecutorServiceHelpers;
 import io.pravega.common.concurrent.FutureHelpers;
 import io.pravega.common.concurrent.ServiceShutdownListener;
@@ -62,6 +63,7 @@ public class DurableLog extends AbstractService implements OperationLog {
     //region Members
 
     private static final Duration RECOVERY_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration RECOVERY_PROGRESS_INTERVAL = Duration.ofSeconds(10);
     private final String traceObjectId;
     private final DurableLogConfig config;
     private final LogItemFactory<Operation> operationFactory;
@@ -108,7 +110,8 @@ public class DurableLog extends AbstractService implements OperationLog {
         this.inMemoryOperationLog = new SequencedItemList<>();
         this.memoryStateUpdater = new MemoryStateUpdater(this.inMemoryOperationLog, readIndex, this::triggerTailReads);
         MetadataCheckpointPolicy checkpointPolicy = new MetadataCheckpointPolicy(this.config, this::queueMetadataCheckpoint, this.executor);
-        this.operationProcessor = new OperationProcessor(this.metadata, this.memoryStateUpdater, this.durableDataLog, checkpointPolicy, executor);
+        this.operationProcessor = new OperationProcessor(this.metadata, this.memoryStateUpdater, this.durableDataLog, checkpointPolicy,
+                this.config.getMaxOutstandingDataFrames(), executor);
         this.operationProcessor.addListener(new ServiceShutdownListener(this::queueStoppedHandler, this::queueFailedHandler), this.executor);
         this.tailReads = new HashSet<>();
         this.closed = new AtomicBoolean();
@@ -305,6 +308,8 @@ public class DurableLog extends AbstractService implements OperationLog {
 
         long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "performRecovery");
         TimeoutTimer timer = new TimeoutTimer(RECOVERY_TIMEOUT);
+        Timer recoveryTimer = new Timer();
+        Metrics.RECOVERIES_ACTIVE.inc();
         log.info("{} Recovery started.", this.traceObjectId);
 
         // Put metadata (and entire container) into 'Recovery Mode'.
@@ -322,13 +327,17 @@ public class DurableLog extends AbstractService implements OperationLog {
             this.durableDataLog.initialize(timer.getRemaining());
             anyItemsRecovered = recoverFromDataFrameLog(metadataUpdater);
             this.metadata.setContainerEpoch(this.durableDataLog.getEpoch());
-            log.info("{} Recovery completed. Epoch = {}, Items Recovered = {}.", this.traceObjectId, this.metadata.getContainerEpoch(), anyItemsRecovered);
+            log.info("{} Recovery completed. Epoch = {}, Items Recovered = {}, Duration = {}ms.", this.traceObjectId,
+                    this.metadata.getContainerEpoch(), anyItemsRecovered, recoveryTimer.getElapsedMillis());
+            Metrics.RECOVERY_LATENCY.reportSuccessEvent(recoveryTimer.getElapsed());
             successfulRecovery = true;
         } catch (Exception ex) {
             log.error("{} Recovery FAILED. {}", this.traceObjectId, ex);
+            Metrics.RECOVERY_LATENCY.reportFailEvent(recoveryTimer.getElapsed());
             throw ex;
         } finally {
             // We must exit recovery mode when done, regardless of outcome.
+            Metrics.RECOVERIES_ACTIVE.dec();
             this.metadata.exitRecoveryMode();
             this.memoryStateUpdater.exitRecoveryMode(successfulRecovery);
         }
@@ -352,10 +361,15 @@ public class DurableLog extends AbstractService implements OperationLog {
         int skippedOperationCount = 0;
         int skippedDataFramesCount = 0;
         int recoveredItemCount = 0;
+        int recoveredDataFrameCount = 0;
+        Timer progressTimer = new Timer();
+        long lastProgressMillis = 0;
 
         // Read all entries from the DataFrameLog and append them to the InMemoryOperationLog.
-        // Also update metadata along the way.
-        try (DataFrameReader<Operation> reader = new DataFrameReader<>(this.durableDataLog, this.operationFactory, getId())) {
+        // Also update metadata along the way. DataFrames are fetched (and parsed) in the background while we are busy
+        // applying the Operations from the previous ones.
+        try (DataFrameReader<Operation> reader = new DataFrameReader<>(this.durableDataLog, this.operationFactory, getId(),
+                this.config.getRecoveryPrefetchFrameCount(), this.executor)) {
             DataFrameReader.ReadResult<Operation> readResult;
 
             // We can only recover starting from a MetadataCheckpointOperation; find the first one.
@@ -372,6 +386,7 @@ public class DurableLog extends AbstractService implements OperationLog {
                     break;
                 } else if (readResult.isLastFrameEntry()) {
                     skippedDataFramesCount++;
+                    Metrics.RECOVERY_FRAMES.inc();
                 }
 
                 skippedOperationCount++;
@@ -383,6 +398,18 @@ public class DurableLog extends AbstractService implements OperationLog {
                 recordTruncationMarker(readResult, metadataUpdater);
                 recoverOperation(readResult.getItem(), metadataUpdater);
                 recoveredItemCount++;
+                Metrics.RECOVERY_OPERATIONS.inc();
+                if (readResult.isLastFrameEntry()) {
+                    recoveredDataFrameCount++;
+                    Metrics.RECOVERY_FRAMES.inc();
+                }
+
+                long elapsedMillis = progressTimer.getElapsedMillis();
+                if (elapsedMillis - lastProgressMillis >= RECOVERY_PROGRESS_INTERVAL.toMillis()) {
+                    log.info("{}: Recovery in progress. Operations = {}, DataFrames = {}, Operations/s = {}.", this.traceObjectId,
+                            recoveredItemCount, recoveredDataFrameCount, recoveredItemCount * 1000L / Math.max(1, elapsedMillis));
+                    lastProgressMillis = elapsedMillis;
+                }
 
                 // Fetch the next operation.
                 readResult = reader.getNext();
@@ -24,6 +24,8 @@ public class DurableLogConfig {
     public static final Property<Integer> CHECKPOINT_MIN_COMMIT_COUNT = Property.named("checkpointMinCommitCount", 300);
     public static final Property<Integer> CHECKPOINT_COMMIT_COUNT = Property.named("checkpointCommitCountThreshold", 300);
     public static final Property<Long> CHECKPOINT_TOTAL_COMMIT_LENGTH = Property.named("checkpointTotalCommitLengthThreshold", 256 * 1024 * 1024L);
+    public static final Property<Integer> MAX_OUTSTANDING_DATA_FRAMES = Property.named("maxOutstandingDataFrames", 1);
+    public static final Property<Integer> RECOVERY_PREFETCH_FRAME_COUNT = Property.named("recoveryPrefetchFrameCount", 8);
     private static final String COMPONENT_CODE = "durablelog";
 
     //endregion
@@ -48,6 +50,19 @@ public class DurableLogConfig {
     @Getter
     private final long checkpointTotalCommitLengthThreshold;
 
+    /**
+     * The maximum number of DataFrames that can be in flight to the DurableDataLog at any given time.
+     */
+    @Getter
+    private final int maxOutstandingDataFrames;
+
+    /**
+     * The maximum number of DataFrames to fetch from the DurableDataLog (and parse) ahead of the ones being processed
+     * during recovery. If 0, DataFrames are only fetched when needed.
+     */
+    @Getter
+    private final int recoveryPrefetchFrameCount;
+
     //endregion
 
     //region Constructor
@@ -67,6 +82,17 @@ public class DurableLogConfig {
         }
 
         this.checkpointTotalCommitLengthThreshold = properties.getLong(CHECKPOINT_TOTAL_COMMIT_LENGTH);
+        this.maxOutstandingDataFrames = properties.getInt(MAX_OUTSTANDING_DATA_FRAMES);
+        if (this.maxOutstandingDataFrames <= 0 || this.maxOutstandingDataFrames > DataFrame.MAX_FRAMES_SINCE_PREVIOUS + 1) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a positive integer no larger than %d.",
+                    MAX_OUTSTANDING_DATA_FRAMES, this.maxOutstandingDataFrames, DataFrame.MAX_FRAMES_SINCE_PREVIOUS + 1));
+        }
+
+        this.recoveryPrefetchFrameCount = properties.getInt(RECOVERY_PREFETCH_FRAME_COUNT);
+        if (this.recoveryPrefetchFrameCount < 0) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a non-negative integer.",
+                    RECOVERY_PREFETCH_FRAME_COUNT, this.recoveryPrefetchFrameCount));
+        }
     }
 
     /**
@@ -133,6 +133,15 @@ class MemoryStateUpdater {
         }
     }
 
+    /**
+     * Gets a value indicating how much of the Cache backing the ReadIndex is currently used, as a fraction of its capacity.
+     *
+     * @return The Cache utilization.
+     */
+    double getCacheUtilization() {
+        return this.readIndex.getCacheUtilization();
+    }
+
     /**
      * Flushes recently appended items, if needed.
      * For example, it may trigger Future Reads on the ReadIndex, if the readIndex supports that.
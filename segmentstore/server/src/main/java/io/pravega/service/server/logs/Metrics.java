@@ -0,0 +1,27 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.server.logs;
+
+import io.pravega.shared.MetricsNames;
+import io.pravega.shared.metrics.Counter;
+import io.pravega.shared.metrics.MetricsProvider;
+import io.pravega.shared.metrics.OpStatsLogger;
+import io.pravega.shared.metrics.StatsLogger;
+
+/**
+ * Metrics for the DurableLog.
+ */
+final class Metrics {
+    private static final StatsLogger RECOVERY_LOGGER = MetricsProvider.createStatsLogger("recovery");
+    static final OpStatsLogger RECOVERY_LATENCY = RECOVERY_LOGGER.createStats(MetricsNames.CONTAINER_RECOVERY_LATENCY);
+    static final Counter RECOVERY_OPERATIONS = RECOVERY_LOGGER.createCounter(MetricsNames.CONTAINER_RECOVERY_OPERATIONS);
+    static final Counter RECOVERY_FRAMES = RECOVERY_LOGGER.createCounter(MetricsNames.CONTAINER_RECOVERY_FRAMES);
+    static final Counter RECOVERIES_ACTIVE = RECOVERY_LOGGER.createCounter(MetricsNames.CONTAINER_RECOVERIES_ACTIVE);
+}
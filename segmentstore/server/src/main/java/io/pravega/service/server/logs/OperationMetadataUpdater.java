@@ -45,6 +45,7 @@ import com.google.common.base.Preconditions;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -57,6 +58,8 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
 
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -64,13 +67,22 @@ import lombok.val;
 
 /**
  * Transaction-based Metadata Updater for Log Operations.
+ * <p>
+ * Changes are accumulated in the current transaction. A transaction may be sealed (see sealTransaction()), after which
+ * all new changes are accumulated in a new transaction that builds on top of the sealed one. Sealed transactions can be
+ * committed in order (see commit(long)), which allows the changes for multiple DataFrames to be in flight at once.
  */
 @Slf4j
+@ThreadSafe
 class OperationMetadataUpdater implements ContainerMetadata {
     //region Members
 
     private final String traceObjectId;
     private final UpdateableContainerMetadata metadata;
+    private final Object lock = new Object();
+    @GuardedBy("lock")
+    private final ArrayDeque<UpdateTransaction> sealedTransactions;
+    @GuardedBy("lock")
     private UpdateTransaction currentTransaction;
 
     //endregion
@@ -88,6 +100,7 @@ class OperationMetadataUpdater implements ContainerMetadata {
 
         this.traceObjectId = String.format("OperationMetadataUpdater[%d]", metadata.getContainerId());
         this.metadata = metadata;
+        this.sealedTransactions = new ArrayDeque<>();
         this.currentTransaction = null;
     }
 
@@ -97,27 +110,31 @@ class OperationMetadataUpdater implements ContainerMetadata {
 
     @Override
     public SegmentMetadata getStreamSegmentMetadata(long streamSegmentId) {
-        UpdateTransaction transaction = this.currentTransaction;
-        if (transaction == null) {
-            return null;
-        }
+        synchronized (this.lock) {
+            UpdateTransaction transaction = this.currentTransaction;
+            if (transaction == null) {
+                return null;
+            }
 
-        try {
-            return transaction.getStreamSegmentMetadata(streamSegmentId);
-        } catch (MetadataUpdateException ex) {
-            return null;
+            try {
+                return transaction.getStreamSegmentMetadata(streamSegmentId);
+            } catch (MetadataUpdateException ex) {
+                return null;
+            }
         }
     }
 
     @Override
     public long getStreamSegmentId(String streamSegmentName, boolean updateLastUsed) {
         // We ignore the 'updateLastUsed' argument here since this is an internal call, and there is no need to update the metadata stats.
-        UpdateTransaction transaction = this.currentTransaction;
-        if (transaction == null) {
-            return ContainerMetadata.NO_STREAM_SEGMENT_ID;
-        }
+        synchronized (this.lock) {
+            UpdateTransaction transaction = this.currentTransaction;
+            if (transaction == null) {
+                return ContainerMetadata.NO_STREAM_SEGMENT_ID;
+            }
 
-        return transaction.getExistingStreamSegmentId(streamSegmentName);
+            return transaction.getExistingStreamSegmentId(streamSegmentName);
+        }
     }
 
     @Override
@@ -145,27 +162,62 @@ class OperationMetadataUpdater implements ContainerMetadata {
     //region Processing
 
     /**
-     * Commits all outstanding changes to the base Container Metadata.
+     * Commits all outstanding changes (both in sealed transactions and in the current transaction) to the base Container Metadata.
      *
      * @return True if anything was committed, false otherwise.
      */
     boolean commit() {
-        log.trace("{}: Commit (Anything = {}).", this.traceObjectId, this.currentTransaction != null);
-        if (this.currentTransaction == null) {
-            return false;
+        synchronized (this.lock) {
+            log.trace("{}: Commit (Anything = {}).", this.traceObjectId, this.currentTransaction != null || !this.sealedTransactions.isEmpty());
+            sealTransaction();
+            return commitSealedTransactions(Long.MAX_VALUE) > 0;
         }
+    }
 
-        this.currentTransaction.commit();
-        this.currentTransaction = null;
-        return true;
+    /**
+     * Commits, in order, all sealed transactions that only contain changes for Operations with Sequence Numbers up to
+     * and including the given one. The current (non-sealed) transaction is not affected.
+     *
+     * @param upToSequenceNumber The Sequence Number of the last Operation whose changes can be committed.
+     * @param truncationMarkerSequenceNumber The Sequence Number of the Operation that can be used as a truncation argument.
+     * @param truncationMarkerAddress The Address of the corresponding Data Frame that can be truncated (up to, and including).
+     * @return True if anything was committed, false otherwise.
+     */
+    boolean commit(long upToSequenceNumber, long truncationMarkerSequenceNumber, LogAddress truncationMarkerAddress) {
+        synchronized (this.lock) {
+            int count = commitSealedTransactions(upToSequenceNumber);
+            log.trace("{}: Commit (UpToSequenceNumber = {}, TransactionCount = {}).", this.traceObjectId, upToSequenceNumber, count);
+
+            // The DataFrame this Truncation Marker refers to is durably committed, hence there is no need to route this
+            // through a transaction.
+            log.debug("{}: RecordTruncationMarker OperationSequenceNumber = {}, DataFrameAddress = {}.", this.traceObjectId, truncationMarkerSequenceNumber, truncationMarkerAddress);
+            this.metadata.recordTruncationMarker(truncationMarkerSequenceNumber, truncationMarkerAddress);
+            return count > 0;
+        }
     }
 
     /**
-     * Discards any outstanding changes.
+     * Seals the current transaction (if any). All subsequent changes will be recorded in a new transaction which builds
+     * on top of the sealed one. Sealed transactions can be committed using commit(long, long, LogAddress).
+     */
+    void sealTransaction() {
+        synchronized (this.lock) {
+            if (this.currentTransaction != null) {
+                this.sealedTransactions.addLast(this.currentTransaction);
+                this.currentTransaction = null;
+            }
+        }
+    }
+
+    /**
+     * Discards any outstanding changes, including those in sealed transactions.
      */
     void rollback() {
-        log.trace("{}: Rollback (Anything = {}).", this.traceObjectId, this.currentTransaction != null);
-        this.currentTransaction = null;
+        synchronized (this.lock) {
+            log.trace("{}: Rollback (Anything = {}).", this.traceObjectId, this.currentTransaction != null || !this.sealedTransactions.isEmpty());
+            this.sealedTransactions.clear();
+            this.currentTransaction = null;
+        }
     }
 
     /**
@@ -176,7 +228,9 @@ class OperationMetadataUpdater implements ContainerMetadata {
      */
     void recordTruncationMarker(long operationSequenceNumber, LogAddress logAddress) {
         log.debug("{}: RecordTruncationMarker OperationSequenceNumber = {}, DataFrameAddress = {}.", this.traceObjectId, operationSequenceNumber, logAddress);
-        getCurrentTransaction().recordTruncationMarker(operationSequenceNumber, logAddress);
+        synchronized (this.lock) {
+            getCurrentTransaction().recordTruncationMarker(operationSequenceNumber, logAddress);
+        }
     }
 
     /**
@@ -192,7 +246,9 @@ class OperationMetadataUpdater implements ContainerMetadata {
      */
     void setOperationSequenceNumber(long value) {
         Preconditions.checkState(this.isRecoveryMode(), "Can only set new Operation Sequence Number in Recovery Mode.");
-        getCurrentTransaction().setOperationSequenceNumber(value);
+        synchronized (this.lock) {
+            getCurrentTransaction().setOperationSequenceNumber(value);
+        }
     }
 
     /**
@@ -218,7 +274,9 @@ class OperationMetadataUpdater implements ContainerMetadata {
      */
     void preProcessOperation(Operation operation) throws ContainerException, StreamSegmentException {
         log.trace("{}: PreProcess {}.", this.traceObjectId, operation);
-        getCurrentTransaction().preProcessOperation(operation);
+        synchronized (this.lock) {
+            getCurrentTransaction().preProcessOperation(operation);
+        }
     }
 
     /**
@@ -233,23 +291,47 @@ class OperationMetadataUpdater implements ContainerMetadata {
      */
     void acceptOperation(Operation operation) throws MetadataUpdateException {
         log.trace("{}: Accept {}.", this.traceObjectId, operation);
-        getCurrentTransaction().acceptOperation(operation);
+        synchronized (this.lock) {
+            getCurrentTransaction().acceptOperation(operation);
+        }
     }
 
+    @GuardedBy("lock")
     private UpdateTransaction getCurrentTransaction() {
         if (this.currentTransaction == null) {
-            this.currentTransaction = new UpdateTransaction(this.metadata, this.traceObjectId);
+            this.currentTransaction = new UpdateTransaction(this.metadata, this.sealedTransactions.peekLast(), this.traceObjectId);
         }
 
         return this.currentTransaction;
     }
 
+    @GuardedBy("lock")
+    private int commitSealedTransactions(long upToSequenceNumber) {
+        int count = 0;
+        while (!this.sealedTransactions.isEmpty() && this.sealedTransactions.peekFirst().getLastAcceptedSequenceNumber() <= upToSequenceNumber) {
+            this.sealedTransactions.removeFirst().commit();
+            count++;
+        }
+
+        if (count > 0) {
+            // Whatever transaction is now the oldest one builds directly on top of the base Container Metadata.
+            UpdateTransaction oldest = this.sealedTransactions.isEmpty() ? this.currentTransaction : this.sealedTransactions.peekFirst();
+            if (oldest != null) {
+                oldest.detachFromPrevious();
+            }
+        }
+
+        return count;
+    }
+
     //endregion
 
     //region UpdateTransaction
 
     /**
      * A Metadata Update Transaction. Keeps all pending changes, until they are ready to be committed to the base Container Metadata.
+     * A transaction may build on top of a previous, not yet committed, transaction, in which case it will observe all the
+     * changes in that transaction (and the ones before it).
      */
     private static class UpdateTransaction {
         private static final byte CURRENT_SERIALIZATION_VERSION = 0;
@@ -261,16 +343,21 @@ class OperationMetadataUpdater implements ContainerMetadata {
         private final UpdateableContainerMetadata containerMetadata;
         private final AtomicLong newSequenceNumber;
         private final String traceObjectId;
+        private UpdateTransaction previous;
+        private long lastAcceptedSequenceNumber;
         private boolean processedCheckpoint;
 
         /**
          * Creates a new instance of the UpdateTransaction class.
          *
          * @param containerMetadata The base Container Metadata.
+         * @param previous          The (uncommitted) transaction that this transaction builds upon, or null if none.
          */
-        UpdateTransaction(UpdateableContainerMetadata containerMetadata, String traceObjectId) {
+        UpdateTransaction(UpdateableContainerMetadata containerMetadata, UpdateTransaction previous, String traceObjectId) {
             assert containerMetadata != null : "containerMetadata is null";
             this.traceObjectId = traceObjectId;
+            this.previous = previous;
+            this.lastAcceptedSequenceNumber = Operation.NO_SEQUENCE_NUMBER;
             this.streamSegmentUpdates = new HashMap<>();
             this.containerMetadata = containerMetadata;
             this.newTruncationMarkers = new HashMap<>();
@@ -300,8 +387,12 @@ class OperationMetadataUpdater implements ContainerMetadata {
                 this.containerMetadata.setOperationSequenceNumber(this.newSequenceNumber.get());
             }
 
-            // Commit all temporary changes to their respective sources.
-            this.streamSegmentUpdates.values().forEach(TemporaryStreamSegmentMetadata::apply);
+            // Commit all temporary changes to their respective sources. If a Segment was created in a previous transaction,
+            // its metadata has since been copied into the base Container Metadata, so we need to apply the changes there.
+            for (TemporaryStreamSegmentMetadata tsm : this.streamSegmentUpdates.values()) {
+                UpdateableSegmentMetadata target = this.containerMetadata.getStreamSegmentMetadata(tsm.getId());
+                tsm.apply(target != null ? target : tsm.baseMetadata);
+            }
 
             // We must first copy the Standalone StreamSegments, and then the Transaction StreamSegments. That's because
             // the Transaction StreamSegments may refer to one of these newly created StreamSegments, and the metadata
@@ -318,6 +409,21 @@ class OperationMetadataUpdater implements ContainerMetadata {
             rollback();
         }
 
+        /**
+         * Gets a value indicating the Sequence Number of the last Operation accepted in this transaction.
+         */
+        long getLastAcceptedSequenceNumber() {
+            return this.lastAcceptedSequenceNumber;
+        }
+
+        /**
+         * Indicates that all previous transactions have been committed, so this transaction should look up any information
+         * it does not have directly in the base Container Metadata.
+         */
+        void detachFromPrevious() {
+            this.previous = null;
+        }
+
         /**
          * Gets all pending changes for the given StreamSegment.
          *
@@ -327,17 +433,24 @@ class OperationMetadataUpdater implements ContainerMetadata {
         TemporaryStreamSegmentMetadata getStreamSegmentMetadata(long streamSegmentId) throws MetadataUpdateException {
             TemporaryStreamSegmentMetadata tsm = this.streamSegmentUpdates.getOrDefault(streamSegmentId, null);
             if (tsm == null) {
-                UpdateableSegmentMetadata streamSegmentMetadata = this.containerMetadata.getStreamSegmentMetadata(streamSegmentId);
-                if (streamSegmentMetadata == null) {
-                    streamSegmentMetadata = this.newStreamSegments.getOrDefault(streamSegmentId, null);
-
+                TemporaryStreamSegmentMetadata previousTsm = getPreviousStreamSegmentMetadata(streamSegmentId);
+                if (previousTsm != null) {
+                    // A previous transaction has pending changes for this StreamSegment; we need to continue from there.
+                    tsm = new TemporaryStreamSegmentMetadata(previousTsm);
+                } else {
+                    UpdateableSegmentMetadata streamSegmentMetadata = this.containerMetadata.getStreamSegmentMetadata(streamSegmentId);
                     if (streamSegmentMetadata == null) {
-                        throw new MetadataUpdateException(this.containerMetadata.getContainerId(),
-                                String.format("No metadata entry exists for StreamSegment Id %d.", streamSegmentId));
+                        streamSegmentMetadata = getNewStreamSegment(streamSegmentId);
+
+                        if (streamSegmentMetadata == null) {
+                            throw new MetadataUpdateException(this.containerMetadata.getContainerId(),
+                                    String.format("No metadata entry exists for StreamSegment Id %d.", streamSegmentId));
+                        }
                     }
+
+                    tsm = new TemporaryStreamSegmentMetadata(streamSegmentMetadata, this.containerMetadata.isRecoveryMode());
                 }
 
-                tsm = new TemporaryStreamSegmentMetadata(streamSegmentMetadata, this.containerMetadata.isRecoveryMode());
                 this.streamSegmentUpdates.put(streamSegmentId, tsm);
             }
 
@@ -421,6 +534,7 @@ class OperationMetadataUpdater implements ContainerMetadata {
          * @throws NullPointerException    If the operation is null.
          */
         void acceptOperation(Operation operation) throws MetadataUpdateException {
+            this.lastAcceptedSequenceNumber = Math.max(this.lastAcceptedSequenceNumber, operation.getSequenceNumber());
             TemporaryStreamSegmentMetadata segmentMetadata = null;
             if (operation instanceof SegmentOperation) {
                 segmentMetadata = getStreamSegmentMetadata(((SegmentOperation) operation).getStreamSegmentId());
@@ -463,7 +577,7 @@ class OperationMetadataUpdater implements ContainerMetadata {
             }
 
             if (!this.containerMetadata.isRecoveryMode()) {
-                if (this.containerMetadata.getActiveSegmentCount() + this.newStreamSegments.size() >= this.containerMetadata.getMaximumActiveSegmentCount()) {
+                if (this.containerMetadata.getActiveSegmentCount() + getNewStreamSegmentCount() >= this.containerMetadata.getMaximumActiveSegmentCount()) {
                     throw new TooManyActiveSegmentsException(this.containerMetadata.getContainerId(), this.containerMetadata.getMaximumActiveSegmentCount());
                 }
 
@@ -494,7 +608,7 @@ class OperationMetadataUpdater implements ContainerMetadata {
             }
 
             if (!this.containerMetadata.isRecoveryMode()) {
-                if (this.containerMetadata.getActiveSegmentCount() + this.newStreamSegments.size() >= this.containerMetadata.getMaximumActiveSegmentCount()) {
+                if (this.containerMetadata.getActiveSegmentCount() + getNewStreamSegmentCount() >= this.containerMetadata.getMaximumActiveSegmentCount()) {
                     throw new TooManyActiveSegmentsException(this.containerMetadata.getContainerId(), this.containerMetadata.getMaximumActiveSegmentCount());
                 }
 
@@ -583,19 +697,60 @@ class OperationMetadataUpdater implements ContainerMetadata {
 
         private long getExistingStreamSegmentId(String streamSegmentName) {
             long existingSegmentId = this.containerMetadata.getStreamSegmentId(streamSegmentName, false);
-            if (existingSegmentId == ContainerMetadata.NO_STREAM_SEGMENT_ID) {
-                existingSegmentId = this.newStreamSegmentNames.getOrDefault(streamSegmentName, ContainerMetadata.NO_STREAM_SEGMENT_ID);
+            UpdateTransaction t = this;
+            while (existingSegmentId == ContainerMetadata.NO_STREAM_SEGMENT_ID && t != null) {
+                existingSegmentId = t.newStreamSegmentNames.getOrDefault(streamSegmentName, ContainerMetadata.NO_STREAM_SEGMENT_ID);
+                t = t.previous;
             }
 
             return existingSegmentId;
         }
 
+        private TemporaryStreamSegmentMetadata getPreviousStreamSegmentMetadata(long streamSegmentId) {
+            UpdateTransaction t = this.previous;
+            while (t != null) {
+                TemporaryStreamSegmentMetadata tsm = t.streamSegmentUpdates.getOrDefault(streamSegmentId, null);
+                if (tsm != null) {
+                    return tsm;
+                }
+
+                t = t.previous;
+            }
+
+            return null;
+        }
+
+        private UpdateableSegmentMetadata getNewStreamSegment(long streamSegmentId) {
+            UpdateTransaction t = this;
+            while (t != null) {
+                UpdateableSegmentMetadata sm = t.newStreamSegments.getOrDefault(streamSegmentId, null);
+                if (sm != null) {
+                    return sm;
+                }
+
+                t = t.previous;
+            }
+
+            return null;
+        }
+
+        private int getNewStreamSegmentCount() {
+            int count = 0;
+            UpdateTransaction t = this;
+            while (t != null) {
+                count += t.newStreamSegments.size();
+                t = t.previous;
+            }
+
+            return count;
+        }
+
         private long generateUniqueStreamSegmentId() {
             // The ContainerMetadata.SequenceNumber is always guaranteed to be unique (it's monotonically strict increasing).
             // It can be safely used as a new unique Segment Id. If any clashes occur, just keep searching up until we find
             // a non-used one.
             long streamSegmentId = Math.max(this.containerMetadata.getOperationSequenceNumber(), ContainerMetadata.NO_STREAM_SEGMENT_ID + 1);
-            while (this.newStreamSegments.containsKey(streamSegmentId) || this.containerMetadata.getStreamSegmentMetadata(streamSegmentId) != null) {
+            while (getNewStreamSegment(streamSegmentId) != null || this.containerMetadata.getStreamSegmentMetadata(streamSegmentId) != null) {
                 streamSegmentId++;
             }
 
@@ -605,7 +760,7 @@ class OperationMetadataUpdater implements ContainerMetadata {
         private UpdateableSegmentMetadata getExistingMetadata(long streamSegmentId) {
             UpdateableSegmentMetadata sm = this.containerMetadata.getStreamSegmentMetadata(streamSegmentId);
             if (sm == null) {
-                sm = this.newStreamSegments.getOrDefault(streamSegmentId, null);
+                sm = getNewStreamSegment(streamSegmentId);
             }
 
             return sm;
@@ -707,25 +862,39 @@ class OperationMetadataUpdater implements ContainerMetadata {
             // Intentionally skipping over the Sequence Number. There is no need for that here; it will be set on the
             // operation anyway when it gets serialized.
 
+            // Collect the pending changes from this transaction and all the uncommitted transactions before it. Newer
+            // transactions hold the most recent state of any StreamSegment they touch, so they take precedence.
+            ArrayList<UpdateTransaction> transactions = new ArrayList<>();
+            for (UpdateTransaction t = this; t != null; t = t.previous) {
+                transactions.add(0, t);
+            }
+
+            HashMap<Long, TemporaryStreamSegmentMetadata> allUpdates = new HashMap<>();
+            HashMap<Long, UpdateableSegmentMetadata> allNewSegments = new HashMap<>();
+            transactions.forEach(t -> {
+                allUpdates.putAll(t.streamSegmentUpdates);
+                allNewSegments.putAll(t.newStreamSegments);
+            });
+
             // 3. Unchanged Segment Metadata.
             Collection<Long> unchangedSegmentIds = this.containerMetadata
                     .getAllStreamSegmentIds().stream()
-                    .filter(segmentId -> !this.streamSegmentUpdates.containsKey(segmentId))
+                    .filter(segmentId -> !allUpdates.containsKey(segmentId))
                     .collect(Collectors.toList());
             stream.writeInt(unchangedSegmentIds.size());
             unchangedSegmentIds.forEach(segmentId -> serializeSegmentMetadata(this.containerMetadata.getStreamSegmentMetadata(segmentId), stream));
 
             // 4. New StreamSegments.
-            Collection<UpdateableSegmentMetadata> newSegments = this.newStreamSegments
+            Collection<UpdateableSegmentMetadata> newSegments = allNewSegments
                     .values().stream()
-                    .filter(sm -> !this.streamSegmentUpdates.containsKey(sm.getId()))
+                    .filter(sm -> !allUpdates.containsKey(sm.getId()))
                     .collect(Collectors.toList());
             stream.writeInt(newSegments.size());
             newSegments.forEach(sm -> serializeSegmentMetadata(sm, stream));
 
             // 5. Changed Segment Metadata.
-            stream.writeInt(this.streamSegmentUpdates.size());
-            this.streamSegmentUpdates.values().forEach(sm -> serializeSegmentMetadata(sm, stream));
+            stream.writeInt(allUpdates.size());
+            allUpdates.values().forEach(sm -> serializeSegmentMetadata(sm, stream));
 
             zipStream.finish();
             operation.setContents(byteStream.getData());
@@ -843,6 +1012,24 @@ class OperationMetadataUpdater implements ContainerMetadata {
             this.lastUsed = -1;
         }
 
+        /**
+         * Creates a new instance of the TemporaryStreamSegmentMetadata class that picks up where the given one left off.
+         * Changes made to the new instance will not be reflected in the given one.
+         *
+         * @param previous The TemporaryStreamSegmentMetadata to copy the state from.
+         */
+        TemporaryStreamSegmentMetadata(TemporaryStreamSegmentMetadata previous) {
+            assert previous != null : "previous is null";
+            this.baseMetadata = previous.baseMetadata;
+            this.isRecoveryMode = previous.isRecoveryMode;
+            this.currentDurableLogLength = previous.currentDurableLogLength;
+            this.sealed = previous.sealed;
+            this.merged = previous.merged;
+            this.deleted = previous.deleted;
+            this.updatedAttributeValues = new HashMap<>(previous.updatedAttributeValues);
+            this.lastUsed = previous.lastUsed;
+        }
+
         //endregion
 
         //region StreamProperties Implementation
@@ -1285,27 +1472,30 @@ class OperationMetadataUpdater implements ContainerMetadata {
         //region Operations
 
         /**
-         * Applies all the outstanding changes to the base StreamSegmentMetadata object.
+         * Applies all the outstanding changes to the given StreamSegmentMetadata object.
+         *
+         * @param target The StreamSegmentMetadata to apply the changes to. This is usually the base StreamSegmentMetadata,
+         *               or the one that replaced it in the Container Metadata.
          */
-        public void apply() {
+        void apply(UpdateableSegmentMetadata target) {
             if (!this.isChanged) {
                 // No changes made.
                 return;
             }
 
             // Apply to base metadata.
-            this.baseMetadata.setLastUsed(this.lastUsed);
-            this.baseMetadata.updateAttributes(this.updatedAttributeValues);
-            this.baseMetadata.setDurableLogLength(this.currentDurableLogLength);
+            target.setLastUsed(this.lastUsed);
+            target.updateAttributes(this.updatedAttributeValues);
+            target.setDurableLogLength(this.currentDurableLogLength);
             if (this.isSealed()) {
-                this.baseMetadata.markSealed();
+                target.markSealed();
                 if (this.isSealedInStorage()) {
-                    this.baseMetadata.isSealedInStorage();
+                    target.isSealedInStorage();
                 }
             }
 
             if (this.isMerged()) {
-                this.baseMetadata.markMerged();
+                target.markMerged();
             }
         }
 
@@ -31,12 +31,17 @@ import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Predicate;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Single-thread Processor for Operations. Queues all incoming entries in a BlockingDrainingQueue, then picks them all
- * at once, generates DataFrames from them and commits them to the DataFrameLog, one by one, in sequence.
+ * at once, generates DataFrames from them and commits them to the DataFrameLog, in sequence. Up to a configurable number
+ * of DataFrames may be in flight at any given time; the Operations they contain are acknowledged in order as the
+ * DataFrames are committed. As the Cache fills up, new Operations are throttled; once it is full, no new Operations are
+ * picked up until some of it is evicted.
  */
 @Slf4j
 class OperationProcessor extends AbstractThreadPoolService implements Container {
@@ -44,12 +49,15 @@ class OperationProcessor extends AbstractThreadPoolService implements Container
 
     private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
     private static final int MAX_READ_AT_ONCE = 1000;
+    private static final double CACHE_THROTTLE_THRESHOLD = 0.9;
+    private static final Duration MAX_THROTTLE_DELAY = Duration.ofMillis(100);
 
     private final OperationMetadataUpdater metadataUpdater;
     private final MemoryStateUpdater stateUpdater;
     private final DurableDataLog durableDataLog;
     private final BlockingDrainingQueue<CompletableOperation> operationQueue;
     private final MetadataCheckpointPolicy checkpointPolicy;
+    private final int maxOutstandingDataFrames;
 
     //endregion
 
@@ -66,17 +74,36 @@ class OperationProcessor extends AbstractThreadPoolService implements Container
      * @throws NullPointerException If any of the arguments are null.
      */
     OperationProcessor(UpdateableContainerMetadata metadata, MemoryStateUpdater stateUpdater, DurableDataLog durableDataLog, MetadataCheckpointPolicy checkpointPolicy, ScheduledExecutorService executor) {
+        this(metadata, stateUpdater, durableDataLog, checkpointPolicy, 1, executor);
+    }
+
+    /**
+     * Creates a new instance of the OperationProcessor class.
+     *
+     * @param metadata                 The ContainerMetadata for the Container to process operations for.
+     * @param stateUpdater             A MemoryStateUpdater that is used to update in-memory structures upon successful Operation committal.
+     * @param durableDataLog           The DataFrameLog to write DataFrames to.
+     * @param checkpointPolicy         The Checkpoint Policy for Metadata.
+     * @param maxOutstandingDataFrames The maximum number of DataFrames that can be in flight to the DataFrameLog at any given time.
+     * @param executor                 An Executor to use for async operations.
+     * @throws NullPointerException     If any of the arguments are null.
+     * @throws IllegalArgumentException If maxOutstandingDataFrames is not a positive integer.
+     */
+    OperationProcessor(UpdateableContainerMetadata metadata, MemoryStateUpdater stateUpdater, DurableDataLog durableDataLog, MetadataCheckpointPolicy checkpointPolicy,
+                       int maxOutstandingDataFrames, ScheduledExecutorService executor) {
         super(String.format("OperationProcessor[%d]", metadata.getContainerId()), executor);
 
         // No need to check metadata or executor != null as the super() call above takes care of that.
         Preconditions.checkNotNull(stateUpdater, "stateUpdater");
         Preconditions.checkNotNull(durableDataLog, "durableDataLog");
         Preconditions.checkNotNull(checkpointPolicy, "checkpointPolicy");
+        Preconditions.checkArgument(maxOutstandingDataFrames > 0, "maxOutstandingDataFrames must be a positive integer.");
 
         this.metadataUpdater = new OperationMetadataUpdater(metadata);
         this.stateUpdater = stateUpdater;
         this.durableDataLog = durableDataLog;
         this.checkpointPolicy = checkpointPolicy;
+        this.maxOutstandingDataFrames = maxOutstandingDataFrames;
         this.operationQueue = new BlockingDrainingQueue<>();
     }
 
@@ -93,8 +120,8 @@ class OperationProcessor extends AbstractThreadPoolService implements Container
     protected CompletableFuture<Void> doRun() {
         return FutureHelpers.loop(
                 this::isRunning,
-                () -> this.operationQueue
-                        .take(MAX_READ_AT_ONCE)
+                () -> throttle()
+                        .thenCompose(v -> this.operationQueue.take(MAX_READ_AT_ONCE))
                         .thenAcceptAsync(this::processOperations, this.executor),
                 this.executor);
     }
@@ -166,8 +193,10 @@ class OperationProcessor extends AbstractThreadPoolService implements Container
      * <ol>
      * <li> Picks the next items from the queue
      * <li> Creates a DataFrameBuilder and starts appending items to it.
+     * <li> As the DataFrameBuilder seals DataFrames, seals the corresponding Metadata transactions.
      * <li> As the DataFrameBuilder acknowledges DataFrames being published, acknowledge the corresponding Operations as well.
      * <li> If at the end, the Queue still has items to process, processes those as well.
+     * <li> Waits for all DataFrames that are still in flight to be acknowledged.
      * </ol>
      *
      * @param operations The initial set of operations to process (in order). Multiple operations may be processed eventually
@@ -178,7 +207,8 @@ class OperationProcessor extends AbstractThreadPoolService implements Container
 
         // Create a new State and Builder (we need this either initially or after recovery from an error).
         final QueueProcessingState state = new QueueProcessingState(this.metadataUpdater, this.stateUpdater, this.checkpointPolicy, this.traceObjectId);
-        final DataFrameBuilder<Operation> dataFrameBuilder = new DataFrameBuilder<>(this.durableDataLog, state::commit, state::fail);
+        final DataFrameBuilder<Operation> dataFrameBuilder = new DataFrameBuilder<>(this.durableDataLog, this.maxOutstandingDataFrames,
+                this.metadataUpdater::sealTransaction, state::commit, state::failCommit, this.executor);
 
         try {
             // Process the operations in the queue. This loop will ensure we continue processing after a recoverable failure,
@@ -188,15 +218,16 @@ class OperationProcessor extends AbstractThreadPoolService implements Container
                 processOperations(operations, state, dataFrameBuilder);
 
                 // Check if there are more operations to process. If so, it's more efficient to process them now (no thread
-                // context switching, better DataFrame occupancy optimization) rather than by going back to run().
-                if (operations.isEmpty()) {
+                // context switching, better DataFrame occupancy optimization) rather than by going back to run(), unless
+                // we need to throttle them.
+                if (operations.isEmpty() && getThrottleDelay().isZero()) {
                     operations = this.operationQueue.poll(MAX_READ_AT_ONCE);
                     log.debug("{}: processOperations (Add OperationCount = {}).", this.traceObjectId, operations.size());
                 }
             }
 
             // Close the DataFrameBuilder, which makes sure that the last set of operations are properly flushed and
-            // completed.
+            // that all DataFrames in flight are completed.
             dataFrameBuilder.close();
             if (state.hasPending()) {
                 // Usually we reach this state if the only operation we had as a ProbeOperation (i.e. non-serializable),
@@ -208,6 +239,45 @@ class OperationProcessor extends AbstractThreadPoolService implements Container
         }
     }
 
+    /**
+     * Delays the processing of new Operations, based on how full the Cache is. Every Operation that makes it into the
+     * DataFrameLog must also make it into the Cache (appends cannot be dropped once durable), so we need to stop
+     * accepting new ones before the Cache runs out of capacity.
+     *
+     * @return A CompletableFuture that will be completed when new Operations can be processed.
+     */
+    private CompletableFuture<Void> throttle() {
+        if (getThrottleDelay().isZero()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        log.debug("{}: Throttling (CacheUtilization = {}).", this.traceObjectId, this.stateUpdater.getCacheUtilization());
+
+        // If the Cache is full, wait until enough of it has been evicted (which requires that data to be in Storage first).
+        // Otherwise slow down, more so the closer we are to its capacity.
+        return FutureHelpers
+                .loop(
+                        () -> isRunning() && this.stateUpdater.getCacheUtilization() >= 1,
+                        () -> FutureHelpers.delayedFuture(MAX_THROTTLE_DELAY, this.executor),
+                        this.executor)
+                .thenCompose(v -> FutureHelpers.delayedFuture(getThrottleDelay(), this.executor));
+    }
+
+    /**
+     * Calculates the amount of time to delay the processing of new Operations by, based on the current Cache utilization.
+     *
+     * @return The delay. This is Duration.ZERO if no throttling is needed, and MAX_THROTTLE_DELAY if the Cache is full.
+     */
+    private Duration getThrottleDelay() {
+        double utilization = this.stateUpdater.getCacheUtilization();
+        if (utilization < CACHE_THROTTLE_THRESHOLD) {
+            return Duration.ZERO;
+        }
+
+        double ratio = Math.min(1, (utilization - CACHE_THROTTLE_THRESHOLD) / (1 - CACHE_THROTTLE_THRESHOLD));
+        return Duration.ofMillis(Math.max(1, (long) (MAX_THROTTLE_DELAY.toMillis() * ratio)));
+    }
+
     /**
      * Processes all the given operations, in order, using the given QueueProcessingState and DataFrameBuilder.
      *
@@ -365,10 +435,14 @@ class OperationProcessor extends AbstractThreadPoolService implements Container
 
     /**
      * Temporary State for the QueueProcessor. Keeps track of pending Operations and allows committing or failing all of them.
+     * Operations are added by the QueueProcessor, while commits may be invoked from the threads that complete the DataFrame
+     * writes (always in order), hence all access to the pending Operations is synchronized.
      */
     @Slf4j
+    @ThreadSafe
     private static class QueueProcessingState {
         private final String traceObjectId;
+        @GuardedBy("this")
         private final Queue<CompletableOperation> pendingOperations;
         private final OperationMetadataUpdater metadataUpdater;
         private final MemoryStateUpdater logUpdater;
@@ -391,14 +465,14 @@ class OperationProcessor extends AbstractThreadPoolService implements Container
          *
          * @param operation The operation to append.
          */
-        void addPending(CompletableOperation operation) {
+        synchronized void addPending(CompletableOperation operation) {
             this.pendingOperations.add(operation);
         }
 
         /**
          * Gets a value indicating whether there exist any pending operations in this state.
          */
-        boolean hasPending() {
+        synchronized boolean hasPending() {
             return !this.pendingOperations.isEmpty();
         }
 
@@ -408,12 +482,12 @@ class OperationProcessor extends AbstractThreadPoolService implements Container
          * @param commitArgs The Data Frame Commit Args that triggered this action.
          * @throws DataCorruptionException When the operation has been committed, but failed to be accepted into the In-Memory log.
          */
-        void commit(DataFrameBuilder.DataFrameCommitArgs commitArgs) throws DataCorruptionException {
+        synchronized void commit(DataFrameBuilder.DataFrameCommitArgs commitArgs) throws DataCorruptionException {
             log.debug("{}: CommitSuccess (OperationCount = {}).", this.traceObjectId, this.pendingOperations.size());
 
-            // Record the Truncation marker and then commit any changes to metadata.
-            this.metadataUpdater.recordTruncationMarker(commitArgs.getLastStartedSequenceNumber(), commitArgs.getLogAddress());
-            this.metadataUpdater.commit();
+            // Commit any changes to metadata for the operations that are fully contained in this (or previous) DataFrames,
+            // and record the Truncation marker.
+            this.metadataUpdater.commit(commitArgs.getLastFullySerializedSequenceNumber(), commitArgs.getLastStartedSequenceNumber(), commitArgs.getLogAddress());
 
             // Acknowledge all pending entries, in the order in which they are in the queue. It is important that we ack entries in order of increasing Sequence Number.
             while (this.pendingOperations.size() > 0 && this.pendingOperations.peek().getOperation().getSequenceNumber() <= commitArgs.getLastFullySerializedSequenceNumber()) {
@@ -438,7 +512,7 @@ class OperationProcessor extends AbstractThreadPoolService implements Container
          *
          * @param ex The cause of the failure. The operations will be failed with this as a cause.
          */
-        void fail(Throwable ex) {
+        synchronized void fail(Throwable ex) {
             // Discard all updates to the metadata.
             this.metadataUpdater.rollback();
 
@@ -450,7 +524,35 @@ class OperationProcessor extends AbstractThreadPoolService implements Container
             }
         }
 
-        void forEachPending(Predicate<CompletableOperation> inspector) {
+        /**
+         * Rolls back all pending Metadata changes and fails the pending operations that could not be committed because
+         * of the given DataFrame commit failure.
+         *
+         * @param failureArgs The DataFrameCommitFailureArgs describing the failure.
+         */
+        synchronized void failCommit(DataFrameBuilder.DataFrameCommitFailureArgs failureArgs) {
+            if (!failureArgs.isSubsequentFrameCommitted()) {
+                // Nothing after the failed DataFrame made it into the DataFrameLog, so all pending operations have failed.
+                fail(failureArgs.getCause());
+                return;
+            }
+
+            // Some DataFrames written after the failed one did make it into the DataFrameLog, so we cannot tell the callers
+            // of the operations they contain that those operations failed. Only fail the operations up to the failed
+            // DataFrame; the DataFrameBuilder will then report a DataCorruptionException, which shuts us down.
+            this.metadataUpdater.rollback();
+            int failCount = 0;
+            while (!this.pendingOperations.isEmpty()
+                    && this.pendingOperations.peek().getOperation().getSequenceNumber() <= failureArgs.getLastStartedSequenceNumber()) {
+                this.pendingOperations.poll().fail(failureArgs.getCause());
+                failCount++;
+            }
+
+            log.error("{}: CommitFailure ({} operations, {} with undetermined outcome).", this.traceObjectId, failCount,
+                    this.pendingOperations.size(), failureArgs.getCause());
+        }
+
+        synchronized void forEachPending(Predicate<CompletableOperation> inspector) {
             this.pendingOperations.removeIf(inspector);
         }
     }
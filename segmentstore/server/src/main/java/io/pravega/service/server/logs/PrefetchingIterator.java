@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.server.logs;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.ExceptionHelpers;
+import io.pravega.common.Exceptions;
+import io.pravega.common.ObjectClosedException;
+import io.pravega.common.util.CloseableIterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A CloseableIterator that fetches items from another CloseableIterator in the background and keeps up to a fixed
+ * number of them ready to be consumed. This allows the (possibly slow) fetching of items to overlap with their processing.
+ * <p>
+ * This class is meant to be used by a single consumer. Items are fetched by tasks on the given Executor which only run
+ * while there is room for more items; no thread is held while waiting for the consumer to make room. Closing the
+ * iterator fails any getNext() call that is blocked waiting for an item with an ObjectClosedException.
+ *
+ * @param <T> Type of the items returned.
+ */
+@Slf4j
+@ThreadSafe
+class PrefetchingIterator<T> implements CloseableIterator<T, Exception> {
+    //region Members
+
+    private final String traceObjectId;
+    private final CloseableIterator<T, ? extends Exception> source;
+    private final BlockingQueue<Object> items;
+    private final Executor executor;
+    private final AtomicBoolean closed;
+    @GuardedBy("items")
+    private boolean fetching;
+    @GuardedBy("items")
+    private boolean sourceExhausted;
+    private volatile boolean finished;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the PrefetchingIterator class and begins fetching items in the background.
+     *
+     * @param source        The CloseableIterator to fetch items from.
+     * @param prefetchCount The maximum number of items to fetch ahead of the consumer.
+     * @param executor      An Executor to run the background fetches on.
+     * @param traceObjectId An identifier to use for logging purposes.
+     */
+    PrefetchingIterator(CloseableIterator<T, ? extends Exception> source, int prefetchCount, Executor executor, String traceObjectId) {
+        Preconditions.checkNotNull(source, "source");
+        Preconditions.checkNotNull(executor, "executor");
+        Preconditions.checkArgument(prefetchCount > 0, "prefetchCount must be a positive integer.");
+
+        this.traceObjectId = traceObjectId;
+        this.source = source;
+        this.items = new ArrayBlockingQueue<>(prefetchCount);
+        this.executor = executor;
+        this.closed = new AtomicBoolean();
+        triggerFetch();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            // The source may not be used concurrently, so wait for any ongoing fetch to complete before closing it.
+            synchronized (this.source) {
+                this.source.close();
+            }
+
+            // Wake up a consumer that may be blocked waiting for an item. A fetch that was already past its check for
+            // closing may still add an item, so make sure the End marker makes it in regardless.
+            End end = new End(new ObjectClosedException(this));
+            do {
+                this.items.clear();
+            } while (!this.items.offer(end));
+        }
+    }
+
+    //endregion
+
+    //region CloseableIterator Implementation
+
+    @Override
+    public T getNext() throws Exception {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        if (this.finished) {
+            return null;
+        }
+
+        Object next = this.items.take();
+
+        // We just made room for another item.
+        triggerFetch();
+        if (next instanceof End) {
+            this.finished = true;
+            Throwable ex = ((End) next).failure;
+            if (ex != null) {
+                throw ex instanceof Exception ? (Exception) ex : new RuntimeException(ex);
+            }
+
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        T result = (T) next;
+        return result;
+    }
+
+    //endregion
+
+    //region Helpers
+
+    /**
+     * Schedules a fetch task, unless one is already running or there is nothing more to fetch.
+     */
+    private void triggerFetch() {
+        synchronized (this.items) {
+            if (this.fetching || this.sourceExhausted || this.closed.get()) {
+                return;
+            }
+
+            this.fetching = true;
+        }
+
+        this.executor.execute(this::fetch);
+    }
+
+    /**
+     * Fetches items from the source until it is exhausted or there is no more room for them. This is the only place
+     * where items are added, so any room found here cannot be taken away by anyone else.
+     */
+    private void fetch() {
+        boolean exhausted = false;
+        try {
+            while (!exhausted && this.items.remainingCapacity() > 0) {
+                T item;
+                synchronized (this.source) {
+                    if (this.closed.get()) {
+                        return;
+                    }
+
+                    item = this.source.getNext();
+                }
+
+                if (item == null) {
+                    exhausted = true;
+                    this.items.add(new End(null));
+                } else {
+                    this.items.add(item);
+                }
+            }
+        } catch (Throwable ex) {
+            if (ExceptionHelpers.mustRethrow(ex)) {
+                throw (Error) ex;
+            }
+
+            exhausted = true;
+            if (!this.closed.get()) {
+                this.items.add(new End(ex));
+            }
+        } finally {
+            synchronized (this.items) {
+                this.fetching = false;
+                this.sourceExhausted |= exhausted;
+            }
+        }
+
+        if (!exhausted && this.items.remainingCapacity() > 0) {
+            // The consumer made room after we last checked, but before we were done; its trigger may have been ignored.
+            triggerFetch();
+        }
+    }
+
+    //endregion
+
+    //region End
+
+    /**
+     * Marks the end of the fetched items, either because the source has been exhausted or because it failed.
+     */
+    @RequiredArgsConstructor
+    private static class End {
+        private final Throwable failure;
+    }
+
+    //endregion
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.server.reading;
+
+/**
+ * Defines how the ReadIndex assigns Cache Generations to its entries, which in turn determines the order in which the
+ * CacheManager evicts them.
+ */
+public enum CacheEvictionPolicy {
+    /**
+     * Least-Recently-Used. Every entry is assigned the current generation when it is added to the Cache and every time
+     * it is accessed.
+     */
+    LRU(0),
+
+    /**
+     * Segmented Least-Recently-Used. Entries that are added as a result of appends are handled the same way as with LRU.
+     * Entries that are loaded from Storage (catch-up reads) are placed in a probationary segment, and are only promoted
+     * out of it once they have been accessed from the Cache in a number of distinct generations (multiple accesses within
+     * the same generation, such as a reader going through an entry in smaller chunks, count only once).
+     * <p>
+     * Entries in probation age the same way as any other entries (so they can be accessed again and promoted for as long
+     * as they would stay in the Cache under LRU), but whenever the Cache is over its size limit, they are evicted before
+     * any other entries. This prevents a single large catch-up reader from evicting the tail data that is shared by all
+     * other readers.
+     */
+    SLRU(2);
+
+    private final int probationAccessCount;
+
+    CacheEvictionPolicy(int probationAccessCount) {
+        this.probationAccessCount = probationAccessCount;
+    }
+
+    /**
+     * Gets a value indicating the number of distinct generations in which an entry loaded from Storage needs to be accessed
+     * before it is promoted out of the probationary segment. If 0, such entries are not placed in probation at all.
+     *
+     * @return The value.
+     */
+    int getProbationAccessCount() {
+        return this.probationAccessCount;
+    }
+}
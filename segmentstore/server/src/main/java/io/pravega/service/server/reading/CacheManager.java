@@ -13,6 +13,7 @@ import io.pravega.common.ExceptionHelpers;
 import io.pravega.common.Exceptions;
 import io.pravega.common.ObjectClosedException;
 import io.pravega.common.concurrent.ServiceShutdownListener;
+import io.pravega.service.storage.CacheUtilizationProvider;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.AbstractScheduledService;
 import java.util.ArrayList;
@@ -37,6 +38,9 @@ import lombok.extern.slf4j.Slf4j;
  * (in the clients) that is generated or updated gets assigned the current generation. As the CacheManager determines that
  * there are too many Cache Entries or that the maximum size has been exceeded, it will increment the oldest generation.
  * The CacheManager Clients can use this information to evict those Cache Entries that have a generation below the oldest generation number.
+ * <p/>
+ * Entries that are in probation (see CacheEvictionPolicy) have a separate cutoff, the oldest probationary generation. It
+ * follows the oldest generation, except when the maximum size has been exceeded, in which case it is incremented first.
  */
 @Slf4j
 @ThreadSafe
@@ -47,9 +51,15 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
     @GuardedBy("clients")
     private final Collection<Client> clients;
     private final ScheduledExecutorService executorService;
+    private final Object evictionLock = new Object();
+    @GuardedBy("evictionLock")
     private int currentGeneration;
+    @GuardedBy("evictionLock")
     private int oldestGeneration;
+    @GuardedBy("evictionLock")
+    private int oldestProbationaryGeneration;
     private final CachePolicy policy;
+    private final CacheUtilizationProvider utilizationProvider;
     private final AtomicBoolean closed;
 
     //endregion
@@ -63,11 +73,26 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
      * @param executorService An executorService to use for scheduled tasks.
      */
     public CacheManager(CachePolicy policy, ScheduledExecutorService executorService) {
+        this(policy, null, executorService);
+    }
+
+    /**
+     * Creates a new instance of the CacheManager class.
+     *
+     * @param policy              The policy to use with this CacheManager.
+     * @param utilizationProvider (Optional) A CacheUtilizationProvider that reports the exact number of bytes used by
+     *                            the Caches. If provided, this is used instead of the sizes reported by the Clients
+     *                            when evaluating the policy.
+     * @param executorService     An executorService to use for scheduled tasks.
+     */
+    public CacheManager(CachePolicy policy, CacheUtilizationProvider utilizationProvider, ScheduledExecutorService executorService) {
         Preconditions.checkNotNull(policy, "policy");
         Preconditions.checkNotNull(executorService, "executorService");
         this.policy = policy;
+        this.utilizationProvider = utilizationProvider;
         this.clients = new HashSet<>();
         this.oldestGeneration = 0;
+        this.oldestProbationaryGeneration = 0;
         this.currentGeneration = 0;
         this.executorService = executorService;
         this.closed = new AtomicBoolean();
@@ -111,6 +136,11 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
 
         try {
             applyCachePolicy();
+            if (getCacheUtilization() >= 1) {
+                // The policy only evicts once the Cache is over its limit, but anything waiting for room in it (such as
+                // throttled appends) cannot make progress until it is below that.
+                evictOldest();
+            }
         } catch (Throwable ex) {
             if (ExceptionHelpers.mustRethrow(ex)) {
                 throw ex;
@@ -140,10 +170,19 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
     void register(Client client) {
         Exceptions.checkNotClosed(this.closed.get(), this);
         Preconditions.checkNotNull(client, "client");
+        int currentGeneration;
+        int oldestGeneration;
+        int oldestProbationaryGeneration;
+        synchronized (this.evictionLock) {
+            currentGeneration = this.currentGeneration;
+            oldestGeneration = this.oldestGeneration;
+            oldestProbationaryGeneration = this.oldestProbationaryGeneration;
+        }
+
         synchronized (this.clients) {
             if (!this.clients.contains(client)) {
                 this.clients.add(client);
-                client.updateGenerations(this.currentGeneration, this.oldestGeneration);
+                client.updateGenerations(currentGeneration, oldestGeneration, oldestProbationaryGeneration);
             }
         }
 
@@ -171,44 +210,126 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
 
     //endregion
 
+    //region Utilization
+
+    /**
+     * Gets a value indicating how much of the Cache is currently used, relative to the maximum size set by the CachePolicy.
+     * A value of 1 or above means that the Cache is full and nothing more can be added to it until some data is evicted.
+     *
+     * @return The Cache utilization, as a fraction of the CachePolicy's maximum size.
+     */
+    public double getCacheUtilization() {
+        long size = 0;
+        if (this.utilizationProvider != null) {
+            size = this.utilizationProvider.getUsedBytes();
+        } else {
+            for (Client c : getCurrentClients()) {
+                try {
+                    size += c.getCacheStatus().getSize();
+                } catch (ObjectClosedException ex) {
+                    // This object was closed but it was not unregistered. It will be taken care of in the next cycle.
+                }
+            }
+        }
+
+        return (double) size / this.policy.getMaxSize();
+    }
+
+    //endregion
+
     //region Helpers
 
     protected void applyCachePolicy() {
-        // Run through all the active clients and gather status.
-        CacheStatus currentStatus = collectStatus();
-        if (currentStatus == null || currentStatus.getSize() == 0) {
-            // This indicates we have no clients or those clients have no data.
-            return;
-        }
+        synchronized (this.evictionLock) {
+            // Run through all the active clients and gather status.
+            CacheStatus currentStatus = collectStatus();
+            if (currentStatus == null || currentStatus.getSize() == 0) {
+                // This indicates we have no clients or those clients have no data.
+                return;
+            }
 
-        // Increment current generation (if needed).
-        boolean currentChanged = adjustCurrentGeneration(currentStatus);
+            // Increment current generation (if needed).
+            boolean currentChanged = adjustCurrentGeneration(currentStatus);
 
-        // Increment oldest generation (if needed and if possible).
-        boolean oldestChanged = adjustOldestGeneration(currentStatus);
+            // If we are over the size limit, evict entries in probation first.
+            currentStatus = evictProbationary(currentStatus);
+            if (currentStatus == null) {
+                return;
+            }
 
-        if (!currentChanged && !oldestChanged) {
-            // Nothing changed, nothing to do.
-            return;
+            // Increment oldest generation (if needed and if possible).
+            boolean oldestChanged = adjustOldestGeneration(currentStatus);
+
+            if (!currentChanged && !oldestChanged) {
+                // Nothing changed, nothing to do.
+                return;
+            }
+
+            // Notify clients that something changed (if any of the above got changed). Run in a loop, until either we can't
+            // adjust the oldest anymore or we are unable to trigger any changes to the clients.
+            long sizeReduction;
+            do {
+                sizeReduction = updateClients();
+                if (sizeReduction > 0) {
+                    currentStatus = this.utilizationProvider == null
+                            ? currentStatus.withUpdatedSize(-sizeReduction)
+                            : withExactSize(currentStatus);
+                    logCurrentStatus(currentStatus);
+                    oldestChanged = adjustOldestGeneration(currentStatus);
+                }
+            } while (sizeReduction > 0 && oldestChanged);
         }
+    }
 
-        // Notify clients that something changed (if any of the above got changed). Run in a loop, until either we can't
-        // adjust the oldest anymore or we are unable to trigger any changes to the clients.
-        long sizeReduction;
-        do {
-            sizeReduction = updateClients();
-            if (sizeReduction > 0) {
-                currentStatus = currentStatus.withUpdatedSize(-sizeReduction);
-                logCurrentStatus(currentStatus);
-                oldestChanged = adjustOldestGeneration(currentStatus);
+    /**
+     * Evicts data from the Cache right away, regardless of whether the policy is exceeded. This is meant to be invoked
+     * when the Cache has run out of capacity, and it evicts the oldest generations that have any evictable data.
+     *
+     * @return True if any data was evicted, false if there was nothing that could be evicted.
+     */
+    boolean evictOldest() {
+        synchronized (this.evictionLock) {
+            CacheStatus currentStatus = collectStatus();
+            if (currentStatus == null || currentStatus.getSize() == 0) {
+                return false;
             }
-        } while (sizeReduction > 0 && oldestChanged);
+
+            adjustCurrentGeneration(currentStatus);
+            while (currentStatus.getProbationSize() > 0 && this.oldestProbationaryGeneration < this.currentGeneration) {
+                // Entries in probation are the first to go.
+                this.oldestProbationaryGeneration++;
+                long sizeReduction = updateClients();
+                if (sizeReduction > 0) {
+                    log.info("{} Evicted {} bytes in probation on demand. CurrentGeneration = {}, OldestProbationaryGeneration = {}.",
+                            TRACE_OBJECT_ID, sizeReduction, this.currentGeneration, this.oldestProbationaryGeneration);
+                    return true;
+                }
+            }
+
+            int newOldestGeneration = Math.max(this.oldestGeneration, currentStatus.getOldestGeneration());
+            while (newOldestGeneration < this.currentGeneration) {
+                // Move on to the next generation until something is evicted. Not all data is evictable (for example,
+                // appends that have not yet been written to Storage), so one generation may not be enough.
+                newOldestGeneration++;
+                setOldestGeneration(newOldestGeneration);
+                long sizeReduction = updateClients();
+                if (sizeReduction > 0) {
+                    log.info("{} Evicted {} bytes on demand. CurrentGeneration = {}, OldestGeneration = {}.",
+                            TRACE_OBJECT_ID, sizeReduction, this.currentGeneration, this.oldestGeneration);
+                    return true;
+                }
+            }
+
+            return false;
+        }
     }
 
     private CacheStatus collectStatus() {
         int minGeneration = this.currentGeneration;
         int maxGeneration = 0;
         long totalSize = 0;
+        int totalEntryCount = 0;
+        long totalProbationSize = 0;
         Collection<Client> clients = getCurrentClients();
         if (clients.size() == 0) {
             return null;
@@ -231,6 +352,8 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
             }
 
             totalSize += clientStatus.getSize();
+            totalEntryCount += clientStatus.getEntryCount();
+            totalProbationSize += clientStatus.getProbationSize();
             if (clientStatus.oldestGeneration > this.currentGeneration || clientStatus.newestGeneration > this.currentGeneration) {
                 log.warn("{} Client {} returned status that is out of bounds {}. CurrentGeneration = {}, OldestGeneration = {}.", TRACE_OBJECT_ID, c, clientStatus, this.currentGeneration, this.oldestGeneration);
             }
@@ -239,14 +362,20 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
             maxGeneration = Math.max(maxGeneration, clientStatus.newestGeneration);
         }
 
-        return new CacheStatus(totalSize, minGeneration, maxGeneration);
+        CacheStatus result = new CacheStatus(totalSize, minGeneration, maxGeneration, totalEntryCount, totalProbationSize);
+        return this.utilizationProvider == null ? result : withExactSize(result);
+    }
+
+    private CacheStatus withExactSize(CacheStatus status) {
+        // The Clients only know the logical size of their entries; the actual Cache may use more (or less) than that.
+        return status.withUpdatedSize(this.utilizationProvider.getUsedBytes() - status.getSize());
     }
 
     private long updateClients() {
         long sizeReduction = 0;
         for (Client c : getCurrentClients()) {
             try {
-                sizeReduction += Math.max(0, c.updateGenerations(this.currentGeneration, this.oldestGeneration));
+                sizeReduction += Math.max(0, c.updateGenerations(this.currentGeneration, this.oldestGeneration, this.oldestProbationaryGeneration));
             } catch (ObjectClosedException ex) {
                 // This object was closed but it was not unregistered. Do it now.
                 log.warn("{} Detected closed client {}.", TRACE_OBJECT_ID, c);
@@ -290,12 +419,32 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
 
         boolean isAdjusted = newOldestGeneration > this.oldestGeneration;
         if (isAdjusted) {
-            this.oldestGeneration = newOldestGeneration;
+            setOldestGeneration(newOldestGeneration);
         }
 
         return isAdjusted;
     }
 
+    private CacheStatus evictProbationary(CacheStatus currentStatus) {
+        // Entries in probation (see CacheEvictionPolicy.SLRU) age like any other entries, but when we are over the size
+        // limit they are evicted before anything else: their cutoff is moved up, one generation at a time (oldest first),
+        // until we are back under the limit, there is nothing left in probation, or it reaches the current generation.
+        while (currentStatus != null
+                && currentStatus.getSize() > this.policy.getMaxSize()
+                && currentStatus.getProbationSize() > 0
+                && this.oldestProbationaryGeneration < this.currentGeneration) {
+            this.oldestProbationaryGeneration++;
+            if (updateClients() > 0) {
+                currentStatus = collectStatus();
+                if (currentStatus != null) {
+                    logCurrentStatus(currentStatus);
+                }
+            }
+        }
+
+        return currentStatus;
+    }
+
     private boolean exceedsPolicy(CacheStatus currentStatus) {
         // We need to increment the OldestGeneration only if any of the following conditions occurred:
         // 1. We currently exceed the maximum size as defined by the cache policy.
@@ -304,6 +453,11 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
                 || currentStatus.getOldestGeneration() < getOldestPermissibleGeneration();
     }
 
+    private void setOldestGeneration(int oldestGeneration) {
+        this.oldestGeneration = oldestGeneration;
+        this.oldestProbationaryGeneration = Math.max(this.oldestProbationaryGeneration, oldestGeneration);
+    }
+
     private int getOldestPermissibleGeneration() {
         return this.currentGeneration - this.policy.getMaxGenerations() + 1;
     }
@@ -320,12 +474,14 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
             size = this.clients.size();
         }
 
-        log.info("{} Current Generation = {}, Oldest Generation = {}, Clients = {},  CacheSize = {} MB",
+        log.info("{} Current Generation = {}, Oldest Generation = {}, Clients = {},  CacheSize = {} MB, ProbationSize = {} MB, Entries = {}",
                 TRACE_OBJECT_ID,
                 this.currentGeneration,
                 this.oldestGeneration,
                 size,
-                status.getSize() / 1048576);
+                status.getSize() / 1048576,
+                status.getProbationSize() / 1048576,
+                status.getEntryCount());
     }
 
     //endregion
@@ -347,9 +503,12 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
          * @param currentGeneration The value of the current generation.
          * @param oldestGeneration  The value of the oldest generation. This is the cutoff for which entries can still
          *                          exist in the cache.
+         * @param oldestProbationaryGeneration The value of the oldest generation for entries that are in probation (see
+         *                                     CacheEvictionPolicy). This is never smaller than oldestGeneration, and it
+         *                                     only moves past it when the cache is over its size limit.
          * @return The total size of the cache data that was trimmed by this update.
          */
-        long updateGenerations(int currentGeneration, int oldestGeneration);
+        long updateGenerations(int currentGeneration, int oldestGeneration, int oldestProbationaryGeneration);
     }
 
     //endregion
@@ -357,12 +516,14 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
     //region CacheStatus
 
     /**
-     * Represents the current status of the cache for a particular client.
+     * Represents the current status of the cache for a particular client (or, when aggregated, for all clients).
      */
     static class CacheStatus {
         private final int oldestGeneration;
         private final int newestGeneration;
         private final long size;
+        private final int entryCount;
+        private final long probationSize;
 
         /**
          * Creates a new instance of the CacheStatus class.
@@ -370,12 +531,28 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
          * @param size The total size of the cache items in this particular client.
          */
         CacheStatus(long size, int oldestGeneration, int newestGeneration) {
+            this(size, oldestGeneration, newestGeneration, 0, 0);
+        }
+
+        /**
+         * Creates a new instance of the CacheStatus class.
+         *
+         * @param size          The total size of the cache items in this particular client.
+         * @param entryCount    The number of cache items in this particular client.
+         * @param probationSize The total size of the cache items in this particular client that are in probation (see
+         *                      CacheEvictionPolicy). This is included in size.
+         */
+        CacheStatus(long size, int oldestGeneration, int newestGeneration, int entryCount, long probationSize) {
             Preconditions.checkArgument(size >= 0, "size must be a non-negative number");
             Preconditions.checkArgument(oldestGeneration >= 0, "oldestGeneration must be a non-negative number");
             Preconditions.checkArgument(newestGeneration >= oldestGeneration, "newestGeneration must be larger than or equal to oldestGeneration");
+            Preconditions.checkArgument(entryCount >= 0, "entryCount must be a non-negative number");
+            Preconditions.checkArgument(probationSize >= 0 && probationSize <= size, "probationSize must be a non-negative number smaller than or equal to size");
             this.size = size;
             this.oldestGeneration = oldestGeneration;
             this.newestGeneration = newestGeneration;
+            this.entryCount = entryCount;
+            this.probationSize = probationSize;
         }
 
         /**
@@ -399,15 +576,30 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
             return this.newestGeneration;
         }
 
+        /**
+         * Gets a value indicating the number of cache items.
+         */
+        int getEntryCount() {
+            return this.entryCount;
+        }
+
+        /**
+         * Gets a value indicating the total size of the cache items that are in probation.
+         */
+        long getProbationSize() {
+            return this.probationSize;
+        }
+
         private CacheStatus withUpdatedSize(long sizeDelta) {
             long newSize = this.size + sizeDelta;
             assert newSize >= 0 : "given sizeDelta would result in a negative size";
-            return new CacheStatus(newSize, this.oldestGeneration, this.newestGeneration);
+            return new CacheStatus(newSize, this.oldestGeneration, this.newestGeneration, this.entryCount, Math.min(this.probationSize, newSize));
         }
 
         @Override
         public String toString() {
-            return String.format("Size = %d, OG-NG = %d-%d", this.size, this.oldestGeneration, this.newestGeneration);
+            return String.format("Size = %d, OG-NG = %d-%d, Entries = %d, ProbationSize = %d",
+                    this.size, this.oldestGeneration, this.newestGeneration, this.entryCount, this.probationSize);
         }
     }
 
@@ -17,6 +17,7 @@ import io.pravega.service.server.ReadIndex;
 import io.pravega.service.server.SegmentMetadata;
 import io.pravega.service.storage.Cache;
 import io.pravega.service.storage.CacheFactory;
+import io.pravega.service.storage.CacheFullException;
 import io.pravega.service.storage.ReadOnlyStorage;
 import com.google.common.base.Preconditions;
 import java.io.InputStream;
@@ -126,7 +127,21 @@ public class ContainerReadIndex implements ReadIndex {
         // Append the data to the StreamSegment Index. It performs further validation with respect to offsets, etc.
         StreamSegmentReadIndex index = getReadIndex(streamSegmentId, true);
         Exceptions.checkArgument(!index.isMerged(), "streamSegmentId", "StreamSegment is merged. Cannot append to it anymore.");
-        index.append(offset, data);
+        while (true) {
+            try {
+                index.append(offset, data);
+                return;
+            } catch (CacheFullException ex) {
+                // The append is already durable, so it must make it into the index. New operations are throttled well
+                // before the Cache fills up, but some may already have been in flight. Make room for it by evicting data
+                // that is already in Storage (without waiting for the CacheManager's next cycle), then try again.
+                log.warn("{}: Cache is full (StreamSegmentId = {}, Offset = {}, DataLength = {}); evicting.",
+                        this.traceObjectId, streamSegmentId, offset, data.length);
+                if (!this.cacheManager.evictOldest()) {
+                    throw ex;
+                }
+            }
+        }
     }
 
     @Override
@@ -241,6 +256,11 @@ public class ContainerReadIndex implements ReadIndex {
         log.info("{}: Cleaned up ReadIndices for deleted Segments {}.", this.traceObjectId, removed);
     }
 
+    @Override
+    public double getCacheUtilization() {
+        return this.cacheManager.getCacheUtilization();
+    }
+
     @Override
     public void enterRecoveryMode(ContainerMetadata recoveryMetadataSource) {
         Exceptions.checkNotClosed(this.closed.get(), this);
@@ -14,6 +14,7 @@ import io.pravega.service.server.ContainerMetadata;
 import io.pravega.service.server.ReadIndex;
 import io.pravega.service.server.ReadIndexFactory;
 import io.pravega.service.storage.CacheFactory;
+import io.pravega.service.storage.CacheUtilizationProvider;
 import io.pravega.service.storage.ReadOnlyStorage;
 import com.google.common.base.Preconditions;
 
@@ -44,7 +45,7 @@ public class ContainerReadIndexFactory implements ReadIndexFactory {
         this.config = config;
         this.cacheFactory = cacheFactory;
         this.executorService = executorService;
-        this.cacheManager = new CacheManager(config.getCachePolicy(), this.executorService);
+        this.cacheManager = new CacheManager(config.getCachePolicy(), getUtilizationProvider(cacheFactory), this.executorService);
 
         // Start the CacheManager. It's OK to wait for it to start, as it doesn't do anything expensive during that phase.
         this.cacheManager.startAsync().awaitRunning();
@@ -56,6 +57,10 @@ public class ContainerReadIndexFactory implements ReadIndexFactory {
         return new ContainerReadIndex(this.config, containerMetadata, this.cacheFactory, storage, this.cacheManager, this.executorService);
     }
 
+    private static CacheUtilizationProvider getUtilizationProvider(CacheFactory cacheFactory) {
+        return cacheFactory instanceof CacheUtilizationProvider ? (CacheUtilizationProvider) cacheFactory : null;
+    }
+
     @Override
     public void close() {
         if (!this.closed) {
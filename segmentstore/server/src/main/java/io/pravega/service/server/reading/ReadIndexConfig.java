@@ -11,6 +11,7 @@ package io.pravega.service.server.reading;
 
 import io.pravega.common.util.ConfigBuilder;
 import io.pravega.common.util.ConfigurationException;
+import io.pravega.common.util.InvalidPropertyValueException;
 import io.pravega.common.util.Property;
 import io.pravega.common.util.TypedProperties;
 import java.time.Duration;
@@ -23,8 +24,11 @@ import lombok.Getter;
 public class ReadIndexConfig {
     //region Config Names
     public static final Property<Integer> STORAGE_READ_ALIGNMENT = Property.named("storageReadAlignment", 1024 * 1024);
+    public static final Property<Integer> STORAGE_READ_AHEAD_LENGTH = Property.named("storageReadAheadLength", 4 * 1024 * 1024);
     public static final Property<Integer> MEMORY_READ_MIN_LENGTH = Property.named("memoryReadMinLength", 4 * 1024);
+    public static final Property<Integer> CACHE_ENTRY_MAX_APPEND_LENGTH = Property.named("cacheEntryMaxAppendLength", 4 * 1024);
     public static final Property<Integer> STORAGE_READ_DEFAULT_TIMEOUT = Property.named("storageReadDefaultTimeoutMillis", 30 * 1000);
+    public static final Property<String> CACHE_EVICTION_POLICY = Property.named("cacheEvictionPolicy", CacheEvictionPolicy.LRU.name());
     public static final Property<Long> CACHE_POLICY_MAX_SIZE = Property.named("cacheMaxSize", 16L * 1024 * 1024 * 1024);
     public static final Property<Integer> CACHE_POLICY_MAX_TIME = Property.named("cacheMaxTimeMillis", 30 * 60 * 1000);
     public static final Property<Integer> CACHE_POLICY_GENERATION_TIME = Property.named("cacheGenerationTimeMillis", 5 * 1000);
@@ -41,6 +45,16 @@ public class ReadIndexConfig {
     @Getter
     private final int storageReadAlignment;
 
+    /**
+     * The number of bytes to read ahead from Storage when a Segment is being read sequentially from Storage. When a
+     * Storage Read begins exactly where the previous one (or its read-ahead) ended, an additional Storage Read of up to
+     * this many bytes is issued right after it, and its result is inserted into the Cache.
+     * <p>
+     * Setting this to 0 will effectively disable this feature.
+     */
+    @Getter
+    private final int storageReadAheadLength;
+
     /**
      * The minimum number of bytes to serve from memory during reads. The ReadIndex will try to coalesce data from multiple
      * contiguous index entries, as long as they are all referring to cached data, when serving individual ReadResultEntries
@@ -55,12 +69,28 @@ public class ReadIndexConfig {
     @Getter
     private final int memoryReadMinLength;
 
+    /**
+     * The maximum length of a Cache Entry that new appends can be added to. If the last Cache Entry of a Segment is
+     * shorter than this, new appends are added to it (up to this length), instead of creating a new entry for each
+     * append. This reduces the number of entries (and their overhead) for Segments with many small appends.
+     * <p>
+     * Setting this to 0 will effectively disable this feature.
+     */
+    @Getter
+    private final int cacheEntryMaxAppendLength;
+
     /**
      * The CachePolicy, as defined in this configuration.
      */
     @Getter
     private final CachePolicy cachePolicy;
 
+    /**
+     * The CacheEvictionPolicy to use, which determines the order in which Cache Entries are evicted.
+     */
+    @Getter
+    private final CacheEvictionPolicy cacheEvictionPolicy;
+
     /**
      * The Default Timeout (should no other value be provided) for Storage reads.
      */
@@ -78,12 +108,24 @@ public class ReadIndexConfig {
      */
     private ReadIndexConfig(TypedProperties properties) throws ConfigurationException {
         this.storageReadAlignment = properties.getInt(STORAGE_READ_ALIGNMENT);
+        this.storageReadAheadLength = properties.getInt(STORAGE_READ_AHEAD_LENGTH);
+        if (this.storageReadAheadLength < 0) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' must be a non-negative integer.", STORAGE_READ_AHEAD_LENGTH.getName()));
+        }
+
         this.memoryReadMinLength = properties.getInt(MEMORY_READ_MIN_LENGTH);
+        this.cacheEntryMaxAppendLength = properties.getInt(CACHE_ENTRY_MAX_APPEND_LENGTH);
         this.storageReadDefaultTimeout = Duration.ofMillis(properties.getInt(STORAGE_READ_DEFAULT_TIMEOUT));
         long cachePolicyMaxSize = properties.getLong(CACHE_POLICY_MAX_SIZE);
         int cachePolicyMaxTime = properties.getInt(CACHE_POLICY_MAX_TIME);
         int cachePolicyGenerationTime = properties.getInt(CACHE_POLICY_GENERATION_TIME);
         this.cachePolicy = new CachePolicy(cachePolicyMaxSize, Duration.ofMillis(cachePolicyMaxTime), Duration.ofMillis(cachePolicyGenerationTime));
+        String evictionPolicy = properties.get(CACHE_EVICTION_POLICY);
+        try {
+            this.cacheEvictionPolicy = CacheEvictionPolicy.valueOf(evictionPolicy.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidPropertyValueException(String.format("%s.%s", COMPONENT_CODE, CACHE_EVICTION_POLICY.getName()), evictionPolicy, ex);
+        }
     }
 
     /**
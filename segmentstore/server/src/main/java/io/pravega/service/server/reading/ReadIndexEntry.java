@@ -23,6 +23,10 @@ abstract class ReadIndexEntry implements SortedIndex.IndexEntry {
     private final long streamSegmentOffset;
     @GuardedBy("this")
     private int generation;
+    @GuardedBy("this")
+    private int remainingProbationAccesses;
+    @GuardedBy("this")
+    private int lastProbationAccessGeneration = -1;
 
     //endregion
 
@@ -63,6 +67,42 @@ abstract class ReadIndexEntry implements SortedIndex.IndexEntry {
         this.generation = generation;
     }
 
+    /**
+     * Places this ReadIndexEntry in probation, which it will leave after it has been accessed the given number of times.
+     *
+     * @param accessCount The number of accesses required to leave probation. If 0, the entry will not be in probation.
+     */
+    synchronized void setProbation(int accessCount) {
+        Preconditions.checkArgument(accessCount >= 0, "accessCount must be a non-negative number.");
+        this.remainingProbationAccesses = accessCount;
+    }
+
+    /**
+     * Gets a value indicating whether this ReadIndexEntry is in probation (see CacheEvictionPolicy).
+     *
+     * @return True if in probation, false otherwise.
+     */
+    synchronized boolean isInProbation() {
+        return this.remainingProbationAccesses > 0;
+    }
+
+    /**
+     * Records an access to this ReadIndexEntry while it is in probation. Only the first access in each Cache Generation
+     * is counted, so that a single reader going through the entry in several smaller reads does not promote it.
+     *
+     * @param currentGeneration The current Cache Generation.
+     * @return True if this access caused the entry to leave probation, false otherwise.
+     */
+    synchronized boolean recordProbationAccess(int currentGeneration) {
+        if (this.remainingProbationAccesses <= 0 || this.lastProbationAccessGeneration == currentGeneration) {
+            return false;
+        }
+
+        this.lastProbationAccessGeneration = currentGeneration;
+        this.remainingProbationAccesses--;
+        return this.remainingProbationAccesses == 0;
+    }
+
     /**
      * Gets a value indicating the StreamSegment offset for this entry.
      */
@@ -27,6 +27,8 @@ class ReadIndexSummary {
     @GuardedBy("this")
     private long totalSize;
     @GuardedBy("this")
+    private long probationSize;
+    @GuardedBy("this")
     private final HashMap<Integer, Integer> generations;
 
     //endregion
@@ -42,6 +44,15 @@ class ReadIndexSummary {
 
     //endregion
 
+    /**
+     * Gets the value of the current generation.
+     *
+     * @return The current generation.
+     */
+    synchronized int getCurrentGeneration() {
+        return this.currentGeneration;
+    }
+
     /**
      * Updates the current generation.
      *
@@ -52,6 +63,31 @@ class ReadIndexSummary {
         this.currentGeneration = generation;
     }
 
+    /**
+     * Records the addition of a probationary element of the given size to the current generation.
+     *
+     * @param size The size of the element to add.
+     * @return The value of the current generation.
+     */
+    synchronized int addProbationary(long size) {
+        Preconditions.checkArgument(size >= 0, "size must be a non-negative number");
+        this.probationSize += size;
+        return add(size);
+    }
+
+    /**
+     * Records that a probationary element of the given size has been promoted. This element will be removed from its
+     * current generation and recorded in the current generation.
+     *
+     * @param size       The size of the element to promote.
+     * @param generation The original generation of the element to promote.
+     * @return The value of the current generation.
+     */
+    synchronized int promoteOne(long size, int generation) {
+        decreaseProbationSize(size);
+        return touchOne(generation);
+    }
+
     /**
      * Records the addition of an element of the given size to the current generation.
      *
@@ -95,6 +131,17 @@ class ReadIndexSummary {
         removeFromGeneration(generation);
     }
 
+    /**
+     * Records the removal of a probationary element of the given size from the given generation.
+     *
+     * @param size       The size of the element to remove.
+     * @param generation The generation of the element to remove.
+     */
+    synchronized void removeProbationary(long size, int generation) {
+        decreaseProbationSize(size);
+        remove(size, generation);
+    }
+
     /**
      * Records that an element pertaining to the given generation has been used. This element will be removed from
      * its current generation and recorded in the current generation.
@@ -108,13 +155,29 @@ class ReadIndexSummary {
         return this.currentGeneration;
     }
 
+    /**
+     * Records that an element pertaining to the given generation has grown by the given size. This element will be
+     * removed from its current generation and recorded in the current generation.
+     *
+     * @param size       The number of bytes the element has grown by.
+     * @param generation The original generation of the element.
+     * @return The value of the current generation.
+     */
+    synchronized int extendOne(long size, int generation) {
+        Preconditions.checkArgument(size >= 0, "size must be a non-negative number");
+        this.totalSize += size;
+        return touchOne(generation);
+    }
+
     /**
      * Generates a CacheManager.CacheStatus object with the information in this ReadIndexSummary object.
      */
     synchronized CacheManager.CacheStatus toCacheStatus() {
         AtomicInteger oldestGeneration = new AtomicInteger(Integer.MAX_VALUE);
         AtomicInteger newestGeneration = new AtomicInteger(0);
-        this.generations.keySet().forEach(g -> {
+        AtomicInteger entryCount = new AtomicInteger(0);
+        this.generations.forEach((g, count) -> {
+            entryCount.addAndGet(count);
             if (oldestGeneration.get() > g) {
                 oldestGeneration.set(g);
             }
@@ -124,7 +187,17 @@ class ReadIndexSummary {
             }
         });
 
-        return new CacheManager.CacheStatus(this.totalSize, Math.min(newestGeneration.get(), oldestGeneration.get()), newestGeneration.get());
+        return new CacheManager.CacheStatus(this.totalSize, Math.min(newestGeneration.get(), oldestGeneration.get()), newestGeneration.get(),
+                entryCount.get(), Math.min(this.probationSize, this.totalSize));
+    }
+
+    @GuardedBy("this")
+    private void decreaseProbationSize(long size) {
+        Preconditions.checkArgument(size >= 0, "size must be a non-negative number");
+        this.probationSize -= size;
+        if (this.probationSize < 0) {
+            this.probationSize = 0;
+        }
     }
 
     @GuardedBy("this")
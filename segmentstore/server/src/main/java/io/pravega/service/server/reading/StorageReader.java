@@ -19,6 +19,9 @@ import io.pravega.service.storage.SegmentHandle;
 import com.google.common.base.Preconditions;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.CancellationException;
@@ -31,13 +34,26 @@ import javax.annotation.concurrent.ThreadSafe;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Facilitates and Organizes the reads from Storage.
+ * Facilitates and Organizes the reads from Storage. Requests are not executed right away; they are queued up and any
+ * requests that are adjacent (or close to each other) at the time the queue is processed are coalesced into a single
+ * Storage read.
  */
 @Slf4j
 @ThreadSafe
 class StorageReader implements AutoCloseable {
     //region Members
 
+    /**
+     * The maximum number of bytes between two Requests for them to be coalesced into a single Storage read. These bytes
+     * are read and then discarded.
+     */
+    private static final int MAX_COALESCE_GAP = 64 * 1024;
+
+    /**
+     * The maximum length of a Storage read resulting from coalescing multiple Requests.
+     */
+    private static final int MAX_COALESCED_READ_LENGTH = 16 * 1024 * 1024;
+
     private final String traceObjectId;
     private final ReadOnlyStorage storage;
     private final Executor executor;
@@ -45,6 +61,8 @@ class StorageReader implements AutoCloseable {
     @GuardedBy("lock")
     private final TreeMap<Long, Request> pendingRequests;
     @GuardedBy("lock")
+    private final ArrayList<Request> queuedRequests;
+    @GuardedBy("lock")
     private CompletableFuture<SegmentHandle> handle;
     private final Object lock = new Object();
     @GuardedBy("lock")
@@ -69,6 +87,7 @@ class StorageReader implements AutoCloseable {
         this.storage = storage;
         this.executor = executor;
         this.pendingRequests = new TreeMap<>();
+        this.queuedRequests = new ArrayList<>();
     }
 
     //endregion
@@ -97,13 +116,15 @@ class StorageReader implements AutoCloseable {
     /**
      * Queues the given request. The Request will be checked against existing pending Requests. If necessary, this request
      * will be adjusted to take advantage of an existing request (i.e., if it overlaps with an existing request, no actual
-     * Storage read will happen for this one, yet the result of the previous one will be used instead). The callbacks passed
-     * to the request will be invoked with either the result of the read or with the exception that caused the read to fail.
+     * Storage read will happen for this one, yet the result of the previous one will be used instead). Otherwise it will
+     * be queued up and executed asynchronously, possibly as part of a larger Storage read. The callbacks passed to the
+     * request will be invoked with either the result of the read or with the exception that caused the read to fail.
      *
      * @param request The request to queue.
      */
     void execute(Request request) {
         log.debug("{}: StorageRead.Execute {}", this.traceObjectId, request);
+        boolean processQueue;
         synchronized (this.lock) {
             Exceptions.checkNotClosed(this.closed, this);
             Request existingRequest = findOverlappingRequest(request);
@@ -118,39 +139,135 @@ class StorageReader implements AutoCloseable {
             }
 
             this.pendingRequests.put(request.getOffset(), request);
+            this.queuedRequests.add(request);
+            processQueue = this.queuedRequests.size() == 1;
         }
 
-        // Initiate the Storage Read.
-        executeStorageRead(request);
+        if (processQueue) {
+            // Any other requests that get queued up until the executor picks this up will be coalesced with this one,
+            // if possible. No need to schedule anything if the queue was not empty; that has already been done.
+            try {
+                this.executor.execute(this::executeQueuedRequests);
+            } catch (Throwable ex) {
+                if (ExceptionHelpers.mustRethrow(ex)) {
+                    throw ex;
+                }
+
+                failQueuedRequests(ex);
+            }
+        }
     }
 
     /**
-     * Executes the Storage Read for the given request.
+     * Executes all the queued Requests, coalescing adjacent or nearby ones into single Storage reads.
+     */
+    private void executeQueuedRequests() {
+        List<Request> toExecute;
+        synchronized (this.lock) {
+            toExecute = new ArrayList<>(this.queuedRequests);
+            this.queuedRequests.clear();
+        }
+
+        toExecute.sort(Comparator.comparingLong(Request::getOffset));
+        List<Request> batch = new ArrayList<>();
+        long batchStartOffset = 0;
+        long batchEndOffset = 0;
+        for (Request request : toExecute) {
+            if (request.isDone()) {
+                // This request has been cancelled in the meantime.
+                finalizeRequest(request);
+                continue;
+            }
+
+            if (!batch.isEmpty()
+                    && (request.getOffset() - batchEndOffset > MAX_COALESCE_GAP
+                    || Math.max(batchEndOffset, request.getEndOffset()) - batchStartOffset > MAX_COALESCED_READ_LENGTH)) {
+                // This request cannot be coalesced with the current batch.
+                executeStorageRead(batch);
+                batch = new ArrayList<>();
+            }
+
+            if (batch.isEmpty()) {
+                batchStartOffset = request.getOffset();
+            }
+
+            batchEndOffset = Math.max(batchEndOffset, request.getEndOffset());
+            batch.add(request);
+        }
+
+        if (!batch.isEmpty()) {
+            executeStorageRead(batch);
+        }
+    }
+
+    /**
+     * Executes a single Storage Read for the given requests, which must be sorted by offset.
      *
-     * @param request The request.
+     * @param requests The requests.
      */
-    private void executeStorageRead(Request request) {
+    private void executeStorageRead(List<Request> requests) {
+        long startOffset = requests.get(0).getOffset();
+        int length = (int) (requests.stream().mapToLong(Request::getEndOffset).max().getAsLong() - startOffset);
+        if (requests.size() > 1) {
+            log.debug("{}: StorageRead.Coalesce Offset = {}, Length = {}, Requests = {}.", this.traceObjectId, startOffset, length, requests.size());
+        }
+
         try {
-            byte[] buffer = new byte[request.length];
+            byte[] buffer = new byte[length];
+            List<Request> toReissue = new ArrayList<>();
             getHandle()
-                    .thenComposeAsync(handle -> this.storage.read(handle, request.offset, buffer, 0, buffer.length, request.getTimeout()), this.executor)
-                    .thenAcceptAsync(bytesRead -> request.complete(new ByteArraySegment(buffer, 0, bytesRead)), this.executor)
+                    .thenComposeAsync(handle -> this.storage.read(handle, startOffset, buffer, 0, buffer.length, requests.get(0).getTimeout()), this.executor)
+                    .thenAcceptAsync(bytesRead -> requests.forEach(request -> {
+                        if (!request.isDone()) {
+                            int bufferOffset = (int) (request.getOffset() - startOffset);
+                            if (bufferOffset >= bytesRead && requests.size() > 1) {
+                                // The coalesced read came back short before it even got to this request. Completing it
+                                // with no data would make it look like there is nothing there, so read it on its own.
+                                toReissue.add(request);
+                            } else {
+                                int readLength = Math.min(request.getLength(), bytesRead - bufferOffset);
+                                request.complete(new ByteArraySegment(buffer, bufferOffset, readLength));
+                            }
+                        }
+                    }), this.executor)
                     .whenComplete((r, ex) -> {
                         if (ex != null) {
-                            request.fail(ex);
+                            requests.forEach(request -> request.fail(ex));
+                            toReissue.clear();
                         }
 
-                        // Unregister the Request after every request fulfillment.
-                        finalizeRequest(request);
+                        // Unregister the Requests after every request fulfillment (reissued ones are still in progress).
+                        requests.stream().filter(request -> !toReissue.contains(request)).forEach(this::finalizeRequest);
+                        toReissue.forEach(request -> executeStorageRead(Collections.singletonList(request)));
                     });
         } catch (Throwable ex) {
             if (ExceptionHelpers.mustRethrow(ex)) {
                 throw ex;
             }
 
+            requests.forEach(request -> {
+                request.fail(ex);
+                finalizeRequest(request);
+            });
+        }
+    }
+
+    /**
+     * Fails all the queued Requests with the given exception.
+     *
+     * @param ex The exception to fail the requests with.
+     */
+    private void failQueuedRequests(Throwable ex) {
+        List<Request> toFail;
+        synchronized (this.lock) {
+            toFail = new ArrayList<>(this.queuedRequests);
+            this.queuedRequests.clear();
+        }
+
+        toFail.forEach(request -> {
             request.fail(ex);
             finalizeRequest(request);
-        }
+        });
     }
 
     /**
@@ -165,9 +282,9 @@ class StorageReader implements AutoCloseable {
             request.fail(new AssertionError("Request finalized but not yet completed."));
         }
 
-        // Unregister the request.
+        // Unregister the request (unless a different request has since been registered at the same offset).
         synchronized (this.lock) {
-            this.pendingRequests.remove(request.getOffset());
+            this.pendingRequests.remove(request.getOffset(), request);
         }
 
         log.debug("{}: StorageRead.Finalize {}, Success = {}", this.traceObjectId, request, !request.resultFuture.isCompletedExceptionally());
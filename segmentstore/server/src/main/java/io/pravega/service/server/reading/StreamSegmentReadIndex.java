@@ -26,6 +26,7 @@ import io.pravega.service.server.CacheKey;
 import io.pravega.service.server.ContainerMetadata;
 import io.pravega.service.server.SegmentMetadata;
 import io.pravega.service.storage.Cache;
+import io.pravega.service.storage.CacheFullException;
 import io.pravega.service.storage.ReadOnlyStorage;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
@@ -74,6 +75,8 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
     private SegmentMetadata metadata;
     @GuardedBy("lock")
     private long lastAppendedOffset;
+    @GuardedBy("lock")
+    private long lastStorageReadEndOffset;
     private boolean recoveryMode;
     private boolean closed;
     private boolean merged;
@@ -110,6 +113,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         this.futureReads = new FutureReadResultEntryCollection();
         this.mergeOffsets = new HashMap<>();
         this.lastAppendedOffset = -1;
+        this.lastStorageReadEndOffset = -1;
         this.storageReader = new StorageReader(metadata, storage, executor);
         this.executor = executor;
         this.summary = new ReadIndexSummary();
@@ -187,10 +191,10 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
     }
 
     @Override
-    public long updateGenerations(int currentGeneration, int oldestGeneration) {
+    public long updateGenerations(int currentGeneration, int oldestGeneration, int oldestProbationaryGeneration) {
         Exceptions.checkNotClosed(this.closed, this);
 
-        // Update the current generation with the provided info.
+        // Update the current and oldest generations with the provided info.
         this.summary.setCurrentGeneration(currentGeneration);
 
         // Identify & collect those entries that can be removed, then remove them from the index.
@@ -201,9 +205,10 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
                 // We can only evict if both these conditions are met:
                 // 1. The entry is a Cache Entry (Redirect entries cannot be removed).
                 // 2. Every single byte in the entry has to exist in Storage.
+                // 3. The entry is older than the cutoff for its kind (entries in probation have their own).
                 boolean canRemove = entry.isDataEntry()
                         && entry.getLastStreamSegmentOffset() <= this.metadata.getStorageLength()
-                        && entry.getGeneration() < oldestGeneration;
+                        && entry.getGeneration() < (entry.isInProbation() ? oldestProbationaryGeneration : oldestGeneration);
                 if (canRemove) {
                     toRemove.add(entry);
                 }
@@ -218,9 +223,8 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
 
         // Update the summary (no need for holding the lock here; we are not modifying the index).
         toRemove.forEach(e -> {
-            long entryLength = e.getLength();
-            this.summary.remove(entryLength, e.getGeneration());
-            sizeRemoved.addAndGet(entryLength);
+            removeFromSummary(e);
+            sizeRemoved.addAndGet(e.getLength());
         });
 
         return sizeRemoved.get();
@@ -327,12 +331,61 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         long endOffset = offset + data.length;
         Exceptions.checkArgument(endOffset <= durableLogLength, "offset", "The given range of bytes (%d-%d) is beyond the StreamSegment Durable Log Length (%d).", offset, endOffset, durableLogLength);
 
+        // If possible, add the data to the last entry in the ReadIndex instead of creating a new one.
+        if (appendToLastEntry(offset, data)) {
+            return;
+        }
+
         // Then append an entry for it in the ReadIndex. It's ok to insert into the cache outside of the lock here,
         // since there is no chance of competing with another write request for the same offset at the same time.
         this.cache.insert(new CacheKey(this.metadata.getId(), offset), data);
         appendEntry(new CacheIndexEntry(offset, data.length));
     }
 
+    /**
+     * Attempts to append the given data to the last CacheIndexEntry in the index (and its Cache Entry). This can only
+     * be done if the Cache supports efficient appends, that entry ends right before the given offset, it is not the result
+     * of a merger and it would not exceed the configured CacheEntryMaxAppendLength.
+     *
+     * @param offset The offset within the StreamSegment to append at.
+     * @param data   The range of bytes to append.
+     * @return True if the data was appended to the last entry, false otherwise.
+     */
+    private boolean appendToLastEntry(long offset, byte[] data) {
+        int maxLength = this.config.getCacheEntryMaxAppendLength();
+        if (data.length >= maxLength || !this.cache.isAppendEfficient()) {
+            // No point in trying; this would either not fit or cost more than inserting a new entry.
+            return false;
+        }
+
+        synchronized (this.lock) {
+            ReadIndexEntry lastEntry = this.indexEntries.getLast();
+            if (!(lastEntry instanceof CacheIndexEntry)
+                    || lastEntry instanceof MergedIndexEntry
+                    || lastEntry.isInProbation()
+                    || this.lastAppendedOffset != offset - 1
+                    || lastEntry.getLastStreamSegmentOffset() != this.lastAppendedOffset
+                    || lastEntry.getLength() + data.length > maxLength) {
+                return false;
+            }
+
+            // We must update the Cache while holding the lock; otherwise the entry may be evicted (and its key reused
+            // by a Storage read) before we update the index. The Cache rejects the append if the entry's length does
+            // not match ours, which may happen if it was evicted and reinserted in the meantime.
+            CacheIndexEntry entry = (CacheIndexEntry) lastEntry;
+            if (!this.cache.append(getCacheKey(entry), (int) entry.getLength(), new ByteArraySegment(data))) {
+                return false;
+            }
+
+            log.debug("{}: Append (Offset = {}, Length = {}, ExistingEntryOffset = {}).", this.traceObjectId, offset, data.length, entry.getStreamSegmentOffset());
+            entry.increaseLength(data.length);
+            entry.setGeneration(this.summary.extendOne(data.length, entry.getGeneration()));
+            this.lastAppendedOffset = entry.getLastStreamSegmentOffset();
+        }
+
+        return true;
+    }
+
     /**
      * Executes Step 1 of the 2-Step Merge Process.
      * The StreamSegments are merged (Source->Target@Offset) in Metadata and a ReadIndex Redirection is put in place.
@@ -456,13 +509,23 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         // There is a very small chance we might be adding data twice, if we get two concurrent requests that slipped past
         // the StorageReader. Fixing it would be complicated, so let's see if it poses any problems.
         CacheIndexEntry entry = new CacheIndexEntry(offset, data.getLength());
+        entry.setProbation(this.config.getCacheEvictionPolicy().getProbationAccessCount());
         long lastOffset = entry.getLastStreamSegmentOffset();
         Exceptions.checkArgument(lastOffset < this.metadata.getDurableLogLength(), "entry",
                 "The given range of bytes (%d-%d) exceeds the Segment's Length (%d).",
                 entry.getStreamSegmentOffset(), lastOffset, this.metadata.getDurableLogLength());
         ReadIndexEntry oldEntry;
         synchronized (this.lock) {
-            this.cache.insert(getCacheKey(entry), data);
+            try {
+                this.cache.insert(getCacheKey(entry), data);
+            } catch (CacheFullException ex) {
+                // This data is already in Storage, and whoever requested it has already been handed it. There is no
+                // need to evict anything to make room for it; the next read will simply fetch it from Storage again.
+                log.debug("{}: Not caching Storage read (Offset = {}, Length = {}) since the Cache is full.",
+                        this.traceObjectId, offset, data.getLength());
+                return;
+            }
+
             oldEntry = addToIndex(entry);
         }
 
@@ -480,6 +543,10 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
             if (entry instanceof MergedIndexEntry) {
                 // This entry has already existed in the cache for a while; do not change its generation.
                 this.summary.add(entry.getLength(), entry.getGeneration());
+            } else if (entry.isInProbation()) {
+                // Probationary entries age like any other entry, but the CacheManager evicts them first when over the size limit.
+                int generation = this.summary.addProbationary(entry.getLength());
+                entry.setGeneration(generation);
             } else {
                 // Update the Stats with the entry's length, and set the entry's generation as well.
                 int generation = this.summary.add(entry.getLength());
@@ -489,12 +556,20 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
 
         if (oldEntry != null && oldEntry.isDataEntry()) {
             // Need to eject the old entry's data from the Cache Stats.
-            this.summary.remove(oldEntry.getLength(), oldEntry.getGeneration());
+            removeFromSummary(oldEntry);
         }
 
         return oldEntry;
     }
 
+    private void removeFromSummary(ReadIndexEntry entry) {
+        if (entry.isInProbation()) {
+            this.summary.removeProbationary(entry.getLength(), entry.getGeneration());
+        } else {
+            this.summary.remove(entry.getLength(), entry.getGeneration());
+        }
+    }
+
     //endregion
 
     //region Reading
@@ -859,8 +934,15 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         assert data != null : String.format("No Cache Entry could be retrieved for entry %s", entry);
 
         if (updateStats) {
-            // Update its generation before returning it.
-            int generation = this.summary.touchOne(entry.getGeneration());
+            // Update its generation before returning it. Entries in probation stay there (while still being moved to the
+            // current generation) until they have been accessed in enough distinct generations.
+            int generation;
+            if (entry.isInProbation() && entry.recordProbationAccess(this.summary.getCurrentGeneration())) {
+                generation = this.summary.promoteOne(entry.getLength(), entry.getGeneration());
+            } else {
+                generation = this.summary.touchOne(entry.getGeneration());
+            }
+
             entry.setGeneration(generation);
         }
 
@@ -894,6 +976,53 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         // Queue the request for async processing.
         length = getReadAlignedLength(offset, length);
         this.storageReader.execute(new StorageReader.Request(offset, length, doneCallback, failureCallback, timeout));
+        triggerReadAhead(offset, length, timeout);
+    }
+
+    /**
+     * Issues a read-ahead Storage Read (which will insert its result into the Cache) if the Storage Read at the given
+     * offset continues where the previous one (including its read-ahead) left off. The read-ahead will never overlap
+     * any existing ReadIndexEntry or go beyond the Segment's StorageLength.
+     *
+     * @param offset  The offset of the Storage Read that was just issued.
+     * @param length  The length of the Storage Read that was just issued.
+     * @param timeout Timeout for the operation.
+     */
+    private void triggerReadAhead(long offset, int length, Duration timeout) {
+        int readAheadLength = this.config.getStorageReadAheadLength();
+        if (readAheadLength <= 0) {
+            // Feature is disabled.
+            return;
+        }
+
+        long readAheadOffset = offset + length;
+        synchronized (this.lock) {
+            boolean sequential = offset == this.lastStorageReadEndOffset;
+            this.lastStorageReadEndOffset = readAheadOffset;
+            if (!sequential) {
+                // Only read ahead for sequential reads; random reads would simply pollute the Cache.
+                return;
+            }
+
+            long maxLength = Math.min(readAheadLength, this.metadata.getStorageLength() - readAheadOffset);
+            readAheadLength = maxLength <= 0 ? 0 : getLengthUntilNextEntry(readAheadOffset, (int) maxLength);
+            if (readAheadLength <= 0) {
+                // Either at the end of the Segment or the data is already in the index.
+                return;
+            }
+
+            this.lastStorageReadEndOffset = readAheadOffset + readAheadLength;
+        }
+
+        log.debug("{}: ReadAhead (Offset = {}, Length = {}).", this.traceObjectId, readAheadOffset, readAheadLength);
+        Consumer<StorageReader.Result> doneCallback = result -> {
+            if (!result.isDerived()) {
+                insert(readAheadOffset, result.getData());
+            }
+        };
+
+        Consumer<Throwable> failureCallback = ex -> log.warn("{}: ReadAhead failed (Offset = {}). {}", this.traceObjectId, readAheadOffset, ex);
+        this.storageReader.execute(new StorageReader.Request(readAheadOffset, readAheadLength, doneCallback, failureCallback, timeout));
     }
 
     /**
@@ -265,7 +265,8 @@ public final class ServiceBuilder implements AutoCloseable {
 
     private SegmentContainerRegistry createSegmentContainerRegistry() {
         SegmentContainerFactory containerFactory = getSingleton(this.containerFactory, this::createSegmentContainerFactory);
-        return new StreamSegmentContainerRegistry(containerFactory, this.executorService);
+        ServiceConfig serviceConfig = this.serviceBuilderConfig.getConfig(ServiceConfig::builder);
+        return new StreamSegmentContainerRegistry(containerFactory, serviceConfig.getContainerRecoveryParallelism(), this.executorService);
     }
 
     private OperationLogFactory createOperationLogFactory() {
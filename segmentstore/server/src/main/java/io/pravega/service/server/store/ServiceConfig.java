@@ -12,10 +12,12 @@ package io.pravega.service.server.store;
 import com.google.common.base.Strings;
 import io.pravega.common.util.ConfigBuilder;
 import io.pravega.common.util.ConfigurationException;
+import io.pravega.common.util.InvalidPropertyValueException;
 import io.pravega.common.util.Property;
 import io.pravega.common.util.TypedProperties;
 import java.net.Inet4Address;
 import java.net.UnknownHostException;
+import java.util.Arrays;
 import lombok.Getter;
 import lombok.SneakyThrows;
 
@@ -27,6 +29,7 @@ public class ServiceConfig {
 
     public static final Property<Integer> CONTAINER_COUNT = Property.named("containerCount");
     public static final Property<Integer> THREAD_POOL_SIZE = Property.named("threadPoolSize", 50);
+    public static final Property<Integer> CONTAINER_RECOVERY_PARALLELISM = Property.named("containerRecoveryParallelism", 8);
     public static final Property<Integer> LISTENING_PORT = Property.named("listeningPort", 12345);
     public static final Property<Integer> PUBLISHED_PORT = Property.named("publishedPort");
     public static final Property<String> LISTENING_IP_ADDRESS = Property.named("listeningIPAddress", "");
@@ -35,6 +38,9 @@ public class ServiceConfig {
     public static final Property<Integer> ZK_RETRY_SLEEP_MS = Property.named("zkRetrySleepMs", 5000);
     public static final Property<Integer> ZK_RETRY_COUNT = Property.named("zkRetryCount", 5);
     public static final Property<String> CLUSTER_NAME = Property.named("clusterName", "pravega-cluster");
+    public static final Property<String> DATALOG_IMPLEMENTATION = Property.named("dataLogImplementation", DataLogType.BOOKKEEPER.name());
+    public static final Property<String> CACHE_IMPLEMENTATION = Property.named("cacheImplementation", CacheType.ROCKSDB.name());
+    public static final Property<Integer> MAX_OUTSTANDING_APPENDS = Property.named("maxOutstandingAppends", 32);
     private static final String COMPONENT_CODE = "pravegaservice";
 
     //endregion
@@ -53,6 +59,12 @@ public class ServiceConfig {
     @Getter
     private final int threadPoolSize;
 
+    /**
+     * The maximum number of Segment Containers that can be started (recovered) in parallel.
+     */
+    @Getter
+    private final int containerRecoveryParallelism;
+
     /**
      * The TCP Port number to listen to.
      */
@@ -108,6 +120,25 @@ public class ServiceConfig {
     @Getter
     private final String clusterName;
 
+    /**
+     * The DurableDataLog implementation to use.
+     */
+    @Getter
+    private final DataLogType dataLogImplementation;
+
+    /**
+     * The Cache implementation to use.
+     */
+    @Getter
+    private final CacheType cacheImplementation;
+
+    /**
+     * The maximum number of appends (across all writers) that may be in flight against the store for a single
+     * client connection.
+     */
+    @Getter
+    private final int maxOutstandingAppends;
+
     //endregion
 
     //region Constructor
@@ -120,6 +151,12 @@ public class ServiceConfig {
     private ServiceConfig(TypedProperties properties) throws ConfigurationException {
         this.containerCount = properties.getInt(CONTAINER_COUNT);
         this.threadPoolSize = properties.getInt(THREAD_POOL_SIZE);
+        this.containerRecoveryParallelism = properties.getInt(CONTAINER_RECOVERY_PARALLELISM);
+        if (this.containerRecoveryParallelism <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a positive integer.",
+                    CONTAINER_RECOVERY_PARALLELISM, this.containerRecoveryParallelism));
+        }
+
         this.listeningPort = properties.getInt(LISTENING_PORT);
 
         int publishedPort;
@@ -147,6 +184,13 @@ public class ServiceConfig {
         this.zkRetrySleepMs = properties.getInt(ZK_RETRY_SLEEP_MS);
         this.zkRetryCount = properties.getInt(ZK_RETRY_COUNT);
         this.clusterName = properties.get(CLUSTER_NAME);
+        this.dataLogImplementation = parseEnum(DataLogType.class, DATALOG_IMPLEMENTATION, properties.get(DATALOG_IMPLEMENTATION));
+        this.cacheImplementation = parseEnum(CacheType.class, CACHE_IMPLEMENTATION, properties.get(CACHE_IMPLEMENTATION));
+        this.maxOutstandingAppends = properties.getInt(MAX_OUTSTANDING_APPENDS);
+        if (this.maxOutstandingAppends <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a positive integer.",
+                    MAX_OUTSTANDING_APPENDS, this.maxOutstandingAppends));
+        }
     }
 
     /**
@@ -164,4 +208,45 @@ public class ServiceConfig {
     private static String getHostAddress() {
         return Inet4Address.getLocalHost().getHostAddress();
     }
+
+    private static <T extends Enum<T>> T parseEnum(Class<T> type, Property<String> property, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%s) must be one of %s.",
+                    property, value, Arrays.toString(type.getEnumConstants())));
+        }
+    }
+
+    //region Implementation Types
+
+    /**
+     * DurableDataLog implementations.
+     */
+    public enum DataLogType {
+        /**
+         * Apache BookKeeper.
+         */
+        BOOKKEEPER,
+        /**
+         * Memory-mapped files in a local directory. Only suitable for single-node deployments.
+         */
+        FILELOG
+    }
+
+    /**
+     * Cache implementations.
+     */
+    public enum CacheType {
+        /**
+         * RocksDB, backed by local disk.
+         */
+        ROCKSDB,
+        /**
+         * Slabs of direct (off-heap) memory.
+         */
+        DIRECTMEMORY
+    }
+
+    //endregion
 }
@@ -28,17 +28,22 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
 import java.util.AbstractMap;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
 
 /**
- * Registry for SegmentContainers.
+ * Registry for SegmentContainers. At most a fixed number of containers are started (recovered) in parallel; any other
+ * start requests are queued up and executed in order as the ongoing ones complete.
  */
 @Slf4j
+@ThreadSafe
 class StreamSegmentContainerRegistry implements SegmentContainerRegistry {
     //region Members
 
@@ -46,6 +51,11 @@ class StreamSegmentContainerRegistry implements SegmentContainerRegistry {
     private final AbstractMap<Integer, ContainerWithHandle> containers;
     private final Executor executor;
     private final AtomicBoolean closed;
+    private final int maxParallelStarts;
+    @GuardedBy("pendingStarts")
+    private final ArrayDeque<Runnable> pendingStarts;
+    @GuardedBy("pendingStarts")
+    private int activeStarts;
 
     //endregion
 
@@ -59,13 +69,30 @@ class StreamSegmentContainerRegistry implements SegmentContainerRegistry {
      * @throws NullPointerException If any of the arguments are null.
      */
     StreamSegmentContainerRegistry(SegmentContainerFactory containerFactory, Executor executor) {
+        this(containerFactory, Integer.MAX_VALUE, executor);
+    }
+
+    /**
+     * Creates a new instance of the StreamSegmentContainerRegistry.
+     *
+     * @param containerFactory  The SegmentContainerFactory to use.
+     * @param maxParallelStarts The maximum number of containers that can be started in parallel.
+     * @param executor          The Executor to use for async tasks.
+     * @throws NullPointerException     If any of the arguments are null.
+     * @throws IllegalArgumentException If maxParallelStarts is not a positive number.
+     */
+    StreamSegmentContainerRegistry(SegmentContainerFactory containerFactory, int maxParallelStarts, Executor executor) {
         Preconditions.checkNotNull(containerFactory, "containerFactory");
         Preconditions.checkNotNull(executor, "executor");
+        Preconditions.checkArgument(maxParallelStarts > 0, "maxParallelStarts must be a positive number.");
 
         this.factory = containerFactory;
         this.executor = executor;
+        this.maxParallelStarts = maxParallelStarts;
         this.containers = new ConcurrentHashMap<>();
         this.closed = new AtomicBoolean();
+        this.pendingStarts = new ArrayDeque<>();
+        this.activeStarts = 0;
     }
 
     //endregion
@@ -131,13 +158,11 @@ class StreamSegmentContainerRegistry implements SegmentContainerRegistry {
                 () -> unregisterContainer(newContainer),
                 ex -> handleContainerFailure(newContainer, ex));
         newContainer.container.addListener(shutdownListener, this.executor);
-        newContainer.container.startAsync();
 
-        return CompletableFuture.supplyAsync(
-                () -> {
-                    newContainer.container.awaitRunning();
-                    return newContainer.handle;
-                }, this.executor);
+        // Queue up the start. It will be executed right away, unless too many other containers are starting at this time.
+        CompletableFuture<ContainerHandle> result = new CompletableFuture<>();
+        queueStart(() -> startContainer(newContainer, result));
+        return result;
     }
 
     @Override
@@ -157,6 +182,72 @@ class StreamSegmentContainerRegistry implements SegmentContainerRegistry {
 
     //region Helpers
 
+    private void queueStart(Runnable start) {
+        synchronized (this.pendingStarts) {
+            this.pendingStarts.addLast(start);
+        }
+
+        startNextPending();
+    }
+
+    private void startNextPending() {
+        Runnable next;
+        synchronized (this.pendingStarts) {
+            if (this.activeStarts >= this.maxParallelStarts || this.pendingStarts.isEmpty()) {
+                return;
+            }
+
+            next = this.pendingStarts.removeFirst();
+            this.activeStarts++;
+        }
+
+        next.run();
+    }
+
+    private void onStartCompleted() {
+        synchronized (this.pendingStarts) {
+            this.activeStarts--;
+        }
+
+        startNextPending();
+    }
+
+    private void startContainer(ContainerWithHandle containerWithHandle, CompletableFuture<ContainerHandle> result) {
+        int pendingCount;
+        synchronized (this.pendingStarts) {
+            pendingCount = this.pendingStarts.size();
+        }
+
+        log.info("Starting SegmentContainer {} ({} more pending).", containerWithHandle.handle.getContainerId(), pendingCount);
+
+        // Do not block a thread while waiting for the container to start; it may take a long time to recover it.
+        result.whenComplete((r, ex) -> onStartCompleted());
+        containerWithHandle.container.addListener(new Service.Listener() {
+            @Override
+            public void running() {
+                result.complete(containerWithHandle.handle);
+            }
+
+            @Override
+            public void terminated(Service.State from) {
+                result.completeExceptionally(new IllegalStateException(String.format("Container %d stopped before it could start.",
+                        containerWithHandle.handle.getContainerId())));
+            }
+
+            @Override
+            public void failed(Service.State from, Throwable failure) {
+                result.completeExceptionally(failure);
+            }
+        }, this.executor);
+
+        try {
+            containerWithHandle.container.startAsync();
+        } catch (IllegalStateException ex) {
+            // The container may have been stopped (or closed) while it was waiting to be started.
+            result.completeExceptionally(ex);
+        }
+    }
+
     private void handleContainerFailure(ContainerWithHandle containerWithHandle, Throwable exception) {
         unregisterContainer(containerWithHandle);
         log.error("Critical failure for SegmentContainer {}. {}", containerWithHandle, exception);
@@ -0,0 +1,222 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.server.writer;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.AbstractTimer;
+import io.pravega.common.concurrent.FutureHelpers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Schedules the flushing of OperationProcessors (SegmentAggregators) to Storage.
+ * <p>
+ * Processors are flushed in order of priority: first those that hold back the truncation of the DurableLog the most
+ * (smallest Lowest Uncommitted Sequence Number), then those with the most outstanding data. At most
+ * WriterConfig.MaxConcurrentFlushes flushes execute at any given time and, if WriterConfig.MaxFlushBytesPerSecond is
+ * set, the start of flushes is delayed so that the overall flush rate does not exceed it.
+ */
+@Slf4j
+@ThreadSafe
+class FlushScheduler {
+    //region Members
+
+    private final int maxConcurrentFlushes;
+    private final long maxBytesPerSecond;
+    private final AbstractTimer timer;
+    private final ScheduledExecutorService executor;
+    private final String traceObjectId;
+    @GuardedBy("this")
+    private long availableBytes;
+    @GuardedBy("this")
+    private Duration lastRefill;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FlushScheduler class.
+     *
+     * @param config        The WriterConfig to use.
+     * @param timer         A Timer to use to determine elapsed time (for bandwidth calculations).
+     * @param executor      The Executor to use for async callbacks and delays.
+     * @param traceObjectId An identifier to use for logging purposes.
+     */
+    FlushScheduler(WriterConfig config, AbstractTimer timer, ScheduledExecutorService executor, String traceObjectId) {
+        Preconditions.checkNotNull(config, "config");
+        Preconditions.checkNotNull(timer, "timer");
+        Preconditions.checkNotNull(executor, "executor");
+
+        this.maxConcurrentFlushes = config.getMaxConcurrentFlushes();
+        this.maxBytesPerSecond = config.getMaxFlushBytesPerSecond();
+        this.timer = timer;
+        this.executor = executor;
+        this.traceObjectId = traceObjectId;
+        this.availableBytes = this.maxBytesPerSecond;
+        this.lastRefill = timer.getElapsed();
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Flushes the given processors, in order of priority, observing the concurrency and bandwidth limits.
+     *
+     * @param processors           The processors to flush. Each of these will be flushed at most once: all of them if
+     *                             all flushes succeed, but none that had not yet been started when a flush fails.
+     * @param getOutstandingLength A Function that returns the number of bytes waiting to be flushed for a processor.
+     * @param flush                A Function that flushes a processor.
+     * @param <T>                  Type of the processors.
+     * @return A CompletableFuture that, when completed, will contain the results of all the flushes that were executed.
+     * If any of the flushes failed, no more flushes will be started (the remaining processors will be picked up by a
+     * subsequent call) and the Future will be failed with the appropriate exception (after all the flushes that were
+     * already started complete).
+     */
+    <T extends OperationProcessor> CompletableFuture<List<FlushResult>> flush(Collection<T> processors, ToLongFunction<T> getOutstandingLength,
+                                                                               Function<T, CompletableFuture<FlushResult>> flush) {
+        // Take a snapshot of the priority of each processor, then sort them. A processor's priority may change while
+        // other processors are flushing, but that does not matter since each processor only gets flushed once per call.
+        Queue<Candidate<T>> candidates = processors.stream()
+                                                   .map(p -> new Candidate<>(p, p.getLowestUncommittedSequenceNumber(), getOutstandingLength.applyAsLong(p)))
+                                                   .sorted(Candidate.PRIORITY)
+                                                   .collect(Collectors.toCollection(ConcurrentLinkedQueue::new));
+
+        List<FlushResult> results = Collections.synchronizedList(new ArrayList<>());
+        int workerCount = Math.min(this.maxConcurrentFlushes, candidates.size());
+        List<CompletableFuture<Void>> workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(FutureHelpers.loop(
+                    () -> !candidates.isEmpty(),
+                    () -> flushNext(candidates, flush),
+                    result -> {
+                        if (result != null) {
+                            results.add(result);
+                        }
+                    },
+                    this.executor));
+        }
+
+        return FutureHelpers.allOf(workers).thenApply(v -> results);
+    }
+
+    private <T extends OperationProcessor> CompletableFuture<FlushResult> flushNext(Queue<Candidate<T>> candidates,
+                                                                                   Function<T, CompletableFuture<FlushResult>> flush) {
+        Candidate<T> next = candidates.poll();
+        if (next == null) {
+            // Someone else picked up the last one.
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<FlushResult> result;
+        Duration delay = reserveBandwidth(next.outstandingLength);
+        if (delay.isZero()) {
+            result = flush.apply(next.processor);
+        } else {
+            log.debug("{}: Delaying flush by {}ms due to bandwidth limit.", this.traceObjectId, delay.toMillis());
+            result = FutureHelpers.delayedFuture(delay, this.executor)
+                                  .thenCompose(v -> flush.apply(next.processor));
+        }
+
+        return result.whenComplete((r, ex) -> {
+            if (ex == null) {
+                // Adjust our initial estimate with the actual number of bytes flushed.
+                releaseBandwidth(next.outstandingLength - r.getFlushedBytes());
+            } else {
+                // Do not start any more flushes; the whole flush stage will be failed anyway.
+                candidates.clear();
+            }
+        });
+    }
+
+    //endregion
+
+    //region Bandwidth Management
+
+    /**
+     * Reserves the given number of bytes from the bandwidth budget.
+     *
+     * @param bytes The number of bytes to reserve.
+     * @return The amount of time to wait before using the reserved bytes. This is Duration.ZERO if the budget was not
+     * exhausted (or if there is no budget).
+     */
+    private synchronized Duration reserveBandwidth(long bytes) {
+        if (this.maxBytesPerSecond <= 0) {
+            return Duration.ZERO;
+        }
+
+        refill();
+
+        // We allow the budget to go negative (otherwise flushes larger than the budget would never execute), but every
+        // subsequent flush needs to wait until that debt is paid off.
+        long debt = -this.availableBytes;
+        this.availableBytes -= bytes;
+        return debt <= 0 ? Duration.ZERO : Duration.ofMillis(debt * 1000 / this.maxBytesPerSecond);
+    }
+
+    /**
+     * Returns the given number of bytes to the bandwidth budget.
+     *
+     * @param bytes The number of bytes to return. This may be negative, if more bytes than reserved have been used.
+     */
+    private synchronized void releaseBandwidth(long bytes) {
+        if (this.maxBytesPerSecond > 0) {
+            this.availableBytes = Math.min(this.maxBytesPerSecond, this.availableBytes + bytes);
+        }
+    }
+
+    @GuardedBy("this")
+    private void refill() {
+        Duration now = this.timer.getElapsed();
+        long refillBytes = (long) (now.minus(this.lastRefill).toNanos() / 1e9 * this.maxBytesPerSecond);
+        if (refillBytes > 0) {
+            // Only update the refill time if we actually refilled something; this avoids losing partial bytes to rounding.
+            this.availableBytes = Math.min(this.maxBytesPerSecond, this.availableBytes + refillBytes);
+            this.lastRefill = now;
+        }
+    }
+
+    //endregion
+
+    //region Candidate
+
+    @RequiredArgsConstructor
+    private static class Candidate<T> {
+        /**
+         * Sorts Candidates by Lowest Uncommitted Sequence Number (ascending; those without one go last), then by
+         * Outstanding Length (descending).
+         */
+        static final Comparator<Candidate<?>> PRIORITY = Comparator
+                .<Candidate<?>>comparingLong(c -> c.lowestUncommittedSequenceNumber < 0 ? Long.MAX_VALUE : c.lowestUncommittedSequenceNumber)
+                .thenComparing(Comparator.<Candidate<?>>comparingLong(c -> c.outstandingLength).reversed());
+
+        final T processor;
+        final long lowestUncommittedSequenceNumber;
+        final long outstandingLength;
+    }
+
+    //endregion
+}
@@ -162,6 +162,14 @@ class SegmentAggregator implements OperationProcessor, AutoCloseable {
         return this.timer.getElapsed().minus(this.lastFlush.get());
     }
 
+    /**
+     * Gets a value indicating the number of bytes that have been added to this SegmentAggregator but not yet flushed
+     * to Storage (including data that would be merged in from Transactions).
+     */
+    long getOutstandingLength() {
+        return Math.max(0, this.lastAddedOffset.get() - this.metadata.getStorageLength());
+    }
+
     /**
      * Gets a value indicating whether a call to flush() is required given the current state of this SegmentAggregator.
      * <p>
@@ -51,6 +51,7 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
     private final WriterState state;
     private final Timer timer;
     private final AckCalculator ackCalculator;
+    private final FlushScheduler flushScheduler;
 
     //endregion
 
@@ -78,6 +79,7 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
         this.state = new WriterState();
         this.timer = new Timer();
         this.ackCalculator = new AckCalculator(this.state);
+        this.flushScheduler = new FlushScheduler(this.config, this.timer, this.executor, this.traceObjectId);
     }
 
     //endregion
@@ -262,14 +264,13 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
         checkRunning();
         long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "flush");
 
-        // Flush everything we can flush.
-        val flushFutures = this.aggregators.values().stream()
-                                           .filter(SegmentAggregator::mustFlush)
-                                           .map(a -> a.flush(this.config.getFlushTimeout(), this.executor))
-                                           .collect(Collectors.toList());
+        // Flush everything we can flush, in order of priority and without exceeding the configured limits.
+        val toFlush = this.aggregators.values().stream()
+                                      .filter(SegmentAggregator::mustFlush)
+                                      .collect(Collectors.toList());
 
-        return FutureHelpers
-                .allOfWithResults(flushFutures)
+        return this.flushScheduler
+                .flush(toFlush, SegmentAggregator::getOutstandingLength, a -> a.flush(this.config.getFlushTimeout(), this.executor))
                 .thenAccept(flushResults -> {
                     FlushStageResult result = new FlushStageResult();
                     flushResults.forEach(result::withFlushResult);
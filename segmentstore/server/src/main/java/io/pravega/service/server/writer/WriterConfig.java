@@ -33,6 +33,8 @@ public class WriterConfig {
     public static final Property<Long> FLUSH_TIMEOUT_MILLIS = Property.named("flushTimeoutMillis", 60 * 1000L);
     public static final Property<Long> ACK_TIMEOUT_MILLIS = Property.named("ackTimeoutMillis", 15 * 1000L);
     public static final Property<Long> SHUTDOWN_TIMEOUT_MILLIS = Property.named("shutdownTimeoutMillis", 10 * 1000L);
+    public static final Property<Integer> MAX_CONCURRENT_FLUSHES = Property.named("maxConcurrentFlushes", 16);
+    public static final Property<Long> MAX_FLUSH_BYTES_PER_SECOND = Property.named("maxFlushBytesPerSecond", 0L);
     private static final String COMPONENT_CODE = "writer";
 
     //endregion
@@ -99,6 +101,18 @@ public class WriterConfig {
     @Getter
     private final Duration shutdownTimeout;
 
+    /**
+     * The maximum number of Segments that can be flushed to Storage at the same time.
+     */
+    @Getter
+    private final int maxConcurrentFlushes;
+
+    /**
+     * The maximum number of bytes that can be flushed to Storage per second (across all Segments). If 0, there is no limit.
+     */
+    @Getter
+    private final long maxFlushBytesPerSecond;
+
     //endregion
 
     //region Constructor
@@ -137,6 +151,15 @@ public class WriterConfig {
         this.flushTimeout = Duration.ofMillis(properties.getLong(FLUSH_TIMEOUT_MILLIS));
         this.ackTimeout = Duration.ofMillis(properties.getLong(ACK_TIMEOUT_MILLIS));
         this.shutdownTimeout = Duration.ofMillis(properties.getLong(SHUTDOWN_TIMEOUT_MILLIS));
+        this.maxConcurrentFlushes = properties.getInt(MAX_CONCURRENT_FLUSHES);
+        if (this.maxConcurrentFlushes <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", MAX_CONCURRENT_FLUSHES));
+        }
+
+        this.maxFlushBytesPerSecond = properties.getLong(MAX_FLUSH_BYTES_PER_SECOND);
+        if (this.maxFlushBytesPerSecond < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", MAX_FLUSH_BYTES_PER_SECOND));
+        }
     }
 
     /**
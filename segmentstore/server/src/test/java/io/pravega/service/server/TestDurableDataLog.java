@@ -22,8 +22,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import lombok.Cleanup;
 
 /**
@@ -39,6 +42,8 @@ public class TestDurableDataLog implements DurableDataLog {
     private ErrorInjector<Exception> getReaderInitialErrorInjector;
     private ErrorInjector<Exception> readSyncErrorInjector;
     private Function<ReadItem, ReadItem> readInterceptor;
+    private BiFunction<Integer, Supplier<CompletableFuture<LogAddress>>, CompletableFuture<LogAddress>> appendInterceptor;
+    private final AtomicInteger appendCount = new AtomicInteger();
     private Consumer<LogAddress> truncateCallback;
 
     //endregion
@@ -71,8 +76,14 @@ public class TestDurableDataLog implements DurableDataLog {
     @Override
     public CompletableFuture<LogAddress> append(ArrayView data, Duration timeout) {
         ErrorInjector.throwSyncExceptionIfNeeded(this.appendSyncErrorInjector);
-        return ErrorInjector.throwAsyncExceptionIfNeeded(this.appendAsyncErrorInjector)
-                            .thenCompose(v -> this.wrappedLog.append(data, timeout));
+        Supplier<CompletableFuture<LogAddress>> append = () -> ErrorInjector.throwAsyncExceptionIfNeeded(this.appendAsyncErrorInjector)
+                                                                            .thenCompose(v -> this.wrappedLog.append(data, timeout));
+        BiFunction<Integer, Supplier<CompletableFuture<LogAddress>>, CompletableFuture<LogAddress>> interceptor = this.appendInterceptor;
+        if (interceptor != null) {
+            return interceptor.apply(this.appendCount.getAndIncrement(), append);
+        }
+
+        return append.get();
     }
 
     @Override
@@ -133,6 +144,17 @@ public class TestDurableDataLog implements DurableDataLog {
         this.appendAsyncErrorInjector = asyncInjector;
     }
 
+    /**
+     * Sets the Append Interceptor that will be called with every append() invocation. It is given the (0-based) index of
+     * that append and a Supplier that, when invoked, performs the append on the wrapped log; whatever it returns is the
+     * result of the append.
+     *
+     * @param interceptor The append interceptor to set.
+     */
+    public void setAppendInterceptor(BiFunction<Integer, Supplier<CompletableFuture<LogAddress>>, CompletableFuture<LogAddress>> interceptor) {
+        this.appendInterceptor = interceptor;
+    }
+
     /**
      * Sets the ErrorInjectors for the read operation.
      *
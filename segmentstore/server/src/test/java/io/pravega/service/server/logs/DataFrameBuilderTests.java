@@ -12,17 +12,27 @@ package io.pravega.service.server.logs;
 import io.pravega.common.ExceptionHelpers;
 import io.pravega.common.function.ConsumerWithException;
 import io.pravega.common.util.ByteArraySegment;
+import io.pravega.service.server.DataCorruptionException;
 import io.pravega.service.server.TestDurableDataLog;
+import io.pravega.service.storage.LogAddress;
 import io.pravega.test.common.AssertExtensions;
 import io.pravega.test.common.ErrorInjector;
+import io.pravega.test.common.IntentionalException;
 import io.pravega.test.common.ThreadPooledTestSuite;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import lombok.Cleanup;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -78,6 +88,206 @@ public class DataFrameBuilderTests extends ThreadPooledTestSuite {
         }
     }
 
+    /**
+     * Tests the case when multiple Data Frames are allowed to be in flight at the same time: the commit callbacks must
+     * be invoked in the order in which the frames were sealed, and all the frames must make it into the log.
+     */
+    @Test
+    public void testAppendWithOutstandingFrames() throws Exception {
+        final int maxOutstandingFrames = 4;
+        ArrayList<TestLogItem> records = DataFrameTestHelpers.generateLogItems(100, SMALL_RECORD_MIN_SIZE, SMALL_RECORD_MAX_SIZE, 0);
+        records.addAll(DataFrameTestHelpers.generateLogItems(100, LARGE_RECORD_MIN_SIZE, LARGE_RECORD_MAX_SIZE, records.size()));
+
+        try (TestDurableDataLog dataLog = TestDurableDataLog.create(CONTAINER_ID, FRAME_SIZE, executorService())) {
+            dataLog.initialize(TIMEOUT);
+
+            AtomicInteger sealCount = new AtomicInteger();
+            List<DataFrameBuilder.DataFrameCommitArgs> commitFrames = Collections.synchronizedList(new ArrayList<>());
+            Consumer<DataFrameBuilder.DataFrameCommitFailureArgs> errorCallback = ex -> Assert.fail(String.format("Unexpected error occurred upon commit. %s", ex));
+            try (DataFrameBuilder<TestLogItem> b = new DataFrameBuilder<>(dataLog, maxOutstandingFrames, sealCount::incrementAndGet, commitFrames::add, errorCallback,
+                    executorService())) {
+                for (TestLogItem item : records) {
+                    b.append(item);
+                }
+            }
+
+            // Check the correctness of the commit callback.
+            AssertExtensions.assertGreaterThan("Not enough Data Frames were generated.", 1, commitFrames.size());
+            Assert.assertEquals("Unexpected number of sealed Data Frames.", sealCount.get(), commitFrames.size());
+            for (int i = 1; i < commitFrames.size(); i++) {
+                DataFrameBuilder.DataFrameCommitArgs previous = commitFrames.get(i - 1);
+                DataFrameBuilder.DataFrameCommitArgs current = commitFrames.get(i);
+                AssertExtensions.assertGreaterThan("Data Frames were not acknowledged in order.", previous.getLogAddress().getSequence(), current.getLogAddress().getSequence());
+                AssertExtensions.assertGreaterThanOrEqual("DataFrameCommitArgs.getLastFullySerializedSequenceNumber() is not monotonically increasing.",
+                        previous.getLastFullySerializedSequenceNumber(), current.getLastFullySerializedSequenceNumber());
+            }
+
+            //Read all entries in the Log and interpret them as DataFrames, then verify the records can be reconstructed.
+            List<DataFrame> frames = dataLog.getAllEntries(readItem -> new DataFrame(readItem.getPayload(), readItem.getLength()));
+            Assert.assertEquals("Unexpected number of frames generated.", commitFrames.size(), frames.size());
+            DataFrameTestHelpers.checkReadRecords(frames, records, r -> new ByteArraySegment(r.getFullSerialization()));
+        }
+    }
+
+    /**
+     * Tests the case when a Data Frame fails to commit while a Data Frame published after it is committed. Only the
+     * Data Frames before the failed one may be acknowledged, the LogItems up to the failed Data Frame must be reported
+     * as failed, and the DataFrameBuilder must refuse to continue (the DataFrameLog now has a gap that the
+     * DataFrameReader must detect).
+     */
+    @Test
+    public void testAppendWithOutstandingFrameFailure() throws Exception {
+        final int maxOutstandingFrames = 4;
+        final int failedFrameIndex = 2;
+        ArrayList<TestLogItem> records = DataFrameTestHelpers.generateLogItems(200, SMALL_RECORD_MIN_SIZE, SMALL_RECORD_MAX_SIZE, 0);
+
+        try (TestDurableDataLog dataLog = TestDurableDataLog.create(CONTAINER_ID, FRAME_SIZE, executorService())) {
+            dataLog.initialize(TIMEOUT);
+
+            // Wait for all the frames before the failed one to be acknowledged (so that the ones after it refer to them),
+            // then hold off the failed frame (without writing it) until the one after it has been written, and fail it.
+            List<DataFrameBuilder.DataFrameCommitArgs> commitFrames = Collections.synchronizedList(new ArrayList<>());
+            CompletableFuture<Void> previousFramesCommitted = new CompletableFuture<>();
+            ConsumerWithException<DataFrameBuilder.DataFrameCommitArgs, Exception> commitCallback = commitArgs -> {
+                commitFrames.add(commitArgs);
+                if (commitFrames.size() == failedFrameIndex) {
+                    previousFramesCommitted.complete(null);
+                }
+            };
+
+            CompletableFuture<Void> failedFrame = new CompletableFuture<>();
+            IntentionalException failure = new IntentionalException();
+            dataLog.setAppendInterceptor((index, append) -> {
+                if (index == failedFrameIndex) {
+                    previousFramesCommitted.join();
+                    return failedFrame.thenCompose(v -> append.get());
+                } else if (index == failedFrameIndex + 1) {
+                    return append.get().whenComplete((address, ex) -> failedFrame.completeExceptionally(failure));
+                } else {
+                    return append.get();
+                }
+            });
+
+            List<DataFrameBuilder.DataFrameCommitFailureArgs> failures = Collections.synchronizedList(new ArrayList<>());
+            DataFrameBuilder<TestLogItem> b = new DataFrameBuilder<>(dataLog, maxOutstandingFrames, () -> {
+            }, commitCallback, failures::add, executorService());
+            AssertExtensions.assertThrows(
+                    "DataFrameBuilder did not fail after a Data Frame failed but a subsequent one was committed.",
+                    () -> {
+                        try {
+                            for (TestLogItem item : records) {
+                                b.append(item);
+                            }
+                        } finally {
+                            b.close();
+                        }
+                    },
+                    ex -> ex instanceof DataCorruptionException && ex.getCause() == failure);
+
+            // Only the Data Frames before the failed one may have been acknowledged.
+            Assert.assertEquals("Unexpected number of acknowledged Data Frames.", failedFrameIndex, commitFrames.size());
+            Assert.assertEquals("Unexpected number of failure callbacks.", 1, failures.size());
+            DataFrameBuilder.DataFrameCommitFailureArgs failureArgs = failures.get(0);
+            Assert.assertEquals("Unexpected failure cause.", failure, failureArgs.getCause());
+            Assert.assertTrue("Failure did not report that a subsequent Data Frame was committed.", failureArgs.isSubsequentFrameCommitted());
+            AssertExtensions.assertGreaterThan("Failed LogItems overlap acknowledged ones.",
+                    commitFrames.get(commitFrames.size() - 1).getLastFullySerializedSequenceNumber(), failureArgs.getLastStartedSequenceNumber());
+
+            // The DataFrameLog contains every Data Frame except the failed one; reading it must detect the gap.
+            List<DataFrame> frames = dataLog.getAllEntries(readItem -> new DataFrame(readItem.getPayload(), readItem.getLength()));
+            AssertExtensions.assertGreaterThan("Not enough Data Frames were written after the failed one.", failedFrameIndex, frames.size());
+            @Cleanup
+            DataFrameReader<TestLogItem> reader = new DataFrameReader<>(dataLog, new TestLogItemFactory(), CONTAINER_ID);
+            AssertExtensions.assertThrows(
+                    "DataFrameReader did not detect the missing Data Frame.",
+                    () -> {
+                        while (reader.getNext() != null) {
+                            // Keep reading.
+                        }
+                    },
+                    ex -> ex instanceof DataCorruptionException);
+        }
+    }
+
+    /**
+     * Tests that a slow commit callback does not block the DataFrameLog from completing other Data Frames: the callbacks
+     * are invoked on the callback Executor, one at a time and in order, and not while holding the lock that the appending
+     * thread waits on.
+     */
+    @Test
+    public void testSlowCommitCallback() throws Exception {
+        final int maxOutstandingFrames = 2;
+        ArrayList<TestLogItem> records = DataFrameTestHelpers.generateLogItems(100, SMALL_RECORD_MIN_SIZE, SMALL_RECORD_MAX_SIZE, 0);
+
+        @Cleanup("shutdown")
+        ExecutorService callbackExecutor = Executors.newFixedThreadPool(3);
+        try (TestDurableDataLog dataLog = TestDurableDataLog.create(CONTAINER_ID, FRAME_SIZE, executorService())) {
+            dataLog.initialize(TIMEOUT);
+
+            // Block the first commit callback until told otherwise.
+            List<DataFrameBuilder.DataFrameCommitArgs> commitFrames = Collections.synchronizedList(new ArrayList<>());
+            CompletableFuture<Void> firstCallbackStarted = new CompletableFuture<>();
+            CompletableFuture<Void> releaseFirstCallback = new CompletableFuture<>();
+            ConsumerWithException<DataFrameBuilder.DataFrameCommitArgs, Exception> commitCallback = commitArgs -> {
+                commitFrames.add(commitArgs);
+                if (commitFrames.size() == 1) {
+                    firstCallbackStarted.complete(null);
+                    releaseFirstCallback.join();
+                }
+            };
+
+            // Hold off the acknowledgement of the second frame (after it has been written) until the test completes it.
+            CompletableFuture<LogAddress> secondFrameWritten = new CompletableFuture<>();
+            CompletableFuture<LogAddress> secondFrameAck = new CompletableFuture<>();
+            dataLog.setAppendInterceptor((index, append) -> {
+                if (index == 1) {
+                    return append.get().thenCompose(address -> {
+                        secondFrameWritten.complete(address);
+                        return secondFrameAck;
+                    });
+                } else {
+                    return append.get();
+                }
+            });
+
+            Consumer<DataFrameBuilder.DataFrameCommitFailureArgs> errorCallback = ex -> Assert.fail(String.format("Unexpected error occurred upon commit. %s", ex));
+            DataFrameBuilder<TestLogItem> b = new DataFrameBuilder<>(dataLog, maxOutstandingFrames, () -> {
+            }, commitCallback, errorCallback, callbackExecutor);
+            CompletableFuture<Void> appender = CompletableFuture.runAsync(() -> {
+                try {
+                    for (TestLogItem item : records) {
+                        b.append(item);
+                    }
+                } catch (Exception ex) {
+                    throw new CompletionException(ex);
+                } finally {
+                    b.close();
+                }
+            }, callbackExecutor);
+
+            // Completing the second frame while the first callback is still running must not block.
+            firstCallbackStarted.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            LogAddress secondAddress = secondFrameWritten.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            CompletableFuture.runAsync(() -> secondFrameAck.complete(secondAddress), callbackExecutor)
+                             .get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            Assert.assertEquals("A Data Frame was acknowledged before the previous one's callback completed.", 1, commitFrames.size());
+
+            releaseFirstCallback.complete(null);
+            appender.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+            // All frames must have been acknowledged, in order.
+            for (int i = 1; i < commitFrames.size(); i++) {
+                AssertExtensions.assertGreaterThan("Data Frames were not acknowledged in order.",
+                        commitFrames.get(i - 1).getLogAddress().getSequence(), commitFrames.get(i).getLogAddress().getSequence());
+            }
+
+            List<DataFrame> frames = dataLog.getAllEntries(readItem -> new DataFrame(readItem.getPayload(), readItem.getLength()));
+            AssertExtensions.assertGreaterThan("Not enough Data Frames were generated.", maxOutstandingFrames, frames.size());
+            Assert.assertEquals("Unexpected number of acknowledged Data Frames.", frames.size(), commitFrames.size());
+            DataFrameTestHelpers.checkReadRecords(frames, records, r -> new ByteArraySegment(r.getFullSerialization()));
+        }
+    }
+
     /**
      * Tests the case when the appends fail because of Serialization failures.
      * Serialization errors should only affect the append that caused it. It should not cause any data to be dropped
@@ -81,6 +81,34 @@ public class DataFrameReaderTests extends ThreadPooledTestSuite {
         }
     }
 
+    /**
+     * Tests the ability of the DataFrameReader to fetch DataFrames in the background, while still returning all the
+     * records in the correct order.
+     */
+    @Test
+    public void testReadsWithPrefetch() throws Exception {
+        final int prefetchCount = 2;
+        ArrayList<TestLogItem> records = DataFrameTestHelpers.generateLogItems(100, SMALL_RECORD_MIN_SIZE, SMALL_RECORD_MAX_SIZE, 0);
+        records.addAll(DataFrameTestHelpers.generateLogItems(100, LARGE_RECORD_MIN_SIZE, LARGE_RECORD_MAX_SIZE, records.size()));
+
+        try (TestDurableDataLog dataLog = TestDurableDataLog.create(CONTAINER_ID, FRAME_SIZE, executorService())) {
+            dataLog.initialize(TIMEOUT);
+
+            ArrayList<DataFrameBuilder.DataFrameCommitArgs> commitFrames = new ArrayList<>();
+            Consumer<Throwable> errorCallback = ex -> Assert.fail(String.format("Unexpected error occurred upon commit. %s", ex));
+            try (DataFrameBuilder<TestLogItem> b = new DataFrameBuilder<>(dataLog, commitFrames::add, errorCallback)) {
+                for (TestLogItem r : records) {
+                    b.append(r);
+                }
+            }
+
+            TestLogItemFactory logItemFactory = new TestLogItemFactory();
+            DataFrameReader<TestLogItem> reader = new DataFrameReader<>(dataLog, logItemFactory, CONTAINER_ID, prefetchCount, executorService());
+            List<TestLogItem> readItems = readAll(reader);
+            checkReadResult(records, new HashSet<>(), readItems);
+        }
+    }
+
     /**
      * Tests the case when we begin reading from a DataFrame which begins with a partial record. That record needs to
      * be dropped (not returned). DataFrameReader should always return full records.
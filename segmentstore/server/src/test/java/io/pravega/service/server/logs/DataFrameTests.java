@@ -71,6 +71,34 @@ public class DataFrameTests {
         DataFrameTestHelpers.checkReadRecords(readFrame, allRecords, b -> b);
     }
 
+    /**
+     * Tests that a DataFrame written while other DataFrames were in flight serializes the number of DataFrames between
+     * it and its previous one, and that one written without any in flight uses the original serialization format.
+     */
+    @Test
+    public void testSerializationWithFramesSincePrevious() throws Exception {
+        int maxFrameSize = 1024;
+        List<ByteArraySegment> allRecords = DataFrameTestHelpers.generateRecords(10, 0, 64, ByteArraySegment::new);
+        for (int framesSincePrevious : new int[]{0, 1, DataFrame.MAX_FRAMES_SINCE_PREVIOUS}) {
+            DataFrame writeFrame = new DataFrame(DEFAULT_PREVIOUS_SEQUENCE, framesSincePrevious, maxFrameSize);
+            int recordsAppended = appendRecords(allRecords, writeFrame);
+            writeFrame.seal();
+            val frameData = writeFrame.getData();
+            Assert.assertEquals("Unexpected serialization version.", framesSincePrevious == 0 ? 0 : 1, frameData.get(0));
+
+            DataFrame readFrame = new DataFrame(new ByteArraySegment(frameData.array(), frameData.arrayOffset(), frameData.getLength()));
+            Assert.assertEquals("Unexpected value for getPreviousFrameSequence().", DEFAULT_PREVIOUS_SEQUENCE, readFrame.getPreviousFrameSequence());
+            Assert.assertEquals("Unexpected value for getFramesSincePrevious().", framesSincePrevious, readFrame.getFramesSincePrevious());
+            AssertExtensions.assertGreaterThan("Did not append any records. Test may not be valid.", 0, recordsAppended);
+            DataFrameTestHelpers.checkReadRecords(readFrame, allRecords, b -> b);
+        }
+
+        AssertExtensions.assertThrows(
+                "DataFrame accepted an invalid value for framesSincePrevious.",
+                () -> new DataFrame(DEFAULT_PREVIOUS_SEQUENCE, DataFrame.MAX_FRAMES_SINCE_PREVIOUS + 1, maxFrameSize),
+                ex -> ex instanceof IllegalArgumentException);
+    }
+
     /**
      * Tests the ability to Start/End/Discard an entry.
      */
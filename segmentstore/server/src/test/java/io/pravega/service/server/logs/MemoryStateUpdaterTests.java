@@ -257,6 +257,11 @@ public class MemoryStateUpdaterTests {
             invoke(new MethodInvocation(CLEANUP));
         }
 
+        @Override
+        public double getCacheUtilization() {
+            return 0;
+        }
+
         @Override
         public void enterRecoveryMode(ContainerMetadata recoveryMetadataSource) {
             invoke(new MethodInvocation(ENTER_RECOVERY_MODE)
@@ -1007,6 +1007,58 @@ public class OperationMetadataUpdaterTests {
         Assert.assertNull("Unexpected state of the updater after rollback.", transactionMetadata);
     }
 
+    /**
+     * Tests the ability of the OperationMetadataUpdater to seal transactions and commit them in order, while new changes
+     * build on top of the sealed (but uncommitted) ones.
+     */
+    @Test
+    public void testSealedTransactions() throws Exception {
+        final int appendsPerTransaction = 10;
+        final int transactionCount = 3;
+        UpdateableContainerMetadata metadata = createMetadata();
+        OperationMetadataUpdater updater = createUpdater(metadata);
+        long seqNo = 0;
+        long[] lastSeqNos = new long[transactionCount];
+        for (int i = 0; i < transactionCount; i++) {
+            for (int j = 0; j < appendsPerTransaction; j++) {
+                StreamSegmentAppendOperation op = createAppendNoOffset();
+                updater.preProcessOperation(op);
+                Assert.assertEquals("Append was not pre-processed based on the sealed transactions.",
+                        SEGMENT_LENGTH + (i * appendsPerTransaction + j) * DEFAULT_APPEND_DATA.length, op.getStreamSegmentOffset());
+                op.setSequenceNumber(++seqNo);
+                updater.acceptOperation(op);
+            }
+
+            lastSeqNos[i] = seqNo;
+            updater.sealTransaction();
+        }
+
+        Assert.assertEquals("Sealing transactions should not have modified the metadata.", SEGMENT_LENGTH, metadata.getStreamSegmentMetadata(SEGMENT_ID).getDurableLogLength());
+
+        // Commit them one by one and verify only the changes up to each commit point are applied.
+        for (int i = 0; i < transactionCount; i++) {
+            LogAddress address = new LogAddress(i) {
+            };
+            updater.commit(lastSeqNos[i], lastSeqNos[i], address);
+            Assert.assertEquals("Unexpected DurableLogLength after committing transaction " + i,
+                    SEGMENT_LENGTH + (i + 1) * appendsPerTransaction * DEFAULT_APPEND_DATA.length,
+                    metadata.getStreamSegmentMetadata(SEGMENT_ID).getDurableLogLength());
+            Assert.assertEquals("Unexpected truncation marker after committing transaction " + i, address, metadata.getClosestTruncationMarker(lastSeqNos[i]));
+        }
+
+        // Seal one more transaction, and then roll back everything.
+        StreamSegmentAppendOperation op = createAppendNoOffset();
+        updater.preProcessOperation(op);
+        op.setSequenceNumber(++seqNo);
+        updater.acceptOperation(op);
+        updater.sealTransaction();
+        updater.rollback();
+        Assert.assertFalse("Nothing should have been committed after a rollback.", updater.commit());
+        Assert.assertEquals("Unexpected DurableLogLength after rollback.",
+                SEGMENT_LENGTH + transactionCount * appendsPerTransaction * DEFAULT_APPEND_DATA.length,
+                metadata.getStreamSegmentMetadata(SEGMENT_ID).getDurableLogLength());
+    }
+
     /**
      * Tests the recordTruncationMarker() method.
      */
@@ -11,7 +11,9 @@ package io.pravega.service.server.logs;
 
 import com.google.common.util.concurrent.Runnables;
 import com.google.common.util.concurrent.Service;
+import io.pravega.common.ExceptionHelpers;
 import io.pravega.common.ObjectClosedException;
+import io.pravega.common.concurrent.FutureHelpers;
 import io.pravega.common.concurrent.ServiceShutdownListener;
 import io.pravega.common.util.SequencedItemList;
 import io.pravega.service.contracts.StreamSegmentException;
@@ -25,6 +27,7 @@ import io.pravega.service.server.ReadIndex;
 import io.pravega.service.server.TestDurableDataLog;
 import io.pravega.service.server.TruncationMarkerRepository;
 import io.pravega.service.server.UpdateableContainerMetadata;
+import io.pravega.service.server.UpdateableSegmentMetadata;
 import io.pravega.service.server.logs.operations.Operation;
 import io.pravega.service.server.logs.operations.OperationComparer;
 import io.pravega.service.server.logs.operations.OperationFactory;
@@ -44,7 +47,9 @@ import io.pravega.service.storage.mocks.InMemoryCacheFactory;
 import io.pravega.service.storage.mocks.InMemoryStorage;
 import io.pravega.test.common.AssertExtensions;
 import io.pravega.test.common.ErrorInjector;
+import io.pravega.test.common.IntentionalException;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -53,6 +58,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
@@ -307,6 +313,95 @@ public class OperationProcessorTests extends OperationLogTestBase {
         performReadIndexChecks(completionFutures, context.readIndex);
     }
 
+    /**
+     * Tests the ability of the OperationProcessor to handle a DataFrame failing to commit while a DataFrame written after
+     * it is committed. Only the Operations up to the failed DataFrame should be failed with the original exception, the
+     * OperationProcessor should shut down, and the Metadata should only reflect the Operations that were acknowledged.
+     */
+    @Test(timeout = TEST_TIMEOUT_MILLIS)
+    public void testWithOutstandingDataFrameFailure() throws Exception {
+        int streamSegmentCount = 10;
+        int appendsPerStreamSegment = 80;
+        int maxOutstandingDataFrames = 4;
+        int failedFrameIndex = 2;
+
+        @Cleanup
+        TestContext context = new TestContext();
+
+        // Generate some test data (no need to complicate ourselves with Transactions here; that is tested in the no-failure test).
+        HashSet<Long> streamSegmentIds = createStreamSegmentsInMetadata(streamSegmentCount, context.metadata);
+        List<Operation> operations = generateOperations(streamSegmentIds, new HashMap<>(), appendsPerStreamSegment, METADATA_CHECKPOINT_EVERY, false, false);
+
+        // Setup an OperationProcessor and start it.
+        @Cleanup
+        TestDurableDataLog dataLog = TestDurableDataLog.create(CONTAINER_ID, MAX_DATA_LOG_APPEND_SIZE, executorService());
+        dataLog.initialize(TIMEOUT);
+
+        // Hold off one DataFrame (without writing it) until the one after it has been written, then fail it.
+        CompletableFuture<Void> failedFrame = new CompletableFuture<>();
+        IntentionalException failure = new IntentionalException();
+        dataLog.setAppendInterceptor((index, append) -> {
+            if (index == failedFrameIndex) {
+                return failedFrame.thenCompose(v -> append.get());
+            } else if (index == failedFrameIndex + 1) {
+                return append.get().whenComplete((address, ex) -> failedFrame.completeExceptionally(failure));
+            } else {
+                return append.get();
+            }
+        });
+
+        @Cleanup
+        OperationProcessor operationProcessor = new OperationProcessor(context.metadata, context.stateUpdater, dataLog, getNoOpCheckpointPolicy(),
+                maxOutstandingDataFrames, executorService());
+        operationProcessor.startAsync().awaitRunning();
+
+        // Process all generated operations.
+        List<OperationWithCompletion> completionFutures = processOperations(operations, operationProcessor);
+
+        // Wait for all such operations to complete. We are expecting exceptions (which are verified for each Operation below).
+        AssertExtensions.assertThrows(
+                "No operations failed.",
+                OperationWithCompletion.allOf(completionFutures)::join,
+                ex -> true);
+
+        // Verify that the OperationProcessor automatically shuts down, since the DurableDataLog now has a gap.
+        ServiceShutdownListener.awaitShutdown(operationProcessor, TIMEOUT, false);
+        Assert.assertEquals("OperationProcessor is not in a failed state after a DataFrame failed out of order.",
+                Service.State.FAILED, operationProcessor.state());
+        Assert.assertTrue("OperationProcessor did not fail with the correct exception.",
+                operationProcessor.failureCause() instanceof DataCorruptionException);
+
+        // The Operations that were acknowledged come first, followed by those in (or before) the failed DataFrame, which
+        // must be failed with the original exception. The outcome of the remaining ones cannot be determined, so they
+        // must not be failed with the original exception.
+        int successCount = 0;
+        int failedWithCauseCount = 0;
+        for (OperationWithCompletion oc : completionFutures) {
+            if (!oc.completion.isCompletedExceptionally()) {
+                Assert.assertEquals("Encountered successful operation after a failed operation.", 0, failedWithCauseCount);
+                successCount++;
+                continue;
+            }
+
+            Throwable ex = ExceptionHelpers.getRealException(oc.completion.handle((r, e) -> e).join());
+            if (ex == failure) {
+                failedWithCauseCount++;
+            } else {
+                Assert.assertTrue("Unexpected exception for an Operation after the failed DataFrame: " + ex,
+                        ex instanceof DataCorruptionException
+                                || ex instanceof IllegalContainerStateException
+                                || ex instanceof ObjectClosedException
+                                || (ex instanceof IOException && ex.getCause() instanceof DataCorruptionException));
+            }
+        }
+
+        AssertExtensions.assertGreaterThan("No operation succeeded.", 0, successCount);
+        AssertExtensions.assertGreaterThan("No operation was failed with the DataFrame failure.", 0, failedWithCauseCount);
+
+        // The metadata must have been rolled back to the last acknowledged Operation.
+        performMetadataChecks(streamSegmentIds, new HashSet<>(), new HashMap<>(), completionFutures, context.metadata, false, false);
+    }
+
     /**
      * Tests the ability of the OperationProcessor handle a DataLogWriterNotPrimaryException.
      */
@@ -479,6 +574,80 @@ public class OperationProcessorTests extends OperationLogTestBase {
         operationProcessor.stopAsync().awaitTerminated();
     }
 
+    /**
+     * Tests the ability of the OperationProcessor to throttle new Operations when the Cache is full and none of its
+     * contents can be evicted (because Storage is not keeping up). No Operation should fail, and processing should resume
+     * once Storage catches up.
+     */
+    @Test(timeout = TEST_TIMEOUT_MILLIS)
+    public void testWithCacheFull() throws Exception {
+        int appendSize = 1024;
+        int appendsPerCache = 100;
+        int appendsPerBatch = 10;
+        int appendCount = 3 * appendsPerCache;
+
+        ReadIndexConfig readIndexConfig = ReadIndexConfig
+                .builder()
+                .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, 1024)
+                .with(ReadIndexConfig.CACHE_POLICY_MAX_SIZE, (long) appendSize * appendsPerCache)
+                .with(ReadIndexConfig.CACHE_POLICY_MAX_TIME, Integer.MAX_VALUE)
+                .with(ReadIndexConfig.CACHE_POLICY_GENERATION_TIME, 10)
+                .build();
+        @Cleanup
+        TestContext context = new TestContext(readIndexConfig);
+        context.cacheManager.startAsync().awaitRunning();
+
+        // Generate some test data. Nothing is ever written to Storage, so none of it can be evicted from the Cache.
+        long segmentId = createStreamSegmentsInMetadata(1, context.metadata).iterator().next();
+        UpdateableSegmentMetadata segmentMetadata = context.metadata.getStreamSegmentMetadata(segmentId);
+        List<Operation> operations = new ArrayList<>();
+        for (int i = 0; i < appendCount; i++) {
+            operations.add(new StreamSegmentAppendOperation(segmentId, new byte[appendSize], null));
+        }
+
+        // Setup an OperationProcessor and start it.
+        @Cleanup
+        TestDurableDataLog dataLog = TestDurableDataLog.create(CONTAINER_ID, MAX_DATA_LOG_APPEND_SIZE, executorService());
+        dataLog.initialize(TIMEOUT);
+        @Cleanup
+        OperationProcessor operationProcessor = new OperationProcessor(context.metadata, context.stateUpdater, dataLog, getNoOpCheckpointPolicy(), executorService());
+        operationProcessor.startAsync().awaitRunning();
+
+        // Fill up the Cache, one batch at a time.
+        List<OperationWithCompletion> completionFutures = new ArrayList<>();
+        int index = 0;
+        while (context.cacheManager.getCacheUtilization() < 1) {
+            List<OperationWithCompletion> batch = processOperations(operations.subList(index, index + appendsPerBatch), operationProcessor);
+            OperationWithCompletion.allOf(batch).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            completionFutures.addAll(batch);
+            index += appendsPerBatch;
+        }
+
+        // Process the rest of them. None of these should be processed (or failed) while the Cache is full.
+        List<OperationWithCompletion> throttledFutures = processOperations(operations.subList(index, operations.size()), operationProcessor);
+        completionFutures.addAll(throttledFutures);
+        Thread.sleep(500);
+        Assert.assertTrue("OperationProcessor stopped while the Cache was full.", operationProcessor.isRunning());
+        Assert.assertFalse("Operations were processed while the Cache was full.", throttledFutures.stream().anyMatch(o -> o.completion.isDone()));
+
+        // Let Storage catch up; this will allow data to be evicted from the Cache, which in turn unblocks the processing.
+        CompletableFuture<Void> allDone = OperationWithCompletion.allOf(completionFutures);
+        FutureHelpers.loop(
+                () -> !allDone.isDone(),
+                () -> {
+                    segmentMetadata.setStorageLength(segmentMetadata.getDurableLogLength());
+                    return FutureHelpers.delayedFuture(Duration.ofMillis(10), executorService());
+                },
+                executorService());
+        allDone.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        // Stop the processor.
+        operationProcessor.stopAsync().awaitTerminated();
+
+        performLogOperationChecks(completionFutures, context.memoryLog, dataLog, context.metadata);
+        Assert.assertEquals("Unexpected Segment length.", (long) appendSize * appendCount, segmentMetadata.getDurableLogLength());
+    }
+
     private List<OperationWithCompletion> processOperations(Collection<Operation> operations, OperationProcessor operationProcessor) {
         List<OperationWithCompletion> completionFutures = new ArrayList<>();
         operations.forEach(op -> completionFutures.add(new OperationWithCompletion(op, operationProcessor.process(op))));
@@ -559,13 +728,16 @@ public class OperationProcessorTests extends OperationLogTestBase {
         final MemoryStateUpdater stateUpdater;
 
         TestContext() {
+            this(ConfigHelpers
+                    .withInfiniteCachePolicy(ReadIndexConfig.builder().with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, 1024))
+                    .build());
+        }
+
+        TestContext(ReadIndexConfig readIndexConfig) {
             this.cacheFactory = new InMemoryCacheFactory();
             this.storage = new InMemoryStorage(executorService());
             this.storage.initialize(1);
             this.metadata = new MetadataBuilder(CONTAINER_ID).build();
-            ReadIndexConfig readIndexConfig = ConfigHelpers
-                    .withInfiniteCachePolicy(ReadIndexConfig.builder().with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, 1024))
-                    .build();
             this.cacheManager = new CacheManager(readIndexConfig.getCachePolicy(), executorService());
             this.readIndex = new ContainerReadIndex(readIndexConfig, this.metadata, this.cacheFactory, this.storage, this.cacheManager, executorService());
             this.memoryLog = new SequencedItemList<>();
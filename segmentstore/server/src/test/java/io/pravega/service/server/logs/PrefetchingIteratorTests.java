@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.server.logs;
+
+import io.pravega.common.ObjectClosedException;
+import io.pravega.common.util.CloseableIterator;
+import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.IntentionalException;
+import io.pravega.test.common.ThreadPooledTestSuite;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the PrefetchingIterator class.
+ */
+public class PrefetchingIteratorTests extends ThreadPooledTestSuite {
+    private static final int TIMEOUT_MILLIS = 30 * 1000;
+    private static final int ITEM_COUNT = 100;
+    private static final int PREFETCH_COUNT = 3;
+
+    @Override
+    protected int getThreadPoolSize() {
+        return 3;
+    }
+
+    /**
+     * Tests that all the items of the source are returned, in order, followed by null.
+     */
+    @Test(timeout = TIMEOUT_MILLIS)
+    public void testIteration() throws Exception {
+        val expected = new ArrayList<Integer>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            expected.add(i);
+        }
+
+        @Cleanup
+        val iterator = new PrefetchingIterator<Integer>(new TestSource(expected, false), PREFETCH_COUNT, executorService(), "Test");
+        val actual = new ArrayList<Integer>();
+        Integer next;
+        while ((next = iterator.getNext()) != null) {
+            actual.add(next);
+        }
+
+        AssertExtensions.assertListEquals("Unexpected items.", expected, actual, Integer::equals);
+        Assert.assertNull("Expected no more items after the end.", iterator.getNext());
+    }
+
+    /**
+     * Tests that a failure of the source is thrown to the consumer once it gets to it.
+     */
+    @Test(timeout = TIMEOUT_MILLIS)
+    public void testSourceFailure() throws Exception {
+        val items = new ArrayList<Integer>();
+        items.add(1);
+        @Cleanup
+        val iterator = new PrefetchingIterator<Integer>(new TestSource(items, true), PREFETCH_COUNT, executorService(), "Test");
+        Assert.assertEquals("Unexpected item before the failure.", 1, (int) iterator.getNext());
+        AssertExtensions.assertThrows(
+                "Source failure was not thrown.",
+                iterator::getNext,
+                ex -> ex instanceof IntentionalException);
+    }
+
+    /**
+     * Tests that closing the iterator wakes up a consumer waiting for an item.
+     */
+    @Test(timeout = TIMEOUT_MILLIS)
+    public void testCloseUnblocksConsumer() {
+        // Fetches are never executed, so the consumer can only be woken up by close().
+        val iterator = new PrefetchingIterator<Integer>(new TestSource(new ArrayList<>(), false), PREFETCH_COUNT, task -> { }, "Test");
+        val consumer = CompletableFuture.supplyAsync(() -> {
+            try {
+                return iterator.getNext();
+            } catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+        }, executorService());
+
+        iterator.close();
+        AssertExtensions.assertThrows(
+                "Consumer was not failed when the iterator was closed.",
+                consumer,
+                ex -> ex instanceof ObjectClosedException);
+    }
+
+    private static class TestSource implements CloseableIterator<Integer, Exception> {
+        private final Iterator<Integer> items;
+        private final boolean failAtEnd;
+
+        TestSource(List<Integer> items, boolean failAtEnd) {
+            this.items = items.iterator();
+            this.failAtEnd = failAtEnd;
+        }
+
+        @Override
+        public Integer getNext() throws Exception {
+            if (this.items.hasNext()) {
+                return this.items.next();
+            } else if (this.failAtEnd) {
+                throw new IntentionalException();
+            }
+
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
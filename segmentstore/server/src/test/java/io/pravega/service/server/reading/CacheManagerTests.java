@@ -170,6 +170,59 @@ public class CacheManagerTests extends ThreadPooledTestSuite {
         }
     }
 
+    /**
+     * Tests that entries in probation are evicted first, but only when the cache is over its size limit.
+     */
+    @Test
+    public void testProbationaryEviction() {
+        final int generationCount = 10;
+        final CachePolicy policy = new CachePolicy(1024, Duration.ofHours(10000), Duration.ofHours(1));
+        final long probationSize = 100;
+        @Cleanup
+        TestCacheManager cm = new TestCacheManager(policy, executorService());
+        TestClient client = new TestClient();
+        cm.register(client);
+
+        // Advance the current generation a few times, with plenty of data in probation but within the size limit.
+        AtomicInteger currentOldestGeneration = new AtomicInteger(-1);
+        for (int i = 0; i < generationCount; i++) {
+            client.setCacheStatus(policy.getMaxSize(), 0, i, policy.getMaxSize());
+            client.setUpdateGenerationsImpl((current, oldest) -> {
+                currentOldestGeneration.set(oldest);
+                return 0L;
+            });
+            cm.applyCachePolicy();
+            Assert.assertEquals("Not expecting probationary entries to be evicted while within the size limit.",
+                    currentOldestGeneration.get(), client.oldestProbationaryGeneration);
+        }
+
+        // Go over the size limit; evicting what is in probation is enough to get back within it.
+        int oldestGeneration = currentOldestGeneration.get();
+        client.setCacheStatus(policy.getMaxSize() + probationSize, 0, generationCount, probationSize);
+        client.setUpdateGenerationsImpl((current, oldest) -> {
+            Assert.assertEquals("Not expecting a change for oldestGeneration.", oldestGeneration, (int) oldest);
+            if (client.oldestProbationaryGeneration > oldest) {
+                client.setCacheStatus(policy.getMaxSize(), 0, generationCount, 0);
+                return probationSize;
+            }
+
+            return 0L;
+        });
+        cm.applyCachePolicy();
+        AssertExtensions.assertGreaterThan("Expected probationary entries to be evicted when over the size limit.",
+                oldestGeneration, client.oldestProbationaryGeneration);
+
+        // Go over the size limit with nothing in probation; this should evict regular entries.
+        client.setCacheStatus(policy.getMaxSize() + 1, oldestGeneration, generationCount + 1, 0);
+        client.setUpdateGenerationsImpl((current, oldest) -> {
+            currentOldestGeneration.set(oldest);
+            return 1L;
+        });
+        cm.applyCachePolicy();
+        AssertExtensions.assertGreaterThan("Expected regular entries to be evicted when nothing is in probation.",
+                oldestGeneration, currentOldestGeneration.get());
+    }
+
     /**
      * Tests the ability of the CacheManager to auto-unregister a client that was detected as having been closed.
      */
@@ -200,11 +253,16 @@ public class CacheManagerTests extends ThreadPooledTestSuite {
     private static class TestClient implements CacheManager.Client {
         private CacheManager.CacheStatus currentStatus;
         private BiFunction<Integer, Integer, Long> updateGenerationsImpl = (current, oldest) -> -1L;
+        private int oldestProbationaryGeneration;
 
         void setCacheStatus(long size, int oldestGeneration, int newestGeneration) {
             this.currentStatus = new CacheManager.CacheStatus(size, oldestGeneration, newestGeneration);
         }
 
+        void setCacheStatus(long size, int oldestGeneration, int newestGeneration, long probationSize) {
+            this.currentStatus = new CacheManager.CacheStatus(size, oldestGeneration, newestGeneration, 0, probationSize);
+        }
+
         void setUpdateGenerationsImpl(BiFunction<Integer, Integer, Long> function) {
             this.updateGenerationsImpl = function;
         }
@@ -215,7 +273,9 @@ public class CacheManagerTests extends ThreadPooledTestSuite {
         }
 
         @Override
-        public long updateGenerations(int currentGeneration, int oldestGeneration) {
+        public long updateGenerations(int currentGeneration, int oldestGeneration, int oldestProbationaryGeneration) {
+            AssertExtensions.assertGreaterThanOrEqual("Probationary cutoff is older than the regular one.", oldestGeneration, oldestProbationaryGeneration);
+            this.oldestProbationaryGeneration = oldestProbationaryGeneration;
             return this.updateGenerationsImpl.apply(currentGeneration, oldestGeneration);
         }
     }
@@ -26,6 +26,7 @@ import io.pravega.service.server.UpdateableContainerMetadata;
 import io.pravega.service.server.UpdateableSegmentMetadata;
 import io.pravega.service.storage.Cache;
 import io.pravega.service.storage.CacheFactory;
+import io.pravega.service.storage.CacheFullException;
 import io.pravega.service.storage.Storage;
 import io.pravega.service.storage.mocks.InMemoryCache;
 import io.pravega.service.storage.mocks.InMemoryStorage;
@@ -38,12 +39,15 @@ import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -70,6 +74,8 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
     private static final ReadIndexConfig DEFAULT_CONFIG = ConfigHelpers
             .withInfiniteCachePolicy(ReadIndexConfig.builder()
                                                     .with(ReadIndexConfig.MEMORY_READ_MIN_LENGTH, 0) // Default: Off (we have a special test for this).
+                                                    .with(ReadIndexConfig.CACHE_ENTRY_MAX_APPEND_LENGTH, 0) // Default: Off (we have a special test for this).
+                                                    .with(ReadIndexConfig.STORAGE_READ_AHEAD_LENGTH, 0) // Default: Off (we have a special test for this).
                                                     .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, 1024))
             .build();
     private static final Duration TIMEOUT = Duration.ofSeconds(5);
@@ -188,6 +194,52 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
         Assert.assertEquals("Not encountered any storage reads, even though one was forced.", lastCacheOffset > 0, encounteredStorageRead);
     }
 
+    /**
+     * Tests the ability for the ReadIndex to add small appends to existing Cache Entries instead of creating new ones.
+     */
+    @Test
+    public void testAppendToExistingEntries() throws Exception {
+        final int appendLength = 100;
+        final int appendCount = 1000;
+        final int maxEntryLength = 1024;
+        final int expectedEntryLength = maxEntryLength / appendLength * appendLength;
+        final ReadIndexConfig config = ConfigHelpers
+                .withInfiniteCachePolicy(ReadIndexConfig.builder()
+                                                        .with(ReadIndexConfig.MEMORY_READ_MIN_LENGTH, 0)
+                                                        .with(ReadIndexConfig.CACHE_ENTRY_MAX_APPEND_LENGTH, maxEntryLength))
+                .build();
+
+        @Cleanup
+        TestContext context = new TestContext(config, config.getCachePolicy());
+        final long segmentId = createSegment(0, context);
+        final Random rnd = new Random(0);
+        final byte[] segmentData = new byte[appendLength * appendCount];
+        rnd.nextBytes(segmentData);
+        for (int i = 0; i < appendCount; i++) {
+            byte[] appendData = new byte[appendLength];
+            System.arraycopy(segmentData, i * appendLength, appendData, 0, appendLength);
+            appendSingleWrite(segmentId, appendData, context);
+        }
+
+        // Every Cache Entry (except the last one) should contain as many appends as would fit in it.
+        @Cleanup
+        ReadResult readResult = context.readIndex.read(segmentId, 0, segmentData.length, TIMEOUT);
+        int expectedCurrentOffset = 0;
+        while (readResult.hasNext()) {
+            ReadResultEntry entry = readResult.next();
+            Assert.assertEquals("Unexpected ReadResultEntry type.", ReadResultEntryType.Cache, entry.getType());
+            byte[] entryData = new byte[entry.getContent().join().getLength()];
+            StreamHelpers.readAll(entry.getContent().join().getData(), entryData, 0, entryData.length);
+            AssertExtensions.assertArrayEquals("Unexpected data read at offset " + expectedCurrentOffset, segmentData, expectedCurrentOffset, entryData, 0, entryData.length);
+            expectedCurrentOffset += entryData.length;
+            if (expectedCurrentOffset < segmentData.length) {
+                Assert.assertEquals("Unexpected ReadResultEntry length.", expectedEntryLength, entryData.length);
+            }
+        }
+
+        Assert.assertEquals("Not all data was read.", segmentData.length, expectedCurrentOffset);
+    }
+
     /**
      * Tests the readDirect() method on the ReadIndex.
      */
@@ -669,7 +721,10 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
 
         // To properly test this, we want predictable storage reads.
         ReadIndexConfig config = ConfigHelpers
-                .withInfiniteCachePolicy(ReadIndexConfig.builder().with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, appendSize))
+                .withInfiniteCachePolicy(ReadIndexConfig.builder()
+                                                        .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, appendSize)
+                                                        .with(ReadIndexConfig.STORAGE_READ_AHEAD_LENGTH, 0)
+                                                        .with(ReadIndexConfig.CACHE_ENTRY_MAX_APPEND_LENGTH, 0))
                 .build();
 
         ArrayList<CacheKey> removedKeys = new ArrayList<>();
@@ -805,6 +860,93 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
 
     // region Scenario-based tests
 
+    /**
+     * Tests the behavior of the ReadIndex when the Cache is full:
+     * * Appends evict data that is already in Storage to make room for themselves.
+     * * Appends fail if there is nothing that can be evicted.
+     * * Storage Reads are served, but not cached.
+     */
+    @Test
+    public void testCacheFull() throws Exception {
+        final int appendSize = 100;
+        final int entryCount = 4;
+        ReadIndexConfig config = ConfigHelpers
+                .withInfiniteCachePolicy(ReadIndexConfig.builder()
+                                                        .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, appendSize)
+                                                        .with(ReadIndexConfig.STORAGE_READ_AHEAD_LENGTH, 0)
+                                                        .with(ReadIndexConfig.CACHE_ENTRY_MAX_APPEND_LENGTH, 0))
+                .build();
+
+        ArrayList<CacheKey> removedKeys = new ArrayList<>();
+        @Cleanup
+        TestContext context = new TestContext(config, config.getCachePolicy());
+        context.cacheFactory.cache.removeCallback = removedKeys::add;
+        context.cacheFactory.cache.maxEntryCount = entryCount;
+        long segmentId = createSegments(context).get(0);
+        createSegmentsInStorage(context);
+        UpdateableSegmentMetadata sm = context.metadata.getStreamSegmentMetadata(segmentId);
+        byte[] storageData = new byte[entryCount * appendSize];
+        val handle = context.storage.openWrite(sm.getName()).join();
+        context.storage.write(handle, 0, new ByteArrayInputStream(storageData), storageData.length, TIMEOUT).join();
+        sm.setStorageLength(storageData.length);
+        sm.setDurableLogLength(storageData.length);
+
+        // Fill up the Cache with data read from Storage.
+        for (int i = 0; i < entryCount; i++) {
+            readFromStorage(context, segmentId, i * appendSize, appendSize);
+        }
+
+        Assert.assertEquals("Not expecting any removed Cache entries at this point.", 0, removedKeys.size());
+
+        // The first append evicts the Storage data (which is all in the oldest generation) to make room for itself.
+        Consumer<Integer> appendOneEntry = i -> {
+            byte[] data = new byte[appendSize];
+            Arrays.fill(data, (byte) (int) i);
+            long offset = sm.getDurableLogLength();
+            sm.setDurableLogLength(offset + data.length);
+            context.readIndex.append(segmentId, offset, data);
+        };
+        for (int i = 0; i < entryCount; i++) {
+            appendOneEntry.accept(i);
+            Assert.assertEquals("Unexpected number of evicted entries after append " + i, entryCount, removedKeys.size());
+        }
+
+        // Now the Cache is full of data that is not in Storage, so there is nothing left to evict.
+        AssertExtensions.assertThrows(
+                "append() did not fail when nothing could be evicted.",
+                () -> appendOneEntry.accept(entryCount),
+                ex -> ex instanceof CacheFullException);
+
+        // Storage Reads still work, even though their results cannot be cached.
+        readFromStorage(context, segmentId, 0, appendSize);
+        @Cleanup
+        ReadResult result = context.readIndex.read(segmentId, 0, appendSize, TIMEOUT);
+        Assert.assertEquals("Storage Read was cached even though the Cache is full.", ReadResultEntryType.Storage, result.next().getType());
+
+        // The appends are all readable from the Cache.
+        for (int i = 0; i < entryCount; i++) {
+            @Cleanup
+            ReadResult appendResult = context.readIndex.read(segmentId, storageData.length + i * appendSize, appendSize, TIMEOUT);
+            ReadResultEntry entry = appendResult.next();
+            Assert.assertEquals("Unexpected ReadResultEntryType for append " + i, ReadResultEntryType.Cache, entry.getType());
+            byte[] expected = new byte[appendSize];
+            Arrays.fill(expected, (byte) i);
+            byte[] actual = new byte[appendSize];
+            StreamHelpers.readAll(entry.getContent().join().getData(), actual, 0, actual.length);
+            Assert.assertArrayEquals("Unexpected data for append " + i, expected, actual);
+        }
+    }
+
+    private void readFromStorage(TestContext context, long segmentId, long offset, int length) throws Exception {
+        @Cleanup
+        ReadResult result = context.readIndex.read(segmentId, offset, length, TIMEOUT);
+        ReadResultEntry resultEntry = result.next();
+        Assert.assertEquals("Unexpected type of ReadResultEntry.", ReadResultEntryType.Storage, resultEntry.getType());
+        resultEntry.requestContent(TIMEOUT);
+        ReadResultEntryContents contents = resultEntry.getContent().get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertEquals("Unexpected ReadResultEntry length.", length, contents.getLength());
+    }
+
     /**
      * Tests the following Scenario, where the ReadIndex would either read from a bad offset or fail with an invalid offset
      * when reading in certain conditions:
@@ -1272,12 +1414,24 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
     //region TestCache
 
     private static class TestCache extends InMemoryCache {
+        private final Set<Cache.Key> keys = Collections.newSetFromMap(new ConcurrentHashMap<>());
         Consumer<CacheKey> removeCallback;
+        volatile int maxEntryCount = Integer.MAX_VALUE;
 
         TestCache(String id) {
             super(id);
         }
 
+        @Override
+        public void insert(Cache.Key key, byte[] payload) {
+            if (!this.keys.contains(key) && this.keys.size() >= this.maxEntryCount) {
+                throw new CacheFullException("Cache is full.");
+            }
+
+            super.insert(key, payload);
+            this.keys.add(key);
+        }
+
         @Override
         public void remove(Cache.Key key) {
             Consumer<CacheKey> callback = this.removeCallback;
@@ -1286,6 +1440,7 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
             }
 
             super.remove(key);
+            this.keys.remove(key);
         }
     }
 
@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.server.reading;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the ReadIndexEntry class.
+ */
+public class ReadIndexEntryTests {
+    /**
+     * Tests that entries in probation are only promoted after being accessed in enough distinct generations.
+     */
+    @Test
+    public void testProbation() {
+        ReadIndexEntry entry = new CacheIndexEntry(0, 100);
+        Assert.assertFalse("Not expecting a new entry to be in probation.", entry.isInProbation());
+        Assert.assertFalse("Not expecting an entry that is not in probation to be promoted.", entry.recordProbationAccess(0));
+
+        entry.setProbation(CacheEvictionPolicy.SLRU.getProbationAccessCount());
+        Assert.assertTrue("Expected the entry to be in probation.", entry.isInProbation());
+        for (int i = 0; i < 10; i++) {
+            Assert.assertFalse("Not expecting repeated accesses within a generation to promote the entry.", entry.recordProbationAccess(1));
+        }
+
+        Assert.assertTrue("Expected the entry to still be in probation.", entry.isInProbation());
+        Assert.assertTrue("Expected an access in a new generation to promote the entry.", entry.recordProbationAccess(2));
+        Assert.assertFalse("Expected the entry to be out of probation.", entry.isInProbation());
+        Assert.assertFalse("Not expecting an entry to be promoted twice.", entry.recordProbationAccess(3));
+    }
+}
@@ -175,4 +175,49 @@ public class ReadIndexSummaryTests {
         Assert.assertEquals("Unexpected newest generation after removing all items.", 0, currentStatus.getNewestGeneration());
         Assert.assertEquals("Unexpected oldest generation after removing all items.", 0, currentStatus.getOldestGeneration());
     }
+
+    /**
+     * Tests the functionality of probationary elements - adding them to the current generation, promoting them to a newer
+     * current generation and removing them.
+     */
+    @Test
+    public void testProbationary() {
+        final int addGeneration = 5;
+        final int currentGeneration = 10;
+        final int itemSize = 100;
+        ReadIndexSummary s = new ReadIndexSummary();
+        s.setCurrentGeneration(addGeneration);
+
+        // Add a few probationary items, then a regular one in a newer generation.
+        for (int i = 0; i < ITEMS_PER_GENERATION; i++) {
+            int returnedGeneration = s.addProbationary(itemSize);
+            Assert.assertEquals("Unexpected return value from addProbationary().", addGeneration, returnedGeneration);
+        }
+
+        s.setCurrentGeneration(currentGeneration);
+        s.add(itemSize);
+
+        CacheManager.CacheStatus currentStatus = s.toCacheStatus();
+        Assert.assertEquals("Unexpected total size.", itemSize * (ITEMS_PER_GENERATION + 1), currentStatus.getSize());
+        Assert.assertEquals("Unexpected probation size.", itemSize * ITEMS_PER_GENERATION, currentStatus.getProbationSize());
+        Assert.assertEquals("Unexpected entry count.", ITEMS_PER_GENERATION + 1, currentStatus.getEntryCount());
+        Assert.assertEquals("Unexpected oldest generation.", addGeneration, currentStatus.getOldestGeneration());
+        Assert.assertEquals("Unexpected newest generation.", currentGeneration, currentStatus.getNewestGeneration());
+
+        // Promote half of them and remove the other half.
+        for (int i = 0; i < ITEMS_PER_GENERATION; i++) {
+            if (i % 2 == 0) {
+                int returnedGeneration = s.promoteOne(itemSize, addGeneration);
+                Assert.assertEquals("Unexpected return value from promoteOne().", currentGeneration, returnedGeneration);
+            } else {
+                s.removeProbationary(itemSize, addGeneration);
+            }
+        }
+
+        currentStatus = s.toCacheStatus();
+        Assert.assertEquals("Unexpected total size after promoting and removing.", itemSize * (ITEMS_PER_GENERATION / 2 + 1), currentStatus.getSize());
+        Assert.assertEquals("Unexpected probation size after promoting and removing.", 0, currentStatus.getProbationSize());
+        Assert.assertEquals("Unexpected entry count after promoting and removing.", ITEMS_PER_GENERATION / 2 + 1, currentStatus.getEntryCount());
+        Assert.assertEquals("Unexpected oldest generation after promoting and removing.", currentGeneration, currentStatus.getOldestGeneration());
+    }
 }
@@ -30,11 +30,13 @@ import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Random;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 /**
@@ -176,6 +178,96 @@ public class StorageReaderTests extends ThreadPooledTestSuite {
                 ex -> ex instanceof IntentionalException);
     }
 
+    /**
+     * Tests the ability to coalesce multiple queued Requests that are close to each other into a single Storage read,
+     * while still executing separate Storage reads for Requests that are far apart.
+     */
+    @Test
+    public void testCoalescedRequests() {
+        final int readCount = 10;
+        final int readLength = 10;
+        final int readGap = 5;
+        final long farOffset = 1024 * 1024 * 1024;
+        TestStorage storage = new TestStorage();
+        AtomicInteger readInvocations = new AtomicInteger();
+        storage.readImplementation = () -> {
+            readInvocations.incrementAndGet();
+            return CompletableFuture.completedFuture(readCount * (readLength + readGap));
+        };
+
+        // Use an executor that we control, so that all requests are queued up before any of them are processed.
+        ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        @Cleanup
+        StorageReader reader = new StorageReader(SEGMENT_METADATA, storage, tasks::add);
+
+        // Create some reads, out of order.
+        HashMap<StorageReader.Request, CompletableFuture<StorageReader.Result>> requestCompletions = new HashMap<>();
+        for (int i = readCount - 1; i >= 0; i--) {
+            CompletableFuture<StorageReader.Result> requestCompletion = new CompletableFuture<>();
+            StorageReader.Request r = new StorageReader.Request(i * (readLength + readGap), readLength, requestCompletion::complete, requestCompletion::completeExceptionally, TIMEOUT);
+            reader.execute(r);
+            requestCompletions.put(r, requestCompletion);
+        }
+
+        CompletableFuture<StorageReader.Result> farCompletion = new CompletableFuture<>();
+        reader.execute(new StorageReader.Request(farOffset, readLength, farCompletion::complete, farCompletion::completeExceptionally, TIMEOUT));
+
+        Assert.assertEquals("Requests were executed before the executor processed them.", 0, readInvocations.get());
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+
+        Assert.assertEquals("Unexpected number of Storage reads.", 2, readInvocations.get());
+        for (val entry : requestCompletions.entrySet()) {
+            Assert.assertTrue("Request is not completed for request " + entry.getKey(), entry.getValue().isDone());
+            StorageReader.Result result = entry.getValue().join();
+            Assert.assertEquals("Unexpected result length for request " + entry.getKey(), readLength, result.getData().getLength());
+            Assert.assertFalse("Unexpected derived result for request " + entry.getKey(), result.isDerived());
+        }
+
+        Assert.assertTrue("Far request was not completed.", farCompletion.isDone());
+        Assert.assertEquals("Unexpected result length for far request.", readLength, farCompletion.join().getData().getLength());
+    }
+
+    /**
+     * Tests that Requests that a coalesced Storage read did not get to (because it returned fewer bytes than requested)
+     * are reissued on their own, instead of being completed with no data.
+     */
+    @Test
+    public void testCoalescedShortRead() {
+        final int readCount = 5;
+        final int readLength = 10;
+        final int readGap = 5;
+        TestStorage storage = new TestStorage();
+        AtomicInteger readInvocations = new AtomicInteger();
+        storage.readImplementation = () -> {
+            // Every read (including the coalesced one) only returns enough data for a single request.
+            readInvocations.incrementAndGet();
+            return CompletableFuture.completedFuture(readLength);
+        };
+
+        ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        @Cleanup
+        StorageReader reader = new StorageReader(SEGMENT_METADATA, storage, tasks::add);
+        HashMap<StorageReader.Request, CompletableFuture<StorageReader.Result>> requestCompletions = new HashMap<>();
+        for (int i = 0; i < readCount; i++) {
+            CompletableFuture<StorageReader.Result> requestCompletion = new CompletableFuture<>();
+            StorageReader.Request r = new StorageReader.Request(i * (readLength + readGap), readLength, requestCompletion::complete, requestCompletion::completeExceptionally, TIMEOUT);
+            reader.execute(r);
+            requestCompletions.put(r, requestCompletion);
+        }
+
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+
+        Assert.assertEquals("Unexpected number of Storage reads.", readCount, readInvocations.get());
+        for (val entry : requestCompletions.entrySet()) {
+            Assert.assertTrue("Request is not completed for request " + entry.getKey(), entry.getValue().isDone());
+            Assert.assertEquals("Unexpected result length for request " + entry.getKey(), readLength, entry.getValue().join().getData().getLength());
+        }
+    }
+
     /**
      * Tests the ability to auto-cancel the requests when the StorageReader is closed.
      */
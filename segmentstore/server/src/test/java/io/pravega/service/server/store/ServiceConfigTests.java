@@ -9,6 +9,8 @@
  */
 package io.pravega.service.server.store;
 
+import io.pravega.common.util.InvalidPropertyValueException;
+import io.pravega.test.common.AssertExtensions;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -50,4 +52,22 @@ public class ServiceConfigTests {
                         && cfg3.getListeningPort() != cfg3.getPublishedPort());
     }
 
+    @Test
+    public void testMaxOutstandingAppends() {
+        ServiceConfig defaultConfig = ServiceConfig.builder().with(ServiceConfig.CONTAINER_COUNT, 1).build();
+        Assert.assertEquals("Unexpected default value.", (int) ServiceConfig.MAX_OUTSTANDING_APPENDS.getDefaultValue(),
+                defaultConfig.getMaxOutstandingAppends());
+        ServiceConfig config = ServiceConfig.builder()
+                .with(ServiceConfig.CONTAINER_COUNT, 1)
+                .with(ServiceConfig.MAX_OUTSTANDING_APPENDS, 4)
+                .build();
+        Assert.assertEquals("Unexpected configured value.", 4, config.getMaxOutstandingAppends());
+        AssertExtensions.assertThrows(
+                "A non-positive value was accepted.",
+                () -> ServiceConfig.builder()
+                                   .with(ServiceConfig.CONTAINER_COUNT, 1)
+                                   .with(ServiceConfig.MAX_OUTSTANDING_APPENDS, 0)
+                                   .build(),
+                ex -> ex instanceof InvalidPropertyValueException);
+    }
 }
@@ -22,6 +22,7 @@ import io.pravega.test.common.AssertExtensions;
 import io.pravega.test.common.IntentionalException;
 import io.pravega.test.common.ThreadPooledTestSuite;
 import com.google.common.util.concurrent.AbstractService;
+import com.google.common.util.concurrent.Service;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -29,6 +30,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import lombok.Cleanup;
@@ -76,6 +78,56 @@ public class StreamSegmentContainerRegistryTests extends ThreadPooledTestSuite {
                 ex -> ex instanceof ContainerNotFoundException);
     }
 
+    /**
+     * Tests that no more than the configured number of containers are started in parallel, and that the remaining ones
+     * are started once the ongoing ones complete.
+     */
+    @Test
+    public void testParallelStartLimit() throws Exception {
+        final int containerCount = 10;
+        final int maxParallelStarts = 2;
+        CompletableFuture<Void> startSignal = new CompletableFuture<>();
+        List<CompletableFuture<Void>> startRequests = new ArrayList<>();
+        for (int containerId = 0; containerId < containerCount; containerId++) {
+            startRequests.add(new CompletableFuture<>());
+        }
+
+        TestContainerFactory factory = new TestContainerFactory(null, startSignal, startRequests);
+        @Cleanup
+        StreamSegmentContainerRegistry registry = new StreamSegmentContainerRegistry(factory, maxParallelStarts, executorService());
+
+        List<CompletableFuture<ContainerHandle>> handleFutures = new ArrayList<>();
+        for (int containerId = 0; containerId < containerCount; containerId++) {
+            handleFutures.add(registry.startContainer(containerId, TIMEOUT));
+        }
+
+        // Wait for the first containers to begin starting, then verify no other container has been started. Containers
+        // are started in the order in which they were requested.
+        FutureHelpers.allOf(startRequests.subList(0, maxParallelStarts)).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertEquals("Unexpected number of containers starting.", maxParallelStarts,
+                getContainerCount(registry, containerCount, Service.State.STARTING));
+        Assert.assertEquals("Unexpected number of containers pending start.", containerCount - maxParallelStarts,
+                getContainerCount(registry, containerCount, Service.State.NEW));
+        Assert.assertFalse("Not expecting any start to complete.", handleFutures.stream().anyMatch(CompletableFuture::isDone));
+
+        // Release the starts and verify all containers get started.
+        startSignal.complete(null);
+        FutureHelpers.allOfWithResults(handleFutures).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertEquals("Unexpected number of running containers.", containerCount,
+                getContainerCount(registry, containerCount, Service.State.RUNNING));
+    }
+
+    private long getContainerCount(StreamSegmentContainerRegistry registry, int containerCount, Service.State state) throws Exception {
+        long count = 0;
+        for (int containerId = 0; containerId < containerCount; containerId++) {
+            if (registry.getContainer(containerId).state() == state) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
     /**
      * Tests the ability to stop the container via the stopContainer() method.
      */
@@ -156,18 +208,35 @@ public class StreamSegmentContainerRegistryTests extends ThreadPooledTestSuite {
 
     private static class TestContainerFactory implements SegmentContainerFactory {
         private final Exception startException;
+        private final CompletableFuture<Void> startSignal;
+        private final List<CompletableFuture<Void>> startRequests;
 
         TestContainerFactory() {
             this(null);
         }
 
         TestContainerFactory(Exception startException) {
+            this(startException, null, null);
+        }
+
+        /**
+         * Creates a new instance of the TestContainerFactory class.
+         *
+         * @param startException An Exception to fail the start of every container with, if any.
+         * @param startSignal    A Future that must complete before any container completes its start, if any.
+         * @param startRequests  A List of Futures (indexed by container id) to complete when each container begins
+         *                       starting, if any.
+         */
+        TestContainerFactory(Exception startException, CompletableFuture<Void> startSignal, List<CompletableFuture<Void>> startRequests) {
             this.startException = startException;
+            this.startSignal = startSignal;
+            this.startRequests = startRequests;
         }
 
         @Override
         public SegmentContainer createStreamSegmentContainer(int containerId) {
-            return new TestContainer(containerId, this.startException);
+            CompletableFuture<Void> startRequest = this.startRequests == null ? null : this.startRequests.get(containerId);
+            return new TestContainer(containerId, this.startException, this.startSignal, startRequest);
         }
     }
 
@@ -178,12 +247,16 @@ public class StreamSegmentContainerRegistryTests extends ThreadPooledTestSuite {
     private static class TestContainer extends AbstractService implements SegmentContainer {
         private final int id;
         private final Exception startException;
+        private final CompletableFuture<Void> startSignal;
+        private final CompletableFuture<Void> startRequest;
         private Exception stopException;
         private boolean closed;
 
-        TestContainer(int id, Exception startException) {
+        TestContainer(int id, Exception startException, CompletableFuture<Void> startSignal, CompletableFuture<Void> startRequest) {
             this.id = id;
             this.startException = startException;
+            this.startSignal = startSignal;
+            this.startRequest = startRequest;
         }
 
         public void fail(Exception ex) {
@@ -211,8 +284,14 @@ public class StreamSegmentContainerRegistryTests extends ThreadPooledTestSuite {
 
         @Override
         protected void doStart() {
+            if (this.startRequest != null) {
+                this.startRequest.complete(null);
+            }
+
             if (this.startException != null) {
                 notifyFailed(this.startException);
+            } else if (this.startSignal != null) {
+                this.startSignal.thenRun(this::notifyStarted);
             } else {
                 notifyStarted();
             }
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.server.writer;
+
+import io.pravega.common.Timer;
+import io.pravega.common.concurrent.FutureHelpers;
+import io.pravega.service.server.ManualTimer;
+import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.InlineExecutor;
+import io.pravega.test.common.IntentionalException;
+import io.pravega.test.common.ThreadPooledTestSuite;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Cleanup;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the FlushScheduler class.
+ */
+public class FlushSchedulerTests extends ThreadPooledTestSuite {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(TIMEOUT.getSeconds());
+
+    @Override
+    protected int getThreadPoolSize() {
+        return 5;
+    }
+
+    /**
+     * Tests that processors are flushed in order of priority: lowest LUSN first, then largest outstanding length.
+     */
+    @Test
+    public void testPriority() throws Exception {
+        val scheduler = new FlushScheduler(createConfig(1, 0), new Timer(), executorService(), "Test");
+        val processors = new ArrayList<TestProcessor>();
+        processors.add(new TestProcessor(1, 30, 100));
+        processors.add(new TestProcessor(2, -1, 10000));
+        processors.add(new TestProcessor(3, 10, 100));
+        processors.add(new TestProcessor(4, 20, 100));
+        processors.add(new TestProcessor(5, 10, 1000));
+        processors.add(new TestProcessor(6, 20, 50));
+
+        val flushOrder = Collections.synchronizedList(new ArrayList<Integer>());
+        val results = scheduler.flush(processors, p -> p.outstandingLength, p -> {
+            flushOrder.add(p.id);
+            return CompletableFuture.completedFuture(new FlushResult().withFlushedBytes(p.outstandingLength));
+        }).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals("Unexpected number of results.", processors.size(), results.size());
+        AssertExtensions.assertListEquals("Unexpected flush order.", Arrays.asList(5, 3, 4, 6, 1, 2), flushOrder, Integer::equals);
+    }
+
+    /**
+     * Tests that no more than MaxConcurrentFlushes flushes are executing at any given time.
+     */
+    @Test
+    public void testMaxConcurrentFlushes() throws Exception {
+        final int maxConcurrentFlushes = 3;
+        final int processorCount = 20;
+        val scheduler = new FlushScheduler(createConfig(maxConcurrentFlushes, 0), new Timer(), executorService(), "Test");
+        val processors = new ArrayList<TestProcessor>();
+        for (int i = 0; i < processorCount; i++) {
+            processors.add(new TestProcessor(i, i, 100));
+        }
+
+        val current = new AtomicInteger();
+        val max = new AtomicInteger();
+        val flushCount = new AtomicInteger();
+        val results = scheduler.flush(processors, p -> p.outstandingLength, p -> {
+            max.accumulateAndGet(current.incrementAndGet(), Math::max);
+            flushCount.incrementAndGet();
+            return FutureHelpers.delayedFuture(Duration.ofMillis(10), executorService())
+                                .thenApply(v -> {
+                                    current.decrementAndGet();
+                                    return new FlushResult().withFlushedBytes(p.outstandingLength);
+                                });
+        }).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals("Unexpected number of results.", processorCount, results.size());
+        Assert.assertEquals("Unexpected number of flushes.", processorCount, flushCount.get());
+        AssertExtensions.assertLessThanOrEqual("Too many concurrent flushes.", maxConcurrentFlushes, max.get());
+    }
+
+    /**
+     * Tests that flushes are delayed if they would exceed MaxFlushBytesPerSecond.
+     */
+    @Test
+    public void testBandwidthLimit() throws Exception {
+        final int bytesPerSecond = 10000;
+        final int processorCount = 5;
+        final int flushLength = bytesPerSecond / 10;
+        final long expectedDelayMillis = flushLength * 1000 / bytesPerSecond;
+
+        // Time only advances when the scheduler waits, and by exactly as much as it asked to wait for. A single flush at a
+        // time makes the sequence of waits deterministic.
+        val timer = new ManualTimer();
+        val delays = Collections.synchronizedList(new ArrayList<Long>());
+        @Cleanup("shutdown")
+        val executor = new InlineExecutor() {
+            @Override
+            public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+                delays.add(unit.toMillis(delay));
+                timer.setElapsedMillis(timer.getElapsedMillis() + unit.toMillis(delay));
+                return super.schedule(callable, 0, unit);
+            }
+        };
+        val scheduler = new FlushScheduler(createConfig(1, bytesPerSecond), timer, executor, "Test");
+
+        // Use up the initial budget.
+        scheduler.flush(Collections.singletonList(new TestProcessor(0, 0, bytesPerSecond)), p -> p.outstandingLength,
+                p -> CompletableFuture.completedFuture(new FlushResult().withFlushedBytes(bytesPerSecond)))
+                 .get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        val processors = new ArrayList<TestProcessor>();
+        for (int i = 0; i < processorCount; i++) {
+            processors.add(new TestProcessor(i, i, flushLength));
+        }
+
+        // Each of these flushes (except the first one, which is allowed to go into debt) must wait for its predecessor to
+        // be paid off.
+        val results = scheduler.flush(processors, p -> p.outstandingLength,
+                p -> CompletableFuture.completedFuture(new FlushResult().withFlushedBytes(flushLength)))
+                 .get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertEquals("Unexpected number of results.", processorCount, results.size());
+        Assert.assertEquals("Unexpected number of delayed flushes.", processorCount - 1, delays.size());
+        delays.forEach(d -> Assert.assertEquals("Unexpected delay.", expectedDelayMillis, (long) d));
+        Assert.assertEquals("Flushes were not throttled.", (processorCount - 1) * expectedDelayMillis, timer.getElapsedMillis());
+    }
+
+    /**
+     * Tests that no new flushes are started after a flush fails, and that the failure is propagated.
+     */
+    @Test
+    public void testFailure() {
+        val scheduler = new FlushScheduler(createConfig(1, 0), new Timer(), executorService(), "Test");
+        val processors = new ArrayList<TestProcessor>();
+        for (int i = 0; i < 10; i++) {
+            processors.add(new TestProcessor(i, i, 100));
+        }
+
+        val flushCount = new AtomicInteger();
+        AssertExtensions.assertThrows(
+                "Flush failure was not propagated.",
+                () -> scheduler.flush(processors, p -> p.outstandingLength, p -> {
+                    flushCount.incrementAndGet();
+                    return FutureHelpers.failedFuture(new IntentionalException());
+                }),
+                ex -> ex instanceof IntentionalException);
+        Assert.assertEquals("Unexpected number of flushes started after a failure.", 1, flushCount.get());
+    }
+
+    private WriterConfig createConfig(int maxConcurrentFlushes, long maxFlushBytesPerSecond) {
+        return WriterConfig.builder()
+                           .with(WriterConfig.MAX_CONCURRENT_FLUSHES, maxConcurrentFlushes)
+                           .with(WriterConfig.MAX_FLUSH_BYTES_PER_SECOND, maxFlushBytesPerSecond)
+                           .build();
+    }
+
+    @RequiredArgsConstructor
+    private static class TestProcessor implements OperationProcessor {
+        final int id;
+        final long lowestUncommittedSequenceNumber;
+        final long outstandingLength;
+
+        @Override
+        public long getLowestUncommittedSequenceNumber() {
+            return this.lowestUncommittedSequenceNumber;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return false;
+        }
+    }
+}
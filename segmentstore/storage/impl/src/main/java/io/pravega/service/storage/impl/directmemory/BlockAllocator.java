@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.directmemory;
+
+import io.pravega.common.Exceptions;
+import io.pravega.service.storage.CacheFullException;
+import com.google.common.base.Preconditions;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+
+/**
+ * Manages a set of direct memory Slabs, each of which is split into fixed-size Blocks. Blocks are identified by their
+ * addresses (an int that encodes the Slab index and the Block index within that Slab). Slabs are allocated lazily, as
+ * needed, up to a predefined maximum. Once allocated, a Slab is only released when this instance is closed.
+ * <p>
+ * This class does not keep track of which Blocks belong together or what they contain; that is up to the caller.
+ * Reading from or writing to a Block that is not currently allocated will not fail, but will produce undefined results.
+ */
+@ThreadSafe
+class BlockAllocator implements AutoCloseable {
+    //region Members
+
+    @Getter
+    private final int blockSize;
+    private final int blocksPerSlab;
+    private final int slabSize;
+    private final AtomicReferenceArray<ByteBuffer> slabs;
+    private final Object lock = new Object();
+    @GuardedBy("lock")
+    private int[] freeBlocks;
+    @GuardedBy("lock")
+    private int freeBlockCount;
+    @GuardedBy("lock")
+    private int slabCount;
+    @GuardedBy("lock")
+    private int usedBlockCount;
+    @GuardedBy("lock")
+    private boolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the BlockAllocator class.
+     *
+     * @param config The configuration to use.
+     */
+    BlockAllocator(DirectMemoryCacheConfig config) {
+        Preconditions.checkNotNull(config, "config");
+        this.blockSize = config.getBlockSize();
+        this.slabSize = config.getSlabSize();
+        this.blocksPerSlab = this.slabSize / this.blockSize;
+        long maxSlabCount = config.getMaxSize() / this.slabSize;
+        Preconditions.checkArgument(maxSlabCount * this.blocksPerSlab <= Integer.MAX_VALUE,
+                "Too many blocks. Increase the Block Size or reduce the Max Size.");
+        this.slabs = new AtomicReferenceArray<>((int) maxSlabCount);
+        this.freeBlocks = new int[this.blocksPerSlab];
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        synchronized (this.lock) {
+            if (!this.closed) {
+                // Direct ByteBuffers are released when garbage-collected; all we need to do is drop our references.
+                for (int i = 0; i < this.slabs.length(); i++) {
+                    this.slabs.set(i, null);
+                }
+
+                this.freeBlockCount = 0;
+                this.usedBlockCount = 0;
+                this.closed = true;
+            }
+        }
+    }
+
+    //endregion
+
+    //region Allocation
+
+    /**
+     * Allocates the given number of Blocks.
+     *
+     * @param count The number of Blocks to allocate.
+     * @return An array containing the addresses of the allocated Blocks.
+     * @throws CacheFullException If there is not enough capacity to allocate the requested number of Blocks. If this
+     *                            happens, no Block will be allocated.
+     */
+    int[] allocate(int count) {
+        Preconditions.checkArgument(count >= 0, "count must be a non-negative number.");
+        int[] result = new int[count];
+        synchronized (this.lock) {
+            Exceptions.checkNotClosed(this.closed, this);
+            while (this.freeBlockCount < count) {
+                if (!allocateSlab()) {
+                    throw new CacheFullException(String.format(
+                            "Unable to allocate %d blocks; capacity exceeded (Slabs = %d, UsedBlocks = %d).",
+                            count, this.slabCount, this.usedBlockCount));
+                }
+            }
+
+            this.freeBlockCount -= count;
+            System.arraycopy(this.freeBlocks, this.freeBlockCount, result, 0, count);
+            this.usedBlockCount += count;
+        }
+
+        return result;
+    }
+
+    /**
+     * Releases the given Blocks and makes them available for reuse.
+     *
+     * @param blockAddresses An array containing the addresses of the Blocks to release.
+     */
+    void free(int[] blockAddresses) {
+        synchronized (this.lock) {
+            if (this.closed) {
+                // Nothing to do; all Slabs have already been released.
+                return;
+            }
+
+            System.arraycopy(blockAddresses, 0, this.freeBlocks, this.freeBlockCount, blockAddresses.length);
+            this.freeBlockCount += blockAddresses.length;
+            this.usedBlockCount -= blockAddresses.length;
+        }
+    }
+
+    /**
+     * Gets the number of Blocks required to store the given number of bytes.
+     */
+    int getBlockCount(int length) {
+        return length / this.blockSize + (length % this.blockSize == 0 ? 0 : 1);
+    }
+
+    /**
+     * Gets a value indicating the number of bytes used by all currently allocated Blocks.
+     */
+    long getUsedBytes() {
+        synchronized (this.lock) {
+            return (long) this.usedBlockCount * this.blockSize;
+        }
+    }
+
+    /**
+     * Gets a value indicating the number of bytes used by all currently allocated Slabs.
+     */
+    long getAllocatedBytes() {
+        synchronized (this.lock) {
+            return (long) this.slabCount * this.slabSize;
+        }
+    }
+
+    @GuardedBy("lock")
+    private boolean allocateSlab() {
+        if (this.slabCount >= this.slabs.length()) {
+            return false;
+        }
+
+        int slabIndex = this.slabCount;
+        this.slabs.set(slabIndex, ByteBuffer.allocateDirect(this.slabSize));
+        this.slabCount++;
+
+        // Make room in the free list for all the Blocks in the new Slab, then add them in reverse order so that they are
+        // handed out starting from the beginning of the Slab.
+        if (this.freeBlocks.length < this.slabCount * this.blocksPerSlab) {
+            this.freeBlocks = Arrays.copyOf(this.freeBlocks, this.slabCount * this.blocksPerSlab);
+        }
+
+        int firstAddress = slabIndex * this.blocksPerSlab;
+        for (int i = this.blocksPerSlab - 1; i >= 0; i--) {
+            this.freeBlocks[this.freeBlockCount++] = firstAddress + i;
+        }
+
+        return true;
+    }
+
+    //endregion
+
+    //region Data Access
+
+    /**
+     * Writes the given data into the given Blocks.
+     *
+     * @param blockAddresses The addresses of the Blocks to write to, in order.
+     * @param targetOffset   The offset (relative to the beginning of the first Block) to start writing at.
+     * @param source         The array to copy data from.
+     * @param sourceOffset   The offset within the source array to start copying from.
+     * @param length         The number of bytes to copy.
+     */
+    void write(int[] blockAddresses, int targetOffset, byte[] source, int sourceOffset, int length) {
+        int blockIndex = targetOffset / this.blockSize;
+        int blockOffset = targetOffset % this.blockSize;
+        while (length > 0) {
+            int blockLength = Math.min(length, this.blockSize - blockOffset);
+            ByteBuffer block = getBlock(blockAddresses[blockIndex]);
+            block.position(block.position() + blockOffset);
+            block.put(source, sourceOffset, blockLength);
+            sourceOffset += blockLength;
+            length -= blockLength;
+            blockIndex++;
+            blockOffset = 0;
+        }
+    }
+
+    /**
+     * Reads data from the given Blocks.
+     *
+     * @param blockAddresses The addresses of the Blocks to read from, in order.
+     * @param target         The array to copy data to.
+     * @param targetOffset   The offset within the target array to start copying at.
+     * @param length         The number of bytes to copy.
+     */
+    void read(int[] blockAddresses, byte[] target, int targetOffset, int length) {
+        for (int address : blockAddresses) {
+            int blockLength = Math.min(length, this.blockSize);
+            ByteBuffer block = getBlock(address);
+            block.get(target, targetOffset, blockLength);
+            targetOffset += blockLength;
+            length -= blockLength;
+        }
+
+        assert length == 0 : "not all data was read";
+    }
+
+    private ByteBuffer getBlock(int address) {
+        ByteBuffer slab = this.slabs.get(address / this.blocksPerSlab);
+        Exceptions.checkNotClosed(slab == null, this);
+
+        // ByteBuffer positions are not thread safe, so each access needs its own view of the Slab.
+        ByteBuffer block = slab.duplicate();
+        int offset = (address % this.blocksPerSlab) * this.blockSize;
+        block.position(offset);
+        block.limit(offset + this.blockSize);
+        return block;
+    }
+
+    //endregion
+}
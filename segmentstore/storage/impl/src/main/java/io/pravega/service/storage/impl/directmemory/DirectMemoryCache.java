@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.directmemory;
+
+import io.pravega.common.Exceptions;
+import io.pravega.common.function.CallbackHelpers;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.service.storage.Cache;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache that stores its entries off-heap, in fixed-size Blocks handed out by a BlockAllocator. Keys are never
+ * serialized: each Key maps directly to the addresses of the Blocks that make up its entry.
+ */
+@Slf4j
+@ThreadSafe
+class DirectMemoryCache implements Cache {
+    //region Members
+
+    @Getter
+    private final String id;
+    private final BlockAllocator allocator;
+    private final Consumer<String> closeCallback;
+    private final String logId;
+    private final ReadWriteLock lock;
+    @GuardedBy("lock")
+    private final HashMap<Key, Entry> entries;
+    @GuardedBy("lock")
+    private boolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the DirectMemoryCache class.
+     *
+     * @param id            The Cache Id.
+     * @param allocator     The BlockAllocator to use for storing data.
+     * @param closeCallback A callback to invoke when the cache is closed.
+     */
+    DirectMemoryCache(String id, BlockAllocator allocator, Consumer<String> closeCallback) {
+        Exceptions.checkNotNullOrEmpty(id, "id");
+        Preconditions.checkNotNull(allocator, "allocator");
+
+        this.id = id;
+        this.allocator = allocator;
+        this.closeCallback = closeCallback;
+        this.logId = String.format("DirectMemoryCache[%s]", id);
+        this.lock = new ReentrantReadWriteLock();
+        this.entries = new HashMap<>();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        ArrayList<Entry> toFree;
+        this.lock.writeLock().lock();
+        try {
+            if (this.closed) {
+                return;
+            }
+
+            toFree = new ArrayList<>(this.entries.values());
+            this.entries.clear();
+            this.closed = true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+
+        toFree.forEach(e -> this.allocator.free(e.blockAddresses));
+        log.info("{}: Closed.", this.logId);
+
+        Consumer<String> callback = this.closeCallback;
+        if (callback != null) {
+            CallbackHelpers.invokeSafely(callback, this.id, null);
+        }
+    }
+
+    //endregion
+
+    //region Cache Implementation
+
+    @Override
+    public void insert(Key key, byte[] data) {
+        insert(key, new ByteArraySegment(data));
+    }
+
+    @Override
+    public void insert(Key key, ByteArraySegment data) {
+        Preconditions.checkNotNull(key, "key");
+
+        // Allocate and populate the Blocks outside of the lock; nobody else can access them until we publish the entry.
+        int[] blockAddresses = this.allocator.allocate(this.allocator.getBlockCount(data.getLength()));
+        Entry existing;
+        try {
+            this.allocator.write(blockAddresses, 0, data.array(), data.arrayOffset(), data.getLength());
+            this.lock.writeLock().lock();
+            try {
+                Exceptions.checkNotClosed(this.closed, this);
+                existing = this.entries.put(key, new Entry(data.getLength(), blockAddresses));
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        } catch (Throwable ex) {
+            this.allocator.free(blockAddresses);
+            throw ex;
+        }
+
+        if (existing != null) {
+            this.allocator.free(existing.blockAddresses);
+        }
+    }
+
+    @Override
+    public boolean append(Key key, int expectedLength, ByteArraySegment data) {
+        Preconditions.checkNotNull(key, "key");
+        int[] newBlockAddresses = null;
+        this.lock.writeLock().lock();
+        try {
+            Exceptions.checkNotClosed(this.closed, this);
+            Entry entry = this.entries.get(key);
+            if (entry == null || entry.length != expectedLength) {
+                return false;
+            }
+
+            // Fill up the unused portion of the last Block first, then allocate new Blocks only for what's left over.
+            int newLength = entry.length + data.getLength();
+            int[] blockAddresses = entry.blockAddresses;
+            int newBlockCount = this.allocator.getBlockCount(newLength) - blockAddresses.length;
+            if (newBlockCount > 0) {
+                newBlockAddresses = this.allocator.allocate(newBlockCount);
+                blockAddresses = Arrays.copyOf(blockAddresses, blockAddresses.length + newBlockCount);
+                System.arraycopy(newBlockAddresses, 0, blockAddresses, entry.blockAddresses.length, newBlockCount);
+            }
+
+            this.allocator.write(blockAddresses, entry.length, data.array(), data.arrayOffset(), data.getLength());
+            this.entries.put(key, new Entry(newLength, blockAddresses));
+            return true;
+        } catch (Throwable ex) {
+            if (newBlockAddresses != null) {
+                this.allocator.free(newBlockAddresses);
+            }
+
+            throw ex;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isAppendEfficient() {
+        return true;
+    }
+
+    @Override
+    public byte[] get(Key key) {
+        this.lock.readLock().lock();
+        try {
+            Exceptions.checkNotClosed(this.closed, this);
+            Entry entry = this.entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+
+            byte[] result = new byte[entry.length];
+            this.allocator.read(entry.blockAddresses, result, 0, entry.length);
+            return result;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Key key) {
+        Entry existing;
+        this.lock.writeLock().lock();
+        try {
+            Exceptions.checkNotClosed(this.closed, this);
+            existing = this.entries.remove(key);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+
+        if (existing != null) {
+            this.allocator.free(existing.blockAddresses);
+        }
+    }
+
+    //endregion
+
+    //region Entry
+
+    /**
+     * A Cache Entry, made up of an ordered list of Blocks.
+     */
+    @RequiredArgsConstructor
+    private static class Entry {
+        final int length;
+        final int[] blockAddresses;
+    }
+
+    //endregion
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.directmemory;
+
+import io.pravega.common.util.ConfigBuilder;
+import io.pravega.common.util.ConfigurationException;
+import io.pravega.common.util.InvalidPropertyValueException;
+import io.pravega.common.util.Property;
+import io.pravega.common.util.TypedProperties;
+import lombok.Getter;
+
+/**
+ * Configuration for the Direct Memory (off-heap) Cache.
+ */
+public class DirectMemoryCacheConfig {
+    //region Config Names
+
+    public static final Property<Integer> BLOCK_SIZE = Property.named("blockSize", 4 * 1024);
+    public static final Property<Integer> SLAB_SIZE = Property.named("slabSize", 32 * 1024 * 1024);
+    public static final Property<Long> MAX_SIZE = Property.named("maxSize", 16L * 1024 * 1024 * 1024);
+    private static final String COMPONENT_CODE = "directmemorycache";
+
+    //endregion
+
+    //region Members
+
+    /**
+     * The size of a Cache Block, in bytes. This is the smallest unit of allocation.
+     */
+    @Getter
+    private final int blockSize;
+
+    /**
+     * The size of a Slab (a contiguous chunk of direct memory that is split into Blocks), in bytes.
+     */
+    @Getter
+    private final int slabSize;
+
+    /**
+     * The maximum number of bytes that can be allocated by the Cache (this will be rounded down to a multiple of the
+     * Slab size).
+     */
+    @Getter
+    private final long maxSize;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the DirectMemoryCacheConfig class.
+     *
+     * @param properties The TypedProperties object to read Properties from.
+     */
+    private DirectMemoryCacheConfig(TypedProperties properties) throws ConfigurationException {
+        this.blockSize = properties.getInt(BLOCK_SIZE);
+        if (this.blockSize <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a positive integer.",
+                    BLOCK_SIZE, this.blockSize));
+        }
+
+        this.slabSize = properties.getInt(SLAB_SIZE);
+        if (this.slabSize < this.blockSize || this.slabSize % this.blockSize != 0) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a multiple of Property '%s' (%d).",
+                    SLAB_SIZE, this.slabSize, BLOCK_SIZE, this.blockSize));
+        }
+
+        this.maxSize = properties.getLong(MAX_SIZE);
+        if (this.maxSize < this.slabSize) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) cannot be smaller than Property '%s' (%d).",
+                    MAX_SIZE, this.maxSize, SLAB_SIZE, this.slabSize));
+        }
+    }
+
+    /**
+     * Creates a new ConfigBuilder that can be used to create instances of this class.
+     *
+     * @return A new Builder for this class.
+     */
+    public static ConfigBuilder<DirectMemoryCacheConfig> builder() {
+        return new ConfigBuilder<>(COMPONENT_CODE, DirectMemoryCacheConfig::new);
+    }
+
+    //endregion
+}
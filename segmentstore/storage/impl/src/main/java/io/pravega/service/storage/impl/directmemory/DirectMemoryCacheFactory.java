@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.directmemory;
+
+import io.pravega.common.Exceptions;
+import io.pravega.service.storage.Cache;
+import io.pravega.service.storage.CacheFactory;
+import io.pravega.service.storage.CacheUtilizationProvider;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.concurrent.GuardedBy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache Factory for the Direct Memory (off-heap) Cache implementation. All Caches created by this Factory share the
+ * same pool of memory.
+ */
+@Slf4j
+public class DirectMemoryCacheFactory implements CacheFactory, CacheUtilizationProvider {
+    //region Members
+
+    private static final String LOG_ID = "DirectMemoryCacheFactory";
+    @GuardedBy("caches")
+    private final HashMap<String, DirectMemoryCache> caches;
+    private final BlockAllocator allocator;
+    private final AtomicBoolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the DirectMemoryCacheFactory class.
+     *
+     * @param config The configuration to use.
+     */
+    public DirectMemoryCacheFactory(DirectMemoryCacheConfig config) {
+        Preconditions.checkNotNull(config, "config");
+
+        this.allocator = new BlockAllocator(config);
+        this.caches = new HashMap<>();
+        this.closed = new AtomicBoolean();
+        log.info("{}: Initialized (BlockSize = {}, SlabSize = {}, MaxSize = {}).",
+                LOG_ID, config.getBlockSize(), config.getSlabSize(), config.getMaxSize());
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.get()) {
+            ArrayList<DirectMemoryCache> toClose;
+            synchronized (this.caches) {
+                toClose = new ArrayList<>(this.caches.values());
+            }
+
+            toClose.forEach(DirectMemoryCache::close);
+            this.allocator.close();
+            this.closed.set(true);
+            log.info("{}: Closed.", LOG_ID);
+        }
+    }
+
+    //endregion
+
+    //region CacheFactory Implementation
+
+    @Override
+    public Cache getCache(String id) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+
+        synchronized (this.caches) {
+            return this.caches.computeIfAbsent(id, cacheId -> new DirectMemoryCache(cacheId, this.allocator, this::cacheClosed));
+        }
+    }
+
+    private void cacheClosed(String cacheId) {
+        synchronized (this.caches) {
+            this.caches.remove(cacheId);
+        }
+    }
+
+    //endregion
+
+    //region CacheUtilizationProvider Implementation
+
+    @Override
+    public long getUsedBytes() {
+        return this.allocator.getUsedBytes();
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return this.allocator.getAllocatedBytes();
+    }
+
+    //endregion
+}
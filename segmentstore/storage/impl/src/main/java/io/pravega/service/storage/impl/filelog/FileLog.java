@@ -0,0 +1,528 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.filelog;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.LoggerHelpers;
+import io.pravega.common.ObjectClosedException;
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
+import io.pravega.common.concurrent.FutureHelpers;
+import io.pravega.common.util.ArrayView;
+import io.pravega.common.util.CloseableIterator;
+import io.pravega.service.storage.DataLogInitializationException;
+import io.pravega.service.storage.DataLogWriterNotPrimaryException;
+import io.pravega.service.storage.DurableDataLog;
+import io.pravega.service.storage.DurableDataLogException;
+import io.pravega.service.storage.LogAddress;
+import io.pravega.service.storage.WriteFailureException;
+import io.pravega.service.storage.WriteTooLongException;
+import java.io.IOException;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+/**
+ * A DurableDataLog that is backed by memory-mapped files in a local directory. Intended for single-node deployments
+ * (such as standalone mode), where data needs to survive process restarts but there is no BookKeeper cluster available.
+ * <p>
+ * The log is made up of a series of pre-sized LogFiles. Appends are written to the last LogFile, and a new one is created
+ * whenever an append no longer fits in it. Appends are queued up and written by a single writer which uses group commit:
+ * all the appends that accumulated while the previous sync to disk was in progress are written out together and made
+ * durable with a single sync, after which all of them are acknowledged. Truncations are recorded in a MetadataFile, and
+ * any LogFiles that only contain truncated entries are deleted.
+ * <p>
+ * Every initialization of the log increments its Epoch (stored in the MetadataFile). A writer checks the Epoch before
+ * writing each batch, and will refuse to write if it has been fenced out by a newer instance. The Epoch cannot be
+ * incremented while a batch is being written.
+ */
+@Slf4j
+@ThreadSafe
+class FileLog implements DurableDataLog {
+    //region Members
+
+    private static final int MAX_APPEND_LENGTH = 1024 * 1024 - 100;
+    private static final String METADATA_FILE_NAME = "metadata";
+    private final Path directory;
+    private final FileLogConfig config;
+    private final ScheduledExecutorService executorService;
+    private final String traceObjectId;
+    private final AtomicBoolean closed;
+    private final AtomicLong lastAppendSequence;
+    private final Object lock = new Object();
+    @GuardedBy("lock")
+    private final ArrayDeque<Write> pendingWrites;
+    @GuardedBy("lock")
+    private boolean writeInProgress;
+    @GuardedBy("lock")
+    private MetadataFile metadata;
+    @GuardedBy("lock")
+    private long epoch;
+    @GuardedBy("lock")
+    private final TreeMap<Long, Path> files;
+    @GuardedBy("lock")
+    private LogFile writeFile;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileLog class.
+     *
+     * @param logId           The Id of the log.
+     * @param directory       The directory that contains (or will contain) the files for this log.
+     * @param config          Configuration to use.
+     * @param executorService An Executor to use for async operations.
+     */
+    FileLog(int logId, Path directory, FileLogConfig config, ScheduledExecutorService executorService) {
+        Preconditions.checkArgument(logId >= 0, "logId must be a non-negative integer.");
+
+        this.directory = Preconditions.checkNotNull(directory, "directory");
+        this.config = Preconditions.checkNotNull(config, "config");
+        this.executorService = Preconditions.checkNotNull(executorService, "executorService");
+        this.traceObjectId = String.format("FileLog[%d]", logId);
+        this.closed = new AtomicBoolean();
+        this.lastAppendSequence = new AtomicLong(-1);
+        this.pendingWrites = new ArrayDeque<>();
+        this.files = new TreeMap<>();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            List<Write> toFail;
+            LogFile writeFile;
+            MetadataFile metadata;
+            synchronized (this.lock) {
+                toFail = new ArrayList<>(this.pendingWrites);
+                this.pendingWrites.clear();
+                writeFile = this.writeFile;
+                this.writeFile = null;
+                metadata = this.metadata;
+                this.metadata = null;
+            }
+
+            toFail.forEach(w -> w.result.completeExceptionally(new ObjectClosedException(this)));
+            try {
+                if (writeFile != null) {
+                    writeFile.close();
+                }
+
+                if (metadata != null) {
+                    metadata.close();
+                }
+            } catch (IOException ex) {
+                log.error("{}: Unable to close files.", this.traceObjectId, ex);
+            }
+        }
+    }
+
+    //endregion
+
+    //region DurableDataLog Implementation
+
+    /**
+     * Initializes this FileLog using the following protocol:
+     * 1. Increment the Epoch in the MetadataFile, which fences out any previous owners of this log.
+     * 2. Locate the last entry in the log by scanning the last non-empty LogFile; any empty LogFiles at the end of the log
+     * are deleted.
+     * 3. Create a new LogFile, right after the last entry, to which all new appends will be written.
+     *
+     * @param timeout Timeout for the operation.
+     * @throws DataLogWriterNotPrimaryException If another instance is being initialized at the same time.
+     * @throws DataLogInitializationException   If a general initialization error occurred.
+     */
+    @Override
+    public void initialize(Duration timeout) throws DurableDataLogException {
+        synchronized (this.lock) {
+            Preconditions.checkState(this.metadata == null, "FileLog is already initialized.");
+            MetadataFile metadata = null;
+            try {
+                Files.createDirectories(this.directory);
+                metadata = MetadataFile.open(this.directory.resolve(METADATA_FILE_NAME));
+                long newEpoch = metadata.incrementEpoch();
+                val existingFiles = loadFiles();
+
+                // Locate the last entry; only the last non-empty file needs to be scanned for that.
+                long nextSequence = 0;
+                long lastSequence = -1;
+                while (!existingFiles.isEmpty()) {
+                    val last = existingFiles.lastEntry();
+                    try (LogFile lastFile = LogFile.openRead(last.getValue())) {
+                        lastFile.seekToEnd();
+                        if (lastFile.getLastEntrySequence() >= 0) {
+                            nextSequence = Math.max(nextSequence, lastFile.getNextSequence());
+                            lastSequence = lastFile.getLastEntrySequence();
+                            break;
+                        }
+                    }
+
+                    // This file contains no data (it was likely created by a previous instance which did not get to
+                    // write anything to it). Delete it, but make sure we do not reuse any smaller Sequence.
+                    Files.delete(last.getValue());
+                    existingFiles.remove(last.getKey());
+                    nextSequence = Math.max(nextSequence, last.getKey());
+                }
+
+                // Begin a new file; we never append to a file that was written by a previous instance.
+                LogFile newFile = LogFile.create(this.directory, nextSequence, this.config.getMaxFileSize());
+                existingFiles.put(newFile.getSequence(), newFile.getPath());
+
+                this.files.clear();
+                this.files.putAll(existingFiles);
+                this.writeFile = newFile;
+                this.epoch = newEpoch;
+                this.metadata = metadata;
+                this.lastAppendSequence.set(lastSequence);
+                log.info("{}: Initialized (Epoch = {}, LastSequence = {}, FileCount = {}).",
+                        this.traceObjectId, newEpoch, lastSequence, this.files.size());
+            } catch (OverlappingFileLockException ex) {
+                closeQuietly(metadata);
+                throw new DataLogWriterNotPrimaryException("Unable to acquire the lock on the FileLog metadata.", ex);
+            } catch (IOException ex) {
+                closeQuietly(metadata);
+                throw new DataLogInitializationException(String.format("Unable to initialize FileLog in '%s'.", this.directory), ex);
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<LogAddress> append(ArrayView data, Duration timeout) {
+        ensurePreconditions();
+        if (data.getLength() > getMaxAppendLength()) {
+            return FutureHelpers.failedFuture(new WriteTooLongException(data.getLength(), getMaxAppendLength()));
+        }
+
+        Write write = new Write(data);
+        boolean startProcessing;
+        synchronized (this.lock) {
+            this.pendingWrites.addLast(write);
+            startProcessing = !this.writeInProgress;
+            this.writeInProgress = true;
+        }
+
+        if (startProcessing) {
+            ExecutorServiceHelpers.execute(
+                    this::processWrites,
+                    this::failPendingWrites,
+                    () -> {
+                    },
+                    this.executorService);
+        }
+
+        return write.result;
+    }
+
+    @Override
+    public CompletableFuture<Void> truncate(LogAddress upToAddress, Duration timeout) {
+        ensurePreconditions();
+        Preconditions.checkArgument(upToAddress instanceof FileLogAddress, "upToAddress must be of type FileLogAddress.");
+        return CompletableFuture.runAsync(() -> tryTruncate(upToAddress.getSequence()), this.executorService);
+    }
+
+    @Override
+    public CloseableIterator<ReadItem, DurableDataLogException> getReader() throws DurableDataLogException {
+        ensurePreconditions();
+        synchronized (this.lock) {
+            return new FileLogReader(new ArrayList<>(this.files.values()), this.metadata.getTruncationSequence(), this.traceObjectId);
+        }
+    }
+
+    @Override
+    public int getMaxAppendLength() {
+        return Math.min(MAX_APPEND_LENGTH, this.config.getMaxFileSize() - LogFile.HEADER_LENGTH);
+    }
+
+    @Override
+    public long getLastAppendSequence() {
+        ensurePreconditions();
+        return this.lastAppendSequence.get();
+    }
+
+    @Override
+    public long getEpoch() {
+        ensurePreconditions();
+        synchronized (this.lock) {
+            return this.epoch;
+        }
+    }
+
+    //endregion
+
+    //region Appends
+
+    /**
+     * Writes all pending appends, one batch at a time, until there are no more left. Only one invocation of this method
+     * may be active at any given time.
+     */
+    private void processWrites() {
+        List<Write> batch;
+        while ((batch = getNextBatch()) != null) {
+            writeBatch(batch);
+        }
+    }
+
+    /**
+     * Dequeues the next batch of appends to write. If there are no more pending appends, this marks the processing as
+     * complete (in the same atomic step) and returns null.
+     */
+    private List<Write> getNextBatch() {
+        synchronized (this.lock) {
+            if (this.pendingWrites.isEmpty() || this.closed.get()) {
+                this.writeInProgress = false;
+                return null;
+            }
+
+            List<Write> result = new ArrayList<>();
+            int batchLength = 0;
+            while (!this.pendingWrites.isEmpty()
+                    && (result.isEmpty() || batchLength + this.pendingWrites.peekFirst().data.getLength() <= this.config.getMaxWriteBatchSize())) {
+                Write w = this.pendingWrites.removeFirst();
+                batchLength += w.data.getLength();
+                result.add(w);
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * Writes the given appends to the log, syncs them to disk (once, regardless of how many appends there are) and then
+     * completes them. The Epoch is locked for the duration of the write, so a newer instance cannot fence this one out
+     * (and locate the end of the log) while it is in progress.
+     * <p>
+     * If the write fails partway through, the appends that had already been synced to disk (as part of a rollover) are
+     * completed normally, and the rest are failed. Note that, as with any DurableDataLog, a failed append may still have
+     * been written, and may be read back after recovery.
+     */
+    private void writeBatch(List<Write> batch) {
+        long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "writeBatch", batch.size());
+        MetadataFile metadata;
+        long epoch;
+        synchronized (this.lock) {
+            if (this.closed.get()) {
+                failWrites(batch, new ObjectClosedException(this));
+                return;
+            }
+
+            metadata = this.metadata;
+            epoch = this.epoch;
+        }
+
+        val addresses = new ArrayList<LogAddress>(batch.size());
+        val durableCount = new AtomicInteger();
+        try {
+            boolean written = metadata.runWithEpoch(epoch, () -> {
+                LogFile writeFile;
+                synchronized (this.lock) {
+                    writeFile = this.writeFile;
+                }
+
+                for (Write w : batch) {
+                    if (!writeFile.canAppend(w.data.getLength())) {
+                        writeFile.force();
+                        durableCount.set(addresses.size());
+                        writeFile = rollover(writeFile);
+                    }
+
+                    addresses.add(new FileLogAddress(writeFile.append(w.data)));
+                }
+
+                writeFile.force();
+                durableCount.set(addresses.size());
+            });
+
+            if (!written) {
+                failWrites(batch, new DataLogWriterNotPrimaryException(
+                        String.format("FileLog has been fenced out (Epoch = %d, Current Epoch = %d).", epoch, metadata.getEpoch())));
+                return;
+            }
+        } catch (Exception ex) {
+            log.error("{}: Unable to write {} of {} append(s).", this.traceObjectId, batch.size() - durableCount.get(), batch.size(), ex);
+            completeWrites(batch.subList(0, durableCount.get()), addresses);
+            failWrites(batch.subList(durableCount.get(), batch.size()), new WriteFailureException("Unable to write to FileLog.", ex));
+            return;
+        }
+
+        completeWrites(batch, addresses);
+
+        LoggerHelpers.traceLeave(log, this.traceObjectId, "writeBatch", traceId, batch.size());
+    }
+
+    /**
+     * Closes the given (already synced) LogFile and creates a new one, which will be used for all subsequent appends.
+     */
+    private LogFile rollover(LogFile writeFile) throws IOException {
+        LogFile newFile = LogFile.create(this.directory, writeFile.getNextSequence(), this.config.getMaxFileSize());
+        synchronized (this.lock) {
+            this.files.put(newFile.getSequence(), newFile.getPath());
+            this.writeFile = newFile;
+        }
+
+        writeFile.close();
+        log.info("{}: Rolled over from {} to {}.", this.traceObjectId, writeFile, newFile);
+        return newFile;
+    }
+
+    private void failPendingWrites(Throwable ex) {
+        List<Write> toFail;
+        synchronized (this.lock) {
+            toFail = new ArrayList<>(this.pendingWrites);
+            this.pendingWrites.clear();
+            this.writeInProgress = false;
+        }
+
+        log.error("{}: Unable to process appends.", this.traceObjectId, ex);
+        failWrites(toFail, ex);
+    }
+
+    private void completeWrites(List<Write> writes, List<LogAddress> addresses) {
+        if (!writes.isEmpty()) {
+            this.lastAppendSequence.set(addresses.get(writes.size() - 1).getSequence());
+        }
+
+        for (int i = 0; i < writes.size(); i++) {
+            writes.get(i).result.complete(addresses.get(i));
+        }
+    }
+
+    private void failWrites(List<Write> writes, Throwable ex) {
+        writes.forEach(w -> w.result.completeExceptionally(ex));
+    }
+
+    //endregion
+
+    //region Truncation
+
+    /**
+     * Truncates the log at the given Sequence (inclusive). The new Truncation Sequence is persisted first, after which
+     * all LogFiles that only contain truncated entries are deleted. As with writes, the Epoch is locked while the
+     * Truncation Sequence is updated, so a newer instance cannot fence this one out in the meantime.
+     */
+    private void tryTruncate(long upToSequence) {
+        long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "tryTruncate", upToSequence);
+        MetadataFile metadata;
+        long epoch;
+        synchronized (this.lock) {
+            Exceptions.checkNotClosed(this.closed.get(), this);
+            metadata = this.metadata;
+            epoch = this.epoch;
+        }
+
+        val toDelete = new ArrayList<Path>();
+        boolean truncated;
+        try {
+            truncated = metadata.runWithEpoch(epoch, () -> {
+                metadata.setTruncationSequence(upToSequence + 1);
+
+                // All entries in a file have Sequences smaller than the file that follows it, so any file that is followed
+                // by a file whose Sequence is at or below the new Truncation Sequence can be deleted. This never includes
+                // the last file in the log.
+                synchronized (this.lock) {
+                    Long firstFileToKeep = this.files.floorKey(upToSequence + 1);
+                    if (firstFileToKeep != null) {
+                        val deletedFiles = this.files.headMap(firstFileToKeep, false);
+                        toDelete.addAll(deletedFiles.values());
+                        deletedFiles.clear();
+                    }
+                }
+            });
+        } catch (IOException ex) {
+            throw new CompletionException(new DurableDataLogException("Unable to truncate FileLog.", ex));
+        }
+
+        if (!truncated) {
+            throw new CompletionException(new DataLogWriterNotPrimaryException(
+                    String.format("FileLog has been fenced out (Epoch = %d, Current Epoch = %d).", epoch, metadata.getEpoch())));
+        }
+
+        for (Path path : toDelete) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ex) {
+                // Nothing we can do if we can't delete a file; the Truncation Sequence has already been persisted, so it
+                // will not be read again. Log the error and move on.
+                log.error("{}: Unable to delete truncated LogFile '{}'.", this.traceObjectId, path, ex);
+            }
+        }
+
+        log.info("{}: Truncated up to {}; deleted {} file(s).", this.traceObjectId, upToSequence, toDelete.size());
+        LoggerHelpers.traceLeave(log, this.traceObjectId, "tryTruncate", traceId, upToSequence);
+    }
+
+    //endregion
+
+    //region Helpers
+
+    private TreeMap<Long, Path> loadFiles() throws IOException {
+        val result = new TreeMap<Long, Path>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory)) {
+            for (Path path : stream) {
+                Long sequence = LogFile.getSequence(path);
+                if (sequence != null) {
+                    result.put(sequence, path);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private void closeQuietly(MetadataFile metadata) {
+        if (metadata != null) {
+            try {
+                metadata.close();
+            } catch (IOException ex) {
+                log.warn("{}: Unable to close MetadataFile.", this.traceObjectId, ex);
+            }
+        }
+    }
+
+    private void ensurePreconditions() {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        synchronized (this.lock) {
+            Preconditions.checkState(this.metadata != null, "FileLog is not initialized.");
+        }
+    }
+
+    //endregion
+
+    //region Write
+
+    @RequiredArgsConstructor
+    private static class Write {
+        final ArrayView data;
+        final CompletableFuture<LogAddress> result = new CompletableFuture<>();
+    }
+
+    //endregion
+}
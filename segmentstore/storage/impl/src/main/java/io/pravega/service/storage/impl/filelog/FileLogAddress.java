@@ -0,0 +1,27 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.filelog;
+
+import io.pravega.service.storage.LogAddress;
+
+/**
+ * LogAddress for FileLog. The Sequence is sufficient to locate an entry, since it encodes the file it is in as well as
+ * its position in that file.
+ */
+class FileLogAddress extends LogAddress {
+    /**
+     * Creates a new instance of the FileLogAddress class.
+     *
+     * @param sequence The Sequence of the entry.
+     */
+    FileLogAddress(long sequence) {
+        super(sequence);
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.filelog;
+
+import io.pravega.common.util.ConfigBuilder;
+import io.pravega.common.util.ConfigurationException;
+import io.pravega.common.util.InvalidPropertyValueException;
+import io.pravega.common.util.Property;
+import io.pravega.common.util.TypedProperties;
+import lombok.Getter;
+
+/**
+ * Configuration for the local file-backed DurableDataLog.
+ */
+public class FileLogConfig {
+    //region Config Names
+
+    public static final Property<String> ROOT = Property.named("root", "/tmp/pravega/filelog");
+    public static final Property<Integer> MAX_FILE_SIZE = Property.named("maxFileSize", 256 * 1024 * 1024);
+    public static final Property<Integer> MAX_WRITE_BATCH_SIZE = Property.named("maxWriteBatchSize", 4 * 1024 * 1024);
+    private static final String COMPONENT_CODE = "filelog";
+
+    //endregion
+
+    //region Members
+
+    /**
+     * The local directory where all log files are stored. Each log gets its own sub-directory.
+     */
+    @Getter
+    private final String root;
+
+    /**
+     * The size, in bytes, of each log file. Log files are pre-sized to this value when created and memory-mapped in
+     * their entirety; once an append no longer fits in the current file, a new one is created. This also caps the
+     * maximum append length for the log.
+     */
+    @Getter
+    private final int maxFileSize;
+
+    /**
+     * The maximum number of bytes that can be written between two consecutive syncs to disk. All appends that are
+     * received while a sync is in progress are written out and synced together (group commit), up to this size.
+     */
+    @Getter
+    private final int maxWriteBatchSize;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileLogConfig class.
+     *
+     * @param properties The TypedProperties object to read Properties from.
+     */
+    private FileLogConfig(TypedProperties properties) throws ConfigurationException {
+        this.root = properties.get(ROOT);
+        this.maxFileSize = properties.getInt(MAX_FILE_SIZE);
+        if (this.maxFileSize <= LogFile.HEADER_LENGTH) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be greater than %d.",
+                    MAX_FILE_SIZE, this.maxFileSize, LogFile.HEADER_LENGTH));
+        }
+
+        this.maxWriteBatchSize = properties.getInt(MAX_WRITE_BATCH_SIZE);
+        if (this.maxWriteBatchSize <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be a positive integer.",
+                    MAX_WRITE_BATCH_SIZE, this.maxWriteBatchSize));
+        }
+    }
+
+    /**
+     * Creates a new ConfigBuilder that can be used to create instances of this class.
+     *
+     * @return A new Builder for this class.
+     */
+    public static ConfigBuilder<FileLogConfig> builder() {
+        return new ConfigBuilder<>(COMPONENT_CODE, FileLogConfig::new);
+    }
+
+    //endregion
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.filelog;
+
+import com.google.common.base.Preconditions;
+import io.pravega.service.storage.DataLogNotAvailableException;
+import io.pravega.service.storage.DurableDataLog;
+import io.pravega.service.storage.DurableDataLogException;
+import io.pravega.service.storage.DurableDataLogFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Factory for FileLogs.
+ */
+@Slf4j
+public class FileLogFactory implements DurableDataLogFactory {
+    //region Members
+
+    private final FileLogConfig config;
+    private final ScheduledExecutorService executor;
+    private final Path root;
+    private final AtomicBoolean initialized;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileLogFactory class.
+     *
+     * @param config   The configuration to use for all instances created.
+     * @param executor An executor to use for async operations.
+     */
+    public FileLogFactory(FileLogConfig config, ScheduledExecutorService executor) {
+        this.config = Preconditions.checkNotNull(config, "config");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.root = Paths.get(this.config.getRoot());
+        this.initialized = new AtomicBoolean();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        // Nothing to close; each FileLog owns its files.
+    }
+
+    //endregion
+
+    //region DurableDataLogFactory Implementation
+
+    @Override
+    public void initialize() throws DurableDataLogException {
+        Preconditions.checkState(!this.initialized.get(), "FileLogFactory is already initialized.");
+        try {
+            Files.createDirectories(this.root);
+        } catch (IOException ex) {
+            throw new DataLogNotAvailableException(String.format("Unable to create FileLog root directory '%s'.", this.root), ex);
+        }
+
+        this.initialized.set(true);
+        log.info("FileLogFactory initialized (Root = '{}').", this.root);
+    }
+
+    @Override
+    public DurableDataLog createDurableDataLog(int containerId) {
+        Preconditions.checkState(this.initialized.get(), "FileLogFactory is not initialized.");
+        return new FileLog(containerId, this.root.resolve(Integer.toString(containerId)), this.config, this.executor);
+    }
+
+    //endregion
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.filelog;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.util.CloseableIterator;
+import io.pravega.service.storage.DataLogNotAvailableException;
+import io.pravega.service.storage.DurableDataLog;
+import io.pravega.service.storage.DurableDataLogException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.concurrent.NotThreadSafe;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads all the non-truncated entries from a FileLog, in order.
+ */
+@Slf4j
+@NotThreadSafe
+class FileLogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDataLogException> {
+    //region Members
+
+    private final ArrayDeque<Path> files;
+    private final long truncationSequence;
+    private final String traceObjectId;
+    private final AtomicBoolean closed;
+    private LogFile currentFile;
+    private int currentPosition;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileLogReader class.
+     *
+     * @param files              The paths to the LogFiles to read, ordered by their Sequence.
+     * @param truncationSequence The Truncation Sequence of the log. Entries with smaller Sequences will be skipped.
+     * @param traceObjectId      An identifier to use for logging purposes.
+     */
+    FileLogReader(Collection<Path> files, long truncationSequence, String traceObjectId) {
+        this.files = new ArrayDeque<>(Preconditions.checkNotNull(files, "files"));
+        this.truncationSequence = truncationSequence;
+        this.traceObjectId = traceObjectId;
+        this.closed = new AtomicBoolean();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            closeCurrentFile();
+        }
+    }
+
+    //endregion
+
+    //region CloseableIterator Implementation
+
+    @Override
+    public DurableDataLog.ReadItem getNext() throws DurableDataLogException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        while (true) {
+            if (this.currentFile == null && !openNextFile()) {
+                // We have reached the end.
+                return null;
+            }
+
+            byte[] payload = this.currentFile.read(this.currentPosition);
+            if (payload == null) {
+                // We have reached the end of the current file.
+                closeCurrentFile();
+                continue;
+            }
+
+            long sequence = this.currentFile.getSequence() + this.currentPosition;
+            this.currentPosition += LogFile.HEADER_LENGTH + payload.length;
+            if (sequence >= this.truncationSequence) {
+                return new ReadItem(payload, new FileLogAddress(sequence));
+            }
+        }
+    }
+
+    private boolean openNextFile() throws DurableDataLogException {
+        while (!this.files.isEmpty()) {
+            Path path = this.files.removeFirst();
+            try {
+                this.currentFile = LogFile.openRead(path);
+                this.currentPosition = 0;
+                return true;
+            } catch (NoSuchFileException ex) {
+                // This file has been deleted by a truncation after this reader was created. It can be safely skipped.
+                log.debug("{}: LogFile '{}' no longer exists; skipping.", this.traceObjectId, path);
+            } catch (IOException ex) {
+                close();
+                throw new DataLogNotAvailableException(String.format("Unable to open LogFile '%s'.", path), ex);
+            }
+        }
+
+        return false;
+    }
+
+    private void closeCurrentFile() {
+        if (this.currentFile != null) {
+            try {
+                this.currentFile.close();
+            } catch (IOException ex) {
+                log.warn("{}: Unable to close LogFile '{}'.", this.traceObjectId, this.currentFile, ex);
+            }
+
+            this.currentFile = null;
+        }
+    }
+
+    //endregion
+
+    //region ReadItem
+
+    private static class ReadItem implements DurableDataLog.ReadItem {
+        @Getter
+        private final InputStream payload;
+        @Getter
+        private final int length;
+        @Getter
+        private final FileLogAddress address;
+
+        ReadItem(byte[] payload, FileLogAddress address) {
+            this.payload = new ByteArrayInputStream(payload);
+            this.length = payload.length;
+            this.address = address;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s, Length = %d.", this.address, this.length);
+        }
+    }
+
+    //endregion
+}
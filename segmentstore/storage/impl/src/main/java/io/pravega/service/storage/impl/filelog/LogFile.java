@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.filelog;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.util.ArrayView;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import javax.annotation.concurrent.NotThreadSafe;
+import lombok.Getter;
+
+/**
+ * A single pre-sized, memory-mapped file that is part of a FileLog.
+ * <p>
+ * Each entry is laid out as [Marker (1 byte)][Length (4 bytes)][Payload CRC32 (4 bytes)][Payload (Length bytes)]. The
+ * Marker is written after everything else, so an entry is only visible once it has been fully written; anything after the
+ * first entry that does not have a Marker or whose CRC does not match its Payload is considered unwritten. The Sequence
+ * of each entry is the Sequence of the file plus the position of the entry inside the file.
+ */
+@NotThreadSafe
+class LogFile implements AutoCloseable {
+    //region Members
+
+    static final int HEADER_LENGTH = Byte.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final byte ENTRY_MARKER = 1;
+    private static final String EXTENSION = ".log";
+    private static final String NAME_FORMAT = "%020d" + EXTENSION;
+
+    /**
+     * The path to the file.
+     */
+    @Getter
+    private final Path path;
+
+    /**
+     * The Sequence of the file. This is the Sequence that the first entry in the file would have.
+     */
+    @Getter
+    private final long sequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    /**
+     * The Sequence of the last entry in the file, or -1 if the file has no entries.
+     */
+    @Getter
+    private long lastEntrySequence;
+    private int writePosition;
+
+    //endregion
+
+    //region Constructor
+
+    private LogFile(Path path, long sequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.sequence = sequence;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.lastEntrySequence = -1;
+    }
+
+    /**
+     * Creates a new, empty, LogFile in the given directory.
+     *
+     * @param directory The directory to create the file in.
+     * @param sequence  The Sequence of the file.
+     * @param size      The size of the file, in bytes. The file will be pre-sized to this value.
+     * @return The LogFile, opened for writing.
+     * @throws IOException If the file could not be created.
+     */
+    static LogFile create(Path directory, long sequence, int size) throws IOException {
+        Path path = directory.resolve(getFileName(sequence));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            // Mapping beyond the end of the file extends the file to the requested size.
+            return new LogFile(path, sequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Opens an existing LogFile for reading.
+     *
+     * @param path The path to the file.
+     * @return The LogFile.
+     * @throws IOException If the file could not be opened.
+     */
+    static LogFile openRead(Path path) throws IOException {
+        Long sequence = getSequence(path);
+        Preconditions.checkArgument(sequence != null, "'%s' is not a LogFile.", path);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new LogFile(path, sequence, channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The mapping itself remains valid until garbage collected, which is the only way to release it.
+        this.channel.close();
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Scans all the entries in this file in order to locate its last entry. This is only needed for files that have been
+     * opened using openRead(), and only if getLastEntrySequence() or getNextSequence() are going to be used.
+     */
+    void seekToEnd() {
+        int position = 0;
+        byte[] payload;
+        while ((payload = read(position)) != null) {
+            this.lastEntrySequence = this.sequence + position;
+            position += HEADER_LENGTH + payload.length;
+        }
+
+        this.writePosition = position;
+    }
+
+    /**
+     * Gets a value indicating whether the given number of bytes can be appended to this file.
+     *
+     * @param length The length of the payload to append.
+     * @return True if it fits, false otherwise.
+     */
+    boolean canAppend(int length) {
+        return this.writePosition + HEADER_LENGTH + length <= this.buffer.capacity();
+    }
+
+    /**
+     * Appends the given data as a new entry to this file. This does not sync the file to disk; use force() for that.
+     *
+     * @param data The data to append.
+     * @return The Sequence of the new entry.
+     */
+    long append(ArrayView data) {
+        Preconditions.checkState(canAppend(data.getLength()), "Insufficient space in LogFile '%s'.", this.path);
+        ByteBuffer writeBuffer = this.buffer.duplicate();
+        writeBuffer.position(this.writePosition + Byte.BYTES);
+        writeBuffer.putInt(data.getLength());
+        writeBuffer.putInt(getChecksum(data.array(), data.arrayOffset(), data.getLength()));
+        writeBuffer.put(data.array(), data.arrayOffset(), data.getLength());
+        this.buffer.put(this.writePosition, ENTRY_MARKER);
+
+        this.lastEntrySequence = this.sequence + this.writePosition;
+        this.writePosition += HEADER_LENGTH + data.getLength();
+        return this.lastEntrySequence;
+    }
+
+    /**
+     * Syncs all the entries appended so far to disk.
+     */
+    void force() {
+        this.buffer.force();
+    }
+
+    /**
+     * Gets the Sequence that the next entry appended to this file would have. This is also the Sequence to use for the
+     * file that follows this one in the log.
+     *
+     * @return The Sequence.
+     */
+    long getNextSequence() {
+        return this.sequence + this.writePosition;
+    }
+
+    /**
+     * Reads the payload of the entry at the given position.
+     *
+     * @param position The position of the entry in the file.
+     * @return The payload, or null if there is no valid entry at this position.
+     */
+    byte[] read(int position) {
+        if (position + HEADER_LENGTH > this.buffer.capacity() || this.buffer.get(position) != ENTRY_MARKER) {
+            return null;
+        }
+
+        int length = this.buffer.getInt(position + Byte.BYTES);
+        if (length < 0 || position + HEADER_LENGTH + length > this.buffer.capacity()) {
+            return null;
+        }
+
+        byte[] payload = new byte[length];
+        ByteBuffer readBuffer = this.buffer.duplicate();
+        readBuffer.position(position + HEADER_LENGTH);
+        readBuffer.get(payload);
+
+        // Verify the payload, to exclude any partially written entries.
+        if (getChecksum(payload, 0, length) != this.buffer.getInt(position + Byte.BYTES + Integer.BYTES)) {
+            return null;
+        }
+
+        return payload;
+    }
+
+    //endregion
+
+    //region Helpers
+
+    /**
+     * Gets the Sequence of the LogFile with the given path.
+     *
+     * @param path The path.
+     * @return The Sequence, or null if the path does not refer to a LogFile.
+     */
+    static Long getSequence(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.endsWith(EXTENSION)) {
+            return null;
+        }
+
+        try {
+            return Long.parseLong(name.substring(0, name.length() - EXTENSION.length()));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static String getFileName(long sequence) {
+        return String.format(NAME_FORMAT, sequence);
+    }
+
+    private static int getChecksum(byte[] array, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(array, offset, length);
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (Sequence = %d, Length = %d)", this.path.getFileName(), this.sequence, this.writePosition);
+    }
+
+    //endregion
+}
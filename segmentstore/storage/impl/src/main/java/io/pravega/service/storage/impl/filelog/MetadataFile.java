@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.filelog;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memory-mapped metadata for a FileLog. This contains the Epoch of the log (which is incremented every time the log is
+ * initialized, so that any previous owners of the log are fenced out) and its Truncation Sequence (all entries with a
+ * Sequence smaller than it are considered truncated).
+ * <p>
+ * Since all owners of a FileLog map the same file, any change made by one of them is immediately visible to the others,
+ * which makes checking for fencing cheap enough to be done before every write. Writes are made while holding a shared
+ * lock on the Epoch (see {@link #runWithEpoch}), so that a new owner cannot increment it (and go on to locate the end of
+ * the log) while a previous owner is still writing.
+ */
+class MetadataFile implements AutoCloseable {
+    //region Members
+
+    private static final int EPOCH_OFFSET = 0;
+    private static final int TRUNCATION_SEQUENCE_OFFSET = EPOCH_OFFSET + Long.BYTES;
+    private static final int LENGTH = TRUNCATION_SEQUENCE_OFFSET + Long.BYTES;
+    /**
+     * File locks are held on behalf of the whole process, and the JVM refuses to take overlapping ones (even if shared),
+     * so locking out owners within the same process is done with one monitor per MetadataFile path instead.
+     */
+    private static final ConcurrentHashMap<Path, Object> PROCESS_LOCKS = new ConcurrentHashMap<>();
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final Object processLock;
+
+    //endregion
+
+    //region Constructor
+
+    private MetadataFile(FileChannel channel, MappedByteBuffer buffer, Path path) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.processLock = PROCESS_LOCKS.computeIfAbsent(path.toAbsolutePath().normalize(), p -> new Object());
+    }
+
+    /**
+     * Opens the MetadataFile at the given path, creating it if it does not exist. A newly created MetadataFile has an
+     * Epoch of 0 and a Truncation Sequence of 0.
+     *
+     * @param path The path to the file.
+     * @return The MetadataFile.
+     * @throws IOException If the file could not be opened or created.
+     */
+    static MetadataFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new MetadataFile(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, LENGTH), path);
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Increments the Epoch and syncs it to disk. The update is made while holding an exclusive lock on the file, which
+     * prevents concurrent initializations from different processes from obtaining the same Epoch.
+     *
+     * @return The new Epoch.
+     * @throws IOException If the file could not be locked.
+     */
+    long incrementEpoch() throws IOException {
+        synchronized (this.processLock) {
+            try (FileLock ignored = this.channel.lock()) {
+                long epoch = this.buffer.getLong(EPOCH_OFFSET) + 1;
+                this.buffer.putLong(EPOCH_OFFSET, epoch);
+                this.buffer.force();
+                return epoch;
+            }
+        }
+    }
+
+    /**
+     * Runs the given action if the Epoch is still the given one, while holding a shared lock on the file which prevents
+     * the Epoch from being incremented until the action completes.
+     *
+     * @param expectedEpoch The Epoch of the caller.
+     * @param action        The action to run.
+     * @return True if the action was run, false if the caller has been fenced out.
+     * @throws IOException If the file could not be locked or the action failed.
+     */
+    boolean runWithEpoch(long expectedEpoch, EpochAction action) throws IOException {
+        synchronized (this.processLock) {
+            try (FileLock ignored = this.channel.lock(0, Long.MAX_VALUE, true)) {
+                if (getEpoch() != expectedEpoch) {
+                    return false;
+                }
+
+                action.run();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gets the current Epoch.
+     *
+     * @return The Epoch.
+     */
+    long getEpoch() {
+        return this.buffer.getLong(EPOCH_OFFSET);
+    }
+
+    /**
+     * Gets the Truncation Sequence. All entries with a Sequence smaller than this value are truncated.
+     *
+     * @return The Truncation Sequence.
+     */
+    long getTruncationSequence() {
+        return this.buffer.getLong(TRUNCATION_SEQUENCE_OFFSET);
+    }
+
+    /**
+     * Updates the Truncation Sequence and syncs it to disk, if the given value is larger than the current one.
+     *
+     * @param truncationSequence The new Truncation Sequence.
+     */
+    void setTruncationSequence(long truncationSequence) {
+        if (truncationSequence > getTruncationSequence()) {
+            this.buffer.putLong(TRUNCATION_SEQUENCE_OFFSET, truncationSequence);
+            this.buffer.force();
+        }
+    }
+
+    //endregion
+
+    //region EpochAction
+
+    @FunctionalInterface
+    interface EpochAction {
+        void run() throws IOException;
+    }
+
+    //endregion
+}
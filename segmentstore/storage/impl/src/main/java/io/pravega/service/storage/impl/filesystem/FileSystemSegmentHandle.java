@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.filesystem;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.service.storage.SegmentHandle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+
+/**
+ * Handle for FileSystemStorage.
+ */
+@ThreadSafe
+class FileSystemSegmentHandle implements SegmentHandle {
+    //region Members
+
+    @Getter
+    private final String segmentName;
+    @Getter
+    private final boolean readOnly;
+    @GuardedBy("chunks")
+    private final List<SegmentChunk> chunks;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileSystemSegmentHandle class.
+     *
+     * @param segmentName The name of the Segment in this Handle, as perceived by users of the Segment interface.
+     * @param readOnly    Whether this handle is read-only or not.
+     * @param chunks      An ordered list of initial chunks for this handle.
+     */
+    private FileSystemSegmentHandle(String segmentName, boolean readOnly, List<SegmentChunk> chunks) {
+        Exceptions.checkNotNullOrEmpty(segmentName, "segmentName");
+        Exceptions.checkNotNullOrEmpty(chunks, "chunks");
+
+        this.segmentName = segmentName;
+        this.readOnly = readOnly;
+        this.chunks = new ArrayList<>(chunks);
+    }
+
+    /**
+     * Creates a read-write handle.
+     *
+     * @param segmentName The name of the Segment to create the handle for.
+     * @param chunks      An ordered list of initial chunks for this handle.
+     * @return The new handle.
+     */
+    static FileSystemSegmentHandle write(String segmentName, List<SegmentChunk> chunks) {
+        return new FileSystemSegmentHandle(segmentName, false, chunks);
+    }
+
+    /**
+     * Creates a read-only handle.
+     *
+     * @param segmentName The name of the Segment to create the handle for.
+     * @param chunks      An ordered list of initial chunks for this handle.
+     * @return The new handle.
+     */
+    static FileSystemSegmentHandle read(String segmentName, List<SegmentChunk> chunks) {
+        return new FileSystemSegmentHandle(segmentName, true, chunks);
+    }
+
+    //endregion
+
+    //region Properties
+
+    /**
+     * Gets a copy of the chunks in this handle, in order.
+     */
+    List<SegmentChunk> getChunks() {
+        synchronized (this.chunks) {
+            return new ArrayList<>(this.chunks);
+        }
+    }
+
+    /**
+     * Gets the last chunk in this handle.
+     */
+    SegmentChunk getLastChunk() {
+        synchronized (this.chunks) {
+            return this.chunks.get(this.chunks.size() - 1);
+        }
+    }
+
+    /**
+     * Replaces the chunks in this handle with the given ones.
+     *
+     * @param newChunks The new chunks to replace with.
+     */
+    void replaceChunks(Collection<SegmentChunk> newChunks) {
+        Exceptions.checkNotNullOrEmpty(newChunks, "newChunks");
+        synchronized (this.chunks) {
+            this.chunks.clear();
+            this.chunks.addAll(newChunks);
+        }
+    }
+
+    /**
+     * Adds the given chunk at the end of this handle. If the current last chunk has the same path as the given one (which
+     * means it has been replaced), it is removed first.
+     *
+     * @param chunk The chunk to add.
+     */
+    void addChunk(SegmentChunk chunk) {
+        synchronized (this.chunks) {
+            SegmentChunk lastChunk = this.chunks.get(this.chunks.size() - 1);
+            Preconditions.checkArgument(chunk.getOffset() == lastChunk.getLastOffset(),
+                    "Invalid offset. Expected %s, actual %s.", lastChunk.getLastOffset(), chunk.getOffset());
+            if (lastChunk.getPath().equals(chunk.getPath())) {
+                this.chunks.remove(this.chunks.size() - 1);
+            }
+
+            this.chunks.add(chunk);
+        }
+    }
+
+    @Override
+    public String toString() {
+        String chunkNames;
+        synchronized (this.chunks) {
+            chunkNames = this.chunks.stream().map(SegmentChunk::toString).collect(Collectors.joining(", "));
+        }
+
+        return String.format("%s (%s): %s", this.segmentName, this.readOnly ? "R" : "RW", chunkNames);
+    }
+
+    //endregion
+}
@@ -0,0 +1,796 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.filesystem;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.LoggerHelpers;
+import io.pravega.common.function.RunnableWithException;
+import io.pravega.common.io.StreamHelpers;
+import io.pravega.common.util.ImmutableDate;
+import io.pravega.service.contracts.BadOffsetException;
+import io.pravega.service.contracts.SegmentProperties;
+import io.pravega.service.contracts.StreamSegmentExistsException;
+import io.pravega.service.contracts.StreamSegmentInformation;
+import io.pravega.service.contracts.StreamSegmentNotExistsException;
+import io.pravega.service.contracts.StreamSegmentSealedException;
+import io.pravega.service.storage.SegmentHandle;
+import io.pravega.service.storage.StorageNotPrimaryException;
+import io.pravega.service.storage.TruncateableStorage;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+/**
+ * Storage adapter for a local or mounted (i.e., NFS, SAN) POSIX file system, using NIO FileChannels.
+ * <p>
+ * Each Segment is made up of one or more files (chunks), named "[segment-name]_[offset]_[epoch]", where offset is the
+ * offset within the Segment of the first byte in that file and epoch is the epoch of the Storage instance that created
+ * it. Fencing works the same way as for HDFSStorage: a new owner makes the last file of a Segment read-only and then
+ * creates a new file with its own epoch, which it will write to from then on; the previous owner will notice that its
+ * file is read-only (or that there is a file with a higher epoch) and stop writing.
+ * <p>
+ * Since the file system does not enforce read-only permissions for privileged users, the permissions of the last file are
+ * verified before every modifying operation. A sealed Segment has a "[segment-name]_sealed" marker file, and a truncated
+ * Segment has a "[segment-name]_truncated" file that holds its truncation offset; files that are entirely before the
+ * truncation offset are deleted.
+ */
+@Slf4j
+class FileSystemStorage implements TruncateableStorage {
+    //region Members
+
+    private static final String PART_SEPARATOR = "_";
+    private static final String SEALED_SUFFIX = PART_SEPARATOR + "sealed";
+    private static final String TRUNCATED_SUFFIX = PART_SEPARATOR + "truncated";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final Pattern CHUNK_SUFFIX_PATTERN = Pattern.compile("^(\\d+)" + PART_SEPARATOR + "(\\d+)$");
+    private static final Set<PosixFilePermission> READ_WRITE_PERMISSIONS = PosixFilePermissions.fromString("rw-r--r--");
+    private static final Set<PosixFilePermission> READ_ONLY_PERMISSIONS = PosixFilePermissions.fromString("r--r--r--");
+    private static final int MAX_OPEN_WRITE_RETRIES = 10;
+    private static final int MAX_READ_ATTEMPTS = 3;
+    private static final int WRITE_BUFFER_SIZE = 1024 * 1024;
+
+    private final FileSystemStorageConfig config;
+    private final Executor executor;
+    private final Path root;
+    private final AtomicBoolean closed;
+    private final ConcurrentHashMap<String, Long> truncationOffsets;
+    private volatile long epoch;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileSystemStorage class.
+     *
+     * @param config   The configuration to use.
+     * @param executor The executor to use for running operations.
+     */
+    FileSystemStorage(FileSystemStorageConfig config, Executor executor) {
+        Preconditions.checkNotNull(config, "config");
+        Preconditions.checkNotNull(executor, "executor");
+        this.config = config;
+        this.executor = executor;
+        this.root = Paths.get(config.getRoot()).toAbsolutePath();
+        this.closed = new AtomicBoolean();
+        this.truncationOffsets = new ConcurrentHashMap<>();
+        this.epoch = -1;
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        this.closed.set(true);
+    }
+
+    //endregion
+
+    //region Storage Implementation
+
+    @Override
+    public void initialize(long containerEpoch) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Preconditions.checkState(this.epoch < 0, "FileSystemStorage has already been initialized.");
+        Preconditions.checkArgument(containerEpoch >= 0, "containerEpoch must be a non-negative number.");
+        try {
+            Files.createDirectories(this.root);
+        } catch (IOException ex) {
+            throw new IllegalStateException(String.format("Unable to create root directory '%s'.", this.root), ex);
+        }
+
+        this.epoch = containerEpoch;
+        log.info("Initialized (Root = '{}', Epoch = {}).", this.root, containerEpoch);
+    }
+
+    @Override
+    public CompletableFuture<SegmentProperties> create(String streamSegmentName, Duration timeout) {
+        return supplyAsync(streamSegmentName, () -> createSync(streamSegmentName));
+    }
+
+    @Override
+    public CompletableFuture<SegmentHandle> openWrite(String streamSegmentName) {
+        return supplyAsync(streamSegmentName, () -> openWriteSync(streamSegmentName));
+    }
+
+    @Override
+    public CompletableFuture<SegmentHandle> openRead(String streamSegmentName) {
+        return supplyAsync(streamSegmentName, () -> {
+            val chunks = findExistingChunks(streamSegmentName);
+            loadTruncationOffset(streamSegmentName);
+            return FileSystemSegmentHandle.read(streamSegmentName, chunks);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> write(SegmentHandle handle, long offset, InputStream data, int length, Duration timeout) {
+        val h = asWritableHandle(handle);
+        return runAsync(handle.getSegmentName(), () -> writeSync(h, offset, data, length));
+    }
+
+    @Override
+    public CompletableFuture<Void> seal(SegmentHandle handle, Duration timeout) {
+        val h = asWritableHandle(handle);
+        return runAsync(handle.getSegmentName(), () -> sealSync(h));
+    }
+
+    @Override
+    public CompletableFuture<Void> concat(SegmentHandle targetHandle, long offset, String sourceSegment, Duration timeout) {
+        val h = asWritableHandle(targetHandle);
+        Preconditions.checkArgument(!targetHandle.getSegmentName().equals(sourceSegment), "Source and Target are the same segment.");
+        return runAsync(targetHandle.getSegmentName(), () -> concatSync(h, offset, sourceSegment));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(SegmentHandle handle, Duration timeout) {
+        val h = asReadableHandle(handle);
+        return runAsync(handle.getSegmentName(), () -> deleteSync(h));
+    }
+
+    @Override
+    public CompletableFuture<Void> truncate(String streamSegmentName, long offset, Duration timeout) {
+        return runAsync(streamSegmentName, () -> truncateSync(streamSegmentName, offset));
+    }
+
+    @Override
+    public CompletableFuture<Integer> read(SegmentHandle handle, long offset, byte[] buffer, int bufferOffset, int length, Duration timeout) {
+        val h = asReadableHandle(handle);
+        if (offset < 0 || bufferOffset < 0 || length < 0 || buffer.length < bufferOffset + length) {
+            throw new ArrayIndexOutOfBoundsException(String.format(
+                    "Offset (%s) must be non-negative, and bufferOffset (%s) and length (%s) must be valid indices into buffer of size %s.",
+                    offset, bufferOffset, length, buffer.length));
+        }
+
+        return supplyAsync(handle.getSegmentName(), () -> readSync(h, offset, buffer, bufferOffset, length));
+    }
+
+    @Override
+    public CompletableFuture<SegmentProperties> getStreamSegmentInfo(String streamSegmentName, Duration timeout) {
+        return supplyAsync(streamSegmentName, () -> {
+            val chunks = findExistingChunks(streamSegmentName);
+            val lastChunk = chunks.get(chunks.size() - 1);
+            long lastModified = Files.getLastModifiedTime(lastChunk.getPath()).toMillis();
+            return new StreamSegmentInformation(streamSegmentName, lastChunk.getLastOffset(), isSealed(streamSegmentName),
+                    false, new ImmutableDate(lastModified));
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists(String streamSegmentName, Duration timeout) {
+        return supplyAsync(streamSegmentName, () -> !findChunks(streamSegmentName).isEmpty());
+    }
+
+    //endregion
+
+    //region Operations
+
+    private SegmentProperties createSync(String segmentName) throws IOException, StreamSegmentExistsException {
+        long traceId = LoggerHelpers.traceEnter(log, "create", segmentName);
+        if (!findChunks(segmentName).isEmpty()) {
+            throw new StreamSegmentExistsException(segmentName);
+        }
+
+        Path path = getChunkPath(segmentName, 0, this.epoch);
+        Files.createDirectories(path.getParent());
+        Files.createFile(path, PosixFilePermissions.asFileAttribute(READ_WRITE_PERMISSIONS));
+        LoggerHelpers.traceLeave(log, "create", traceId, segmentName);
+        return new StreamSegmentInformation(segmentName, 0, false, false, new ImmutableDate());
+    }
+
+    private SegmentHandle openWriteSync(String segmentName) throws IOException, StreamSegmentNotExistsException, StorageNotPrimaryException {
+        long traceId = LoggerHelpers.traceEnter(log, "openWrite", segmentName);
+        FileSystemSegmentHandle result = null;
+        int attemptCount = 0;
+        while (result == null && attemptCount < MAX_OPEN_WRITE_RETRIES) {
+            // We care mostly about the last chunk in the sequence; we use this one to implement fencing.
+            val chunks = findExistingChunks(segmentName);
+            val lastChunk = chunks.get(chunks.size() - 1);
+            if (lastChunk.getEpoch() > this.epoch) {
+                throw new StorageNotPrimaryException(segmentName,
+                        String.format("Found a file with a higher epoch (%d) than ours (%d): %s.", lastChunk.getEpoch(), this.epoch, lastChunk));
+            }
+
+            if (lastChunk.isReadOnly()) {
+                if (isSealed(segmentName)) {
+                    // Sealed segments can only be opened for reading.
+                    result = FileSystemSegmentHandle.read(segmentName, chunks);
+                } else if (lastChunk.getEpoch() == this.epoch) {
+                    // This means someone else must have just fenced us out.
+                    throw new StorageNotPrimaryException(segmentName,
+                            String.format("Last file has our epoch (%d) but it is read-only: %s.", this.epoch, lastChunk));
+                } else {
+                    // The last chunk is read-only and not sealed: it has been fenced off and we can continue using it.
+                    result = fenceOut(segmentName, chunks);
+                }
+            } else if (lastChunk.getEpoch() == this.epoch) {
+                // We were the last owners of this segment; simply reuse the last chunk.
+                result = FileSystemSegmentHandle.write(segmentName, chunks);
+            } else {
+                // The last chunk has a lower epoch than us. Mark it as read-only, which should fence it off, then re-run
+                // the algorithm to pick up any changes that may have happened in the meantime.
+                makeReadOnly(lastChunk);
+            }
+
+            attemptCount++;
+        }
+
+        if (result == null) {
+            throw new StorageNotPrimaryException(segmentName, "Unable to acquire exclusive lock after the maximum number of attempts have been reached.");
+        }
+
+        loadTruncationOffset(segmentName);
+        LoggerHelpers.traceLeave(log, "openWrite", traceId, result);
+        return result;
+    }
+
+    private FileSystemSegmentHandle fenceOut(String segmentName, List<SegmentChunk> chunks) throws IOException, StreamSegmentNotExistsException, StorageNotPrimaryException {
+        // Create a new, empty chunk with our epoch and verify nobody else beat us to it.
+        long offset = chunks.get(chunks.size() - 1).getLastOffset();
+        Path newPath = getChunkPath(segmentName, offset, this.epoch);
+        try {
+            Files.createFile(newPath, PosixFilePermissions.asFileAttribute(READ_WRITE_PERMISSIONS));
+        } catch (FileAlreadyExistsException ex) {
+            throw new StorageNotPrimaryException(segmentName, String.format("Another instance with our epoch (%d) created '%s'.", this.epoch, newPath));
+        }
+
+        val newChunks = findExistingChunks(segmentName);
+        val lastChunk = newChunks.get(newChunks.size() - 1);
+        if (!lastChunk.getPath().equals(newPath)) {
+            // We lost :(
+            Files.deleteIfExists(newPath);
+            throw new StorageNotPrimaryException(segmentName,
+                    String.format("Found a file with a higher epoch (%d) than ours (%d): %s.", lastChunk.getEpoch(), this.epoch, lastChunk));
+        }
+
+        // Empty chunks (from previous fencing attempts) are of no use; get rid of them so that they do not accumulate.
+        for (int i = newChunks.size() - 2; i >= 0; i--) {
+            if (newChunks.get(i).getLength() == 0) {
+                Files.deleteIfExists(newChunks.remove(i).getPath());
+            }
+        }
+
+        return FileSystemSegmentHandle.write(segmentName, newChunks);
+    }
+
+    private void writeSync(FileSystemSegmentHandle handle, long offset, InputStream data, int length) throws Exception {
+        long traceId = LoggerHelpers.traceEnter(log, "write", handle, offset, length);
+        SegmentChunk lastChunk = handle.getLastChunk();
+        try {
+            // Validate ownership before the offset: we want to throw StreamSegmentNotExistsException and
+            // StorageNotPrimaryException before we throw BadOffsetException.
+            checkWritable(handle, lastChunk);
+        } catch (NoSuchFileException ex) {
+            checkForFenceOut(handle, lastChunk);
+            throw ex;
+        }
+
+        try (FileChannel channel = FileChannel.open(lastChunk.getPath(), StandardOpenOption.WRITE)) {
+            if (offset != lastChunk.getLastOffset()) {
+                throw new BadOffsetException(handle.getSegmentName(), lastChunk.getLastOffset(), offset);
+            } else if (channel.size() != lastChunk.getLength()) {
+                // The file changed from underneath us. Update our knowledge of it and let the upstream code reconcile.
+                log.warn("File changed detected for '{}'. Expected length = {}, actual length = {}.", lastChunk, lastChunk.getLength(), channel.size());
+                lastChunk.setLength(channel.size());
+                throw new BadOffsetException(handle.getSegmentName(), lastChunk.getLastOffset(), offset);
+            }
+
+            if (length > 0) {
+                channel.position(lastChunk.getLength());
+                writeFully(channel, data, length);
+                if (this.config.isSyncOnWrite()) {
+                    channel.force(false);
+                }
+
+                lastChunk.increaseLength(length);
+            }
+        }
+
+        LoggerHelpers.traceLeave(log, "write", traceId, handle, offset, length);
+    }
+
+    private void sealSync(FileSystemSegmentHandle handle) throws Exception {
+        long traceId = LoggerHelpers.traceEnter(log, "seal", handle);
+        SegmentChunk lastChunk = handle.getLastChunk();
+        try {
+            if (isReadOnly(lastChunk.getPath())) {
+                // Either already sealed (seal is idempotent) or we have been fenced out.
+                if (!isSealed(handle.getSegmentName())) {
+                    checkForFenceOut(handle, lastChunk);
+
+                    // Not fenced out, yet read-only: a previous attempt to seal did not complete.
+                    createMarker(handle.getSegmentName(), SEALED_SUFFIX);
+                }
+            } else {
+                checkForFenceOut(handle, lastChunk);
+                makeReadOnly(lastChunk);
+                createMarker(handle.getSegmentName(), SEALED_SUFFIX);
+            }
+        } catch (NoSuchFileException ex) {
+            checkForFenceOut(handle, lastChunk);
+            throw ex;
+        }
+
+        lastChunk.markReadOnly();
+        LoggerHelpers.traceLeave(log, "seal", traceId, handle);
+    }
+
+    private void concatSync(FileSystemSegmentHandle target, long offset, String sourceSegment) throws Exception {
+        long traceId = LoggerHelpers.traceEnter(log, "concat", target, offset, sourceSegment);
+        SegmentChunk lastChunk = target.getLastChunk();
+        try {
+            checkWritable(target, lastChunk);
+        } catch (NoSuchFileException ex) {
+            checkForFenceOut(target, lastChunk);
+            throw ex;
+        }
+
+        if (offset != lastChunk.getLastOffset()) {
+            throw new BadOffsetException(target.getSegmentName(), lastChunk.getLastOffset(), offset);
+        }
+
+        // Get all chunks for the source segment and verify it is sealed and not truncated.
+        val sourceChunks = findExistingChunks(sourceSegment);
+        Preconditions.checkState(isSealed(sourceSegment),
+                "Cannot concat segment '%s' into '%s' because it is not sealed.", sourceSegment, target.getSegmentName());
+        Preconditions.checkState(readTruncationOffset(sourceSegment) == 0,
+                "Cannot concat segment '%s' into '%s' because it is truncated.", sourceSegment, target.getSegmentName());
+
+        long sourceLength = sourceChunks.get(sourceChunks.size() - 1).getLastOffset();
+        if (sourceLength > 0) {
+            // Copy the source segment into a new chunk for the target and only make it visible (by renaming it) after the
+            // copy is complete. This makes the concat atomic from the point of view of the target. If the target's last
+            // chunk is empty, it will be replaced by the new one, since they will have the same name.
+            Path newPath = getChunkPath(target.getSegmentName(), offset, this.epoch);
+            Path tempPath = newPath.resolveSibling(newPath.getFileName() + TEMP_SUFFIX);
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (SegmentChunk sourceChunk : sourceChunks) {
+                    try (FileChannel sourceChannel = FileChannel.open(sourceChunk.getPath(), StandardOpenOption.READ)) {
+                        transferFully(sourceChannel, sourceChunk.getLength(), channel);
+                    }
+                }
+
+                if (this.config.isSyncOnWrite()) {
+                    channel.force(true);
+                }
+            }
+
+            Files.setPosixFilePermissions(tempPath, READ_WRITE_PERMISSIONS);
+            Files.move(tempPath, newPath, StandardCopyOption.ATOMIC_MOVE);
+            target.addChunk(new SegmentChunk(newPath, offset, sourceLength, this.epoch, false));
+        }
+
+        // Finally, delete the source segment.
+        deleteFiles(sourceSegment, sourceChunks);
+        LoggerHelpers.traceLeave(log, "concat", traceId, target, offset, sourceSegment);
+    }
+
+    private void deleteSync(FileSystemSegmentHandle handle) throws Exception {
+        long traceId = LoggerHelpers.traceEnter(log, "delete", handle);
+        val chunks = findExistingChunks(handle.getSegmentName());
+        val lastChunk = chunks.get(chunks.size() - 1);
+        if (lastChunk.getEpoch() > this.epoch) {
+            throw new StorageNotPrimaryException(handle.getSegmentName(),
+                    String.format("Found a file with a higher epoch (%d) than ours (%d): %s.", lastChunk.getEpoch(), this.epoch, lastChunk));
+        }
+
+        deleteFiles(handle.getSegmentName(), chunks);
+        LoggerHelpers.traceLeave(log, "delete", traceId, handle);
+    }
+
+    private void truncateSync(String segmentName, long offset) throws Exception {
+        long traceId = LoggerHelpers.traceEnter(log, "truncate", segmentName, offset);
+        val chunks = findExistingChunks(segmentName);
+        long length = chunks.get(chunks.size() - 1).getLastOffset();
+        Preconditions.checkArgument(offset >= 0 && offset <= length,
+                "Offset (%s) must be non-negative and less than or equal to the Segment's length (%s).", offset, length);
+        if (offset <= readTruncationOffset(segmentName)) {
+            // Nothing to do.
+            return;
+        }
+
+        // Record the new truncation offset first, then delete all the chunks that are entirely before it. We never delete
+        // the last chunk, even if empty, since that is the one the owner writes to.
+        Path markerPath = getMarkerPath(segmentName, TRUNCATED_SUFFIX);
+        Path tempPath = markerPath.resolveSibling(markerPath.getFileName() + TEMP_SUFFIX);
+        Files.write(tempPath, ByteBuffer.allocate(Long.BYTES).putLong(0, offset).array());
+        Files.move(tempPath, markerPath, StandardCopyOption.ATOMIC_MOVE);
+        this.truncationOffsets.put(segmentName, offset);
+        for (int i = 0; i < chunks.size() - 1 && chunks.get(i).getLastOffset() <= offset; i++) {
+            Files.deleteIfExists(chunks.get(i).getPath());
+        }
+
+        LoggerHelpers.traceLeave(log, "truncate", traceId, segmentName, offset);
+    }
+
+    private int readSync(FileSystemSegmentHandle handle, long offset, byte[] buffer, int bufferOffset, int length) throws Exception {
+        long traceId = LoggerHelpers.traceEnter(log, "read", handle, offset, length);
+        long truncationOffset = this.truncationOffsets.getOrDefault(handle.getSegmentName(), 0L);
+        Preconditions.checkArgument(offset >= truncationOffset,
+                "Offset %s is before the truncation offset %s of the segment.", offset, truncationOffset);
+
+        // Make sure arguments are valid. Read-only handles are not updated internally; they may require a refresh.
+        if (offset + length > handle.getLastChunk().getLastOffset() && handle.isReadOnly()) {
+            handle.replaceChunks(findExistingChunks(handle.getSegmentName()));
+        }
+
+        long lastOffset = handle.getLastChunk().getLastOffset();
+        Preconditions.checkArgument(offset + length <= lastOffset,
+                "Offset %s + length %s is beyond the last offset %s of the segment.", offset, length, lastOffset);
+
+        int attemptCount = 0;
+        while (true) {
+            attemptCount++;
+            try {
+                readChunks(handle.getChunks(), offset, buffer, bufferOffset, length);
+                break;
+            } catch (NoSuchFileException ex) {
+                // The chunk may have been truncated or concatenated away by someone else. Only read-only handles are
+                // expected to be out of date.
+                if (!handle.isReadOnly() || attemptCount >= MAX_READ_ATTEMPTS) {
+                    throw ex;
+                }
+
+                log.info("Unable to read from file '{}' (attempt {}/{}). Refreshing and retrying.", ex.getMessage(), attemptCount, MAX_READ_ATTEMPTS);
+                val chunks = findExistingChunks(handle.getSegmentName());
+                Preconditions.checkArgument(offset >= chunks.get(0).getOffset(),
+                        "Offset %s is before the first offset %s of the segment.", offset, chunks.get(0).getOffset());
+                handle.replaceChunks(chunks);
+            }
+        }
+
+        LoggerHelpers.traceLeave(log, "read", traceId, handle, offset, length);
+        return length;
+    }
+
+    //endregion
+
+    //region Reading and Writing
+
+    /**
+     * Reads the given range of a Segment from its chunks using positional reads.
+     */
+    private void readChunks(List<SegmentChunk> chunks, long offset, byte[] buffer, int bufferOffset, int length) throws IOException {
+        int index = 0;
+        while (index < chunks.size() - 1 && chunks.get(index).getLastOffset() <= offset) {
+            index++;
+        }
+
+        int bytesRead = 0;
+        while (bytesRead < length && index < chunks.size()) {
+            SegmentChunk chunk = chunks.get(index);
+            long chunkOffset = offset + bytesRead - chunk.getOffset();
+            int chunkReadLength = (int) Math.min(length - bytesRead, chunk.getLength() - chunkOffset);
+            assert chunkOffset >= 0 && chunkReadLength >= 0 : "negative chunk read offset or length";
+            if (chunkReadLength > 0) {
+                try (FileChannel channel = FileChannel.open(chunk.getPath(), StandardOpenOption.READ)) {
+                    ByteBuffer target = ByteBuffer.wrap(buffer, bufferOffset + bytesRead, chunkReadLength);
+                    long position = chunkOffset;
+                    while (target.hasRemaining()) {
+                        int count = channel.read(target, position);
+                        if (count < 0) {
+                            throw new EOFException(String.format("Unexpected end of file '%s' at position %d.", chunk, position));
+                        }
+
+                        position += count;
+                    }
+                }
+
+                bytesRead += chunkReadLength;
+            }
+
+            index++;
+        }
+    }
+
+    /**
+     * Writes exactly the given number of bytes from the given InputStream into the given channel, at its current position.
+     * The data is collected into a few buffers and written using a single gathering write (unless the OS writes less than
+     * requested).
+     */
+    private void writeFully(FileChannel channel, InputStream data, int length) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[(length + WRITE_BUFFER_SIZE - 1) / WRITE_BUFFER_SIZE];
+        int remaining = length;
+        for (int i = 0; i < buffers.length; i++) {
+            byte[] array = new byte[Math.min(remaining, WRITE_BUFFER_SIZE)];
+            int count = StreamHelpers.readAll(data, array, 0, array.length);
+            if (count != array.length) {
+                throw new EOFException(String.format("Unable to read %d bytes from the given InputStream.", length));
+            }
+
+            buffers[i] = ByteBuffer.wrap(array);
+            remaining -= array.length;
+        }
+
+        long written = 0;
+        while (written < length) {
+            written += channel.write(buffers);
+        }
+    }
+
+    /**
+     * Appends the first length bytes of the given source channel to the given target channel.
+     */
+    private void transferFully(FileChannel source, long length, FileChannel target) throws IOException {
+        long position = 0;
+        while (position < length) {
+            long count = source.transferTo(position, length - position, target);
+            if (count <= 0) {
+                // FileChannel.transferTo only returns 0 if we are at or beyond the end of the file.
+                throw new EOFException(String.format("Source file is shorter (%d) than expected (%d).", source.size(), length));
+            }
+
+            position += count;
+        }
+    }
+
+    //endregion
+
+    //region Fencing
+
+    /**
+     * Verifies that the given chunk (the last in the handle) can be modified. This must be done for every modifying
+     * operation since the file system does not enforce permissions for privileged users.
+     *
+     * @throws StreamSegmentSealedException If the segment is sealed.
+     * @throws StorageNotPrimaryException   If we have been fenced out.
+     * @throws NoSuchFileException          If the chunk does not exist anymore.
+     */
+    private void checkWritable(FileSystemSegmentHandle handle, SegmentChunk lastChunk) throws Exception {
+        if (isReadOnly(lastChunk.getPath())) {
+            checkForFenceOut(handle, lastChunk);
+            throw new StreamSegmentSealedException(handle.getSegmentName());
+        }
+    }
+
+    /**
+     * Determines whether we have been fenced out of the given segment, in which case a StorageNotPrimaryException is
+     * thrown. If the segment does not exist anymore, a StreamSegmentNotExistsException is thrown. If neither is true,
+     * this method does nothing.
+     */
+    private void checkForFenceOut(FileSystemSegmentHandle handle, SegmentChunk lastChunk) throws Exception {
+        val chunks = findExistingChunks(handle.getSegmentName());
+        val lastSystemChunk = chunks.get(chunks.size() - 1);
+        if (lastSystemChunk.getEpoch() > this.epoch || !lastSystemChunk.getPath().equals(lastChunk.getPath())) {
+            throw new StorageNotPrimaryException(handle.getSegmentName(),
+                    String.format("Last file in the file system (%s) is different than ours (%s).", lastSystemChunk, lastChunk));
+        }
+    }
+
+    private void makeReadOnly(SegmentChunk chunk) throws IOException {
+        Files.setPosixFilePermissions(chunk.getPath(), READ_ONLY_PERMISSIONS);
+        chunk.markReadOnly();
+        log.debug("MakeReadOnly '{}'.", chunk.getPath());
+    }
+
+    private boolean isReadOnly(Path path) throws IOException {
+        return !Files.getPosixFilePermissions(path).contains(PosixFilePermission.OWNER_WRITE);
+    }
+
+    //endregion
+
+    //region File Layout
+
+    /**
+     * Same as findChunks, but throws StreamSegmentNotExistsException if the Segment has no chunks.
+     */
+    private List<SegmentChunk> findExistingChunks(String segmentName) throws IOException, StreamSegmentNotExistsException {
+        val result = findChunks(segmentName);
+        if (result.isEmpty()) {
+            throw new StreamSegmentNotExistsException(segmentName);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets an ordered list of all the chunks for the given Segment.
+     * <p>
+     * A previous owner of the Segment may have written to its chunk after having been fenced out (there is a small window
+     * between checking the permissions and writing); any such data overlaps the next chunk and is ignored.
+     */
+    private List<SegmentChunk> findChunks(String segmentName) throws IOException {
+        Path directory = getSegmentPath(segmentName).getParent();
+        String prefix = getSegmentPath(segmentName).getFileName().toString() + PART_SEPARATOR;
+        val result = new ArrayList<SegmentChunk>();
+        if (!Files.isDirectory(directory)) {
+            return result;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, p -> p.getFileName().toString().startsWith(prefix))) {
+            for (Path p : files) {
+                Matcher m = CHUNK_SUFFIX_PATTERN.matcher(p.getFileName().toString().substring(prefix.length()));
+                if (m.matches()) {
+                    try {
+                        val attributes = Files.readAttributes(p, PosixFileAttributes.class);
+                        boolean readOnly = !attributes.permissions().contains(PosixFilePermission.OWNER_WRITE);
+                        result.add(new SegmentChunk(p, Long.parseLong(m.group(1)), attributes.size(), Long.parseLong(m.group(2)), readOnly));
+                    } catch (NoSuchFileException ex) {
+                        // Deleted while we were listing. Ignore it.
+                    }
+                }
+            }
+        }
+
+        result.sort(Comparator.comparingLong(SegmentChunk::getOffset).thenComparingLong(SegmentChunk::getEpoch));
+        for (int i = 0; i < result.size() - 1; i++) {
+            SegmentChunk current = result.get(i);
+            long nextOffset = result.get(i + 1).getOffset();
+            if (current.getLastOffset() < nextOffset) {
+                throw new IOException(String.format("Files for segment '%s' are not contiguous: '%s' is followed by offset %d.",
+                        segmentName, current, nextOffset));
+            } else if (current.getLastOffset() > nextOffset) {
+                result.set(i, new SegmentChunk(current.getPath(), current.getOffset(), nextOffset - current.getOffset(),
+                        current.getEpoch(), current.isReadOnly()));
+            }
+        }
+
+        return result;
+    }
+
+    private void deleteFiles(String segmentName, List<SegmentChunk> chunks) throws IOException {
+        // Delete the chunks first (in reverse order, so that the segment appears to be gone as soon as possible), then
+        // the markers, which are meaningless without the chunks.
+        for (int i = chunks.size() - 1; i >= 0; i--) {
+            Files.deleteIfExists(chunks.get(i).getPath());
+        }
+
+        Files.deleteIfExists(getMarkerPath(segmentName, SEALED_SUFFIX));
+        Files.deleteIfExists(getMarkerPath(segmentName, TRUNCATED_SUFFIX));
+        this.truncationOffsets.remove(segmentName);
+        log.debug("Deleted '{}'.", segmentName);
+    }
+
+    private boolean isSealed(String segmentName) {
+        return Files.exists(getMarkerPath(segmentName, SEALED_SUFFIX));
+    }
+
+    private void createMarker(String segmentName, String suffix) throws IOException {
+        try {
+            Files.createFile(getMarkerPath(segmentName, suffix));
+        } catch (FileAlreadyExistsException ex) {
+            // Nothing to do.
+        }
+    }
+
+    private void loadTruncationOffset(String segmentName) throws IOException {
+        long offset = readTruncationOffset(segmentName);
+        if (offset > 0) {
+            this.truncationOffsets.put(segmentName, offset);
+        }
+    }
+
+    private long readTruncationOffset(String segmentName) throws IOException {
+        try {
+            return ByteBuffer.wrap(Files.readAllBytes(getMarkerPath(segmentName, TRUNCATED_SUFFIX))).getLong();
+        } catch (NoSuchFileException ex) {
+            return 0;
+        }
+    }
+
+    private Path getChunkPath(String segmentName, long offset, long epoch) {
+        Path segmentPath = getSegmentPath(segmentName);
+        return segmentPath.resolveSibling(segmentPath.getFileName() + PART_SEPARATOR + offset + PART_SEPARATOR + epoch);
+    }
+
+    private Path getMarkerPath(String segmentName, String suffix) {
+        Path segmentPath = getSegmentPath(segmentName);
+        return segmentPath.resolveSibling(segmentPath.getFileName() + suffix);
+    }
+
+    private Path getSegmentPath(String segmentName) {
+        Path result = this.root.resolve(segmentName).normalize();
+        Preconditions.checkArgument(result.startsWith(this.root) && !result.equals(this.root), "Invalid segment name '%s'.", segmentName);
+        return result;
+    }
+
+    //endregion
+
+    //region Helpers
+
+    private CompletableFuture<Void> runAsync(String segmentName, RunnableWithException operation) {
+        return supplyAsync(segmentName, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    private <R> CompletableFuture<R> supplyAsync(String segmentName, Callable<? extends R> operation) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Preconditions.checkState(this.epoch >= 0, "FileSystemStorage is not initialized.");
+        CompletableFuture<R> result = new CompletableFuture<>();
+        this.executor.execute(() -> {
+            try {
+                result.complete(operation.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(translateException(segmentName, e));
+            }
+        });
+
+        return result;
+    }
+
+    private Throwable translateException(String segmentName, Throwable e) {
+        if (e instanceof NoSuchFileException) {
+            return new StreamSegmentNotExistsException(segmentName, e);
+        } else if (e instanceof FileAlreadyExistsException) {
+            return new StreamSegmentExistsException(segmentName, e);
+        } else {
+            return e;
+        }
+    }
+
+    /**
+     * Casts the given handle as a FileSystemSegmentHandle that has isReadOnly == false.
+     */
+    private FileSystemSegmentHandle asWritableHandle(SegmentHandle handle) {
+        Preconditions.checkArgument(!handle.isReadOnly(), "handle must not be read-only.");
+        return asReadableHandle(handle);
+    }
+
+    /**
+     * Casts the given handle as a FileSystemSegmentHandle irrespective of its isReadOnly value.
+     */
+    private FileSystemSegmentHandle asReadableHandle(SegmentHandle handle) {
+        Preconditions.checkArgument(handle instanceof FileSystemSegmentHandle, "handle must be of type FileSystemSegmentHandle.");
+        return (FileSystemSegmentHandle) handle;
+    }
+
+    //endregion
+}
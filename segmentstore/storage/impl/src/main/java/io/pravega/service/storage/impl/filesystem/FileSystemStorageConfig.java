@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.filesystem;
+
+import io.pravega.common.util.ConfigBuilder;
+import io.pravega.common.util.ConfigurationException;
+import io.pravega.common.util.Property;
+import io.pravega.common.util.TypedProperties;
+import lombok.Getter;
+
+/**
+ * Configuration for the local (or mounted) file system-backed Storage.
+ */
+public class FileSystemStorageConfig {
+    //region Config Names
+
+    public static final Property<String> ROOT = Property.named("root", "/tmp/pravega/storage");
+    public static final Property<Boolean> SYNC_ON_WRITE = Property.named("syncOnWrite", true);
+    private static final String COMPONENT_CODE = "filesystem";
+
+    //endregion
+
+    //region Members
+
+    /**
+     * The directory where all Segment files are stored. All the files under this directory are exclusively owned by
+     * Pravega.
+     */
+    @Getter
+    private final String root;
+
+    /**
+     * Whether to sync every write (and concat) to disk before acknowledging it. Disabling this is only safe for testing
+     * purposes, since the SegmentStore assumes anything written to Storage is durable.
+     */
+    @Getter
+    private final boolean syncOnWrite;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileSystemStorageConfig class.
+     *
+     * @param properties The TypedProperties object to read Properties from.
+     */
+    private FileSystemStorageConfig(TypedProperties properties) throws ConfigurationException {
+        this.root = properties.get(ROOT);
+        this.syncOnWrite = properties.getBoolean(SYNC_ON_WRITE);
+    }
+
+    /**
+     * Creates a new ConfigBuilder that can be used to create instances of this class.
+     *
+     * @return A new Builder for this class.
+     */
+    public static ConfigBuilder<FileSystemStorageConfig> builder() {
+        return new ConfigBuilder<>(COMPONENT_CODE, FileSystemStorageConfig::new);
+    }
+
+    //endregion
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.filesystem;
+
+import com.google.common.base.Preconditions;
+import io.pravega.service.storage.Storage;
+import io.pravega.service.storage.StorageFactory;
+import java.util.concurrent.Executor;
+
+/**
+ * Factory for file system-backed Storage adapters.
+ */
+public class FileSystemStorageFactory implements StorageFactory {
+    private final FileSystemStorageConfig config;
+    private final Executor executor;
+
+    /**
+     * Creates a new instance of the FileSystemStorageFactory class.
+     *
+     * @param config   The Configuration to use.
+     * @param executor An executor to use for background operations.
+     */
+    public FileSystemStorageFactory(FileSystemStorageConfig config, Executor executor) {
+        Preconditions.checkNotNull(config, "config");
+        Preconditions.checkNotNull(executor, "executor");
+        this.config = config;
+        this.executor = executor;
+    }
+
+    @Override
+    public Storage createStorageAdapter() {
+        return new FileSystemStorage(this.config, this.executor);
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.filesystem;
+
+import com.google.common.base.Preconditions;
+import java.nio.file.Path;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+
+/**
+ * Describes a single file (chunk) that makes up part of a Segment.
+ */
+@ThreadSafe
+class SegmentChunk {
+    //region Members
+
+    /**
+     * The path to the file.
+     */
+    @Getter
+    private final Path path;
+
+    /**
+     * Segment offset of the first byte in this file. This is derived from the name.
+     */
+    @Getter
+    private final long offset;
+
+    /**
+     * Epoch when the file was created. This is derived from the name.
+     */
+    @Getter
+    private final long epoch;
+
+    @GuardedBy("this")
+    private long length;
+    @GuardedBy("this")
+    private boolean readOnly;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the SegmentChunk class.
+     *
+     * @param path     The path of the file.
+     * @param offset   The Segment Offset of the first byte in the file.
+     * @param length   The length of the file.
+     * @param epoch    The epoch the file was created in.
+     * @param readOnly Whether the file is read-only.
+     */
+    SegmentChunk(Path path, long offset, long length, long epoch, boolean readOnly) {
+        this.path = path;
+        this.offset = offset;
+        this.length = length;
+        this.epoch = epoch;
+        this.readOnly = readOnly;
+    }
+
+    //endregion
+
+    //region Properties
+
+    /**
+     * Updates the chunk to indicate its file is read-only. This does not change the underlying file.
+     */
+    synchronized void markReadOnly() {
+        this.readOnly = true;
+    }
+
+    /**
+     * Gets a value indicating whether the file is read-only or not.
+     */
+    synchronized boolean isReadOnly() {
+        return this.readOnly;
+    }
+
+    /**
+     * Increases the length of this chunk by the given amount.
+     *
+     * @param delta The amount to increase by.
+     */
+    synchronized void increaseLength(int delta) {
+        Preconditions.checkState(!this.readOnly, "Cannot increase the length of a read-only chunk.");
+        this.length += delta;
+    }
+
+    /**
+     * Sets the length of the chunk to the given value.
+     *
+     * @param value The value to set.
+     */
+    synchronized void setLength(long value) {
+        Preconditions.checkState(!this.readOnly, "Cannot change the length of a read-only chunk.");
+        this.length = value;
+    }
+
+    /**
+     * Gets a value indicating the length of this chunk.
+     */
+    synchronized long getLength() {
+        return this.length;
+    }
+
+    /**
+     * Gets a value indicating the Segment offset right after the last byte in this chunk.
+     */
+    synchronized long getLastOffset() {
+        return this.offset + this.length;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s (%d, %s)", this.path, this.length, this.readOnly ? "R" : "RW");
+    }
+
+    //endregion
+}
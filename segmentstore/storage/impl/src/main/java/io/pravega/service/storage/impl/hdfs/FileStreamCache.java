@@ -0,0 +1,316 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.hdfs;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.permission.FsAction;
+import org.apache.hadoop.hdfs.DistributedFileSystem;
+import org.apache.hadoop.io.IOUtils;
+
+/**
+ * Keeps HDFS append (output) and positional-read (input) streams open across operations, so that we do not have to
+ * pay the cost of opening (and, for appends, acquiring a lease, setting up a pipeline and completing the last block)
+ * and closing a file for every single write or read.
+ * <p>
+ * Output streams are handed out exclusively: getOutputStream() removes the stream from the cache (if any), and the caller
+ * must either hand it back using returnOutputStream() after a successful write, or close it. Input streams are shared;
+ * they are only used for positional reads, which do not depend on (or change) the position of the stream.
+ * <p>
+ * Both kinds of streams are closed when they have not been used for a while (see cleanUp()), when the cache is full
+ * (least recently used first), or when the file they point to is modified by something other than an append (see
+ * invalidate()).
+ * <p>
+ * Writes to cached output streams are only flushed to the DataNodes, so the NameNode does not learn the new length of a
+ * file until its stream is closed (by any of the above, including sealing it or another instance fencing it out). Until
+ * then, getLength() provides the length of the data written through this cache.
+ */
+@Slf4j
+@ThreadSafe
+class FileStreamCache implements AutoCloseable {
+    //region Members
+
+    private final FileSystem fileSystem;
+    private final boolean enabled;
+    private final Cache<Path, FSDataOutputStream> outputStreams;
+    private final Cache<Path, FSDataInputStream> inputStreams;
+    private final ConcurrentHashMap<Path, Long> flushedLengths;
+    private final boolean leaseFenced;
+    private final AtomicBoolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileStreamCache class.
+     *
+     * @param fileSystem The FileSystem to open streams from.
+     * @param config     The HDFSStorageConfig to use.
+     */
+    FileStreamCache(FileSystem fileSystem, HDFSStorageConfig config) {
+        this.fileSystem = fileSystem;
+        this.enabled = config.getStreamCacheMaxSize() > 0;
+        this.outputStreams = createCache(config);
+        this.inputStreams = createCache(config);
+        this.flushedLengths = new ConcurrentHashMap<>();
+        this.leaseFenced = fileSystem instanceof DistributedFileSystem;
+        this.closed = new AtomicBoolean();
+    }
+
+    private <T extends Closeable> Cache<Path, T> createCache(HDFSStorageConfig config) {
+        return CacheBuilder.newBuilder()
+                           .maximumSize(config.getStreamCacheMaxSize())
+                           .expireAfterAccess(config.getStreamCacheIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                           .removalListener(this::onRemoval)
+                           .build();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            closeAll(this.outputStreams.asMap());
+            closeAll(this.inputStreams.asMap());
+            this.flushedLengths.clear();
+        }
+    }
+
+    /**
+     * Closes all the streams that have not been used for longer than the configured idle timeout. The underlying cache
+     * only does so as a side effect of being accessed, so this needs to be invoked periodically in order to release
+     * the streams (and the HDFS leases held by output streams) of files that are no longer being used.
+     */
+    void cleanUp() {
+        this.outputStreams.cleanUp();
+        this.inputStreams.cleanUp();
+    }
+
+    private <T extends Closeable> void closeAll(ConcurrentMap<Path, T> streams) {
+        for (Path path : streams.keySet()) {
+            close(streams.remove(path));
+        }
+    }
+
+    //endregion
+
+    //region Output Streams
+
+    /**
+     * Gets an FSDataOutputStream that can be used to append to the given file. If a stream for this file is already
+     * cached, it is removed from the cache and returned (the caller has exclusive use of it until it returns it using
+     * returnOutputStream()); otherwise a new one is opened.
+     * <p>
+     * Permissions are only verified by HDFS when a file is opened, so a cached stream could otherwise be used to bypass
+     * fencing by another instance. On HDFS, the lease held by the stream takes care of that: the instance that fences
+     * this one out recovers the lease on the file before using it, after which any write to this stream fails. File
+     * systems without leases do not offer this guarantee, so for those we verify that the file is still writable before
+     * handing out a cached stream. Sealing a file (by this instance) invalidates its cached streams.
+     *
+     * @param path The path of the file to append to.
+     * @return The FSDataOutputStream.
+     * @throws IOException If the stream could not be opened, or if the file has been made read-only (AclException).
+     */
+    FSDataOutputStream getOutputStream(Path path) throws IOException {
+        FSDataOutputStream stream = this.outputStreams.asMap().remove(path);
+        if (stream == null) {
+            Metrics.OUTPUT_STREAM_CACHE_MISSES.inc();
+            return this.fileSystem.append(path);
+        }
+
+        Metrics.OUTPUT_STREAM_CACHE_HITS.inc();
+        if (!this.leaseFenced) {
+            try {
+                if (this.fileSystem.getFileStatus(path).getPermission().getUserAction() == FsAction.READ) {
+                    throw HDFSExceptionHelpers.segmentSealedException(path.getName());
+                }
+            } catch (IOException ex) {
+                closeOutputStream(path, stream);
+                throw ex;
+            }
+        }
+
+        return stream;
+    }
+
+    /**
+     * Returns an FSDataOutputStream previously obtained using getOutputStream() to the cache. The stream must be in a
+     * consistent state (i.e., the last write to it completed successfully); streams that failed must be closed instead.
+     *
+     * @param path   The path of the file the stream points to.
+     * @param stream The FSDataOutputStream.
+     */
+    void returnOutputStream(Path path, FSDataOutputStream stream) {
+        if (this.enabled && !this.closed.get()) {
+            this.outputStreams.put(path, stream);
+            if (this.closed.get()) {
+                // We were closed while adding it; make sure it does not leak.
+                closeOutputStream(path, this.outputStreams.asMap().remove(path));
+            }
+        } else {
+            closeOutputStream(path, stream);
+        }
+    }
+
+    /**
+     * Closes an FSDataOutputStream previously obtained using getOutputStream() instead of returning it to the cache,
+     * such as when a write to it failed.
+     *
+     * @param path   The path of the file the stream points to.
+     * @param stream The FSDataOutputStream.
+     */
+    void closeOutputStream(Path path, FSDataOutputStream stream) {
+        close(stream);
+        this.flushedLengths.remove(path);
+    }
+
+    /**
+     * Flushes all data written to the given FSDataOutputStream to the DataNodes, without closing it. Once this returns,
+     * the data is as durable as if the stream had been closed, and it can be read by anyone who opens the file.
+     * <p>
+     * This does not record the new length of the file with the NameNode (that would require another round trip to it for
+     * every write). That happens when the stream is closed; until then, the length is available from getLength().
+     *
+     * @param path   The path of the file the stream points to.
+     * @param stream The FSDataOutputStream to flush.
+     * @throws IOException If the stream could not be flushed.
+     */
+    void flush(Path path, FSDataOutputStream stream) throws IOException {
+        stream.hflush();
+        this.flushedLengths.put(path, stream.getPos());
+    }
+
+    /**
+     * Gets the length of the given file, taking into account any data that was flushed to it using a stream that is
+     * still open (and thus not yet reflected in the length the NameNode reports for it).
+     *
+     * @param path             The path of the file.
+     * @param fileSystemLength The length of the file, as reported by the FileSystem.
+     * @return The length of the file.
+     */
+    long getLength(Path path, long fileSystemLength) {
+        Long flushedLength = this.flushedLengths.get(path);
+        return flushedLength == null ? fileSystemLength : Math.max(flushedLength, fileSystemLength);
+    }
+
+    //endregion
+
+    //region Input Streams
+
+    /**
+     * Reads exactly the given number of bytes from the given file, at the given position, using a cached input stream
+     * for that file, if any.
+     * <p>
+     * A cached stream may be stale: it may have been opened before the file grew (in which case it will not be able to
+     * read the new data) or it may have been closed due to eviction while we were using it. If a read fails for any
+     * reason other than the file not existing, the stream is discarded and the read is retried once with a new stream.
+     *
+     * @param path     The path of the file to read from.
+     * @param position The position within the file to read at.
+     * @param buffer   The buffer to read into.
+     * @param offset   The offset within the buffer to start writing at.
+     * @param length   The number of bytes to read.
+     * @throws FileNotFoundException If the file does not exist.
+     * @throws EOFException          If the file has fewer than position + length bytes.
+     * @throws IOException           If another exception occurred.
+     */
+    void readFully(Path path, long position, byte[] buffer, int offset, int length) throws IOException {
+        try {
+            readFullyOnce(path, position, buffer, offset, length);
+        } catch (FileNotFoundException ex) {
+            invalidate(path);
+            throw ex;
+        } catch (IOException ex) {
+            log.debug("Unable to read from cached stream for '{}'; retrying with a new stream. {}", path, ex.toString());
+            invalidate(path);
+            readFullyOnce(path, position, buffer, offset, length);
+        }
+    }
+
+    private void readFullyOnce(Path path, long position, byte[] buffer, int offset, int length) throws IOException {
+        if (!this.enabled || this.closed.get()) {
+            try (FSDataInputStream stream = this.fileSystem.open(path)) {
+                stream.readFully(position, buffer, offset, length);
+            }
+
+            return;
+        }
+
+        FSDataInputStream stream = this.inputStreams.getIfPresent(path);
+        if (stream == null) {
+            Metrics.INPUT_STREAM_CACHE_MISSES.inc();
+            stream = this.fileSystem.open(path);
+            FSDataInputStream existing = this.inputStreams.asMap().putIfAbsent(path, stream);
+            if (existing != null) {
+                // Someone else beat us to it. Use theirs.
+                close(stream);
+                stream = existing;
+            }
+        } else {
+            Metrics.INPUT_STREAM_CACHE_HITS.inc();
+        }
+
+        stream.readFully(position, buffer, offset, length);
+    }
+
+    //endregion
+
+    //region Invalidation
+
+    /**
+     * Closes and discards any cached streams (output or input) for the given file. This must be invoked before making
+     * any change to a file, other than appending to it, such as changing its permissions, concatenating it or deleting it.
+     *
+     * @param path The path of the file.
+     */
+    void invalidate(Path path) {
+        closeOutputStream(path, this.outputStreams.asMap().remove(path));
+        close(this.inputStreams.asMap().remove(path));
+    }
+
+    private void onRemoval(RemovalNotification<Path, ? extends Closeable> notification) {
+        // Explicit removals are handled by whoever removed the stream (it may have been handed out to a caller).
+        if (notification.wasEvicted() || notification.getCause() == RemovalCause.REPLACED) {
+            log.debug("Closing stream for '{}' ({}).", notification.getKey(), notification.getCause());
+            close(notification.getValue());
+            if (notification.wasEvicted() && notification.getValue() instanceof FSDataOutputStream) {
+                // Closing it has recorded the length of the file with the NameNode.
+                this.flushedLengths.remove(notification.getKey());
+            }
+        }
+    }
+
+    private static void close(Closeable stream) {
+        if (stream != null) {
+            IOUtils.closeStream(stream);
+        }
+    }
+
+    //endregion
+}
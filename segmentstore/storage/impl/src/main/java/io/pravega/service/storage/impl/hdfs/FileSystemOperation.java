@@ -18,7 +18,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -27,6 +26,7 @@ import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.permission.FsAction;
 import org.apache.hadoop.fs.permission.FsPermission;
+import org.apache.hadoop.hdfs.DistributedFileSystem;
 
 /**
  * Base for any Operation that accesses the FileSystem.
@@ -185,12 +185,15 @@ abstract class FileSystemOperation<T> {
         try {
             // First, delete empty files. There is no harm in doing so.
             for (Path p : toDelete) {
+                this.context.streams.invalidate(p);
                 if (this.context.fileSystem.delete(p, false) && this.context.fileSystem.exists(p)) {
                     throw new IOException("Could not delete empty file " + p);
                 }
             }
 
-            // Finally, concatenate the source files into the target.
+            // Finally, concatenate the source files into the target. HDFS requires that none of these be open for writing.
+            this.context.streams.invalidate(target.getPath());
+            Arrays.stream(toConcat).forEach(this.context.streams::invalidate);
             this.context.fileSystem.concat(target.getPath(), toConcat);
         } finally {
             if (makeReadOnly) {
@@ -251,7 +254,8 @@ abstract class FileSystemOperation<T> {
             throw new FileNameFormatException(fileName, "Could not extract offset or epoch.", nfe);
         }
 
-        return new FileDescriptor(fs.getPath(), offset, fs.getLen(), epoch, isReadOnly(fs));
+        long length = this.context.streams.getLength(fs.getPath(), fs.getLen());
+        return new FileDescriptor(fs.getPath(), offset, length, epoch, isReadOnly(fs));
     }
 
     /**
@@ -291,6 +295,7 @@ abstract class FileSystemOperation<T> {
      * @throws IOException If an exception occurred.
      */
     void deleteFile(FileDescriptor file) throws IOException {
+        this.context.streams.invalidate(file.getPath());
         this.context.fileSystem.delete(file.getPath(), true);
         log.debug("Deleted '{}'.", file.getPath());
     }
@@ -347,6 +352,9 @@ abstract class FileSystemOperation<T> {
      * @throws IOException If an exception occurred.
      */
     boolean makeReadOnly(FileDescriptor file) throws IOException {
+        // Close any streams we may have open for this file. Permissions are only checked when a file is opened, and a
+        // read-only file should not have any writers holding on to it.
+        this.context.streams.invalidate(file.getPath());
         if (isReadOnly(this.context.fileSystem.getFileStatus(file.getPath()))) {
             return false;
         }
@@ -354,9 +362,41 @@ abstract class FileSystemOperation<T> {
         this.context.fileSystem.setPermission(file.getPath(), READONLY_PERMISSION);
         log.debug("MakeReadOnly '{}'.", file.getPath());
         file.markReadOnly();
+
+        // Another instance may still have this file open for appending (it keeps its append streams cached), in which
+        // case the file is under construction and cannot be concatenated until the lease on it is recovered.
+        recoverLease(file.getPath());
         return true;
     }
 
+    /**
+     * Recovers the lease on the given file, if any. This revokes the ability of anyone who still has the file open to
+     * append to it, and finalizes its length to whatever was flushed to it.
+     * <p>
+     * Lease recovery completes asynchronously. Rather than blocking until it does, this throws a
+     * LeaseRecoveryInProgressException, upon which HDFSStorage retries the whole operation after a delay. Operations
+     * must therefore invoke this again (it is idempotent) before relying on the file being closed.
+     *
+     * @param path The path of the file.
+     * @throws LeaseRecoveryInProgressException If the file is still open, and the lease on it is being recovered.
+     * @throws IOException                      If another exception occurred.
+     */
+    void recoverLease(Path path) throws IOException {
+        if (!(this.context.fileSystem instanceof DistributedFileSystem)) {
+            // Only HDFS has leases.
+            return;
+        }
+
+        val dfs = (DistributedFileSystem) this.context.fileSystem;
+        if (dfs.isFileClosed(path) || dfs.recoverLease(path)) {
+            // The file is not open by anyone (anymore).
+            return;
+        }
+
+        log.debug("Recovering lease on '{}'.", path);
+        throw new LeaseRecoveryInProgressException(path);
+    }
+
     /**
      * Makes the file represented by the given FileDescriptor non-read-only (read-write).
      *
@@ -398,11 +438,18 @@ abstract class FileSystemOperation<T> {
     /**
      * Context for each operation.
      */
-    @RequiredArgsConstructor
     static class OperationContext {
         final long epoch;
         final FileSystem fileSystem;
         final HDFSStorageConfig config;
+        final FileStreamCache streams;
+
+        OperationContext(long epoch, FileSystem fileSystem, HDFSStorageConfig config) {
+            this.epoch = epoch;
+            this.fileSystem = fileSystem;
+            this.config = config;
+            this.streams = new FileStreamCache(fileSystem, config);
+        }
     }
 
     //endregion
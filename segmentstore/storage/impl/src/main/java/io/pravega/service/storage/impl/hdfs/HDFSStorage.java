@@ -10,6 +10,7 @@
 package io.pravega.service.storage.impl.hdfs;
 
 import io.pravega.common.Exceptions;
+import io.pravega.common.Timer;
 import io.pravega.common.function.RunnableWithException;
 import io.pravega.service.contracts.SegmentProperties;
 import io.pravega.service.storage.SegmentHandle;
@@ -20,7 +21,9 @@ import java.io.InputStream;
 import java.time.Duration;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import lombok.SneakyThrows;
@@ -79,10 +82,13 @@ import org.apache.hadoop.fs.FileSystem;
 class HDFSStorage implements Storage {
     //region Members
 
-    private final Executor executor;
+    private static final Duration LEASE_RECOVERY_TIMEOUT = Duration.ofSeconds(60);
+    private static final Duration LEASE_RECOVERY_RETRY_DELAY = Duration.ofMillis(200);
+    private final ScheduledExecutorService executor;
     private final HDFSStorageConfig config;
     private final AtomicBoolean closed;
     private FileSystemOperation.OperationContext context;
+    private ScheduledFuture<?> streamCleanup;
 
     //endregion
 
@@ -94,7 +100,7 @@ class HDFSStorage implements Storage {
      * @param config   The configuration to use.
      * @param executor The executor to use for running async operations.
      */
-    HDFSStorage(HDFSStorageConfig config, Executor executor) {
+    HDFSStorage(HDFSStorageConfig config, ScheduledExecutorService executor) {
         Preconditions.checkNotNull(config, "config");
         Preconditions.checkNotNull(executor, "executor");
         this.config = config;
@@ -109,8 +115,13 @@ class HDFSStorage implements Storage {
     @Override
     public void close() {
         if (!this.closed.getAndSet(true)) {
+            if (this.streamCleanup != null) {
+                this.streamCleanup.cancel(true);
+            }
+
             if (this.context != null) {
                 try {
+                    this.context.streams.close();
                     this.context.fileSystem.close();
                     this.context = null;
                 } catch (IOException e) {
@@ -135,6 +146,14 @@ class HDFSStorage implements Storage {
         conf.set("fs.default.fs", this.config.getHdfsHostURL());
         conf.set("fs.hdfs.impl", "org.apache.hadoop.hdfs.DistributedFileSystem");
         this.context = new FileSystemOperation.OperationContext(epoch, openFileSystem(conf), this.config);
+        if (this.config.getStreamCacheMaxSize() > 0) {
+            // Idle streams (and the leases held by output streams) would otherwise only be released upon further use.
+            long cleanupPeriodMillis = Math.max(1, this.config.getStreamCacheIdleTimeout().toMillis() / 2);
+            FileStreamCache streams = this.context.streams;
+            this.streamCleanup = this.executor.scheduleWithFixedDelay(streams::cleanUp, cleanupPeriodMillis, cleanupPeriodMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+
         log.info("Initialized (HDFSHost = '{}', Epoch = {}).", this.config.getHdfsHostURL(), epoch);
     }
 
@@ -200,37 +219,50 @@ class HDFSStorage implements Storage {
      * Executes the given FileSystemOperation asynchronously and returns a Future that will be completed when it finishes.
      */
     private <T extends FileSystemOperation & RunnableWithException> CompletableFuture<Void> runAsync(T operation) {
-        ensureInitializedAndNotClosed();
-        CompletableFuture<Void> result = new CompletableFuture<>();
-        this.executor.execute(() -> {
-            try {
-                operation.run();
-                result.complete(null);
-            } catch (Throwable e) {
-                handleException(e, operation, result);
-            }
+        return execute(operation, () -> {
+            operation.run();
+            return null;
         });
-
-        return result;
     }
 
     /**
      * Executes the given FileSystemOperation asynchronously and returns a Future that will be completed with the result.
      */
     private <R, T extends FileSystemOperation & Callable<? extends R>> CompletableFuture<R> supplyAsync(T operation) {
+        return execute(operation, operation);
+    }
+
+    private <R> CompletableFuture<R> execute(FileSystemOperation<?> operation, Callable<? extends R> call) {
         ensureInitializedAndNotClosed();
         CompletableFuture<R> result = new CompletableFuture<>();
-        this.executor.execute(() -> {
-            try {
-                result.complete(operation.call());
-            } catch (Throwable e) {
-                handleException(e, operation, result);
-            }
-        });
-
+        Timer timer = new Timer();
+        this.executor.execute(() -> attempt(operation, call, timer, result));
         return result;
     }
 
+    /**
+     * Makes an attempt at executing the given FileSystemOperation. If it needs to wait for a lease to be recovered, the
+     * attempt is repeated after a delay (instead of holding on to an executor thread while waiting), until
+     * LEASE_RECOVERY_TIMEOUT has elapsed since the first one.
+     */
+    private <R> void attempt(FileSystemOperation<?> operation, Callable<? extends R> call, Timer timer, CompletableFuture<R> result) {
+        try {
+            result.complete(call.call());
+        } catch (LeaseRecoveryInProgressException ex) {
+            if (this.closed.get()) {
+                handleException(ex, operation, result);
+            } else if (timer.getElapsed().compareTo(LEASE_RECOVERY_TIMEOUT) > 0) {
+                handleException(new IOException(String.format("Unable to complete operation within %s.", LEASE_RECOVERY_TIMEOUT), ex),
+                        operation, result);
+            } else {
+                this.executor.schedule(() -> attempt(operation, call, timer, result),
+                        LEASE_RECOVERY_RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        } catch (Throwable e) {
+            handleException(e, operation, result);
+        }
+    }
+
     private void handleException(Throwable e, FileSystemOperation<?> operation, CompletableFuture<?> result) {
         String segmentName = operation.getTarget() instanceof SegmentHandle
                 ? ((SegmentHandle) operation.getTarget()).getSegmentName()
@@ -11,8 +11,10 @@ package io.pravega.service.storage.impl.hdfs;
 
 import io.pravega.common.util.ConfigBuilder;
 import io.pravega.common.util.ConfigurationException;
+import io.pravega.common.util.InvalidPropertyValueException;
 import io.pravega.common.util.Property;
 import io.pravega.common.util.TypedProperties;
+import java.time.Duration;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -27,6 +29,8 @@ public class HDFSStorageConfig {
     public static final Property<String> ROOT = Property.named("hdfsRoot", "");
     public static final Property<Integer> REPLICATION = Property.named("replication", 3);
     public static final Property<Integer> BLOCK_SIZE = Property.named("blockSize", 1024 * 1024);
+    public static final Property<Integer> STREAM_CACHE_MAX_SIZE = Property.named("streamCacheMaxSize", 1024);
+    public static final Property<Integer> STREAM_CACHE_IDLE_TIMEOUT_MILLIS = Property.named("streamCacheIdleTimeoutMillis", 30 * 1000);
     private static final String COMPONENT_CODE = "hdfs";
 
     //endregion
@@ -59,6 +63,19 @@ public class HDFSStorageConfig {
     @Getter
     private final long blockSize;
 
+    /**
+     * The maximum number of open append streams (and, separately, of open read streams) to keep around for reuse. If 0,
+     * streams are opened and closed for every operation.
+     */
+    @Getter
+    private final int streamCacheMaxSize;
+
+    /**
+     * The amount of time after which an unused, cached stream is closed.
+     */
+    @Getter
+    private final Duration streamCacheIdleTimeout;
+
     //endregion
 
     //region Constructor
@@ -73,6 +90,19 @@ public class HDFSStorageConfig {
         this.hdfsRoot = properties.get(ROOT);
         this.replication = (short) properties.getInt(REPLICATION);
         this.blockSize = properties.getInt(BLOCK_SIZE);
+        this.streamCacheMaxSize = properties.getInt(STREAM_CACHE_MAX_SIZE);
+        if (this.streamCacheMaxSize < 0) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be a non-negative integer.",
+                    STREAM_CACHE_MAX_SIZE, this.streamCacheMaxSize));
+        }
+
+        int idleTimeoutMillis = properties.getInt(STREAM_CACHE_IDLE_TIMEOUT_MILLIS);
+        if (idleTimeoutMillis <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be a positive integer.",
+                    STREAM_CACHE_IDLE_TIMEOUT_MILLIS, idleTimeoutMillis));
+        }
+
+        this.streamCacheIdleTimeout = Duration.ofMillis(idleTimeoutMillis);
     }
 
     /**
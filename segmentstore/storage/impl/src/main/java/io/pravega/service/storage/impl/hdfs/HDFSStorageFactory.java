@@ -12,14 +12,14 @@ package io.pravega.service.storage.impl.hdfs;
 import io.pravega.service.storage.Storage;
 import io.pravega.service.storage.StorageFactory;
 import com.google.common.base.Preconditions;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Factory for HDFS Storage adapters.
  */
 public class HDFSStorageFactory implements StorageFactory {
     private final HDFSStorageConfig config;
-    private final Executor executor;
+    private final ScheduledExecutorService executor;
 
     /**
      * Creates a new instance of the HDFSStorageFactory class.
@@ -27,7 +27,7 @@ public class HDFSStorageFactory implements StorageFactory {
      * @param config   The Configuration to use.
      * @param executor An executor to use for background operations.
      */
-    public HDFSStorageFactory(HDFSStorageConfig config, Executor executor) {
+    public HDFSStorageFactory(HDFSStorageConfig config, ScheduledExecutorService executor) {
         Preconditions.checkNotNull(config, "config");
         Preconditions.checkNotNull(executor, "executor");
         this.config = config;
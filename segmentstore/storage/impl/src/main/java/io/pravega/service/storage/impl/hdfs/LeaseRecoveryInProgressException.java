@@ -0,0 +1,23 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.hdfs;
+
+import java.io.IOException;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * Exception that indicates an operation cannot proceed until the lease on a file has been recovered. The operation
+ * should be retried after a delay.
+ */
+class LeaseRecoveryInProgressException extends IOException {
+    LeaseRecoveryInProgressException(Path path) {
+        super(String.format("Lease recovery on '%s' is in progress.", path));
+    }
+}
@@ -24,4 +24,8 @@ final class Metrics {
     static final OpStatsLogger WRITE_LATENCY = HDFS_LOGGER.createStats(MetricsNames.HDFS_WRITE_LATENCY);
     static final Counter READ_BYTES = HDFS_LOGGER.createCounter(MetricsNames.HDFS_READ_BYTES);
     static final Counter WRITE_BYTES = HDFS_LOGGER.createCounter(MetricsNames.HDFS_WRITE_BYTES);
+    static final Counter OUTPUT_STREAM_CACHE_HITS = HDFS_LOGGER.createCounter(MetricsNames.HDFS_OUTPUT_STREAM_CACHE_HITS);
+    static final Counter OUTPUT_STREAM_CACHE_MISSES = HDFS_LOGGER.createCounter(MetricsNames.HDFS_OUTPUT_STREAM_CACHE_MISSES);
+    static final Counter INPUT_STREAM_CACHE_HITS = HDFS_LOGGER.createCounter(MetricsNames.HDFS_INPUT_STREAM_CACHE_HITS);
+    static final Counter INPUT_STREAM_CACHE_MISSES = HDFS_LOGGER.createCounter(MetricsNames.HDFS_INPUT_STREAM_CACHE_MISSES);
 }
\ No newline at end of file
@@ -64,8 +64,12 @@ class OpenWriteOperation extends FileSystemOperation<String> implements Callable
                     throw new StorageNotPrimaryException(segmentName,
                             String.format("Last file has our epoch (%d) but it is read-only: %s.", this.context.epoch, lastFile.getPath()));
                 } else {
-                    // The last file is read-only and not sealed. This segment is fenced off and we can continue using it.
-                    result = fenceOut(segmentName, lastFile.getLastOffset());
+                    // The last file is read-only and not sealed. This segment is fenced off and we can continue using it,
+                    // once its previous owner can no longer append to it (we may have been retried while that was the case).
+                    // Only then is the file's length final.
+                    recoverLease(lastFile.getPath());
+                    long lastOffset = lastFile.getOffset() + this.context.fileSystem.getFileStatus(lastFile.getPath()).getLen();
+                    result = fenceOut(segmentName, lastOffset);
                 }
             } else {
                 if (lastFile.getEpoch() == this.context.epoch) {
@@ -19,7 +19,6 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
-import org.apache.hadoop.fs.FSDataInputStream;
 
 /**
  * FileSystemOperation that Reads from a Segment.
@@ -103,8 +102,8 @@ public class ReadOperation extends FileSystemOperation<HDFSSegmentHandle> implem
             int fileReadLength = (int) Math.min(this.length - totalBytesRead.get(), currentFile.getLength() - fileOffset);
             assert fileOffset >= 0 && fileReadLength >= 0 : "negative file read offset or length";
 
-            try (FSDataInputStream stream = this.context.fileSystem.open(currentFile.getPath())) {
-                stream.readFully(fileOffset, this.buffer, this.bufferOffset + totalBytesRead.get(), fileReadLength);
+            try {
+                this.context.streams.readFully(currentFile.getPath(), fileOffset, this.buffer, this.bufferOffset + totalBytesRead.get(), fileReadLength);
                 totalBytesRead.addAndGet(fileReadLength);
             } catch (EOFException ex) {
                 throw new IOException(
@@ -14,13 +14,11 @@ import io.pravega.common.Timer;
 import io.pravega.common.function.RunnableWithException;
 import io.pravega.service.contracts.BadOffsetException;
 import io.pravega.service.storage.StorageNotPrimaryException;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hadoop.fs.FSDataOutputStream;
-import org.apache.hadoop.hdfs.protocol.AclException;
 import org.apache.hadoop.io.IOUtils;
 
 /**
@@ -55,10 +53,20 @@ public class WriteOperation extends FileSystemOperation<HDFSSegmentHandle> imple
         FileDescriptor lastFile = handle.getLastFile();
 
         Timer timer = new Timer();
-        try (FSDataOutputStream stream = this.context.fileSystem.append(lastFile.getPath())) {
+        FSDataOutputStream stream = null;
+        boolean reusable = false;
+        try {
+            if (lastFile.isReadOnly()) {
+                // We sealed this file ourselves (doing so would have closed any stream we had cached for it).
+                throw HDFSExceptionHelpers.segmentSealedException(handle.getSegmentName());
+            }
+
+            stream = this.context.streams.getOutputStream(lastFile.getPath());
             if (this.offset != lastFile.getLastOffset()) {
                 // Do the handle offset validation here, after we open the file. We want to throw FileNotFoundException
-                // before we throw BadOffsetException.
+                // before we throw BadOffsetException. A cached stream does not tell us if we have been fenced out, so
+                // we need to check for that explicitly.
+                checkForFenceOut(handle.getSegmentName(), handle.getFiles().size(), lastFile);
                 throw new BadOffsetException(handle.getSegmentName(), lastFile.getLastOffset(), this.offset);
             } else if (stream.getPos() != lastFile.getLength()) {
                 // Looks like the filesystem changed from underneath us. This could be our bug, but it could be something else.
@@ -73,15 +81,31 @@ public class WriteOperation extends FileSystemOperation<HDFSSegmentHandle> imple
                 // Exit here (vs at the beginning of the method), since we want to throw appropriate exceptions in case
                 // of Sealed or BadOffset
                 // Note: IOUtils.copyBytes with length == 0 will enter an infinite loop, hence the need for this check.
+                reusable = true;
                 return;
             }
 
             IOUtils.copyBytes(this.data, stream, this.length);
-            stream.flush();
+
+            // Since we are keeping the stream open, flushing it (vs closing it) is what makes the data durable.
+            this.context.streams.flush(lastFile.getPath(), stream);
             lastFile.increaseLength(this.length);
-        } catch (FileNotFoundException | AclException ex) {
+            reusable = true;
+        } catch (IOException ex) {
+            // Besides the file having been deleted (FileNotFoundException) or made read-only (AclException), this may be
+            // a cached stream whose lease was recovered by whoever fenced us out.
             checkForFenceOut(handle.getSegmentName(), handle.getFiles().size(), handle.getLastFile());
             throw ex; // If we were not fenced out, then this is a legitimate exception - rethrow it.
+        } finally {
+            if (stream != null) {
+                if (reusable && lastFile.getEpoch() == this.context.epoch) {
+                    // Only keep streams to files we own; any other file is about to be fenced out (made read-only) anyway.
+                    this.context.streams.returnOutputStream(lastFile.getPath(), stream);
+                } else {
+                    // The stream may be in an inconsistent state (i.e., partially written data). Do not reuse it.
+                    this.context.streams.closeOutputStream(lastFile.getPath(), stream);
+                }
+            }
         }
 
         Metrics.WRITE_LATENCY.reportSuccessEvent(timer.getElapsed());
@@ -165,6 +165,29 @@ class RocksDBCache implements Cache {
         insert(key, data.getCopy());
     }
 
+    @Override
+    public boolean append(Key key, int expectedLength, ByteArraySegment data) {
+        // RocksDB has no way of appending to a value in place (its merge operators insert delimiters), so we need to
+        // read the existing value and write it back. This is only safe because the caller guarantees there are no
+        // concurrent modifications for this key.
+        byte[] existing = get(key);
+        if (existing == null || existing.length != expectedLength) {
+            return false;
+        }
+
+        byte[] result = new byte[existing.length + data.getLength()];
+        System.arraycopy(existing, 0, result, 0, existing.length);
+        data.copyTo(result, existing.length, data.getLength());
+        insert(key, result);
+        return true;
+    }
+
+    @Override
+    public boolean isAppendEfficient() {
+        // Every append rewrites the whole entry.
+        return false;
+    }
+
     @Override
     public byte[] get(Key key) {
         ensureInitializedAndNotClosed();
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.directmemory;
+
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.service.storage.Cache;
+import io.pravega.service.storage.CacheFullException;
+import io.pravega.service.storage.CacheTestBase;
+import io.pravega.test.common.AssertExtensions;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.Cleanup;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for DirectMemoryCache.
+ */
+public class DirectMemoryCacheTests extends CacheTestBase {
+    private static final int BLOCK_SIZE = 64;
+    private static final int SLAB_SIZE = 1024 * 1024;
+    private static final int MAX_SIZE = 16 * SLAB_SIZE;
+    private final AtomicReference<DirectMemoryCacheFactory> factory = new AtomicReference<>();
+
+    @Before
+    public void setUp() {
+        this.factory.set(new DirectMemoryCacheFactory(createConfig(MAX_SIZE)));
+    }
+
+    @After
+    public void tearDown() {
+        this.factory.getAndSet(null).close();
+    }
+
+    @Override
+    protected Cache createCache(String cacheId) {
+        return this.factory.get().getCache(cacheId);
+    }
+
+    /**
+     * Tests the ability to store entries that span multiple blocks, as well as the reporting of used and allocated bytes.
+     */
+    @Test
+    public void testMultiBlockEntries() {
+        final int entryCount = 100;
+        final int maxEntryLength = 10 * BLOCK_SIZE;
+        @Cleanup
+        Cache cache = createCache("multi");
+        Random rnd = new Random(0);
+        byte[][] data = new byte[entryCount][];
+        long expectedUsedBytes = 0;
+        for (int i = 0; i < entryCount; i++) {
+            data[i] = new byte[rnd.nextInt(maxEntryLength)];
+            rnd.nextBytes(data[i]);
+
+            // Insert from the middle of a larger array, to verify offsets are properly handled.
+            byte[] buffer = new byte[data[i].length + 10];
+            System.arraycopy(data[i], 0, buffer, 5, data[i].length);
+            cache.insert(new TestKey(i), new ByteArraySegment(buffer, 5, data[i].length));
+            expectedUsedBytes += getBlockCount(data[i].length) * BLOCK_SIZE;
+        }
+
+        Assert.assertEquals("Unexpected used bytes.", expectedUsedBytes, this.factory.get().getUsedBytes());
+        Assert.assertEquals("Unexpected allocated bytes.", SLAB_SIZE, this.factory.get().getAllocatedBytes());
+        for (int i = 0; i < entryCount; i++) {
+            Assert.assertArrayEquals("Unexpected contents for entry " + i, data[i], cache.get(new TestKey(i)));
+        }
+
+        // Overwrite half of the entries and remove the other half.
+        for (int i = 0; i < entryCount; i++) {
+            if (i % 2 == 0) {
+                cache.insert(new TestKey(i), new byte[1]);
+            } else {
+                cache.remove(new TestKey(i));
+            }
+        }
+
+        Assert.assertEquals("Unexpected used bytes after overwriting and removing.",
+                entryCount / 2 * BLOCK_SIZE, this.factory.get().getUsedBytes());
+
+        cache.close();
+        Assert.assertEquals("Unexpected used bytes after closing.", 0, this.factory.get().getUsedBytes());
+    }
+
+    /**
+     * Tests the behavior of the Cache when its capacity is exceeded.
+     */
+    @Test
+    public void testCapacityExceeded() {
+        @Cleanup
+        DirectMemoryCacheFactory factory = new DirectMemoryCacheFactory(createConfig(SLAB_SIZE));
+        @Cleanup
+        Cache cache = factory.getCache("full");
+        cache.insert(new TestKey(0), new byte[SLAB_SIZE - BLOCK_SIZE]);
+        AssertExtensions.assertThrows(
+                "insert() did not fail when capacity was exceeded.",
+                () -> cache.insert(new TestKey(1), new byte[BLOCK_SIZE + 1]),
+                ex -> ex instanceof CacheFullException);
+        Assert.assertNull("A failed insert() left an entry behind.", cache.get(new TestKey(1)));
+        Assert.assertEquals("A failed insert() left blocks allocated.", SLAB_SIZE - BLOCK_SIZE, factory.getUsedBytes());
+
+        // Freeing up space should allow the insert to go through.
+        cache.remove(new TestKey(0));
+        cache.insert(new TestKey(1), new byte[BLOCK_SIZE + 1]);
+        Assert.assertEquals("Unexpected used bytes.", 2 * BLOCK_SIZE, factory.getUsedBytes());
+    }
+
+    private DirectMemoryCacheConfig createConfig(long maxSize) {
+        return DirectMemoryCacheConfig
+                .builder()
+                .with(DirectMemoryCacheConfig.BLOCK_SIZE, BLOCK_SIZE)
+                .with(DirectMemoryCacheConfig.SLAB_SIZE, SLAB_SIZE)
+                .with(DirectMemoryCacheConfig.MAX_SIZE, maxSize)
+                .build();
+    }
+
+    private int getBlockCount(int length) {
+        return (length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    }
+
+    @RequiredArgsConstructor
+    @EqualsAndHashCode(callSuper = false)
+    private static class TestKey extends Cache.Key {
+        private final int id;
+
+        @Override
+        public byte[] serialize() {
+            throw new UnsupportedOperationException("Keys should not need to be serialized.");
+        }
+    }
+}
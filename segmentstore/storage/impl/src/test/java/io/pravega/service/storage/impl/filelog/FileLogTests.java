@@ -0,0 +1,259 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.filelog;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.io.FileHelpers;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.service.storage.DataLogWriterNotPrimaryException;
+import io.pravega.service.storage.DurableDataLog;
+import io.pravega.service.storage.DurableDataLogTestBase;
+import io.pravega.service.storage.LogAddress;
+import io.pravega.service.storage.WriteFailureException;
+import io.pravega.test.common.AssertExtensions;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for FileLog.
+ */
+public class FileLogTests extends DurableDataLogTestBase {
+    private static final int WRITE_COUNT = 250;
+    private static final int THREAD_POOL_SIZE = 3;
+    private final Supplier<Integer> nextContainerId = new AtomicInteger()::incrementAndGet;
+    private File root;
+    private FileLogFactory factory;
+
+    @Before
+    public void setUp() throws Exception {
+        this.root = Files.createTempDirectory("filelog").toFile().getAbsoluteFile();
+        val config = FileLogConfig
+                .builder()
+                .with(FileLogConfig.ROOT, this.root.getAbsolutePath())
+                .with(FileLogConfig.MAX_FILE_SIZE, WRITE_MAX_LENGTH * 10) // Very frequent rollovers.
+                .build();
+        this.factory = new FileLogFactory(config, executorService());
+        this.factory.initialize();
+    }
+
+    @After
+    public void tearDown() {
+        if (this.factory != null) {
+            this.factory.close();
+            this.factory = null;
+        }
+
+        if (this.root != null) {
+            FileHelpers.deleteFileOrDirectory(this.root);
+            this.root = null;
+        }
+    }
+
+    @Override
+    protected int getThreadPoolSize() {
+        return THREAD_POOL_SIZE;
+    }
+
+    /**
+     * Tests that appends which are issued concurrently are all written and acknowledged, in order.
+     */
+    @Test(timeout = TIMEOUT_MILLIS)
+    public void testConcurrentAppends() throws Exception {
+        @Cleanup
+        DurableDataLog log = createDurableDataLog();
+        log.initialize(TIMEOUT);
+        val futures = new ArrayList<CompletableFuture<LogAddress>>();
+        for (int i = 0; i < WRITE_COUNT; i++) {
+            futures.add(log.append(new ByteArraySegment(String.format("Append_%d", i).getBytes()), TIMEOUT));
+        }
+
+        LogAddress prevAddress = null;
+        for (val f : futures) {
+            LogAddress address = f.join();
+            if (prevAddress != null) {
+                Assert.assertTrue("Sequence Number is not monotonically increasing.", prevAddress.getSequence() < address.getSequence());
+            }
+
+            prevAddress = address;
+        }
+
+        Assert.assertEquals("Unexpected value from getLastAppendSequence().", prevAddress.getSequence(), log.getLastAppendSequence());
+    }
+
+    /**
+     * Tests that an instance which gets fenced out while it is writing does not acknowledge any appends that the new
+     * instance cannot see, and that the new instance never reuses their Sequences.
+     */
+    @Test(timeout = TIMEOUT_MILLIS)
+    public void testFencingDuringWrites() throws Exception {
+        int containerId = this.nextContainerId.get();
+        @Cleanup
+        DurableDataLog log1 = createDurableDataLog(containerId);
+        log1.initialize(TIMEOUT);
+        val futures = new ArrayList<CompletableFuture<LogAddress>>();
+        for (int i = 0; i < WRITE_COUNT; i++) {
+            futures.add(log1.append(new ByteArraySegment(String.format("Append_%d", i).getBytes()), TIMEOUT));
+        }
+
+        @Cleanup
+        DurableDataLog log2 = createDurableDataLog(containerId);
+        log2.initialize(TIMEOUT);
+        val acknowledged = new HashSet<Long>();
+        for (val f : futures) {
+            try {
+                acknowledged.add(f.join().getSequence());
+            } catch (CompletionException ex) {
+                Assert.assertTrue("Unexpected exception for a fenced out append: " + ex.getCause(),
+                        ex.getCause() instanceof DataLogWriterNotPrimaryException);
+            }
+        }
+
+        val visible = new HashSet<Long>();
+        try (val reader = log2.getReader()) {
+            DurableDataLog.ReadItem item;
+            while ((item = reader.getNext()) != null) {
+                visible.add(item.getAddress().getSequence());
+            }
+        }
+
+        Assert.assertTrue("Acknowledged appends are not visible to the new instance.", visible.containsAll(acknowledged));
+        long maxAcknowledged = acknowledged.stream().mapToLong(Long::longValue).max().orElse(-1);
+        long nextSequence = log2.append(new ByteArraySegment(new byte[1]), TIMEOUT).join().getSequence();
+        AssertExtensions.assertGreaterThan("New instance reused a Sequence.", maxAcknowledged, nextSequence);
+    }
+
+    /**
+     * Tests that files which only contain truncated entries are deleted.
+     */
+    @Test(timeout = TIMEOUT_MILLIS)
+    public void testTruncateDeletesFiles() throws Exception {
+        int containerId = this.nextContainerId.get();
+        @Cleanup
+        DurableDataLog log = createDurableDataLog(containerId);
+        log.initialize(TIMEOUT);
+        val writeData = populate(log, WRITE_COUNT);
+        Path logDirectory = this.root.toPath().resolve(Integer.toString(containerId));
+        long initialFileCount = getLogFileCount(logDirectory);
+        Assert.assertTrue("Expected multiple files to be created.", initialFileCount > 1);
+
+        log.truncate(writeData.lastKey(), TIMEOUT).join();
+        Assert.assertEquals("Expected all but the last file to be deleted.", 1, getLogFileCount(logDirectory));
+        writeData.clear();
+        verifyReads(log, writeData);
+    }
+
+    /**
+     * Tests that an instance which has been fenced out cannot truncate the log.
+     */
+    @Test(timeout = TIMEOUT_MILLIS)
+    public void testTruncateAfterFencing() throws Exception {
+        int containerId = this.nextContainerId.get();
+        @Cleanup
+        DurableDataLog log1 = createDurableDataLog(containerId);
+        log1.initialize(TIMEOUT);
+        val writeData = populate(log1, WRITE_COUNT);
+
+        @Cleanup
+        DurableDataLog log2 = createDurableDataLog(containerId);
+        log2.initialize(TIMEOUT);
+        AssertExtensions.assertThrows(
+                "A fenced out instance was able to truncate.",
+                () -> log1.truncate(writeData.lastKey(), TIMEOUT),
+                ex -> ex instanceof DataLogWriterNotPrimaryException);
+        verifyReads(log2, writeData);
+    }
+
+    /**
+     * Tests that if a batch of appends fails partway through (here, because the next LogFile cannot be created), the
+     * appends that were already synced to disk are still acknowledged.
+     */
+    @Test(timeout = TIMEOUT_MILLIS)
+    public void testPartialBatchFailure() throws Exception {
+        final int maxFileSize = WRITE_MAX_LENGTH * 10;
+        final int entryLength = 100;
+        final int entriesPerFile = maxFileSize / entryLength;
+        final byte[] payload = new byte[entryLength - LogFile.HEADER_LENGTH];
+        int containerId = this.nextContainerId.get();
+        @Cleanup
+        DurableDataLog log = createDurableDataLog(containerId);
+        log.initialize(TIMEOUT);
+
+        // The first file starts at Sequence 0, and the entry Sequences are their offsets within the log, so this is where
+        // the second file would go.
+        Path logDirectory = this.root.toPath().resolve(Integer.toString(containerId));
+        Files.createFile(logDirectory.resolve(String.format("%020d.log", entriesPerFile * entryLength)));
+
+        val futures = new ArrayList<CompletableFuture<LogAddress>>();
+        for (int i = 0; i < entriesPerFile + 5; i++) {
+            futures.add(log.append(new ByteArraySegment(payload), TIMEOUT));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            if (i < entriesPerFile) {
+                Assert.assertEquals("Unexpected address for an append that fit in the first file.",
+                        (long) i * entryLength, futures.get(i).join().getSequence());
+            } else {
+                AssertExtensions.assertThrows(
+                        "An append that did not fit in the first file was not failed.",
+                        futures.get(i),
+                        ex -> ex instanceof WriteFailureException);
+            }
+        }
+
+        Assert.assertEquals("Unexpected value from getLastAppendSequence().",
+                (long) (entriesPerFile - 1) * entryLength, log.getLastAppendSequence());
+    }
+
+    @Override
+    protected DurableDataLog createDurableDataLog() {
+        return this.factory.createDurableDataLog(this.nextContainerId.get());
+    }
+
+    @Override
+    protected DurableDataLog createDurableDataLog(Object sharedContext) {
+        Preconditions.checkArgument(sharedContext instanceof Integer);
+        return this.factory.createDurableDataLog((Integer) sharedContext);
+    }
+
+    @Override
+    protected Object createSharedContext() {
+        return this.nextContainerId.get();
+    }
+
+    @Override
+    protected LogAddress createLogAddress(long seqNo) {
+        return new FileLogAddress(seqNo);
+    }
+
+    @Override
+    protected int getWriteCount() {
+        return WRITE_COUNT;
+    }
+
+    private long getLogFileCount(Path directory) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> LogFile.getSequence(p) != null).count();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.filesystem;
+
+import io.pravega.common.io.FileHelpers;
+import io.pravega.service.storage.SegmentHandle;
+import io.pravega.service.storage.Storage;
+import io.pravega.service.storage.StorageNotPrimaryException;
+import io.pravega.service.storage.TruncateableStorage;
+import io.pravega.service.storage.TruncateableStorageTestBase;
+import io.pravega.test.common.AssertExtensions;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collections;
+import lombok.val;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for FileSystemStorage.
+ */
+public class FileSystemStorageTests extends TruncateableStorageTestBase {
+    private File baseDir = null;
+    private FileSystemStorageConfig adapterConfig;
+
+    @Before
+    public void setUp() throws Exception {
+        this.baseDir = Files.createTempDirectory("test_fs").toFile().getAbsoluteFile();
+        this.adapterConfig = FileSystemStorageConfig
+                .builder()
+                .with(FileSystemStorageConfig.ROOT, this.baseDir.getAbsolutePath())
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        if (this.baseDir != null) {
+            FileHelpers.deleteFileOrDirectory(this.baseDir);
+            this.baseDir = null;
+        }
+    }
+
+    //region Fencing tests
+
+    /**
+     * Tests fencing abilities. We create two different Storage objects with different owner ids.
+     * * We create the Segment on Storage1 and verify that Storage1 can execute all operations.
+     * * We open the Segment on Storage2:
+     * ** We verify that Storage1 can execute only read-only operations.
+     * ** We verify that Storage2 can execute all operations.
+     */
+    @Test
+    @Override
+    public void testFencing() throws Exception {
+        final long epoch1 = 1;
+        final long epoch2 = 2;
+        final String segmentName = "segment";
+        try (val storage1 = createStorage();
+             val storage2 = createStorage()) {
+            storage1.initialize(epoch1);
+            storage2.initialize(epoch2);
+
+            // Create segment in Storage1 (thus Storage1 owns it for now).
+            storage1.create(segmentName, TIMEOUT).join();
+
+            // Storage1 should be able to execute all operations.
+            SegmentHandle handle1 = storage1.openWrite(segmentName).join();
+            verifyWriteOperationsSucceed(handle1, storage1);
+            verifyReadOnlyOperationsSucceed(handle1, storage1);
+
+            // Open the segment in Storage2 (thus Storage2 owns it for now).
+            SegmentHandle handle2 = storage2.openWrite(segmentName).join();
+
+            // Storage1 should be able to execute only read-only operations.
+            verifyWriteOperationsFail(handle1, storage1);
+            verifyReadOnlyOperationsSucceed(handle1, storage1);
+
+            // Storage2 should be able to execute all operations.
+            verifyReadOnlyOperationsSucceed(handle2, storage2);
+            verifyWriteOperationsSucceed(handle2, storage2);
+
+            // Seal and Delete (these should be run last, otherwise we can't run our test).
+            verifyFinalWriteOperationsFail(handle1, storage1);
+            verifyFinalWriteOperationsSucceed(handle2, storage2);
+        }
+    }
+
+    /**
+     * Tests the case when a fenced-out owner manages to write to its (previous) last file after it has been fenced out.
+     * That data must not be visible to anyone.
+     */
+    @Test
+    public void testFencedOutWrite() throws Exception {
+        final String segmentName = "segment";
+        final byte[] data = "hello".getBytes();
+        try (val storage1 = createStorage();
+             val storage2 = createStorage()) {
+            storage1.initialize(1);
+            storage2.initialize(2);
+            storage1.create(segmentName, TIMEOUT).join();
+            val handle1 = storage1.openWrite(segmentName).join();
+            storage1.write(handle1, 0, new ByteArrayInputStream(data), data.length, TIMEOUT).join();
+
+            val handle2 = storage2.openWrite(segmentName).join();
+            storage2.write(handle2, data.length, new ByteArrayInputStream(data), data.length, TIMEOUT).join();
+
+            // Simulate a write from Storage1 that slipped through right as it was being fenced out (the file permissions
+            // need to be changed, since we may not be running as a privileged user).
+            val fencedFile = this.baseDir.toPath().resolve(segmentName + "_0_1");
+            val permissions = Files.getPosixFilePermissions(fencedFile);
+            Files.setPosixFilePermissions(fencedFile, PosixFilePermissions.fromString("rw-r--r--"));
+            Files.write(fencedFile, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+            Files.setPosixFilePermissions(fencedFile, permissions);
+
+            val si = storage2.getStreamSegmentInfo(segmentName, TIMEOUT).join();
+            Assert.assertEquals("Unexpected length.", 2 * data.length, si.getLength());
+            byte[] readBuffer = new byte[2 * data.length];
+            storage2.read(handle2, 0, readBuffer, 0, readBuffer.length, TIMEOUT).join();
+            for (int i = 0; i < readBuffer.length; i++) {
+                Assert.assertEquals("Unexpected data at offset " + i, data[i % data.length], readBuffer[i]);
+            }
+        }
+    }
+
+    private void verifyReadOnlyOperationsSucceed(SegmentHandle handle, Storage storage) {
+        boolean exists = storage.exists(handle.getSegmentName(), TIMEOUT).join();
+        Assert.assertTrue("Segment does not exist.", exists);
+
+        val si = storage.getStreamSegmentInfo(handle.getSegmentName(), TIMEOUT).join();
+        Assert.assertNotNull("Unexpected response from getStreamSegmentInfo.", si);
+
+        byte[] readBuffer = new byte[(int) si.getLength()];
+        int readBytes = storage.read(handle, 0, readBuffer, 0, readBuffer.length, TIMEOUT).join();
+        Assert.assertEquals("Unexpected number of bytes read.", readBuffer.length, readBytes);
+    }
+
+    private void verifyWriteOperationsSucceed(SegmentHandle handle, Storage storage) {
+        val si = storage.getStreamSegmentInfo(handle.getSegmentName(), TIMEOUT).join();
+        final byte[] data = "hello".getBytes();
+        storage.write(handle, si.getLength(), new ByteArrayInputStream(data), data.length, TIMEOUT).join();
+
+        final String concatName = "concat";
+        storage.create(concatName, TIMEOUT).join();
+        val concatHandle = storage.openWrite(concatName).join();
+        storage.write(concatHandle, 0, new ByteArrayInputStream(data), data.length, TIMEOUT).join();
+        storage.seal(concatHandle, TIMEOUT).join();
+        storage.concat(handle, si.getLength() + data.length, concatHandle.getSegmentName(), TIMEOUT).join();
+    }
+
+    private void verifyWriteOperationsFail(SegmentHandle handle, Storage storage) {
+        val si = storage.getStreamSegmentInfo(handle.getSegmentName(), TIMEOUT).join();
+        final byte[] data = "hello".getBytes();
+        AssertExtensions.assertThrows(
+                "Write was not fenced out.",
+                () -> storage.write(handle, si.getLength(), new ByteArrayInputStream(data), data.length, TIMEOUT),
+                ex -> ex instanceof StorageNotPrimaryException);
+
+        // Create a second segment and try to concat it into the primary one.
+        final String concatName = "concat";
+        storage.create(concatName, TIMEOUT).join();
+        val concatHandle = storage.openWrite(concatName).join();
+        storage.write(concatHandle, 0, new ByteArrayInputStream(data), data.length, TIMEOUT).join();
+        storage.seal(concatHandle, TIMEOUT).join();
+        AssertExtensions.assertThrows(
+                "Concat was not fenced out.",
+                () -> storage.concat(handle, si.getLength(), concatHandle.getSegmentName(), TIMEOUT),
+                ex -> ex instanceof StorageNotPrimaryException);
+        storage.delete(concatHandle, TIMEOUT).join();
+    }
+
+    private void verifyFinalWriteOperationsSucceed(SegmentHandle handle, Storage storage) {
+        storage.seal(handle, TIMEOUT).join();
+        storage.delete(handle, TIMEOUT).join();
+
+        boolean exists = storage.exists(handle.getSegmentName(), TIMEOUT).join();
+        Assert.assertFalse("Segment still exists after deletion.", exists);
+    }
+
+    private void verifyFinalWriteOperationsFail(SegmentHandle handle, Storage storage) {
+        AssertExtensions.assertThrows(
+                "Seal was allowed on fenced Storage.",
+                () -> storage.seal(handle, TIMEOUT),
+                ex -> ex instanceof StorageNotPrimaryException);
+
+        val si = storage.getStreamSegmentInfo(handle.getSegmentName(), TIMEOUT).join();
+        Assert.assertFalse("Segment was sealed after rejected call to seal.", si.isSealed());
+
+        AssertExtensions.assertThrows(
+                "Delete was allowed on fenced Storage.",
+                () -> storage.delete(handle, TIMEOUT),
+                ex -> ex instanceof StorageNotPrimaryException);
+        boolean exists = storage.exists(handle.getSegmentName(), TIMEOUT).join();
+        Assert.assertTrue("Segment was deleted after rejected call to delete.", exists);
+    }
+
+    //endregion
+
+    @Override
+    protected SegmentHandle createHandle(String segmentName, boolean readOnly, long epoch) {
+        val chunks = Collections.singletonList(new SegmentChunk(this.baseDir.toPath().resolve(segmentName + "_0_" + epoch), 0, 0, epoch, false));
+        if (readOnly) {
+            return FileSystemSegmentHandle.read(segmentName, chunks);
+        } else {
+            return FileSystemSegmentHandle.write(segmentName, chunks);
+        }
+    }
+
+    @Override
+    protected TruncateableStorage createStorage() {
+        return new FileSystemStorage(this.adapterConfig, executorService());
+    }
+}
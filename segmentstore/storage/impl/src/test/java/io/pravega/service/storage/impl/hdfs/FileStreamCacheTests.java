@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage.impl.hdfs;
+
+import io.pravega.test.common.AssertExtensions;
+import java.io.EOFException;
+import java.util.Random;
+import lombok.Cleanup;
+import lombok.val;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.permission.FsAction;
+import org.apache.hadoop.fs.permission.FsPermission;
+import org.apache.hadoop.hdfs.protocol.AclException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the FileStreamCache class.
+ */
+public class FileStreamCacheTests {
+    private static final int TEST_TIMEOUT_MILLIS = 30 * 1000;
+    private static final Path PATH = new Path("/file");
+    private static final int WRITE_SIZE = 100;
+
+    /**
+     * Tests that output streams are reused once returned, and that they are handed out exclusively.
+     */
+    @Test(timeout = TEST_TIMEOUT_MILLIS)
+    public void testOutputStreamReuse() throws Exception {
+        @Cleanup
+        val fs = new MockFileSystem();
+        fs.create(PATH).close();
+        @Cleanup
+        val cache = new FileStreamCache(fs, HDFSStorageConfig.builder().build());
+
+        val s1 = cache.getOutputStream(PATH);
+        s1.write(new byte[WRITE_SIZE]);
+        s1.hflush();
+        cache.returnOutputStream(PATH, s1);
+
+        val s2 = cache.getOutputStream(PATH);
+        Assert.assertSame("Expected the cached stream to be reused.", s1, s2);
+        Assert.assertEquals("Unexpected position of reused stream.", WRITE_SIZE, s2.getPos());
+
+        // We did not return s2, so a new stream should be opened.
+        val s3 = cache.getOutputStream(PATH);
+        Assert.assertNotSame("Expected a new stream while the cached one is in use.", s2, s3);
+        Assert.assertEquals("Unexpected position of new stream.", WRITE_SIZE, s3.getPos());
+    }
+
+    /**
+     * Tests that a cached output stream is not handed out if its file has been made read-only (i.e., fenced out or sealed)
+     * by someone else.
+     */
+    @Test(timeout = TEST_TIMEOUT_MILLIS)
+    public void testOutputStreamReadOnly() throws Exception {
+        @Cleanup
+        val fs = new MockFileSystem();
+        fs.create(PATH).close();
+        @Cleanup
+        val cache = new FileStreamCache(fs, HDFSStorageConfig.builder().build());
+        cache.returnOutputStream(PATH, cache.getOutputStream(PATH));
+
+        fs.setPermission(PATH, new FsPermission(FsAction.READ, FsAction.NONE, FsAction.NONE));
+        AssertExtensions.assertThrows(
+                "getOutputStream() returned a cached stream for a read-only file.",
+                () -> cache.getOutputStream(PATH).close(),
+                ex -> ex instanceof AclException);
+    }
+
+    /**
+     * Tests that invalidate() discards cached output streams.
+     */
+    @Test(timeout = TEST_TIMEOUT_MILLIS)
+    public void testInvalidate() throws Exception {
+        @Cleanup
+        val fs = new MockFileSystem();
+        fs.create(PATH).close();
+        @Cleanup
+        val cache = new FileStreamCache(fs, HDFSStorageConfig.builder().build());
+        val s1 = cache.getOutputStream(PATH);
+        cache.returnOutputStream(PATH, s1);
+
+        cache.invalidate(PATH);
+        Assert.assertNotSame("Expected a new stream after invalidation.", s1, cache.getOutputStream(PATH));
+    }
+
+    /**
+     * Tests that the lengths of flushed (but still open) files are tracked locally and forgotten once the stream is closed.
+     */
+    @Test(timeout = TEST_TIMEOUT_MILLIS)
+    public void testFlushedLength() throws Exception {
+        @Cleanup
+        val fs = new MockFileSystem();
+        fs.create(PATH).close();
+        @Cleanup
+        val cache = new FileStreamCache(fs, HDFSStorageConfig.builder().build());
+        val stream = cache.getOutputStream(PATH);
+        stream.write(new byte[WRITE_SIZE]);
+        cache.flush(PATH, stream);
+        Assert.assertEquals("Unexpected length for a flushed file.", WRITE_SIZE, cache.getLength(PATH, 0));
+        Assert.assertEquals("Expected the file system length if it is larger.", 2 * WRITE_SIZE, cache.getLength(PATH, 2 * WRITE_SIZE));
+
+        cache.closeOutputStream(PATH, stream);
+        Assert.assertEquals("Unexpected length after closing the stream.", 0, cache.getLength(PATH, 0));
+    }
+
+    /**
+     * Tests that reads from a cached input stream that was opened before the file grew are retried using a new stream.
+     */
+    @Test(timeout = TEST_TIMEOUT_MILLIS)
+    public void testReadAfterAppend() throws Exception {
+        val rnd = new Random(0);
+        byte[] data = new byte[WRITE_SIZE * 2];
+        rnd.nextBytes(data);
+
+        @Cleanup
+        val fs = new MockFileSystem();
+        fs.create(PATH).close();
+        @Cleanup
+        val cache = new FileStreamCache(fs, HDFSStorageConfig.builder().build());
+
+        val output = cache.getOutputStream(PATH);
+        output.write(data, 0, WRITE_SIZE);
+        byte[] readBuffer = new byte[data.length];
+        cache.readFully(PATH, 0, readBuffer, 0, WRITE_SIZE);
+
+        // The cached input stream does not know about this data.
+        output.write(data, WRITE_SIZE, WRITE_SIZE);
+        cache.returnOutputStream(PATH, output);
+        cache.readFully(PATH, WRITE_SIZE, readBuffer, WRITE_SIZE, WRITE_SIZE);
+        Assert.assertArrayEquals("Unexpected data read.", data, readBuffer);
+
+        // Reading beyond the end of the file should still fail.
+        AssertExtensions.assertThrows(
+                "readFully() allowed reading beyond the end of the file.",
+                () -> cache.readFully(PATH, data.length, readBuffer, 0, 1),
+                ex -> ex instanceof EOFException);
+    }
+
+    /**
+     * Tests the behavior when the cache is disabled (streamCacheMaxSize == 0) or closed.
+     */
+    @Test(timeout = TEST_TIMEOUT_MILLIS)
+    public void testDisabledOrClosed() throws Exception {
+        @Cleanup
+        val fs = new MockFileSystem();
+        fs.create(PATH).close();
+        val disabledConfig = HDFSStorageConfig.builder().with(HDFSStorageConfig.STREAM_CACHE_MAX_SIZE, 0).build();
+        @Cleanup
+        val disabled = new FileStreamCache(fs, disabledConfig);
+        val s1 = disabled.getOutputStream(PATH);
+        s1.write(new byte[WRITE_SIZE]);
+        disabled.returnOutputStream(PATH, s1);
+        Assert.assertNotSame("Disabled cache reused a stream.", s1, disabled.getOutputStream(PATH));
+        disabled.readFully(PATH, 0, new byte[WRITE_SIZE], 0, WRITE_SIZE);
+
+        val closed = new FileStreamCache(fs, HDFSStorageConfig.builder().build());
+        closed.close();
+        val s2 = closed.getOutputStream(PATH);
+        closed.returnOutputStream(PATH, s2);
+        Assert.assertNotSame("Closed cache reused a stream.", s2, closed.getOutputStream(PATH));
+    }
+}
@@ -22,7 +22,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.Collections;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 
 import lombok.SneakyThrows;
 import lombok.val;
@@ -121,6 +121,63 @@ public class HDFSStorageTest extends StorageTestBase {
         }
     }
 
+    /**
+     * Tests that data written using a cached (open) append stream is visible to its owner and to any Storage instance
+     * that takes over the segment, both in terms of length and contents, and that another instance can take over (and compact the files of) a segment whose files
+     * are still open by their previous owners.
+     */
+    @Test
+    public void testCachedAppendStreamVisibility() throws Exception {
+        final String segmentName = "segment";
+        final byte[] data = "hello".getBytes();
+        final int writeCount = 3;
+        try (val storage1 = createStorage();
+             val storage2 = createStorage();
+             val storage3 = createStorage()) {
+            storage1.initialize(1);
+            storage2.initialize(2);
+            storage3.initialize(3);
+
+            // Storage1 writes a few times; its append stream stays open in between.
+            storage1.create(segmentName, TIMEOUT).join();
+            val handle1 = storage1.openWrite(segmentName).join();
+            for (int i = 0; i < writeCount; i++) {
+                storage1.write(handle1, i * data.length, new ByteArrayInputStream(data), data.length, TIMEOUT).join();
+            }
+
+            // The owner must see all the data, even though the file is still open (and its length is only published
+            // to the NameNode upon closing it). Other instances are only guaranteed to see it once they take over.
+            val si = storage1.getStreamSegmentInfo(segmentName, TIMEOUT).join();
+            Assert.assertEquals("Unexpected length seen by owner.", writeCount * data.length, si.getLength());
+
+            // Storage2 takes over and writes some more (its stream also stays open).
+            val handle2 = storage2.openWrite(segmentName).join();
+            storage2.write(handle2, writeCount * data.length, new ByteArrayInputStream(data), data.length, TIMEOUT).join();
+
+            // Storage3 takes over; this requires compacting the files written by both Storage1 and Storage2.
+            val handle3 = storage3.openWrite(segmentName).join();
+            val si3 = storage3.getStreamSegmentInfo(segmentName, TIMEOUT).join();
+            Assert.assertEquals("Unexpected length after takeover.", (writeCount + 1) * data.length, si3.getLength());
+            byte[] readBuffer = new byte[(int) si3.getLength()];
+            int readBytes = storage3.read(handle3, 0, readBuffer, 0, readBuffer.length, TIMEOUT).join();
+            Assert.assertEquals("Unexpected number of bytes read.", readBuffer.length, readBytes);
+            for (int i = 0; i < readBuffer.length; i++) {
+                Assert.assertEquals("Unexpected data read at offset " + i, data[i % data.length], readBuffer[i]);
+            }
+
+            // The previous owners are fenced out.
+            AssertExtensions.assertThrows(
+                    "Write was not fenced out.",
+                    () -> storage1.write(handle1, si3.getLength(), new ByteArrayInputStream(data), data.length, TIMEOUT),
+                    ex -> ex instanceof StorageNotPrimaryException);
+            AssertExtensions.assertThrows(
+                    "Write was not fenced out.",
+                    () -> storage2.write(handle2, si3.getLength(), new ByteArrayInputStream(data), data.length, TIMEOUT),
+                    ex -> ex instanceof StorageNotPrimaryException);
+            storage3.write(handle3, si3.getLength(), new ByteArrayInputStream(data), data.length, TIMEOUT).join();
+        }
+    }
+
     private void verifyReadOnlyOperationsSucceed(SegmentHandle handle, Storage storage) {
         boolean exists = storage.exists(handle.getSegmentName(), TIMEOUT).join();
         Assert.assertTrue("Segment does not exist.", exists);
@@ -216,7 +273,7 @@ public class HDFSStorageTest extends StorageTestBase {
      * 'read-only' permission issues observed with that one.
      **/
     private static class TestHDFSStorage extends HDFSStorage {
-        TestHDFSStorage(HDFSStorageConfig config, Executor executor) {
+        TestHDFSStorage(HDFSStorageConfig config, ScheduledExecutorService executor) {
             super(config, executor);
         }
 
@@ -36,6 +36,27 @@ public interface Cache extends AutoCloseable {
      */
     void insert(Key key, ByteArraySegment data);
 
+    /**
+     * Appends the given data at the end of an existing entry. Appends to the same entry must not be invoked concurrently
+     * with each other or with inserts for the same key.
+     *
+     * @param key            The key of the entry to append to.
+     * @param expectedLength The expected length of the entry. The append will be rejected if the entry's current length
+     *                       is different from this value.
+     * @param data           A ByteArraySegment representing the data to append.
+     * @return True if the data was appended, false if no entry exists for the given key or if it does not have the
+     * expected length.
+     */
+    boolean append(Key key, int expectedLength, ByteArraySegment data);
+
+    /**
+     * Gets a value indicating whether append() can add data to an entry without rewriting all of it. Callers should not
+     * use append() for Caches that cannot, as inserting a new entry is cheaper.
+     *
+     * @return True if append() is efficient, false otherwise.
+     */
+    boolean isAppendEfficient();
+
     /**
      * Retrieves a cache entry with given key.
      *
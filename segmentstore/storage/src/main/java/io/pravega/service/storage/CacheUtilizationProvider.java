@@ -0,0 +1,26 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.service.storage;
+
+/**
+ * Defines an object that can report the exact amount of memory consumed by the Caches it manages.
+ */
+public interface CacheUtilizationProvider {
+    /**
+     * Gets a value indicating the number of bytes used by all the entries currently stored in the Caches. This includes
+     * any overhead, such as rounding up to the storage unit size.
+     */
+    long getUsedBytes();
+
+    /**
+     * Gets a value indicating the number of bytes currently reserved by the Caches, whether used or not.
+     */
+    long getAllocatedBytes();
+}
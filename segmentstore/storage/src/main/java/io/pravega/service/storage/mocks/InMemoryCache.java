@@ -14,18 +14,21 @@ import io.pravega.common.function.CallbackHelpers;
 import io.pravega.common.util.ByteArraySegment;
 import io.pravega.service.storage.Cache;
 
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
- * In-Memory implementation of Cache.
+ * In-Memory implementation of Cache. Appended data is kept separately from the data an entry already has (so that
+ * appends do not need to copy it), and only combined with it the next time that entry is retrieved.
  */
 @ThreadSafe
 public class InMemoryCache implements Cache {
-    private final Map<Key, byte[]> map;
+    private final Map<Key, Entry> map;
     private final String id;
     private final Consumer<String> closeCallback;
     private final AtomicBoolean closed;
@@ -79,7 +82,7 @@ public class InMemoryCache implements Cache {
     @Override
     public void insert(Cache.Key key, byte[] payload) {
         Exceptions.checkNotClosed(this.closed.get(), this);
-        this.map.put(key, payload);
+        this.map.put(key, new Entry(payload));
     }
 
     @Override
@@ -87,10 +90,28 @@ public class InMemoryCache implements Cache {
         insert(key, data.getCopy());
     }
 
+    @Override
+    public boolean append(Cache.Key key, int expectedLength, ByteArraySegment data) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        AtomicBoolean appended = new AtomicBoolean();
+        this.map.computeIfPresent(key, (k, existing) -> {
+            appended.set(existing.append(expectedLength, data));
+            return existing;
+        });
+
+        return appended.get();
+    }
+
+    @Override
+    public boolean isAppendEfficient() {
+        return true;
+    }
+
     @Override
     public byte[] get(Cache.Key key) {
         Exceptions.checkNotClosed(this.closed.get(), this);
-        return this.map.get(key);
+        Entry entry = this.map.get(key);
+        return entry == null ? null : entry.get();
     }
 
     @Override
@@ -105,4 +126,51 @@ public class InMemoryCache implements Cache {
         Exceptions.checkNotClosed(this.closed.get(), this);
         this.map.clear();
     }
+
+    //region Entry
+
+    /**
+     * A Cache Entry, made up of one or more chunks of data.
+     */
+    @ThreadSafe
+    private static class Entry {
+        @GuardedBy("this")
+        private final ArrayList<byte[]> chunks = new ArrayList<>();
+        @GuardedBy("this")
+        private int length;
+
+        Entry(byte[] payload) {
+            this.chunks.add(payload);
+            this.length = payload.length;
+        }
+
+        synchronized boolean append(int expectedLength, ByteArraySegment data) {
+            if (this.length != expectedLength) {
+                return false;
+            }
+
+            this.chunks.add(data.getCopy());
+            this.length += data.getLength();
+            return true;
+        }
+
+        synchronized byte[] get() {
+            if (this.chunks.size() > 1) {
+                // Combine all the chunks into one. Arrays that have already been handed out are never modified.
+                byte[] result = new byte[this.length];
+                int offset = 0;
+                for (byte[] chunk : this.chunks) {
+                    System.arraycopy(chunk, 0, result, offset, chunk.length);
+                    offset += chunk.length;
+                }
+
+                this.chunks.clear();
+                this.chunks.add(result);
+            }
+
+            return this.chunks.get(0);
+        }
+    }
+
+    //endregion
 }
@@ -9,6 +9,7 @@
  */
 package io.pravega.service.storage;
 
+import io.pravega.common.util.ByteArraySegment;
 import java.nio.ByteBuffer;
 import java.util.function.Consumer;
 import lombok.Cleanup;
@@ -47,6 +48,64 @@ public abstract class CacheTestBase {
         });
     }
 
+    /**
+     * Tests Insert (with ByteArraySegments, both spanning entire arrays and partial ones) and Get functionality.
+     */
+    @Test
+    public void testInsertByteArraySegment() {
+        @Cleanup
+        Cache cache = createCache(CACHE_ID);
+
+        // Populate the cache. Even keys use the whole backing array, odd keys use a section of a larger array.
+        forAllCombinations(key -> {
+            byte[] data = getData(key);
+            if (key.segmentId % 2 == 0) {
+                cache.insert(key, new ByteArraySegment(data));
+            } else {
+                byte[] buffer = new byte[data.length + 2];
+                System.arraycopy(data, 0, buffer, 1, data.length);
+                cache.insert(key, new ByteArraySegment(buffer, 1, data.length));
+            }
+        });
+
+        // Retrieve from the cache.
+        forAllCombinations(key -> {
+            byte[] expectedData = getData(key);
+            byte[] actualData = cache.get(key);
+            Assert.assertArrayEquals("Unexpected cache contents after insertion.", expectedData, actualData);
+        });
+    }
+
+    /**
+     * Tests the ability to append to existing entries.
+     */
+    @Test
+    public void testAppend() {
+        final int appendCount = 10;
+        @Cleanup
+        Cache cache = createCache(CACHE_ID);
+        CacheKey key = new CacheKey(0, 0);
+        CacheKey missingKey = new CacheKey(1, 0);
+        Assert.assertFalse("append() succeeded for a missing entry.", cache.append(missingKey, 0, new ByteArraySegment(new byte[1])));
+        Assert.assertNull("append() created a new entry.", cache.get(missingKey));
+
+        byte[] expectedData = new byte[0];
+        cache.insert(key, expectedData);
+        for (int i = 0; i < appendCount; i++) {
+            byte[] appendData = getData(new CacheKey(i, i));
+            Assert.assertFalse("append() succeeded with a wrong expected length.",
+                    cache.append(key, expectedData.length + 1, new ByteArraySegment(appendData)));
+            Assert.assertTrue("append() failed for an existing entry.",
+                    cache.append(key, expectedData.length, new ByteArraySegment(appendData)));
+
+            byte[] newData = new byte[expectedData.length + appendData.length];
+            System.arraycopy(expectedData, 0, newData, 0, expectedData.length);
+            System.arraycopy(appendData, 0, newData, expectedData.length, appendData.length);
+            expectedData = newData;
+            Assert.assertArrayEquals("Unexpected cache contents after append.", expectedData, cache.get(key));
+        }
+    }
+
     /**
      * Verifies that Remove actually removes from the cache.
      */
@@ -99,7 +158,7 @@ public abstract class CacheTestBase {
 
     @RequiredArgsConstructor
     @EqualsAndHashCode(callSuper = false)
-    private static class CacheKey extends Cache.Key {
+    protected static class CacheKey extends Cache.Key {
         private final long segmentId;
         private final long offset;
 
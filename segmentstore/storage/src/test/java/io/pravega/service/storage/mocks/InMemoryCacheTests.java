@@ -9,10 +9,13 @@
  */
 package io.pravega.service.storage.mocks;
 
+import io.pravega.common.util.ByteArraySegment;
 import io.pravega.service.storage.Cache;
 import io.pravega.service.storage.CacheTestBase;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Test;
 
 /**
  * Unit tests for InMemoryCache.
@@ -33,6 +36,24 @@ public class InMemoryCacheTests extends CacheTestBase {
         }
     }
 
+    /**
+     * Tests that multiple appends made between two reads are all combined, and that data handed out by an earlier
+     * read is not affected by them.
+     */
+    @Test
+    public void testAppendsBetweenReads() {
+        Cache cache = createCache("Test");
+        CacheKey key = new CacheKey(0, 0);
+        cache.insert(key, new byte[]{1, 2});
+        byte[] before = cache.get(key);
+        Assert.assertTrue(cache.append(key, 2, new ByteArraySegment(new byte[]{3})));
+        Assert.assertTrue(cache.append(key, 3, new ByteArraySegment(new byte[]{0, 4, 5}, 1, 2)));
+        Assert.assertFalse("append() succeeded with a stale expected length.",
+                cache.append(key, 3, new ByteArraySegment(new byte[]{6})));
+        Assert.assertArrayEquals("Unexpected cache contents after appends.", new byte[]{1, 2, 3, 4, 5}, cache.get(key));
+        Assert.assertArrayEquals("Previously read data was modified.", new byte[]{1, 2}, before);
+    }
+
     @Override
     protected Cache createCache(String cacheId) {
         return this.factory.getCache(cacheId);
@@ -23,11 +23,26 @@ public final class MetricsNames {
     public static final String HDFS_WRITE_LATENCY = "hdfs_write_latency_ms"; // Timer
     public static final String HDFS_READ_BYTES = "hdfs_read_bytes";          // Counter
     public static final String HDFS_WRITE_BYTES = "hdfs_write_bytes";        // Counter
+    public static final String HDFS_OUTPUT_STREAM_CACHE_HITS = "hdfs_output_stream_cache_hits";     // Counter
+    public static final String HDFS_OUTPUT_STREAM_CACHE_MISSES = "hdfs_output_stream_cache_misses"; // Counter
+    public static final String HDFS_INPUT_STREAM_CACHE_HITS = "hdfs_input_stream_cache_hits";       // Counter
+    public static final String HDFS_INPUT_STREAM_CACHE_MISSES = "hdfs_input_stream_cache_misses";   // Counter
 
     //DurableLog stats
     public static final String DURABLE_DATALOG_WRITE_LATENCY = "durable_datalog_write_latency"; // Timer
     public static final String DURABLE_DATALOG_WRITE_BYTES = "durable_datalog_write_bytes";     // Counter
 
+    //Container recovery stats
+    public static final String CONTAINER_RECOVERY_LATENCY = "container_recovery_latency_ms";     // Timer
+    public static final String CONTAINER_RECOVERY_OPERATIONS = "container_recovery_operations"; // Counter
+    public static final String CONTAINER_RECOVERY_FRAMES = "container_recovery_frames";         // Counter
+    public static final String CONTAINER_RECOVERIES_ACTIVE = "container_recoveries_active";     // Counter
+
+    // Metrics in Client
+    // Append batching stats
+    public static final String CLIENT_APPEND_BLOCK_SIZE = "client_append_block_size";         // Histogram
+    public static final String CLIENT_APPEND_ACK_LATENCY = "client_append_ack_latency_ms";    // Timer
+
     // Metrics in Controller
     // Stream request counts (Static)
     public static final String CREATE_STREAM = "stream_created";    // Histogram
@@ -46,6 +61,10 @@ public final class MetricsNames {
     public static final String SEGMENTS_SPLITS = "segment_splits"; // Dynamic Counter
     public static final String SEGMENTS_MERGES = "segment_merges"; // Dynamic Counter
 
+    // Stream metadata cache
+    public static final String METADATA_CACHE_HITS = "metadata_cache_hits";     // Counter
+    public static final String METADATA_CACHE_MISSES = "metadata_cache_misses"; // Counter
+
     private static String escapeSpecialChar(String name) {
         return name.replace('/', '.').replace(':', '.').replace('|', '.').replaceAll("\\s+", "_");
     }
@@ -29,6 +29,10 @@ import lombok.Data;
  * The AppendBlockEnd command should have all of the information need to construct a single
  * Append object with all of the Events in the block.
  * 
+ * The data in the commands received from {@link CommandDecoder} are retained slices of the network buffers. They are
+ * either handed off as part of the resulting Append (whose consumer releases them) or released here, including when
+ * the connection is closed in the middle of a block.
+ * 
  * @see CommandEncoder For details about handling of PartialEvents
  */
 public class AppendDecoder extends MessageToMessageDecoder<WireCommand> {
@@ -56,8 +60,30 @@ public class AppendDecoder extends MessageToMessageDecoder<WireCommand> {
         }
     }
     
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        releaseCurrentBlock();
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        releaseCurrentBlock();
+        super.handlerRemoved(ctx);
+    }
+
     @VisibleForTesting
     public Request processCommand(WireCommand command) throws Exception {
+        try {
+            return processCommandInternal(command);
+        } catch (Exception e) {
+            releaseData(command);
+            releaseCurrentBlock();
+            throw e;
+        }
+    }
+
+    private Request processCommandInternal(WireCommand command) throws Exception {
         if (currentBlock != null && command.getType() != WireCommandType.APPEND_BLOCK_END) {
             throw new InvalidMessageException("Unexpected " + command.getType() + " following a append block.");
         }
@@ -119,16 +145,23 @@ public class AppendDecoder extends MessageToMessageDecoder<WireCommand> {
         return result;
     }
     
+    /**
+     * Combines the data from the current block and the given blockEnd. The result takes over the references to both.
+     * (If it throws they are released by processCommand)
+     */
     private ByteBuf getAppendDataBuf(WireCommands.AppendBlockEnd blockEnd, int sizeOfWholeEventsInBlock) throws IOException {
         ByteBuf appendDataBuf = currentBlock.getData().slice(0, sizeOfWholeEventsInBlock);
         int remaining = currentBlock.getData().readableBytes() - sizeOfWholeEventsInBlock;
         if (remaining > 0) {
             ByteBuf dataRemainingInBlock = currentBlock.getData().slice(sizeOfWholeEventsInBlock, remaining);
-            WireCommand cmd = CommandDecoder.parseCommand(dataRemainingInBlock);
-            if (!(cmd.getType() == WireCommandType.PARTIAL_EVENT || cmd.getType() == WireCommandType.PADDING)) {
-                throw new InvalidMessageException("Found " + cmd.getType()
+            WireCommandType type = remaining < WireCommands.TYPE_SIZE ? null
+                    : WireCommands.getType(dataRemainingInBlock.getInt(dataRemainingInBlock.readerIndex()));
+            // Checked before parsing so that nothing else holding a slice of the block can be created.
+            if (!(type == WireCommandType.PARTIAL_EVENT || type == WireCommandType.PADDING)) {
+                throw new InvalidMessageException("Found " + type
                         + " at end of append block but was expecting a partialEvent or padding.");
             }
+            WireCommand cmd = CommandDecoder.parseCommand(dataRemainingInBlock);
             if (cmd.getType() == WireCommandType.PADDING && blockEnd.getData().readableBytes() != 0) {
                 throw new InvalidMessageException("Unexpected data in BlockEnd");
             }
@@ -143,8 +176,37 @@ public class AppendDecoder extends MessageToMessageDecoder<WireCommand> {
                 }
             }
         }
+        blockEnd.getData().release();
         return appendDataBuf;
     }
+
+    private void releaseCurrentBlock() {
+        if (currentBlock != null) {
+            currentBlock.getData().release();
+            currentBlock = null;
+        }
+    }
+
+    private static void releaseData(WireCommand command) {
+        ByteBuf data = null;
+        switch (command.getType()) {
+        case APPEND_BLOCK:
+            data = ((WireCommands.AppendBlock) command).getData();
+            break;
+        case APPEND_BLOCK_END:
+            data = ((WireCommands.AppendBlockEnd) command).getData();
+            break;
+        case CONDITIONAL_APPEND:
+            data = ((WireCommands.ConditionalAppend) command).getData();
+            break;
+            //$CASES-OMITTED$
+        default:
+            break;
+        }
+        if (data != null) {
+            data.release();
+        }
+    }
     
     private Segment getSegment(UUID connectionId) {
         Segment segment = appendingSegments.get(connectionId);
@@ -16,7 +16,6 @@ import java.util.List;
 import com.google.common.annotations.VisibleForTesting;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufInputStream;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import lombok.Cleanup;
@@ -42,10 +41,19 @@ public class CommandDecoder extends ByteToMessageDecoder {
         }
     }
 
+    /**
+     * Parses a single command from the given buffer. Any data carried by append related commands (Events,
+     * PartialEvents, AppendBlocks, AppendBlockEnds and ConditionalAppends) is returned as a retained slice of the
+     * given buffer rather than a copy, so it must be released by whoever consumes the command.
+     *
+     * @param in The buffer to read from.
+     * @return The parsed command.
+     * @throws IOException If the buffer does not contain a valid command.
+     */
     @VisibleForTesting
     public static WireCommand parseCommand(ByteBuf in) throws IOException {
         @Cleanup
-        ByteBufInputStream is = new ByteBufInputStream(in);
+        SlicingByteBufInputStream is = new SlicingByteBufInputStream(in);
         int readableBytes = in.readableBytes();
         if (readableBytes < WireCommands.TYPE_PLUS_LENGTH_SIZE) {
             throw new InvalidMessageException("Not enough bytes to read.");
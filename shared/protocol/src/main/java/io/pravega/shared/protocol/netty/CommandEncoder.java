@@ -18,13 +18,11 @@ import io.pravega.shared.protocol.netty.WireCommands.Padding;
 import io.pravega.shared.protocol.netty.WireCommands.PartialEvent;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import com.google.common.base.Preconditions;
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import static io.pravega.shared.protocol.netty.WireCommands.TYPE_PLUS_LENGTH_SIZE;
@@ -32,6 +30,7 @@ import static io.pravega.shared.protocol.netty.WireCommands.TYPE_SIZE;
 import static io.netty.buffer.Unpooled.wrappedBuffer;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
@@ -63,6 +62,8 @@ import lombok.extern.slf4j.Slf4j;
  * need to be parsed out of individual messages. Notably this includes the event number of the last
  * event in the block, so that it can be acknowledged.
  * 
+ * A connection may carry appends for several segments. The size of each block (and how long it may
+ * wait to be filled) is decided by the AppendBatchSizeTracker of the segment the block is for.
  */
 @NotThreadSafe
 @RequiredArgsConstructor
@@ -70,7 +71,10 @@ import lombok.extern.slf4j.Slf4j;
 public class CommandEncoder extends MessageToByteEncoder<Object> {
     private static final byte[] LENGTH_PLACEHOLDER = new byte[4];
 
-    private final AppendBatchSizeTracker blockSizeSupplier;
+    /**
+     * Returns the tracker for the writer of the given segment. (May return null, in which case appends are not batched)
+     */
+    private final Function<String, AppendBatchSizeTracker> batchSizeTrackers;
     private final HashMap<String, Session> setupSegments = new HashMap<>();
     private String segmentBeingAppendedTo;
     private int currentBlockSize;
@@ -100,7 +104,7 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
                 ConditionalAppend ca = new ConditionalAppend(append.connectionId,
                         append.eventNumber,
                         append.getExpectedLength(),
-                        wrappedBuffer(serializeMessage(new Event(append.getData()))));
+                        serializeEvent(append.getData()));
                 writeMessage(ca, out);
             } else {
                 Preconditions.checkState(bytesLeftInBlock == 0 || bytesLeftInBlock > TYPE_PLUS_LENGTH_SIZE,
@@ -109,13 +113,14 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
                     breakFromAppend(out);
                 }
                 if (bytesLeftInBlock == 0) {
-                    currentBlockSize = Math.max(TYPE_PLUS_LENGTH_SIZE, blockSizeSupplier.getAppendBlockSize());
+                    AppendBatchSizeTracker batchSizeTracker = batchSizeTrackers.apply(append.segment);
+                    currentBlockSize = Math.max(TYPE_PLUS_LENGTH_SIZE, batchSizeTracker == null ? 0 : batchSizeTracker.getAppendBlockSize());
                     bytesLeftInBlock = currentBlockSize;
                     segmentBeingAppendedTo = append.segment;
                     writeMessage(new AppendBlock(session.id), out);
-                    if (ctx != null) {
+                    if (ctx != null && batchSizeTracker != null) {
                         ctx.executor().schedule(new Flusher(ctx.channel(), currentBlockSize),
-                                                blockSizeSupplier.getBatchTimeout(),
+                                                batchSizeTracker.getBatchTimeout(),
                                                 TimeUnit.MILLISECONDS);
                     }
                 }
@@ -128,12 +133,11 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
                 if (bytesLeftInBlock - msgSize > TYPE_PLUS_LENGTH_SIZE) {
                     bytesLeftInBlock -= writeMessage(new Event(data), out);
                 } else {
-                    byte[] serializedMessage = serializeMessage(new Event(data));
+                    ByteBuf serializedMessage = serializeEvent(data);
                     int bytesInBlock = bytesLeftInBlock - TYPE_PLUS_LENGTH_SIZE;
-                    ByteBuf dataInsideBlock = wrappedBuffer(serializedMessage, 0, bytesInBlock);
-                    ByteBuf dataRemainging = wrappedBuffer(serializedMessage,
-                                                           bytesInBlock,
-                                                           serializedMessage.length - bytesInBlock);
+                    ByteBuf dataInsideBlock = serializedMessage.slice(0, bytesInBlock);
+                    ByteBuf dataRemainging = serializedMessage.slice(bytesInBlock,
+                                                                     serializedMessage.readableBytes() - bytesInBlock);
                     writeMessage(new PartialEvent(dataInsideBlock), out);
                     writeMessage(new AppendBlockEnd(session.id,
                                                     session.lastEventNumber,
@@ -174,19 +178,16 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
         segmentBeingAppendedTo = null;
     }
 
-    @SneakyThrows(IOException.class)
-    private byte[] serializeMessage(WireCommand msg) {
-        ByteArrayOutputStream bout = new ByteArrayOutputStream();
-        DataOutputStream out = new DataOutputStream(bout);
-        out.writeInt(msg.getType().getCode());
-        out.write(LENGTH_PLACEHOLDER);
-        msg.writeFields(out);
-        out.flush();
-        out.close();
-        byte[] result = bout.toByteArray();
-        ByteBuffer asBuffer = ByteBuffer.wrap(result);
-        asBuffer.putInt(TYPE_SIZE, result.length - TYPE_PLUS_LENGTH_SIZE);
-        return result;
+    /**
+     * Frames the given data as an Event without copying it. The result is a composite of a new header and the data
+     * itself, so it can be split between a PartialEvent and an AppendBlockEnd, or embedded in a ConditionalAppend,
+     * and is then copied only once: directly into the outgoing buffer.
+     */
+    private ByteBuf serializeEvent(ByteBuf data) {
+        ByteBuf header = Unpooled.buffer(TYPE_PLUS_LENGTH_SIZE);
+        header.writeInt(WireCommandType.EVENT.getCode());
+        header.writeInt(data.readableBytes());
+        return wrappedBuffer(header, data);
     }
 
     @SneakyThrows(IOException.class)
@@ -107,6 +107,21 @@ public abstract class DelegatingReplyProcessor implements ReplyProcessor {
         getNextReplyProcessor().segmentPolicyUpdated(segment);
     }
 
+    @Override
+    public void segmentsCreated(WireCommands.SegmentsCreated segmentsCreated) {
+        getNextReplyProcessor().segmentsCreated(segmentsCreated);
+    }
+
+    @Override
+    public void segmentsSealed(WireCommands.SegmentsSealed segmentsSealed) {
+        getNextReplyProcessor().segmentsSealed(segmentsSealed);
+    }
+
+    @Override
+    public void transactionsCommitted(WireCommands.TransactionsCommitted transactionsCommitted) {
+        getNextReplyProcessor().transactionsCommitted(transactionsCommitted);
+    }
+
     @Override
     public void keepAlive(WireCommands.KeepAlive keepAlive) {
         getNextReplyProcessor().keepAlive(keepAlive);
@@ -11,7 +11,9 @@ package io.pravega.shared.protocol.netty;
 
 import io.pravega.shared.protocol.netty.WireCommands.AbortTransaction;
 import io.pravega.shared.protocol.netty.WireCommands.CommitTransaction;
+import io.pravega.shared.protocol.netty.WireCommands.CommitTransactions;
 import io.pravega.shared.protocol.netty.WireCommands.CreateSegment;
+import io.pravega.shared.protocol.netty.WireCommands.CreateSegments;
 import io.pravega.shared.protocol.netty.WireCommands.CreateTransaction;
 import io.pravega.shared.protocol.netty.WireCommands.DeleteSegment;
 import io.pravega.shared.protocol.netty.WireCommands.GetStreamSegmentInfo;
@@ -19,6 +21,7 @@ import io.pravega.shared.protocol.netty.WireCommands.GetTransactionInfo;
 import io.pravega.shared.protocol.netty.WireCommands.KeepAlive;
 import io.pravega.shared.protocol.netty.WireCommands.ReadSegment;
 import io.pravega.shared.protocol.netty.WireCommands.SealSegment;
+import io.pravega.shared.protocol.netty.WireCommands.SealSegments;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentPolicy;
 
@@ -96,4 +99,23 @@ public abstract class DelegatingRequestProcessor implements RequestProcessor {
         getNextRequestProcessor().keepAlive(keepAlive);
     }
 
+    @Override
+    public void createSegments(CreateSegments createSegments) {
+        getNextRequestProcessor().createSegments(createSegments);
+    }
+
+    @Override
+    public void sealSegments(SealSegments sealSegments) {
+        getNextRequestProcessor().sealSegments(sealSegments);
+    }
+
+    @Override
+    public void commitTransactions(CommitTransactions commitTransactions) {
+        getNextRequestProcessor().commitTransactions(commitTransactions);
+    }
+
+    @Override
+    public void connectionDropped() {
+        getNextRequestProcessor().connectionDropped();
+    }
 }
@@ -23,11 +23,14 @@ import io.pravega.shared.protocol.netty.WireCommands.SegmentIsSealed;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentPolicyUpdated;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentRead;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentSealed;
+import io.pravega.shared.protocol.netty.WireCommands.SegmentsCreated;
+import io.pravega.shared.protocol.netty.WireCommands.SegmentsSealed;
 import io.pravega.shared.protocol.netty.WireCommands.StreamSegmentInfo;
 import io.pravega.shared.protocol.netty.WireCommands.TransactionAborted;
 import io.pravega.shared.protocol.netty.WireCommands.TransactionCommitted;
 import io.pravega.shared.protocol.netty.WireCommands.TransactionCreated;
 import io.pravega.shared.protocol.netty.WireCommands.TransactionInfo;
+import io.pravega.shared.protocol.netty.WireCommands.TransactionsCommitted;
 import io.pravega.shared.protocol.netty.WireCommands.WrongHost;
 import lombok.extern.slf4j.Slf4j;
 
@@ -135,6 +138,21 @@ public abstract class FailingReplyProcessor implements ReplyProcessor {
         throw new IllegalStateException("Unexpected operation: " + segment);
     }
 
+    @Override
+    public void segmentsCreated(SegmentsCreated segmentsCreated) {
+        throw new IllegalStateException("Unexpected operation: " + segmentsCreated);
+    }
+
+    @Override
+    public void segmentsSealed(SegmentsSealed segmentsSealed) {
+        throw new IllegalStateException("Unexpected operation: " + segmentsSealed);
+    }
+
+    @Override
+    public void transactionsCommitted(TransactionsCommitted transactionsCommitted) {
+        throw new IllegalStateException("Unexpected operation: " + transactionsCommitted);
+    }
+
     @Override
     public void keepAlive(KeepAlive keepAlive) {
         throw new IllegalStateException("Unexpected operation: " + keepAlive);
@@ -11,7 +11,9 @@ package io.pravega.shared.protocol.netty;
 
 import io.pravega.shared.protocol.netty.WireCommands.AbortTransaction;
 import io.pravega.shared.protocol.netty.WireCommands.CommitTransaction;
+import io.pravega.shared.protocol.netty.WireCommands.CommitTransactions;
 import io.pravega.shared.protocol.netty.WireCommands.CreateSegment;
+import io.pravega.shared.protocol.netty.WireCommands.CreateSegments;
 import io.pravega.shared.protocol.netty.WireCommands.CreateTransaction;
 import io.pravega.shared.protocol.netty.WireCommands.DeleteSegment;
 import io.pravega.shared.protocol.netty.WireCommands.GetStreamSegmentInfo;
@@ -20,6 +22,7 @@ import io.pravega.shared.protocol.netty.WireCommands.Hello;
 import io.pravega.shared.protocol.netty.WireCommands.KeepAlive;
 import io.pravega.shared.protocol.netty.WireCommands.ReadSegment;
 import io.pravega.shared.protocol.netty.WireCommands.SealSegment;
+import io.pravega.shared.protocol.netty.WireCommands.SealSegments;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentPolicy;
 import lombok.extern.slf4j.Slf4j;
@@ -101,4 +104,23 @@ public class FailingRequestProcessor implements RequestProcessor {
         log.debug("Received KeepAlive");
     }
 
+    @Override
+    public void createSegments(CreateSegments createSegments) {
+        throw new IllegalStateException("Unexpected operation");
+    }
+
+    @Override
+    public void sealSegments(SealSegments sealSegments) {
+        throw new IllegalStateException("Unexpected operation");
+    }
+
+    @Override
+    public void commitTransactions(CommitTransactions commitTransactions) {
+        throw new IllegalStateException("Unexpected operation");
+    }
+
+    @Override
+    public void connectionDropped() {
+        // Nothing is held here, so there is nothing to release.
+    }
 }
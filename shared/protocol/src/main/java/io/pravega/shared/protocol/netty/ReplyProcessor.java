@@ -56,6 +56,12 @@ public interface ReplyProcessor {
     void connectionDropped();
 
     void segmentPolicyUpdated(WireCommands.SegmentPolicyUpdated segmentPolicyUpdated);
+
+    void segmentsCreated(WireCommands.SegmentsCreated segmentsCreated);
+
+    void segmentsSealed(WireCommands.SegmentsSealed segmentsSealed);
+
+    void transactionsCommitted(WireCommands.TransactionsCommitted transactionsCommitted);
     
     void processingFailure(Exception error);
 }
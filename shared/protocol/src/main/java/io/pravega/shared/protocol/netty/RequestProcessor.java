@@ -11,7 +11,9 @@ package io.pravega.shared.protocol.netty;
 
 import io.pravega.shared.protocol.netty.WireCommands.AbortTransaction;
 import io.pravega.shared.protocol.netty.WireCommands.CommitTransaction;
+import io.pravega.shared.protocol.netty.WireCommands.CommitTransactions;
 import io.pravega.shared.protocol.netty.WireCommands.CreateSegment;
+import io.pravega.shared.protocol.netty.WireCommands.CreateSegments;
 import io.pravega.shared.protocol.netty.WireCommands.CreateTransaction;
 import io.pravega.shared.protocol.netty.WireCommands.DeleteSegment;
 import io.pravega.shared.protocol.netty.WireCommands.GetStreamSegmentInfo;
@@ -20,6 +22,7 @@ import io.pravega.shared.protocol.netty.WireCommands.Hello;
 import io.pravega.shared.protocol.netty.WireCommands.KeepAlive;
 import io.pravega.shared.protocol.netty.WireCommands.ReadSegment;
 import io.pravega.shared.protocol.netty.WireCommands.SealSegment;
+import io.pravega.shared.protocol.netty.WireCommands.SealSegments;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentPolicy;
 
@@ -54,4 +57,16 @@ public interface RequestProcessor {
     void keepAlive(KeepAlive keepAlive);
 
     void updateSegmentPolicy(UpdateSegmentPolicy updateSegmentPolicy);
+
+    void createSegments(CreateSegments createSegments);
+
+    void sealSegments(SealSegments sealSegments);
+
+    void commitTransactions(CommitTransactions commitTransactions);
+
+    /**
+     * Invoked when the connection the requests arrive on has been closed. Any request data that is still held (such as
+     * the data of Appends that have not been written yet) must be released.
+     */
+    void connectionDropped();
 }
@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.protocol.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import java.io.EOFException;
+
+/**
+ * A {@link ByteBufInputStream} that can hand out the bytes it is reading as slices of the underlying buffer, rather
+ * than copying them into a new array.
+ */
+class SlicingByteBufInputStream extends ByteBufInputStream {
+    private final ByteBuf buffer;
+
+    SlicingByteBufInputStream(ByteBuf buffer) {
+        super(buffer);
+        this.buffer = buffer;
+    }
+
+    /**
+     * Reads the next length bytes as a retained slice of the underlying buffer. The caller is responsible for
+     * releasing it.
+     *
+     * @param length The number of bytes to read.
+     * @return A slice of the underlying buffer that shares its memory.
+     * @throws EOFException If there are fewer than length bytes remaining.
+     */
+    ByteBuf readRetainedSlice(int length) throws EOFException {
+        if (length > buffer.readableBytes()) {
+            throw new EOFException();
+        }
+        return buffer.readRetainedSlice(length);
+    }
+}
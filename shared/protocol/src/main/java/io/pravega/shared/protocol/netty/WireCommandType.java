@@ -70,6 +70,16 @@ public enum WireCommandType {
     UPDATE_SEGMENT_POLICY(32, WireCommands.UpdateSegmentPolicy::readFrom),
     SEGMENT_POLICY_UPDATED(33, WireCommands.SegmentPolicyUpdated::readFrom),
 
+    // Added in wire version 2 (see WireCommands.BATCH_SEGMENT_COMMANDS_VERSION).
+    CREATE_SEGMENTS(34, WireCommands.CreateSegments::readFrom),
+    SEGMENTS_CREATED(35, WireCommands.SegmentsCreated::readFrom),
+
+    SEAL_SEGMENTS(36, WireCommands.SealSegments::readFrom),
+    SEGMENTS_SEALED(37, WireCommands.SegmentsSealed::readFrom),
+
+    COMMIT_TRANSACTIONS(38, WireCommands.CommitTransactions::readFrom),
+    TRANSACTIONS_COMMITTED(39, WireCommands.TransactionsCommitted::readFrom),
+
     WRONG_HOST(50, WireCommands.WrongHost::readFrom),
     SEGMENT_IS_SEALED(51, WireCommands.SegmentIsSealed::readFrom),
     SEGMENT_ALREADY_EXISTS(52, WireCommands.SegmentAlreadyExists::readFrom),
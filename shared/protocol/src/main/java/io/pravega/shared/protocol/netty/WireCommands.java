@@ -15,14 +15,18 @@ import java.io.DataOutput;
 import java.io.IOException;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import com.google.common.base.Preconditions;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.CorruptedFrameException;
 import lombok.Data;
@@ -42,8 +46,13 @@ import lombok.experimental.Accessors;
  * Incompatible changes should instead create a new WireCommand object.
  */
 public final class WireCommands {
-    public static final int WIRE_VERSION = 1;
+    public static final int WIRE_VERSION = 2;
     public static final int OLDEST_COMPATABLE_VERSION = 1;
+    /**
+     * The first version that supports CreateSegments, SealSegments and CommitTransactions. A peer running an older
+     * version cannot decode them, so the per segment commands need to be used with it instead.
+     */
+    public static final int BATCH_SEGMENT_COMMANDS_VERSION = 2;
     public static final int TYPE_SIZE = 4;
     public static final int TYPE_PLUS_LENGTH_SIZE = 8;
     public static final int MAX_WIRECOMMAND_SIZE = 0x007FFFFF; // 8MB
@@ -65,6 +74,38 @@ public final class WireCommands {
         WireCommand readFrom(DataInput in, int length) throws IOException;
     }
 
+    /**
+     * Writes the readable bytes of data. If the output is backed by a ByteBuf they are copied straight into it, which
+     * works for pooled, direct and composite buffers alike.
+     */
+    private static void writeData(DataOutput out, ByteBuf data) throws IOException {
+        if (out instanceof ByteBufOutputStream) {
+            ((ByteBufOutputStream) out).buffer().writeBytes(data, data.readerIndex(), data.readableBytes());
+        } else if (data.hasArray()) {
+            out.write(data.array(), data.arrayOffset() + data.readerIndex(), data.readableBytes());
+        } else {
+            byte[] bytes = new byte[data.readableBytes()];
+            data.getBytes(data.readerIndex(), bytes);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads length bytes of data. If the input is backed by a ByteBuf this is a retained slice of it (which must be
+     * released by the consumer of the command) rather than a copy.
+     */
+    private static ByteBuf readData(DataInput in, int length) throws IOException {
+        if (length <= 0) {
+            return Unpooled.EMPTY_BUFFER;
+        }
+        if (in instanceof SlicingByteBufInputStream) {
+            return ((SlicingByteBufInputStream) in).readRetainedSlice(length);
+        }
+        byte[] data = new byte[length];
+        in.readFully(data);
+        return wrappedBuffer(data);
+    }
+
     @Data
     public static final class Hello implements Request, Reply, WireCommand {
         final WireCommandType type = WireCommandType.HELLO;
@@ -272,13 +313,11 @@ public final class WireCommands {
 
         @Override
         public void writeFields(DataOutput out) throws IOException {
-            out.write(data.array(), data.arrayOffset(), data.readableBytes());
+            writeData(out, data);
         }
 
         public static WireCommand readFrom(DataInput in, int length) throws IOException {
-            byte[] msg = new byte[length];
-            in.readFully(msg);
-            return new PartialEvent(wrappedBuffer(msg));
+            return new PartialEvent(readData(in, length));
         }
     }
 
@@ -289,13 +328,11 @@ public final class WireCommands {
 
         @Override
         public void writeFields(DataOutput out) throws IOException {
-            out.write(data.array(), data.arrayOffset(), data.readableBytes());
+            writeData(out, data);
         }
 
         public static WireCommand readFrom(DataInput in, int length) throws IOException {
-            byte[] msg = new byte[length];
-            in.readFully(msg);
-            return new Event(wrappedBuffer(msg));
+            return new Event(readData(in, length));
         }
     }
 
@@ -352,9 +389,7 @@ public final class WireCommands {
 
         public static WireCommand readFrom(DataInput in, int length) throws IOException {
             UUID connectionId = new UUID(in.readLong(), in.readLong());
-            byte[] data = new byte[length - 16];
-            in.readFully(data);
-            return new AppendBlock(connectionId, wrappedBuffer(data));
+            return new AppendBlock(connectionId, readData(in, length - 16));
         }
     }
 
@@ -376,7 +411,7 @@ public final class WireCommands {
                 out.writeInt(0);
             } else {
                 out.writeInt(data.readableBytes());
-                out.write(data.array(), data.arrayOffset(), data.readableBytes());
+                writeData(out, data);
             }
         }
 
@@ -385,14 +420,7 @@ public final class WireCommands {
             long lastEventNumber = in.readLong();
             int sizeOfHeaderlessAppends = in.readInt();
             int dataLength = in.readInt();
-            byte[] data;
-            if (dataLength > 0) {
-                data = new byte[dataLength];
-                in.readFully(data);
-            } else {
-                data = new byte[0];
-            }
-            return new AppendBlockEnd(connectionId, lastEventNumber, sizeOfHeaderlessAppends, wrappedBuffer(data));
+            return new AppendBlockEnd(connectionId, lastEventNumber, sizeOfHeaderlessAppends, readData(in, dataLength));
         }
     }
     
@@ -415,7 +443,7 @@ public final class WireCommands {
                 out.writeInt(0);
             } else {
                 out.writeInt(data.readableBytes());
-                out.write(data.array(), data.arrayOffset(), data.readableBytes());
+                writeData(out, data);
             }
         }
 
@@ -424,14 +452,7 @@ public final class WireCommands {
             long eventNumber = in.readLong();
             long expectedOffset = in.readLong();
             int dataLength = in.readInt();
-            byte[] data;
-            if (dataLength > 0) {
-                data = new byte[dataLength];
-                in.readFully(data);
-            } else {
-                data = new byte[0];
-            }
-            return new ConditionalAppend(connectionId, eventNumber, expectedOffset, wrappedBuffer(data));
+            return new ConditionalAppend(connectionId, eventNumber, expectedOffset, readData(in, dataLength));
         }
     }
     
@@ -565,7 +586,11 @@ public final class WireCommands {
             out.writeBoolean(endOfSegment);
             int dataLength = data.remaining();
             out.writeInt(dataLength);
-            out.write(data.array(), data.arrayOffset() + data.position(), data.remaining());
+            if (data.hasArray()) {
+                out.write(data.array(), data.arrayOffset() + data.position(), data.remaining());
+            } else {
+                writeData(out, wrappedBuffer(data));
+            }
         }
 
         public static WireCommand readFrom(DataInput in, int length) throws IOException {
@@ -1098,6 +1123,231 @@ public final class WireCommands {
         }
     }
     
+    /**
+     * The outcome for one segment of a request that operates on several segments at once.
+     */
+    public enum SegmentResult {
+        SUCCESS(0),
+        ALREADY_EXISTS(1),
+        IS_SEALED(2),
+        NO_SUCH_SEGMENT(3),
+        WRONG_HOST(4),
+        FAILED(5);
+
+        private final byte code;
+
+        SegmentResult(int code) {
+            this.code = (byte) code;
+        }
+
+        public static SegmentResult fromCode(byte code) {
+            for (SegmentResult result : values()) {
+                if (result.code == code) {
+                    return result;
+                }
+            }
+            throw new CorruptedFrameException("Unknown segment result code: " + code);
+        }
+    }
+
+    private static void writeSegments(DataOutput out, List<String> segments) throws IOException {
+        out.writeInt(segments.size());
+        for (String segment : segments) {
+            out.writeUTF(segment);
+        }
+    }
+
+    private static List<String> readSegments(DataInput in) throws IOException {
+        int count = in.readInt();
+        List<String> segments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            segments.add(in.readUTF());
+        }
+        return segments;
+    }
+
+    private static void writeResults(DataOutput out, Map<String, SegmentResult> results) throws IOException {
+        out.writeInt(results.size());
+        for (Map.Entry<String, SegmentResult> entry : results.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeByte(entry.getValue().code);
+        }
+    }
+
+    private static Map<String, SegmentResult> readResults(DataInput in) throws IOException {
+        int count = in.readInt();
+        Map<String, SegmentResult> results = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String segment = in.readUTF();
+            results.put(segment, SegmentResult.fromCode(in.readByte()));
+        }
+        return results;
+    }
+
+    /**
+     * Creates several segments with the same scaling policy. (See {@link CreateSegment})
+     */
+    @Data
+    public static final class CreateSegments implements Request, WireCommand {
+        final WireCommandType type = WireCommandType.CREATE_SEGMENTS;
+        final long requestId;
+        final List<String> segments;
+        final byte scaleType;
+        final int targetRate;
+
+        @Override
+        public void process(RequestProcessor cp) {
+            cp.createSegments(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            writeSegments(out, segments);
+            out.writeInt(targetRate);
+            out.writeByte(scaleType);
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            List<String> segments = readSegments(in);
+            int desiredRate = in.readInt();
+            byte scaleType = in.readByte();
+            return new CreateSegments(requestId, segments, scaleType, desiredRate);
+        }
+    }
+
+    @Data
+    public static final class SegmentsCreated implements Reply, WireCommand {
+        final WireCommandType type = WireCommandType.SEGMENTS_CREATED;
+        final long requestId;
+        final Map<String, SegmentResult> results;
+
+        @Override
+        public void process(ReplyProcessor cp) {
+            cp.segmentsCreated(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            writeResults(out, results);
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            return new SegmentsCreated(requestId, readResults(in));
+        }
+    }
+
+    /**
+     * Seals several segments. (See {@link SealSegment})
+     */
+    @Data
+    public static final class SealSegments implements Request, WireCommand {
+        final WireCommandType type = WireCommandType.SEAL_SEGMENTS;
+        final long requestId;
+        final List<String> segments;
+
+        @Override
+        public void process(RequestProcessor cp) {
+            cp.sealSegments(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            writeSegments(out, segments);
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            return new SealSegments(requestId, readSegments(in));
+        }
+    }
+
+    @Data
+    public static final class SegmentsSealed implements Reply, WireCommand {
+        final WireCommandType type = WireCommandType.SEGMENTS_SEALED;
+        final long requestId;
+        final Map<String, SegmentResult> results;
+
+        @Override
+        public void process(ReplyProcessor cp) {
+            cp.segmentsSealed(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            writeResults(out, results);
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            return new SegmentsSealed(requestId, readResults(in));
+        }
+    }
+
+    /**
+     * Commits a transaction into several of its parent segments. (See {@link CommitTransaction})
+     * The results are keyed by parent segment.
+     */
+    @Data
+    public static final class CommitTransactions implements Request, WireCommand {
+        final WireCommandType type = WireCommandType.COMMIT_TRANSACTIONS;
+        final long requestId;
+        final List<String> segments;
+        final UUID txid;
+
+        @Override
+        public void process(RequestProcessor cp) {
+            cp.commitTransactions(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            writeSegments(out, segments);
+            out.writeLong(txid.getMostSignificantBits());
+            out.writeLong(txid.getLeastSignificantBits());
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            List<String> segments = readSegments(in);
+            UUID txid = new UUID(in.readLong(), in.readLong());
+            return new CommitTransactions(requestId, segments, txid);
+        }
+    }
+
+    @Data
+    public static final class TransactionsCommitted implements Reply, WireCommand {
+        final WireCommandType type = WireCommandType.TRANSACTIONS_COMMITTED;
+        final long requestId;
+        final UUID txid;
+        final Map<String, SegmentResult> results;
+
+        @Override
+        public void process(ReplyProcessor cp) {
+            cp.transactionsCommitted(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            out.writeLong(txid.getMostSignificantBits());
+            out.writeLong(txid.getLeastSignificantBits());
+            writeResults(out, results);
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            UUID txid = new UUID(in.readLong(), in.readLong());
+            return new TransactionsCommitted(requestId, txid, readResults(in));
+        }
+    }
+
     @Data
     public static final class KeepAlive implements Request, Reply, WireCommand {
         final WireCommandType type = WireCommandType.KEEP_ALIVE;
@@ -24,12 +24,14 @@ import org.junit.Test;
 import static io.pravega.shared.protocol.netty.WireCommandType.EVENT;
 import static io.pravega.shared.protocol.netty.WireCommands.TYPE_PLUS_LENGTH_SIZE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.util.ResourceLeakDetector;
 import io.netty.util.ResourceLeakDetector.Level;
@@ -41,7 +43,7 @@ public class AppendEncodeDecodeTest {
     private final int appendBlockSize = 1024;  
     private final UUID connectionId = new UUID(1, 2);
     private final String streamName = "Test Stream Name";
-    private final CommandEncoder encoder = new CommandEncoder(new FixedBatchSizeTracker(appendBlockSize));
+    private final CommandEncoder encoder = new CommandEncoder(segment -> new FixedBatchSizeTracker(appendBlockSize));
     private final FakeLengthDecoder lengthDecoder = new FakeLengthDecoder();
     private final AppendDecoder appendDecoder = new AppendDecoder();
     private Level origionalLogLevel;
@@ -109,7 +111,7 @@ public class AppendEncodeDecodeTest {
         Arrays.fill(content, (byte) 1);
         ByteBuf buffer = Unpooled.wrappedBuffer(content);
         Append msg = new Append("segment", connectionId, 1, buffer, null);
-        CommandEncoder commandEncoder = new CommandEncoder(new FixedBatchSizeTracker(3));
+        CommandEncoder commandEncoder = new CommandEncoder(segment -> new FixedBatchSizeTracker(3));
         SetupAppend setupAppend = new SetupAppend(1, connectionId, "segment");
         commandEncoder.encode(null, setupAppend, fakeNetwork);
         appendDecoder.processCommand(setupAppend);
@@ -262,6 +264,43 @@ public class AppendEncodeDecodeTest {
         sendAndVerifyEvents(streamName, connectionId, 2, size, 2);
     }
 
+    @Test
+    public void testDecodedAppendsShareNetworkBuffer() throws Exception {
+        int eventSize = appendBlockSize / 3;
+        @Cleanup("release")
+        ByteBuf fakeNetwork = ByteBufAllocator.DEFAULT.buffer();
+        ArrayList<Object> received = setupAppend(streamName, connectionId, fakeNetwork);
+        for (int i = 0; i < 10; i++) {
+            append(streamName, connectionId, eventSize * (i + 1L), i, eventSize, fakeNetwork);
+        }
+        KeepAlive keepAlive = new KeepAlive();
+        encoder.encode(null, keepAlive, fakeNetwork);
+        read(fakeNetwork, received);
+        assertEquals(keepAlive, received.remove(received.size() - 1));
+        // The decoded appends (including those with PartialEvents) are slices of the network buffer, not copies.
+        assertTrue(fakeNetwork.refCnt() > 1);
+        verify(received, 10, eventSize);
+        assertEquals(1, fakeNetwork.refCnt());
+    }
+
+    @Test
+    public void testConnectionDroppedMidBlock() throws Exception {
+        @Cleanup("finishAndReleaseAll")
+        EmbeddedChannel channel = new EmbeddedChannel(appendDecoder);
+        SetupAppend setupAppend = new SetupAppend(1, connectionId, streamName);
+        channel.writeInbound(setupAppend);
+        assertEquals(setupAppend, channel.readInbound());
+
+        ByteBuf blockData = ByteBufAllocator.DEFAULT.directBuffer(appendBlockSize);
+        blockData.writeZero(appendBlockSize / 2);
+        channel.writeInbound(new WireCommands.AppendBlock(connectionId, blockData));
+        assertNull("The AppendBlock should be held until its AppendBlockEnd arrives.", channel.readInbound());
+        assertEquals(1, blockData.refCnt());
+
+        channel.close();
+        assertEquals("The data of the open block was not released when the connection was dropped.", 0, blockData.refCnt());
+    }
+
     private ArrayList<Object> setupAppend(String testStream, UUID connectionId, ByteBuf fakeNetwork) throws Exception {
         SetupAppend setupAppend = new SetupAppend(1, connectionId, testStream);
         encoder.encode(null, setupAppend, fakeNetwork);
@@ -319,6 +358,7 @@ public class AppendEncodeDecodeTest {
                 currentCount++;
             }
             assertEquals(currentValue, append.getEventNumber());
+            append.getData().release();
         }
         assertEquals(numValues - 1, currentValue);
         assertEquals(currentCount, sizeOfEachValue);
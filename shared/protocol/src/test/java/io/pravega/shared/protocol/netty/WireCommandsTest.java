@@ -17,6 +17,9 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 import org.junit.Test;
 
@@ -203,6 +206,44 @@ public class WireCommandsTest {
         testCommand(new WireCommands.NoSuchTransaction(l, testString1));
     }
 
+    @Test
+    public void testCreateSegments() throws IOException {
+        testCommand(new WireCommands.CreateSegments(l, Arrays.asList(testString1, "Foo"), b, i));
+    }
+
+    @Test
+    public void testSegmentsCreated() throws IOException {
+        testCommand(new WireCommands.SegmentsCreated(l, results()));
+    }
+
+    @Test
+    public void testSealSegments() throws IOException {
+        testCommand(new WireCommands.SealSegments(l, Arrays.asList(testString1, "Foo")));
+    }
+
+    @Test
+    public void testSegmentsSealed() throws IOException {
+        testCommand(new WireCommands.SegmentsSealed(l, results()));
+    }
+
+    @Test
+    public void testCommitTransactions() throws IOException {
+        testCommand(new WireCommands.CommitTransactions(l, Arrays.asList(testString1, "Foo"), uuid));
+    }
+
+    @Test
+    public void testTransactionsCommitted() throws IOException {
+        testCommand(new WireCommands.TransactionsCommitted(l, uuid, results()));
+    }
+
+    private Map<String, WireCommands.SegmentResult> results() {
+        Map<String, WireCommands.SegmentResult> results = new LinkedHashMap<>();
+        for (WireCommands.SegmentResult result : WireCommands.SegmentResult.values()) {
+            results.put(testString1 + result, result);
+        }
+        return results;
+    }
+
     @Test
     public void testKeepAlive() throws IOException {
         testCommand(new WireCommands.KeepAlive());
@@ -54,6 +54,7 @@ public class InProcPravegaCluster implements AutoCloseable {
 
     private static final int THREADPOOL_SIZE = 20;
     private final boolean isInMemStorage;
+    private final boolean isFileLog;
 
     /* Cluster name */
     private final String clusterName = "singlenode-" + UUID.randomUUID();
@@ -95,7 +96,7 @@ public class InProcPravegaCluster implements AutoCloseable {
 
     @Builder
     public InProcPravegaCluster(boolean isInProcZK, String zkUrl, int zkPort, boolean isInMemStorage,
-                                boolean isInProcHDFS,
+                                boolean isFileLog, boolean isInProcHDFS,
                                 boolean isInProcController, int controllerCount, String controllerURI,
                                 boolean isInProcSegmentStore, int segmentStoreCount, int containerCount, boolean startRestServer) {
 
@@ -115,8 +116,10 @@ public class InProcPravegaCluster implements AutoCloseable {
         this.isInMemStorage = isInMemStorage;
         if ( isInMemStorage ) {
             this.isInProcHDFS = false;
+            this.isFileLog = false;
         } else {
             this.isInProcHDFS = isInProcHDFS;
+            this.isFileLog = isFileLog;
         }
         this.isInProcZK = isInProcZK;
         this.zkUrl = zkUrl;
@@ -255,7 +258,7 @@ public class InProcPravegaCluster implements AutoCloseable {
                     .zkSegmentManager(true);
 
             nodeServiceStarter[segmentStoreId] = new ServiceStarter(configBuilder.build(), optBuilder.hdfs(!isInMemStorage)
-                    .bookKeeper(!isInMemStorage).build());
+                    .bookKeeper(!isInMemStorage && !isFileLog).fileLog(isFileLog).build());
         } catch (Exception e) {
             throw e;
         }
@@ -170,7 +170,7 @@ public class ReadTest {
                                        .getSegments().iterator().next();
 
         @Cleanup("close")
-        SegmentOutputStream out = segmentproducerClient.createOutputStreamForSegment(segment);
+        SegmentOutputStream out = segmentproducerClient.createOutputStreamForSegment(segment, EventWriterConfig.builder().build());
         out.write(new PendingEvent(null, ByteBuffer.wrap(testString.getBytes()), new CompletableFuture<>()));
         out.flush();
 